@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.codegen;
+
+import java.util.Map;
+
+/**
+ * Generates the sources of the codecs, serializers, factories and hooks.
+ * <p>
+ * The generated sources refer to all types by their fully qualified
+ * names, so they can't clash with the names used by the annotated classes.
+ * Primitives and primitive arrays are written with the typed methods of
+ * the stream, so they are never boxed and use the fast paths of the stream
+ * implementation the serialization service is configured with, e.g. the
+ * {@code UnsafeObjectDataOutput} for the native byte order.
+ */
+final class CodecGenerator {
+
+    static final String OUTPUT = "com.hazelcast.nio.ObjectDataOutput";
+    static final String INPUT = "com.hazelcast.nio.ObjectDataInput";
+    static final String IO_EXCEPTION = "java.io.IOException";
+
+    private static final String INDENT = "    ";
+
+    private CodecGenerator() {
+    }
+
+    /**
+     * Generates the codec with the static {@code writeData} and
+     * {@code readData} methods of an annotated class.
+     *
+     * @param model     the annotated class
+     * @param constants the id constants of the codec
+     */
+    static String codec(CodecModel model, Map<String, Integer> constants) {
+        String codecName = model.generatedName("Codec");
+        String typeName = model.getTypeName();
+        StringBuilder source = header(model.getPackageName(), typeName);
+        line(source, 0, "public final class " + codecName + " {");
+        line(source, 0, "");
+        for (Map.Entry<String, Integer> constant : constants.entrySet()) {
+            line(source, 1, "public static final int " + constant.getKey() + " = " + constant.getValue() + ";");
+        }
+        if (!constants.isEmpty()) {
+            line(source, 0, "");
+        }
+        line(source, 1, "private " + codecName + "() {");
+        line(source, 1, "}");
+        line(source, 0, "");
+        line(source, 1, "public static void writeData(" + OUTPUT + " out, " + typeName + " object) throws "
+                + IO_EXCEPTION + " {");
+        for (FieldModel field : model.getFields()) {
+            write(source, field);
+        }
+        line(source, 1, "}");
+        line(source, 0, "");
+        line(source, 1, "public static void readData(" + INPUT + " in, " + typeName + " object) throws "
+                + IO_EXCEPTION + " {");
+        for (FieldModel field : model.getFields()) {
+            read(source, field);
+        }
+        line(source, 1, "}");
+        line(source, 0, "}");
+        return source.toString();
+    }
+
+    /**
+     * Generates the stream serializer of a class annotated with
+     * {@code GenerateStreamSerializer}.
+     */
+    static String streamSerializer(CodecModel model) {
+        String codecName = model.generatedName("Codec");
+        String typeName = model.getTypeName();
+        StringBuilder source = header(model.getPackageName(), typeName);
+        line(source, 0, "public final class " + model.generatedName("Serializer")
+                + " implements com.hazelcast.nio.serialization.StreamSerializer<" + typeName + "> {");
+        line(source, 0, "");
+        line(source, 1, "@Override");
+        line(source, 1, "public int getTypeId() {");
+        line(source, 2, "return " + codecName + ".TYPE_ID;");
+        line(source, 1, "}");
+        line(source, 0, "");
+        line(source, 1, "@Override");
+        line(source, 1, "public void write(" + OUTPUT + " out, " + typeName + " object) throws " + IO_EXCEPTION + " {");
+        line(source, 2, codecName + ".writeData(out, object);");
+        line(source, 1, "}");
+        line(source, 0, "");
+        line(source, 1, "@Override");
+        line(source, 1, "public " + typeName + " read(" + INPUT + " in) throws " + IO_EXCEPTION + " {");
+        line(source, 2, typeName + " object = new " + typeName + "();");
+        line(source, 2, codecName + ".readData(in, object);");
+        line(source, 2, "return object;");
+        line(source, 1, "}");
+        line(source, 0, "}");
+        return source.toString();
+    }
+
+    /**
+     * Generates the hook which registers the stream serializer of a class
+     * annotated with {@code GenerateStreamSerializer}.
+     */
+    static String serializerHook(CodecModel model) {
+        String typeName = model.getTypeName();
+        StringBuilder source = header(model.getPackageName(), typeName);
+        line(source, 0, "public final class " + model.generatedName("SerializerHook")
+                + " implements com.hazelcast.nio.serialization.SerializerHook<" + typeName + "> {");
+        line(source, 0, "");
+        line(source, 1, "@Override");
+        line(source, 1, "public java.lang.Class<" + typeName + "> getSerializationType() {");
+        line(source, 2, "return " + typeName + ".class;");
+        line(source, 1, "}");
+        line(source, 0, "");
+        line(source, 1, "@Override");
+        line(source, 1, "public com.hazelcast.nio.serialization.Serializer createSerializer() {");
+        line(source, 2, "return new " + model.generatedName("Serializer") + "();");
+        line(source, 1, "}");
+        line(source, 0, "");
+        line(source, 1, "@Override");
+        line(source, 1, "public boolean isOverwritable() {");
+        line(source, 2, "return true;");
+        line(source, 1, "}");
+        line(source, 0, "}");
+        return source.toString();
+    }
+
+    /**
+     * Generates the factory of the classes annotated with
+     * {@code GenerateDataSerializable} which share a factory id.
+     *
+     * @param packageName the package of the factory
+     * @param name        the simple name of the factory
+     * @param factoryId   the factory id
+     * @param classIds    the class ids mapped to the canonical names of their classes
+     */
+    @SuppressWarnings("checkstyle:magicnumber")
+    static String dataSerializableFactory(String packageName, String name, int factoryId, Map<Integer, String> classIds) {
+        StringBuilder source = header(packageName, null);
+        line(source, 0, "public final class " + name + " implements com.hazelcast.nio.serialization.DataSerializableFactory {");
+        line(source, 0, "");
+        line(source, 1, "public static final int FACTORY_ID = " + factoryId + ";");
+        line(source, 0, "");
+        line(source, 1, "@Override");
+        line(source, 1, "public com.hazelcast.nio.serialization.IdentifiedDataSerializable create(int classId) {");
+        line(source, 2, "switch (classId) {");
+        for (Map.Entry<Integer, String> entry : classIds.entrySet()) {
+            line(source, 3, "case " + entry.getKey() + ":");
+            line(source, 4, "return new " + entry.getValue() + "();");
+        }
+        line(source, 3, "default:");
+        line(source, 4, "return null;");
+        line(source, 2, "}");
+        line(source, 1, "}");
+        line(source, 0, "}");
+        return source.toString();
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static void write(StringBuilder source, FieldModel field) {
+        String value = field.readExpression("object");
+        switch (field.getEncoding()) {
+            case PRIMITIVE:
+                line(source, 2, "out.write" + field.getStreamType() + "(" + value + ");");
+                break;
+            case PRIMITIVE_ARRAY:
+                line(source, 2, "out.write" + field.getStreamType() + "Array(" + value + ");");
+                break;
+            case BOXED:
+                line(source, 2, "{");
+                line(source, 3, field.getTypeName() + " value = " + value + ";");
+                line(source, 3, "out.writeBoolean(value != null);");
+                line(source, 3, "if (value != null) {");
+                line(source, 4, "out.write" + field.getStreamType() + "(value);");
+                line(source, 3, "}");
+                line(source, 2, "}");
+                break;
+            case UTF:
+                line(source, 2, "out.writeUTF(" + value + ");");
+                break;
+            case UTF_ARRAY:
+                line(source, 2, "out.writeUTFArray(" + value + ");");
+                break;
+            case ENUM:
+                line(source, 2, "{");
+                line(source, 3, field.getTypeName() + " value = " + value + ";");
+                line(source, 3, "out.writeUTF(value == null ? null : value.name());");
+                line(source, 2, "}");
+                break;
+            default:
+                line(source, 2, "out.writeObject(" + value + ");");
+        }
+    }
+
+    private static void read(StringBuilder source, FieldModel field) {
+        switch (field.getEncoding()) {
+            case PRIMITIVE:
+                line(source, 2, field.assignStatement("object", "in.read" + field.getStreamType() + "()"));
+                break;
+            case PRIMITIVE_ARRAY:
+                line(source, 2, field.assignStatement("object", "in.read" + field.getStreamType() + "Array()"));
+                break;
+            case BOXED:
+                line(source, 2, field.assignStatement("object", "in.readBoolean() ? " + field.getTypeName()
+                        + ".valueOf(in.read" + field.getStreamType() + "()) : null"));
+                break;
+            case UTF:
+                line(source, 2, field.assignStatement("object", "in.readUTF()"));
+                break;
+            case UTF_ARRAY:
+                line(source, 2, field.assignStatement("object", "in.readUTFArray()"));
+                break;
+            case ENUM:
+                line(source, 2, "{");
+                line(source, 3, "java.lang.String name = in.readUTF();");
+                line(source, 3, field.assignStatement("object", "name == null ? null : " + field.getTypeName()
+                        + ".valueOf(name)"));
+                line(source, 2, "}");
+                break;
+            default:
+                line(source, 2, field.assignStatement("object", "in.readObject()"));
+        }
+    }
+
+    private static StringBuilder header(String packageName, String typeName) {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            line(source, 0, "package " + packageName + ";");
+            line(source, 0, "");
+        }
+        line(source, 0, "/**");
+        if (typeName != null) {
+            line(source, 0, " * Generated for {@link " + typeName + "} by " + SerializerCodecProcessor.class.getName()
+                    + ", do not edit.");
+        } else {
+            line(source, 0, " * Generated by " + SerializerCodecProcessor.class.getName() + ", do not edit.");
+        }
+        line(source, 0, " */");
+        return source;
+    }
+
+    private static void line(StringBuilder source, int indent, String line) {
+        if (!line.isEmpty()) {
+            for (int i = 0; i < indent; i++) {
+                source.append(INDENT);
+            }
+            source.append(line);
+        }
+        source.append('\n');
+    }
+}
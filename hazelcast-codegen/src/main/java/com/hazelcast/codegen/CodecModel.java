@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.codegen;
+
+import com.hazelcast.codegen.FieldModel.Encoding;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The model of an annotated class: its names and its serialized fields.
+ */
+final class CodecModel {
+
+    private static final List<String> BOXED_TYPES = unmodifiableList(asList(
+            Boolean.class.getName(), Byte.class.getName(), Character.class.getName(), Short.class.getName(),
+            Integer.class.getName(), Long.class.getName(), Float.class.getName(), Double.class.getName()));
+
+    private final TypeElement type;
+    private final String packageName;
+    private final String flatName;
+    private final List<FieldModel> fields;
+
+    private CodecModel(TypeElement type, String packageName, String flatName, List<FieldModel> fields) {
+        this.type = type;
+        this.packageName = packageName;
+        this.flatName = flatName;
+        this.fields = fields;
+    }
+
+    TypeElement getType() {
+        return type;
+    }
+
+    String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * Returns the canonical name of the annotated class.
+     */
+    String getTypeName() {
+        return type.getQualifiedName().toString();
+    }
+
+    /**
+     * Returns the simple name of a generated class for the annotated class,
+     * e.g. {@code Outer_InnerCodec} for the {@code Codec} suffix.
+     */
+    String generatedName(String suffix) {
+        return flatName + suffix;
+    }
+
+    String qualifiedName(String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    List<FieldModel> getFields() {
+        return fields;
+    }
+
+    static CodecModel create(TypeElement type, ProcessingEnvironment env) throws CodecException {
+        Elements elements = env.getElementUtils();
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        checkType(type, packageName, elements);
+
+        List<FieldModel> fields = new ArrayList<>();
+        for (TypeElement declaring : hierarchy(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(declaring.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                fields.add(createField(type, field, packageName, env));
+            }
+        }
+        return new CodecModel(type, packageName, flatName(type), fields);
+    }
+
+    private static void checkType(TypeElement type, String packageName, Elements elements) throws CodecException {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new CodecException("Only concrete classes can be annotated to generate a codec", type);
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new CodecException("Generic classes are not supported", type);
+        }
+        if (type.getModifiers().contains(Modifier.PRIVATE)
+                || type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)
+                || type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            throw new CodecException("The class must be a non-private top level or static nested class", type);
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && isAccessible(constructor, packageName, elements)) {
+                return;
+            }
+        }
+        throw new CodecException("The class must have a non-private no-arg constructor", type);
+    }
+
+    private static FieldModel createField(TypeElement owner, VariableElement field, String packageName,
+                                          ProcessingEnvironment env) throws CodecException {
+        Types types = env.getTypeUtils();
+        Elements elements = env.getElementUtils();
+        String name = field.getSimpleName().toString();
+        TypeMirror fieldType = types.asMemberOf((DeclaredType) owner.asType(), field);
+
+        String getter = null;
+        String setter = null;
+        if (!isAccessible(field, packageName, elements) || field.getModifiers().contains(Modifier.FINAL)) {
+            getter = findAccessor(owner, fieldType, getterNames(name, fieldType), false, packageName, env);
+            setter = findAccessor(owner, fieldType, new String[]{"set" + capitalize(name)}, true, packageName, env);
+            if (getter == null || setter == null) {
+                throw new CodecException("Field '" + name + "' is private or final and has no accessible getter and setter",
+                        field);
+            }
+        }
+
+        return createField(name, fieldType, getter, setter, types);
+    }
+
+    private static FieldModel createField(String name, TypeMirror fieldType, String getter, String setter, Types types) {
+        TypeKind kind = fieldType.getKind();
+        if (kind.isPrimitive()) {
+            return new FieldModel(name, fieldType.toString(), Encoding.PRIMITIVE, streamType(kind), getter, setter);
+        }
+        String typeName = types.erasure(fieldType).toString();
+        if (kind == TypeKind.ARRAY) {
+            TypeMirror componentType = ((ArrayType) fieldType).getComponentType();
+            if (componentType.getKind().isPrimitive()) {
+                return new FieldModel(name, typeName, Encoding.PRIMITIVE_ARRAY, streamType(componentType.getKind()),
+                        getter, setter);
+            } else if (String.class.getName().equals(componentType.toString())) {
+                return new FieldModel(name, typeName, Encoding.UTF_ARRAY, null, getter, setter);
+            }
+        } else if (kind == TypeKind.DECLARED) {
+            Element element = types.asElement(fieldType);
+            if (String.class.getName().equals(typeName)) {
+                return new FieldModel(name, typeName, Encoding.UTF, null, getter, setter);
+            } else if (BOXED_TYPES.contains(typeName)) {
+                TypeKind primitiveKind = types.unboxedType(fieldType).getKind();
+                return new FieldModel(name, typeName, Encoding.BOXED, streamType(primitiveKind), getter, setter);
+            } else if (element.getKind() == ElementKind.ENUM) {
+                return new FieldModel(name, typeName, Encoding.ENUM, null, getter, setter);
+            }
+        }
+        return new FieldModel(name, typeName, Encoding.OBJECT, null, getter, setter);
+    }
+
+    private static String findAccessor(TypeElement owner, TypeMirror fieldType, String[] names, boolean setter,
+                                       String packageName, ProcessingEnvironment env) {
+        Types types = env.getTypeUtils();
+        Elements elements = env.getElementUtils();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(owner))) {
+            String methodName = method.getSimpleName().toString();
+            if (method.getModifiers().contains(Modifier.STATIC) || !isAccessible(method, packageName, elements)) {
+                continue;
+            }
+            for (String name : names) {
+                if (!name.equals(methodName)) {
+                    continue;
+                }
+                if (setter && method.getParameters().size() == 1
+                        && types.isSameType(method.getParameters().get(0).asType(), fieldType)) {
+                    return methodName;
+                }
+                if (!setter && method.getParameters().isEmpty() && types.isSameType(method.getReturnType(), fieldType)) {
+                    return methodName;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String[] getterNames(String name, TypeMirror fieldType) {
+        String capitalized = capitalize(name);
+        return fieldType.getKind() == TypeKind.BOOLEAN
+                ? new String[]{"is" + capitalized, "get" + capitalized}
+                : new String[]{"get" + capitalized};
+    }
+
+    private static boolean isAccessible(Element member, String packageName, Elements elements) {
+        if (member.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return member.getModifiers().contains(Modifier.PUBLIC)
+                || packageName.equals(elements.getPackageOf(member).getQualifiedName().toString());
+    }
+
+    /**
+     * Returns the class and its superclasses up to {@link Object}, the
+     * topmost superclass first.
+     */
+    private static Deque<TypeElement> hierarchy(TypeElement type) {
+        Deque<TypeElement> hierarchy = new ArrayDeque<>();
+        TypeElement current = type;
+        while (current != null && !Object.class.getName().equals(current.getQualifiedName().toString())) {
+            hierarchy.addFirst(current);
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) superclass).asElement()
+                    : null;
+        }
+        return hierarchy;
+    }
+
+    private static String flatName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing.getKind().isClass() || enclosing.getKind().isInterface()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.toString();
+    }
+
+    private static String streamType(TypeKind kind) {
+        return capitalize(kind.name().toLowerCase(Locale.ROOT));
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.codegen;
+
+/**
+ * A serialized field of an annotated class together with the way it is
+ * accessed and encoded by the generated codec.
+ */
+final class FieldModel {
+
+    /**
+     * How the value of a field is written to the stream.
+     */
+    enum Encoding {
+        /**
+         * A primitive, written with the typed method of the stream
+         */
+        PRIMITIVE,
+        /**
+         * A primitive array, written with the typed array method of the stream
+         */
+        PRIMITIVE_ARRAY,
+        /**
+         * A boxed primitive, written as a null flag and the primitive value
+         */
+        BOXED,
+        /**
+         * A string
+         */
+        UTF,
+        /**
+         * A string array
+         */
+        UTF_ARRAY,
+        /**
+         * An enum, written as the name of the constant
+         */
+        ENUM,
+        /**
+         * Any other type, written through the serialization service
+         */
+        OBJECT
+    }
+
+    private final String name;
+    private final String typeName;
+    private final Encoding encoding;
+    private final String streamType;
+    private final String getter;
+    private final String setter;
+
+    /**
+     * @param name       the name of the field
+     * @param typeName   the erased type of the field in the source form
+     * @param encoding   the encoding of the field
+     * @param streamType the suffix of the stream methods of the primitive encodings,
+     *                   e.g. {@code Int} for {@code writeInt}, {@code null} otherwise
+     * @param getter     the getter of the field, {@code null} if the field is accessed directly
+     * @param setter     the setter of the field, {@code null} if the field is accessed directly
+     */
+    FieldModel(String name, String typeName, Encoding encoding, String streamType, String getter, String setter) {
+        this.name = name;
+        this.typeName = typeName;
+        this.encoding = encoding;
+        this.streamType = streamType;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getTypeName() {
+        return typeName;
+    }
+
+    Encoding getEncoding() {
+        return encoding;
+    }
+
+    String getStreamType() {
+        return streamType;
+    }
+
+    String readExpression(String target) {
+        return getter == null ? target + "." + name : target + "." + getter + "()";
+    }
+
+    String assignStatement(String target, String value) {
+        return setter == null ? target + "." + name + " = " + value + ";" : target + "." + setter + "(" + value + ");";
+    }
+}
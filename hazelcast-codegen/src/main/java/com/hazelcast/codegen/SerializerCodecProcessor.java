@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.codegen;
+
+import com.hazelcast.nio.serialization.GenerateDataSerializable;
+import com.hazelcast.nio.serialization.GenerateStreamSerializer;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Generates the serialization codecs of the classes annotated with
+ * {@link GenerateDataSerializable} and {@link GenerateStreamSerializer}.
+ * <p>
+ * For every annotated class a codec with static {@code writeData} and
+ * {@code readData} methods is generated. The classes annotated with
+ * {@link GenerateStreamSerializer} also get a stream serializer and a
+ * serializer hook; the hooks are appended to the {@code META-INF/services}
+ * file Hazelcast loads the serializer hooks from. The ones annotated with
+ * {@link GenerateDataSerializable} are created by a
+ * {@link com.hazelcast.nio.serialization.DataSerializableFactory} generated
+ * for each factory id, which is registered like any other factory, e.g. with
+ * {@link com.hazelcast.config.SerializationConfig#addDataSerializableFactory(int,
+ * com.hazelcast.nio.serialization.DataSerializableFactory)}.
+ * <p>
+ * The generated sources use the public serialization API only.
+ */
+public class SerializerCodecProcessor extends AbstractProcessor {
+
+    static final String SERIALIZER_HOOKS = "META-INF/services/com.hazelcast.SerializerHook";
+
+    private final Map<String, Set<String>> services = new LinkedHashMap<>();
+    private final Set<Integer> factoryIds = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        Set<String> types = new LinkedHashSet<>();
+        types.add(GenerateDataSerializable.class.getName());
+        types.add(GenerateStreamSerializer.class.getName());
+        return types;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServices();
+            return false;
+        }
+        processStreamSerializers(roundEnv);
+        processDataSerializables(roundEnv);
+        return true;
+    }
+
+    private void processStreamSerializers(RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(GenerateStreamSerializer.class))) {
+            try {
+                if (type.getAnnotation(GenerateDataSerializable.class) != null) {
+                    throw new CodecException("A class can be annotated either with @GenerateStreamSerializer"
+                            + " or with @GenerateDataSerializable", type);
+                }
+                int typeId = type.getAnnotation(GenerateStreamSerializer.class).typeId();
+                if (typeId <= 0) {
+                    throw new CodecException("The type id must be positive: " + typeId, type);
+                }
+                CodecModel model = CodecModel.create(type, processingEnv);
+                Map<String, Integer> constants = new LinkedHashMap<>();
+                constants.put("TYPE_ID", typeId);
+                writeSource(model.qualifiedName(model.generatedName("Codec")), CodecGenerator.codec(model, constants), type);
+                writeSource(model.qualifiedName(model.generatedName("Serializer")),
+                        CodecGenerator.streamSerializer(model), type);
+                String hookName = model.qualifiedName(model.generatedName("SerializerHook"));
+                writeSource(hookName, CodecGenerator.serializerHook(model), type);
+                services.computeIfAbsent(SERIALIZER_HOOKS, k -> new LinkedHashSet<>()).add(hookName);
+            } catch (CodecException e) {
+                error(e.getMessage(), e.getElement());
+            }
+        }
+    }
+
+    private void processDataSerializables(RoundEnvironment roundEnv) {
+        Map<Integer, List<CodecModel>> factories = new TreeMap<>();
+        TypeElement identifiedDataSerializable = processingEnv.getElementUtils()
+                .getTypeElement(IdentifiedDataSerializable.class.getName());
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(GenerateDataSerializable.class))) {
+            try {
+                if (!processingEnv.getTypeUtils().isAssignable(type.asType(), identifiedDataSerializable.asType())) {
+                    throw new CodecException("A class annotated with @GenerateDataSerializable must implement "
+                            + IdentifiedDataSerializable.class.getName(), type);
+                }
+                GenerateDataSerializable annotation = type.getAnnotation(GenerateDataSerializable.class);
+                CodecModel model = CodecModel.create(type, processingEnv);
+                Map<String, Integer> constants = new LinkedHashMap<>();
+                constants.put("FACTORY_ID", annotation.factoryId());
+                constants.put("CLASS_ID", annotation.classId());
+                writeSource(model.qualifiedName(model.generatedName("Codec")), CodecGenerator.codec(model, constants), type);
+                factories.computeIfAbsent(annotation.factoryId(), k -> new ArrayList<>()).add(model);
+            } catch (CodecException e) {
+                error(e.getMessage(), e.getElement());
+            }
+        }
+        for (Map.Entry<Integer, List<CodecModel>> factory : factories.entrySet()) {
+            try {
+                writeFactory(factory.getKey(), factory.getValue());
+            } catch (CodecException e) {
+                error(e.getMessage(), e.getElement());
+            }
+        }
+    }
+
+    /**
+     * Writes the factory of the classes sharing a factory id into the
+     * package of the first of them.
+     */
+    private void writeFactory(int factoryId, List<CodecModel> models) throws CodecException {
+        CodecModel first = models.get(0);
+        if (!factoryIds.add(factoryId)) {
+            throw new CodecException("The factory " + factoryId + " was generated in a previous processing round",
+                    first.getType());
+        }
+        Map<Integer, String> classIds = new TreeMap<>();
+        for (CodecModel model : models) {
+            int classId = model.getType().getAnnotation(GenerateDataSerializable.class).classId();
+            if (classIds.containsKey(classId)) {
+                throw new CodecException("The class id " + classId + " is already used in the factory " + factoryId
+                        + " by " + classIds.get(classId), model.getType());
+            }
+            if (!model.getPackageName().equals(first.getPackageName()) && !isPublicWithPublicConstructor(model.getType())) {
+                throw new CodecException("The class must be public and have a public no-arg constructor to be created"
+                        + " by the factory " + factoryId + " in the package " + first.getPackageName(), model.getType());
+            }
+            classIds.put(classId, model.getTypeName());
+        }
+        String suffix = factoryId < 0 ? "Minus" + Math.abs((long) factoryId) : String.valueOf(factoryId);
+        String factoryName = "GeneratedDataSerializableFactory" + suffix;
+        Element[] origins = new Element[models.size()];
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] = models.get(i).getType();
+        }
+        writeSource(first.qualifiedName(factoryName),
+                CodecGenerator.dataSerializableFactory(first.getPackageName(), factoryName, factoryId, classIds), origins);
+    }
+
+    private static boolean isPublicWithPublicConstructor(TypeElement type) {
+        if (!type.getModifiers().contains(Modifier.PUBLIC)) {
+            return false;
+        }
+        return ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC));
+    }
+
+    private void writeSource(String name, String source, Element... origins) {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(name, origins);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            error("Could not write " + name + ": " + e, origins[0]);
+        }
+    }
+
+    /**
+     * Appends the generated hooks to the services files, keeping the hooks
+     * already listed in them, e.g. by the resources of the project.
+     */
+    private void writeServices() {
+        Filer filer = processingEnv.getFiler();
+        for (Map.Entry<String, Set<String>> service : services.entrySet()) {
+            String resource = service.getKey();
+            Set<String> hooks = new LinkedHashSet<>(readServices(filer, resource));
+            hooks.addAll(service.getValue());
+            try {
+                FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", resource);
+                try (Writer writer = new OutputStreamWriter(file.openOutputStream(), UTF_8)) {
+                    for (String hook : hooks) {
+                        writer.write(hook);
+                        writer.write('\n');
+                    }
+                }
+            } catch (IOException e) {
+                error("Could not write " + resource + ": " + e, null);
+            }
+        }
+        services.clear();
+    }
+
+    private static Collection<String> readServices(Filer filer, String resource) {
+        List<String> hooks = new ArrayList<>();
+        try {
+            FileObject file = filer.getResource(StandardLocation.CLASS_OUTPUT, "", resource);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(), UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        hooks.add(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // the services file does not exist yet
+            return hooks;
+        }
+        return hooks;
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.codegen;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.GenerateDataSerializable;
+import com.hazelcast.nio.serialization.GenerateStreamSerializer;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generated codecs with a hand-written IdentifiedDataSerializable
+ * codec of the same fields, and with Java serialization as the reflective
+ * baseline. Run with {@code useNativeByteOrder=true} to measure the codecs
+ * on the UnsafeObjectDataOutput fast path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GeneratedCodecBenchmark {
+
+    private static final int HAND_WRITTEN_FACTORY_ID = 4710;
+
+    @Param({"false", "true"})
+    public boolean useNativeByteOrder;
+
+    private InternalSerializationService serializationService;
+
+    private HandWrittenPerson handWritten;
+    private GeneratedPerson generated;
+    private StreamPerson stream;
+    private JavaPerson java;
+
+    private Data handWrittenData;
+    private Data generatedData;
+    private Data streamData;
+    private Data javaData;
+
+    @Setup
+    public void setup() {
+        SerializationConfig config = new SerializationConfig()
+                .setUseNativeByteOrder(useNativeByteOrder)
+                .addDataSerializableFactory(HAND_WRITTEN_FACTORY_ID, classId -> new HandWrittenPerson())
+                .addDataSerializableFactory(GeneratedCodecBenchmark_GeneratedPersonCodec.FACTORY_ID,
+                        new GeneratedDataSerializableFactory4712());
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(config).build();
+
+        handWritten = new HandWrittenPerson().init();
+        generated = new GeneratedPerson().init();
+        stream = new StreamPerson().init();
+        java = new JavaPerson().init();
+
+        handWrittenData = serializationService.toData(handWritten);
+        generatedData = serializationService.toData(generated);
+        streamData = serializationService.toData(stream);
+        javaData = serializationService.toData(java);
+    }
+
+    @Benchmark
+    public Data toData_handWritten() {
+        return serializationService.toData(handWritten);
+    }
+
+    @Benchmark
+    public Data toData_generatedDataSerializable() {
+        return serializationService.toData(generated);
+    }
+
+    @Benchmark
+    public Data toData_generatedStreamSerializer() {
+        return serializationService.toData(stream);
+    }
+
+    @Benchmark
+    public Data toData_java() {
+        return serializationService.toData(java);
+    }
+
+    @Benchmark
+    public Object toObject_handWritten() {
+        return serializationService.toObject(handWrittenData);
+    }
+
+    @Benchmark
+    public Object toObject_generatedDataSerializable() {
+        return serializationService.toObject(generatedData);
+    }
+
+    @Benchmark
+    public Object toObject_generatedStreamSerializer() {
+        return serializationService.toObject(streamData);
+    }
+
+    @Benchmark
+    public Object toObject_java() {
+        return serializationService.toObject(javaData);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(GeneratedCodecBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    abstract static class Person<T extends Person> implements Serializable {
+        String name;
+        String city;
+        int age;
+        long salary;
+        double rating;
+        boolean active;
+        int[] scores;
+
+        @SuppressWarnings("unchecked")
+        T init() {
+            name = "John Doe";
+            city = "Istanbul";
+            age = 42;
+            salary = 100_000;
+            rating = 4.5;
+            active = true;
+            scores = new int[]{1, 2, 3, 4};
+            return (T) this;
+        }
+    }
+
+    public static class HandWrittenPerson extends Person<HandWrittenPerson> implements IdentifiedDataSerializable {
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeUTF(name);
+            out.writeUTF(city);
+            out.writeInt(age);
+            out.writeLong(salary);
+            out.writeDouble(rating);
+            out.writeBoolean(active);
+            out.writeIntArray(scores);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            name = in.readUTF();
+            city = in.readUTF();
+            age = in.readInt();
+            salary = in.readLong();
+            rating = in.readDouble();
+            active = in.readBoolean();
+            scores = in.readIntArray();
+        }
+
+        @Override
+        public int getFactoryId() {
+            return HAND_WRITTEN_FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return 1;
+        }
+    }
+
+    @GenerateDataSerializable(factoryId = 4712, classId = 1)
+    public static class GeneratedPerson extends Person<GeneratedPerson> implements IdentifiedDataSerializable {
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            GeneratedCodecBenchmark_GeneratedPersonCodec.writeData(out, this);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            GeneratedCodecBenchmark_GeneratedPersonCodec.readData(in, this);
+        }
+
+        @Override
+        public int getFactoryId() {
+            return GeneratedCodecBenchmark_GeneratedPersonCodec.FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return GeneratedCodecBenchmark_GeneratedPersonCodec.CLASS_ID;
+        }
+    }
+
+    @GenerateStreamSerializer(typeId = 4712)
+    public static class StreamPerson extends Person<StreamPerson> {
+    }
+
+    public static class JavaPerson extends Person<JavaPerson> {
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.codegen;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the codecs the processor generated for the annotated classes of
+ * this module while compiling the tests.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class GeneratedCodecTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder()
+            .setConfig(new SerializationConfig()
+                    .addDataSerializableFactory(IdsEmployeeCodec.FACTORY_ID, new GeneratedDataSerializableFactory4711()))
+            .build();
+
+    @Test
+    public void testDataSerializable_roundTrip() {
+        IdsEmployee employee = employee();
+        employee.manager = employee();
+        employee.manager.name = "jane";
+
+        Data data = serializationService.toData(employee);
+        IdsEmployee deserialized = serializationService.toObject(data);
+
+        assertEquals(CONSTANT_TYPE_DATA_SERIALIZABLE, data.getType());
+        assertEquals(employee, deserialized);
+        assertEquals(0, deserialized.cached);
+    }
+
+    @Test
+    public void testDataSerializable_roundTrip_withNulls() {
+        IdsEmployee employee = new IdsEmployee();
+
+        IdsEmployee deserialized = serializationService.toObject(serializationService.toData(employee));
+
+        assertEquals(employee, deserialized);
+        assertNull(deserialized.boxed);
+        assertNull(deserialized.level);
+        assertNull(deserialized.scores);
+    }
+
+    @Test
+    public void testStreamSerializer_roundTrip() {
+        PojoEmployee employee = new PojoEmployee();
+        employee.setName("john");
+        employee.setAge(42);
+        employee.setManager(true);
+        employee.setReports(new long[]{1, 2, 3});
+        employee.department = "engineering";
+
+        Data data = serializationService.toData(employee);
+
+        assertEquals(PojoEmployeeCodec.TYPE_ID, data.getType());
+        assertEquals(employee, serializationService.toObject(data));
+    }
+
+    @Test
+    public void testStreamSerializer_roundTrip_withNulls() {
+        PojoEmployee employee = new PojoEmployee();
+
+        assertEquals(employee, serializationService.toObject(serializationService.toData(employee)));
+    }
+
+    @Test
+    public void testGeneratedFactory_createsAnnotatedClasses() {
+        GeneratedDataSerializableFactory4711 factory = new GeneratedDataSerializableFactory4711();
+
+        assertEquals(IdsEmployee.class, factory.create(IdsEmployeeCodec.CLASS_ID).getClass());
+        assertNull(factory.create(-1));
+    }
+
+    private static IdsEmployee employee() {
+        IdsEmployee employee = new IdsEmployee();
+        employee.active = true;
+        employee.aByte = 1;
+        employee.aChar = 'c';
+        employee.aShort = 2;
+        employee.age = 42;
+        employee.id = 3;
+        employee.aFloat = 4.5f;
+        employee.salary = 5.5;
+        employee.name = "john";
+        employee.boxed = 6;
+        employee.level = IdsEmployee.Level.SENIOR;
+        employee.scores = new int[]{7, 8};
+        employee.rates = new double[]{9.5};
+        employee.tags = new String[]{"a", null};
+        employee.projects = Arrays.asList("x", "y");
+        employee.cached = 10;
+        employee.setPrivateWithAccessors(11);
+        return employee;
+    }
+}
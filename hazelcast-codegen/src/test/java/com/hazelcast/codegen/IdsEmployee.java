@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.codegen;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.GenerateDataSerializable;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@GenerateDataSerializable(factoryId = 4711, classId = 1)
+public class IdsEmployee implements IdentifiedDataSerializable {
+
+    enum Level {
+        JUNIOR, SENIOR
+    }
+
+    boolean active;
+    byte aByte;
+    char aChar;
+    short aShort;
+    int age;
+    long id;
+    float aFloat;
+    double salary;
+    String name;
+    Integer boxed;
+    Level level;
+    int[] scores;
+    double[] rates;
+    String[] tags;
+    List<String> projects;
+    IdsEmployee manager;
+    transient int cached;
+    private long privateWithAccessors;
+
+    public IdsEmployee() {
+    }
+
+    public long getPrivateWithAccessors() {
+        return privateWithAccessors;
+    }
+
+    public void setPrivateWithAccessors(long privateWithAccessors) {
+        this.privateWithAccessors = privateWithAccessors;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        IdsEmployeeCodec.writeData(out, this);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        IdsEmployeeCodec.readData(in, this);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return IdsEmployeeCodec.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return IdsEmployeeCodec.CLASS_ID;
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IdsEmployee that = (IdsEmployee) o;
+        return active == that.active && aByte == that.aByte && aChar == that.aChar && aShort == that.aShort
+                && age == that.age && id == that.id && Float.compare(that.aFloat, aFloat) == 0
+                && Double.compare(that.salary, salary) == 0 && privateWithAccessors == that.privateWithAccessors
+                && Objects.equals(name, that.name) && Objects.equals(boxed, that.boxed) && level == that.level
+                && Arrays.equals(scores, that.scores) && Arrays.equals(rates, that.rates) && Arrays.equals(tags, that.tags)
+                && Objects.equals(projects, that.projects) && Objects.equals(manager, that.manager);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, age, id);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.codegen;
+
+import com.hazelcast.nio.serialization.GenerateStreamSerializer;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+@GenerateStreamSerializer(typeId = 4711)
+public class PojoEmployee extends PojoPerson {
+
+    private boolean manager;
+    private long[] reports;
+    String department;
+
+    public boolean isManager() {
+        return manager;
+    }
+
+    public void setManager(boolean manager) {
+        this.manager = manager;
+    }
+
+    public long[] getReports() {
+        return reports;
+    }
+
+    public void setReports(long[] reports) {
+        this.reports = reports;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) {
+            return false;
+        }
+        PojoEmployee that = (PojoEmployee) o;
+        return manager == that.manager && Arrays.equals(reports, that.reports) && Objects.equals(department, that.department);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), department);
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.codegen;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SerializerCodecProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStreamSerializer_generatesCodecSerializerAndHook() throws IOException {
+        List<String> errors = compile(source("p.Person",
+                "@com.hazelcast.nio.serialization.GenerateStreamSerializer(typeId = 5)",
+                "public class Person {",
+                "    String name;",
+                "    int age;",
+                "    Long boxed;",
+                "    java.util.concurrent.TimeUnit unit;",
+                "}"));
+
+        assertEquals(errors.toString(), 0, errors.size());
+        String codec = generated("p/PersonCodec.java");
+        assertContains(codec, "public static final int TYPE_ID = 5;");
+        assertContains(codec, "out.writeUTF(object.name);");
+        assertContains(codec, "out.writeInt(object.age);");
+        assertContains(codec, "out.writeLong(value);");
+        assertContains(codec, "object.boxed = in.readBoolean() ? java.lang.Long.valueOf(in.readLong()) : null;");
+        assertContains(codec, "out.writeUTF(value == null ? null : value.name());");
+        assertContains(generated("p/PersonSerializer.java"), "return PersonCodec.TYPE_ID;");
+        assertContains(generated("p/PersonSerializerHook.java"), "return p.Person.class;");
+        assertEquals("p.PersonSerializerHook\n", output(SerializerCodecProcessor.SERIALIZER_HOOKS));
+    }
+
+    @Test
+    public void testDataSerializable_generatesCodecAndFactory() throws IOException {
+        List<String> errors = compile(
+                dataSerializable("p.A", "@com.hazelcast.nio.serialization.GenerateDataSerializable(factoryId = -7, classId = 1)"),
+                dataSerializable("p.B", "@com.hazelcast.nio.serialization.GenerateDataSerializable(factoryId = -7, classId = 2)"));
+
+        assertEquals(errors.toString(), 0, errors.size());
+        assertContains(generated("p/ACodec.java"), "public static final int FACTORY_ID = -7;");
+        String factory = generated("p/GeneratedDataSerializableFactoryMinus7.java");
+        assertContains(factory, "return new p.A();");
+        assertContains(factory, "return new p.B();");
+        assertContains(factory, "implements com.hazelcast.nio.serialization.DataSerializableFactory");
+        assertFalse(new File(classOutput(), "META-INF/services/com.hazelcast.DataSerializerHook").exists());
+    }
+
+    @Test
+    public void testNestedClass_withInheritedAndPrivateFields() throws IOException {
+        List<String> errors = compile(
+                source("p.Base",
+                        "public class Base {",
+                        "    private int id;",
+                        "    public int getId() { return id; }",
+                        "    public void setId(int id) { this.id = id; }",
+                        "}"),
+                source("p.Outer",
+                        "public class Outer {",
+                        "    @com.hazelcast.nio.serialization.GenerateStreamSerializer(typeId = 1)",
+                        "    public static class Inner extends Base {",
+                        "        private boolean flag;",
+                        "        public boolean isFlag() { return flag; }",
+                        "        public void setFlag(boolean flag) { this.flag = flag; }",
+                        "        static int ignoredStatic;",
+                        "        transient int ignoredTransient;",
+                        "    }",
+                        "}"));
+
+        assertEquals(errors.toString(), 0, errors.size());
+        String codec = generated("p/Outer_InnerCodec.java");
+        assertContains(codec, "out.writeInt(object.getId());");
+        assertContains(codec, "object.setFlag(in.readBoolean());");
+        assertTrue(codec, codec.indexOf("getId()") < codec.indexOf("isFlag()"));
+        assertTrue(codec, !codec.contains("ignored"));
+    }
+
+    @Test
+    public void testServicesFile_keepsExistingHooks() throws IOException {
+        File services = new File(classOutput(), SerializerCodecProcessor.SERIALIZER_HOOKS);
+        assertTrue(services.getParentFile().mkdirs());
+        Files.write(services.toPath(), "existing.Hook\n".getBytes(UTF_8));
+
+        List<String> errors = compile(source("p.Person",
+                "@com.hazelcast.nio.serialization.GenerateStreamSerializer(typeId = 5)",
+                "public class Person {",
+                "}"));
+
+        assertEquals(errors.toString(), 0, errors.size());
+        assertEquals("existing.Hook\np.PersonSerializerHook\n", output(SerializerCodecProcessor.SERIALIZER_HOOKS));
+    }
+
+    @Test
+    public void testError_whenPrivateFieldWithoutAccessors() throws IOException {
+        List<String> errors = compile(source("p.Person",
+                "@com.hazelcast.nio.serialization.GenerateStreamSerializer(typeId = 5)",
+                "public class Person {",
+                "    private int age;",
+                "    public int getAge() { return age; }",
+                "}"));
+
+        assertError(errors, "Field 'age' is private or final and has no accessible getter and setter");
+    }
+
+    @Test
+    public void testError_whenNoArgConstructorMissing() throws IOException {
+        List<String> errors = compile(source("p.Person",
+                "@com.hazelcast.nio.serialization.GenerateStreamSerializer(typeId = 5)",
+                "public class Person {",
+                "    public Person(int age) { }",
+                "}"));
+
+        assertError(errors, "The class must have a non-private no-arg constructor");
+    }
+
+    @Test
+    public void testError_whenTypeIdNotPositive() throws IOException {
+        List<String> errors = compile(source("p.Person",
+                "@com.hazelcast.nio.serialization.GenerateStreamSerializer(typeId = 0)",
+                "public class Person {",
+                "}"));
+
+        assertError(errors, "The type id must be positive: 0");
+    }
+
+    @Test
+    public void testError_whenDataSerializableNotImplemented() throws IOException {
+        List<String> errors = compile(source("p.Person",
+                "@com.hazelcast.nio.serialization.GenerateDataSerializable(factoryId = 1, classId = 1)",
+                "public class Person {",
+                "}"));
+
+        assertError(errors, "must implement com.hazelcast.nio.serialization.IdentifiedDataSerializable");
+    }
+
+    @Test
+    public void testError_whenClassIdDuplicated() throws IOException {
+        List<String> errors = compile(
+                dataSerializable("p.A", "@com.hazelcast.nio.serialization.GenerateDataSerializable(factoryId = 1, classId = 1)"),
+                dataSerializable("p.B", "@com.hazelcast.nio.serialization.GenerateDataSerializable(factoryId = 1, classId = 1)"));
+
+        assertError(errors, "The class id 1 is already used in the factory 1");
+    }
+
+    @Test
+    public void testError_whenClassIsGeneric() throws IOException {
+        List<String> errors = compile(source("p.Box",
+                "@com.hazelcast.nio.serialization.GenerateStreamSerializer(typeId = 5)",
+                "public class Box<T> {",
+                "}"));
+
+        assertError(errors, "Generic classes are not supported");
+    }
+
+    private List<String> compile(JavaFileObject... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        File sourceOutput = new File(folder.getRoot(), "sources");
+        assertTrue(sourceOutput.mkdirs());
+        classOutput().mkdirs();
+        List<String> options = asList("-classpath", System.getProperty("java.class.path"),
+                "-d", classOutput().getPath(), "-s", sourceOutput.getPath());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, asList(sources));
+        task.setProcessors(singletonList(new SerializerCodecProcessor()));
+        task.call();
+
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    private File classOutput() {
+        return new File(folder.getRoot(), "classes");
+    }
+
+    private String generated(String path) throws IOException {
+        return new String(Files.readAllBytes(new File(new File(folder.getRoot(), "sources"), path).toPath()), UTF_8);
+    }
+
+    private String output(String path) throws IOException {
+        return new String(Files.readAllBytes(new File(classOutput(), path).toPath()), UTF_8);
+    }
+
+    private static void assertContains(String source, String expected) {
+        assertTrue("Expected '" + expected + "' in:\n" + source, source.contains(expected));
+    }
+
+    private static void assertError(List<String> errors, String expected) {
+        for (String error : errors) {
+            if (error.contains(expected)) {
+                return;
+            }
+        }
+        throw new AssertionError("Expected an error with '" + expected + "' but got " + errors);
+    }
+
+    private static JavaFileObject dataSerializable(String className, String annotation) {
+        return source(className,
+                annotation,
+                "public class " + className.substring(className.lastIndexOf('.') + 1)
+                        + " implements com.hazelcast.nio.serialization.IdentifiedDataSerializable {",
+                "    int value;",
+                "    public void writeData(com.hazelcast.nio.ObjectDataOutput out) { }",
+                "    public void readData(com.hazelcast.nio.ObjectDataInput in) { }",
+                "    public int getFactoryId() { return 0; }",
+                "    public int getClassId() { return 0; }",
+                "}");
+    }
+
+    private static JavaFileObject source(String className, String... lines) {
+        int dot = className.lastIndexOf('.');
+        StringBuilder source = new StringBuilder("package ").append(className, 0, dot).append(";\n");
+        for (String line : lines) {
+            source.append(line).append('\n');
+        }
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.client.impl.protocol;
 
 import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.networking.TrafficClass;
 import com.hazelcast.internal.nio.Bits;
 import com.hazelcast.internal.nio.Connection;
 
@@ -273,6 +274,11 @@ public final class ClientMessage implements OutboundFrame {
         return false;
     }
 
+    @Override
+    public TrafficClass getTrafficClass() {
+        return isFlagSet(startFrame.flags, IS_EVENT_FLAG) ? TrafficClass.EVENT : TrafficClass.RESPONSE;
+    }
+
     public void merge(ClientMessage fragment) {
         // ignore the first frame of the fragment since first frame marks the fragment
         Frame fragmentMessageStartFrame = fragment.startFrame.next;
@@ -16,6 +16,7 @@
 
 package com.hazelcast.client.impl.protocol;
 
+import com.hazelcast.internal.networking.GatheringBuffer;
 import com.hazelcast.internal.nio.Bits;
 
 import java.nio.ByteBuffer;
@@ -48,6 +49,56 @@ public class ClientMessageWriter {
         }
     }
 
+    /**
+     * Writes the client message to the supplied {@link GatheringBuffer}. Frame contents of at least
+     * {@link GatheringBuffer#referenceThreshold()} bytes are referenced instead of copied.
+     *
+     * Frames are written either completely or not at all.
+     *
+     * @return {@code true} if the message got written completely; {@code false} if the buffer ran out of room.
+     */
+    public boolean writeTo(GatheringBuffer dst, ClientMessage clientMessage) {
+        if (currentFrame == null) {
+            currentFrame = clientMessage.startFrame;
+        }
+        for (; ; ) {
+            boolean isLastFrame = currentFrame.next == null;
+            if (!writeFrame(dst, currentFrame, isLastFrame)) {
+                return false;
+            }
+            if (isLastFrame) {
+                currentFrame = null;
+                return true;
+            }
+            currentFrame = currentFrame.next;
+        }
+    }
+
+    private static boolean writeFrame(GatheringBuffer dst, ClientMessage.Frame frame, boolean isLastFrame) {
+        int frameContentLength = frame.content.length;
+        boolean reference = frameContentLength >= dst.referenceThreshold();
+        int scratchBytes = reference ? SIZE_OF_FRAME_LENGTH_AND_FLAGS : SIZE_OF_FRAME_LENGTH_AND_FLAGS + frameContentLength;
+        if (!dst.reserve(scratchBytes, reference ? 1 : 0)) {
+            return false;
+        }
+
+        ByteBuffer scratch = dst.scratch();
+        writeFrameHeader(scratch, frameContentLength, isLastFrame ? frame.flags | IS_FINAL_FLAG : frame.flags);
+        if (reference) {
+            dst.reference(frame.content, 0, frameContentLength);
+        } else if (frameContentLength > 0) {
+            scratch.put(frame.content, 0, frameContentLength);
+        }
+        return true;
+    }
+
+    private static void writeFrameHeader(ByteBuffer dst, int frameContentLength, int flags) {
+        Bits.writeIntL(dst, dst.position(), frameContentLength + SIZE_OF_FRAME_LENGTH_AND_FLAGS);
+        dst.position(dst.position() + Bits.INT_SIZE_IN_BYTES);
+        Bits.writeShortL(dst, dst.position(), (short) flags);
+        dst.position(dst.position() + Bits.SHORT_SIZE_IN_BYTES);
+    }
+
     private boolean writeFrame(ByteBuffer dst, ClientMessage.Frame frame, boolean isLastFrame) {
         // the number of bytes that can be written to the bb
         int bytesWritable = dst.remaining();
@@ -56,15 +107,7 @@ public class ClientMessageWriter {
         //if write offset is -1 put the length and flags byte first
         if (writeOffset == -1) {
             if (bytesWritable >= SIZE_OF_FRAME_LENGTH_AND_FLAGS) {
-                Bits.writeIntL(dst, dst.position(), frameContentLength + SIZE_OF_FRAME_LENGTH_AND_FLAGS);
-                dst.position(dst.position() + Bits.INT_SIZE_IN_BYTES);
-
-                if (isLastFrame) {
-                    Bits.writeShortL(dst, dst.position(), (short) (frame.flags | IS_FINAL_FLAG));
-                } else {
-                    Bits.writeShortL(dst, dst.position(), (short) frame.flags);
-                }
-                dst.position(dst.position() + Bits.SHORT_SIZE_IN_BYTES);
+                writeFrameHeader(dst, frameContentLength, isLastFrame ? frame.flags | IS_FINAL_FLAG : frame.flags);
                 writeOffset = 0;
             } else {
                 return false;
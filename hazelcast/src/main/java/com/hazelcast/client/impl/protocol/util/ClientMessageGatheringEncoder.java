@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.util;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.ClientMessageWriter;
+import com.hazelcast.internal.networking.ChannelOptions;
+import com.hazelcast.internal.networking.GatheringBuffer;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundHandler;
+
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.internal.nio.IOUtil.newByteBuffer;
+
+/**
+ * A {@link OutboundHandler} for the new-client that writes ClientMessages to a
+ * {@link GatheringBuffer}, so that large frames are not copied.
+ *
+ * It needs to be the last handler in the pipeline.
+ *
+ * @see ClientMessageEncoder
+ */
+public class ClientMessageGatheringEncoder extends OutboundHandler<Supplier<ClientMessage>, GatheringBuffer> {
+
+    private final ClientMessageWriter clientMessageWriter = new ClientMessageWriter();
+    private final int referenceThreshold;
+
+    private ClientMessage message;
+
+    public ClientMessageGatheringEncoder(int referenceThreshold) {
+        this.referenceThreshold = referenceThreshold;
+    }
+
+    @Override
+    public void handlerAdded() {
+        ChannelOptions options = channel.options();
+        dst = new GatheringBuffer(newByteBuffer(options.getOption(SO_SNDBUF), options.getOption(DIRECT_BUF)),
+                referenceThreshold);
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        for (; ; ) {
+            if (message == null) {
+                message = src.get();
+
+                if (message == null) {
+                    // everything is processed, so we are done
+                    return CLEAN;
+                }
+            }
+
+            if (clientMessageWriter.writeTo(dst, message)) {
+                // message got written, lets see if another message can be written
+                message = null;
+            } else {
+                // the gathering buffer is full, so we are done.
+                return DIRTY;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.config;
+
+import com.hazelcast.internal.util.TriTuple;
+import com.hazelcast.nio.serialization.CompactSerializer;
+import com.hazelcast.spi.annotation.Beta;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.hazelcast.internal.util.Preconditions.checkHasText;
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+
+/**
+ * Contains the classes serialized in the compact format.
+ * <p>
+ * A class is either registered with a {@link CompactSerializer} and a type
+ * name, or without a serializer, in which case its non-static, non-transient
+ * fields are serialized through reflection under the class name. A class
+ * registered without a serializer must have a no-arg constructor.
+ * <p>
+ * The type name identifies the type in the serialized form and in the
+ * schemas replicated to the cluster, so it must be the same on all members.
+ * Schemas are replicated between members only; clients do not support the
+ * compact format yet.
+ *
+ * @since 4.1
+ */
+@Beta
+public class CompactSerializationConfig {
+
+    private final Map<String, TriTuple<Class, String, CompactSerializer>> registries;
+
+    public CompactSerializationConfig() {
+        registries = new LinkedHashMap<>();
+    }
+
+    public CompactSerializationConfig(CompactSerializationConfig compactSerializationConfig) {
+        registries = new LinkedHashMap<>(compactSerializationConfig.registries);
+    }
+
+    /**
+     * Registers the class to be serialized through reflection, under its
+     * class name as the type name.
+     *
+     * @param clazz the class to register
+     * @return this config
+     * @throws InvalidConfigurationException if the class or the type name is already registered
+     */
+    public <T> CompactSerializationConfig register(Class<T> clazz) {
+        checkNotNull(clazz, "Class cannot be null");
+        return register0(clazz, clazz.getName(), null);
+    }
+
+    /**
+     * Registers the class to be serialized with the given serializer.
+     *
+     * @param clazz      the class to register
+     * @param typeName   the type name written to the schema of the class
+     * @param serializer the serializer of the class
+     * @return this config
+     * @throws InvalidConfigurationException if the class or the type name is already registered
+     */
+    public <T> CompactSerializationConfig register(Class<T> clazz, String typeName, CompactSerializer<T> serializer) {
+        checkNotNull(clazz, "Class cannot be null");
+        checkHasText(typeName, "Type name cannot be null or empty");
+        checkNotNull(serializer, "Serializer cannot be null");
+        return register0(clazz, typeName, serializer);
+    }
+
+    private CompactSerializationConfig register0(Class clazz, String typeName, CompactSerializer serializer) {
+        if (registries.containsKey(typeName)) {
+            throw new InvalidConfigurationException("Duplicate registration found for type name: " + typeName);
+        }
+        for (TriTuple<Class, String, CompactSerializer> registry : registries.values()) {
+            if (registry.element1 == clazz) {
+                throw new InvalidConfigurationException("Duplicate registration found for class: " + clazz.getName());
+            }
+        }
+        registries.put(typeName, TriTuple.of(clazz, typeName, serializer));
+        return this;
+    }
+
+    /**
+     * Returns the registered classes by their type names. Each registration
+     * holds the class, the type name and the serializer, which is
+     * {@code null} for the classes serialized through reflection.
+     *
+     * @return the registrations by type name
+     */
+    public Map<String, TriTuple<Class, String, CompactSerializer>> getRegistries() {
+        return Collections.unmodifiableMap(registries);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CompactSerializationConfig that = (CompactSerializationConfig) o;
+        return registries.equals(that.registries);
+    }
+
+    @Override
+    public int hashCode() {
+        return registries.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "CompactSerializationConfig{registries=" + registries + '}';
+    }
+}
@@ -941,6 +941,7 @@ public class ConfigXmlGenerator {
                             "batch-size", mergePolicyConfig.getBatchSize())
                     .node("split-brain-protection-ref", m.getSplitBrainProtectionName())
                     .node("read-backup-data", m.isReadBackupData())
+                    .node("immutable-values", m.isImmutableValues())
                     .node("metadata-policy", m.getMetadataPolicy());
 
             evictionConfigXmlGenerator(gen, m.getEvictionConfig());
@@ -16,12 +16,14 @@
 
 package com.hazelcast.config;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.config.ConfigDataSerializerHook;
 import com.hazelcast.internal.partition.IPartition;
 import com.hazelcast.map.IMap;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -40,7 +42,7 @@ import static com.hazelcast.internal.util.Preconditions.isNotNull;
 /**
  * Contains the configuration for an {@link IMap}.
  */
-public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
+public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versioned {
 
     /**
      * The minimum number of backups
@@ -100,6 +102,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
     public static final EvictionPolicy DEFAULT_EVICTION_POLICY = EvictionPolicy.NONE;
 
     private boolean readBackupData;
+    private boolean immutableValues;
     private boolean statisticsEnabled = DEFAULT_STATISTICS_ENABLED;
     private int backupCount = DEFAULT_BACKUP_COUNT;
     private int asyncBackupCount = MIN_BACKUP_COUNT;
@@ -147,6 +150,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         this.mapStoreConfig = config.mapStoreConfig != null ? new MapStoreConfig(config.mapStoreConfig) : null;
         this.nearCacheConfig = config.nearCacheConfig != null ? new NearCacheConfig(config.nearCacheConfig) : null;
         this.readBackupData = config.readBackupData;
+        this.immutableValues = config.immutableValues;
         this.cacheDeserializedValues = config.cacheDeserializedValues;
         this.statisticsEnabled = config.statisticsEnabled;
         this.mergePolicyConfig = new MergePolicyConfig(config.mergePolicyConfig);
@@ -439,6 +443,37 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         return this;
     }
 
+    /**
+     * Checks if the values of this map are declared immutable.
+     *
+     * @return {@code true} if the values are immutable, {@code false} otherwise
+     */
+    public boolean isImmutableValues() {
+        return immutableValues;
+    }
+
+    /**
+     * Declares the values of this map immutable. The deserialized values are
+     * then shared through a bounded member-wide cache by the gets, entry
+     * processors and queries running on the member, instead of being
+     * deserialized again by each of them.
+     * <p>
+     * Since the same value instance is handed out to several callers, the
+     * values must never be mutated after they are put into the map. The
+     * size of the cache is controlled by the
+     * {@link com.hazelcast.spi.properties.ClusterProperty#MAP_DESERIALIZED_VALUE_CACHE_SIZE}
+     * and {@link com.hazelcast.spi.properties.ClusterProperty#MAP_DESERIALIZED_VALUE_CACHE_MAX_BYTES}
+     * properties.
+     *
+     * @param immutableValues {@code true} if the values are immutable, {@code false} otherwise
+     * @return the current map config instance
+     * @since 4.1
+     */
+    public MapConfig setImmutableValues(boolean immutableValues) {
+        this.immutableValues = immutableValues;
+        return this;
+    }
+
     /**
      * Gets the WAN target replication reference.
      *
@@ -728,6 +763,9 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         if (readBackupData != that.readBackupData) {
             return false;
         }
+        if (immutableValues != that.immutableValues) {
+            return false;
+        }
         if (statisticsEnabled != that.statisticsEnabled) {
             return false;
         }
@@ -799,6 +837,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         result = 31 * result + (mapStoreConfig != null ? mapStoreConfig.hashCode() : 0);
         result = 31 * result + (nearCacheConfig != null ? nearCacheConfig.hashCode() : 0);
         result = 31 * result + (readBackupData ? 1 : 0);
+        result = 31 * result + (immutableValues ? 1 : 0);
         result = 31 * result + cacheDeserializedValues.hashCode();
         result = 31 * result + (mergePolicyConfig != null ? mergePolicyConfig.hashCode() : 0);
         result = 31 * result + inMemoryFormat.hashCode();
@@ -829,6 +868,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
                 + ", timeToLiveSeconds=" + timeToLiveSeconds
                 + ", maxIdleSeconds=" + maxIdleSeconds
                 + ", readBackupData=" + readBackupData
+                + ", immutableValues=" + immutableValues
                 + ", evictionConfig=" + evictionConfig
                 + ", merkleTree=" + merkleTreeConfig
                 + ", eventJournal=" + eventJournalConfig
@@ -883,6 +923,9 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         out.writeObject(merkleTreeConfig);
         out.writeObject(eventJournalConfig);
         out.writeShort(metadataPolicy.getId());
+        if (out.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            out.writeBoolean(immutableValues);
+        }
     }
 
     @Override
@@ -912,5 +955,8 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         merkleTreeConfig = in.readObject();
         eventJournalConfig = in.readObject();
         metadataPolicy = MetadataPolicy.getById(in.readShort());
+        if (in.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            immutableValues = in.readBoolean();
+        }
     }
 }
@@ -19,6 +19,7 @@ package com.hazelcast.config;
 import com.hazelcast.nio.serialization.ClassDefinition;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.PortableFactory;
+import com.hazelcast.spi.annotation.Beta;
 
 import java.nio.ByteOrder;
 import java.util.Collection;
@@ -51,6 +52,7 @@ public class SerializationConfig {
     private boolean allowUnsafe;
     private final Set<ClassDefinition> classDefinitions;
     private JavaSerializationFilterConfig javaSerializationFilterConfig;
+    private CompactSerializationConfig compactSerializationConfig;
 
     public SerializationConfig() {
         dataSerializableFactoryClasses = new HashMap<>();
@@ -59,6 +61,7 @@ public class SerializationConfig {
         portableFactories = new HashMap<>();
         serializerConfigs = new LinkedList<>();
         classDefinitions = new HashSet<>();
+        compactSerializationConfig = new CompactSerializationConfig();
     }
 
     public SerializationConfig(SerializationConfig serializationConfig) {
@@ -82,6 +85,7 @@ public class SerializationConfig {
         classDefinitions = new HashSet<>(serializationConfig.classDefinitions);
         javaSerializationFilterConfig = serializationConfig.javaSerializationFilterConfig == null
                 ? null : new JavaSerializationFilterConfig(serializationConfig.javaSerializationFilterConfig);
+        compactSerializationConfig = new CompactSerializationConfig(serializationConfig.compactSerializationConfig);
     }
 
     /**
@@ -471,6 +475,28 @@ public class SerializationConfig {
         return this;
     }
 
+    /**
+     * @return the configuration of the classes serialized in the compact format
+     * @since 4.1
+     */
+    @Beta
+    public CompactSerializationConfig getCompactSerializationConfig() {
+        return compactSerializationConfig;
+    }
+
+    /**
+     * Sets the configuration of the classes serialized in the compact format.
+     *
+     * @param compactSerializationConfig the compact serialization config to set
+     * @return this config
+     * @since 4.1
+     */
+    @Beta
+    public SerializationConfig setCompactSerializationConfig(CompactSerializationConfig compactSerializationConfig) {
+        this.compactSerializationConfig = isNotNull(compactSerializationConfig, "compactSerializationConfig");
+        return this;
+    }
+
     @Override
     public String toString() {
         return "SerializationConfig{"
@@ -486,6 +512,7 @@ public class SerializationConfig {
                 + ", byteOrder=" + byteOrder
                 + ", useNativeByteOrder=" + useNativeByteOrder
                 + ", javaSerializationFilterConfig=" + javaSerializationFilterConfig
+                + ", compactSerializationConfig=" + compactSerializationConfig
                 + '}';
     }
 
@@ -515,13 +542,15 @@ public class SerializationConfig {
             && serializerConfigs.equals(that.serializerConfigs)
             && Objects.equals(byteOrder, that.byteOrder)
             && classDefinitions.equals(that.classDefinitions)
-            && Objects.equals(javaSerializationFilterConfig, that.javaSerializationFilterConfig);
+            && Objects.equals(javaSerializationFilterConfig, that.javaSerializationFilterConfig)
+            && compactSerializationConfig.equals(that.compactSerializationConfig);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(portableVersion, dataSerializableFactoryClasses, dataSerializableFactories, portableFactoryClasses,
             portableFactories, globalSerializerConfig, serializerConfigs, checkClassDefErrors, useNativeByteOrder, byteOrder,
-            enableCompression, enableSharedObject, allowUnsafe, classDefinitions, javaSerializationFilterConfig);
+            enableCompression, enableSharedObject, allowUnsafe, classDefinitions, javaSerializationFilterConfig,
+            compactSerializationConfig);
     }
 }
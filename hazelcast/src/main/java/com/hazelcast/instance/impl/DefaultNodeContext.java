@@ -24,6 +24,7 @@ import com.hazelcast.internal.cluster.Joiner;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.Networking;
+import com.hazelcast.internal.networking.NetworkingFactory;
 import com.hazelcast.internal.server.tcp.ServerSocketRegistry;
 import com.hazelcast.internal.networking.nio.NioNetworking;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
@@ -32,18 +33,23 @@ import com.hazelcast.internal.server.tcp.TcpServerContext;
 import com.hazelcast.internal.server.tcp.TcpServerConnectionChannelErrorHandler;
 import com.hazelcast.internal.server.tcp.TcpServer;
 import com.hazelcast.internal.util.InstantiationUtils;
+import com.hazelcast.internal.util.ServiceLoader;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.impl.LoggingServiceImpl;
 import com.hazelcast.spi.MemberAddressProvider;
 import com.hazelcast.spi.properties.HazelcastProperties;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 
 import static com.hazelcast.config.ConfigAccessor.getActiveMemberNetworkConfig;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_BUFFER_POOL_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_FAIR_QUEUING_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_INPUT_THREAD_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_OUTPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_TRANSPORT;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_THROUGH_ENABLED;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
@@ -55,6 +61,9 @@ public class DefaultNodeContext implements NodeContext {
             "com.hazelcast.instance.impl.DefaultNodeExtension"
     ));
 
+    static final String NIO_TRANSPORT = "nio";
+    static final String AUTO_TRANSPORT = "auto";
+
     @Override
     public NodeExtension createNodeExtension(Node node) {
         return NodeExtensionFactory.create(node, EXTENSION_PRIORITY_LIST);
@@ -164,6 +173,13 @@ public class DefaultNodeContext implements NodeContext {
         ChannelErrorHandler errorHandler = new TcpServerConnectionChannelErrorHandler(logger);
         HazelcastProperties props = node.getProperties();
 
+        NetworkingFactory factory = findNetworkingFactory(props.getString(IO_TRANSPORT), node.getConfigClassLoader(),
+                node.getLogger(NetworkingFactory.class));
+        if (factory != null) {
+            return factory.create(node.hazelcastInstance.getName(), loggingService, node.nodeEngine.getMetricsRegistry(),
+                    errorHandler, props);
+        }
+
         return new NioNetworking(
                 new NioNetworking.Context()
                         .loggingService(loggingService)
@@ -174,6 +190,40 @@ public class DefaultNodeContext implements NodeContext {
                         .outputThreadCount(props.getInteger(IO_OUTPUT_THREAD_COUNT))
                         .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS))
                         .writeThroughEnabled(props.getBoolean(IO_WRITE_THROUGH_ENABLED))
+                        .bufferPoolEnabled(props.getBoolean(IO_BUFFER_POOL_ENABLED))
+                        .fairQueuingEnabled(props.getBoolean(IO_FAIR_QUEUING_ENABLED))
                         .concurrencyDetection(node.nodeEngine.getConcurrencyDetection()));
     }
+
+    /**
+     * Finds the {@link NetworkingFactory} for the given transport.
+     *
+     * @return the factory or {@code null} if the NIO transport should be used.
+     */
+    static NetworkingFactory findNetworkingFactory(String transport, ClassLoader classLoader, ILogger logger) {
+        if (NIO_TRANSPORT.equalsIgnoreCase(transport)) {
+            return null;
+        }
+
+        boolean auto = AUTO_TRANSPORT.equalsIgnoreCase(transport);
+        try {
+            Iterator<NetworkingFactory> factories
+                    = ServiceLoader.iterator(NetworkingFactory.class, NetworkingFactory.FACTORY_ID, classLoader);
+            while (factories.hasNext()) {
+                NetworkingFactory factory = factories.next();
+                if ((auto || factory.name().equalsIgnoreCase(transport)) && factory.isAvailable()) {
+                    logger.info("Using the '" + factory.name() + "' networking transport");
+                    return factory;
+                }
+            }
+        } catch (Exception e) {
+            logger.warning("Failed to load the networking transports", e);
+        }
+
+        if (!auto) {
+            logger.warning("Networking transport '" + transport + "' isn't available, falling back to '"
+                    + NIO_TRANSPORT + "'");
+        }
+        return null;
+    }
 }
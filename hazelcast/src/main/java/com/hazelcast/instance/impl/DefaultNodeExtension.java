@@ -72,10 +72,14 @@ import com.hazelcast.internal.networking.ChannelInitializer;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.internal.server.tcp.DefaultChannelInitializerProvider;
 import com.hazelcast.internal.server.ServerContext;
+import com.hazelcast.internal.server.tcp.PacketCompressor;
 import com.hazelcast.internal.server.tcp.PacketDecoder;
 import com.hazelcast.internal.server.tcp.PacketEncoder;
+import com.hazelcast.internal.server.tcp.PacketGatheringEncoder;
+import com.hazelcast.internal.server.tcp.PacketStringDictionary;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
@@ -98,6 +102,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl;
 import com.hazelcast.spi.impl.servicemanager.ServiceManager;
 import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.version.MemberVersion;
 import com.hazelcast.version.Version;
 import com.hazelcast.wan.impl.WanReplicationService;
@@ -113,6 +118,9 @@ import java.util.function.Supplier;
 
 import static com.hazelcast.config.ConfigAccessor.getActiveMemberNetworkConfig;
 import static com.hazelcast.map.impl.MapServiceConstructor.getDefaultMapServiceConstructor;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_GATHERING_WRITE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_GATHERING_WRITE_REFERENCE_THRESHOLD;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_PACKET_PAYLOAD_POOL_ENABLED;
 
 @SuppressWarnings({"checkstyle:methodcount", "checkstyle:classfanoutcomplexity", "checkstyle:classdataabstractioncoupling"})
 public class DefaultNodeExtension implements NodeExtension {
@@ -244,6 +252,7 @@ public class DefaultNodeExtension implements NodeExtension {
                     .setPartitioningStrategy(partitioningStrategy)
                     .setHazelcastInstance(hazelcastInstance)
                     .setVersion(version)
+                    .setSchemaService(node.getSchemaService())
                     .setNotActiveExceptionSupplier(new Supplier<RuntimeException>() {
                         @Override
                         public RuntimeException get() {
@@ -305,14 +314,26 @@ public class DefaultNodeExtension implements NodeExtension {
     public InboundHandler[] createInboundHandlers(EndpointQualifier qualifier,
                                                   ServerConnection connection, ServerContext serverContext) {
         NodeEngineImpl nodeEngine = node.nodeEngine;
-        PacketDecoder decoder = new PacketDecoder(connection, nodeEngine.getPacketDispatcher());
+        HazelcastProperties properties = serverContext.properties();
+        PacketCompressor compressor = PacketCompressor.getOrCreate(connection, properties);
+        PacketStringDictionary dictionary = PacketStringDictionary.getOrCreate(connection, properties);
+        PacketPayloadPool payloadPool = properties.getBoolean(IO_PACKET_PAYLOAD_POOL_ENABLED) ? new PacketPayloadPool() : null;
+        PacketDecoder decoder = new PacketDecoder(connection, nodeEngine.getPacketDispatcher(), compressor, payloadPool,
+                dictionary);
         return new InboundHandler[]{decoder};
     }
 
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier,
                                                     ServerConnection connection, ServerContext serverContext) {
-        return new OutboundHandler[]{new PacketEncoder()};
+        HazelcastProperties properties = serverContext.properties();
+        PacketCompressor compressor = PacketCompressor.getOrCreate(connection, properties);
+        PacketStringDictionary dictionary = PacketStringDictionary.getOrCreate(connection, properties);
+        if (properties.getBoolean(IO_GATHERING_WRITE_ENABLED)) {
+            int referenceThreshold = properties.getInteger(IO_GATHERING_WRITE_REFERENCE_THRESHOLD);
+            return new OutboundHandler[]{new PacketGatheringEncoder(referenceThreshold, compressor, dictionary)};
+        }
+        return new OutboundHandler[]{new PacketEncoder(compressor, dictionary)};
     }
 
     @Override
@@ -72,6 +72,7 @@ import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
 import com.hazelcast.internal.partition.impl.MigrationInterceptor;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.compact.MemberSchemaService;
 import com.hazelcast.internal.services.GracefulShutdownAwareService;
 import com.hazelcast.internal.usercodedeployment.UserCodeDeploymentClassLoader;
 import com.hazelcast.internal.util.Clock;
@@ -174,6 +175,8 @@ public class Node {
 
     private final InternalSerializationService serializationService;
 
+    private final MemberSchemaService schemaService = new MemberSchemaService();
+
     private final ClassLoader configClassLoader;
 
     private final NodeExtension nodeExtension;
@@ -396,6 +399,10 @@ public class Node {
         return serializationService;
     }
 
+    public MemberSchemaService getSchemaService() {
+        return schemaService;
+    }
+
     public ClusterServiceImpl getClusterService() {
         return clusterService;
     }
@@ -49,11 +49,36 @@ import static com.hazelcast.internal.util.UUIDSerializationUtil.writeUUID;
 public class MemberHandshake
         implements IdentifiedDataSerializable {
 
+    /**
+     * Initial version of the handshake.
+     */
+    public static final byte SCHEMA_VERSION_1 = 1;
+
+    /**
+     * Adds the number of planes and the index of the plane the connection belongs to.
+     */
+    public static final byte SCHEMA_VERSION_2 = 2;
+
+    /**
+     * Adds whether the sender can decompress packets.
+     */
+    public static final byte SCHEMA_VERSION_3 = 3;
+
+    /**
+     * Adds whether the sender can decode packets encoded with a string dictionary.
+     * The senders of this version can also reassemble fragmented packets.
+     */
+    public static final byte SCHEMA_VERSION_4 = 4;
+
     private byte schemaVersion;
     private Map<ProtocolType, Collection<Address>> localAddresses;
     private Address targetAddress;
     private boolean reply;
     private UUID uuid;
+    private int planeCount = 1;
+    private int planeIndex;
+    private boolean compressionEnabled;
+    private boolean stringDictionaryEnabled;
 
     public MemberHandshake() {
     }
@@ -67,6 +92,40 @@ public class MemberHandshake
         this.uuid = uuid;
     }
 
+    /**
+     * Sets the number of planes configured on the sender and the index of the
+     * plane the connection belongs to. Sent since {@link #SCHEMA_VERSION_2}.
+     *
+     * @return this handshake
+     */
+    public MemberHandshake setPlanes(int planeCount, int planeIndex) {
+        this.planeCount = planeCount;
+        this.planeIndex = planeIndex;
+        return this;
+    }
+
+    /**
+     * Sets whether the sender can decompress packets. Sent since
+     * {@link #SCHEMA_VERSION_3}.
+     *
+     * @return this handshake
+     */
+    public MemberHandshake setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+        return this;
+    }
+
+    /**
+     * Sets whether the sender can decode packets encoded with a string
+     * dictionary. Sent since {@link #SCHEMA_VERSION_4}.
+     *
+     * @return this handshake
+     */
+    public MemberHandshake setStringDictionaryEnabled(boolean stringDictionaryEnabled) {
+        this.stringDictionaryEnabled = stringDictionaryEnabled;
+        return this;
+    }
+
     byte getSchemaVersion() {
         return schemaVersion;
     }
@@ -87,6 +146,43 @@ public class MemberHandshake
         return uuid;
     }
 
+    /**
+     * @return the number of planes configured on the sender, 1 if the sender doesn't support planes
+     */
+    public int getPlaneCount() {
+        return planeCount;
+    }
+
+    /**
+     * @return the index of the plane the connection belongs to
+     */
+    public int getPlaneIndex() {
+        return planeIndex;
+    }
+
+    /**
+     * @return {@code true} if the sender can decompress packets, {@code false} if compression
+     * is disabled on the sender or the sender doesn't support it
+     */
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * @return {@code true} if the sender can reassemble fragmented packets
+     */
+    public boolean isFragmentationSupported() {
+        return schemaVersion >= SCHEMA_VERSION_4;
+    }
+
+    /**
+     * @return {@code true} if the sender can decode packets encoded with a string dictionary,
+     * {@code false} if the string dictionary is disabled on the sender or the sender doesn't support it
+     */
+    public boolean isStringDictionaryEnabled() {
+        return stringDictionaryEnabled;
+    }
+
     @Override
     public int getFactoryId() {
         return ClusterDataSerializerHook.F_ID;
@@ -105,12 +201,21 @@ public class MemberHandshake
         writeUUID(out, uuid);
         int size = (localAddresses == null) ? 0 : localAddresses.size();
         out.writeInt(size);
-        if (size == 0) {
-            return;
+        if (size > 0) {
+            for (Map.Entry<ProtocolType, Collection<Address>> addressEntry : localAddresses.entrySet()) {
+                out.writeInt(addressEntry.getKey().ordinal());
+                writeCollection(addressEntry.getValue(), out);
+            }
+        }
+        if (schemaVersion >= SCHEMA_VERSION_2) {
+            out.writeInt(planeCount);
+            out.writeInt(planeIndex);
         }
-        for (Map.Entry<ProtocolType, Collection<Address>> addressEntry : localAddresses.entrySet()) {
-            out.writeInt(addressEntry.getKey().ordinal());
-            writeCollection(addressEntry.getValue(), out);
+        if (schemaVersion >= SCHEMA_VERSION_3) {
+            out.writeBoolean(compressionEnabled);
+        }
+        if (schemaVersion >= SCHEMA_VERSION_4) {
+            out.writeBoolean(stringDictionaryEnabled);
         }
     }
 
@@ -123,20 +228,32 @@ public class MemberHandshake
         int size = in.readInt();
         if (size == 0) {
             localAddresses = Collections.emptyMap();
-            return;
+        } else {
+            Map<ProtocolType, Collection<Address>> addressesPerProtocolType = new EnumMap<>(ProtocolType.class);
+            for (int i = 0; i < size; i++) {
+                ProtocolType protocolType = ProtocolType.valueOf(in.readInt());
+                Collection<Address> addresses = readCollection(in);
+                addressesPerProtocolType.put(protocolType, addresses);
+            }
+            this.localAddresses = addressesPerProtocolType;
+        }
+        if (schemaVersion >= SCHEMA_VERSION_2) {
+            planeCount = in.readInt();
+            planeIndex = in.readInt();
+        }
+        if (schemaVersion >= SCHEMA_VERSION_3) {
+            compressionEnabled = in.readBoolean();
         }
-        Map<ProtocolType, Collection<Address>> addressesPerProtocolType = new EnumMap<>(ProtocolType.class);
-        for (int i = 0; i < size; i++) {
-            ProtocolType protocolType = ProtocolType.valueOf(in.readInt());
-            Collection<Address> addresses = readCollection(in);
-            addressesPerProtocolType.put(protocolType, addresses);
+        if (schemaVersion >= SCHEMA_VERSION_4) {
+            stringDictionaryEnabled = in.readBoolean();
         }
-        this.localAddresses = addressesPerProtocolType;
     }
 
     @Override
     public String toString() {
         return "MemberHandshake{" + "schemaVersion=" + schemaVersion + ", localAddresses=" + localAddresses
-                + ", targetAddress=" + targetAddress + ", reply=" + reply + ", uuid=" + uuid + '}';
+                + ", targetAddress=" + targetAddress + ", reply=" + reply + ", uuid=" + uuid + ", planeCount=" + planeCount
+                + ", planeIndex=" + planeIndex + ", compressionEnabled=" + compressionEnabled
+                + ", stringDictionaryEnabled=" + stringDictionaryEnabled + '}';
     }
 }
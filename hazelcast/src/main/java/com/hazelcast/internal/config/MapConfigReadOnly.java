@@ -289,6 +289,11 @@ public class MapConfigReadOnly extends MapConfig {
         throw throwReadOnly();
     }
 
+    @Override
+    public MapConfig setImmutableValues(boolean immutableValues) {
+        throw throwReadOnly();
+    }
+
     @Override
     public MapConfig setWanReplicationRef(WanReplicationRef wanReplicationRef) {
         throw throwReadOnly();
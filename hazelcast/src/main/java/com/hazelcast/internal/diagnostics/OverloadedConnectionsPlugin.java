@@ -35,7 +35,6 @@ import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
-import java.util.Queue;
 import java.util.Random;
 
 import static java.lang.Math.min;
@@ -79,7 +78,7 @@ public class OverloadedConnectionsPlugin extends DiagnosticsPlugin {
     public static final HazelcastProperty SAMPLES
             = new HazelcastProperty("hazelcast.diagnostics.overloaded.connections.samples", 1000);
 
-    private static final Queue<OutboundFrame> EMPTY_QUEUE = new LinkedList<OutboundFrame>();
+    private static final Collection<OutboundFrame> EMPTY_QUEUE = new LinkedList<OutboundFrame>();
 
     private final SerializationService serializationService;
     private final ItemCounter<String> occurrenceMap = new ItemCounter<String>();
@@ -136,7 +135,7 @@ public class OverloadedConnectionsPlugin extends DiagnosticsPlugin {
     }
 
     private void scan(DiagnosticsLogWriter writer, TcpServerConnection connection, boolean priority) {
-        Queue<OutboundFrame> q = getOutboundQueue(connection, priority);
+        Collection<OutboundFrame> q = getOutboundQueue(connection, priority);
 
         int sampleCount = sample(q);
         if (sampleCount < 0) {
@@ -146,11 +145,11 @@ public class OverloadedConnectionsPlugin extends DiagnosticsPlugin {
         render(writer, connection, priority, sampleCount);
     }
 
-    private Queue<OutboundFrame> getOutboundQueue(TcpServerConnection connection, boolean priority) {
+    private Collection<OutboundFrame> getOutboundQueue(TcpServerConnection connection, boolean priority) {
         if (connection.getChannel() instanceof NioChannel) {
             NioChannel nioChannel = (NioChannel) connection.getChannel();
             NioOutboundPipeline outboundPipeline = nioChannel.outboundPipeline();
-            return priority ? outboundPipeline.priorityWriteQueue : outboundPipeline.writeQueue;
+            return priority ? outboundPipeline.priorityWriteQueue : outboundPipeline.framesPending();
         } else {
             return EMPTY_QUEUE;
         }
@@ -192,7 +191,7 @@ public class OverloadedConnectionsPlugin extends DiagnosticsPlugin {
      * @param q the queue to sample
      * @return the number of samples (if there were not sufficient samples, -1 is returned)
      */
-    private int sample(Queue<OutboundFrame> q) {
+    private int sample(Collection<OutboundFrame> q) {
         packets.addAll(q);
 
         if (packets.size() < threshold) {
@@ -242,6 +242,14 @@ public final class MetricDescriptorConstants {
     public static final String MAP_METRIC_INDEX_REMOVE_COUNT = "removeCount";
     public static final String MAP_METRIC_INDEX_TOTAL_REMOVE_LATENCY = "totalRemoveLatency";
     public static final String MAP_METRIC_INDEX_MEMORY_COST = "memoryCost";
+    public static final String MAP_PREFIX_DESERIALIZED_VALUE_CACHE = "map.deserializedValueCache";
+    public static final String MAP_METRIC_DESERIALIZED_VALUE_CACHE_HITS = "hits";
+    public static final String MAP_METRIC_DESERIALIZED_VALUE_CACHE_MISSES = "misses";
+    public static final String MAP_METRIC_DESERIALIZED_VALUE_CACHE_HIT_PERCENTAGE = "hitPercentage";
+    public static final String MAP_METRIC_DESERIALIZED_VALUE_CACHE_EVICTIONS = "evictions";
+    public static final String MAP_METRIC_DESERIALIZED_VALUE_CACHE_INVALIDATIONS = "invalidations";
+    public static final String MAP_METRIC_DESERIALIZED_VALUE_CACHE_SIZE = "size";
+    public static final String MAP_METRIC_DESERIALIZED_VALUE_CACHE_RETAINED_BYTES = "retainedBytes";
     // ===[/MAP]========================================================
 
     // ===[MEMORY]======================================================
@@ -311,6 +319,8 @@ public final class MetricDescriptorConstants {
     public static final String NETWORKING_METRIC_NIO_NETWORKING_BYTES_RECEIVED = "bytesReceived";
     public static final String NETWORKING_METRIC_NIO_NETWORKING_PACKETS_SEND = "packetsSend";
     public static final String NETWORKING_METRIC_NIO_NETWORKING_PACKETS_RECEIVED = "packetsReceived";
+    public static final String NETWORKING_METRIC_NIO_NETWORKING_BUFFER_POOL_ALLOCATED_BYTES = "bufferPoolAllocatedBytes";
+    public static final String NETWORKING_METRIC_NIO_NETWORKING_BUFFER_POOL_LENT_BYTES = "bufferPoolLentBytes";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_SIZE = "writeQueueSize";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_SIZE = "priorityWriteQueueSize";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_WRITTEN = "bytesWritten";
@@ -321,7 +331,14 @@ public final class MetricDescriptorConstants {
             "priorityWriteQueuePendingBytes";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED = "scheduled";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_CALLS = "writeCalls";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_QUEUE_SIZE = "laneQueueSize";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_FRAMES_WRITTEN = "laneFramesWritten";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_BYTES_WRITTEN = "laneBytesWritten";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_WAIT_TIME_NANOS = "laneWaitTimeNanos";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_MAX_WAIT_TIME_NANOS = "laneMaxWaitTimeNanos";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT = "processCount";
+    public static final String NETWORKING_METRIC_NIO_PIPELINE_PROCESS_TIME_NANOS = "processTimeNanos";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_OWNER_ID = "ownerId";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_STARTED_MIGRATIONS = "startedMigrations";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_COMPLETED_MIGRATIONS = "completedMigrations";
@@ -338,6 +355,13 @@ public final class MetricDescriptorConstants {
     public static final String NETWORKING_METRIC_NIO_THREAD_COMPLETED_TASK_COUNT = "completedTaskCount";
     public static final String NETWORKING_METRIC_NIO_THREAD_SELECTOR_REBUILD_COUNT = "selectorRebuildCount";
     public static final String NETWORKING_METRIC_NIO_THREAD_IDLE_TIME_MILLIS = "idleTimeMillis";
+    public static final String NETWORKING_METRIC_NIO_THREAD_WAKEUP_COUNT = "wakeupCount";
+    public static final String NETWORKING_METRIC_NIO_THREAD_BUSY_TIME_NANOS = "busyTimeNanos";
+    public static final String NETWORKING_METRIC_NIO_THREAD_WAIT_TIME_NANOS = "waitTimeNanos";
+    public static final String NETWORKING_METRIC_NIO_THREAD_BLOCKING_SELECT_COUNT = "blockingSelectCount";
+    public static final String NETWORKING_METRIC_NIO_THREAD_IDLE_ROUNDS_BEFORE_BLOCKING = "idleRoundsBeforeBlocking";
+    public static final String NETWORKING_METRIC_NIO_THREAD_BUFFER_POOL_ALLOCATED_BYTES = "bufferPoolAllocatedBytes";
+    public static final String NETWORKING_METRIC_NIO_THREAD_BUFFER_POOL_LENT_BYTES = "bufferPoolLentBytes";
     public static final String NETWORKING_METRIC_NIO_IO_BALANCER_IMBALANCE_DETECTED_COUNT = "imbalanceDetectedCount";
     public static final String NETWORKING_METRIC_NIO_IO_BALANCER_MIGRATION_COMPLETED_COUNT = "migrationCompletedCount";
     // ===[/NETWORKING]=================================================
@@ -497,6 +521,13 @@ public final class MetricDescriptorConstants {
     public static final String RUNTIME_FULL_METRIC_UPTIME = "runtime.uptime";
     // ===[/RUNTIME]====================================================
 
+    // ===[SERIALIZATION]===============================================
+    public static final String SERIALIZATION_PREFIX_BUFFER_POOL = "serialization.bufferPool";
+    public static final String SERIALIZATION_METRIC_BUFFER_POOL_HITS = "hits";
+    public static final String SERIALIZATION_METRIC_BUFFER_POOL_MISSES = "misses";
+    public static final String SERIALIZATION_METRIC_BUFFER_POOL_RETAINED_BYTES = "retainedBytes";
+    // ===[/SERIALIZATION]==============================================
+
     // ===[SET]=======================================================
     public static final String SET_PREFIX = "set";
     public static final String SET_METRIC_LAST_ACCESS_TIME = "lastAccessTime";
@@ -504,6 +535,30 @@ public final class MetricDescriptorConstants {
     public static final String SET_METRIC_CREATION_TIME = "creationTime";
     // ===[/SET]======================================================
 
+    // ===[SQL]=========================================================
+    public static final String SQL_PREFIX_FLOW_CONTROL = "sql.flowControl";
+    public static final String SQL_METRIC_FLOW_CONTROL_BATCHES_IN_FLIGHT = "batchesInFlight";
+    public static final String SQL_METRIC_FLOW_CONTROL_STALL_TIME = "stallTime";
+    public static final String SQL_METRIC_FLOW_CONTROL_CREDITS_GRANTED = "creditsGranted";
+    public static final String SQL_METRIC_FLOW_CONTROL_CREDIT_MESSAGES = "creditMessages";
+    public static final String SQL_PREFIX_SPILL = "sql.spill";
+    public static final String SQL_METRIC_SPILL_BYTES = "bytesSpilled";
+    public static final String SQL_METRIC_SPILL_FILES = "filesCreated";
+    public static final String SQL_METRIC_SPILL_QUERIES = "queriesSpilled";
+    public static final String SQL_PREFIX_SCHEDULER = "sql.scheduler";
+    public static final String SQL_METRIC_SCHEDULER_SHORT_EXECUTIONS = "shortExecutions";
+    public static final String SQL_METRIC_SCHEDULER_SHORT_QUEUE_WAIT = "shortQueueWait";
+    public static final String SQL_METRIC_SCHEDULER_LONG_EXECUTIONS = "longExecutions";
+    public static final String SQL_METRIC_SCHEDULER_LONG_QUEUE_WAIT = "longQueueWait";
+    public static final String SQL_METRIC_SCHEDULER_YIELDS = "yields";
+    public static final String SQL_METRIC_SCHEDULER_QUERIES_DEMOTED = "queriesDemoted";
+    public static final String SQL_PREFIX_PLAN_CACHE = "sql.planCache";
+    public static final String SQL_METRIC_PLAN_CACHE_HITS = "hits";
+    public static final String SQL_METRIC_PLAN_CACHE_MISSES = "misses";
+    public static final String SQL_METRIC_PLAN_CACHE_EVICTIONS = "evictions";
+    public static final String SQL_METRIC_PLAN_CACHE_INVALIDATIONS = "invalidations";
+    // ===[/SQL]========================================================
+
     // ===[TCP]=========================================================
     public static final String TCP_PREFIX = "tcp";
     public static final String TCP_PREFIX_ACCEPTOR = "tcp.acceptor";
@@ -518,11 +573,26 @@ public final class MetricDescriptorConstants {
     public static final String TCP_DISCRIMINATOR_PIPELINEID = "pipelineId";
     public static final String TCP_DISCRIMINATOR_THREAD = "thread";
     public static final String TCP_TAG_ENDPOINT = "endpoint";
+    public static final String TCP_TAG_PLANE = "plane";
+    public static final String TCP_TAG_TRAFFIC_CLASS = "trafficClass";
     public static final String TCP_METRIC_ACCEPTOR_EVENT_COUNT = "eventCount";
     public static final String TCP_METRIC_ACCEPTOR_EXCEPTION_COUNT = "exceptionCount";
     public static final String TCP_METRIC_ACCEPTOR_SELECTOR_RECREATE_COUNT = "selectorRecreateCount";
     public static final String TCP_METRIC_ACCEPTOR_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String TCP_METRIC_CONNECTION_CONNECTION_TYPE = "connectionType";
+    public static final String TCP_METRIC_CONNECTION_COMPRESSED_PACKETS = "compressedPackets";
+    public static final String TCP_METRIC_CONNECTION_DECOMPRESSED_PACKETS = "decompressedPackets";
+    public static final String TCP_METRIC_CONNECTION_BYTES_BEFORE_COMPRESSION = "bytesBeforeCompression";
+    public static final String TCP_METRIC_CONNECTION_BYTES_AFTER_COMPRESSION = "bytesAfterCompression";
+    public static final String TCP_METRIC_CONNECTION_COMPRESSION_RATIO = "compressionRatio";
+    public static final String TCP_METRIC_CONNECTION_COMPRESSION_TIME_NANOS = "compressionTimeNanos";
+    public static final String TCP_METRIC_CONNECTION_DECOMPRESSION_TIME_NANOS = "decompressionTimeNanos";
+    public static final String TCP_METRIC_CONNECTION_STRING_DICTIONARY_ENCODED_PACKETS = "stringDictionaryEncodedPackets";
+    public static final String TCP_METRIC_CONNECTION_STRING_DICTIONARY_DECODED_PACKETS = "stringDictionaryDecodedPackets";
+    public static final String TCP_METRIC_CONNECTION_STRING_DICTIONARY_REFERENCES = "stringDictionaryReferences";
+    public static final String TCP_METRIC_CONNECTION_STRING_DICTIONARY_DEFINITIONS = "stringDictionaryDefinitions";
+    public static final String TCP_METRIC_CONNECTION_BYTES_BEFORE_STRING_DICTIONARY = "bytesBeforeStringDictionary";
+    public static final String TCP_METRIC_CONNECTION_BYTES_AFTER_STRING_DICTIONARY = "bytesAfterStringDictionary";
     public static final String TCP_METRIC_ENDPOINT_MANAGER_IN_PROGRESS_COUNT = "inProgressCount";
     public static final String TCP_METRIC_ENDPOINT_MANAGER_COUNT = "count";
     public static final String TCP_METRIC_ENDPOINT_MANAGER_ACTIVE_COUNT = "activeCount";
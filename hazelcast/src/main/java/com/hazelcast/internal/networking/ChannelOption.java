@@ -66,6 +66,17 @@ public final class ChannelOption<T> {
      */
     public static final ChannelOption<Boolean> DIRECT_BUF = new ChannelOption<Boolean>("DIRECT_BUF");
 
+    /**
+     * If the socket facing buffers of the channel should be lent from a pool
+     * owned by the IO threads while there is data in flight, instead of being
+     * owned by the channel for its whole lifetime.
+     *
+     * It only applies to the buffers created using {@link InboundHandler#initSrcBuffer()}
+     * and {@link OutboundHandler#initDstBuffer()}, and those handlers need to be at the
+     * socket facing end of the pipeline.
+     */
+    public static final ChannelOption<Boolean> POOLED_BUF = new ChannelOption<Boolean>("POOLED_BUF");
+
     private final String name;
 
     /**
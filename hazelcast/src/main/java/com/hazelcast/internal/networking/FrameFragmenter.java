@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import java.util.Iterator;
+
+/**
+ * Splits large {@link OutboundFrame frames} into fragments which are written as separate frames,
+ * so that the frames of other {@link TrafficClass traffic classes} can interleave with them.
+ *
+ * The fragments of different frames may interleave as well, as long as they belong to different
+ * streams: the fragments of a single stream are written in order and the fragments of a frame are
+ * written before the fragments of the next frame of the same stream.
+ *
+ * @see OutboundPipeline#frameFragmenter(FrameFragmenter)
+ */
+@FunctionalInterface
+public interface FrameFragmenter {
+
+    /**
+     * Splits the frame into fragments.
+     *
+     * @param frame  the frame to split
+     * @param stream the stream the fragments belong to, needed to reassemble the frame on the
+     *               remote side
+     * @return the fragments or {@code null} if the frame doesn't need to be fragmented
+     */
+    Iterator<OutboundFrame> fragment(OutboundFrame frame, int stream);
+}
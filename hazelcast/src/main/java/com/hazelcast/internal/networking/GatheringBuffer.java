@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * The destination of an {@link OutboundHandler} that lets the channel write
+ * many frames with a single gathering write instead of copying all of them
+ * into a single ByteBuffer.
+ *
+ * The buffer consists of a sequence of segments. Small data, like frame headers
+ * and small payloads, is copied into a scratch buffer; consecutive bytes in the
+ * scratch buffer form a single segment. Payloads of at least
+ * {@link #referenceThreshold()} bytes are not copied, but are referenced as a
+ * segment of their own. Once all segments have been written, the scratch buffer
+ * is reused.
+ *
+ * The referenced byte arrays must not be modified until they are written; this
+ * is the case for {@link com.hazelcast.internal.nio.Packet} and client message
+ * frames since they are immutable once they have been queued.
+ *
+ * This class is not thread-safe; it is owned by the pipeline it belongs to.
+ */
+public final class GatheringBuffer {
+
+    /**
+     * The maximum number of segments written in a single gathering write. Well
+     * below the IOV_MAX of the supported platforms.
+     */
+    public static final int MAX_SEGMENTS = 128;
+
+    private final ByteBuffer scratch;
+    private final int referenceThreshold;
+    private final ByteBuffer[] segments = new ByteBuffer[MAX_SEGMENTS];
+    // index of the first segment that hasn't been written completely
+    private int head;
+    // number of sealed segments
+    private int tail;
+    // the position in the scratch buffer where the not yet sealed segment starts
+    private int sliceStart;
+
+    /**
+     * Creates a GatheringBuffer.
+     *
+     * @param scratch            the buffer small data is copied into, in writing mode.
+     * @param referenceThreshold the minimum size of a payload to be referenced
+     *                           instead of copied. Capped to half the capacity of
+     *                           the scratch buffer so that every copied payload and
+     *                           its header fit into an empty scratch buffer.
+     */
+    public GatheringBuffer(ByteBuffer scratch, int referenceThreshold) {
+        checkPositive(referenceThreshold, "referenceThreshold should be positive");
+        this.scratch = scratch;
+        this.referenceThreshold = Math.min(referenceThreshold, scratch.capacity() / 2);
+    }
+
+    /**
+     * Returns the minimum number of bytes of a payload to be referenced instead of copied.
+     */
+    public int referenceThreshold() {
+        return referenceThreshold;
+    }
+
+    /**
+     * Checks if there is room for {@code scratchBytes} bytes in the scratch buffer
+     * and for {@code references} additional referenced payloads.
+     *
+     * @return {@code true} if the data fits, {@code false} if the buffer first needs to be written.
+     */
+    public boolean reserve(int scratchBytes, int references) {
+        // every reference can cause the preceding scratch data to be sealed, and there is one trailing scratch segment
+        return scratch.remaining() >= scratchBytes && tail + 2 * references + 1 <= MAX_SEGMENTS;
+    }
+
+    /**
+     * Returns the scratch buffer to copy small data into. The buffer is in writing mode.
+     */
+    public ByteBuffer scratch() {
+        return scratch;
+    }
+
+    /**
+     * Adds a payload as a segment of its own; the bytes are not copied.
+     *
+     * Should only be called after a successful {@link #reserve(int, int)}.
+     */
+    public void reference(byte[] bytes, int offset, int length) {
+        sealScratch();
+        segments[tail++] = ByteBuffer.wrap(bytes, offset, length);
+    }
+
+    /**
+     * Checks if there are bytes that haven't been written yet.
+     */
+    public boolean hasRemaining() {
+        return head < tail || scratch.position() > sliceStart;
+    }
+
+    /**
+     * Returns the number of bytes that haven't been written yet.
+     */
+    public long remaining() {
+        long remaining = scratch.position() - sliceStart;
+        for (int k = head; k < tail; k++) {
+            remaining += segments[k].remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * Writes the pending segments to the channel with a single gathering write.
+     *
+     * @param channel the channel to write to.
+     * @return the number of bytes written.
+     * @throws IOException if the write fails.
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        sealScratch();
+        if (head == tail) {
+            return 0;
+        }
+
+        long written = channel.write(segments, head, tail - head);
+
+        while (head < tail && !segments[head].hasRemaining()) {
+            segments[head++] = null;
+        }
+
+        if (head == tail) {
+            // everything got written, so the scratch buffer can be reused
+            head = 0;
+            tail = 0;
+            sliceStart = 0;
+            scratch.clear();
+        }
+        return written;
+    }
+
+    private void sealScratch() {
+        int position = scratch.position();
+        if (position == sliceStart) {
+            return;
+        }
+
+        ByteBuffer segment = scratch.duplicate();
+        segment.position(sliceStart);
+        segment.limit(position);
+        segments[tail++] = segment;
+        sliceStart = position;
+    }
+
+    @Override
+    public String toString() {
+        return "GatheringBuffer{"
+                + "referenceThreshold=" + referenceThreshold
+                + ", segments=" + (tail - head)
+                + ", scratch=" + scratch
+                + '}';
+    }
+}
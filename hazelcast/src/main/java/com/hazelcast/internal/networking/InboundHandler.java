@@ -17,6 +17,7 @@
 package com.hazelcast.internal.networking;
 
 import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.POOLED_BUF;
 import static com.hazelcast.internal.networking.ChannelOption.SO_RCVBUF;
 import static com.hazelcast.internal.nio.IOUtil.newByteBuffer;
 
@@ -61,9 +62,16 @@ public abstract class InboundHandler<S, D> extends ChannelHandler<InboundHandler
      *
      * The capacity of the src buffer will come from the {@link ChannelOptions} using
      * {@link ChannelOption#SO_RCVBUF}
+     *
+     * If {@link ChannelOption#POOLED_BUF} is set, no buffer is created; the pipeline
+     * lends one while there is data to be processed.
      */
     protected final void initSrcBuffer() {
-        initSrcBuffer(channel.options().getOption(SO_RCVBUF));
+        ChannelOptions config = channel.options();
+        if (config.getOption(POOLED_BUF)) {
+            return;
+        }
+        initSrcBuffer(config.getOption(SO_RCVBUF));
     }
 
     /**
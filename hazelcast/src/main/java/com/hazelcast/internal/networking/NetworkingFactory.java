@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.networking.nio.NioNetworking;
+import com.hazelcast.logging.LoggingService;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+/**
+ * Creates an alternative {@link Networking} implementation, e.g. one based on
+ * a native epoll or io_uring transport.
+ *
+ * Implementations are discovered on the classpath through
+ * {@code META-INF/services/com.hazelcast.internal.networking.NetworkingFactory}
+ * and selected with {@link com.hazelcast.spi.properties.ClusterProperty#IO_TRANSPORT}.
+ * If the selected implementation isn't found or isn't available on the current
+ * platform, the {@link NioNetworking} is used.
+ *
+ * The created Networking needs to support the same {@link InboundHandler} and
+ * {@link OutboundHandler} instances as the {@link NioNetworking}.
+ */
+public interface NetworkingFactory {
+
+    /**
+     * The factory id used to discover the implementations.
+     */
+    String FACTORY_ID = "com.hazelcast.internal.networking.NetworkingFactory";
+
+    /**
+     * Returns the name of the transport, e.g. {@code epoll}. This is the value
+     * to select it with {@link com.hazelcast.spi.properties.ClusterProperty#IO_TRANSPORT}.
+     */
+    String name();
+
+    /**
+     * Checks if the transport can be used on this platform, e.g. if its
+     * native library can be loaded.
+     */
+    boolean isAvailable();
+
+    /**
+     * Creates the Networking.
+     *
+     * @param threadNamePrefix the prefix for the names of the created threads
+     * @param loggingService   the logging service
+     * @param metricsRegistry  the registry to register the metrics of the Networking with
+     * @param errorHandler     the handler for errors on channels
+     * @param properties       the properties, e.g. for the number of IO threads
+     * @return the created Networking
+     */
+    Networking create(String threadNamePrefix,
+                      LoggingService loggingService,
+                      MetricsRegistry metricsRegistry,
+                      ChannelErrorHandler errorHandler,
+                      HazelcastProperties properties);
+}
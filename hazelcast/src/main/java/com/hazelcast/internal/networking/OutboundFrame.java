@@ -56,4 +56,14 @@ public interface OutboundFrame {
      * @return The frame length.
      */
     int getFrameLength();
+
+    /**
+     * Returns the traffic class of this frame, which determines the queue the frame is
+     * put in when fair queuing is enabled.
+     *
+     * @return the traffic class.
+     */
+    default TrafficClass getTrafficClass() {
+        return TrafficClass.OPERATION;
+    }
 }
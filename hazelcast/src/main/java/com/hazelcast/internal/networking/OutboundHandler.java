@@ -21,6 +21,7 @@ import com.hazelcast.internal.nio.IOUtil;
 import java.nio.ByteBuffer;
 
 import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.POOLED_BUF;
 import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
 import static com.hazelcast.internal.nio.IOUtil.newByteBuffer;
 
@@ -81,9 +82,16 @@ public abstract class OutboundHandler<S, D> extends ChannelHandler<OutboundHandl
      * Initializes the dst ByteBuffer with the value for {@link ChannelOption#SO_SNDBUF}.
      *
      * The buffer created is reading mode.
+     *
+     * If {@link ChannelOption#POOLED_BUF} is set, no buffer is created; the pipeline
+     * lends one while there is data to be written.
      */
     protected final void initDstBuffer() {
-        initDstBuffer(channel.options().getOption(SO_SNDBUF));
+        ChannelOptions config = channel.options();
+        if (config.getOption(POOLED_BUF)) {
+            return;
+        }
+        initDstBuffer(config.getOption(SO_SNDBUF));
     }
 
     /**
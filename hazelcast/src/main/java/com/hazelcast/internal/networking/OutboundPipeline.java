@@ -86,4 +86,19 @@ public interface OutboundPipeline {
      * @return this
      */
     OutboundPipeline wakeup();
+
+    /**
+     * Sets the fragmenter used to split large frames into fragments, so that the frames of the
+     * other {@link TrafficClass traffic classes} can be written in between the fragments. It is
+     * only used when fair queuing is enabled. The fragmenter applies to the frames which aren't
+     * written yet.
+     *
+     * Must only be set once the remote side is known to be able to reassemble the fragments.
+     *
+     * This method is threadsafe and can safely be called from any thread.
+     *
+     * @param fragmenter the fragmenter or {@code null} to stop fragmenting frames
+     * @return this
+     */
+    OutboundPipeline frameFragmenter(FrameFragmenter fragmenter);
 }
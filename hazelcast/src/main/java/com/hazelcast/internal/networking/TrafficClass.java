@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+/**
+ * The traffic class of an {@link OutboundFrame}. When fair queuing is enabled, the outbound pipeline of a
+ * {@link Channel} has a queue per traffic class and the bandwidth of the channel is shared between the
+ * queues according to their weights, so that a stream of large frames of one class doesn't delay the
+ * frames of the other classes for long.
+ *
+ * {@link OutboundFrame#isUrgent() Urgent} frames are not subject to fair queuing; they are always
+ * written before the frames of any traffic class. The exception is {@link #MIGRATION} whose frames
+ * are queued by traffic class even when urgent, since they carry bulk partition data.
+ */
+public enum TrafficClass {
+
+    /**
+     * Responses to operations and client requests.
+     */
+    RESPONSE(8),
+    /**
+     * Operations and everything not classified otherwise.
+     */
+    OPERATION(4),
+    /**
+     * Events.
+     */
+    EVENT(2),
+    /**
+     * Partition migration and replication.
+     */
+    MIGRATION(1),
+    /**
+     * Bulk data transfer, e.g. Jet and SQL data streams.
+     */
+    BULK(1);
+
+    private final int weight;
+
+    TrafficClass(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @return the relative share of the bandwidth the traffic class gets when all classes have frames queued
+     */
+    public int weight() {
+        return weight;
+    }
+}
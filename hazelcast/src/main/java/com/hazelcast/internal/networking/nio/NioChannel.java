@@ -116,6 +116,10 @@ public final class NioChannel extends AbstractChannel {
             }
         }
 
+        // the lent socket buffers are never drained by a closed channel
+        inboundPipeline.returnLentBufferOnClose();
+        outboundPipeline.returnLentBufferOnClose();
+
         if (Thread.currentThread() instanceof NioThread) {
             // we don't want to do any tasks on an io thread; we offload it instead
             try {
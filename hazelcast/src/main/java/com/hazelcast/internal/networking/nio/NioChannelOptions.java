@@ -29,6 +29,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.POOLED_BUF;
 import static com.hazelcast.internal.networking.ChannelOption.SO_KEEPALIVE;
 import static com.hazelcast.internal.networking.ChannelOption.SO_LINGER;
 import static com.hazelcast.internal.networking.ChannelOption.SO_RCVBUF;
@@ -51,6 +52,7 @@ final class NioChannelOptions implements ChannelOptions {
 
     NioChannelOptions(Socket socket) {
         setOption(DIRECT_BUF, false);
+        setOption(POOLED_BUF, false);
         this.socket = socket;
     }
 
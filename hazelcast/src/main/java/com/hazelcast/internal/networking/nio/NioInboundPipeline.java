@@ -19,6 +19,7 @@ package com.hazelcast.internal.networking.nio;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.ChannelHandler;
+import com.hazelcast.internal.networking.ChannelOptions;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.InboundPipeline;
@@ -29,6 +30,7 @@ import com.hazelcast.logging.ILogger;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.Selector;
 import java.util.Arrays;
 
@@ -38,6 +40,8 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKIN
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_INBOUND_PIPELINE_PRIORITY_FRAMES_READ;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_RCVBUF;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.collection.ArrayUtils.append;
 import static com.hazelcast.internal.util.collection.ArrayUtils.replaceFirst;
@@ -56,6 +60,12 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
 
     private InboundHandler[] handlers = new InboundHandler[0];
     private ByteBuffer receiveBuffer;
+    // the receive buffer if it is lent from the pool of the owning thread
+    private ByteBuffer lentReceiveBuffer;
+    // the pool the receive buffer is lent from; the owner may have changed since
+    private SlabBufferPool receiveBufferPool;
+    // set once the channel is closed, so no buffer is lent afterwards
+    private volatile boolean lendingStopped;
 
     @Probe(name = NETWORKING_METRIC_NIO_INBOUND_PIPELINE_BYTES_READ, unit = BYTES)
     private final SwCounter bytesRead = newSwCounter();
@@ -95,6 +105,8 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
                 return bytesRead.get();
             case LOAD_BALANCING_FRAME:
                 return normalFramesRead.get() + priorityFramesRead.get();
+            case LOAD_BALANCING_TIME:
+                return processTimeNanos.get();
             default:
                 throw new RuntimeException();
         }
@@ -116,6 +128,7 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
         // the connection is going to be closed anyway.
         lastReadTime = currentTimeMillis();
 
+        lendReceiveBufferIfNeeded();
         int readBytes = socketChannel.read(receiveBuffer);
 
         if (readBytes == -1) {
@@ -139,6 +152,7 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
                     // change in the pipeline detected, restarting loop
                     handlerIndex = -1;
                     localHandlers = handlers;
+                    lendReceiveBufferIfNeeded();
                     continue;
                 }
 
@@ -159,6 +173,8 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
             }
         } while (!cleanPipeline);
 
+        returnReceiveBufferIfDrained();
+
         if (migrationRequested()) {
             startMigration();
             return;
@@ -169,6 +185,65 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
         }
     }
 
+    // if the first handler has no src buffer, it relies on the pipeline to lend one (see ChannelOption.POOLED_BUF)
+    private void lendReceiveBufferIfNeeded() throws ClosedChannelException {
+        if (receiveBuffer != null) {
+            return;
+        }
+
+        if (lendingStopped) {
+            throw new ClosedChannelException();
+        }
+        if (lentReceiveBuffer != null) {
+            // the handler it was lent to has been removed from the pipeline
+            receiveBufferPool.release(lentReceiveBuffer);
+        }
+        ChannelOptions options = channel.options();
+        receiveBufferPool = owner.bufferPool;
+        receiveBuffer = receiveBufferPool.acquire(options.getOption(SO_RCVBUF), options.getOption(DIRECT_BUF));
+        lentReceiveBuffer = receiveBuffer;
+        handlers[0].src(receiveBuffer);
+    }
+
+    private void returnReceiveBufferIfDrained() {
+        ByteBuffer buffer = lentReceiveBuffer;
+        if (buffer == null) {
+            return;
+        }
+
+        if (buffer == receiveBuffer) {
+            // the buffer is in writing mode, so a non zero position means a partially received frame
+            if (buffer.position() > 0) {
+                return;
+            }
+            handlers[0].src(null);
+            receiveBuffer = null;
+        }
+        lentReceiveBuffer = null;
+        receiveBufferPool.release(buffer);
+    }
+
+    /**
+     * Returns the lent receive buffer to the pool once the channel is closed,
+     * even if it still contains a partially received frame; a closed channel
+     * never drains it.
+     */
+    void returnLentBufferOnClose() {
+        ownerAddTaskAndWakeup(() -> {
+            lendingStopped = true;
+            ByteBuffer buffer = lentReceiveBuffer;
+            if (buffer == null) {
+                return;
+            }
+            if (buffer == receiveBuffer) {
+                handlers[0].src(null);
+                receiveBuffer = null;
+            }
+            lentReceiveBuffer = null;
+            receiveBufferPool.release(buffer);
+        });
+    }
+
     long bytesRead() {
         return bytesRead.get();
     }
@@ -46,12 +46,15 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_NETWORKING_BUFFER_POOL_ALLOCATED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_NETWORKING_BUFFER_POOL_LENT_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_NETWORKING_BYTES_RECEIVED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_NETWORKING_BYTES_SEND;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_NETWORKING_PACKETS_RECEIVED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_NETWORKING_PACKETS_SEND;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_DISCRIMINATOR_PIPELINEID;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_DISCRIMINATOR_THREAD;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_TAG_TRAFFIC_CLASS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_PREFIX;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_PREFIX_BALANCER;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_PREFIX_CONNECTION_IN;
@@ -59,6 +62,8 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_PREFI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_PREFIX_INPUTTHREAD;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_PREFIX_OUTPUTTHREAD;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.networking.ChannelOption.POOLED_BUF;
+import static com.hazelcast.internal.networking.nio.SelectorMode.ADAPTIVE_STRING;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT_NOW_STRING;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT_WITH_FIX;
@@ -118,6 +123,8 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
     private volatile ExecutorService closeListenerExecutor;
     private final ConcurrencyDetection concurrencyDetection;
     private final boolean writeThroughEnabled;
+    private final boolean bufferPoolEnabled;
+    private final boolean fairQueuingEnabled;
     private volatile IOBalancer ioBalancer;
     private volatile NioThread[] inputThreads;
     private volatile NioThread[] outputThreads;
@@ -134,6 +141,10 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
     private volatile long packetsSend;
     @Probe(name = NETWORKING_METRIC_NIO_NETWORKING_PACKETS_RECEIVED)
     private volatile long packetsReceived;
+    @Probe(name = NETWORKING_METRIC_NIO_NETWORKING_BUFFER_POOL_ALLOCATED_BYTES, unit = BYTES)
+    private volatile long bufferPoolAllocatedBytes;
+    @Probe(name = NETWORKING_METRIC_NIO_NETWORKING_BUFFER_POOL_LENT_BYTES, unit = BYTES)
+    private volatile long bufferPoolLentBytes;
 
     public NioNetworking(Context ctx) {
         this.threadNamePrefix = ctx.threadNamePrefix;
@@ -148,6 +159,8 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         this.selectorWorkaroundTest = ctx.selectorWorkaroundTest;
         this.idleStrategy = ctx.idleStrategy;
         this.concurrencyDetection = ctx.concurrencyDetection;
+        this.bufferPoolEnabled = ctx.bufferPoolEnabled;
+        this.fairQueuingEnabled = ctx.fairQueuingEnabled;
         // selector mode SELECT_WITH_FIX requires that a single thread
         // accesses a selector & its selectionKeys. Selection key wake-up
         // and write through break this requirement, therefore must be
@@ -300,6 +313,9 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         }
 
         NioChannel channel = new NioChannel(socketChannel, clientMode, channelInitializer, closeListenerExecutor);
+        if (bufferPoolEnabled) {
+            channel.options().setOption(POOLED_BUF, true);
+        }
 
         socketChannel.configureBlocking(false);
 
@@ -327,7 +343,8 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                 ioBalancer,
                 concurrencyDetection,
                 writeThroughEnabled,
-                selectionKeyWakeupEnabled);
+                selectionKeyWakeupEnabled,
+                fairQueuingEnabled);
     }
 
     private NioInboundPipeline newInboundPipeline(NioChannel channel) {
@@ -361,7 +378,13 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                     .copy()
                     .withPrefix(TCP_PREFIX_CONNECTION_OUT)
                     .withDiscriminator(TCP_DISCRIMINATOR_PIPELINEID, pipelineId);
-            context.collect(descriptorOut, channel.outboundPipeline());
+            NioOutboundPipeline outboundPipeline = (NioOutboundPipeline) channel.outboundPipeline();
+            context.collect(descriptorOut, outboundPipeline);
+            if (outboundPipeline.lanes != null) {
+                for (OutboundLanes.Lane lane : outboundPipeline.lanes.lanes) {
+                    context.collect(descriptorOut.copy().withTag(TCP_TAG_TRAFFIC_CLASS, lane.trafficClass.name()), lane);
+                }
+            }
         }
 
         NioThread[] inputThreads = this.inputThreads;
@@ -372,6 +395,7 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                         .withPrefix(TCP_PREFIX_INPUTTHREAD)
                         .withDiscriminator(TCP_DISCRIMINATOR_THREAD, nioThread.getName());
                 context.collect(descriptorInThread, nioThread);
+                context.collect(descriptorInThread, nioThread.bufferPool);
             }
         }
 
@@ -383,6 +407,7 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                         .withPrefix(TCP_PREFIX_OUTPUTTHREAD)
                         .withDiscriminator(TCP_DISCRIMINATOR_THREAD, nioThread.getName());
                 context.collect(descriptorOutThread, nioThread);
+                context.collect(descriptorOutThread, nioThread.bufferPool);
             }
         }
 
@@ -409,6 +434,10 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         return selectionKeyWakeupEnabled;
     }
 
+    boolean isFairQueuingEnabled() {
+        return fairQueuingEnabled;
+    }
+
     private class ChannelCloseListenerImpl implements ChannelCloseListener {
         @Override
         public void onClose(Channel channel) {
@@ -440,6 +469,8 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             bytesReceived = bytesTransceived(inputThreads);
             packetsSend = packetsTransceived(outputThreads);
             packetsReceived = packetsTransceived(inputThreads);
+            bufferPoolAllocatedBytes = bufferPoolAllocatedBytes(inputThreads) + bufferPoolAllocatedBytes(outputThreads);
+            bufferPoolLentBytes = bufferPoolLentBytes(inputThreads) + bufferPoolLentBytes(outputThreads);
         }
 
         private long bytesTransceived(NioThread[] threads) {
@@ -465,6 +496,30 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             }
             return result;
         }
+
+        private long bufferPoolAllocatedBytes(NioThread[] threads) {
+            if (threads == null) {
+                return 0;
+            }
+
+            long result = 0;
+            for (NioThread nioThread : threads) {
+                result += nioThread.bufferPool.allocatedBytes();
+            }
+            return result;
+        }
+
+        private long bufferPoolLentBytes(NioThread[] threads) {
+            if (threads == null) {
+                return 0;
+            }
+
+            long result = 0;
+            for (NioThread nioThread : threads) {
+                result += nioThread.bufferPool.lentBytes();
+            }
+            return result;
+        }
     }
 
     public static class Context {
@@ -493,10 +548,15 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         // if the calling thread is allowed to write through to the socket if that is possible.
         // this is an optimization that can speed up low threaded setups
         private boolean writeThroughEnabled;
+        // if the socket buffers are lent from pools of the IO threads instead of being owned by the channels
+        private boolean bufferPoolEnabled;
+        // if the non urgent frames are queued per traffic class and written with weighted fair queuing
+        private boolean fairQueuingEnabled;
 
         public Context() {
             String selectorModeString = SelectorMode.getConfiguredString();
-            if (selectorModeString.startsWith(SELECT_NOW_STRING + ",")) {
+            if (selectorModeString.startsWith(SELECT_NOW_STRING + ",")
+                    || selectorModeString.startsWith(ADAPTIVE_STRING + ",")) {
                 idleStrategy = createBackoffIdleStrategy(selectorModeString);
             }
         }
@@ -511,6 +571,16 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             return this;
         }
 
+        public Context bufferPoolEnabled(boolean bufferPoolEnabled) {
+            this.bufferPoolEnabled = bufferPoolEnabled;
+            return this;
+        }
+
+        public Context fairQueuingEnabled(boolean fairQueuingEnabled) {
+            this.fairQueuingEnabled = fairQueuingEnabled;
+            return this;
+        }
+
         public Context concurrencyDetection(ConcurrencyDetection concurrencyDetection) {
             this.concurrencyDetection = concurrencyDetection;
             return this;
@@ -19,10 +19,14 @@ package com.hazelcast.internal.networking.nio;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.ChannelHandler;
+import com.hazelcast.internal.networking.ChannelOptions;
+import com.hazelcast.internal.networking.FrameFragmenter;
+import com.hazelcast.internal.networking.GatheringBuffer;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.networking.OutboundPipeline;
+import com.hazelcast.internal.networking.TrafficClass;
 import com.hazelcast.internal.networking.nio.iobalancer.IOBalancer;
 import com.hazelcast.internal.util.ConcurrencyDetection;
 import com.hazelcast.internal.util.counters.SwCounter;
@@ -30,7 +34,9 @@ import com.hazelcast.logging.ILogger;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicReference;
@@ -43,11 +49,14 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKIN
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_PENDING_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_CALLS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_PENDING_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
@@ -59,6 +68,7 @@ import static java.lang.System.currentTimeMillis;
 import static java.lang.Thread.currentThread;
 import static java.nio.channels.SelectionKey.OP_WRITE;
 
+@SuppressWarnings("checkstyle:methodcount")
 public final class NioOutboundPipeline
         extends NioPipeline
         implements Supplier<OutboundFrame>, OutboundPipeline {
@@ -110,8 +120,21 @@ public final class NioOutboundPipeline
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_SIZE)
     public final Queue<OutboundFrame> priorityWriteQueue = new ConcurrentLinkedQueue<>();
 
+    // the queues of the non urgent frames if fair queuing is enabled; the writeQueue is unused then
+    final OutboundLanes lanes;
+
     private OutboundHandler[] handlers = new OutboundHandler[0];
     private ByteBuffer sendBuffer;
+    // set instead of the sendBuffer if the last handler produces a GatheringBuffer
+    private GatheringBuffer gatheringBuffer;
+    // the send buffer if it is lent from the pool of the owning thread
+    private ByteBuffer lentSendBuffer;
+    // the pool the send buffer is lent from; the owner may have changed since
+    private SlabBufferPool sendBufferPool;
+    // set once the channel is closed, so no buffer is lent afterwards
+    private volatile boolean lendingStopped;
+    // set while the pipeline is processed on a calling thread; see returnLentBufferOnClose
+    private volatile boolean writingThrough;
 
     private final AtomicReference<State> scheduled = new AtomicReference<>(State.SCHEDULED);
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_WRITTEN, unit = BYTES)
@@ -120,6 +143,8 @@ public final class NioOutboundPipeline
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_FRAMES_WRITTEN)
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_CALLS)
+    private final SwCounter writeCalls = newSwCounter();
 
     private volatile long lastWriteTime;
 
@@ -139,10 +164,25 @@ public final class NioOutboundPipeline
                         ConcurrencyDetection concurrencyDetection,
                         boolean writeThroughEnabled,
                         boolean selectionKeyWakeupEnabled) {
+        this(channel, owner, errorHandler, logger, balancer, concurrencyDetection, writeThroughEnabled,
+                selectionKeyWakeupEnabled, false);
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    NioOutboundPipeline(NioChannel channel,
+                        NioThread owner,
+                        ChannelErrorHandler errorHandler,
+                        ILogger logger,
+                        IOBalancer balancer,
+                        ConcurrencyDetection concurrencyDetection,
+                        boolean writeThroughEnabled,
+                        boolean selectionKeyWakeupEnabled,
+                        boolean fairQueuingEnabled) {
         super(channel, owner, errorHandler, OP_WRITE, logger, balancer);
         this.concurrencyDetection = concurrencyDetection;
         this.writeThroughEnabled = writeThroughEnabled;
         this.selectionKeyWakeupEnabled = selectionKeyWakeupEnabled;
+        this.lanes = fairQueuingEnabled ? new OutboundLanes() : null;
     }
 
     @Override
@@ -154,13 +194,22 @@ public final class NioOutboundPipeline
                 return bytesWritten.get();
             case LOAD_BALANCING_FRAME:
                 return normalFramesWritten.get() + priorityFramesWritten.get();
+            case LOAD_BALANCING_TIME:
+                return processTimeNanos.get();
             default:
                 throw new RuntimeException();
         }
     }
 
     public int totalFramesPending() {
-        return writeQueue.size() + priorityWriteQueue.size();
+        return (lanes == null ? writeQueue.size() : lanes.size()) + priorityWriteQueue.size();
+    }
+
+    /**
+     * Returns the non urgent frames which are pending. Only useful for diagnostics.
+     */
+    public Collection<OutboundFrame> framesPending() {
+        return lanes == null ? writeQueue : lanes.frames();
     }
 
     public long lastWriteTimeMillis() {
@@ -169,7 +218,7 @@ public final class NioOutboundPipeline
 
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_PENDING_BYTES, level = DEBUG, unit = BYTES)
     public long bytesPending() {
-        return bytesPending(writeQueue);
+        return lanes == null ? bytesPending(writeQueue) : lanes.bytesPending();
     }
 
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_PENDING_BYTES, level = DEBUG, unit = BYTES)
@@ -196,8 +245,13 @@ public final class NioOutboundPipeline
     }
 
     public void write(OutboundFrame frame) {
-        if (frame.isUrgent()) {
+        if (lanes != null && frame.getTrafficClass() == TrafficClass.MIGRATION) {
+            // migration data is urgent, but too large to bypass the other traffic classes
+            lanes.offer(frame);
+        } else if (frame.isUrgent()) {
             priorityWriteQueue.offer(frame);
+        } else if (lanes != null) {
+            lanes.offer(frame);
         } else {
             writeQueue.offer(frame);
         }
@@ -233,10 +287,13 @@ public final class NioOutboundPipeline
     private void executePipeline() {
          if (writeThroughEnabled && !concurrencyDetection.isDetected()) {
             // we are allowed to do a write through, so lets process the request on the calling thread
+            writingThrough = true;
             try {
                 process();
             } catch (Throwable t) {
                 onError(t);
+            } finally {
+                writingThrough = false;
             }
         } else {
             if (selectionKeyWakeupEnabled) {
@@ -271,7 +328,7 @@ public final class NioOutboundPipeline
     public OutboundFrame get() {
         OutboundFrame frame = priorityWriteQueue.poll();
         if (frame == null) {
-            frame = writeQueue.poll();
+            frame = lanes == null ? writeQueue.poll() : lanes.poll();
 
             if (frame == null) {
                 return null;
@@ -288,8 +345,13 @@ public final class NioOutboundPipeline
     @Override
     @SuppressWarnings("unchecked")
     public void process() throws Exception {
+        if (lendingStopped) {
+            // the channel is closed; the lent buffer is returned by returnLentBufferOnClose
+            return;
+        }
         processCount.inc();
 
+        lendSendBufferIfNeeded();
         OutboundHandler[] localHandlers = handlers;
         HandlerStatus pipelineStatus = CLEAN;
         for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
@@ -302,12 +364,14 @@ public final class NioOutboundPipeline
                 localHandlers = handlers;
                 pipelineStatus = CLEAN;
                 handlerIndex = -1;
+                lendSendBufferIfNeeded();
             } else if (handlerStatus != CLEAN) {
                 pipelineStatus = handlerStatus;
             }
         }
 
         flushToSocket();
+        returnSendBufferIfDrained();
 
         if (migrationRequested()) {
             startMigration();
@@ -316,7 +380,7 @@ public final class NioOutboundPipeline
             return;
         }
 
-        if (sendBuffer.remaining() > 0) {
+        if (hasPendingBytes()) {
             pipelineStatus = DIRTY;
         }
 
@@ -373,7 +437,7 @@ public final class NioOutboundPipeline
             // if we don't wake up the selector explicitly, only after the selector.select(timeout)
             // has expired the selectionKey will be seen. For more info see:
             // https://stackoverflow.com/questions/11523471/java-selectionkey-interestopsint-not-thread-safe
-            owner.getSelector().wakeup();
+            owner.wakeup();
             concurrencyDetection.onDetected();
         }
     }
@@ -400,7 +464,7 @@ public final class NioOutboundPipeline
 
             // we manage to unschedule the pipeline. From this point on we have released ownership of the pipeline
             // and another thread could call the process method.
-            if (writeQueue.isEmpty() && priorityWriteQueue.isEmpty()) {
+            if ((lanes == null ? writeQueue.isEmpty() : lanes.isEmpty()) && priorityWriteQueue.isEmpty()) {
                 //pipeline is clean, we are done.
                 return;
             }
@@ -420,9 +484,65 @@ public final class NioOutboundPipeline
         }
     }
 
+    private boolean hasPendingBytes() {
+        if (gatheringBuffer != null) {
+            return gatheringBuffer.hasRemaining();
+        }
+        return sendBuffer != null && sendBuffer.hasRemaining();
+    }
+
+    // if the last handler has no dst buffer, it relies on the pipeline to lend one (see ChannelOption.POOLED_BUF)
+    private void lendSendBufferIfNeeded() throws ClosedChannelException {
+        OutboundHandler[] localHandlers = handlers;
+        if (sendBuffer != null || gatheringBuffer != null || localHandlers.length == 0) {
+            return;
+        }
+        if (lendingStopped) {
+            throw new ClosedChannelException();
+        }
+
+        if (lentSendBuffer != null) {
+            // the handler it was lent to has been removed from the pipeline
+            sendBufferPool.release(lentSendBuffer);
+        }
+        ChannelOptions options = channel.options();
+        sendBufferPool = owner.bufferPool;
+        ByteBuffer buffer = sendBufferPool.acquire(options.getOption(SO_SNDBUF), options.getOption(DIRECT_BUF));
+        // the dst buffer of an OutboundHandler is in reading mode
+        buffer.flip();
+        sendBuffer = buffer;
+        lentSendBuffer = buffer;
+        localHandlers[localHandlers.length - 1].dst(buffer);
+    }
+
+    private void returnSendBufferIfDrained() {
+        ByteBuffer buffer = lentSendBuffer;
+        if (buffer == null) {
+            return;
+        }
+
+        if (buffer == sendBuffer) {
+            if (buffer.hasRemaining()) {
+                return;
+            }
+            OutboundHandler[] localHandlers = handlers;
+            localHandlers[localHandlers.length - 1].dst(null);
+            sendBuffer = null;
+        }
+        lentSendBuffer = null;
+        sendBufferPool.release(buffer);
+    }
+
     private void flushToSocket() throws IOException {
         lastWriteTime = currentTimeMillis();
-        int written = socketChannel.write(sendBuffer);
+        if (!hasPendingBytes()) {
+            return;
+        }
+
+        writeCalls.inc();
+        long written = gatheringBuffer == null
+                ? socketChannel.write(sendBuffer)
+                : gatheringBuffer.writeTo(socketChannel);
         bytesWritten.inc(written);
         //System.out.println(channel + " bytes written:" + written);
     }
@@ -430,6 +550,48 @@ public final class NioOutboundPipeline
     void drainWriteQueues() {
         writeQueue.clear();
         priorityWriteQueue.clear();
+        if (lanes != null) {
+            lanes.clear();
+        }
+    }
+
+    /**
+     * Returns the lent send buffer to the pool once the channel is closed,
+     * even if it still contains unsent bytes; a closed channel never drains
+     * it.
+     * <p>
+     * The buffer is returned on the owner, but a write-through may still be
+     * processing the pipeline on a calling thread, in which case the task
+     * is retried. A write-through started after {@code lendingStopped} is set
+     * doesn't touch the buffer.
+     */
+    void returnLentBufferOnClose() {
+        lendingStopped = true;
+        ownerAddTaskAndWakeup(new ReturnLentBufferTask());
+    }
+
+    private final class ReturnLentBufferTask implements Runnable {
+        @Override
+        public void run() {
+            if (writingThrough) {
+                ownerAddTaskAndWakeup(this);
+                return;
+            }
+
+            ByteBuffer buffer = lentSendBuffer;
+            if (buffer == null) {
+                return;
+            }
+            OutboundHandler[] localHandlers = handlers;
+            if (buffer == sendBuffer) {
+                if (localHandlers.length > 0) {
+                    localHandlers[localHandlers.length - 1].dst(null);
+                }
+                sendBuffer = null;
+            }
+            lentSendBuffer = null;
+            sendBufferPool.release(buffer);
+        }
     }
 
     long bytesWritten() {
@@ -463,6 +625,14 @@ public final class NioOutboundPipeline
         return Arrays.asList(handlers);
     }
 
+    @Override
+    public OutboundPipeline frameFragmenter(FrameFragmenter fragmenter) {
+        if (lanes != null) {
+            lanes.fragmenter(fragmenter);
+        }
+        return this;
+    }
+
     @Override
     public OutboundPipeline remove(OutboundHandler handler) {
         return replace(handler);
@@ -498,7 +668,14 @@ public final class NioOutboundPipeline
 
     private void updatePipeline(OutboundHandler[] newHandlers) {
         this.handlers = newHandlers;
-        this.sendBuffer = newHandlers.length == 0 ? null : (ByteBuffer) newHandlers[newHandlers.length - 1].dst();
+        Object dst = newHandlers.length == 0 ? null : newHandlers[newHandlers.length - 1].dst();
+        if (dst instanceof GatheringBuffer) {
+            this.gatheringBuffer = (GatheringBuffer) dst;
+            this.sendBuffer = null;
+        } else {
+            this.gatheringBuffer = null;
+            this.sendBuffer = (ByteBuffer) dst;
+        }
 
         OutboundHandler prev = null;
         for (OutboundHandler handler : handlers) {
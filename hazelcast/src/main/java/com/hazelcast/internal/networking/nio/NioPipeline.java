@@ -35,9 +35,12 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKIN
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_OPS_READY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_OWNER_ID;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_PROCESS_TIME_NANOS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_STARTED_MIGRATIONS;
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static java.lang.System.nanoTime;
 import static java.lang.Thread.currentThread;
 
 public abstract class NioPipeline implements MigratablePipeline, Runnable {
@@ -45,13 +48,18 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
     protected static final int LOAD_BALANCING_HANDLE = 0;
     protected static final int LOAD_BALANCING_BYTE = 1;
     protected static final int LOAD_BALANCING_FRAME = 2;
+    protected static final int LOAD_BALANCING_TIME = 3;
 
     // for the time being we configure using a int until we have decided which load strategy to use.
-    protected final int loadType = Integer.getInteger("hazelcast.io.load", LOAD_BALANCING_BYTE);
+    protected final int loadType = Integer.getInteger("hazelcast.io.load", LOAD_BALANCING_TIME);
 
     // the number of time the NioPipeline.process() method has been called.
     @Probe(name = NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT)
     protected final SwCounter processCount = newSwCounter();
+    // the time the owning NioThread spent in the NioPipeline.process() method; only
+    // recorded when the load is balanced on processing time.
+    @Probe(name = NETWORKING_METRIC_NIO_PIPELINE_PROCESS_TIME_NANOS, unit = NS)
+    protected final SwCounter processTimeNanos = newSwCounter();
     protected final ILogger logger;
     protected final NioChannel channel;
     protected final SocketChannel socketChannel;
@@ -223,11 +231,33 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
         }
     }
 
+    /**
+     * Processes the pipeline on the owning {@link NioThread}. When the load is balanced on processing
+     * time, the time spent is recorded, so it contains the actual cost of the pipeline: reading or
+     * writing the socket, decoding or encoding the frames, regardless of how many events or bytes
+     * that took.
+     *
+     * @throws Exception if the processing failed
+     */
+    final void processOnOwner() throws Exception {
+        if (loadType != LOAD_BALANCING_TIME) {
+            process();
+            return;
+        }
+
+        long startNanos = nanoTime();
+        try {
+            process();
+        } finally {
+            processTimeNanos.inc(nanoTime() - startNanos);
+        }
+    }
+
     @Override
     public final void run() {
         if (owner == currentThread()) {
             try {
-                process();
+                processOnOwner();
             } catch (Throwable t) {
                 onError(t);
             }
@@ -19,7 +19,9 @@ package com.hazelcast.internal.networking.nio;
 import com.hazelcast.internal.metrics.ExcludedMetricTargets;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
 import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
@@ -33,11 +35,15 @@ import java.util.Iterator;
 import java.util.Queue;
 import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_BLOCKING_SELECT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_BUSY_TIME_NANOS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_BYTES_TRANSCEIVED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_COMPLETED_TASK_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_EVENT_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_FRAMES_TRANSCEIVED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_IDLE_ROUNDS_BEFORE_BLOCKING;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_IDLE_TIME_MILLIS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_IO_THREAD_ID;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_PRIORITY_FRAMES_TRANSCEIVED;
@@ -45,15 +51,23 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKIN
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_SELECTOR_IO_EXCEPTION_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_SELECTOR_REBUILD_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_TASK_QUEUE_SIZE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_WAIT_TIME_NANOS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_WAKEUP_COUNT;
 import static com.hazelcast.internal.metrics.MetricTarget.MANAGEMENT_CENTER;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.networking.nio.SelectorMode.ADAPTIVE;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT_NOW;
 import static com.hazelcast.internal.networking.nio.SelectorOptimizer.newSelector;
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 
 @ExcludedMetricTargets(MANAGEMENT_CENTER)
 public class NioThread extends Thread implements OperationHostileThread {
@@ -65,6 +79,14 @@ public class NioThread extends Thread implements OperationHostileThread {
     // When we detect Selector.select returning prematurely
     // for more than SELECT_IDLE_COUNT_THRESHOLD then we rebuild the selector
     private static final int SELECT_IDLE_COUNT_THRESHOLD = 10;
+    // the bounds for the number of idle rounds the ADAPTIVE mode spins/parks before it blocks on the selector
+    private static final int MIN_IDLE_ROUNDS_BEFORE_BLOCKING = 64;
+    private static final int MAX_IDLE_ROUNDS_BEFORE_BLOCKING = 4096;
+    private static final int INITIAL_IDLE_ROUNDS_BEFORE_BLOCKING = 256;
+    private static final int ADAPTIVE_MAX_SPINS = 100;
+    private static final int ADAPTIVE_MAX_YIELDS = 10;
+    private static final long ADAPTIVE_MIN_PARK_NANOS = MICROSECONDS.toNanos(1);
+    private static final long ADAPTIVE_MAX_PARK_NANOS = MICROSECONDS.toNanos(100);
     // for tests only
     private static final Random RANDOM = new Random();
     // when testing, we simulate the selector bug randomly with one out of TEST_SELECTOR_BUG_PROBABILITY
@@ -86,6 +108,21 @@ public class NioThread extends Thread implements OperationHostileThread {
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_PROCESS_COUNT)
     volatile long processCount;
 
+    // time spent processing tasks and selection keys
+    @Probe(name = NETWORKING_METRIC_NIO_THREAD_BUSY_TIME_NANOS, unit = NS)
+    final SwCounter busyTimeNanos = newSwCounter();
+    // time spent waiting for work: blocked in a select, or spinning/parking without finding work
+    @Probe(name = NETWORKING_METRIC_NIO_THREAD_WAIT_TIME_NANOS, unit = NS)
+    final SwCounter waitTimeNanos = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_NIO_THREAD_BLOCKING_SELECT_COUNT)
+    final SwCounter blockingSelectCount = newSwCounter();
+    // ADAPTIVE mode only: the number of idle rounds before blocking; adapts to the observed traffic
+    @Probe(name = NETWORKING_METRIC_NIO_THREAD_IDLE_ROUNDS_BEFORE_BLOCKING)
+    volatile int idleRoundsBeforeBlocking = INITIAL_IDLE_ROUNDS_BEFORE_BLOCKING;
+
+    // lends the socket buffers to the pipelines owned by this thread if pooled buffers are enabled
+    final SlabBufferPool bufferPool = new SlabBufferPool();
+
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_TASK_QUEUE_SIZE)
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<>();
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_EVENT_COUNT)
@@ -97,6 +134,19 @@ public class NioThread extends Thread implements OperationHostileThread {
     // count number of times the selector was rebuilt (if selectWorkaround is enabled)
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_SELECTOR_REBUILD_COUNT)
     private final SwCounter selectorRebuildCount = newSwCounter();
+    // number of times Selector.wakeup got called; written by any thread
+    @Probe(name = NETWORKING_METRIC_NIO_THREAD_WAKEUP_COUNT)
+    private final MwCounter wakeupCount = newMwCounter();
+
+    // set when a Selector.wakeup has been issued that hasn't been observed yet by this thread returning
+    // from a select. As long as it is set, further wakeups are redundant; each of them would be a syscall.
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+    // the start of the period that is going to be accounted as busy or waiting
+    private long periodStartNanos;
+
+    // ADAPTIVE mode only: set while the thread is (about to be) blocked in a select, so it needs a wakeup
+    private volatile boolean blocking;
 
     private final ILogger logger;
 
@@ -142,7 +192,10 @@ public class NioThread extends Thread implements OperationHostileThread {
         this.errorHandler = errorHandler;
         this.selector = selector;
         this.selectorWorkaroundTest = false;
-        this.idleStrategy = idleStrategy;
+        this.idleStrategy = idleStrategy == null && selectMode == ADAPTIVE
+                ? new BackoffIdleStrategy(ADAPTIVE_MAX_SPINS, ADAPTIVE_MAX_YIELDS,
+                        ADAPTIVE_MIN_PARK_NANOS, ADAPTIVE_MAX_PARK_NANOS)
+                : idleStrategy;
     }
 
     void setSelectorWorkaroundTest(boolean selectorWorkaroundTest) {
@@ -173,6 +226,10 @@ public class NioThread extends Thread implements OperationHostileThread {
         return completedTaskCount.get();
     }
 
+    public long wakeupCount() {
+        return wakeupCount.get();
+    }
+
     /**
      * Gets the Selector
      *
@@ -221,6 +278,29 @@ public class NioThread extends Thread implements OperationHostileThread {
     public void addTaskAndWakeup(Runnable task) {
         taskQueue.add(task);
         if (selectMode != SELECT_NOW) {
+            wakeup();
+        }
+    }
+
+    /**
+     * Wakes up the selector of this NioThread.
+     *
+     * Wakeups are coalesced: if a wakeup has been issued and this thread
+     * hasn't returned from the select yet, the selector isn't woken up again.
+     * The thread always processes the task queue after returning from a
+     * select, so tasks added in the meantime are picked up.
+     *
+     * In the {@link SelectorMode#ADAPTIVE} mode, the selector is only woken up
+     * if the thread is blocked in a select.
+     */
+    public void wakeup() {
+        if (selectMode == ADAPTIVE && !blocking) {
+            // the thread isn't blocked in a select; it will see the work without a wakeup
+            return;
+        }
+
+        if (!wakeupPending.get() && wakeupPending.compareAndSet(false, true)) {
+            wakeupCount.inc();
             selector.wakeup();
         }
     }
@@ -247,10 +327,13 @@ public class NioThread extends Thread implements OperationHostileThread {
                         case SELECT:
                             selectLoop();
                             break;
+                        case ADAPTIVE:
+                            adaptiveLoop();
+                            break;
                         default:
                             throw new IllegalArgumentException("Selector.select mode not set, use -Dhazelcast.io.selectorMode="
-                                    + "{select|selectnow|selectwithfix} to explicitly specify select mode or leave empty for "
-                                    + "default select mode.");
+                                    + "{select|selectnow|selectwithfix|adaptive} to explicitly specify select mode "
+                                    + "or leave empty for default select mode.");
                     }
                     // break the for loop; we are done
                     break;
@@ -285,10 +368,14 @@ public class NioThread extends Thread implements OperationHostileThread {
     }
 
     private void selectLoop() throws IOException {
+        periodStartNanos = nanoTime();
         while (!stop) {
             processTaskQueue();
 
+            endPeriod(busyTimeNanos);
             int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            wakeupPending.set(false);
+            endPeriod(waitTimeNanos);
             if (selectedKeys > 0) {
                 processSelectionKeys();
             }
@@ -297,11 +384,15 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     private void selectLoopWithFix() throws IOException {
         int idleCount = 0;
+        periodStartNanos = nanoTime();
         while (!stop) {
             processTaskQueue();
 
+            endPeriod(busyTimeNanos);
             long before = currentTimeMillis();
             int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            wakeupPending.set(false);
+            endPeriod(waitTimeNanos);
             if (selectedKeys > 0) {
                 idleCount = 0;
                 processSelectionKeys();
@@ -327,6 +418,7 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     private void selectNowLoop() throws IOException {
         long idleRound = 0;
+        periodStartNanos = nanoTime();
         while (!stop) {
             boolean tasksProcessed = processTaskQueue();
 
@@ -335,15 +427,91 @@ public class NioThread extends Thread implements OperationHostileThread {
             if (selectedKeys > 0) {
                 processSelectionKeys();
                 idleRound = 0;
+                endPeriod(busyTimeNanos);
             } else if (tasksProcessed) {
                 idleRound = 0;
-            } else if (idleStrategy != null) {
+                endPeriod(busyTimeNanos);
+            } else {
+                if (idleStrategy != null) {
+                    idleRound++;
+                    idleStrategy.idle(idleRound);
+                }
+                endPeriod(waitTimeNanos);
+            }
+        }
+    }
+
+    /**
+     * Spins on selectNow as long as there is work. Once idle, it backs off using the idle strategy
+     * and after {@link #idleRoundsBeforeBlocking} idle rounds it blocks on the selector.
+     *
+     * The number of idle rounds before blocking adapts to the traffic: if work shows up while
+     * spinning, spinning paid off and the number is doubled. If the thread needs to block, the
+     * spinning was wasted and the number is halved.
+     */
+    private void adaptiveLoop() throws IOException {
+        long idleRound = 0;
+        boolean blocked = false;
+        periodStartNanos = nanoTime();
+        while (!stop) {
+            boolean tasksProcessed = processTaskQueue();
+
+            int selectedKeys;
+            if (idleRound < idleRoundsBeforeBlocking) {
+                selectedKeys = selector.selectNow();
+            } else {
+                if (!blocked) {
+                    blocked = true;
+                    idleRoundsBeforeBlocking = max(idleRoundsBeforeBlocking / 2, MIN_IDLE_ROUNDS_BEFORE_BLOCKING);
+                }
+                selectedKeys = blockingSelect();
+            }
+
+            if (selectedKeys > 0) {
+                processSelectionKeys();
+            }
+
+            if (selectedKeys > 0 || tasksProcessed) {
+                if (idleRound > 0 && !blocked) {
+                    idleRoundsBeforeBlocking = min(idleRoundsBeforeBlocking * 2, MAX_IDLE_ROUNDS_BEFORE_BLOCKING);
+                }
+                idleRound = 0;
+                blocked = false;
+                endPeriod(busyTimeNanos);
+            } else {
                 idleRound++;
-                idleStrategy.idle(idleRound);
+                if (!blocked) {
+                    idleStrategy.idle(idleRound);
+                }
+                endPeriod(waitTimeNanos);
+            }
+        }
+    }
+
+    private int blockingSelect() throws IOException {
+        blockingSelectCount.inc();
+        // a wakeup issued while the thread wasn't blocking could still be pending;
+        // it must not suppress the wakeups for this select
+        wakeupPending.set(false);
+        blocking = true;
+        try {
+            if (!taskQueue.isEmpty()) {
+                // a task was added before the producer could see the thread is blocking
+                return 0;
             }
+            return selector.select(SELECT_WAIT_TIME_MILLIS);
+        } finally {
+            blocking = false;
+            wakeupPending.set(false);
         }
     }
 
+    private void endPeriod(SwCounter counter) {
+        long now = nanoTime();
+        counter.inc(now - periodStartNanos);
+        periodStartNanos = now;
+    }
+
     private boolean processTaskQueue() {
         boolean tasksProcessed = false;
         while (!stop) {
@@ -379,7 +547,7 @@ public class NioThread extends Thread implements OperationHostileThread {
             // we don't need to check for sk.isReadable/sk.isWritable since the pipeline has only registered
             // for events it can handle.
             eventCount.inc();
-            pipeline.process();
+            pipeline.processOnOwner();
         } catch (Throwable t) {
              pipeline.onError(t);
         }
@@ -430,6 +598,8 @@ public class NioThread extends Thread implements OperationHostileThread {
         // close the old selector and substitute with new one
         closeSelector();
         this.selector = newSelector;
+        // a wakeup issued on the old selector is lost; the task queue is processed before the next select
+        wakeupPending.set(false);
         logger.warning("Recreated Selector because of possible java/network stack bug.");
     }
 
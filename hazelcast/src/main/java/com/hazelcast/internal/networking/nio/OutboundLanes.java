@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.networking.FrameFragmenter;
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.networking.TrafficClass;
+import com.hazelcast.internal.util.counters.SwCounter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_BYTES_WRITTEN;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_FRAMES_WRITTEN;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_MAX_WAIT_TIME_NANOS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_QUEUE_SIZE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_WAIT_TIME_NANOS;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static java.lang.Math.max;
+
+/**
+ * The queues of the non urgent frames of a {@link NioOutboundPipeline} when fair queuing is enabled.
+ *
+ * There is a lane per {@link TrafficClass} and the lanes are served with deficit round robin: every
+ * round, a lane gets a quantum of bytes proportional to the weight of its traffic class and may write
+ * frames as long as it has enough bytes left. So the bandwidth is shared according to the weights,
+ * regardless of the size of the frames. To prevent a single large frame from blocking the other lanes
+ * while it is written, large frames are split into fragments if a {@link FrameFragmenter} is set.
+ *
+ * The frames are offered by any thread, but polled only by the thread processing the pipeline.
+ */
+final class OutboundLanes {
+
+    static final int QUANTUM_BYTES = 8 * 1024;
+
+    final Lane[] lanes;
+
+    private volatile FrameFragmenter fragmenter;
+    private int currentLane;
+
+    OutboundLanes() {
+        TrafficClass[] trafficClasses = TrafficClass.values();
+        lanes = new Lane[trafficClasses.length];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(trafficClasses[i]);
+        }
+    }
+
+    void fragmenter(FrameFragmenter fragmenter) {
+        this.fragmenter = fragmenter;
+    }
+
+    void offer(OutboundFrame frame) {
+        lanes[frame.getTrafficClass().ordinal()].queue.offer(new Entry(frame, System.nanoTime()));
+    }
+
+    /**
+     * Returns the next frame (or fragment) to write.
+     *
+     * @return the frame or {@code null} if all lanes are empty
+     */
+    OutboundFrame poll() {
+        int emptyLanes = 0;
+        for (; ; ) {
+            Lane lane = lanes[currentLane];
+            OutboundFrame head = lane.head(fragmenter, currentLane);
+            if (head == null) {
+                lane.deficit = 0;
+                lane.credited = false;
+                if (++emptyLanes == lanes.length) {
+                    return null;
+                }
+                nextLane();
+                continue;
+            }
+
+            emptyLanes = 0;
+            if (!lane.credited) {
+                lane.deficit += (long) QUANTUM_BYTES * lane.trafficClass.weight();
+                lane.credited = true;
+            }
+            int frameLength = head.getFrameLength();
+            if (frameLength <= lane.deficit) {
+                lane.deficit -= frameLength;
+                lane.bytesWritten.inc(frameLength);
+                return lane.take();
+            }
+
+            // the lane used up its quantum for this round
+            lane.credited = false;
+            nextLane();
+        }
+    }
+
+    private void nextLane() {
+        currentLane = currentLane == lanes.length - 1 ? 0 : currentLane + 1;
+    }
+
+    /**
+     * Checks if there are no queued frames. Frames being fragmented aren't taken into account, so this
+     * is only accurate once {@link #poll()} returned {@code null}.
+     */
+    boolean isEmpty() {
+        for (Lane lane : lanes) {
+            if (!lane.queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        int size = 0;
+        for (Lane lane : lanes) {
+            size += lane.queue.size();
+        }
+        return size;
+    }
+
+    long bytesPending() {
+        long bytesPending = 0;
+        for (Lane lane : lanes) {
+            for (Entry entry : lane.queue) {
+                bytesPending += entry.frame.getFrameLength();
+            }
+        }
+        return bytesPending;
+    }
+
+    List<OutboundFrame> frames() {
+        List<OutboundFrame> frames = new ArrayList<>();
+        for (Lane lane : lanes) {
+            for (Entry entry : lane.queue) {
+                frames.add(entry.frame);
+            }
+        }
+        return frames;
+    }
+
+    void clear() {
+        for (Lane lane : lanes) {
+            lane.queue.clear();
+            lane.head = null;
+            lane.fragments = null;
+            lane.deficit = 0;
+            lane.credited = false;
+        }
+    }
+
+    private static final class Entry {
+        private final OutboundFrame frame;
+        private final long enqueueNanos;
+
+        private Entry(OutboundFrame frame, long enqueueNanos) {
+            this.frame = frame;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+
+    /**
+     * The queue of a single traffic class.
+     */
+    static final class Lane {
+        final TrafficClass trafficClass;
+
+        @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_FRAMES_WRITTEN)
+        final SwCounter framesWritten = newSwCounter();
+        @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_BYTES_WRITTEN, unit = BYTES)
+        final SwCounter bytesWritten = newSwCounter();
+        // the total time the written frames spent in the queue
+        @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_WAIT_TIME_NANOS, unit = NS)
+        final SwCounter waitTimeNanos = newSwCounter();
+        @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_MAX_WAIT_TIME_NANOS, unit = NS)
+        volatile long maxWaitTimeNanos;
+
+        private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+
+        // the fields below are only accessed by the thread processing the pipeline
+        private OutboundFrame head;
+        private Iterator<OutboundFrame> fragments;
+        private long deficit;
+        private boolean credited;
+
+        Lane(TrafficClass trafficClass) {
+            this.trafficClass = trafficClass;
+        }
+
+        @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_LANE_QUEUE_SIZE)
+        int queueSize() {
+            return queue.size();
+        }
+
+        private OutboundFrame head(FrameFragmenter fragmenter, int stream) {
+            if (head != null) {
+                return head;
+            }
+
+            if (fragments != null) {
+                if (fragments.hasNext()) {
+                    head = fragments.next();
+                    return head;
+                }
+                fragments = null;
+            }
+
+            Entry entry = queue.poll();
+            if (entry == null) {
+                return null;
+            }
+
+            long waitTime = System.nanoTime() - entry.enqueueNanos;
+            waitTimeNanos.inc(waitTime);
+            maxWaitTimeNanos = max(maxWaitTimeNanos, waitTime);
+            framesWritten.inc();
+
+            Iterator<OutboundFrame> frameFragments = fragmenter == null ? null : fragmenter.fragment(entry.frame, stream);
+            if (frameFragments == null) {
+                head = entry.frame;
+            } else {
+                fragments = frameFragments;
+                head = frameFragments.next();
+            }
+            return head;
+        }
+
+        private OutboundFrame take() {
+            OutboundFrame frame = head;
+            head = null;
+            return frame;
+        }
+    }
+}
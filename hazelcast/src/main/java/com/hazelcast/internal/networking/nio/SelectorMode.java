@@ -26,11 +26,18 @@ import static java.lang.String.format;
 public enum SelectorMode {
     SELECT,
     SELECT_NOW,
-    SELECT_WITH_FIX;
+    SELECT_WITH_FIX,
+    /**
+     * Spins with Selector.selectNow while there is traffic, backs off when idle
+     * and eventually blocks on Selector.select. The time spent spinning before
+     * blocking adapts to the observed traffic.
+     */
+    ADAPTIVE;
 
     public static final String SELECT_STRING = "select";
     public static final String SELECT_WITH_FIX_STRING = "selectwithfix";
     public static final String SELECT_NOW_STRING = "selectnow";
+    public static final String ADAPTIVE_STRING = "adaptive";
 
     public static SelectorMode getConfiguredValue() {
         return fromString(getConfiguredString());
@@ -47,6 +54,8 @@ public enum SelectorMode {
             return SELECT_WITH_FIX;
         } else if (value.equals(SELECT_NOW_STRING) || value.startsWith(SELECT_NOW_STRING + ",")) {
             return SELECT_NOW;
+        } else if (value.equals(ADAPTIVE_STRING) || value.startsWith(ADAPTIVE_STRING + ",")) {
+            return ADAPTIVE;
         } else {
             throw new IllegalArgumentException(format("Unrecognized selectorMode [%s]", value));
         }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.metrics.Probe;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_BUFFER_POOL_ALLOCATED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_BUFFER_POOL_LENT_BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.nio.IOUtil.newByteBuffer;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static java.lang.Math.max;
+
+/**
+ * A pool of socket buffers owned by a {@link NioThread}. The pipelines
+ * served by the thread lend a buffer while they have data in flight and
+ * return it once it is drained, so idle channels don't hold any buffer.
+ *
+ * The buffers are sliced from slabs; every slab contains buffers of a single
+ * capacity and kind (direct or heap). The pool grows to the peak number of
+ * buffers lent at the same time, but keeps at most a slab worth of free
+ * buffers per capacity and kind. The surplus buffers are dropped, starting
+ * with the least recently returned ones, and the memory of a slab is
+ * reclaimed by the GC once all of its buffers are dropped. That is why the
+ * allocated bytes include a slab until its last buffer is dropped.
+ *
+ * A buffer has to be returned to the pool that lent it, even if the
+ * pipeline has migrated to another thread in the meantime.
+ *
+ * The pool is accessed by the owning thread almost exclusively. The only
+ * exception is a write-through, which is executed on the calling thread;
+ * that is why the methods are synchronized.
+ */
+final class SlabBufferPool {
+
+    static final int DEFAULT_SLAB_SIZE_BYTES = 1024 * 1024;
+
+    @Probe(name = NETWORKING_METRIC_NIO_THREAD_BUFFER_POOL_ALLOCATED_BYTES, unit = BYTES)
+    private volatile long allocatedBytes;
+    @Probe(name = NETWORKING_METRIC_NIO_THREAD_BUFFER_POOL_LENT_BYTES, unit = BYTES)
+    private volatile long lentBytes;
+
+    private final int slabSizeBytes;
+    // ByteBuffer.equals compares the content, so the slabs are looked up by identity
+    private final Map<ByteBuffer, Slab> slabs = new IdentityHashMap<>();
+    // there are only a few distinct buffer sizes, so a linear scan is fine
+    private SizeClass[] sizeClasses = new SizeClass[0];
+
+    SlabBufferPool() {
+        this(DEFAULT_SLAB_SIZE_BYTES);
+    }
+
+    SlabBufferPool(int slabSizeBytes) {
+        this.slabSizeBytes = checkPositive(slabSizeBytes, "slabSizeBytes should be positive");
+    }
+
+    /**
+     * Lends a buffer. The buffer is cleared, so it is in writing mode.
+     *
+     * @param capacity the capacity of the buffer
+     * @param direct   if the buffer should be a direct buffer
+     * @return the lent buffer
+     */
+    synchronized ByteBuffer acquire(int capacity, boolean direct) {
+        SizeClass sizeClass = sizeClass(capacity, direct);
+        ByteBuffer buffer = sizeClass.free.poll();
+        if (buffer == null) {
+            allocateSlab(sizeClass);
+            buffer = sizeClass.free.poll();
+        }
+        lentBytes += capacity;
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer that was lent by {@link #acquire(int, boolean)} of this
+     * pool.
+     *
+     * @param buffer the buffer to return
+     * @throws IllegalArgumentException if the buffer wasn't lent by this pool
+     */
+    synchronized void release(ByteBuffer buffer) {
+        checkTrue(slabs.containsKey(buffer), "buffer was not lent by this pool");
+        buffer.clear();
+        SizeClass sizeClass = sizeClass(buffer.capacity(), buffer.isDirect());
+        sizeClass.free.push(buffer);
+        lentBytes -= buffer.capacity();
+        if (sizeClass.free.size() > buffersPerSlab(sizeClass.capacity)) {
+            drop(sizeClass.free.pollLast());
+        }
+    }
+
+    private void drop(ByteBuffer buffer) {
+        Slab slab = slabs.remove(buffer);
+        if (--slab.liveBuffers == 0) {
+            allocatedBytes -= slab.sizeBytes;
+        }
+    }
+
+    long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    long lentBytes() {
+        return lentBytes;
+    }
+
+    private void allocateSlab(SizeClass sizeClass) {
+        int capacity = sizeClass.capacity;
+        int count = buffersPerSlab(capacity);
+        Slab slab = new Slab(count * capacity, count);
+        ByteBuffer memory = newByteBuffer(slab.sizeBytes, sizeClass.direct);
+        for (int k = 0; k < count; k++) {
+            memory.limit((k + 1) * capacity).position(k * capacity);
+            ByteBuffer buffer = memory.slice();
+            slabs.put(buffer, slab);
+            sizeClass.free.push(buffer);
+        }
+        allocatedBytes += slab.sizeBytes;
+    }
+
+    private int buffersPerSlab(int capacity) {
+        return max(slabSizeBytes / capacity, 1);
+    }
+
+    private SizeClass sizeClass(int capacity, boolean direct) {
+        for (SizeClass sizeClass : sizeClasses) {
+            if (sizeClass.capacity == capacity && sizeClass.direct == direct) {
+                return sizeClass;
+            }
+        }
+
+        SizeClass sizeClass = new SizeClass(capacity, direct);
+        SizeClass[] newSizeClasses = new SizeClass[sizeClasses.length + 1];
+        System.arraycopy(sizeClasses, 0, newSizeClasses, 0, sizeClasses.length);
+        newSizeClasses[sizeClasses.length] = sizeClass;
+        sizeClasses = newSizeClasses;
+        return sizeClass;
+    }
+
+    private static final class SizeClass {
+        private final int capacity;
+        private final boolean direct;
+        private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+        SizeClass(int capacity, boolean direct) {
+            this.capacity = capacity;
+            this.direct = direct;
+        }
+    }
+
+    private static final class Slab {
+        private final int sizeBytes;
+        // the buffers sliced from the slab that are not dropped yet
+        private int liveBuffers;
+
+        Slab(int sizeBytes, int liveBuffers) {
+            this.sizeBytes = sizeBytes;
+            this.liveBuffers = liveBuffers;
+        }
+    }
+}
@@ -52,6 +52,11 @@ import static com.hazelcast.spi.properties.ClusterProperty.IO_THREAD_COUNT;
  *
  * It measures load serviced by each pipeline in a given interval and
  * if imbalance is detected then it schedules pipeline migration to fix the situation.
+ * By default the load is the time the owning thread spent processing the pipeline, since
+ * the number of events or bytes correlates poorly with the actual cost when the frame
+ * sizes vary a lot. To avoid reacting to short bursts and moving pipelines back and forth,
+ * a migration is only scheduled once the imbalance was detected in consecutive intervals,
+ * and a migrated pipeline isn't migrated again for a few intervals.
  * The exact migration strategy can be customized via
  * {@link com.hazelcast.internal.networking.nio.iobalancer.MigrationStrategy}.
  *
@@ -65,6 +70,11 @@ import static com.hazelcast.spi.properties.ClusterProperty.IO_THREAD_COUNT;
  */
 public class IOBalancer {
     private static final String PROP_MONKEY_BALANCER = "hazelcast.io.balancer.monkey";
+    // the number of consecutive checks an imbalance needs to be detected in before a pipeline is migrated,
+    // so a short burst of load on a single connection doesn't cause a migration
+    private static final int IMBALANCED_ROUNDS_BEFORE_MIGRATION = 2;
+    // the number of checks a migrated pipeline isn't considered for another migration
+    private static final int MIGRATION_COOLDOWN_ROUNDS = 3;
     private final ILogger logger;
 
     private final int balancerIntervalSeconds;
@@ -154,8 +164,11 @@ public class IOBalancer {
         LoadImbalance loadImbalance = loadTracker.updateImbalance();
         if (strategy.imbalanceDetected(loadImbalance)) {
             imbalanceDetectedCount.inc();
-            tryMigrate(loadImbalance);
+            if (++loadImbalance.imbalancedRounds >= IMBALANCED_ROUNDS_BEFORE_MIGRATION) {
+                tryMigrate(loadImbalance);
+            }
         } else {
+            loadImbalance.imbalancedRounds = 0;
             if (logger.isFinestEnabled()) {
                 long min = loadImbalance.minimumLoad;
                 long max = loadImbalance.maximumLoad;
@@ -214,6 +227,8 @@ public class IOBalancer {
                     + " from " + srcOwner + " to " + dstOwner);
         }
         pipeline.requestMigration(dstOwner);
+        loadImbalance.migrationScheduled(pipeline, MIGRATION_COOLDOWN_ROUNDS);
+        loadImbalance.imbalancedRounds = 0;
     }
 
     public void signalMigrationComplete() {
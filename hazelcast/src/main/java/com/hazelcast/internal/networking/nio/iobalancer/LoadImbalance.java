@@ -39,9 +39,13 @@ class LoadImbalance {
     NioThread srcOwner;
     //least busy NioThread
     NioThread dstOwner;
+    //number of consecutive updates in which an imbalance was detected
+    int imbalancedRounds;
 
     private final Map<NioThread, Set<MigratablePipeline>> ownerToPipelines;
     private final ItemCounter<MigratablePipeline> pipelineLoadCounter;
+    //number of updates a recently migrated pipeline has to wait before it can be migrated again
+    private final ItemCounter<MigratablePipeline> migrationCooldowns = new ItemCounter<MigratablePipeline>();
 
     LoadImbalance(Map<NioThread, Set<MigratablePipeline>> ownerToPipelines,
                   ItemCounter<MigratablePipeline> pipelineLoadCounter) {
@@ -64,4 +68,35 @@ class LoadImbalance {
     long getLoad(MigratablePipeline pipeline) {
         return pipelineLoadCounter.get(pipeline);
     }
+
+    /**
+     * Prevents the pipeline from being migrated during the next updates, so the load
+     * can settle and the pipeline isn't moved back and forth between NioThreads.
+     *
+     * @param pipeline the pipeline that is being migrated
+     * @param rounds   the number of updates to wait
+     */
+    void migrationScheduled(MigratablePipeline pipeline, int rounds) {
+        migrationCooldowns.set(pipeline, rounds);
+    }
+
+    /**
+     * @param pipeline
+     * @return {@code true} if the pipeline was migrated recently and shouldn't be migrated again yet
+     */
+    boolean isCoolingDown(MigratablePipeline pipeline) {
+        return migrationCooldowns.get(pipeline) > 0;
+    }
+
+    void decrementCooldowns() {
+        for (MigratablePipeline pipeline : migrationCooldowns.keySet()) {
+            if (migrationCooldowns.get(pipeline) > 0) {
+                migrationCooldowns.add(pipeline, -1);
+            }
+        }
+    }
+
+    void removePipeline(MigratablePipeline pipeline) {
+        migrationCooldowns.remove(pipeline);
+    }
 }
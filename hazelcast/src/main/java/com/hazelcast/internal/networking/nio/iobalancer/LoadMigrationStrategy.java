@@ -26,9 +26,11 @@ import java.util.Set;
  * It attempts to trigger a migration if a ratio between least busy and most
  * busy IOThreads exceeds {@link #MIN_MAX_RATIO_MIGRATION_THRESHOLD}.
  *
- * Once a migration is triggered it tries to find the busiest pipeline registered in
- * {@link LoadImbalance#srcOwner} which wouldn't cause overload of the
- * {@link LoadImbalance#dstOwner} after a migration.
+ * Once a migration is triggered it tries to find the pipeline registered in
+ * {@link LoadImbalance#srcOwner} which brings the loads of the {@link LoadImbalance#srcOwner}
+ * and the {@link LoadImbalance#dstOwner} closest to each other after a migration. A pipeline is
+ * only migrated if that reduces the load difference substantially and if it wasn't migrated
+ * recently, so pipelines aren't moved back and forth when the load fluctuates.
  */
 class LoadMigrationStrategy implements MigrationStrategy {
 
@@ -46,9 +48,12 @@ class LoadMigrationStrategy implements MigrationStrategy {
 
     /**
      * You can use this property to tune a selection process for pipeline migration.
-     * The higher number is the more aggressive migration process is.
+     * A pipeline is only selected if the load difference between the source and the
+     * destination NioThread after the migration is less than this ratio of the
+     * difference before the migration. The higher number is the more aggressive
+     * migration process is.
      */
-    private static final double MAXIMUM_NO_OF_EVENTS_AFTER_MIGRATION_COEFFICIENT = 0.9;
+    private static final double MAXIMUM_LOAD_DIFFERENCE_AFTER_MIGRATION_RATIO = 0.8;
 
     /**
      * Checks if an imbalance was detected in the system
@@ -79,17 +84,20 @@ class LoadMigrationStrategy implements MigrationStrategy {
     @Override
     public MigratablePipeline findPipelineToMigrate(LoadImbalance imbalance) {
         Set<? extends MigratablePipeline> candidates = imbalance.getPipelinesOwnedBy(imbalance.srcOwner);
-        long migrationThreshold = (long) ((imbalance.maximumLoad - imbalance.minimumLoad)
-                * MAXIMUM_NO_OF_EVENTS_AFTER_MIGRATION_COEFFICIENT);
+        long loadDifference = imbalance.maximumLoad - imbalance.minimumLoad;
+        long maximumLoadDifferenceAfterMigration = (long) (loadDifference * MAXIMUM_LOAD_DIFFERENCE_AFTER_MIGRATION_RATIO);
         MigratablePipeline candidate = null;
-        long loadInSelectedPipeline = 0;
+        long lowestLoadDifferenceAfterMigration = Long.MAX_VALUE;
         for (MigratablePipeline pipeline : candidates) {
-            long load = imbalance.getLoad(pipeline);
-            if (load > loadInSelectedPipeline) {
-                if (load < migrationThreshold) {
-                    loadInSelectedPipeline = load;
-                    candidate = pipeline;
-                }
+            if (imbalance.isCoolingDown(pipeline)) {
+                continue;
+            }
+            // the source loses the load of the pipeline, the destination gains it
+            long loadDifferenceAfterMigration = Math.abs(loadDifference - 2 * imbalance.getLoad(pipeline));
+            if (loadDifferenceAfterMigration < maximumLoadDifferenceAfterMigration
+                    && loadDifferenceAfterMigration < lowestLoadDifferenceAfterMigration) {
+                lowestLoadDifferenceAfterMigration = loadDifferenceAfterMigration;
+                candidate = pipeline;
             }
         }
         return candidate;
@@ -75,6 +75,7 @@ class LoadTracker {
      * @return recalculated imbalance
      */
     LoadImbalance updateImbalance() {
+        imbalance.decrementCooldowns();
         clearWorkingImbalance();
         updateNewWorkingImbalance();
         updateNewFinalImbalance();
@@ -161,6 +162,7 @@ class LoadTracker {
         pipelines.remove(pipeline);
         pipelineLoadCount.remove(pipeline);
         lastLoadCounter.remove(pipeline);
+        imbalance.removePipeline(pipeline);
     }
 
     private void printDebugTable() {
@@ -69,6 +69,26 @@ public final class Bits {
      * Length of the data blocks used by the CPU cache sub-system in bytes.
      */
     public static final int CACHE_LINE_LENGTH = 64;
+    /**
+     * Maximum number of bytes a var int takes
+     */
+    public static final int VAR_INT_MAX_SIZE_IN_BYTES = 5;
+    /**
+     * Maximum number of bytes a var long takes
+     */
+    public static final int VAR_LONG_MAX_SIZE_IN_BYTES = 10;
+    /**
+     * Number of payload bits in each byte of a var int or var long
+     */
+    public static final int VAR_INT_PAYLOAD_BITS = 7;
+    /**
+     * Mask of the payload bits in each byte of a var int or var long
+     */
+    public static final int VAR_INT_PAYLOAD_MASK = 0x7F;
+    /**
+     * Bit marking that another byte of the var int or var long follows
+     */
+    public static final int VAR_INT_CONTINUATION_BIT = 0x80;
 
     private Bits() {
     }
@@ -289,4 +309,59 @@ public final class Bits {
     public static int extractInt(long value, boolean lowerBits) {
         return (int) ((lowerBits) ? value : (value >> 32));
     }
+
+    /**
+     * Maps a signed integer to an unsigned one so that values of small
+     * magnitude, negative or not, get small var int encodings:
+     * 0 -> 0, -1 -> 1, 1 -> 2, -2 -> 3 ...
+     */
+    public static int zigZagEncode(int value) {
+        return (value << 1) ^ (value >> (Integer.SIZE - 1));
+    }
+
+    public static int zigZagDecode(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Long variant of {@link #zigZagEncode(int)}.
+     */
+    public static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> (Long.SIZE - 1));
+    }
+
+    public static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes the zig-zag encoded value as a var int of 1 to
+     * {@link #VAR_INT_MAX_SIZE_IN_BYTES} bytes, 7 bits per byte, least
+     * significant group first. The buffer must have room for the maximum size.
+     *
+     * @return the position after the last written byte
+     */
+    public static int writeVarInt(byte[] buffer, int pos, int v) {
+        int value = zigZagEncode(v);
+        while ((value & ~VAR_INT_PAYLOAD_MASK) != 0) {
+            buffer[pos++] = (byte) ((value & VAR_INT_PAYLOAD_MASK) | VAR_INT_CONTINUATION_BIT);
+            value >>>= VAR_INT_PAYLOAD_BITS;
+        }
+        buffer[pos++] = (byte) value;
+        return pos;
+    }
+
+    /**
+     * Long variant of {@link #writeVarInt(byte[], int, int)}, taking up to
+     * {@link #VAR_LONG_MAX_SIZE_IN_BYTES} bytes.
+     */
+    public static int writeVarLong(byte[] buffer, int pos, long v) {
+        long value = zigZagEncode(v);
+        while ((value & ~VAR_INT_PAYLOAD_MASK) != 0) {
+            buffer[pos++] = (byte) ((value & VAR_INT_PAYLOAD_MASK) | VAR_INT_CONTINUATION_BIT);
+            value >>>= VAR_INT_PAYLOAD_BITS;
+        }
+        buffer[pos++] = (byte) value;
+        return pos;
+    }
 }
@@ -41,6 +41,16 @@ public interface BufferObjectDataInput extends ObjectDataInput, Closeable, DataR
 
     long readLong(int position, ByteOrder byteOrder) throws IOException;
 
+    /**
+     * Reads a var int written by {@link BufferObjectDataOutput#writeVarInt(int)}.
+     */
+    int readVarInt() throws IOException;
+
+    /**
+     * Reads a var long written by {@link BufferObjectDataOutput#writeVarLong(long)}.
+     */
+    long readVarLong() throws IOException;
+
     boolean readBoolean(int position) throws IOException;
 
     byte readByte(int position) throws IOException;
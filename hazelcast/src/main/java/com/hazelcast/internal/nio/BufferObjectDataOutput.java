@@ -21,6 +21,7 @@ import com.hazelcast.spi.impl.SerializationServiceSupport;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 public interface BufferObjectDataOutput extends ObjectDataOutput, Closeable,
@@ -46,6 +47,19 @@ public interface BufferObjectDataOutput extends ObjectDataOutput, Closeable,
 
     void writeZeroBytes(int count);
 
+    /**
+     * Writes a zig-zag encoded var int of 1 to 5 bytes; values of small
+     * magnitude take a single byte. Read back with
+     * {@link BufferObjectDataInput#readVarInt()}.
+     */
+    void writeVarInt(int v) throws IOException;
+
+    /**
+     * Writes a zig-zag encoded var long of 1 to 10 bytes. Read back with
+     * {@link BufferObjectDataInput#readVarLong()}.
+     */
+    void writeVarLong(long v) throws IOException;
+
     void writeChar(int position, int v) throws IOException;
 
     void writeDouble(int position, double v) throws IOException;
@@ -70,5 +84,16 @@ public interface BufferObjectDataOutput extends ObjectDataOutput, Closeable,
 
     void position(int newPos);
 
+    /**
+     * Copies the bytes written so far, starting at the given offset, to the
+     * buffer without an intermediate byte array. Copies as many bytes as fit
+     * into the remaining space of the buffer.
+     *
+     * @param offset the offset of the first byte to copy
+     * @param dst    the buffer to copy the bytes to
+     * @return the number of bytes copied
+     */
+    int copyTo(int offset, ByteBuffer dst);
+
     void clear();
 }
@@ -156,6 +156,70 @@ public final class IOUtil {
         return ((DataReader) in).readDataAsObject();
     }
 
+    /**
+     * Writes a zig-zag encoded var int, see {@link BufferObjectDataOutput#writeVarInt(int)}.
+     * Only use it for fields of {@link com.hazelcast.nio.serialization.impl.Versioned}
+     * objects from the cluster version the field switched to it.
+     */
+    public static void writeVarInt(ObjectDataOutput out, int v) throws IOException {
+        if (out instanceof BufferObjectDataOutput) {
+            ((BufferObjectDataOutput) out).writeVarInt(v);
+            return;
+        }
+        int value = Bits.zigZagEncode(v);
+        while ((value & ~Bits.VAR_INT_PAYLOAD_MASK) != 0) {
+            out.writeByte((value & Bits.VAR_INT_PAYLOAD_MASK) | Bits.VAR_INT_CONTINUATION_BIT);
+            value >>>= Bits.VAR_INT_PAYLOAD_BITS;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(ObjectDataInput in) throws IOException {
+        if (in instanceof BufferObjectDataInput) {
+            return ((BufferObjectDataInput) in).readVarInt();
+        }
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += Bits.VAR_INT_PAYLOAD_BITS) {
+            byte b = in.readByte();
+            value |= (b & Bits.VAR_INT_PAYLOAD_MASK) << shift;
+            if (b >= 0) {
+                return Bits.zigZagDecode(value);
+            }
+        }
+        throw new IOException("Malformed var int!");
+    }
+
+    /**
+     * Writes a zig-zag encoded var long, see {@link BufferObjectDataOutput#writeVarLong(long)}.
+     */
+    public static void writeVarLong(ObjectDataOutput out, long v) throws IOException {
+        if (out instanceof BufferObjectDataOutput) {
+            ((BufferObjectDataOutput) out).writeVarLong(v);
+            return;
+        }
+        long value = Bits.zigZagEncode(v);
+        while ((value & ~Bits.VAR_INT_PAYLOAD_MASK) != 0) {
+            out.writeByte((int) (value & Bits.VAR_INT_PAYLOAD_MASK) | Bits.VAR_INT_CONTINUATION_BIT);
+            value >>>= Bits.VAR_INT_PAYLOAD_BITS;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarLong(ObjectDataInput in) throws IOException {
+        if (in instanceof BufferObjectDataInput) {
+            return ((BufferObjectDataInput) in).readVarLong();
+        }
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += Bits.VAR_INT_PAYLOAD_BITS) {
+            byte b = in.readByte();
+            value |= (long) (b & Bits.VAR_INT_PAYLOAD_MASK) << shift;
+            if (b >= 0) {
+                return Bits.zigZagDecode(value);
+            }
+        }
+        throw new IOException("Malformed var long!");
+    }
+
     /**
      * Fills a buffer from an {@link InputStream}. If it doesn't contain any
      * more data, returns {@code false}. If it contains some data, but not
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.nio;
 
 import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.networking.TrafficClass;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.serialization.impl.HeapData;
 
@@ -44,6 +45,10 @@ public final class Packet extends HeapData implements OutboundFrame {
     // 1. URGENT (bit 4)
     // 2. Packet type (bits 0, 2, 5)
     // 3. Flags specific to a given packet type (bits 1, 6)
+    //
+    // The COMPRESSED (bit 7), FRAGMENT (bit 8) and STRING_DICTIONARY (bit 9) flags are transport
+    // flags: they are only raised on the wire and cleared by the receiving connection before the
+    // packet is dispatched.
 
 
     // 1. URGENT flag
@@ -98,6 +103,31 @@ public final class Packet extends HeapData implements OutboundFrame {
     public static final int FLAG_JET_FLOW_CONTROL = 1 << 1;
 
 
+    // 4. Transport flags
+
+    /**
+     * Marks the payload of the packet as compressed by the connection that sent it.
+     *
+     * @see com.hazelcast.internal.server.tcp.PacketCompressor
+     */
+    public static final int FLAG_COMPRESSED = 1 << 7;
+
+    /**
+     * Marks the packet as a fragment of a larger packet, which is reassembled by the receiving connection.
+     *
+     * @see com.hazelcast.internal.server.tcp.PacketFragmenter
+     */
+    public static final int FLAG_FRAGMENT = 1 << 8;
+
+    /**
+     * Marks the strings in the payload of the packet as replaced with references to the string
+     * dictionary of the connection that sent it.
+     *
+     * @see com.hazelcast.internal.server.tcp.PacketStringDictionary
+     */
+    public static final int FLAG_STRING_DICTIONARY = 1 << 9;
+
+
     //            END OF HEADER FLAG SECTION
 
 
@@ -106,6 +136,9 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     private int partitionId;
     private transient ServerConnection conn;
+    private transient PacketPayloadPool payloadPool;
+    private transient TrafficClass trafficClass;
+    private transient StringRanges stringRanges;
 
     public Packet() {
     }
@@ -142,6 +175,52 @@ public final class Packet extends HeapData implements OutboundFrame {
         return this;
     }
 
+    /**
+     * Sets the pool the payload of this Packet was acquired from.
+     *
+     * @param payloadPool the pool
+     * @return {@code this} (for fluent interface)
+     */
+    Packet setPayloadPool(PacketPayloadPool payloadPool) {
+        this.payloadPool = payloadPool;
+        return this;
+    }
+
+    /**
+     * Returns the payload to the pool it was acquired from when reading the packet, so it
+     * can be reused for a next packet. Does nothing if the payload wasn't pooled.
+     * <p>
+     * Must only be called by the last user of the packet, e.g. after the operation contained
+     * in the packet got deserialized; neither the packet nor its payload may be used afterwards.
+     */
+    public void release() {
+        PacketPayloadPool pool = payloadPool;
+        if (pool != null) {
+            payloadPool = null;
+            pool.release(payload);
+        }
+    }
+
+    /**
+     * Sets the ranges of the strings in the payload of this Packet, recorded while serializing it.
+     * They let the connection sending the Packet replace the repeated strings with references to
+     * its string dictionary.
+     *
+     * @param stringRanges the ranges of the strings
+     * @return {@code this} (for fluent interface)
+     */
+    public Packet setStringRanges(StringRanges stringRanges) {
+        this.stringRanges = stringRanges;
+        return this;
+    }
+
+    /**
+     * @return the ranges of the strings in the payload or {@code null} if they weren't recorded
+     */
+    public StringRanges getStringRanges() {
+        return stringRanges;
+    }
+
     public Type getPacketType() {
         return Type.fromFlags(flags);
     }
@@ -216,6 +295,38 @@ public final class Packet extends HeapData implements OutboundFrame {
         return isFlagRaised(FLAG_URGENT);
     }
 
+    /**
+     * Sets the traffic class this Packet is queued in when fair queuing is enabled. If not set, the
+     * traffic class is derived from the packet type and flags.
+     *
+     * @param trafficClass the traffic class
+     * @return {@code this} (for fluent interface)
+     */
+    public Packet setTrafficClass(TrafficClass trafficClass) {
+        this.trafficClass = trafficClass;
+        return this;
+    }
+
+    @Override
+    public TrafficClass getTrafficClass() {
+        if (trafficClass != null) {
+            return trafficClass;
+        }
+
+        switch (getPacketType()) {
+            case OPERATION:
+                return isFlagRaised(FLAG_OP_RESPONSE) ? TrafficClass.RESPONSE : TrafficClass.OPERATION;
+            case EVENT:
+                return TrafficClass.EVENT;
+            case JET:
+                return isFlagRaised(FLAG_JET_FLOW_CONTROL) ? TrafficClass.OPERATION : TrafficClass.BULK;
+            case SQL:
+                return TrafficClass.BULK;
+            default:
+                return TrafficClass.OPERATION;
+        }
+    }
+
     @Override
     public int getFrameLength() {
         return (payload != null ? totalSize() : 0) + HEADER_SIZE;
@@ -16,6 +16,8 @@
 
 package com.hazelcast.internal.nio;
 
+import com.hazelcast.internal.networking.GatheringBuffer;
+
 import java.nio.ByteBuffer;
 
 import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
@@ -38,6 +40,8 @@ import static com.hazelcast.internal.nio.Packet.VERSION;
 public class PacketIOHelper {
     static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
 
+    private final PacketPayloadPool payloadPool;
+
     private int valueOffset;
     private int size;
     private boolean headerComplete;
@@ -45,6 +49,18 @@ public class PacketIOHelper {
     private int partitionId;
     private byte[] payload;
 
+    public PacketIOHelper() {
+        this(null);
+    }
+
+    /**
+     * @param payloadPool the pool to acquire the payloads of the read packets from,
+     *                    or {@code null} to allocate every payload
+     */
+    public PacketIOHelper(PacketPayloadPool payloadPool) {
+        this.payloadPool = payloadPool;
+    }
+
     /**
      * Writes the packet data to the supplied {@code ByteBuffer}, up to the buffer's limit. If it returns {@code false},
      * it should be called again to write the remaining data.
@@ -58,11 +74,8 @@ public class PacketIOHelper {
                 return false;
             }
 
-            dst.put(VERSION);
-            dst.putChar(packet.getFlags());
-            dst.putInt(packet.getPartitionId());
             size = packet.totalSize();
-            dst.putInt(size);
+            writeHeader(packet, size, dst);
             headerComplete = true;
         }
 
@@ -74,6 +87,40 @@ public class PacketIOHelper {
         }
     }
 
+    /**
+     * Writes the packet to the supplied {@link GatheringBuffer}. The header is always copied; the payload
+     * is copied if it is smaller than the {@link GatheringBuffer#referenceThreshold()} and otherwise
+     * referenced without copying.
+     *
+     * A packet is either written completely or not at all, so no state is kept between calls.
+     *
+     * @param dst the destination gathering buffer
+     * @return {@code true} if the packet got written; {@code false} if there is no room in the buffer.
+     */
+    public boolean writeTo(Packet packet, GatheringBuffer dst) {
+        int packetSize = packet.totalSize();
+        boolean reference = packetSize >= dst.referenceThreshold();
+        if (!dst.reserve(reference ? HEADER_SIZE : HEADER_SIZE + packetSize, reference ? 1 : 0)) {
+            return false;
+        }
+
+        ByteBuffer scratch = dst.scratch();
+        writeHeader(packet, packetSize, scratch);
+        if (reference) {
+            dst.reference(packet.toByteArray(), 0, packetSize);
+        } else if (packetSize > 0) {
+            scratch.put(packet.toByteArray(), 0, packetSize);
+        }
+        return true;
+    }
+
+    private static void writeHeader(Packet packet, int packetSize, ByteBuffer dst) {
+        dst.put(VERSION);
+        dst.putChar(packet.getFlags());
+        dst.putInt(packet.getPartitionId());
+        dst.putInt(packetSize);
+    }
+
     private boolean writeValue(Packet packet, ByteBuffer dst) {
         if (size > 0) {
             // the number of bytes that can be written to the bb.
@@ -131,7 +178,7 @@ public class PacketIOHelper {
         }
 
         if (readValue(src)) {
-            Packet packet = new Packet(payload, partitionId).resetFlagsTo(flags);
+            Packet packet = new Packet(payload, partitionId).resetFlagsTo(flags).setPayloadPool(payloadPool);
             reset();
             return packet;
         } else {
@@ -147,7 +194,7 @@ public class PacketIOHelper {
 
     private boolean readValue(ByteBuffer src) {
         if (payload == null) {
-            payload = new byte[size];
+            payload = payloadPool == null ? new byte[size] : payloadPool.acquire(size);
         }
 
         if (size > 0) {
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.internal.util.concurrent.ManyToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.counters.SwCounter;
+
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+
+/**
+ * A pool for the payloads of the {@link Packet packets} read from a single connection.
+ *
+ * The payload of a packet is its exact serialized size, so payloads are pooled per size. Since a
+ * workload tends to produce packets of a few recurring sizes, the pool has a fixed number of bins,
+ * each bin holding payloads of a single size. When a size doesn't match any bin, the least used
+ * bin is reassigned to that size.
+ *
+ * Payloads are {@link #acquire(int) acquired} by the thread reading the connection and
+ * {@link #release(byte[]) released} by the threads processing the packets, e.g. once an operation
+ * completed. So each bin is a many to one queue. A payload that can't be released because its bin
+ * is full or got reassigned is left to the garbage collector.
+ *
+ * @see Packet#release()
+ */
+public final class PacketPayloadPool {
+
+    /**
+     * The default maximum size of a pooled payload.
+     */
+    public static final int DEFAULT_MAX_PAYLOAD_SIZE = 16 * 1024;
+
+    static final int BIN_COUNT = 16;
+    static final int BIN_CAPACITY = 64;
+
+    private final Bin[] bins = new Bin[BIN_COUNT];
+    private final int maxPayloadSize;
+
+    public PacketPayloadPool() {
+        this(DEFAULT_MAX_PAYLOAD_SIZE);
+    }
+
+    /**
+     * @param maxPayloadSize the maximum size of a pooled payload, larger payloads are always allocated
+     */
+    public PacketPayloadPool(int maxPayloadSize) {
+        this.maxPayloadSize = maxPayloadSize;
+        for (int i = 0; i < bins.length; i++) {
+            bins[i] = new Bin();
+        }
+    }
+
+    /**
+     * Returns a payload of exactly the given size, either pooled or newly allocated. The content
+     * of a pooled payload is undefined. Must only be called by the thread reading the connection.
+     *
+     * @param size the size of the payload
+     * @return the payload
+     */
+    public byte[] acquire(int size) {
+        if (size == 0 || size > maxPayloadSize) {
+            return new byte[size];
+        }
+
+        Bin bin = binFor(size);
+        byte[] payload = bin.queue.poll();
+        if (payload == null || payload.length != size) {
+            // the bin is empty or the payload was released just before the bin got reassigned
+            payload = new byte[size];
+        } else {
+            bin.hits.inc();
+        }
+        bin.uses++;
+        return payload;
+    }
+
+    /**
+     * Returns the payload to the pool. Can be called by any thread; the payload must not be used anymore.
+     *
+     * @param payload the payload acquired from this pool
+     */
+    public void release(byte[] payload) {
+        int size = payload.length;
+        for (Bin bin : bins) {
+            if (bin.size == size) {
+                bin.queue.offer(payload);
+                return;
+            }
+        }
+    }
+
+    private Bin binFor(int size) {
+        Bin leastUsed = bins[0];
+        for (Bin bin : bins) {
+            if (bin.size == size) {
+                return bin;
+            }
+            if (bin.uses < leastUsed.uses) {
+                leastUsed = bin;
+            }
+        }
+
+        // age the bins, so that a size which isn't used anymore eventually loses its bin
+        for (Bin bin : bins) {
+            bin.uses >>= 1;
+        }
+        // the pooled payloads have the wrong size for the new bin
+        leastUsed.queue.clear();
+        leastUsed.uses = 0;
+        leastUsed.size = size;
+        return leastUsed;
+    }
+
+    /**
+     * @return the number of acquired payloads which came from the pool
+     */
+    public long hits() {
+        long hits = 0;
+        for (Bin bin : bins) {
+            hits += bin.hits.get();
+        }
+        return hits;
+    }
+
+    private static final class Bin {
+        final ManyToOneConcurrentArrayQueue<byte[]> queue = new ManyToOneConcurrentArrayQueue<>(BIN_CAPACITY);
+        // written by the acquiring thread only, read by the releasing threads
+        volatile int size = -1;
+        // only accessed by the acquiring thread
+        int uses;
+        final SwCounter hits = newSwCounter();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import java.util.Arrays;
+
+/**
+ * The byte ranges of the strings written to a serialized payload, in the
+ * order they were written. A range covers the length prefix and the bytes
+ * of the string.
+ * <p>
+ * The ranges are recorded while serializing the payload of a {@link Packet},
+ * so the connection sending the packet can replace the repeated strings
+ * with references to its dictionary without parsing the payload.
+ *
+ * @see com.hazelcast.internal.serialization.InternalSerializationService#toBytes(Object, StringRanges)
+ */
+public final class StringRanges {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] bounds = new int[INITIAL_CAPACITY * 2];
+    private int size;
+
+    /**
+     * Adds the range of a written string.
+     *
+     * @param from the position of the first byte of the string, inclusive
+     * @param to   the position after the last byte of the string
+     */
+    public void add(int from, int to) {
+        if (size * 2 == bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        bounds[size * 2] = from;
+        bounds[size * 2 + 1] = to;
+        size++;
+    }
+
+    /**
+     * @return the number of ranges
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the position of the first byte of the range with the given index
+     */
+    public int from(int index) {
+        return bounds[index * 2];
+    }
+
+    /**
+     * @return the position after the last byte of the range with the given index
+     */
+    public int to(int index) {
+        return bounds[index * 2 + 1];
+    }
+}
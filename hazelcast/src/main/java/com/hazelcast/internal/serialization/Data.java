@@ -122,4 +122,12 @@ public interface Data {
      */
     boolean isJson();
 
+    /**
+     * Returns true if this Data is created from an object serialized in the compact format,
+     * false otherwise.
+     *
+     * @return true if source object is serialized in the compact format, false otherwise.
+     */
+    boolean isCompact();
+
 }
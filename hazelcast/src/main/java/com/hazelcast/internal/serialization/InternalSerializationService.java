@@ -21,8 +21,10 @@ import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.internal.nio.BufferObjectDataInput;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.nio.Disposable;
+import com.hazelcast.internal.nio.StringRanges;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactReader;
 import com.hazelcast.nio.serialization.PortableReader;
 
 import java.io.IOException;
@@ -64,6 +66,17 @@ public interface InternalSerializationService extends SerializationService, Disp
      */
     byte[] toBytes(Object obj, int leftPadding, boolean insertPartitionHash);
 
+    /**
+     * Writes the obj to a byte array like {@link #toBytes(Object)} and adds
+     * the ranges of the strings written by {@link ObjectDataOutput#writeUTF(String)}
+     * while serializing the obj to the given {@code stringRanges}. The
+     * strings written by nested {@code toData} calls are not included.
+     *
+     * @param obj          object to write to byte array
+     * @param stringRanges the ranges the written strings are added to
+     */
+    byte[] toBytes(Object obj, StringRanges stringRanges);
+
     <B extends Data> B toData(Object obj, DataType type);
 
     <B extends Data> B toData(Object obj, DataType type, PartitioningStrategy strategy);
@@ -92,6 +105,15 @@ public interface InternalSerializationService extends SerializationService, Disp
 
     PortableContext getPortableContext();
 
+    /**
+     * Creates a reader for the fields of an object serialized in the compact format, without deserializing it.
+     *
+     * @param data data of an object serialized in the compact format
+     * @return the reader of the object
+     * @throws IOException in case of any exceptional case
+     */
+    CompactReader createCompactReader(Data data) throws IOException;
+
     ClassLoader getClassLoader();
 
     /**
@@ -19,6 +19,7 @@ package com.hazelcast.internal.serialization.impl;
 import com.hazelcast.core.ManagedContext;
 import com.hazelcast.internal.nio.BufferObjectDataInput;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.nio.StringRanges;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InputOutputFactory;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -58,6 +59,7 @@ import static com.hazelcast.internal.serialization.impl.SerializationUtil.indexF
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.isNullData;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.util.Collections.newSetFromMap;
 
 public abstract class AbstractSerializationService implements InternalSerializationService {
 
@@ -78,6 +80,9 @@ public abstract class AbstractSerializationService implements InternalSerializat
     private final SerializerAdapter[] constantTypeIds = new SerializerAdapter[CONSTANT_SERIALIZERS_LENGTH];
     private final ConcurrentMap<Class, SerializerAdapter> typeMap = new ConcurrentHashMap<Class, SerializerAdapter>();
     private final ConcurrentMap<Integer, SerializerAdapter> idMap = new ConcurrentHashMap<Integer, SerializerAdapter>();
+    // the classes which have no default serializer; checking that a class does not implement
+    // an interface is much slower than checking that it does, so it is done once per class
+    private final Set<Class> nonDefaultTypes = newSetFromMap(new ConcurrentHashMap<Class, Boolean>());
     private final AtomicReference<SerializerAdapter> global = new AtomicReference<SerializerAdapter>();
 
     //Global serializer may override Java Serialization or not
@@ -145,12 +150,24 @@ public abstract class AbstractSerializationService implements InternalSerializat
         return toBytes(obj, leftPadding, insertPartitionHash, globalPartitioningStrategy, getByteOrder());
     }
 
+    @Override
+    public byte[] toBytes(Object obj, StringRanges stringRanges) {
+        checkNotNull(stringRanges);
+        return toBytes(obj, 0, true, globalPartitioningStrategy, BIG_ENDIAN, stringRanges);
+    }
+
     private byte[] toBytes(Object obj, int leftPadding, boolean writeHash, PartitioningStrategy strategy) {
         return toBytes(obj, leftPadding, writeHash, strategy, BIG_ENDIAN);
     }
 
     private byte[] toBytes(Object obj, int leftPadding, boolean writeHash, PartitioningStrategy strategy,
                            ByteOrder serializerTypeIdByteOrder) {
+        return toBytes(obj, leftPadding, writeHash, strategy, serializerTypeIdByteOrder, null);
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    private byte[] toBytes(Object obj, int leftPadding, boolean writeHash, PartitioningStrategy strategy,
+                           ByteOrder serializerTypeIdByteOrder, StringRanges stringRanges) {
         checkNotNull(obj);
         checkNotNull(serializerTypeIdByteOrder);
 
@@ -158,6 +175,10 @@ public abstract class AbstractSerializationService implements InternalSerializat
         BufferObjectDataOutput out = pool.takeOutputBuffer();
         try {
             out.position(leftPadding);
+            if (stringRanges != null && out instanceof ByteArrayObjectDataOutput) {
+                // cleared when the output is returned to the pool
+                ((ByteArrayObjectDataOutput) out).setStringRanges(stringRanges);
+            }
 
             SerializerAdapter serializer = serializerFor(obj);
             if (writeHash) {
@@ -349,6 +370,10 @@ public abstract class AbstractSerializationService implements InternalSerializat
         return managedContext;
     }
 
+    public final BufferPoolThreadLocal getBufferPoolThreadLocal() {
+        return bufferPoolThreadLocal;
+    }
+
     @Override
     public ByteOrder getByteOrder() {
         return inputOutputFactory.getByteOrder();
@@ -371,6 +396,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
         idMap.clear();
         global.set(null);
         constantTypesMap.clear();
+        nonDefaultTypes.clear();
         bufferPoolThreadLocal.clear();
     }
     //endregion Serialization Service
@@ -512,13 +538,20 @@ public abstract class AbstractSerializationService implements InternalSerializat
     }
 
     private SerializerAdapter lookupDefaultSerializer(Class type) {
+        if (nonDefaultTypes.contains(type)) {
+            return null;
+        }
         if (DataSerializable.class.isAssignableFrom(type)) {
             return dataSerializerAdapter;
         }
         if (Portable.class.isAssignableFrom(type)) {
             return portableSerializerAdapter;
         }
-        return constantTypesMap.get(type);
+        SerializerAdapter serializer = constantTypesMap.get(type);
+        if (serializer == null) {
+            nonDefaultTypes.add(type);
+        }
+        return serializer;
     }
 
     private SerializerAdapter lookupCustomSerializer(Class type) {
@@ -32,6 +32,8 @@ import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.NULL_ARRAY_LENGTH;
 import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.VAR_INT_PAYLOAD_BITS;
+import static com.hazelcast.internal.nio.Bits.VAR_INT_PAYLOAD_MASK;
 import static com.hazelcast.version.Version.UNKNOWN;
 
 class ByteArrayObjectDataInput extends VersionedObjectDataInput implements BufferObjectDataInput {
@@ -331,6 +333,38 @@ class ByteArrayObjectDataInput extends VersionedObjectDataInput implements Buffe
         return Bits.readLong(data, position, byteOrder == ByteOrder.BIG_ENDIAN);
     }
 
+    @Override
+    public final int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += VAR_INT_PAYLOAD_BITS) {
+            if (pos >= size) {
+                throw new EOFException("Cannot read var int!");
+            }
+            byte b = data[pos++];
+            value |= (b & VAR_INT_PAYLOAD_MASK) << shift;
+            if (b >= 0) {
+                return Bits.zigZagDecode(value);
+            }
+        }
+        throw new IOException("Malformed var int!");
+    }
+
+    @Override
+    public final long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += VAR_INT_PAYLOAD_BITS) {
+            if (pos >= size) {
+                throw new EOFException("Cannot read var long!");
+            }
+            byte b = data[pos++];
+            value |= (long) (b & VAR_INT_PAYLOAD_MASK) << shift;
+            if (b >= 0) {
+                return Bits.zigZagDecode(value);
+            }
+        }
+        throw new IOException("Malformed var long!");
+    }
+
     /**
      * See the general contract of the {@code readShort} method of {@code DataInput}.
      * <p>
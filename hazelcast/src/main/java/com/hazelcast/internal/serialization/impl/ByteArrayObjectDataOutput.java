@@ -17,24 +17,31 @@
 package com.hazelcast.internal.serialization.impl;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPoolAware;
+import com.hazelcast.internal.serialization.impl.bufferpool.SizeClassByteArrayPool;
 import com.hazelcast.internal.nio.Bits;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.nio.StringRanges;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.collection.ArrayUtils;
 import com.hazelcast.internal.serialization.Data;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static com.hazelcast.internal.nio.Bits.CHAR_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.NULL_ARRAY_LENGTH;
 import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.VAR_INT_MAX_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.VAR_LONG_MAX_SIZE_IN_BYTES;
 import static com.hazelcast.version.Version.UNKNOWN;
 
-class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements BufferObjectDataOutput {
+class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements BufferObjectDataOutput, ByteArrayPoolAware {
 
     final int initialSize;
 
@@ -46,6 +53,14 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
 
     private final boolean isBigEndian;
 
+    private SizeClassByteArrayPool arrayPool;
+
+    // the array the output falls back to when it's cleared while using an array of the pool
+    private byte[] initialBuffer;
+
+    // the ranges of the written strings, if they are recorded
+    private StringRanges stringRanges;
+
     ByteArrayObjectDataOutput(int size, InternalSerializationService service, ByteOrder byteOrder) {
         this.initialSize = size;
         this.buffer = new byte[size];
@@ -96,9 +111,22 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
 
     @Override
     public final void writeZeroBytes(int count) {
-        for (int k = 0; k < count; k++) {
-            write(0);
-        }
+        ensureAvailable(count);
+        // a pooled buffer is not cleared, so the bytes have to be zeroed
+        Arrays.fill(buffer, pos, pos + count, (byte) 0);
+        pos += count;
+    }
+
+    @Override
+    public final void writeVarInt(int v) {
+        ensureAvailable(VAR_INT_MAX_SIZE_IN_BYTES);
+        pos = Bits.writeVarInt(buffer, pos, v);
+    }
+
+    @Override
+    public final void writeVarLong(long v) {
+        ensureAvailable(VAR_LONG_MAX_SIZE_IN_BYTES);
+        pos = Bits.writeVarLong(buffer, pos, v);
     }
 
     @Override
@@ -257,10 +285,14 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
             return;
         }
 
+        int start = pos;
         byte[] utf8Bytes = str.getBytes(StandardCharsets.UTF_8);
         writeInt(utf8Bytes.length);
         ensureAvailable(utf8Bytes.length);
         write(utf8Bytes);
+        if (stringRanges != null) {
+            stringRanges.add(start, pos);
+        }
     }
 
     @Override
@@ -364,8 +396,9 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
         if (available() < len) {
             if (buffer != null) {
                 int newCap = Math.max(buffer.length << 1, buffer.length + len);
-                byte[] newBuffer = new byte[newCap];
+                byte[] newBuffer = arrayPool == null ? new byte[newCap] : arrayPool.take(newCap);
                 System.arraycopy(buffer, 0, newBuffer, 0, pos);
+                releaseToArrayPool();
                 buffer = newBuffer;
             } else {
                 buffer = new byte[len > initialSize / 2 ? len * 2 : initialSize];
@@ -406,6 +439,19 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
         pos = newPos;
     }
 
+    @Override
+    public int copyTo(int offset, ByteBuffer dst) {
+        if (offset < 0 || offset > pos) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", position: " + pos);
+        }
+
+        int count = Math.min(pos - offset, dst.remaining());
+        if (count > 0) {
+            dst.put(buffer, offset, count);
+        }
+        return count;
+    }
+
     public int available() {
         return buffer != null ? buffer.length - pos : 0;
     }
@@ -426,19 +472,44 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
         return newBuffer;
     }
 
+    /**
+     * Sets the ranges the strings written by {@link #writeUTF(String)} are
+     * added to, or {@code null} to stop recording them.
+     */
+    void setStringRanges(StringRanges stringRanges) {
+        this.stringRanges = stringRanges;
+    }
+
     @Override
     public void clear() {
         pos = 0;
-        if (buffer != null && buffer.length > initialSize * 8) {
+        stringRanges = null;
+        if (arrayPool != null) {
+            releaseToArrayPool();
+            buffer = initialBuffer;
+        } else if (buffer != null && buffer.length > initialSize * 8) {
             buffer = new byte[initialSize * 8];
         }
         version = UNKNOWN;
         wanProtocolVersion = UNKNOWN;
     }
 
+    @Override
+    public void setByteArrayPool(SizeClassByteArrayPool arrayPool) {
+        this.arrayPool = arrayPool;
+        this.initialBuffer = buffer;
+    }
+
+    private void releaseToArrayPool() {
+        if (arrayPool != null && buffer != null && buffer != initialBuffer) {
+            arrayPool.release(buffer);
+        }
+    }
+
     @Override
     public void close() {
         pos = 0;
+        releaseToArrayPool();
         buffer = null;
     }
 
@@ -30,6 +30,8 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationClassNameFilter;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactoryImpl;
+import com.hazelcast.internal.serialization.impl.compact.LocalSchemaService;
+import com.hazelcast.internal.serialization.impl.compact.SchemaService;
 import com.hazelcast.internal.util.StringUtil;
 import com.hazelcast.nio.serialization.ClassDefinition;
 import com.hazelcast.nio.serialization.ClassNameFilter;
@@ -42,6 +44,7 @@ import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.spi.properties.ClusterProperty;
 
 import java.nio.ByteOrder;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -52,6 +55,7 @@ import static java.nio.ByteOrder.BIG_ENDIAN;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.ByteOrder.nativeOrder;
 
+@SuppressWarnings("checkstyle:methodcount")
 public class DefaultSerializationServiceBuilder implements SerializationServiceBuilder {
 
     static final ByteOrder DEFAULT_BYTE_ORDER = BIG_ENDIAN;
@@ -93,6 +97,8 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
 
     protected ClassNameFilter classNameFilter;
 
+    protected SchemaService schemaService = new LocalSchemaService();
+
     @Override
     public SerializationServiceBuilder setVersion(byte version) {
         byte maxVersion = BuildInfoProvider.getBuildInfo().getSerializationVersion();
@@ -223,6 +229,12 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
         return this;
     }
 
+    @Override
+    public SerializationServiceBuilder setSchemaService(SchemaService schemaService) {
+        this.schemaService = schemaService;
+        return this;
+    }
+
     @Override
     public InternalSerializationService build() {
         initVersions();
@@ -296,6 +308,10 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
                     .withEnableSharedObject(enableSharedObject)
                     .withNotActiveExceptionSupplier(notActiveExceptionSupplier)
                     .withClassNameFilter(classNameFilter)
+                    .withSchemaService(schemaService)
+                    .withCompactRegistries(config == null
+                            ? Collections.emptyMap()
+                            : config.getCompactSerializationConfig().getRegistries())
                     .build();
                 serializationServiceV1.registerClassDefinitions(classDefinitions, checkClassDefErrors);
                 return serializationServiceV1;
@@ -137,6 +137,9 @@ public final class FactoryIdHelper {
     public static final String SQL_DS_FACTORY = "hazelcast.serialization.sql";
     public static final int SQL_DS_FACTORY_ID = -38;
 
+    public static final String COMPACT_DS_FACTORY = "hazelcast.serialization.compact";
+    public static final int COMPACT_DS_FACTORY_ID = -39;
+
     // factory ID 0 is reserved for Cluster objects (Data, Address, Member etc)...
 
     private FactoryIdHelper() {
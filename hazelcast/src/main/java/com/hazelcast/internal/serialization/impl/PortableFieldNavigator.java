@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.PortableContext;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.FieldDefinition;
+import com.hazelcast.nio.serialization.FieldType;
+
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.nio.Bits.BOOLEAN_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.NULL_ARRAY_LENGTH;
+import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads primitive and UTF fields of serialized Portable objects, including
+ * the fields of nested Portables, directly from the bytes of the
+ * {@link Data}, without creating a reader, a navigation context or
+ * positions for every entry.
+ * <p>
+ * The path is resolved against the class definitions only once: the field
+ * index and type of every token are cached per factory id, class id and
+ * version, so for the entries of the same class, e.g. during a partition
+ * scan, reading a field is a few offset lookups in the byte array. Only
+ * this metadata is cached, the bytes of the entries are never retained.
+ * <p>
+ * Paths with array quantifiers, fields of other types and class
+ * definitions which are not registered locally are not handled, for those
+ * {@link #read(Data, String)} returns {@link #NOT_NAVIGABLE} and the caller
+ * should fall back to the {@link DefaultPortableReader}.
+ * <p>
+ * Can be accessed concurrently.
+ */
+public final class PortableFieldNavigator {
+
+    /**
+     * Returned when the field can't be read by the navigator.
+     */
+    public static final Object NOT_NAVIGABLE = new Object();
+
+    private static final int MAX_CACHED_PATHS = 1024;
+
+    /**
+     * Length of the factory id, class id and version which precede a Portable.
+     */
+    private static final int PORTABLE_HEADER_LENGTH = 3 * INT_SIZE_IN_BYTES;
+
+    /**
+     * Length of the final position and field count which precede the field offsets.
+     */
+    private static final int OFFSETS_HEADER_LENGTH = 2 * INT_SIZE_IN_BYTES;
+
+    private final PortableContext context;
+    private final boolean bigEndian;
+    private final ConcurrentMap<String, Path> paths = new ConcurrentHashMap<>();
+
+    public PortableFieldNavigator(InternalSerializationService serializationService) {
+        this.context = serializationService.getPortableContext();
+        this.bigEndian = serializationService.getByteOrder() == ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * Reads the field at the given path of a serialized Portable.
+     *
+     * @param data the serialized Portable
+     * @param path the path of the field, its tokens separated by dots
+     * @return the value of the field, {@code null} if the field or one of
+     * the Portables on its path is null, or {@link #NOT_NAVIGABLE} if the
+     * field can't be read by the navigator
+     */
+    public Object read(Data data, String path) {
+        if (!(data instanceof HeapData) || !data.isPortable()) {
+            return NOT_NAVIGABLE;
+        }
+        Path resolved = path(path);
+        if (resolved.tokens == null) {
+            return NOT_NAVIGABLE;
+        }
+
+        byte[] bytes = data.toByteArray();
+        int position = HeapData.DATA_OFFSET;
+        Step previous = null;
+        Step step = resolved.root;
+        int lastToken = resolved.tokens.length - 1;
+        for (int tokenIndex = 0; ; tokenIndex++) {
+            int factoryId = readInt(bytes, position);
+            int classId = readInt(bytes, position + INT_SIZE_IN_BYTES);
+            int version = readInt(bytes, position + 2 * INT_SIZE_IN_BYTES);
+            position += PORTABLE_HEADER_LENGTH;
+
+            if (step == null || !step.appliesTo(factoryId, classId, version)) {
+                step = resolve(resolved, tokenIndex, previous, factoryId, classId, version);
+                if (step == null) {
+                    return NOT_NAVIGABLE;
+                }
+            }
+            if (readInt(bytes, position + INT_SIZE_IN_BYTES) != step.fieldCount) {
+                return NOT_NAVIGABLE;
+            }
+
+            int offsets = position + OFFSETS_HEADER_LENGTH;
+            int fieldPosition = readInt(bytes, offsets + step.fieldIndex * INT_SIZE_IN_BYTES);
+            // the field starts with its name and type
+            int nameLength = Bits.readShort(bytes, fieldPosition, bigEndian);
+            int valuePosition = fieldPosition + SHORT_SIZE_IN_BYTES + nameLength + BYTE_SIZE_IN_BYTES;
+
+            if (tokenIndex == lastToken) {
+                return readValue(bytes, valuePosition, step.type);
+            }
+            // a nested Portable starts with its null flag, the factory and class ids are repeated after it
+            if (bytes[valuePosition] != 0) {
+                return null;
+            }
+            position = valuePosition + BOOLEAN_SIZE_IN_BYTES;
+            previous = step;
+            step = step.next;
+        }
+    }
+
+    private Path path(String path) {
+        Path resolved = paths.get(path);
+        if (resolved == null) {
+            resolved = new Path(path);
+            if (paths.size() < MAX_CACHED_PATHS) {
+                Path existing = paths.putIfAbsent(path, resolved);
+                resolved = existing != null ? existing : resolved;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves a token of the path against the class definition of the
+     * Portable it is read from and links the result after the previous
+     * step, replacing the step of another class definition if there was one.
+     */
+    private Step resolve(Path path, int tokenIndex, Step previous, int factoryId, int classId, int version) {
+        ClassDefinition classDefinition = context.lookupClassDefinition(factoryId, classId, version);
+        if (classDefinition == null) {
+            return null;
+        }
+        FieldDefinition field = classDefinition.getField(path.tokens[tokenIndex]);
+        if (field == null) {
+            return null;
+        }
+        FieldType type = field.getType();
+        boolean leaf = tokenIndex == path.tokens.length - 1;
+        if (leaf ? !isNavigableLeaf(type) : type != FieldType.PORTABLE) {
+            return null;
+        }
+        Step step = new Step(factoryId, classId, version, classDefinition.getFieldCount(), field.getIndex(), type);
+        if (previous == null) {
+            path.root = step;
+        } else {
+            previous.next = step;
+        }
+        return step;
+    }
+
+    private static boolean isNavigableLeaf(FieldType type) {
+        return type == FieldType.UTF || !type.isArrayType() && type != FieldType.PORTABLE;
+    }
+
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:returncount"})
+    private Object readValue(byte[] bytes, int position, FieldType type) {
+        switch (type) {
+            case BYTE:
+                return bytes[position];
+            case BOOLEAN:
+                return bytes[position] != 0;
+            case CHAR:
+                return Bits.readChar(bytes, position, bigEndian);
+            case SHORT:
+                return Bits.readShort(bytes, position, bigEndian);
+            case INT:
+                return readInt(bytes, position);
+            case LONG:
+                return Bits.readLong(bytes, position, bigEndian);
+            case FLOAT:
+                return Float.intBitsToFloat(readInt(bytes, position));
+            case DOUBLE:
+                return Double.longBitsToDouble(Bits.readLong(bytes, position, bigEndian));
+            case UTF:
+                int length = readInt(bytes, position);
+                return length == NULL_ARRAY_LENGTH ? null : new String(bytes, position + INT_SIZE_IN_BYTES, length, UTF_8);
+            default:
+                throw new IllegalStateException("Unexpected field type: " + type);
+        }
+    }
+
+    private int readInt(byte[] bytes, int position) {
+        return Bits.readInt(bytes, position, bigEndian);
+    }
+
+    /**
+     * A path split into its tokens, with the steps resolved for the last
+     * seen class definitions along the path. The tokens are {@code null} if
+     * the path is not navigable.
+     */
+    private static final class Path {
+        final String[] tokens;
+        volatile Step root;
+
+        Path(String path) {
+            boolean navigable = !path.isEmpty() && path.indexOf('[') < 0 && !path.startsWith(".") && !path.endsWith(".");
+            this.tokens = navigable ? path.split("\\.") : null;
+        }
+    }
+
+    /**
+     * The field index and type of a token in a class definition.
+     */
+    private static final class Step {
+        final int factoryId;
+        final int classId;
+        final int version;
+        final int fieldCount;
+        final int fieldIndex;
+        final FieldType type;
+        volatile Step next;
+
+        Step(int factoryId, int classId, int version, int fieldCount, int fieldIndex, FieldType type) {
+            this.factoryId = factoryId;
+            this.classId = classId;
+            this.version = version;
+            this.fieldCount = fieldCount;
+            this.fieldIndex = fieldIndex;
+            this.type = type;
+        }
+
+        boolean appliesTo(int factoryId, int classId, int version) {
+            return this.factoryId == factoryId && this.classId == classId && this.version == version;
+        }
+    }
+}
@@ -24,9 +24,15 @@ import com.hazelcast.internal.serialization.PortableContext;
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.BooleanSerializer;
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.ByteSerializer;
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.StringArraySerializer;
+import com.hazelcast.internal.serialization.impl.compact.CompactStreamSerializer;
+import com.hazelcast.internal.serialization.impl.compact.LocalSchemaService;
+import com.hazelcast.internal.serialization.impl.compact.SchemaService;
+import com.hazelcast.internal.util.TriTuple;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.serialization.ClassDefinition;
 import com.hazelcast.nio.serialization.ClassNameFilter;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.CompactSerializer;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.FieldDefinition;
@@ -107,6 +113,8 @@ public class SerializationServiceV1 extends AbstractSerializationService {
 
     private final PortableContextImpl portableContext;
     private final PortableSerializer portableSerializer;
+    private final CompactStreamSerializer compactStreamSerializer;
+    private final SerializerAdapter compactSerializerAdapter;
 
     SerializationServiceV1(AbstractBuilder<?> builder) {
         super(builder);
@@ -125,8 +133,11 @@ public class SerializationServiceV1 extends AbstractSerializationService {
                 new JavaSerializer(builder.enableSharedObject, builder.enableCompression, builder.classNameFilter));
         javaExternalizableAdapter = createSerializerAdapter(
                 new JavaDefaultSerializers.ExternalizableSerializer(builder.enableCompression, builder.classNameFilter));
+        compactStreamSerializer = new CompactStreamSerializer(builder.schemaService, builder.compactRegistries);
+        compactSerializerAdapter = createSerializerAdapter(compactStreamSerializer);
         registerConstantSerializers();
         registerJavaTypeSerializers();
+        registerCompactSerializers();
     }
 
     @Override
@@ -165,6 +176,27 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         return portableContext;
     }
 
+    @Override
+    public CompactReader createCompactReader(Data data) throws IOException {
+        if (!data.isCompact()) {
+            throw new IllegalArgumentException("Given data is not Compact! -> " + data.getType());
+        }
+        BufferObjectDataInput in = createObjectDataInput(data);
+        return compactStreamSerializer.createReader(in);
+    }
+
+    public CompactStreamSerializer getCompactStreamSerializer() {
+        return compactStreamSerializer;
+    }
+
+    @Override
+    public SerializerAdapter serializerFor(int typeId) {
+        if (typeId == SerializationConstants.TYPE_COMPACT) {
+            return compactSerializerAdapter;
+        }
+        return super.serializerFor(typeId);
+    }
+
     private void registerConstantSerializers() {
         registerConstant(null, nullSerializerAdapter);
         registerConstant(DataSerializable.class, dataSerializerAdapter);
@@ -232,6 +264,12 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         safeRegister(HazelcastJsonValue.class, new HazelcastJsonValueSerializer());
     }
 
+    private void registerCompactSerializers() {
+        for (Class clazz : compactStreamSerializer.getRegisteredClasses()) {
+            safeRegister(clazz, compactSerializerAdapter);
+        }
+    }
+
     public void registerClassDefinitions(Collection<ClassDefinition> classDefinitions, boolean checkClassDefErrors) {
         Map<Integer, Map<Integer, ClassDefinition>> factoryMap = createHashMap(classDefinitions.size());
         for (ClassDefinition cd : classDefinitions) {
@@ -321,6 +359,8 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         private boolean enableCompression;
         private boolean enableSharedObject;
         private ClassNameFilter classNameFilter;
+        private SchemaService schemaService = new LocalSchemaService();
+        private Map<String, TriTuple<Class, String, CompactSerializer>> compactRegistries = Collections.emptyMap();
 
         protected AbstractBuilder() {
         }
@@ -359,6 +399,16 @@ public class SerializationServiceV1 extends AbstractSerializationService {
             this.classNameFilter = classNameFilter;
             return self();
         }
+
+        public final T withSchemaService(SchemaService schemaService) {
+            this.schemaService = schemaService;
+            return self();
+        }
+
+        public final T withCompactRegistries(Map<String, TriTuple<Class, String, CompactSerializer>> compactRegistries) {
+            this.compactRegistries = compactRegistries;
+            return self();
+        }
     }
 
     public static final class Builder extends AbstractBuilder<Builder> {
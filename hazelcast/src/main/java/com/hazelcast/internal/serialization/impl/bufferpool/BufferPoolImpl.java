@@ -38,12 +38,20 @@ public class BufferPoolImpl implements BufferPool {
 
     protected final InternalSerializationService serializationService;
 
+    // the arrays the output buffers grow into
+    final SizeClassByteArrayPool arrayPool;
+
     // accessible for testing.
     final Queue<BufferObjectDataOutput> outputQueue = new ArrayDeque<BufferObjectDataOutput>(MAX_POOLED_ITEMS);
     final Queue<BufferObjectDataInput> inputQueue = new ArrayDeque<BufferObjectDataInput>(MAX_POOLED_ITEMS);
 
     public BufferPoolImpl(InternalSerializationService serializationService) {
+        this(serializationService, SizeClassByteArrayPool.DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    public BufferPoolImpl(InternalSerializationService serializationService, long maxRetainedBytes) {
         this.serializationService = serializationService;
+        this.arrayPool = new SizeClassByteArrayPool(maxRetainedBytes);
     }
 
     @Override
@@ -51,6 +59,9 @@ public class BufferPoolImpl implements BufferPool {
         BufferObjectDataOutput out = outputQueue.poll();
         if (out == null) {
             out = serializationService.createObjectDataOutput();
+            if (out instanceof ByteArrayPoolAware) {
+                ((ByteArrayPoolAware) out).setByteArrayPool(arrayPool);
+            }
         }
         return out;
     }
@@ -87,6 +98,13 @@ public class BufferPoolImpl implements BufferPool {
         offerOrClose(inputQueue, in);
     }
 
+    /**
+     * Returns the pool of the arrays the output buffers grow into.
+     */
+    public SizeClassByteArrayPool getArrayPool() {
+        return arrayPool;
+    }
+
     private static <C extends Closeable> void offerOrClose(Queue<C> queue, C item) {
         if (queue.size() == MAX_POOLED_ITEMS) {
             closeResource(item);
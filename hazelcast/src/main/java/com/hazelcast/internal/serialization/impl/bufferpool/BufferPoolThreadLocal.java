@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.serialization.impl.bufferpool;
 
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.util.ConcurrentReferenceHashMap;
@@ -24,6 +25,10 @@ import java.lang.ref.WeakReference;
 import java.util.Map;
 import java.util.function.Supplier;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SERIALIZATION_METRIC_BUFFER_POOL_HITS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SERIALIZATION_METRIC_BUFFER_POOL_MISSES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SERIALIZATION_METRIC_BUFFER_POOL_RETAINED_BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.util.ConcurrentReferenceHashMap.ReferenceType.STRONG;
 import static com.hazelcast.internal.util.ConcurrentReferenceHashMap.ReferenceType.WEAK;
 
@@ -76,6 +81,10 @@ import static com.hazelcast.internal.util.ConcurrentReferenceHashMap.ReferenceTy
  * The Performance of using a ThreadLocal in combination with a WeakReference is almost the same as using a ThreadLocal without
  * WeakReference. There is an extra pointer indirection and some additional pressure on the gc system since it needs to deal with
  * the WeakReferences, but the number of threads is limited.
+ *
+ * <h1>Metrics</h1>
+ * The hits, misses and retained bytes of the {@link SizeClassByteArrayPool} of every live thread are summed up, so the pooling
+ * of large buffers can be monitored per SerializationService-instance.
  */
 public final class BufferPoolThreadLocal {
 
@@ -113,4 +122,37 @@ public final class BufferPoolThreadLocal {
     public void clear() {
         strongReferences.clear();
     }
+
+    @Probe(name = SERIALIZATION_METRIC_BUFFER_POOL_HITS)
+    public long hits() {
+        long hits = 0;
+        for (BufferPool pool : strongReferences.values()) {
+            if (pool instanceof BufferPoolImpl) {
+                hits += ((BufferPoolImpl) pool).getArrayPool().hits();
+            }
+        }
+        return hits;
+    }
+
+    @Probe(name = SERIALIZATION_METRIC_BUFFER_POOL_MISSES)
+    public long misses() {
+        long misses = 0;
+        for (BufferPool pool : strongReferences.values()) {
+            if (pool instanceof BufferPoolImpl) {
+                misses += ((BufferPoolImpl) pool).getArrayPool().misses();
+            }
+        }
+        return misses;
+    }
+
+    @Probe(name = SERIALIZATION_METRIC_BUFFER_POOL_RETAINED_BYTES, unit = BYTES)
+    public long retainedBytes() {
+        long retainedBytes = 0;
+        for (BufferPool pool : strongReferences.values()) {
+            if (pool instanceof BufferPoolImpl) {
+                retainedBytes += ((BufferPoolImpl) pool).getArrayPool().retainedBytes();
+            }
+        }
+        return retainedBytes;
+    }
 }
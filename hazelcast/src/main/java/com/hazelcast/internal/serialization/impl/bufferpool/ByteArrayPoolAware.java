@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+/**
+ * Implemented by the output buffers that can grow into the arrays of a
+ * {@link SizeClassByteArrayPool}.
+ */
+public interface ByteArrayPoolAware {
+
+    /**
+     * Sets the pool to take the arrays from when growing. The arrays are
+     * released back to the pool when the output is cleared.
+     *
+     * @param arrayPool the pool, confined to the same thread as the output
+     */
+    void setByteArrayPool(SizeClassByteArrayPool arrayPool);
+}
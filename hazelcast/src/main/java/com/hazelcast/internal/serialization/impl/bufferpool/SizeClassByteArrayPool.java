@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import java.util.ArrayDeque;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.Integer.numberOfTrailingZeros;
+
+/**
+ * A pool of byte arrays the output buffers of a {@link BufferPoolImpl} grow
+ * into when a serialized value doesn't fit their initial array.
+ *
+ * The arrays are kept in power of two size classes starting at
+ * {@link #MIN_SIZE_CLASS_BYTES}. A request is served by the smallest retained
+ * array that is large enough, so an output that has to grow jumps to an array
+ * that was big enough for an earlier large value instead of doubling its way
+ * up and copying its content at every step. The total size of the retained
+ * arrays is bounded; a released array that doesn't fit within the bound is
+ * left to the garbage collector.
+ *
+ * Just like the BufferPool that owns it, the pool is confined to a single
+ * thread. The counters are volatile so they can be read by the metrics.
+ */
+public final class SizeClassByteArrayPool {
+
+    /**
+     * The size of the smallest size class.
+     */
+    public static final int MIN_SIZE_CLASS_BYTES = 64 * 1024;
+
+    /**
+     * The default bound on the total size of the retained arrays.
+     */
+    public static final long DEFAULT_MAX_RETAINED_BYTES = 16 * 1024 * 1024;
+
+    private static final int MIN_SIZE_CLASS_SHIFT = numberOfTrailingZeros(MIN_SIZE_CLASS_BYTES);
+    private static final int MAX_SIZE_CLASS_SHIFT = 30;
+
+    private final ArrayDeque<byte[]>[] sizeClasses;
+    private final long maxRetainedBytes;
+
+    private volatile long hits;
+    private volatile long misses;
+    private volatile long retainedBytes;
+
+    @SuppressWarnings("unchecked")
+    public SizeClassByteArrayPool(long maxRetainedBytes) {
+        this.maxRetainedBytes = checkNotNegative(maxRetainedBytes, "maxRetainedBytes can't be negative");
+        this.sizeClasses = new ArrayDeque[MAX_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Takes an array of at least the given length. The content of the array
+     * is undefined.
+     *
+     * @param minLength the minimum length of the array
+     * @return the taken array
+     */
+    public byte[] take(int minLength) {
+        if (minLength > 1 << MAX_SIZE_CLASS_SHIFT) {
+            return new byte[minLength];
+        }
+
+        int sizeClass = sizeClassOf(Math.max(minLength, MIN_SIZE_CLASS_BYTES));
+        for (int i = sizeClass; i < sizeClasses.length; i++) {
+            byte[] array = sizeClasses[i].poll();
+            if (array != null) {
+                hits++;
+                retainedBytes -= array.length;
+                return array;
+            }
+        }
+
+        if (minLength < MIN_SIZE_CLASS_BYTES) {
+            return new byte[minLength];
+        }
+        misses++;
+        return new byte[1 << (sizeClass + MIN_SIZE_CLASS_SHIFT)];
+    }
+
+    /**
+     * Releases an array taken from this pool. Arrays that don't match a size
+     * class or don't fit within the retained bytes bound are dropped.
+     *
+     * @param array the released array
+     */
+    public void release(byte[] array) {
+        int length = array.length;
+        if (length < MIN_SIZE_CLASS_BYTES || Integer.bitCount(length) != 1
+                || retainedBytes + length > maxRetainedBytes) {
+            return;
+        }
+
+        sizeClasses[sizeClassOf(length)].push(array);
+        retainedBytes += length;
+    }
+
+    /**
+     * Returns the number of takes served by a retained array.
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of takes that had to allocate an array of a size
+     * class.
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the total size of the retained arrays.
+     */
+    public long retainedBytes() {
+        return retainedBytes;
+    }
+
+    private static int sizeClassOf(int length) {
+        // the ceiling of log2(length)
+        return Integer.SIZE - numberOfLeadingZeros(length - 1) - MIN_SIZE_CLASS_SHIFT;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.internal.util.TriTuple;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactSerializer;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serializes the objects of the classes registered in the
+ * {@link com.hazelcast.config.CompactSerializationConfig}.
+ * <p>
+ * The serialized form of an object is the id of the schema of its type
+ * followed by its fields as written by the {@link DefaultCompactWriter}.
+ * The schema of a class is built from the fields written for the first
+ * object of the class and put into the {@link SchemaService} before the
+ * object is written.
+ */
+public final class CompactStreamSerializer implements StreamSerializer<Object> {
+
+    private final SchemaService schemaService;
+    private final Map<String, Registration> typeNameToRegistration = new HashMap<>();
+    private final ConcurrentMap<Class, Registration> classToRegistration = new ConcurrentHashMap<>();
+    // the registration and the schema of a class are looked up with a single lookup for each object written
+    private final ConcurrentMap<Class, ClassBinding> classToBinding = new ConcurrentHashMap<>();
+    // the schema and the registration of an object read are looked up with a single lookup of the schema id, which
+    // does not box the id; the map is copied on write, since a schema is bound once and looked up for each object read
+    private volatile Long2ObjectHashMap<SchemaBinding> schemaIdToBinding = new Long2ObjectHashMap<>();
+
+    public CompactStreamSerializer(SchemaService schemaService,
+                                   Map<String, TriTuple<Class, String, CompactSerializer>> registries) {
+        this.schemaService = schemaService;
+        for (TriTuple<Class, String, CompactSerializer> registry : registries.values()) {
+            Class clazz = registry.element1;
+            CompactSerializer serializer = registry.element3 == null
+                    ? new ReflectiveCompactSerializer(clazz)
+                    : registry.element3;
+            Registration registration = new Registration(registry.element2, serializer);
+            typeNameToRegistration.put(registry.element2, registration);
+            classToRegistration.put(clazz, registration);
+        }
+    }
+
+    @Override
+    public int getTypeId() {
+        return SerializationConstants.TYPE_COMPACT;
+    }
+
+    /**
+     * @return the classes registered for compact serialization
+     */
+    public Collection<Class> getRegisteredClasses() {
+        return classToRegistration.keySet();
+    }
+
+    public SchemaService getSchemaService() {
+        return schemaService;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, Object object) throws IOException {
+        if (!(out instanceof BufferObjectDataOutput)) {
+            throw new IllegalArgumentException("ObjectDataOutput must be instance of BufferObjectDataOutput!");
+        }
+        writeObject((BufferObjectDataOutput) out, object);
+    }
+
+    void writeObject(BufferObjectDataOutput out, Object object) throws IOException {
+        Class clazz = object.getClass();
+        ClassBinding binding = classToBinding.get(clazz);
+        if (binding == null) {
+            binding = bind(clazz, object);
+        }
+        Schema schema = binding.schema;
+        out.writeLong(schema.getSchemaId());
+        DefaultCompactWriter writer = new DefaultCompactWriter(this, out, schema);
+        binding.registration.serializer.write(writer, object);
+        writer.end();
+    }
+
+    @Override
+    public Object read(ObjectDataInput in) throws IOException {
+        if (!(in instanceof BufferObjectDataInput)) {
+            throw new IllegalArgumentException("ObjectDataInput must be instance of BufferObjectDataInput!");
+        }
+        return readObject((BufferObjectDataInput) in);
+    }
+
+    Object readObject(BufferObjectDataInput in) throws IOException {
+        long schemaId = in.readLong();
+        SchemaBinding binding = schemaIdToBinding.get(schemaId);
+        if (binding == null) {
+            binding = bind(schemaId);
+        }
+        DefaultCompactReader reader = new DefaultCompactReader(this, in, binding.schema);
+        Object object = binding.registration.serializer.read(reader);
+        reader.end();
+        return object;
+    }
+
+    /**
+     * Reads the schema id and creates a reader for the fields of the
+     * object. The reader does not need the class of the object.
+     *
+     * @param in the input positioned at the start of the object
+     * @return the reader of the object
+     * @throws IOException in case of any exceptional case
+     */
+    public DefaultCompactReader createReader(BufferObjectDataInput in) throws IOException {
+        return new DefaultCompactReader(this, in, getSchema(in.readLong()));
+    }
+
+    private Schema getSchema(long schemaId) {
+        Schema schema = schemaService.get(schemaId);
+        if (schema == null) {
+            throw new HazelcastSerializationException("The schema with the id " + schemaId + " can not be found");
+        }
+        return schema;
+    }
+
+    private SchemaBinding bind(long schemaId) {
+        // the schema may have to be fetched from the other members, which is not done under the lock
+        Schema schema = getSchema(schemaId);
+        String typeName = schema.getTypeName();
+        Registration registration = typeNameToRegistration.get(typeName);
+        if (registration == null) {
+            throw new HazelcastSerializationException("No class is registered for compact serialization with the type name: "
+                    + typeName);
+        }
+        SchemaBinding binding = new SchemaBinding(schema, registration);
+        synchronized (this) {
+            Long2ObjectHashMap<SchemaBinding> bindings = new Long2ObjectHashMap<>(schemaIdToBinding.size() + 1);
+            bindings.putAll(schemaIdToBinding);
+            bindings.put(schemaId, binding);
+            schemaIdToBinding = bindings;
+        }
+        return binding;
+    }
+
+    private Registration registrationFor(Class clazz) {
+        Registration registration = classToRegistration.get(clazz);
+        if (registration != null) {
+            return registration;
+        }
+        for (Class superClass = clazz.getSuperclass(); superClass != null; superClass = superClass.getSuperclass()) {
+            registration = classToRegistration.get(superClass);
+            if (registration != null) {
+                classToRegistration.putIfAbsent(clazz, registration);
+                return registration;
+            }
+        }
+        throw new HazelcastSerializationException(clazz.getName() + " is not registered for compact serialization");
+    }
+
+    private ClassBinding bind(Class clazz, Object object) throws IOException {
+        Registration registration = registrationFor(clazz);
+        SchemaWriter schemaWriter = new SchemaWriter(registration.typeName);
+        registration.serializer.write(schemaWriter, object);
+        Schema schema = schemaWriter.build();
+        schemaService.put(schema);
+        ClassBinding binding = new ClassBinding(registration, schema);
+        classToBinding.put(clazz, binding);
+        return binding;
+    }
+
+    private static final class ClassBinding {
+        private final Registration registration;
+        private final Schema schema;
+
+        private ClassBinding(Registration registration, Schema schema) {
+            this.registration = registration;
+            this.schema = schema;
+        }
+    }
+
+    private static final class SchemaBinding {
+        private final Schema schema;
+        private final Registration registration;
+
+        private SchemaBinding(Schema schema, Registration registration) {
+            this.schema = schema;
+            this.registration = registration;
+        }
+    }
+
+    private static final class Registration {
+        private final String typeName;
+        private final CompactSerializer serializer;
+
+        private Registration(String typeName, CompactSerializer serializer) {
+            this.typeName = typeName;
+            this.serializer = serializer;
+        }
+    }
+}
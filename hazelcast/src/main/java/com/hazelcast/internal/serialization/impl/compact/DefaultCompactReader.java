@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Reads the fields of an object written by the {@link DefaultCompactWriter}.
+ * <p>
+ * The reader supports nested paths such as {@code address.city} through
+ * {@link #read(String)}, which is used to extract the fields in queries
+ * without deserializing the object. Like the {@link DefaultCompactWriter},
+ * it also has package-private methods taking the {@link FieldDescriptor}
+ * of a field instead of its name.
+ */
+@SuppressWarnings({"unchecked", "checkstyle:methodcount"})
+public final class DefaultCompactReader implements CompactReader {
+
+    private final CompactStreamSerializer serializer;
+    private final BufferObjectDataInput in;
+    private final Schema schema;
+    private final int dataStartPosition;
+    private final int offsetsPosition;
+    private final int endPosition;
+
+    DefaultCompactReader(CompactStreamSerializer serializer, BufferObjectDataInput in, Schema schema) throws IOException {
+        this.serializer = serializer;
+        this.in = in;
+        this.schema = schema;
+        int dataLength = in.readInt();
+        this.dataStartPosition = in.position();
+        this.offsetsPosition = dataStartPosition + dataLength;
+        this.endPosition = offsetsPosition + schema.getNumberOfVariableSizeFields() * INT_SIZE_IN_BYTES;
+    }
+
+    /**
+     * Moves the input to the end of the object. Must be called after the fields are read.
+     */
+    void end() {
+        in.position(endPosition);
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Reads the value of a field or of a field of a nested object, given as
+     * a dot separated path. The returned value of a primitive field is boxed.
+     *
+     * @param fieldPath the name of a field, or the path of a field of a nested object
+     * @return the value of the field, or {@code null} if there is no such field
+     * @throws IOException in case of any exceptional case
+     */
+    public Object read(String fieldPath) throws IOException {
+        int dotIndex = fieldPath.indexOf('.');
+        if (dotIndex < 0) {
+            FieldDescriptor field = schema.getField(fieldPath);
+            return field == null ? null : read(field);
+        }
+        FieldDescriptor field = schema.getField(fieldPath.substring(0, dotIndex));
+        if (field == null || field.getKind() != FieldKind.COMPACT) {
+            return null;
+        }
+        int offset = in.readInt(offsetsPosition + field.getIndex() * INT_SIZE_IN_BYTES);
+        if (offset == DefaultCompactWriter.NULL_OFFSET) {
+            return null;
+        }
+        in.position(dataStartPosition + offset);
+        return serializer.createReader(in).read(fieldPath.substring(dotIndex + 1));
+    }
+
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:returncount"})
+    private Object read(FieldDescriptor field) throws IOException {
+        switch (field.getKind()) {
+            case BOOLEAN:
+                return readBoolean(field);
+            case BYTE:
+                return in.readByte(fixedSizePosition(field));
+            case CHAR:
+                return in.readChar(fixedSizePosition(field));
+            case SHORT:
+                return in.readShort(fixedSizePosition(field));
+            case INT:
+                return in.readInt(fixedSizePosition(field));
+            case LONG:
+                return in.readLong(fixedSizePosition(field));
+            case FLOAT:
+                return in.readFloat(fixedSizePosition(field));
+            case DOUBLE:
+                return in.readDouble(fixedSizePosition(field));
+            default:
+                return readVariableSizeField(field, Object.class);
+        }
+    }
+
+    /**
+     * Reads the value of a variable size field.
+     *
+     * @param componentType the component type of the array created for a {@link FieldKind#COMPACT_ARRAY} field
+     * @return the value, or {@code null} if the field is {@code null}
+     */
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:returncount"})
+    Object readVariableSizeField(FieldDescriptor field, Class<?> componentType) throws IOException {
+        if (!seekVariableSizeField(field)) {
+            return null;
+        }
+        switch (field.getKind()) {
+            case UTF:
+                return in.readUTF();
+            case COMPACT:
+                return serializer.readObject(in);
+            case BOOLEAN_ARRAY:
+                return in.readBooleanArray();
+            case BYTE_ARRAY:
+                return in.readByteArray();
+            case CHAR_ARRAY:
+                return in.readCharArray();
+            case SHORT_ARRAY:
+                return in.readShortArray();
+            case INT_ARRAY:
+                return in.readIntArray();
+            case LONG_ARRAY:
+                return in.readLongArray();
+            case FLOAT_ARRAY:
+                return in.readFloatArray();
+            case DOUBLE_ARRAY:
+                return in.readDoubleArray();
+            case UTF_ARRAY:
+                return in.readUTFArray();
+            case COMPACT_ARRAY:
+                return readCompactValues(componentType);
+            default:
+                throw new IllegalArgumentException("Not a variable size field: " + field);
+        }
+    }
+
+    BufferObjectDataInput getInput() {
+        return in;
+    }
+
+    @Override
+    public boolean hasField(String fieldName) {
+        return schema.getField(fieldName) != null;
+    }
+
+    private FieldDescriptor checkField(String fieldName, FieldKind kind) {
+        FieldDescriptor field = schema.getField(fieldName);
+        if (field == null) {
+            throw new HazelcastSerializationException("Invalid field name: '" + fieldName + "' for " + schema);
+        }
+        if (field.getKind() != kind) {
+            throw new HazelcastSerializationException("Invalid field kind: '" + fieldName + "' for " + schema
+                    + ", expected: " + field.getKind() + ", actual: " + kind);
+        }
+        return field;
+    }
+
+    private int fixedSizePosition(String fieldName, FieldKind kind) {
+        return fixedSizePosition(checkField(fieldName, kind));
+    }
+
+    /**
+     * @return the position of a fixed size field in the input
+     */
+    int fixedSizePosition(FieldDescriptor field) {
+        return dataStartPosition + field.getOffset();
+    }
+
+    /**
+     * Moves the input to the value of a variable size field.
+     *
+     * @return {@code true} if the field has a value, {@code false} if it is {@code null}
+     */
+    private boolean seekVariableSizeField(String fieldName, FieldKind kind) throws IOException {
+        return seekVariableSizeField(checkField(fieldName, kind));
+    }
+
+    private boolean seekVariableSizeField(FieldDescriptor field) throws IOException {
+        int offset = in.readInt(offsetsPosition + field.getIndex() * INT_SIZE_IN_BYTES);
+        if (offset == DefaultCompactWriter.NULL_OFFSET) {
+            return false;
+        }
+        in.position(dataStartPosition + offset);
+        return true;
+    }
+
+    @Override
+    public boolean readBoolean(String fieldName) throws IOException {
+        return readBoolean(checkField(fieldName, FieldKind.BOOLEAN));
+    }
+
+    boolean readBoolean(FieldDescriptor field) throws IOException {
+        byte value = in.readByte(dataStartPosition + field.getOffset());
+        return (value & (1 << field.getBitOffset())) != 0;
+    }
+
+    @Override
+    public byte readByte(String fieldName) throws IOException {
+        return in.readByte(fixedSizePosition(fieldName, FieldKind.BYTE));
+    }
+
+    @Override
+    public char readChar(String fieldName) throws IOException {
+        return in.readChar(fixedSizePosition(fieldName, FieldKind.CHAR));
+    }
+
+    @Override
+    public short readShort(String fieldName) throws IOException {
+        return in.readShort(fixedSizePosition(fieldName, FieldKind.SHORT));
+    }
+
+    @Override
+    public int readInt(String fieldName) throws IOException {
+        return in.readInt(fixedSizePosition(fieldName, FieldKind.INT));
+    }
+
+    @Override
+    public long readLong(String fieldName) throws IOException {
+        return in.readLong(fixedSizePosition(fieldName, FieldKind.LONG));
+    }
+
+    @Override
+    public float readFloat(String fieldName) throws IOException {
+        return in.readFloat(fixedSizePosition(fieldName, FieldKind.FLOAT));
+    }
+
+    @Override
+    public double readDouble(String fieldName) throws IOException {
+        return in.readDouble(fixedSizePosition(fieldName, FieldKind.DOUBLE));
+    }
+
+    @Override
+    public String readUTF(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.UTF) ? in.readUTF() : null;
+    }
+
+    @Override
+    public <T> T readCompact(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.COMPACT) ? (T) serializer.readObject(in) : null;
+    }
+
+    @Override
+    public boolean[] readBooleanArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.BOOLEAN_ARRAY) ? in.readBooleanArray() : null;
+    }
+
+    @Override
+    public byte[] readByteArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.BYTE_ARRAY) ? in.readByteArray() : null;
+    }
+
+    @Override
+    public char[] readCharArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.CHAR_ARRAY) ? in.readCharArray() : null;
+    }
+
+    @Override
+    public short[] readShortArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.SHORT_ARRAY) ? in.readShortArray() : null;
+    }
+
+    @Override
+    public int[] readIntArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.INT_ARRAY) ? in.readIntArray() : null;
+    }
+
+    @Override
+    public long[] readLongArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.LONG_ARRAY) ? in.readLongArray() : null;
+    }
+
+    @Override
+    public float[] readFloatArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.FLOAT_ARRAY) ? in.readFloatArray() : null;
+    }
+
+    @Override
+    public double[] readDoubleArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.DOUBLE_ARRAY) ? in.readDoubleArray() : null;
+    }
+
+    @Override
+    public String[] readUTFArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.UTF_ARRAY) ? in.readUTFArray() : null;
+    }
+
+    @Override
+    public <T> T[] readCompactArray(String fieldName, Class<T> componentType) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.COMPACT_ARRAY) ? readCompactValues(componentType) : null;
+    }
+
+    private <T> T[] readCompactValues(Class<T> componentType) throws IOException {
+        int length = in.readInt();
+        T[] values = (T[]) Array.newInstance(componentType, length);
+        for (int i = 0; i < length; i++) {
+            if (in.readBoolean()) {
+                values[i] = (T) serializer.readObject(in);
+            }
+        }
+        return values;
+    }
+}
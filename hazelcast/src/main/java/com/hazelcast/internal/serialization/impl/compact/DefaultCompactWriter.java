@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Writes the fields of an object in the compact format, in the layout of
+ * its {@link Schema}:
+ * <pre>
+ * int   data length
+ * byte  fixed size fields[schema.fixedSizeFieldsLength]
+ * byte  variable size fields[]
+ * int   offsets of the variable size fields[schema.numberOfVariableSizeFields]
+ * </pre>
+ * The offsets are relative to the start of the fixed size fields; the
+ * offset of a {@code null} variable size field is -1.
+ * <p>
+ * Besides the {@link CompactWriter} methods, which look the fields up by
+ * name, the writer has package-private methods taking the
+ * {@link FieldDescriptor} of a field, for the serializers which resolve
+ * the fields of a schema once.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class DefaultCompactWriter implements CompactWriter {
+
+    static final int NULL_OFFSET = -1;
+
+    private final CompactStreamSerializer serializer;
+    private final BufferObjectDataOutput out;
+    private final Schema schema;
+    private final int dataStartPosition;
+    private final int[] variableSizeFieldOffsets;
+    private byte[] booleanBytes;
+
+    DefaultCompactWriter(CompactStreamSerializer serializer, BufferObjectDataOutput out, Schema schema) {
+        this.serializer = serializer;
+        this.out = out;
+        this.schema = schema;
+        // room for the data length
+        out.writeZeroBytes(INT_SIZE_IN_BYTES);
+        this.dataStartPosition = out.position();
+        out.writeZeroBytes(schema.getFixedSizeFieldsLength());
+        this.variableSizeFieldOffsets = new int[schema.getNumberOfVariableSizeFields()];
+        Arrays.fill(variableSizeFieldOffsets, NULL_OFFSET);
+    }
+
+    /**
+     * Writes the data length and the offset table. Must be called after all fields are written.
+     */
+    void end() throws IOException {
+        int dataLength = out.position() - dataStartPosition;
+        out.writeInt(dataStartPosition - INT_SIZE_IN_BYTES, dataLength);
+        for (int offset : variableSizeFieldOffsets) {
+            out.writeInt(offset);
+        }
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    BufferObjectDataOutput getOutput() {
+        return out;
+    }
+
+    private FieldDescriptor checkField(String fieldName, FieldKind kind) {
+        FieldDescriptor field = schema.getField(fieldName);
+        if (field == null) {
+            throw new HazelcastSerializationException("Invalid field name: '" + fieldName + "' for " + schema);
+        }
+        if (field.getKind() != kind) {
+            throw new HazelcastSerializationException("Invalid field kind: '" + fieldName + "' for " + schema
+                    + ", expected: " + field.getKind() + ", actual: " + kind);
+        }
+        return field;
+    }
+
+    private int fixedSizePosition(String fieldName, FieldKind kind) {
+        return fixedSizePosition(checkField(fieldName, kind));
+    }
+
+    /**
+     * @return the position of a fixed size field in the output
+     */
+    int fixedSizePosition(FieldDescriptor field) {
+        return dataStartPosition + field.getOffset();
+    }
+
+    /**
+     * Records the offset of a variable size field at the current position.
+     *
+     * @return {@code true} if the value should be written, {@code false} if it is {@code null}
+     */
+    private boolean setVariableSizePosition(String fieldName, FieldKind kind, Object value) {
+        return setVariableSizePosition(checkField(fieldName, kind), value);
+    }
+
+    private boolean setVariableSizePosition(FieldDescriptor field, Object value) {
+        if (value == null) {
+            return false;
+        }
+        variableSizeFieldOffsets[field.getIndex()] = out.position() - dataStartPosition;
+        return true;
+    }
+
+    @Override
+    public void writeBoolean(String fieldName, boolean value) throws IOException {
+        writeBoolean(checkField(fieldName, FieldKind.BOOLEAN), value);
+    }
+
+    void writeBoolean(FieldDescriptor field, boolean value) throws IOException {
+        if (!value) {
+            // the fixed size section is zeroed
+            return;
+        }
+        if (booleanBytes == null) {
+            booleanBytes = new byte[schema.getFixedSizeFieldsLength()];
+        }
+        int offset = field.getOffset();
+        booleanBytes[offset] |= 1 << field.getBitOffset();
+        out.writeByte(dataStartPosition + offset, booleanBytes[offset]);
+    }
+
+    /**
+     * Writes the value of a variable size field, which must be of the type
+     * read for the kind of the field by the {@link DefaultCompactReader}.
+     */
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    void writeVariableSizeField(FieldDescriptor field, Object value) throws IOException {
+        if (!setVariableSizePosition(field, value)) {
+            return;
+        }
+        switch (field.getKind()) {
+            case UTF:
+                out.writeUTF((String) value);
+                break;
+            case COMPACT:
+                serializer.writeObject(out, value);
+                break;
+            case BOOLEAN_ARRAY:
+                out.writeBooleanArray((boolean[]) value);
+                break;
+            case BYTE_ARRAY:
+                out.writeByteArray((byte[]) value);
+                break;
+            case CHAR_ARRAY:
+                out.writeCharArray((char[]) value);
+                break;
+            case SHORT_ARRAY:
+                out.writeShortArray((short[]) value);
+                break;
+            case INT_ARRAY:
+                out.writeIntArray((int[]) value);
+                break;
+            case LONG_ARRAY:
+                out.writeLongArray((long[]) value);
+                break;
+            case FLOAT_ARRAY:
+                out.writeFloatArray((float[]) value);
+                break;
+            case DOUBLE_ARRAY:
+                out.writeDoubleArray((double[]) value);
+                break;
+            case UTF_ARRAY:
+                out.writeUTFArray((String[]) value);
+                break;
+            case COMPACT_ARRAY:
+                writeCompactValues((Object[]) value);
+                break;
+            default:
+                throw new IllegalArgumentException("Not a variable size field: " + field);
+        }
+    }
+
+    @Override
+    public void writeByte(String fieldName, byte value) throws IOException {
+        out.writeByte(fixedSizePosition(fieldName, FieldKind.BYTE), value);
+    }
+
+    @Override
+    public void writeChar(String fieldName, char value) throws IOException {
+        out.writeChar(fixedSizePosition(fieldName, FieldKind.CHAR), value);
+    }
+
+    @Override
+    public void writeShort(String fieldName, short value) throws IOException {
+        out.writeShort(fixedSizePosition(fieldName, FieldKind.SHORT), value);
+    }
+
+    @Override
+    public void writeInt(String fieldName, int value) throws IOException {
+        out.writeInt(fixedSizePosition(fieldName, FieldKind.INT), value);
+    }
+
+    @Override
+    public void writeLong(String fieldName, long value) throws IOException {
+        out.writeLong(fixedSizePosition(fieldName, FieldKind.LONG), value);
+    }
+
+    @Override
+    public void writeFloat(String fieldName, float value) throws IOException {
+        out.writeFloat(fixedSizePosition(fieldName, FieldKind.FLOAT), value);
+    }
+
+    @Override
+    public void writeDouble(String fieldName, double value) throws IOException {
+        out.writeDouble(fixedSizePosition(fieldName, FieldKind.DOUBLE), value);
+    }
+
+    @Override
+    public void writeUTF(String fieldName, String value) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.UTF, value)) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Override
+    public void writeCompact(String fieldName, Object value) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.COMPACT, value)) {
+            serializer.writeObject(out, value);
+        }
+    }
+
+    @Override
+    public void writeBooleanArray(String fieldName, boolean[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.BOOLEAN_ARRAY, values)) {
+            out.writeBooleanArray(values);
+        }
+    }
+
+    @Override
+    public void writeByteArray(String fieldName, byte[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.BYTE_ARRAY, values)) {
+            out.writeByteArray(values);
+        }
+    }
+
+    @Override
+    public void writeCharArray(String fieldName, char[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.CHAR_ARRAY, values)) {
+            out.writeCharArray(values);
+        }
+    }
+
+    @Override
+    public void writeShortArray(String fieldName, short[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.SHORT_ARRAY, values)) {
+            out.writeShortArray(values);
+        }
+    }
+
+    @Override
+    public void writeIntArray(String fieldName, int[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.INT_ARRAY, values)) {
+            out.writeIntArray(values);
+        }
+    }
+
+    @Override
+    public void writeLongArray(String fieldName, long[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.LONG_ARRAY, values)) {
+            out.writeLongArray(values);
+        }
+    }
+
+    @Override
+    public void writeFloatArray(String fieldName, float[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.FLOAT_ARRAY, values)) {
+            out.writeFloatArray(values);
+        }
+    }
+
+    @Override
+    public void writeDoubleArray(String fieldName, double[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.DOUBLE_ARRAY, values)) {
+            out.writeDoubleArray(values);
+        }
+    }
+
+    @Override
+    public void writeUTFArray(String fieldName, String[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.UTF_ARRAY, values)) {
+            out.writeUTFArray(values);
+        }
+    }
+
+    @Override
+    public void writeCompactArray(String fieldName, Object[] values) throws IOException {
+        if (setVariableSizePosition(fieldName, FieldKind.COMPACT_ARRAY, values)) {
+            writeCompactValues(values);
+        }
+    }
+
+    private void writeCompactValues(Object[] values) throws IOException {
+        out.writeInt(values.length);
+        for (Object value : values) {
+            boolean notNull = value != null;
+            out.writeBoolean(notNull);
+            if (notNull) {
+                serializer.writeObject(out, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+/**
+ * Describes a field of a compact {@link Schema} and where it is stored in
+ * the serialized form.
+ */
+public final class FieldDescriptor {
+
+    private final String fieldName;
+    private final FieldKind kind;
+    private int offset = -1;
+    private int bitOffset = -1;
+    private int index = -1;
+
+    FieldDescriptor(String fieldName, FieldKind kind) {
+        this.fieldName = fieldName;
+        this.kind = kind;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public FieldKind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the offset of a fixed size field from the start of the data, or -1 for a variable size field
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * @return the bit of a boolean field in the byte at its offset, or -1 for the other kinds
+     */
+    public int getBitOffset() {
+        return bitOffset;
+    }
+
+    void setBitOffset(int bitOffset) {
+        this.bitOffset = bitOffset;
+    }
+
+    /**
+     * @return the index of a variable size field in the offset table, or -1 for a fixed size field
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FieldDescriptor that = (FieldDescriptor) o;
+        return fieldName.equals(that.fieldName) && kind == that.kind;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * fieldName.hashCode() + kind.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FieldDescriptor{"
+                + "fieldName='" + fieldName + '\''
+                + ", kind=" + kind
+                + ", offset=" + offset
+                + ", bitOffset=" + bitOffset
+                + ", index=" + index
+                + '}';
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import static com.hazelcast.internal.nio.Bits.BOOLEAN_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.CHAR_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.DOUBLE_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.FLOAT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+
+/**
+ * The kinds of the fields of a compact {@link Schema}.
+ * <p>
+ * The fixed size kinds are stored at fixed offsets at the start of the
+ * serialized object; booleans are packed into bits. The variable size
+ * kinds are stored after them and located through the offset table.
+ */
+public enum FieldKind {
+
+    // SINGLE-VALUE KINDS
+    COMPACT(0, FieldKind.VARIABLE_SIZE),
+    BYTE(1, BYTE_SIZE_IN_BYTES),
+    BOOLEAN(2, BOOLEAN_SIZE_IN_BYTES),
+    CHAR(3, CHAR_SIZE_IN_BYTES),
+    SHORT(4, SHORT_SIZE_IN_BYTES),
+    INT(5, INT_SIZE_IN_BYTES),
+    LONG(6, LONG_SIZE_IN_BYTES),
+    FLOAT(7, FLOAT_SIZE_IN_BYTES),
+    DOUBLE(8, DOUBLE_SIZE_IN_BYTES),
+    UTF(9, FieldKind.VARIABLE_SIZE),
+
+    // ARRAY KINDS
+    COMPACT_ARRAY(10, FieldKind.VARIABLE_SIZE),
+    BYTE_ARRAY(11, FieldKind.VARIABLE_SIZE),
+    BOOLEAN_ARRAY(12, FieldKind.VARIABLE_SIZE),
+    CHAR_ARRAY(13, FieldKind.VARIABLE_SIZE),
+    SHORT_ARRAY(14, FieldKind.VARIABLE_SIZE),
+    INT_ARRAY(15, FieldKind.VARIABLE_SIZE),
+    LONG_ARRAY(16, FieldKind.VARIABLE_SIZE),
+    FLOAT_ARRAY(17, FieldKind.VARIABLE_SIZE),
+    DOUBLE_ARRAY(18, FieldKind.VARIABLE_SIZE),
+    UTF_ARRAY(19, FieldKind.VARIABLE_SIZE);
+
+    private static final int VARIABLE_SIZE = -1;
+    private static final FieldKind[] ALL = FieldKind.values();
+
+    private final byte id;
+    private final int size;
+
+    FieldKind(int id, int size) {
+        this.id = (byte) id;
+        this.size = size;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * @return the size of the field in bytes, or a negative value for the variable size kinds
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isFixedSize() {
+        return size != VARIABLE_SIZE;
+    }
+
+    public static FieldKind get(byte id) {
+        return ALL[id];
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link SchemaService} which keeps the schemas in memory, without
+ * replicating them anywhere.
+ */
+public class LocalSchemaService implements SchemaService {
+
+    private final ConcurrentMap<Long, Schema> schemas = new ConcurrentHashMap<>();
+
+    @Override
+    public Schema get(long schemaId) {
+        return getLocal(schemaId);
+    }
+
+    /**
+     * Returns the schema with the given id from the local store.
+     *
+     * @return the schema, or {@code null} if it is not in the local store
+     */
+    public Schema getLocal(long schemaId) {
+        return schemas.get(schemaId);
+    }
+
+    @Override
+    public void put(Schema schema) {
+        putLocal(schema);
+    }
+
+    /**
+     * Puts the schema into the local store.
+     *
+     * @return {@code true} if the schema was not known before
+     */
+    public boolean putLocal(Schema schema) {
+        Schema existing = schemas.putIfAbsent(schema.getSchemaId(), schema);
+        if (existing == null) {
+            return true;
+        }
+        if (!existing.equals(schema)) {
+            throw new HazelcastSerializationException("Schema id collision between " + existing + " and " + schema);
+        }
+        return false;
+    }
+
+    public Collection<Schema> getAllSchemas() {
+        return schemas.values();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.internal.services.ManagedService;
+import com.hazelcast.internal.services.PreJoinAwareService;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.cluster.memberselector.MemberSelectors.NON_LOCAL_MEMBER_SELECTOR;
+import static com.hazelcast.internal.util.InvocationUtil.invokeOnStableClusterSerial;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The {@link SchemaService} of a member, which replicates the schemas to the
+ * whole cluster.
+ * <p>
+ * A schema is replicated to all members once, when the first object of its
+ * type is serialized on any member, and to the joining members with the
+ * pre-join operation. The serializing thread waits for the replication, so
+ * the data written with a new schema never reaches a member before the
+ * schema. Operation threads must not wait for the other members: on them the
+ * replication is asynchronous, and a member which receives data before its
+ * schema fetches the schema from all members in parallel. An operation thread
+ * which reads such data doesn't wait for the fetch either; it fails with a
+ * {@link SchemaNotReplicatedException} and the operation is retried.
+ */
+public class MemberSchemaService extends LocalSchemaService implements ManagedService, PreJoinAwareService {
+
+    public static final String SERVICE_NAME = "hz:impl:schemaService";
+
+    private static final int MAX_REPLICATION_ATTEMPTS = 100;
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private final ConcurrentMap<Long, CompletableFuture<Schema>> fetches = new ConcurrentHashMap<>();
+
+    private volatile NodeEngine nodeEngine;
+    private volatile ILogger logger;
+
+    @Override
+    public void init(NodeEngine nodeEngine, Properties properties) {
+        this.logger = nodeEngine.getLogger(MemberSchemaService.class);
+        this.nodeEngine = nodeEngine;
+    }
+
+    @Override
+    public void reset() {
+        // the schemas are kept, since the data written with them can still be around
+    }
+
+    @Override
+    public void shutdown(boolean terminate) {
+        // no-op
+    }
+
+    @Override
+    public Schema get(long schemaId) {
+        Schema schema = getLocal(schemaId);
+        if (schema != null || nodeEngine == null) {
+            return schema;
+        }
+        CompletableFuture<Schema> fetch = fetch(schemaId);
+        if (isRunningOnOperationThread()) {
+            throw new SchemaNotReplicatedException(schemaId);
+        }
+        return await(fetch, "fetch the schema " + schemaId);
+    }
+
+    @Override
+    public void put(Schema schema) {
+        if (putLocal(schema)) {
+            replicate(schema);
+        }
+    }
+
+    private void replicate(Schema schema) {
+        NodeEngine nodeEngine = this.nodeEngine;
+        if (nodeEngine == null) {
+            // not started yet, the schema will be sent with the pre-join operation
+            return;
+        }
+        CompletableFuture<Object> replication
+                = invokeOnStableClusterSerial(nodeEngine, () -> new SendSchemaOperation(schema), MAX_REPLICATION_ATTEMPTS);
+        if (isRunningOnOperationThread()) {
+            replication.whenCompleteAsync((response, t) -> {
+                if (t != null) {
+                    logger.warning("Could not replicate " + schema, t);
+                }
+            });
+        } else {
+            await(replication, "replicate " + schema);
+        }
+    }
+
+    /**
+     * Fetches the schema from all other members in parallel. The returned
+     * future is completed with the first schema received, or with {@code null}
+     * if no member knows the schema. Concurrent fetches of a schema share the
+     * future.
+     */
+    private CompletableFuture<Schema> fetch(long schemaId) {
+        CompletableFuture<Schema> fetch = fetches.get(schemaId);
+        if (fetch != null) {
+            return fetch;
+        }
+        CompletableFuture<Schema> newFetch = new CompletableFuture<>();
+        fetch = fetches.putIfAbsent(schemaId, newFetch);
+        if (fetch != null) {
+            return fetch;
+        }
+        newFetch.whenComplete((schema, t) -> fetches.remove(schemaId, newFetch));
+
+        Collection<Member> members = nodeEngine.getClusterService().getMembers(NON_LOCAL_MEMBER_SELECTOR);
+        if (members.isEmpty()) {
+            newFetch.complete(null);
+            return newFetch;
+        }
+        OperationService operationService = nodeEngine.getOperationService();
+        AtomicInteger pending = new AtomicInteger(members.size());
+        for (Member member : members) {
+            Operation operation = new FetchSchemaOperation(schemaId);
+            operationService.<Schema>invokeOnTarget(SERVICE_NAME, operation, member.getAddress())
+                    .whenCompleteAsync((schema, t) -> {
+                        if (t != null) {
+                            logger.fine("Could not fetch the schema " + schemaId + " from " + member, t);
+                        }
+                        if (schema != null) {
+                            putLocal(schema);
+                            newFetch.complete(schema);
+                        } else if (pending.decrementAndGet() == 0) {
+                            newFetch.complete(null);
+                        }
+                    });
+        }
+        return newFetch;
+    }
+
+    private <T> T await(CompletableFuture<T> future, String action) {
+        try {
+            return future.get(TIMEOUT_SECONDS, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Interrupted while waiting to " + action);
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warning("Could not " + action, e);
+        }
+        return null;
+    }
+
+    private static boolean isRunningOnOperationThread() {
+        return Thread.currentThread() instanceof OperationThread;
+    }
+
+    @Override
+    public Operation getPreJoinOperation() {
+        Collection<Schema> schemas = new ArrayList<>(getAllSchemas());
+        if (schemas.isEmpty()) {
+            return null;
+        }
+        return new SendAllSchemasOperation(schemas);
+    }
+}
@@ -0,0 +1,497 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.RequiresJdk8;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.CompactSerializer;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.ExceptionUtil.sneakyThrow;
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isPublic;
+
+/**
+ * A {@link CompactSerializer} which reads and writes the non-static,
+ * non-transient fields of a class, including the inherited ones, through
+ * reflection.
+ * <p>
+ * The supported field types are the primitives, {@link String}, the arrays
+ * of them, and the classes registered for compact serialization and arrays
+ * of them. The objects are created with the no-arg constructor of the class.
+ * A field which is not in the schema of the data read, because the data was
+ * written by an older version of the class, keeps its initial value.
+ * <p>
+ * The fields are accessed at their offsets in the objects, or through
+ * method handles when the offsets are not available, and the objects are
+ * created through a lambda spun from the constructor; all of them are
+ * created once per class. The {@link FieldDescriptor}s of the fields are
+ * resolved once per schema, so reading and writing an object does not look
+ * any field up by name. The serializer only reads from a {@link DefaultCompactReader} and
+ * only writes to a {@link DefaultCompactWriter} or a {@link SchemaWriter}.
+ */
+final class ReflectiveCompactSerializer implements CompactSerializer<Object> {
+
+    private final Supplier<Object> constructor;
+    private final FieldAccessor[] accessors;
+    private final ConcurrentMap<Schema, FieldDescriptor[]> schemaToFields = new ConcurrentHashMap<>();
+    // the objects of a class are mostly written and read with the same schema, which saves the map lookup
+    private volatile SchemaFields lastSchemaFields;
+
+    ReflectiveCompactSerializer(Class<?> clazz) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Constructor<?> noArgConstructor = clazz.getDeclaredConstructor();
+            noArgConstructor.setAccessible(true);
+            constructor = constructorOf(lookup, noArgConstructor);
+        } catch (NoSuchMethodException e) {
+            throw new HazelcastSerializationException(clazz.getName()
+                    + " must have a no-arg constructor to be serialized through reflection", e);
+        } catch (Throwable t) {
+            throw new HazelcastSerializationException(t);
+        }
+        List<Field> fields = serializableFields(clazz);
+        accessors = new FieldAccessor[fields.size()];
+        for (int i = 0; i < accessors.length; i++) {
+            Field field = fields.get(i);
+            field.setAccessible(true);
+            accessors[i] = FieldAccessor.create(lookup, field, kindOf(field.getType()));
+        }
+    }
+
+    /**
+     * Returns a supplier of new objects created with the no-arg constructor.
+     * A constructor held in an instance field is not a constant for the JIT
+     * compiler, so the supplier of a public constructor is spun by the
+     * {@link LambdaMetafactory}, which invokes it directly. The generated
+     * class can not access the other constructors, which are invoked through
+     * a method handle.
+     */
+    @RequiresJdk8
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructorOf(MethodHandles.Lookup lookup, Constructor<?> noArgConstructor)
+            throws Throwable {
+        MethodHandle handle = lookup.unreflectConstructor(noArgConstructor);
+        Class<?> clazz = noArgConstructor.getDeclaringClass();
+        if (isPublic(noArgConstructor.getModifiers()) && isAccessible(clazz)) {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", methodType(Supplier.class),
+                    methodType(Object.class), handle, methodType(clazz));
+            return (Supplier<Object>) site.getTarget().invokeExact();
+        }
+        return new MethodHandleConstructor(handle.asType(methodType(Object.class)));
+    }
+
+    private static boolean isAccessible(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+            if (!isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the non-static, non-transient fields of the class and its superclasses
+     */
+    static List<Field> serializableFields(Class<?> clazz) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = clazz; c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:returncount", "checkstyle:npathcomplexity"})
+    static FieldKind kindOf(Class<?> type) {
+        if (type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            if (componentType == boolean.class) {
+                return FieldKind.BOOLEAN_ARRAY;
+            } else if (componentType == byte.class) {
+                return FieldKind.BYTE_ARRAY;
+            } else if (componentType == char.class) {
+                return FieldKind.CHAR_ARRAY;
+            } else if (componentType == short.class) {
+                return FieldKind.SHORT_ARRAY;
+            } else if (componentType == int.class) {
+                return FieldKind.INT_ARRAY;
+            } else if (componentType == long.class) {
+                return FieldKind.LONG_ARRAY;
+            } else if (componentType == float.class) {
+                return FieldKind.FLOAT_ARRAY;
+            } else if (componentType == double.class) {
+                return FieldKind.DOUBLE_ARRAY;
+            } else if (componentType == String.class) {
+                return FieldKind.UTF_ARRAY;
+            }
+            return FieldKind.COMPACT_ARRAY;
+        }
+        if (type == boolean.class) {
+            return FieldKind.BOOLEAN;
+        } else if (type == byte.class) {
+            return FieldKind.BYTE;
+        } else if (type == char.class) {
+            return FieldKind.CHAR;
+        } else if (type == short.class) {
+            return FieldKind.SHORT;
+        } else if (type == int.class) {
+            return FieldKind.INT;
+        } else if (type == long.class) {
+            return FieldKind.LONG;
+        } else if (type == float.class) {
+            return FieldKind.FLOAT;
+        } else if (type == double.class) {
+            return FieldKind.DOUBLE;
+        } else if (type == String.class) {
+            return FieldKind.UTF;
+        }
+        return FieldKind.COMPACT;
+    }
+
+    @Override
+    public Object read(CompactReader in) throws IOException {
+        DefaultCompactReader reader = (DefaultCompactReader) in;
+        FieldDescriptor[] fields = fieldsOf(reader.getSchema());
+        try {
+            Object object = constructor.get();
+            for (int i = 0; i < accessors.length; i++) {
+                if (fields[i] != null) {
+                    accessors[i].read(reader, fields[i], object);
+                }
+            }
+            return object;
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new HazelcastSerializationException(t);
+        }
+    }
+
+    @Override
+    public void write(CompactWriter out, Object object) throws IOException {
+        if (out instanceof SchemaWriter) {
+            for (FieldAccessor accessor : accessors) {
+                ((SchemaWriter) out).addField(accessor.name, accessor.kind);
+            }
+            return;
+        }
+        DefaultCompactWriter writer = (DefaultCompactWriter) out;
+        FieldDescriptor[] fields = fieldsOf(writer.getSchema());
+        try {
+            for (int i = 0; i < accessors.length; i++) {
+                accessors[i].write(writer, fields[i], object);
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new HazelcastSerializationException(t);
+        }
+    }
+
+    /**
+     * Returns the descriptors of the fields of the class in the schema, in
+     * the order of the accessors, with {@code null} for the fields missing
+     * from the schema.
+     */
+    private FieldDescriptor[] fieldsOf(Schema schema) {
+        SchemaFields last = lastSchemaFields;
+        if (last != null && last.schema == schema) {
+            return last.fields;
+        }
+        FieldDescriptor[] fields = schemaToFields.get(schema);
+        if (fields == null) {
+            fields = resolveFields(schema);
+            schemaToFields.putIfAbsent(schema, fields);
+        }
+        lastSchemaFields = new SchemaFields(schema, fields);
+        return fields;
+    }
+
+    private FieldDescriptor[] resolveFields(Schema schema) {
+        FieldDescriptor[] fields = new FieldDescriptor[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
+            FieldAccessor accessor = accessors[i];
+            FieldDescriptor field = schema.getField(accessor.name);
+            if (field != null && field.getKind() != accessor.kind) {
+                throw new HazelcastSerializationException("Invalid field kind: '" + accessor.name + "' for " + schema
+                        + ", expected: " + field.getKind() + ", actual: " + accessor.kind);
+            }
+            fields[i] = field;
+        }
+        return fields;
+    }
+
+    private static final class SchemaFields {
+        private final Schema schema;
+        private final FieldDescriptor[] fields;
+
+        private SchemaFields(Schema schema, FieldDescriptor[] fields) {
+            this.schema = schema;
+            this.fields = fields;
+        }
+    }
+
+    private static final class MethodHandleConstructor implements Supplier<Object> {
+        private final MethodHandle handle;
+
+        private MethodHandleConstructor(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        // the signature of MethodHandle.invokeExact is polymorphic, which the API check does not know
+        @RequiresJdk8
+        @Override
+        public Object get() {
+            try {
+                return (Object) handle.invokeExact();
+            } catch (Throwable t) {
+                throw sneakyThrow(t);
+            }
+        }
+    }
+
+    /**
+     * Reads and writes a field of an object.
+     */
+    private abstract static class FieldAccessor {
+        final String name;
+        final FieldKind kind;
+        final Class<?> componentType;
+
+        FieldAccessor(Field field, FieldKind kind) {
+            this.name = field.getName();
+            this.kind = kind;
+            this.componentType = field.getType().getComponentType();
+        }
+
+        static FieldAccessor create(MethodHandles.Lookup lookup, Field field, FieldKind kind) {
+            if (MEM_AVAILABLE) {
+                try {
+                    return new OffsetFieldAccessor(field, kind, MEM.objectFieldOffset(field));
+                } catch (UnsupportedOperationException e) {
+                    // the offsets of the fields of the records and hidden classes are not available
+                    ignore(e);
+                }
+            }
+            return new MethodHandleFieldAccessor(lookup, field, kind);
+        }
+
+        abstract void write(DefaultCompactWriter writer, FieldDescriptor field, Object object) throws Throwable;
+
+        abstract void read(DefaultCompactReader reader, FieldDescriptor field, Object object) throws Throwable;
+    }
+
+    /**
+     * Reads and writes a field at its offset in the object. Unlike a method
+     * handle held in an instance field, which the JIT compiler can not treat
+     * as a constant, the accesses are intrinsified.
+     */
+    private static final class OffsetFieldAccessor extends FieldAccessor {
+        private final long offset;
+
+        private OffsetFieldAccessor(Field field, FieldKind kind, long offset) {
+            super(field, kind);
+            this.offset = offset;
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+        void write(DefaultCompactWriter writer, FieldDescriptor field, Object object) throws IOException {
+            BufferObjectDataOutput out = writer.getOutput();
+            switch (kind) {
+                case BOOLEAN:
+                    writer.writeBoolean(field, MEM.getBoolean(object, offset));
+                    break;
+                case BYTE:
+                    out.writeByte(writer.fixedSizePosition(field), MEM.getByte(object, offset));
+                    break;
+                case CHAR:
+                    out.writeChar(writer.fixedSizePosition(field), MEM.getChar(object, offset));
+                    break;
+                case SHORT:
+                    out.writeShort(writer.fixedSizePosition(field), MEM.getShort(object, offset));
+                    break;
+                case INT:
+                    out.writeInt(writer.fixedSizePosition(field), MEM.getInt(object, offset));
+                    break;
+                case LONG:
+                    out.writeLong(writer.fixedSizePosition(field), MEM.getLong(object, offset));
+                    break;
+                case FLOAT:
+                    out.writeFloat(writer.fixedSizePosition(field), MEM.getFloat(object, offset));
+                    break;
+                case DOUBLE:
+                    out.writeDouble(writer.fixedSizePosition(field), MEM.getDouble(object, offset));
+                    break;
+                default:
+                    writer.writeVariableSizeField(field, MEM.getObject(object, offset));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+        void read(DefaultCompactReader reader, FieldDescriptor field, Object object) throws IOException {
+            BufferObjectDataInput in = reader.getInput();
+            switch (kind) {
+                case BOOLEAN:
+                    MEM.putBoolean(object, offset, reader.readBoolean(field));
+                    break;
+                case BYTE:
+                    MEM.putByte(object, offset, in.readByte(reader.fixedSizePosition(field)));
+                    break;
+                case CHAR:
+                    MEM.putChar(object, offset, in.readChar(reader.fixedSizePosition(field)));
+                    break;
+                case SHORT:
+                    MEM.putShort(object, offset, in.readShort(reader.fixedSizePosition(field)));
+                    break;
+                case INT:
+                    MEM.putInt(object, offset, in.readInt(reader.fixedSizePosition(field)));
+                    break;
+                case LONG:
+                    MEM.putLong(object, offset, in.readLong(reader.fixedSizePosition(field)));
+                    break;
+                case FLOAT:
+                    MEM.putFloat(object, offset, in.readFloat(reader.fixedSizePosition(field)));
+                    break;
+                case DOUBLE:
+                    MEM.putDouble(object, offset, in.readDouble(reader.fixedSizePosition(field)));
+                    break;
+                default:
+                    MEM.putObject(object, offset, reader.readVariableSizeField(field, componentType));
+            }
+        }
+    }
+
+    /**
+     * Reads and writes a field through method handles adapted to take the
+     * object as an {@link Object} and the value as the primitive type of
+     * the field, or as an {@link Object} for the other kinds, so they are
+     * invoked exactly without boxing. Used when the offsets of the fields
+     * are not available.
+     */
+    private static final class MethodHandleFieldAccessor extends FieldAccessor {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private MethodHandleFieldAccessor(MethodHandles.Lookup lookup, Field field, FieldKind kind) {
+            super(field, kind);
+            Class<?> valueType = field.getType().isPrimitive() ? field.getType() : Object.class;
+            try {
+                this.getter = lookup.unreflectGetter(field).asType(methodType(valueType, Object.class));
+                this.setter = lookup.unreflectSetter(field).asType(methodType(void.class, Object.class, valueType));
+            } catch (IllegalAccessException e) {
+                throw new HazelcastSerializationException(e);
+            }
+        }
+
+        @Override
+        @RequiresJdk8
+        @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+        void write(DefaultCompactWriter writer, FieldDescriptor field, Object object) throws Throwable {
+            BufferObjectDataOutput out = writer.getOutput();
+            switch (kind) {
+                case BOOLEAN:
+                    writer.writeBoolean(field, (boolean) getter.invokeExact(object));
+                    break;
+                case BYTE:
+                    out.writeByte(writer.fixedSizePosition(field), (byte) getter.invokeExact(object));
+                    break;
+                case CHAR:
+                    out.writeChar(writer.fixedSizePosition(field), (char) getter.invokeExact(object));
+                    break;
+                case SHORT:
+                    out.writeShort(writer.fixedSizePosition(field), (short) getter.invokeExact(object));
+                    break;
+                case INT:
+                    out.writeInt(writer.fixedSizePosition(field), (int) getter.invokeExact(object));
+                    break;
+                case LONG:
+                    out.writeLong(writer.fixedSizePosition(field), (long) getter.invokeExact(object));
+                    break;
+                case FLOAT:
+                    out.writeFloat(writer.fixedSizePosition(field), (float) getter.invokeExact(object));
+                    break;
+                case DOUBLE:
+                    out.writeDouble(writer.fixedSizePosition(field), (double) getter.invokeExact(object));
+                    break;
+                default:
+                    writer.writeVariableSizeField(field, (Object) getter.invokeExact(object));
+            }
+        }
+
+        @Override
+        @RequiresJdk8
+        @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+        void read(DefaultCompactReader reader, FieldDescriptor field, Object object) throws Throwable {
+            BufferObjectDataInput in = reader.getInput();
+            switch (kind) {
+                case BOOLEAN:
+                    setter.invokeExact(object, reader.readBoolean(field));
+                    break;
+                case BYTE:
+                    setter.invokeExact(object, in.readByte(reader.fixedSizePosition(field)));
+                    break;
+                case CHAR:
+                    setter.invokeExact(object, in.readChar(reader.fixedSizePosition(field)));
+                    break;
+                case SHORT:
+                    setter.invokeExact(object, in.readShort(reader.fixedSizePosition(field)));
+                    break;
+                case INT:
+                    setter.invokeExact(object, in.readInt(reader.fixedSizePosition(field)));
+                    break;
+                case LONG:
+                    setter.invokeExact(object, in.readLong(reader.fixedSizePosition(field)));
+                    break;
+                case FLOAT:
+                    setter.invokeExact(object, in.readFloat(reader.fixedSizePosition(field)));
+                    break;
+                case DOUBLE:
+                    setter.invokeExact(object, in.readDouble(reader.fixedSizePosition(field)));
+                    break;
+                default:
+                    setter.invokeExact(object, reader.readVariableSizeField(field, componentType));
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_x64_64;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingInt;
+
+/**
+ * The schema of a type serialized in the compact format: the type name and
+ * the names and kinds of its fields.
+ * <p>
+ * The schema is identified by a fingerprint of its contents, which is the
+ * only schema information written with each serialized object. The layout
+ * of the serialized form is derived from the schema:
+ * <ul>
+ * <li>the fixed size fields, ordered by descending size and then by name,
+ * at fixed offsets at the start of the data, followed by the boolean fields
+ * packed into bits</li>
+ * <li>the variable size fields, ordered by name, after the fixed size
+ * fields and located through an offset table at the end of the data</li>
+ * </ul>
+ * So any field can be read in constant time without reading the fields
+ * before it.
+ */
+public class Schema implements IdentifiedDataSerializable {
+
+    private String typeName;
+    private Map<String, FieldDescriptor> fields;
+    // the fields are looked up by name for each field written or read, which is cheaper in a hash map
+    private Map<String, FieldDescriptor> fieldsByName;
+    private int fixedSizeFieldsLength;
+    private int numberOfVariableSizeFields;
+    private long schemaId;
+
+    public Schema() {
+    }
+
+    public Schema(String typeName, Map<String, FieldKind> fieldKinds) {
+        this.typeName = typeName;
+        this.fields = new TreeMap<>();
+        for (Map.Entry<String, FieldKind> entry : fieldKinds.entrySet()) {
+            fields.put(entry.getKey(), new FieldDescriptor(entry.getKey(), entry.getValue()));
+        }
+        init();
+    }
+
+    private void init() {
+        List<FieldDescriptor> fixedSizeFields = new ArrayList<>();
+        List<FieldDescriptor> booleanFields = new ArrayList<>();
+        List<FieldDescriptor> variableSizeFields = new ArrayList<>();
+        for (FieldDescriptor field : fields.values()) {
+            FieldKind kind = field.getKind();
+            if (kind == FieldKind.BOOLEAN) {
+                booleanFields.add(field);
+            } else if (kind.isFixedSize()) {
+                fixedSizeFields.add(field);
+            } else {
+                variableSizeFields.add(field);
+            }
+        }
+
+        // the sort is stable, so the fields of the same size stay ordered by name
+        fixedSizeFields.sort(comparingInt(field -> -field.getKind().getSize()));
+        int offset = 0;
+        for (FieldDescriptor field : fixedSizeFields) {
+            field.setOffset(offset);
+            offset += field.getKind().getSize();
+        }
+        for (int i = 0; i < booleanFields.size(); i++) {
+            FieldDescriptor field = booleanFields.get(i);
+            field.setOffset(offset + i / Byte.SIZE);
+            field.setBitOffset(i % Byte.SIZE);
+        }
+        offset += (booleanFields.size() + Byte.SIZE - 1) / Byte.SIZE;
+        fixedSizeFieldsLength = offset;
+
+        for (int i = 0; i < variableSizeFields.size(); i++) {
+            variableSizeFields.get(i).setIndex(i);
+        }
+        numberOfVariableSizeFields = variableSizeFields.size();
+        fieldsByName = new HashMap<>(fields);
+        schemaId = fingerprint();
+    }
+
+    private long fingerprint() {
+        StringBuilder sb = new StringBuilder(typeName);
+        for (FieldDescriptor field : fields.values()) {
+            sb.append('\0').append(field.getFieldName()).append('\0').append(field.getKind().getId());
+        }
+        byte[] bytes = sb.toString().getBytes(UTF_8);
+        return MurmurHash3_x64_64(bytes, 0, bytes.length);
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public long getSchemaId() {
+        return schemaId;
+    }
+
+    /**
+     * @return the field with the given name, or {@code null} if there is no such field
+     */
+    public FieldDescriptor getField(String fieldName) {
+        return fieldsByName.get(fieldName);
+    }
+
+    public Collection<FieldDescriptor> getFields() {
+        return Collections.unmodifiableCollection(fields.values());
+    }
+
+    public int getFieldCount() {
+        return fields.size();
+    }
+
+    /**
+     * @return the number of bytes taken by the fixed size fields, including the bytes of the packed booleans
+     */
+    public int getFixedSizeFieldsLength() {
+        return fixedSizeFieldsLength;
+    }
+
+    public int getNumberOfVariableSizeFields() {
+        return numberOfVariableSizeFields;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return CompactDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return CompactDataSerializerHook.SCHEMA;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(typeName);
+        out.writeInt(fields.size());
+        for (FieldDescriptor field : fields.values()) {
+            out.writeUTF(field.getFieldName());
+            out.writeByte(field.getKind().getId());
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        typeName = in.readUTF();
+        int fieldCount = in.readInt();
+        fields = new TreeMap<>();
+        for (int i = 0; i < fieldCount; i++) {
+            String fieldName = in.readUTF();
+            fields.put(fieldName, new FieldDescriptor(fieldName, FieldKind.get(in.readByte())));
+        }
+        init();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Schema that = (Schema) o;
+        return schemaId == that.schemaId
+                && typeName.equals(that.typeName)
+                && fields.equals(that.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(schemaId);
+    }
+
+    @Override
+    public String toString() {
+        return "Schema{"
+                + "typeName='" + typeName + '\''
+                + ", schemaId=" + schemaId
+                + ", fields=" + fields.values()
+                + '}';
+    }
+}
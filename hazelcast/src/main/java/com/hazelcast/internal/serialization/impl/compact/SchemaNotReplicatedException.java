@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.spi.exception.RetryableException;
+
+/**
+ * Thrown when data is read on an operation thread before its schema has
+ * reached the member. The schema is fetched in the background and the
+ * operation is retried, instead of blocking the operation thread.
+ */
+public class SchemaNotReplicatedException extends HazelcastSerializationException implements RetryableException {
+
+    public SchemaNotReplicatedException(long schemaId) {
+        super("The schema with the id " + schemaId + " is not replicated to this member yet");
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+/**
+ * Stores the schemas of the compact serialized types by their ids.
+ * <p>
+ * A schema is put before the first object of its type is serialized, and
+ * looked up when an object is deserialized or its fields are queried.
+ */
+public interface SchemaService {
+
+    /**
+     * Returns the schema with the given id.
+     *
+     * @param schemaId the id of the schema
+     * @return the schema, or {@code null} if it is not known
+     */
+    Schema get(long schemaId);
+
+    /**
+     * Puts the schema, making it available to the readers of the data
+     * written with it. Putting a known schema has no effect.
+     *
+     * @param schema the schema to put
+     * @throws com.hazelcast.nio.serialization.HazelcastSerializationException if another schema with the same id is known
+     */
+    void put(Schema schema);
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link CompactWriter} which records the fields written to build the
+ * {@link Schema} of a type, without writing any data.
+ */
+final class SchemaWriter implements CompactWriter {
+
+    private final String typeName;
+    private final Map<String, FieldKind> fieldKinds = new HashMap<>();
+
+    SchemaWriter(String typeName) {
+        this.typeName = typeName;
+    }
+
+    Schema build() {
+        return new Schema(typeName, fieldKinds);
+    }
+
+    void addField(String fieldName, FieldKind kind) {
+        if (fieldKinds.putIfAbsent(fieldName, kind) != null) {
+            throw new HazelcastSerializationException("Field with the name '" + fieldName + "' already exists in "
+                    + typeName);
+        }
+    }
+
+    @Override
+    public void writeBoolean(String fieldName, boolean value) {
+        addField(fieldName, FieldKind.BOOLEAN);
+    }
+
+    @Override
+    public void writeByte(String fieldName, byte value) {
+        addField(fieldName, FieldKind.BYTE);
+    }
+
+    @Override
+    public void writeChar(String fieldName, char value) {
+        addField(fieldName, FieldKind.CHAR);
+    }
+
+    @Override
+    public void writeShort(String fieldName, short value) {
+        addField(fieldName, FieldKind.SHORT);
+    }
+
+    @Override
+    public void writeInt(String fieldName, int value) {
+        addField(fieldName, FieldKind.INT);
+    }
+
+    @Override
+    public void writeLong(String fieldName, long value) {
+        addField(fieldName, FieldKind.LONG);
+    }
+
+    @Override
+    public void writeFloat(String fieldName, float value) {
+        addField(fieldName, FieldKind.FLOAT);
+    }
+
+    @Override
+    public void writeDouble(String fieldName, double value) {
+        addField(fieldName, FieldKind.DOUBLE);
+    }
+
+    @Override
+    public void writeUTF(String fieldName, String value) {
+        addField(fieldName, FieldKind.UTF);
+    }
+
+    @Override
+    public void writeCompact(String fieldName, Object value) {
+        addField(fieldName, FieldKind.COMPACT);
+    }
+
+    @Override
+    public void writeBooleanArray(String fieldName, boolean[] values) {
+        addField(fieldName, FieldKind.BOOLEAN_ARRAY);
+    }
+
+    @Override
+    public void writeByteArray(String fieldName, byte[] values) {
+        addField(fieldName, FieldKind.BYTE_ARRAY);
+    }
+
+    @Override
+    public void writeCharArray(String fieldName, char[] values) {
+        addField(fieldName, FieldKind.CHAR_ARRAY);
+    }
+
+    @Override
+    public void writeShortArray(String fieldName, short[] values) {
+        addField(fieldName, FieldKind.SHORT_ARRAY);
+    }
+
+    @Override
+    public void writeIntArray(String fieldName, int[] values) {
+        addField(fieldName, FieldKind.INT_ARRAY);
+    }
+
+    @Override
+    public void writeLongArray(String fieldName, long[] values) {
+        addField(fieldName, FieldKind.LONG_ARRAY);
+    }
+
+    @Override
+    public void writeFloatArray(String fieldName, float[] values) {
+        addField(fieldName, FieldKind.FLOAT_ARRAY);
+    }
+
+    @Override
+    public void writeDoubleArray(String fieldName, double[] values) {
+        addField(fieldName, FieldKind.DOUBLE_ARRAY);
+    }
+
+    @Override
+    public void writeUTFArray(String fieldName, String[] values) {
+        addField(fieldName, FieldKind.UTF_ARRAY);
+    }
+
+    @Override
+    public void writeCompactArray(String fieldName, Object[] values) {
+        addField(fieldName, FieldKind.COMPACT_ARRAY);
+    }
+}
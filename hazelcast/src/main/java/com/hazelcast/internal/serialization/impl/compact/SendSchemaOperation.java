@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+
+/**
+ * Replicates a schema to a member.
+ */
+public class SendSchemaOperation extends Operation implements IdentifiedDataSerializable {
+
+    private Schema schema;
+
+    public SendSchemaOperation() {
+    }
+
+    public SendSchemaOperation(Schema schema) {
+        this.schema = schema;
+    }
+
+    @Override
+    public void run() {
+        MemberSchemaService service = getService();
+        service.putLocal(schema);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MemberSchemaService.SERVICE_NAME;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeObject(schema);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        schema = in.readObject();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return CompactDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return CompactDataSerializerHook.SEND_SCHEMA_OPERATION;
+    }
+}
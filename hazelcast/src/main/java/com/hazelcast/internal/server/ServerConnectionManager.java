@@ -86,6 +86,47 @@ public interface ServerConnectionManager
      */
     ServerConnection getOrConnect(Address address, boolean silent);
 
+    /**
+     * Gets the connection for a given address and stream. If the connection does not exist, it returns null.
+     * <p>
+     * If there are multiple connections (planes) to the address, all packets of the same stream (e.g. a partition) go
+     * through the same connection, so that their ordering is preserved.
+     *
+     * @param address  the remote side of the connection
+     * @param streamId the stream, e.g. partition ID
+     * @return the found Connection, or none if one doesn't exist
+     * @see #get(Address)
+     */
+    default ServerConnection get(Address address, int streamId) {
+        return get(address);
+    }
+
+    /**
+     * Gets the existing connection for a given address and stream or connects. This call is silent.
+     *
+     * @param address  the address to connect to
+     * @param streamId the stream, e.g. partition ID
+     * @return the found connection, or {@code null} if no connection exists
+     * @see #getOrConnect(Address, boolean, int)
+     */
+    default ServerConnection getOrConnect(Address address, int streamId) {
+        return getOrConnect(address, false, streamId);
+    }
+
+    /**
+     * Gets the existing connection for a given address and stream. If it does not exist, the system will try to
+     * connect asynchronously. In this case, it returns {@code null}.
+     *
+     * @param address  the address to connect to
+     * @param silent   if logging should be done on debug level ({@code silent=true}) or on info level ({@code silent=false})
+     * @param streamId the stream, e.g. partition ID
+     * @return the existing connection
+     * @see #get(Address, int)
+     */
+    default ServerConnection getOrConnect(Address address, boolean silent, int streamId) {
+        return getOrConnect(address, silent);
+    }
+
     /**
      * Transmits a packet to a certain connection.
      * <p>
@@ -113,6 +154,20 @@ public interface ServerConnectionManager
      */
     boolean transmit(Packet packet, Address target);
 
+    /**
+     * Transmits a packet to a certain address over the connection of the given stream.
+     *
+     * @param packet   The Packet to transmit.
+     * @param target   The address of the target machine where the Packet should be transmitted.
+     * @param streamId The stream, e.g. partition ID.
+     * @return true if the transmit was a success, false if a failure.
+     * @throws NullPointerException if packet or target is null.
+     * @see #get(Address, int)
+     */
+    default boolean transmit(Packet packet, Address target, int streamId) {
+        return transmit(packet, target);
+    }
+
     /**
      * Returns network stats for inbound and outbound traffic.
      * Stats are available only when Advanced Networking is enabled.
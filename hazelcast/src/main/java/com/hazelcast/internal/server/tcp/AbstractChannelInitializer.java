@@ -28,6 +28,7 @@ import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.server.ServerContext;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.ArrayList;
@@ -112,6 +113,10 @@ public abstract class AbstractChannelInitializer
                     || unifiedEndpointManager));
             boolean mustRegisterRemoteSocketAddress = !handshake.isReply();
 
+            if (!processPlane(connection, handshake, isMemberConnection)) {
+                return false;
+            }
+
             Address remoteEndpoint = null;
             if (isMemberConnection) {
                 // when a member connection is being bound on the connection initiator side
@@ -125,14 +130,85 @@ public abstract class AbstractChannelInitializer
                 remoteEndpoint = new Address(connection.getRemoteSocketAddress());
             }
 
-            return process0(connection, remoteEndpoint, allAliases, handshake.isReply());
+            boolean registered = process0(connection, remoteEndpoint, allAliases, handshake.isReply());
+
+            if (registered && isMemberConnection) {
+                enableCompression(connection, handshake);
+                enableFragmentation(connection, handshake);
+                enableStringDictionary(connection, handshake);
+                connectPlanes(connection, handshake);
+            }
+
+            return registered;
+        }
+
+        private void enableCompression(TcpServerConnection connection, MemberHandshake handshake) {
+            PacketCompressor compressor = PacketCompressor.get(connection);
+            if (compressor != null && handshake.isCompressionEnabled()) {
+                // the remote member can decompress the packets, since it has a compressor as well
+                compressor.enable();
+            }
+        }
+
+        private void enableStringDictionary(TcpServerConnection connection, MemberHandshake handshake) {
+            PacketStringDictionary dictionary = PacketStringDictionary.get(connection);
+            if (dictionary != null && handshake.isStringDictionaryEnabled()) {
+                // the remote member can decode the packets, since it has a string dictionary as well
+                dictionary.enable();
+            }
+        }
+
+        private void enableFragmentation(TcpServerConnection connection, MemberHandshake handshake) {
+            HazelcastProperties properties = serverContext.properties();
+            if (handshake.isFragmentationSupported() && properties.getBoolean(ClusterProperty.IO_FAIR_QUEUING_ENABLED)) {
+                // the remote member can reassemble the packets, so the large packets are fragmented to
+                // let the packets of the other traffic classes interleave with them
+                int fragmentSize = properties.getInteger(ClusterProperty.IO_FRAGMENT_SIZE);
+                connection.getChannel().outboundPipeline().frameFragmenter(new PacketFragmenter(fragmentSize));
+            }
+        }
+
+        private void connectPlanes(TcpServerConnection connection, MemberHandshake handshake) {
+            if (!handshake.isReply() && connectionManager.getPlaneCount() > 1) {
+                // this is the connection initiator side: the first connection to the member is established, so
+                // the remaining planes are connected eagerly rather than on the first packet routed to them
+                connectionManager.connectPlanes(connection.getRemoteAddress());
+            }
+        }
+
+        /**
+         * Assigns the member connection to the plane requested by the remote member. Both members must be configured
+         * with the same number of planes, otherwise the connection is closed.
+         *
+         * @return {@code true} if the plane was assigned, {@code false} if the connection was closed
+         */
+        private boolean processPlane(TcpServerConnection connection, MemberHandshake handshake, boolean isMemberConnection) {
+            if (!isMemberConnection) {
+                return true;
+            }
+            int planeCount = connectionManager.getPlaneCount();
+            if (handshake.getPlaneCount() != planeCount) {
+                connection.close("The connection handshake has an incorrect number of planes. Expected "
+                        + planeCount + ", found " + handshake.getPlaneCount()
+                        + ". Please make sure that all members use the same value of "
+                        + ClusterProperty.CHANNEL_COUNT.getName(), null);
+                return false;
+            }
+            int planeIndex = handshake.getPlaneIndex();
+            if (planeIndex < 0 || planeIndex >= planeCount) {
+                connection.close("The connection handshake has an invalid plane index " + planeIndex
+                        + ", it must be between 0 and " + (planeCount - 1), null);
+                return false;
+            }
+            connection.setPlaneIndex(planeIndex);
+            return true;
         }
 
         /**
          * Performs the processing of the handshake (sets the endpoint on the Connection, registers the connection)
          * without any spoofing or other validation checks.
          * When executed on the connection initiator side, the connection is registered on the remote address
-         * with which it was registered in {@link TcpServerConnectionManager#connectionsInProgress},
+         * with which it was registered in {@link TcpServerConnectionManager.Plane#connectionsInProgress},
          * ignoring the {@code remoteEndpoint} argument.
          *
          * @param connection           the connection that send the handshake
@@ -145,7 +221,8 @@ public abstract class AbstractChannelInitializer
         private synchronized boolean process0(TcpServerConnection connection, Address remoteEndpoint,
                                               Collection<Address> remoteAddressAliases, boolean reply) {
             final Address remoteAddress = new Address(connection.getRemoteSocketAddress());
-            if (connectionManager.connectionsInProgress.contains(remoteAddress)) {
+            final TcpServerConnectionManager.Plane plane = connectionManager.planes[connection.getPlaneIndex()];
+            if (plane.connectionsInProgress.contains(remoteAddress)) {
                 // this is the connection initiator side --> register the connection under the address that was requested
                 remoteEndpoint = remoteAddress;
             }
@@ -163,7 +240,7 @@ public abstract class AbstractChannelInitializer
                 new SendMemberHandshakeTask(logger, serverContext, connection, remoteEndpoint, false).run();
             }
 
-            if (checkAlreadyConnected(connection, remoteEndpoint)) {
+            if (checkAlreadyConnected(connection, plane, remoteEndpoint)) {
                 return false;
             }
 
@@ -177,15 +254,16 @@ public abstract class AbstractChannelInitializer
                     if (logger.isLoggable(Level.FINEST)) {
                         logger.finest("Registering connection " + connection + " to address alias " + remoteAddressAlias);
                     }
-                    connectionManager.connectionsMap.putIfAbsent(remoteAddressAlias, connection);
+                    plane.connectionsMap.putIfAbsent(remoteAddressAlias, connection);
                 }
             }
 
             return returnValue;
         }
 
-        private boolean checkAlreadyConnected(TcpServerConnection connection, Address remoteEndPoint) {
-            final Connection existingConnection = connectionManager.get(remoteEndPoint);
+        private boolean checkAlreadyConnected(TcpServerConnection connection, TcpServerConnectionManager.Plane plane,
+                                              Address remoteEndPoint) {
+            final Connection existingConnection = plane.connectionsMap.get(remoteEndPoint);
             if (existingConnection != null && existingConnection.isAlive()) {
                 if (existingConnection != connection) {
                     if (logger.isFinestEnabled()) {
@@ -18,12 +18,18 @@ package com.hazelcast.internal.server.tcp;
 
 import com.hazelcast.client.impl.protocol.util.ClientMessageDecoder;
 import com.hazelcast.client.impl.protocol.util.ClientMessageEncoder;
+import com.hazelcast.client.impl.protocol.util.ClientMessageGatheringEncoder;
 import com.hazelcast.config.EndpointConfig;
 import com.hazelcast.internal.networking.Channel;
+import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.server.ServerContext;
 import com.hazelcast.internal.server.ServerConnection;
 
+import com.hazelcast.spi.properties.HazelcastProperties;
+
 import static com.hazelcast.instance.ProtocolType.CLIENT;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_GATHERING_WRITE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_GATHERING_WRITE_REFERENCE_THRESHOLD;
 
 public class ClientChannelInitializer
         extends AbstractChannelInitializer {
@@ -38,7 +44,14 @@ public class ClientChannelInitializer
         SingleProtocolDecoder protocolDecoder = new SingleProtocolDecoder(CLIENT,
                 new ClientMessageDecoder(connection, serverContext.getClientEngine(), serverContext.properties()));
 
-        channel.outboundPipeline().addLast(new ClientMessageEncoder());
+        channel.outboundPipeline().addLast(newClientMessageEncoder(serverContext.properties()));
         channel.inboundPipeline().addLast(protocolDecoder);
     }
+
+    static OutboundHandler newClientMessageEncoder(HazelcastProperties properties) {
+        if (properties.getBoolean(IO_GATHERING_WRITE_ENABLED)) {
+            return new ClientMessageGatheringEncoder(properties.getInteger(IO_GATHERING_WRITE_REFERENCE_THRESHOLD));
+        }
+        return new ClientMessageEncoder();
+    }
 }
@@ -76,6 +76,16 @@ public class ClientViewUnifiedEndpointManager
         return unifiedEndpointManager.getOrConnect(address, silent);
     }
 
+    @Override
+    public ServerConnection get(Address address, int streamId) {
+        return unifiedEndpointManager.get(address, streamId);
+    }
+
+    @Override
+    public ServerConnection getOrConnect(Address address, boolean silent, int streamId) {
+        return unifiedEndpointManager.getOrConnect(address, silent, streamId);
+    }
+
     @Override
     public boolean register(Address remoteAddress, ServerConnection connection) {
         return unifiedEndpointManager.register(remoteAddress, connection);
@@ -91,6 +101,11 @@ public class ClientViewUnifiedEndpointManager
         return unifiedEndpointManager.transmit(packet, target);
     }
 
+    @Override
+    public boolean transmit(Packet packet, Address target, int streamId) {
+        return unifiedEndpointManager.transmit(packet, target, streamId);
+    }
+
     @Override
     public NetworkStats getNetworkStats() {
         return unifiedEndpointManager.getNetworkStats();
@@ -75,6 +75,16 @@ public class MemberViewUnifiedServerConnectionManager
         return unifiedEndpointManager.getOrConnect(address, silent);
     }
 
+    @Override
+    public ServerConnection get(Address address, int streamId) {
+        return unifiedEndpointManager.get(address, streamId);
+    }
+
+    @Override
+    public ServerConnection getOrConnect(Address address, boolean silent, int streamId) {
+        return unifiedEndpointManager.getOrConnect(address, silent, streamId);
+    }
+
     @Override
     public boolean register(Address remoteAddress, ServerConnection connection) {
         return unifiedEndpointManager.register(remoteAddress, connection);
@@ -90,6 +100,11 @@ public class MemberViewUnifiedServerConnectionManager
         return unifiedEndpointManager.transmit(packet, target);
     }
 
+    @Override
+    public boolean transmit(Packet packet, Address target, int streamId) {
+        return unifiedEndpointManager.transmit(packet, target, streamId);
+    }
+
     @Override
     public NetworkStats getNetworkStats() {
         return unifiedEndpointManager.getNetworkStats();
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.networking.Channel;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_BYTES_AFTER_COMPRESSION;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_BYTES_BEFORE_COMPRESSION;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_COMPRESSED_PACKETS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_COMPRESSION_RATIO;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_COMPRESSION_TIME_NANOS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_DECOMPRESSED_PACKETS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_DECOMPRESSION_TIME_NANOS;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_COMPRESSION_THRESHOLD;
+
+/**
+ * Compresses and decompresses the payloads of the {@link Packet packets} sent over a single
+ * member to member connection.
+ *
+ * Each direction of the connection is a single deflate stream; every packet is flushed with
+ * {@link Deflater#SYNC_FLUSH} so it can be decoded as soon as it is received. Since the stream
+ * isn't reset between packets, the previously sent packets act as the dictionary for the next
+ * ones: the serialized form of the same classes, field names and keys is encoded as back
+ * references. This is what makes compressing relatively small packets worthwhile.
+ *
+ * Packets smaller than the threshold are sent as they are. A compressed packet has the
+ * {@link Packet#FLAG_COMPRESSED} flag raised and its payload is the original payload length,
+ * followed by the deflated payload.
+ *
+ * Compression is {@link #enable() enabled} once the remote member confirmed in the
+ * {@link com.hazelcast.internal.cluster.impl.MemberHandshake handshake} that it can
+ * decompress packets. Decompression is always possible.
+ *
+ * The compression side is used by the outbound pipeline and the decompression side by the
+ * inbound pipeline of the connection, so each side is used by a single thread.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#IO_COMPRESSION_ENABLED
+ */
+public final class PacketCompressor {
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    @Probe(name = TCP_METRIC_CONNECTION_COMPRESSED_PACKETS)
+    private final SwCounter compressedPackets = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_BYTES_BEFORE_COMPRESSION, unit = BYTES)
+    private final SwCounter bytesBeforeCompression = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_BYTES_AFTER_COMPRESSION, unit = BYTES)
+    private final SwCounter bytesAfterCompression = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_COMPRESSION_TIME_NANOS, unit = NS)
+    private final SwCounter compressionTimeNanos = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_DECOMPRESSED_PACKETS)
+    private final SwCounter decompressedPackets = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_DECOMPRESSION_TIME_NANOS, unit = NS)
+    private final SwCounter decompressionTimeNanos = newSwCounter();
+
+    private final int threshold;
+    private final Object deflaterMutex = new Object();
+    private final Object inflaterMutex = new Object();
+
+    private volatile boolean enabled;
+    private Deflater deflater;
+    private Inflater inflater;
+    private byte[] buffer = new byte[0];
+    private boolean closed;
+
+    /**
+     * @param threshold the minimum payload size in bytes of the packets to compress
+     */
+    public PacketCompressor(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the compressor of the given connection, creating it if needed.
+     *
+     * @return the compressor or {@code null} if compression is disabled
+     */
+    public static PacketCompressor getOrCreate(ServerConnection connection, HazelcastProperties properties) {
+        if (!properties.getBoolean(IO_COMPRESSION_ENABLED) || !(connection instanceof TcpServerConnection)) {
+            return null;
+        }
+        Channel channel = ((TcpServerConnection) connection).getChannel();
+        return (PacketCompressor) channel.attributeMap().computeIfAbsent(PacketCompressor.class, key -> {
+            PacketCompressor compressor = new PacketCompressor(properties.getInteger(IO_COMPRESSION_THRESHOLD));
+            channel.addCloseListener(c -> compressor.close());
+            return compressor;
+        });
+    }
+
+    /**
+     * Returns the compressor of the given connection.
+     *
+     * @return the compressor or {@code null} if the connection doesn't have one
+     */
+    public static PacketCompressor get(TcpServerConnection connection) {
+        return (PacketCompressor) connection.getChannel().attributeMap().get(PacketCompressor.class);
+    }
+
+    /**
+     * Enables the compression of the outbound packets. Called once the remote member confirmed
+     * it can decompress them.
+     */
+    public void enable() {
+        enabled = true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Compresses the packet if compression is enabled and the packet is large enough.
+     *
+     * Once a packet got compressed, it must be written to the connection since it
+     * advanced the deflate stream.
+     *
+     * @return the compressed packet or the given packet if it was not compressed
+     */
+    public Packet compress(Packet packet) {
+        if (!enabled || packet.totalSize() < threshold || packet.isFlagRaised(FLAG_COMPRESSED)) {
+            return packet;
+        }
+
+        long startNanos = System.nanoTime();
+        byte[] payload = packet.toByteArray();
+        byte[] compressed;
+        synchronized (deflaterMutex) {
+            if (closed) {
+                return packet;
+            }
+            if (deflater == null) {
+                deflater = new Deflater(Deflater.BEST_SPEED, true);
+            }
+            compressed = deflate(payload);
+        }
+
+        compressedPackets.inc();
+        bytesBeforeCompression.inc(payload.length);
+        bytesAfterCompression.inc(compressed.length);
+        compressionTimeNanos.inc(System.nanoTime() - startNanos);
+        return new Packet(compressed, packet.getPartitionId()).resetFlagsTo(packet.getFlags() | FLAG_COMPRESSED);
+    }
+
+    private byte[] deflate(byte[] payload) {
+        int required = INT_SIZE_IN_BYTES + payload.length + (payload.length >> 3) + INT_SIZE_IN_BYTES;
+        if (buffer.length < required) {
+            buffer = new byte[Math.max(required, INITIAL_BUFFER_SIZE)];
+        }
+        writeIntB(buffer, 0, payload.length);
+        deflater.setInput(payload);
+        int length = INT_SIZE_IN_BYTES;
+        for (; ; ) {
+            length += deflater.deflate(buffer, length, buffer.length - length, Deflater.SYNC_FLUSH);
+            if (length < buffer.length) {
+                // the flush completed, since the deflater didn't fill the buffer
+                return Arrays.copyOf(buffer, length);
+            }
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+
+    /**
+     * Decompresses the packet if it has the {@link Packet#FLAG_COMPRESSED} flag raised.
+     *
+     * @return the decompressed packet or the given packet if it was not compressed
+     * @throws DataFormatException if the compressed payload is corrupt
+     */
+    public Packet decompress(Packet packet) throws DataFormatException {
+        if (!packet.isFlagRaised(FLAG_COMPRESSED)) {
+            return packet;
+        }
+
+        long startNanos = System.nanoTime();
+        byte[] compressed = packet.toByteArray();
+        if (compressed == null || compressed.length < INT_SIZE_IN_BYTES) {
+            throw new DataFormatException("Compressed packet is too short");
+        }
+        int length = readIntB(compressed, 0);
+        if (length < 0) {
+            throw new DataFormatException("Invalid length of the compressed packet: " + length);
+        }
+        byte[] payload = new byte[length];
+        synchronized (inflaterMutex) {
+            if (closed) {
+                throw new DataFormatException("Compressor is closed");
+            }
+            if (inflater == null) {
+                inflater = new Inflater(true);
+            }
+            inflate(compressed, payload);
+        }
+
+        decompressedPackets.inc();
+        decompressionTimeNanos.inc(System.nanoTime() - startNanos);
+        return new Packet(payload, packet.getPartitionId()).resetFlagsTo(packet.getFlags() & ~FLAG_COMPRESSED);
+    }
+
+    private void inflate(byte[] compressed, byte[] payload) throws DataFormatException {
+        inflater.setInput(compressed, INT_SIZE_IN_BYTES, compressed.length - INT_SIZE_IN_BYTES);
+        int length = 0;
+        while (length < payload.length) {
+            int inflated = inflater.inflate(payload, length, payload.length - length);
+            if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary() || inflater.finished())) {
+                throw new DataFormatException("Compressed packet is truncated");
+            }
+            length += inflated;
+        }
+
+        // consume the empty block that terminates the flush, so the next packet starts on a block
+        byte[] overflow = new byte[1];
+        while (!inflater.needsInput()) {
+            if (inflater.inflate(overflow) != 0 || inflater.finished() || inflater.needsDictionary()) {
+                throw new DataFormatException("Compressed packet is larger than its declared length");
+            }
+        }
+    }
+
+    /**
+     * @return the ratio between the size of the packets before and after compression
+     */
+    @Probe(name = TCP_METRIC_CONNECTION_COMPRESSION_RATIO)
+    public double compressionRatio() {
+        long after = bytesAfterCompression.get();
+        return after == 0 ? 0 : (double) bytesBeforeCompression.get() / after;
+    }
+
+    public long compressedPackets() {
+        return compressedPackets.get();
+    }
+
+    public long decompressedPackets() {
+        return decompressedPackets.get();
+    }
+
+    /**
+     * Releases the native resources of the compressor. Called when the channel is closed.
+     */
+    public void close() {
+        synchronized (deflaterMutex) {
+            synchronized (inflaterMutex) {
+                closed = true;
+                if (deflater != null) {
+                    deflater.end();
+                }
+                if (inflater != null) {
+                    inflater.end();
+                }
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.nio.InboundHandlerWithCounters;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.internal.server.ServerConnection;
 
 import java.nio.ByteBuffer;
@@ -28,6 +29,7 @@ import java.util.function.Consumer;
 
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
+import static com.hazelcast.internal.nio.Packet.FLAG_FRAGMENT;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 
 /**
@@ -42,11 +44,38 @@ import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consumer<Packet>> {
 
     protected final ServerConnection connection;
-    private final PacketIOHelper packetReader = new PacketIOHelper();
+    private final PacketIOHelper packetReader;
+    private final PacketCompressor compressor;
+    private final PacketStringDictionary dictionary;
+    private PacketReassembler reassembler;
 
     public PacketDecoder(ServerConnection connection, Consumer<Packet> dst) {
+        this(connection, dst, null);
+    }
+
+    public PacketDecoder(ServerConnection connection, Consumer<Packet> dst, PacketCompressor compressor) {
+        this(connection, dst, compressor, null);
+    }
+
+    public PacketDecoder(ServerConnection connection, Consumer<Packet> dst, PacketCompressor compressor,
+                         PacketPayloadPool payloadPool) {
+        this(connection, dst, compressor, payloadPool, null);
+    }
+
+    /**
+     * @param connection  the connection the packets are read from
+     * @param dst         the consumer of the packets
+     * @param compressor  the compressor of the connection or {@code null} if compression is disabled
+     * @param payloadPool the pool for the payloads of the read packets or {@code null} if pooling is disabled
+     * @param dictionary  the string dictionary of the connection or {@code null} if it is disabled
+     */
+    public PacketDecoder(ServerConnection connection, Consumer<Packet> dst, PacketCompressor compressor,
+                         PacketPayloadPool payloadPool, PacketStringDictionary dictionary) {
         this.connection = connection;
         this.dst = dst;
+        this.compressor = compressor;
+        this.dictionary = dictionary;
+        this.packetReader = new PacketIOHelper(payloadPool);
     }
 
     @Override
@@ -63,6 +92,27 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
                 if (packet == null) {
                     break;
                 }
+                if (compressor != null) {
+                    Packet decompressed = compressor.decompress(packet);
+                    if (decompressed != packet) {
+                        // the compressed payload isn't needed anymore
+                        packet.release();
+                        packet = decompressed;
+                    }
+                }
+                if (dictionary != null) {
+                    Packet decoded = dictionary.decode(packet);
+                    if (decoded != packet) {
+                        packet.release();
+                        packet = decoded;
+                    }
+                }
+                if (packet.isFlagRaised(FLAG_FRAGMENT)) {
+                    packet = reassemble(packet);
+                    if (packet == null) {
+                        continue;
+                    }
+                }
                 onPacketComplete(packet);
             }
 
@@ -72,6 +122,13 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
         }
     }
 
+    private Packet reassemble(Packet fragment) {
+        if (reassembler == null) {
+            reassembler = new PacketReassembler();
+        }
+        return reassembler.reassemble(fragment);
+    }
+
     protected void onPacketComplete(Packet packet) {
         if (packet.isFlagRaised(FLAG_URGENT)) {
             priorityPacketsRead.inc();
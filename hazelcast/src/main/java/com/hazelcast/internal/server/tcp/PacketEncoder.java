@@ -43,8 +43,29 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
 
     private final PacketIOHelper packetWriter = new PacketIOHelper();
 
+    private final PacketCompressor compressor;
+
+    private final PacketStringDictionary dictionary;
+
     private Packet packet;
 
+    public PacketEncoder() {
+        this(null);
+    }
+
+    public PacketEncoder(PacketCompressor compressor) {
+        this(compressor, null);
+    }
+
+    /**
+     * @param compressor the compressor of the connection or {@code null} if compression is disabled
+     * @param dictionary the string dictionary of the connection or {@code null} if it is disabled
+     */
+    public PacketEncoder(PacketCompressor compressor, PacketStringDictionary dictionary) {
+        this.compressor = compressor;
+        this.dictionary = dictionary;
+    }
+
     @Override
     public void handlerAdded() {
         initDstBuffer();
@@ -62,6 +83,12 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
                         // everything is processed, so we are done
                         return CLEAN;
                     }
+                    if (dictionary != null) {
+                        packet = dictionary.encode(packet);
+                    }
+                    if (compressor != null) {
+                        packet = compressor.compress(packet);
+                    }
                 }
 
                 if (packetWriter.writeTo(packet, dst)) {
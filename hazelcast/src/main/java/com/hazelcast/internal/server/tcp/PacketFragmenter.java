@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.FrameFragmenter;
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.nio.Packet;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Packet.FLAG_FRAGMENT;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+
+/**
+ * Splits the large {@link Packet packets} sent over a member to member connection into fragments,
+ * which are reassembled by the {@link PacketReassembler} of the remote member.
+ *
+ * Only packets with a payload larger than twice the fragment size are split; all fragments have
+ * the fragment size except for the last one, which has between one and two times the fragment
+ * size. A fragment is a packet with the flags and partition ID of the original packet plus the
+ * {@link Packet#FLAG_FRAGMENT} flag. Its payload is the stream of the fragment, followed by the
+ * payload length of the original packet (only for the first fragment) and the fragment data.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#IO_FAIR_QUEUING_ENABLED
+ */
+public final class PacketFragmenter implements FrameFragmenter {
+
+    static final int MIN_FRAGMENT_SIZE = 1024;
+
+    private final int fragmentSize;
+
+    public PacketFragmenter(int fragmentSize) {
+        checkTrue(fragmentSize >= MIN_FRAGMENT_SIZE, "fragmentSize should be at least " + MIN_FRAGMENT_SIZE);
+        this.fragmentSize = fragmentSize;
+    }
+
+    @Override
+    public Iterator<OutboundFrame> fragment(OutboundFrame frame, int stream) {
+        if (!(frame instanceof Packet)) {
+            return null;
+        }
+
+        Packet packet = (Packet) frame;
+        if (packet.totalSize() <= 2 * fragmentSize) {
+            return null;
+        }
+        return new FragmentIterator(packet, stream);
+    }
+
+    private final class FragmentIterator implements Iterator<OutboundFrame> {
+        private final Packet packet;
+        private final byte[] payload;
+        private final byte stream;
+        private int position;
+
+        private FragmentIterator(Packet packet, int stream) {
+            this.packet = packet;
+            this.payload = packet.toByteArray();
+            this.stream = (byte) stream;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < payload.length;
+        }
+
+        @Override
+        public OutboundFrame next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int remaining = payload.length - position;
+            int length = remaining < 2 * fragmentSize ? remaining : fragmentSize;
+            int headerLength = position == 0 ? BYTE_SIZE_IN_BYTES + INT_SIZE_IN_BYTES : BYTE_SIZE_IN_BYTES;
+
+            byte[] fragmentPayload = new byte[headerLength + length];
+            fragmentPayload[0] = stream;
+            if (position == 0) {
+                writeIntB(fragmentPayload, BYTE_SIZE_IN_BYTES, payload.length);
+            }
+            System.arraycopy(payload, position, fragmentPayload, headerLength, length);
+            position += length;
+
+            return new Packet(fragmentPayload, packet.getPartitionId())
+                    .resetFlagsTo(packet.getFlags() | FLAG_FRAGMENT);
+        }
+    }
+}
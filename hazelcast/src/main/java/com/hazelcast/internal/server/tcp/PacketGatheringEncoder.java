@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.ChannelOptions;
+import com.hazelcast.internal.networking.GatheringBuffer;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.internal.nio.IOUtil.newByteBuffer;
+
+/**
+ * A {@link OutboundHandler} for member to member communication that writes
+ * {@link Packet} instances to a {@link GatheringBuffer}, so that many packets
+ * can be written with a single gathering write and large payloads are not
+ * copied.
+ *
+ * It needs to be the last handler in the pipeline.
+ *
+ * @see PacketEncoder
+ * @see com.hazelcast.spi.properties.ClusterProperty#IO_GATHERING_WRITE_ENABLED
+ */
+public class PacketGatheringEncoder extends OutboundHandler<Supplier<Packet>, GatheringBuffer> {
+
+    private final PacketIOHelper packetWriter = new PacketIOHelper();
+    private final int referenceThreshold;
+    private final PacketCompressor compressor;
+    private final PacketStringDictionary dictionary;
+
+    private Packet packet;
+
+    public PacketGatheringEncoder(int referenceThreshold) {
+        this(referenceThreshold, null);
+    }
+
+    public PacketGatheringEncoder(int referenceThreshold, PacketCompressor compressor) {
+        this(referenceThreshold, compressor, null);
+    }
+
+    /**
+     * @param referenceThreshold the minimum payload size to be referenced instead of copied
+     * @param compressor         the compressor of the connection or {@code null} if compression is disabled
+     * @param dictionary         the string dictionary of the connection or {@code null} if it is disabled
+     */
+    public PacketGatheringEncoder(int referenceThreshold, PacketCompressor compressor, PacketStringDictionary dictionary) {
+        this.referenceThreshold = referenceThreshold;
+        this.compressor = compressor;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public void handlerAdded() {
+        ChannelOptions options = channel.options();
+        dst = new GatheringBuffer(newByteBuffer(options.getOption(SO_SNDBUF), options.getOption(DIRECT_BUF)),
+                referenceThreshold);
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        for (; ; ) {
+            if (packet == null) {
+                packet = src.get();
+
+                if (packet == null) {
+                    // everything is processed, so we are done
+                    return CLEAN;
+                }
+                if (dictionary != null) {
+                    packet = dictionary.encode(packet);
+                }
+                if (compressor != null) {
+                    packet = compressor.compress(packet);
+                }
+            }
+
+            if (packetWriter.writeTo(packet, dst)) {
+                // packet got written, lets see if another packet can be written
+                packet = null;
+            } else {
+                // the gathering buffer is full, so we are done.
+                return DIRTY;
+            }
+        }
+    }
+}
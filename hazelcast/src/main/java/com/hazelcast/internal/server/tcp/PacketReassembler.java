@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.nio.Packet;
+
+import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Packet.FLAG_FRAGMENT;
+
+/**
+ * Reassembles the packets split by the {@link PacketFragmenter} of the remote member.
+ *
+ * The fragments of a stream are received in order, so a stream only needs a buffer for the packet
+ * being reassembled. It is used by the inbound pipeline of a single connection, so by a single thread.
+ */
+final class PacketReassembler {
+
+    private static final int STREAM_COUNT = 1 << Byte.SIZE;
+
+    private final byte[][] buffers = new byte[STREAM_COUNT][];
+    private final int[] positions = new int[STREAM_COUNT];
+
+    /**
+     * Adds the fragment to the packet being reassembled.
+     *
+     * The fragment is {@link Packet#release() released}, since it isn't needed anymore once copied.
+     *
+     * @param fragment the fragment
+     * @return the reassembled packet or {@code null} if more fragments are needed
+     * @throws IllegalStateException if the fragment is malformed
+     */
+    Packet reassemble(Packet fragment) {
+        byte[] payload = fragment.toByteArray();
+        if (payload == null || payload.length <= BYTE_SIZE_IN_BYTES) {
+            throw new IllegalStateException("Malformed fragment: " + fragment);
+        }
+
+        int stream = Byte.toUnsignedInt(payload[0]);
+        byte[] buffer = buffers[stream];
+        int offset = BYTE_SIZE_IN_BYTES;
+        if (buffer == null) {
+            // the first fragment of the packet carries the length of the packet payload
+            if (payload.length <= BYTE_SIZE_IN_BYTES + INT_SIZE_IN_BYTES) {
+                throw new IllegalStateException("Malformed fragment: " + fragment);
+            }
+            buffer = new byte[readIntB(payload, offset)];
+            buffers[stream] = buffer;
+            positions[stream] = 0;
+            offset += INT_SIZE_IN_BYTES;
+        }
+
+        int length = payload.length - offset;
+        int position = positions[stream];
+        if (position + length > buffer.length) {
+            throw new IllegalStateException("Fragment exceeds the packet length " + buffer.length + ": " + fragment);
+        }
+        System.arraycopy(payload, offset, buffer, position, length);
+        fragment.release();
+
+        position += length;
+        if (position < buffer.length) {
+            positions[stream] = position;
+            return null;
+        }
+
+        buffers[stream] = null;
+        return new Packet(buffer, fragment.getPartitionId())
+                .resetFlagsTo(fragment.getFlags() & ~FLAG_FRAGMENT);
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.networking.Channel;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.StringRanges;
+import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_BYTES_AFTER_STRING_DICTIONARY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_BYTES_BEFORE_STRING_DICTIONARY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_STRING_DICTIONARY_DECODED_PACKETS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_STRING_DICTIONARY_DEFINITIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_STRING_DICTIONARY_ENCODED_PACKETS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_STRING_DICTIONARY_REFERENCES;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.nio.Bits.VAR_INT_MAX_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.VAR_INT_PAYLOAD_BITS;
+import static com.hazelcast.internal.nio.Bits.VAR_INT_PAYLOAD_MASK;
+import static com.hazelcast.internal.nio.Bits.writeVarInt;
+import static com.hazelcast.internal.nio.Bits.zigZagDecode;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.nio.Packet.FLAG_FRAGMENT;
+import static com.hazelcast.internal.nio.Packet.FLAG_STRING_DICTIONARY;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_STRING_DICTIONARY_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_STRING_DICTIONARY_SIZE;
+
+/**
+ * Replaces the repeated strings in the payloads of the {@link Packet packets} sent over a single
+ * member to member connection with references to a dictionary of the recently sent strings.
+ *
+ * The strings are located through the {@link StringRanges} recorded while serializing the payload,
+ * so the payload isn't parsed. The sending side owns the dictionary: it assigns the entries and
+ * evicts the least recently referenced ones with the clock algorithm once the dictionary is full.
+ * The first occurrence of a string is sent as a definition of an entry, which the receiving side
+ * stores in the same entry; the next ones are sent as references to the entry. Both sides process
+ * the packets in the order they are written to the connection, so the dictionaries stay in sync.
+ * Since fragments are reassembled in a different order, the packets split into fragments are sent
+ * as they are.
+ *
+ * An encoded packet has the {@link Packet#FLAG_STRING_DICTIONARY} flag raised and its payload is:
+ * <pre>
+ * original payload length | number of strings | (gap | gap bytes | entry code [ | length | bytes ])* | tail bytes
+ * </pre>
+ * All numbers are var ints. The gap bytes are the bytes of the original payload between two strings.
+ * The entry code is the index of the entry shifted left by one, with the lowest bit set for
+ * a definition, in which case the length and the bytes of the string follow.
+ *
+ * The dictionary is {@link #enable() enabled} once the remote member confirmed in the
+ * {@link com.hazelcast.internal.cluster.impl.MemberHandshake handshake} that it can decode
+ * packets. Decoding is always possible.
+ *
+ * The encoding side is used by the outbound pipeline and the decoding side by the inbound
+ * pipeline of the connection, so each side is used by a single thread.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#IO_STRING_DICTIONARY_ENABLED
+ */
+public final class PacketStringDictionary {
+
+    /**
+     * The maximum number of entries of a dictionary.
+     */
+    public static final int MAX_SIZE = 65536;
+
+    /**
+     * The minimum length in bytes of a string in the dictionary, including its length prefix.
+     */
+    static final int MIN_STRING_LENGTH = 8;
+
+    /**
+     * The maximum length in bytes of a string in the dictionary, including its length prefix.
+     */
+    static final int MAX_STRING_LENGTH = 256;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    // gap, entry code and length of a string
+    private static final int MAX_OVERHEAD_PER_STRING = 3 * VAR_INT_MAX_SIZE_IN_BYTES;
+
+    @Probe(name = TCP_METRIC_CONNECTION_STRING_DICTIONARY_ENCODED_PACKETS)
+    private final SwCounter encodedPackets = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_STRING_DICTIONARY_REFERENCES)
+    private final SwCounter references = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_STRING_DICTIONARY_DEFINITIONS)
+    private final SwCounter definitions = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_BYTES_BEFORE_STRING_DICTIONARY, unit = BYTES)
+    private final SwCounter bytesBeforeEncoding = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_BYTES_AFTER_STRING_DICTIONARY, unit = BYTES)
+    private final SwCounter bytesAfterEncoding = newSwCounter();
+    @Probe(name = TCP_METRIC_CONNECTION_STRING_DICTIONARY_DECODED_PACKETS)
+    private final SwCounter decodedPackets = newSwCounter();
+
+    private volatile boolean enabled;
+
+    // the encoding side
+    private final Map<StringKey, Integer> entriesByString = new HashMap<>();
+    private final StringKey[] outboundEntries;
+    private final boolean[] referenced;
+    private final StringKey probe = new StringKey();
+    private int outboundSize;
+    private int clockHand;
+    private byte[] buffer = new byte[0];
+
+    // the decoding side
+    private byte[][] inboundEntries = new byte[0][];
+    private int readPosition;
+
+    /**
+     * @param size the maximum number of entries of the dictionary
+     */
+    public PacketStringDictionary(int size) {
+        checkTrue(size > 0 && size <= MAX_SIZE, "The size of the string dictionary must be between 1 and " + MAX_SIZE);
+        this.outboundEntries = new StringKey[size];
+        this.referenced = new boolean[size];
+    }
+
+    /**
+     * Returns the dictionary of the given connection, creating it if needed.
+     *
+     * @return the dictionary or {@code null} if the string dictionary is disabled
+     */
+    public static PacketStringDictionary getOrCreate(ServerConnection connection, HazelcastProperties properties) {
+        if (!properties.getBoolean(IO_STRING_DICTIONARY_ENABLED) || !(connection instanceof TcpServerConnection)) {
+            return null;
+        }
+        Channel channel = ((TcpServerConnection) connection).getChannel();
+        return (PacketStringDictionary) channel.attributeMap().computeIfAbsent(PacketStringDictionary.class,
+                key -> new PacketStringDictionary(properties.getInteger(IO_STRING_DICTIONARY_SIZE)));
+    }
+
+    /**
+     * Returns the dictionary of the given connection.
+     *
+     * @return the dictionary or {@code null} if the connection doesn't have one
+     */
+    public static PacketStringDictionary get(ServerConnection connection) {
+        if (!(connection instanceof TcpServerConnection)) {
+            return null;
+        }
+        return (PacketStringDictionary) ((TcpServerConnection) connection).getChannel().attributeMap()
+                .get(PacketStringDictionary.class);
+    }
+
+    /**
+     * Enables the encoding of the outbound packets. Called once the remote member confirmed
+     * it can decode them.
+     */
+    public void enable() {
+        enabled = true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replaces the strings of the packet with references to the dictionary if the dictionary is
+     * enabled and the ranges of the strings were recorded.
+     *
+     * Once a packet got encoded, it must be written to the connection since it updated the
+     * dictionary.
+     *
+     * @return the encoded packet or the given packet if it was not encoded
+     */
+    public Packet encode(Packet packet) {
+        StringRanges ranges = packet.getStringRanges();
+        if (!enabled || ranges == null
+                || packet.isFlagRaised(FLAG_STRING_DICTIONARY | FLAG_FRAGMENT | FLAG_COMPRESSED)) {
+            return packet;
+        }
+
+        byte[] payload = packet.toByteArray();
+        int count = countEncodedStrings(ranges, payload.length);
+        if (count == 0) {
+            return packet;
+        }
+
+        int required = 2 * VAR_INT_MAX_SIZE_IN_BYTES + payload.length + count * MAX_OVERHEAD_PER_STRING;
+        if (buffer.length < required) {
+            buffer = new byte[Math.max(required, INITIAL_BUFFER_SIZE)];
+        }
+        int pos = writeVarInt(buffer, 0, payload.length);
+        pos = writeVarInt(buffer, pos, count);
+        int copied = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            int from = ranges.from(i);
+            int to = ranges.to(i);
+            if (!isEncoded(from, to, copied, payload.length)) {
+                continue;
+            }
+            pos = writeVarInt(buffer, pos, from - copied);
+            System.arraycopy(payload, copied, buffer, pos, from - copied);
+            pos += from - copied;
+            pos = writeEntry(payload, from, to, pos);
+            copied = to;
+        }
+        System.arraycopy(payload, copied, buffer, pos, payload.length - copied);
+        pos += payload.length - copied;
+
+        encodedPackets.inc();
+        bytesBeforeEncoding.inc(payload.length);
+        bytesAfterEncoding.inc(pos);
+        return new Packet(Arrays.copyOf(buffer, pos), packet.getPartitionId())
+                .resetFlagsTo(packet.getFlags() | FLAG_STRING_DICTIONARY);
+    }
+
+    private static int countEncodedStrings(StringRanges ranges, int payloadLength) {
+        int count = 0;
+        int copied = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            int from = ranges.from(i);
+            int to = ranges.to(i);
+            if (isEncoded(from, to, copied, payloadLength)) {
+                count++;
+                copied = to;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Skips the strings which are too short or too long, and the ranges which don't follow the
+     * previous string, which is the case for the strings overwritten after being written.
+     */
+    private static boolean isEncoded(int from, int to, int copied, int payloadLength) {
+        int length = to - from;
+        return from >= copied && to <= payloadLength && length >= MIN_STRING_LENGTH && length <= MAX_STRING_LENGTH;
+    }
+
+    private int writeEntry(byte[] payload, int from, int to, int pos) {
+        probe.set(payload, from, to);
+        Integer entry = entriesByString.get(probe);
+        if (entry != null) {
+            references.inc();
+            referenced[entry] = true;
+            return writeVarInt(buffer, pos, entry << 1);
+        }
+
+        definitions.inc();
+        int index = nextEntry();
+        StringKey key = new StringKey().set(Arrays.copyOfRange(payload, from, to), 0, to - from);
+        outboundEntries[index] = key;
+        entriesByString.put(key, index);
+        pos = writeVarInt(buffer, pos, (index << 1) | 1);
+        pos = writeVarInt(buffer, pos, to - from);
+        System.arraycopy(payload, from, buffer, pos, to - from);
+        return pos + to - from;
+    }
+
+    /**
+     * @return the index of a free entry or of the entry evicted to make room
+     */
+    private int nextEntry() {
+        if (outboundSize < outboundEntries.length) {
+            return outboundSize++;
+        }
+        for (; ; ) {
+            int index = clockHand;
+            clockHand = (clockHand + 1) % outboundEntries.length;
+            if (referenced[index]) {
+                // referenced since the hand passed it the last time, so it gets another round
+                referenced[index] = false;
+            } else {
+                entriesByString.remove(outboundEntries[index]);
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Restores the strings of the packet if it has the {@link Packet#FLAG_STRING_DICTIONARY}
+     * flag raised.
+     *
+     * @return the decoded packet or the given packet if it was not encoded
+     * @throws DataFormatException if the encoded payload is corrupt
+     */
+    public Packet decode(Packet packet) throws DataFormatException {
+        if (!packet.isFlagRaised(FLAG_STRING_DICTIONARY)) {
+            return packet;
+        }
+
+        byte[] encoded = packet.toByteArray();
+        if (encoded == null) {
+            throw new DataFormatException("Encoded packet has no payload");
+        }
+        readPosition = 0;
+        byte[] payload;
+        try {
+            payload = new byte[readVarInt(encoded)];
+            int count = readVarInt(encoded);
+            int pos = 0;
+            for (int i = 0; i < count; i++) {
+                int gap = readVarInt(encoded);
+                System.arraycopy(encoded, readPosition, payload, pos, gap);
+                readPosition += gap;
+                pos += gap;
+                byte[] string = readEntry(encoded);
+                System.arraycopy(string, 0, payload, pos, string.length);
+                pos += string.length;
+            }
+            int tail = encoded.length - readPosition;
+            if (pos + tail != payload.length) {
+                throw new DataFormatException("Invalid length of the encoded packet: " + (pos + tail)
+                        + ", expected: " + payload.length);
+            }
+            System.arraycopy(encoded, readPosition, payload, pos, tail);
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new DataFormatException("Encoded packet is truncated");
+        }
+
+        decodedPackets.inc();
+        return new Packet(payload, packet.getPartitionId()).resetFlagsTo(packet.getFlags() & ~FLAG_STRING_DICTIONARY);
+    }
+
+    private byte[] readEntry(byte[] encoded) throws DataFormatException {
+        int code = readVarInt(encoded);
+        int index = code >>> 1;
+        if (index >= MAX_SIZE) {
+            throw new DataFormatException("Invalid string dictionary entry: " + index);
+        }
+        if ((code & 1) == 0) {
+            byte[] string = index < inboundEntries.length ? inboundEntries[index] : null;
+            if (string == null) {
+                throw new DataFormatException("Undefined string dictionary entry: " + index);
+            }
+            return string;
+        }
+
+        int length = readVarInt(encoded);
+        if (length < 0) {
+            throw new DataFormatException("Invalid string length: " + length);
+        }
+        byte[] string = Arrays.copyOfRange(encoded, readPosition, readPosition + length);
+        readPosition += length;
+        if (index >= inboundEntries.length) {
+            // the size of the dictionary is configured on the sending side
+            int capacity = Math.min(MAX_SIZE, Math.max(index + 1, inboundEntries.length * 2));
+            inboundEntries = Arrays.copyOf(inboundEntries, capacity);
+        }
+        inboundEntries[index] = string;
+        return string;
+    }
+
+    private int readVarInt(byte[] encoded) throws DataFormatException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += VAR_INT_PAYLOAD_BITS) {
+            byte b = encoded[readPosition++];
+            value |= (b & VAR_INT_PAYLOAD_MASK) << shift;
+            if (b >= 0) {
+                return zigZagDecode(value);
+            }
+        }
+        throw new DataFormatException("Malformed var int");
+    }
+
+    /**
+     * @return the ratio between the size of the packets before and after encoding
+     */
+    public double encodingRatio() {
+        long after = bytesAfterEncoding.get();
+        return after == 0 ? 0 : (double) bytesBeforeEncoding.get() / after;
+    }
+
+    public long encodedPackets() {
+        return encodedPackets.get();
+    }
+
+    public long decodedPackets() {
+        return decodedPackets.get();
+    }
+
+    public long references() {
+        return references.get();
+    }
+
+    public long definitions() {
+        return definitions.get();
+    }
+
+    /**
+     * A string of the dictionary, compared by its bytes. The probe used for the lookups points
+     * into the payload being encoded, the keys of the dictionary own their bytes.
+     */
+    private static final class StringKey {
+        private static final int HASH_MULTIPLIER = 31;
+
+        private byte[] bytes;
+        private int from;
+        private int to;
+        private int hash;
+
+        StringKey set(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.from = from;
+            this.to = to;
+            int h = 1;
+            for (int i = from; i < to; i++) {
+                h = HASH_MULTIPLIER * h + bytes[i];
+            }
+            this.hash = h;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StringKey)) {
+                return false;
+            }
+            StringKey that = (StringKey) o;
+            if (hash != that.hash || to - from != that.to - that.from) {
+                return false;
+            }
+            for (int i = from, j = that.from; i < to; i++, j++) {
+                if (bytes[i] != that.bytes[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -29,6 +29,10 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.hazelcast.internal.cluster.impl.MemberHandshake.SCHEMA_VERSION_4;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_STRING_DICTIONARY_ENABLED;
+
 public class SendMemberHandshakeTask implements Runnable {
 
     private final ILogger logger;
@@ -57,8 +61,15 @@ public class SendMemberHandshakeTask implements Runnable {
         if (logger.isFinestEnabled()) {
             logger.finest("Sending memberHandshake packet to " + remoteAddress);
         }
-        MemberHandshake memberHandshake
-                = new MemberHandshake((byte) 1, getConfiguredLocalAddresses(), remoteAddress, reply, serverContext.getUuid());
+        // the inbound pipeline of a member connection gets a compressor when compression is enabled,
+        // and a string dictionary when the string dictionary is enabled
+        boolean compressionEnabled = serverContext.properties().getBoolean(IO_COMPRESSION_ENABLED);
+        boolean stringDictionaryEnabled = serverContext.properties().getBoolean(IO_STRING_DICTIONARY_ENABLED);
+        MemberHandshake memberHandshake = new MemberHandshake(SCHEMA_VERSION_4, getConfiguredLocalAddresses(), remoteAddress,
+                reply, serverContext.getUuid())
+                .setPlanes(connection.getConnectionManager().getPlaneCount(), connection.getPlaneIndex())
+                .setCompressionEnabled(compressionEnabled)
+                .setStringDictionaryEnabled(stringDictionaryEnabled);
         byte[] bytes = serverContext.getSerializationService().toBytes(memberHandshake);
         Packet packet = new Packet(bytes).setPacketType(Packet.Type.MEMBER_HANDSHAKE);
         connection.write(packet);
@@ -75,6 +75,8 @@ public class TcpServerConnection implements ServerConnection {
 
     private volatile String connectionType = NONE;
 
+    private volatile int planeIndex;
+
     private volatile ConnectionLifecycleListener<TcpServerConnection> lifecycleListener;
 
     private volatile Throwable closeCause;
@@ -174,6 +176,17 @@ public class TcpServerConnection implements ServerConnection {
         return connectionId;
     }
 
+    /**
+     * @return the index of the plane the connection belongs to, 0 unless there are multiple connections per member pair
+     */
+    public int getPlaneIndex() {
+        return planeIndex;
+    }
+
+    public void setPlaneIndex(int planeIndex) {
+        this.planeIndex = planeIndex;
+    }
+
     @Override
     public boolean isClient() {
         return !connectionType.equals(MEMBER);
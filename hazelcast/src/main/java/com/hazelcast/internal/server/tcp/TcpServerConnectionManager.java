@@ -73,28 +73,28 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_ENDPOINT_MANAGER_OPENED_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_PREFIX_CONNECTION;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_TAG_ENDPOINT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_TAG_PLANE;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.nio.IOUtil.close;
 import static com.hazelcast.internal.nio.IOUtil.closeResource;
 import static com.hazelcast.internal.nio.IOUtil.setChannelOptions;
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.spi.properties.ClusterProperty.CHANNEL_COUNT;
 import static java.util.Collections.newSetFromMap;
 import static java.util.Collections.unmodifiableCollection;
 import static java.util.Collections.unmodifiableSet;
 
-@SuppressWarnings("checkstyle:methodcount")
+@SuppressWarnings({"checkstyle:methodcount", "checkstyle:classfanoutcomplexity"})
 public class TcpServerConnectionManager
         implements ServerConnectionManager, Consumer<Packet>, DynamicMetricsProvider {
 
     private static final int RETRY_NUMBER = 5;
     private static final long DELAY_FACTOR = 100L;
 
-    @Probe(name = TCP_METRIC_ENDPOINT_MANAGER_IN_PROGRESS_COUNT)
-    final Set<Address> connectionsInProgress = newSetFromMap(new ConcurrentHashMap<>());
-
-    @Probe(name = TCP_METRIC_ENDPOINT_MANAGER_COUNT, level = MANDATORY)
-    final ConcurrentHashMap<Address, TcpServerConnection> connectionsMap = new ConcurrentHashMap<>(100);
+    final Plane[] planes;
 
     @Probe(name = TCP_METRIC_ENDPOINT_MANAGER_ACTIVE_COUNT, level = MANDATORY)
     final Set<TcpServerConnection> activeConnections = newSetFromMap(new ConcurrentHashMap<>());
@@ -108,6 +108,7 @@ public class TcpServerConnectionManager
     private final TcpServerConnector connector;
     private final MemberHandshakeHandler memberHandshakeHandler;
     private final NetworkStatsImpl networkStats;
+    private final int planeCount;
 
     @Probe(name = TCP_METRIC_ENDPOINT_MANAGER_CONNECTION_LISTENER_COUNT)
     private final Set<ConnectionListener> connectionListeners = new CopyOnWriteArraySet<>();
@@ -147,6 +148,14 @@ public class TcpServerConnectionManager
         this.connector = new TcpServerConnector(this);
         this.memberHandshakeHandler = new MemberHandshakeHandler(this, serverContext, logger, supportedProtocolTypes);
         this.networkStats = endpointQualifier == null ? null : new NetworkStatsImpl();
+        // only member-to-member connections are split into planes
+        this.planeCount = endpointQualifier == null || EndpointQualifier.MEMBER.equals(endpointQualifier)
+                ? checkPositive(serverContext.properties().getInteger(CHANNEL_COUNT), "Channel count must be positive")
+                : 1;
+        this.planes = new Plane[planeCount];
+        for (int i = 0; i < planeCount; i++) {
+            planes[i] = new Plane(i);
+        }
     }
 
     public TcpServer getServer() {
@@ -162,7 +171,33 @@ public class TcpServerConnectionManager
     }
 
     public Collection<ServerConnection> getConnections() {
-        return unmodifiableCollection(new HashSet<>(connectionsMap.values()));
+        Set<ServerConnection> connections = new HashSet<>();
+        for (Plane plane : planes) {
+            connections.addAll(plane.connectionsMap.values());
+        }
+        return unmodifiableCollection(connections);
+    }
+
+    public int getPlaneCount() {
+        return planeCount;
+    }
+
+    @Probe(name = TCP_METRIC_ENDPOINT_MANAGER_IN_PROGRESS_COUNT)
+    private int connectionsInProgressCount() {
+        int count = 0;
+        for (Plane plane : planes) {
+            count += plane.connectionsInProgress.size();
+        }
+        return count;
+    }
+
+    @Probe(name = TCP_METRIC_ENDPOINT_MANAGER_COUNT, level = MANDATORY)
+    private int connectionsCount() {
+        int count = 0;
+        for (Plane plane : planes) {
+            count += plane.connectionsMap.size();
+        }
+        return count;
     }
 
     @Override
@@ -178,7 +213,12 @@ public class TcpServerConnectionManager
 
     @Override
     public ServerConnection get(Address address) {
-        return connectionsMap.get(address);
+        return get(address, 0);
+    }
+
+    @Override
+    public ServerConnection get(Address address, int streamId) {
+        return getPlane(streamId).connectionsMap.get(address);
     }
 
     @Override
@@ -187,19 +227,46 @@ public class TcpServerConnectionManager
     }
 
     @Override
-    public ServerConnection getOrConnect(final Address address, final boolean silent) {
-        TcpServerConnection connection = connectionsMap.get(address);
+    public ServerConnection getOrConnect(Address address, boolean silent) {
+        return getOrConnect(address, silent, 0);
+    }
+
+    @Override
+    public ServerConnection getOrConnect(Address address, boolean silent, int streamId) {
+        return getOrConnect(getPlane(streamId), address, silent);
+    }
+
+    private TcpServerConnection getOrConnect(Plane plane, Address address, boolean silent) {
+        TcpServerConnection connection = plane.connectionsMap.get(address);
         if (connection == null && server.isLive()) {
-            if (connectionsInProgress.add(address)) {
-                connector.asyncConnect(address, silent);
+            if (plane.connectionsInProgress.add(address)) {
+                connector.asyncConnect(address, silent, plane.index);
             }
         }
         return connection;
     }
 
+    /**
+     * Starts connecting the planes which are not connected to the given member yet. Called on the connection initiator
+     * side once the first connection to the member is established, so that the remaining planes are ready before the
+     * traffic is routed to them.
+     *
+     * @param address the address of the member
+     */
+    void connectPlanes(Address address) {
+        for (Plane plane : planes) {
+            getOrConnect(plane, address, true);
+        }
+    }
+
+    Plane getPlane(int streamId) {
+        return planes[hashToIndex(streamId, planeCount)];
+    }
+
     @Override
     public synchronized boolean register(final Address remoteAddress, final ServerConnection c) {
         TcpServerConnection connection = (TcpServerConnection) c;
+        Plane plane = planes[connection.getPlaneIndex()];
         try {
             if (remoteAddress.equals(serverContext.getThisAddress())) {
                 return false;
@@ -221,7 +288,7 @@ public class TcpServerConnectionManager
             if (!connection.isClient()) {
                 connection.setErrorHandler(getErrorHandler(remoteAddress, true));
             }
-            connectionsMap.put(remoteAddress, connection);
+            plane.connectionsMap.put(remoteAddress, connection);
 
             serverContext.getEventService().executeEventCallback(new StripedRunnable() {
                 @Override
@@ -238,7 +305,7 @@ public class TcpServerConnectionManager
             });
             return true;
         } finally {
-            connectionsInProgress.remove(remoteAddress);
+            plane.connectionsInProgress.remove(remoteAddress);
         }
     }
 
@@ -264,15 +331,19 @@ public class TcpServerConnectionManager
         for (Channel socketChannel : acceptedChannels) {
             closeResource(socketChannel);
         }
-        for (Connection conn : connectionsMap.values()) {
-            close(conn, "EndpointManager is stopping");
+        for (Plane plane : planes) {
+            for (Connection conn : plane.connectionsMap.values()) {
+                close(conn, "EndpointManager is stopping");
+            }
         }
         for (Connection conn : activeConnections) {
             close(conn, "EndpointManager is stopping");
         }
         acceptedChannels.clear();
-        connectionsInProgress.clear();
-        connectionsMap.clear();
+        for (Plane plane : planes) {
+            plane.connectionsInProgress.clear();
+            plane.connectionsMap.clear();
+        }
         monitors.clear();
         activeConnections.clear();
 
@@ -295,9 +366,16 @@ public class TcpServerConnectionManager
     @Override
     public boolean transmit(Packet packet, Address target) {
         checkNotNull(packet, "Packet can't be null");
+
+        return transmit(packet, target, packet.getPartitionId());
+    }
+
+    @Override
+    public boolean transmit(Packet packet, Address target, int streamId) {
+        checkNotNull(packet, "Packet can't be null");
         checkNotNull(target, "target can't be null");
 
-        return send(packet, target, null);
+        return send(packet, target, streamId, null);
     }
 
     @Override
@@ -337,15 +415,15 @@ public class TcpServerConnectionManager
         acceptedChannels.remove(channel);
     }
 
-    void failedConnection(Address address, Throwable t, boolean silent) {
-        connectionsInProgress.remove(address);
+    void failedConnection(Address address, int planeIndex, Throwable t, boolean silent) {
+        planes[planeIndex].connectionsInProgress.remove(address);
         serverContext.onFailedConnection(address);
         if (!silent) {
             getErrorHandler(address, false).onError(t);
         }
     }
 
-    synchronized TcpServerConnection newConnection(Channel channel, Address endpoint) {
+    synchronized TcpServerConnection newConnection(Channel channel, Address endpoint, int planeIndex) {
         try {
             if (!server.isLive()) {
                 throw new IllegalStateException("connection manager is not live!");
@@ -355,6 +433,7 @@ public class TcpServerConnectionManager
                     connectionIdGen.incrementAndGet(), channel);
 
             connection.setRemoteAddress(endpoint);
+            connection.setPlaneIndex(planeIndex);
             activeConnections.add(connection);
 
             if (logger.isFineEnabled()) {
@@ -371,19 +450,19 @@ public class TcpServerConnectionManager
         }
     }
 
-    private boolean send(Packet packet, Address target, SendTask sendTask) {
-        Connection connection = get(target);
+    private boolean send(Packet packet, Address target, int streamId, SendTask sendTask) {
+        Connection connection = get(target, streamId);
         if (connection != null) {
             return connection.write(packet);
         }
 
         if (sendTask == null) {
-            sendTask = new SendTask(packet, target);
+            sendTask = new SendTask(packet, target, streamId);
         }
 
         int retries = sendTask.retries;
         if (retries < RETRY_NUMBER && serverContext.isNodeActive()) {
-            getOrConnect(target, true);
+            getOrConnect(target, true, streamId);
             try {
                 server.scheduleDeferred(sendTask, (retries + 1) * DELAY_FACTOR, TimeUnit.MILLISECONDS);
                 return true;
@@ -401,7 +480,11 @@ public class TcpServerConnectionManager
 
     @Override
     public String toString() {
-        return "TcpIpEndpointManager{" + "endpointQualifier=" + endpointQualifier + ", connectionsMap=" + connectionsMap + '}';
+        StringBuilder sb = new StringBuilder("TcpIpEndpointManager{" + "endpointQualifier=" + endpointQualifier);
+        for (Plane plane : planes) {
+            sb.append(", connectionsMap[").append(plane.index).append("]=").append(plane.connectionsMap);
+        }
+        return sb.append('}').toString();
     }
 
     // test support
@@ -430,17 +513,35 @@ public class TcpServerConnectionManager
                 context.collect(rootDescriptor
                         .copy()
                         .withDiscriminator(TCP_DISCRIMINATOR_ENDPOINT, connection.getRemoteAddress().toString()), connection);
+                PacketCompressor compressor = PacketCompressor.get(connection);
+                if (compressor != null) {
+                    context.collect(rootDescriptor
+                            .copy()
+                            .withDiscriminator(TCP_DISCRIMINATOR_ENDPOINT, connection.getRemoteAddress().toString()), compressor);
+                }
+                PacketStringDictionary dictionary = PacketStringDictionary.get(connection);
+                if (dictionary != null) {
+                    context.collect(rootDescriptor
+                            .copy()
+                            .withDiscriminator(TCP_DISCRIMINATOR_ENDPOINT, connection.getRemoteAddress().toString()), dictionary);
+                }
             }
         }
 
-        for (Map.Entry<Address, TcpServerConnection> entry : connectionsMap.entrySet()) {
-            Address bindAddress = entry.getKey();
-            TcpServerConnection connection = entry.getValue();
-            if (connection.getRemoteAddress() != null) {
-                context.collect(rootDescriptor
-                        .copy()
-                        .withDiscriminator(TCP_DISCRIMINATOR_BINDADDRESS, bindAddress.toString())
-                        .withTag(TCP_TAG_ENDPOINT, connection.getRemoteAddress().toString()), connection);
+        for (Plane plane : planes) {
+            for (Map.Entry<Address, TcpServerConnection> entry : plane.connectionsMap.entrySet()) {
+                Address bindAddress = entry.getKey();
+                TcpServerConnection connection = entry.getValue();
+                if (connection.getRemoteAddress() != null) {
+                    MetricDescriptor connectionDescriptor = rootDescriptor
+                            .copy()
+                            .withDiscriminator(TCP_DISCRIMINATOR_BINDADDRESS, bindAddress.toString())
+                            .withTag(TCP_TAG_ENDPOINT, connection.getRemoteAddress().toString());
+                    if (planeCount > 1) {
+                        connectionDescriptor.withTag(TCP_TAG_PLANE, String.valueOf(plane.index));
+                    }
+                    context.collect(connectionDescriptor, connection);
+                }
             }
         }
     }
@@ -449,11 +550,13 @@ public class TcpServerConnectionManager
             implements Runnable {
         private final Packet packet;
         private final Address target;
+        private final int streamId;
         private volatile int retries;
 
-        private SendTask(Packet packet, Address target) {
+        private SendTask(Packet packet, Address target, int streamId) {
             this.packet = packet;
             this.target = target;
+            this.streamId = streamId;
         }
 
         @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT", justification = "single-writer, many-reader")
@@ -463,7 +566,7 @@ public class TcpServerConnectionManager
             if (logger.isFinestEnabled()) {
                 logger.finest("Retrying[" + retries + "] packet send operation to: " + target);
             }
-            send(packet, target, this);
+            send(packet, target, streamId, this);
         }
     }
 
@@ -483,8 +586,9 @@ public class TcpServerConnectionManager
 
             Address endPoint = connection.getRemoteAddress();
             if (endPoint != null) {
-                connectionsInProgress.remove(endPoint);
-                connectionsMap.remove(endPoint, connection);
+                Plane plane = planes[connection.getPlaneIndex()];
+                plane.connectionsInProgress.remove(endPoint);
+                plane.connectionsMap.remove(endPoint, connection);
                 fireConnectionRemovedEvent(connection, endPoint);
             }
 
@@ -498,6 +602,20 @@ public class TcpServerConnectionManager
 
     }
 
+    /**
+     * One of the parallel sets of connections. Every plane holds at most one registered connection per remote member.
+     */
+    static final class Plane {
+
+        final int index;
+        final Set<Address> connectionsInProgress = newSetFromMap(new ConcurrentHashMap<>());
+        final ConcurrentHashMap<Address, TcpServerConnection> connectionsMap = new ConcurrentHashMap<>(100);
+
+        Plane(int index) {
+            this.index = index;
+        }
+    }
+
     private class NetworkStatsImpl implements NetworkStats {
 
         private final AtomicLong bytesReceivedLastCalc = new AtomicLong();
@@ -71,9 +71,9 @@ class TcpServerConnector {
         this.socketClientBindAny = properties.getBoolean(SOCKET_CLIENT_BIND_ANY);
     }
 
-    void asyncConnect(Address address, boolean silent) {
+    void asyncConnect(Address address, boolean silent, int planeIndex) {
         serverContext.shouldConnectTo(address);
-        serverContext.executeAsync(new ConnectTask(address, silent));
+        serverContext.executeAsync(new ConnectTask(address, silent, planeIndex));
     }
 
     private boolean useAnyOutboundPort() {
@@ -98,10 +98,12 @@ class TcpServerConnector {
     private final class ConnectTask implements Runnable {
         private final Address address;
         private final boolean silent;
+        private final int planeIndex;
 
-        ConnectTask(Address address, boolean silent) {
+        ConnectTask(Address address, boolean silent, int planeIndex) {
             this.address = address;
             this.silent = silent;
+            this.planeIndex = planeIndex;
         }
 
         @Override
@@ -139,7 +141,7 @@ class TcpServerConnector {
                 }
             } catch (Throwable e) {
                 logger.finest(e);
-                connectionManager.failedConnection(address, e, silent);
+                connectionManager.failedConnection(address, planeIndex, e, silent);
             }
         }
 
@@ -195,7 +197,7 @@ class TcpServerConnector {
 
                     serverContext.interceptSocket(connectionManager.getEndpointQualifier(), socketChannel.socket(), false);
 
-                    connection = connectionManager.newConnection(channel, address);
+                    connection = connectionManager.newConnection(channel, address, planeIndex);
                     new SendMemberHandshakeTask(logger, serverContext, connection, address, true).run();
                 } catch (Exception e) {
                     closeConnection(connection, e);
@@ -83,6 +83,16 @@ public class TextViewUnifiedServerConnectionManager
         return unifiedEndpointManager.getOrConnect(address, silent);
     }
 
+    @Override
+    public ServerConnection get(Address address, int streamId) {
+        return unifiedEndpointManager.get(address, streamId);
+    }
+
+    @Override
+    public ServerConnection getOrConnect(Address address, boolean silent, int streamId) {
+        return unifiedEndpointManager.getOrConnect(address, silent, streamId);
+    }
+
     @Override
     public boolean transmit(Packet packet, ServerConnection connection) {
         return unifiedEndpointManager.transmit(packet, connection);
@@ -93,6 +103,11 @@ public class TextViewUnifiedServerConnectionManager
         return unifiedEndpointManager.transmit(packet, target);
     }
 
+    @Override
+    public boolean transmit(Packet packet, Address target, int streamId) {
+        return unifiedEndpointManager.transmit(packet, target, streamId);
+    }
+
     @Override
     public NetworkStats getNetworkStats() {
         return unifiedEndpointManager.getNetworkStats();
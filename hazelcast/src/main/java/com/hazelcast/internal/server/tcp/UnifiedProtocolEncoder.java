@@ -16,7 +16,6 @@
 
 package com.hazelcast.internal.server.tcp;
 
-import com.hazelcast.client.impl.protocol.util.ClientMessageEncoder;
 import com.hazelcast.instance.EndpointQualifier;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.OutboundHandler;
@@ -149,7 +148,7 @@ public class UnifiedProtocolEncoder
         channel.options()
                 .setOption(SO_SNDBUF, clientSndBuf());
 
-        channel.outboundPipeline().replace(this, new ClientMessageEncoder());
+        channel.outboundPipeline().replace(this, ClientChannelInitializer.newClientMessageEncoder(props));
     }
 
     private void initChannelForText() {
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.json.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readCharB;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Bits.writeShortB;
+
+/**
+ * The metadata of a Json document: its {@link JsonShape}, which is shared
+ * with all the documents of the same structure, and the start offsets of
+ * its scalar values, which allow a query to jump straight to a value
+ * without parsing the preceding part of the document.
+ *
+ * The offsets are stored in a byte array, using the smallest of 1, 2 or 4
+ * bytes per offset that fits the last offset.
+ */
+public final class JsonIndex {
+
+    private static final int INITIAL_OFFSET_COUNT = 16;
+    private static final int MAX_UNSIGNED_BYTE = 0xFF;
+    private static final int MAX_UNSIGNED_SHORT = 0xFFFF;
+
+    private final JsonShape shape;
+    private final byte[] offsets;
+    private final byte offsetSize;
+
+    private JsonIndex(JsonShape shape, byte[] offsets, byte offsetSize) {
+        this.shape = shape;
+        this.offsets = offsets;
+        this.offsetSize = offsetSize;
+    }
+
+    /**
+     * Creates the index of the Json document read by the given parser. The
+     * parser must be pointing to the start of the input.
+     *
+     * @param parser the parser
+     * @param shapes the table the shape of the document is interned in, or
+     *               {@code null} to create an unshared shape
+     * @return the index or {@code null} if the input is empty
+     * @throws IOException if the input is not a valid Json document
+     */
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    public static JsonIndex create(JsonParser parser, JsonShapes shapes) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return null;
+        }
+
+        StringBuilder key = new StringBuilder();
+        int[] valueOffsets = new int[INITIAL_OFFSET_COUNT];
+        int valueCount = 0;
+        int depth = 0;
+        while (true) {
+            switch (token) {
+                case START_OBJECT:
+                    key.append('{');
+                    depth++;
+                    break;
+                case START_ARRAY:
+                    key.append('[');
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    key.append('}');
+                    depth--;
+                    break;
+                case END_ARRAY:
+                    key.append(']');
+                    depth--;
+                    break;
+                case FIELD_NAME:
+                    String name = parser.getCurrentName();
+                    key.append(name.length()).append(':').append(name);
+                    break;
+                default:
+                    key.append('#');
+                    if (valueCount == valueOffsets.length) {
+                        valueOffsets = Arrays.copyOf(valueOffsets, valueCount * 2);
+                    }
+                    valueOffsets[valueCount++] = (int) JsonSchemaHelper.getTokenLocation(parser);
+            }
+            if (depth == 0) {
+                break;
+            }
+            token = parser.nextToken();
+            if (token == null) {
+                // truncated input
+                return null;
+            }
+        }
+
+        JsonShape shape = shapes == null ? JsonShape.createUnshared(key.toString()) : shapes.of(key.toString());
+        return create(shape, valueOffsets, valueCount);
+    }
+
+    private static JsonIndex create(JsonShape shape, int[] valueOffsets, int valueCount) {
+        // the offsets are increasing, so the last offset is the largest one
+        int offsetSize = offsetSize(valueCount == 0 ? 0 : valueOffsets[valueCount - 1]);
+        byte[] offsets = new byte[valueCount * offsetSize];
+        for (int i = 0; i < valueCount; i++) {
+            writeOffset(offsets, i * offsetSize, offsetSize, valueOffsets[i]);
+        }
+        return new JsonIndex(shape, offsets, (byte) offsetSize);
+    }
+
+    public JsonShape getShape() {
+        return shape;
+    }
+
+    /**
+     * Returns the start offset of the scalar value with the given ordinal.
+     *
+     * @param ordinal the ordinal of the value, see {@link JsonShape#resolve(String)}
+     * @return the offset of the value within the document
+     */
+    public int getValueOffset(int ordinal) {
+        int position = ordinal * offsetSize;
+        switch (offsetSize) {
+            case BYTE_SIZE_IN_BYTES:
+                return offsets[position] & MAX_UNSIGNED_BYTE;
+            case SHORT_SIZE_IN_BYTES:
+                return readCharB(offsets, position);
+            default:
+                return readIntB(offsets, position);
+        }
+    }
+
+    private static void writeOffset(byte[] offsets, int position, int offsetSize, int offset) {
+        switch (offsetSize) {
+            case BYTE_SIZE_IN_BYTES:
+                offsets[position] = (byte) offset;
+                break;
+            case SHORT_SIZE_IN_BYTES:
+                writeShortB(offsets, position, (short) offset);
+                break;
+            default:
+                writeIntB(offsets, position, offset);
+        }
+    }
+
+    private static int offsetSize(int maxOffset) {
+        if (maxOffset <= MAX_UNSIGNED_BYTE) {
+            return BYTE_SIZE_IN_BYTES;
+        }
+        return maxOffset <= MAX_UNSIGNED_SHORT ? SHORT_SIZE_IN_BYTES : INT_SIZE_IN_BYTES;
+    }
+}
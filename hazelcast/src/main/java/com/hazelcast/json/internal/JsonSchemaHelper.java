@@ -207,7 +207,7 @@ public final class JsonSchemaHelper {
         return (nameValue.isArrayItem() && isArrayPath) || (nameValue.isObjectItem() && !isArrayPath);
     }
 
-    private static long getTokenLocation(JsonParser parser) {
+    static long getTokenLocation(JsonParser parser) {
         if (parser instanceof ReaderBasedJsonParser) {
             return parser.getTokenLocation().getCharOffset();
         } else if (parser instanceof UTF8StreamJsonParser) {
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.json.internal;
+
+import com.hazelcast.query.impl.getters.JsonPathCursor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The structure of a Json document: the nesting of its objects and arrays
+ * and the names of the attributes, without any values. The scalar values
+ * are numbered in document order; the number of a value is its ordinal.
+ *
+ * Shapes are interned per map in {@link JsonShapes}, so all the documents
+ * of a map with the same structure share a single instance. The
+ * {@link JsonIndex} of a document refers to the shape and stores only the
+ * offsets of the values.
+ *
+ * The shape is described by a canonical encoding of the structure:
+ * {@code {}} and {@code []} enclose the members of objects and arrays, an
+ * attribute name is written as its length, a colon and the name itself and
+ * a scalar value is written as {@code #}.
+ *
+ * A shape is immutable apart from the cache of resolved query paths, so it
+ * can be shared between threads. Only the shapes in a table cache the
+ * resolved paths.
+ */
+public final class JsonShape {
+
+    /**
+     * Returned by {@link #resolve(String)} when the path doesn't exist in
+     * the shape.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Returned by {@link #resolve(String)} when the path points to an
+     * object or an array.
+     */
+    public static final int NON_TERMINAL = -2;
+
+    /**
+     * Returned by {@link #resolve(String)} when the path contains
+     * {@code [any]}, which may match multiple values.
+     */
+    public static final int MULTI_VALUE = -3;
+
+    static final int MAX_CACHED_PATHS = 128;
+
+    private final String key;
+    private final int valueCount;
+    private volatile ConcurrentMap<String, Integer> resolvedPaths;
+    private volatile boolean interned = true;
+    private volatile long lastUsed = System.nanoTime();
+
+    private JsonShape(String key) {
+        this.key = key;
+        KeyCursor cursor = new KeyCursor(key);
+        cursor.skipValue();
+        this.valueCount = cursor.ordinal;
+    }
+
+    /**
+     * Creates the shape described by the given key.
+     *
+     * @param key the encoded structure
+     * @return the shape
+     */
+    static JsonShape create(String key) {
+        return new JsonShape(key);
+    }
+
+    /**
+     * Creates a shape which is not interned in any table, so it doesn't
+     * cache the resolved query paths.
+     *
+     * @param key the encoded structure
+     * @return the shape
+     */
+    static JsonShape createUnshared(String key) {
+        JsonShape shape = new JsonShape(key);
+        shape.interned = false;
+        return shape;
+    }
+
+    /**
+     * Returns the number of scalar values in the shape.
+     */
+    public int getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * Resolves a query path against this shape.
+     *
+     * @param attributePath the query path
+     * @return the ordinal of the scalar value the path points to, or one
+     * of {@link #NOT_FOUND}, {@link #NON_TERMINAL} and {@link #MULTI_VALUE}
+     */
+    public int resolve(String attributePath) {
+        if (!interned) {
+            return resolve(JsonPathCursor.createCursor(attributePath));
+        }
+
+        ConcurrentMap<String, Integer> paths = resolvedPaths;
+        if (paths == null) {
+            paths = new ConcurrentHashMap<>();
+            resolvedPaths = paths;
+            if (!interned) {
+                // released concurrently
+                resolvedPaths = null;
+            }
+        }
+
+        Integer ordinal = paths.get(attributePath);
+        if (ordinal == null) {
+            ordinal = resolve(JsonPathCursor.createCursor(attributePath));
+            if (paths.size() < MAX_CACHED_PATHS) {
+                paths.put(attributePath, ordinal);
+            }
+        }
+        return ordinal;
+    }
+
+    /**
+     * Returns {@code true} if the shape is interned in a table.
+     */
+    boolean isInterned() {
+        return interned;
+    }
+
+    void touch() {
+        lastUsed = System.nanoTime();
+    }
+
+    long lastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * Invoked when the shape is removed from its table. The documents which
+     * refer to the shape keep using it, but the resolved paths are no longer
+     * cached.
+     */
+    void release() {
+        interned = false;
+        resolvedPaths = null;
+    }
+
+    /**
+     * Walks the key along the path. Only the key is kept by the shape, so a
+     * shape costs no more than its encoding.
+     */
+    private int resolve(JsonPathCursor pathCursor) {
+        KeyCursor cursor = new KeyCursor(key);
+        while (pathCursor.getNext() != null) {
+            char c = cursor.current();
+            if (pathCursor.isArray()) {
+                if (pathCursor.isAny()) {
+                    return MULTI_VALUE;
+                }
+                if (c != '[' || !cursor.enterArrayItem(pathCursor.getArrayIndex())) {
+                    return NOT_FOUND;
+                }
+            } else if (c != '{' || !cursor.enterAttribute(pathCursor.getCurrent())) {
+                return NOT_FOUND;
+            }
+        }
+        return cursor.current() == '#' ? cursor.ordinal : NON_TERMINAL;
+    }
+
+    /**
+     * A position in the key of a shape and the ordinal of the first scalar
+     * value at or after that position.
+     */
+    private static final class KeyCursor {
+        private static final int DECIMAL_RADIX = 10;
+
+        private final String key;
+        private int position;
+        private int ordinal;
+
+        KeyCursor(String key) {
+            this.key = key;
+        }
+
+        char current() {
+            return key.charAt(position);
+        }
+
+        /**
+         * Moves from the start of an array to the item with the given index.
+         */
+        boolean enterArrayItem(int index) {
+            if (index < 0) {
+                return false;
+            }
+            position++;
+            for (int i = 0; i < index; i++) {
+                if (current() == ']') {
+                    return false;
+                }
+                skipValue();
+            }
+            return current() != ']';
+        }
+
+        /**
+         * Moves from the start of an object to the value of the first
+         * attribute with the given name, just like the parsing getters do for
+         * duplicate names.
+         */
+        boolean enterAttribute(String name) {
+            position++;
+            while (current() != '}') {
+                int nameLength = readNameLength();
+                int nameStart = position;
+                position += nameLength;
+                if (nameLength == name.length() && key.regionMatches(nameStart, name, 0, nameLength)) {
+                    return true;
+                }
+                skipValue();
+            }
+            return false;
+        }
+
+        void skipValue() {
+            char c = key.charAt(position++);
+            if (c == '#') {
+                ordinal++;
+                return;
+            }
+
+            boolean object = c == '{';
+            char end = object ? '}' : ']';
+            while (current() != end) {
+                if (object) {
+                    int nameLength = readNameLength();
+                    position += nameLength;
+                }
+                skipValue();
+            }
+            position++;
+        }
+
+        /**
+         * Reads the length prefix of an attribute name and moves to the
+         * first character of the name.
+         */
+        private int readNameLength() {
+            int length = 0;
+            char c;
+            while ((c = key.charAt(position++)) != ':') {
+                length = length * DECIMAL_RADIX + (c - '0');
+            }
+            return length;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.json.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * The table of the {@link JsonShape shapes} interned by the Json documents
+ * of a single map on this member. All the documents of the same structure
+ * share a single shape while the shape is in the table.
+ *
+ * The table is bounded. When it is full, the least recently used shapes
+ * are evicted in a single pass, leaving some free space to amortize the
+ * cost of the eviction. An evicted shape is still used by the documents
+ * which refer to it, but it no longer caches the resolved query paths, so
+ * a document of a rare structure costs no more than the encoding of its
+ * structure.
+ *
+ * The table is owned by the map container and cleared when the map is
+ * destroyed.
+ */
+public final class JsonShapes {
+
+    /**
+     * Default maximum number of shapes in a table.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Fraction of the capacity which is freed on overflow.
+     */
+    private static final int EVICTION_FRACTION = 10;
+
+    private final int capacity;
+    private final ConcurrentMap<String, JsonShape> shapes = new ConcurrentHashMap<>();
+
+    public JsonShapes(int capacity) {
+        this.capacity = checkPositive(capacity, "capacity should be positive");
+    }
+
+    /**
+     * Returns the shape described by the given key, sharing the instance
+     * with all the other documents of the same structure.
+     *
+     * @param key the encoded structure, see {@link JsonShape}
+     * @return the shape
+     */
+    JsonShape of(String key) {
+        JsonShape shape = shapes.get(key);
+        if (shape != null) {
+            shape.touch();
+            return shape;
+        }
+
+        shape = JsonShape.create(key);
+        JsonShape found = shapes.putIfAbsent(key, shape);
+        if (found != null) {
+            found.touch();
+            return found;
+        }
+        if (shapes.size() > capacity) {
+            shrink();
+        }
+        return shape;
+    }
+
+    /**
+     * Returns the number of interned shapes.
+     */
+    public int size() {
+        return shapes.size();
+    }
+
+    /**
+     * Removes all the shapes from the table.
+     */
+    public void clear() {
+        for (String key : shapes.keySet()) {
+            JsonShape shape = shapes.remove(key);
+            if (shape != null) {
+                shape.release();
+            }
+        }
+    }
+
+    private void shrink() {
+        List<Map.Entry<String, JsonShape>> entries = new ArrayList<>(shapes.entrySet());
+
+        int count = entries.size() - capacity + capacity / EVICTION_FRACTION;
+        if (count <= 0) {
+            // a concurrent shrink has already freed the space
+            return;
+        }
+
+        entries.sort(Comparator.comparingLong(e -> e.getValue().lastUsed()));
+        for (int i = 0; i < count && i < entries.size(); i++) {
+            Map.Entry<String, JsonShape> entry = entries.get(i);
+            if (shapes.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().release();
+            }
+        }
+    }
+}
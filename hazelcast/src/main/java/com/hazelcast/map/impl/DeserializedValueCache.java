@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_DESERIALIZED_VALUE_CACHE_EVICTIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_DESERIALIZED_VALUE_CACHE_HITS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_DESERIALIZED_VALUE_CACHE_HIT_PERCENTAGE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_DESERIALIZED_VALUE_CACHE_INVALIDATIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_DESERIALIZED_VALUE_CACHE_MISSES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_DESERIALIZED_VALUE_CACHE_RETAINED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_DESERIALIZED_VALUE_CACHE_SIZE;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_DESERIALIZED_VALUE_CACHE_MAX_BYTES;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_DESERIALIZED_VALUE_CACHE_SIZE;
+
+/**
+ * Member-wide cache of deserialized map values, used by the maps which
+ * declare their values {@link com.hazelcast.config.MapConfig#setImmutableValues(boolean)
+ * immutable}.
+ * <p>
+ * The cache is keyed by the serialized form of the value: since the values
+ * are immutable, two values with the same bytes can share one deserialized
+ * instance, no matter which entry or map they belong to. This way the
+ * deserialized value survives the copies of the {@link Data} made by the
+ * operations, and a stale entry can never be returned for an updated value.
+ * The record stores still {@link #invalidate(Object) invalidate} the old value
+ * on update and removal to free the space early.
+ * <p>
+ * The cache is bounded both by the number of values and by their total
+ * serialized size. When either limit is exceeded, the least recently used
+ * values are evicted in a single pass, leaving some free space to amortize the
+ * cost of the eviction.
+ */
+public class DeserializedValueCache {
+
+    /** Fraction of the limits which is freed on overflow. */
+    private static final int EVICTION_FRACTION = 10;
+    private static final int PERCENTAGE = 100;
+
+    @Probe(name = MAP_METRIC_DESERIALIZED_VALUE_CACHE_HITS)
+    private final MwCounter hits = newMwCounter();
+
+    @Probe(name = MAP_METRIC_DESERIALIZED_VALUE_CACHE_MISSES)
+    private final MwCounter misses = newMwCounter();
+
+    @Probe(name = MAP_METRIC_DESERIALIZED_VALUE_CACHE_EVICTIONS)
+    private final MwCounter evictions = newMwCounter();
+
+    @Probe(name = MAP_METRIC_DESERIALIZED_VALUE_CACHE_INVALIDATIONS)
+    private final MwCounter invalidations = newMwCounter();
+
+    @Probe(name = MAP_METRIC_DESERIALIZED_VALUE_CACHE_RETAINED_BYTES, unit = BYTES)
+    private final AtomicLong retainedBytes = new AtomicLong();
+
+    private final ConcurrentHashMap<Data, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean shrinking = new AtomicBoolean();
+    private final SerializationService serializationService;
+    private final int maxSize;
+    private final long maxBytes;
+
+    public DeserializedValueCache(SerializationService serializationService, HazelcastProperties properties) {
+        this(serializationService, properties.getInteger(MAP_DESERIALIZED_VALUE_CACHE_SIZE),
+                properties.getLong(MAP_DESERIALIZED_VALUE_CACHE_MAX_BYTES));
+    }
+
+    public DeserializedValueCache(SerializationService serializationService, int maxSize, long maxBytes) {
+        assert maxSize > 0 && maxBytes > 0;
+
+        this.serializationService = serializationService;
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the deserialized form of the given value, from the cache if
+     * possible.
+     *
+     * @param value the value, {@link Data} or already deserialized
+     * @return the deserialized value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T toObject(Object value) {
+        if (!(value instanceof Data)) {
+            return (T) value;
+        }
+        Data data = (Data) value;
+        Entry entry = entries.get(data);
+        if (entry != null) {
+            entry.lastUsed = System.nanoTime();
+            hits.inc();
+            return (T) entry.value;
+        }
+
+        misses.inc();
+        T object = serializationService.toObject(data);
+        int size = data.totalSize();
+        if (object == null || size > maxBytes / EVICTION_FRACTION) {
+            return object;
+        }
+        Entry previous = entries.putIfAbsent(toHeapData(data), new Entry(object, size));
+        if (previous != null) {
+            // another thread deserialized the same value concurrently
+            return (T) previous.value;
+        }
+        if (retainedBytes.addAndGet(size) > maxBytes || entries.size() > maxSize) {
+            shrink();
+        }
+        return object;
+    }
+
+    /**
+     * Removes the given value from the cache, e.g. because it was replaced
+     * by another value.
+     *
+     * @param value the value, ignored if not {@link Data}
+     */
+    public void invalidate(Object value) {
+        if (!(value instanceof Data)) {
+            return;
+        }
+        Entry entry = entries.remove(value);
+        if (entry != null) {
+            retainedBytes.addAndGet(-entry.size);
+            invalidations.inc();
+        }
+    }
+
+    public void clear() {
+        for (Data key : entries.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    @Probe(name = MAP_METRIC_DESERIALIZED_VALUE_CACHE_SIZE)
+    public int size() {
+        return entries.size();
+    }
+
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    @Probe(name = MAP_METRIC_DESERIALIZED_VALUE_CACHE_HIT_PERCENTAGE, unit = PERCENT)
+    public double getHitPercentage() {
+        long hits = this.hits.get();
+        long lookups = hits + misses.get();
+        return lookups == 0 ? 0 : (double) hits * PERCENTAGE / lookups;
+    }
+
+    private void shrink() {
+        if (!shrinking.compareAndSet(false, true)) {
+            // the thread doing the shrink frees the space for everybody
+            return;
+        }
+        try {
+            List<Map.Entry<Data, Entry>> entries0 = new ArrayList<>(entries.entrySet());
+            entries0.sort(Comparator.comparingLong(e -> e.getValue().lastUsed));
+
+            int targetSize = maxSize - maxSize / EVICTION_FRACTION;
+            long targetBytes = maxBytes - maxBytes / EVICTION_FRACTION;
+            int evicted = 0;
+            for (int i = 0; i < entries0.size() && (entries.size() > targetSize || retainedBytes.get() > targetBytes); i++) {
+                Map.Entry<Data, Entry> entry = entries0.get(i);
+                if (entries.remove(entry.getKey(), entry.getValue())) {
+                    retainedBytes.addAndGet(-entry.getValue().size);
+                    evicted++;
+                }
+            }
+            evictions.inc(evicted);
+        } finally {
+            shrinking.set(false);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final int size;
+        private volatile long lastUsed;
+
+        private Entry(Object value, int size) {
+            this.value = value;
+            this.size = size;
+            lastUsed = System.nanoTime();
+        }
+    }
+}
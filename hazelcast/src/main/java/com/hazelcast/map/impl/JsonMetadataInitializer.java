@@ -19,7 +19,8 @@ package com.hazelcast.map.impl;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.hazelcast.core.HazelcastJsonValue;
-import com.hazelcast.json.internal.JsonSchemaHelper;
+import com.hazelcast.json.internal.JsonIndex;
+import com.hazelcast.json.internal.JsonShapes;
 import com.hazelcast.internal.serialization.Data;
 
 import java.io.ByteArrayInputStream;
@@ -29,17 +30,25 @@ import static com.hazelcast.internal.serialization.impl.HeapData.HEAP_DATA_OVERH
 
 public class JsonMetadataInitializer implements MetadataInitializer {
 
-    public static final JsonMetadataInitializer INSTANCE = new JsonMetadataInitializer();
-
     private static final int UTF_CHAR_COUNT_FIELD_SIZE = 4;
 
     private static final JsonFactory FACTORY = new JsonFactory();
 
+    private final JsonShapes shapes;
+
+    /**
+     * @param shapes the table the shapes of the documents are interned in,
+     *               usually the one of the map the documents are stored in
+     */
+    public JsonMetadataInitializer(JsonShapes shapes) {
+        this.shapes = shapes;
+    }
+
     public Object createFromData(Data data) throws IOException {
         if (data.isJson()) {
             try (JsonParser parser = FACTORY.createParser(new ByteArrayInputStream(data.toByteArray(),
                     HEAP_DATA_OVERHEAD + UTF_CHAR_COUNT_FIELD_SIZE, data.dataSize() - UTF_CHAR_COUNT_FIELD_SIZE))) {
-                return JsonSchemaHelper.createSchema(parser);
+                return JsonIndex.create(parser, shapes);
             }
         }
         return null;
@@ -49,7 +58,7 @@ public class JsonMetadataInitializer implements MetadataInitializer {
         if (obj instanceof HazelcastJsonValue) {
             String str = obj.toString();
             try (JsonParser parser = FACTORY.createParser(str)) {
-                return JsonSchemaHelper.createSchema(parser);
+                return JsonIndex.create(parser, shapes);
             }
         }
         return null;
@@ -36,6 +36,7 @@ import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.internal.util.ExceptionUtil;
 import com.hazelcast.internal.util.MemoryInfoAccessor;
 import com.hazelcast.internal.util.RuntimeMemoryInfoAccessor;
+import com.hazelcast.json.internal.JsonShapes;
 import com.hazelcast.map.impl.eviction.EvictionChecker;
 import com.hazelcast.map.impl.eviction.Evictor;
 import com.hazelcast.map.impl.eviction.EvictorImpl;
@@ -59,6 +60,8 @@ import com.hazelcast.wan.impl.WanReplicationService;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
@@ -70,6 +73,7 @@ import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.mapstore.MapStoreContextFactory.createMapStoreContext;
 import static com.hazelcast.spi.properties.ClusterProperty.MAP_EVICTION_BATCH_SIZE;
 import static java.lang.System.getProperty;
+import static java.util.Collections.newSetFromMap;
 
 /**
  * Map container for a map with a specific name. Contains config and
@@ -89,6 +93,9 @@ public class MapContainer {
     protected final ObjectNamespace objectNamespace;
     protected final MapServiceContext mapServiceContext;
     protected final QueryEntryFactory queryEntryFactory;
+    protected final DeserializedValueCache deserializedValueCache;
+    protected final JsonShapes jsonShapes = new JsonShapes(JsonShapes.DEFAULT_CAPACITY);
+    protected final Set<String> addedIndexNames = newSetFromMap(new ConcurrentHashMap<>());
     protected final EventJournalConfig eventJournalConfig;
     protected final PartitioningStrategy partitioningStrategy;
     protected final InternalSerializationService serializationService;
@@ -129,8 +136,9 @@ public class MapContainer {
                 .setAttributeConfigs(mapConfig.getAttributeConfigs())
                 .setClassLoader(nodeEngine.getConfigClassLoader())
                 .build();
+        this.deserializedValueCache = mapConfig.isImmutableValues() ? mapServiceContext.getDeserializedValueCache() : null;
         this.queryEntryFactory = new QueryEntryFactory(mapConfig.getCacheDeserializedValues(),
-                serializationService, extractors);
+                serializationService, extractors, deserializedValueCache);
         this.globalIndexes = shouldUseGlobalIndex() ? createIndexes(true) : null;
         this.mapStoreContext = createMapStoreContext(this);
         initWanReplication(mapServiceContext.getNodeEngine());
@@ -357,6 +365,21 @@ public class MapContainer {
         return recordFactoryConstructor;
     }
 
+    /**
+     * @return the cache of deserialized values if the values of this map
+     * are declared immutable, otherwise {@code null}
+     */
+    public DeserializedValueCache getDeserializedValueCache() {
+        return deserializedValueCache;
+    }
+
+    /**
+     * @return the table of the shapes shared by the Json values of this map
+     */
+    public JsonShapes getJsonShapes() {
+        return jsonShapes;
+    }
+
     public QueryableEntry newQueryEntry(Data key, Object value) {
         return queryEntryFactory.newEntry(key, value);
     }
@@ -392,6 +415,7 @@ public class MapContainer {
 
     // callback called when the MapContainer is de-registered from MapService and destroyed - basically on map-destroy
     public void onDestroy() {
+        jsonShapes.clear();
     }
 
     public boolean shouldCloneOnEntryProcessing(int partitionId) {
@@ -402,6 +426,19 @@ public class MapContainer {
         return objectNamespace;
     }
 
+    /**
+     * Records an index added to the map at runtime. The index is added to
+     * every partition separately, so the schema change is signaled only the
+     * first time the definition is recorded on this member.
+     *
+     * @param config the normalized config of the index
+     */
+    public void addIndexDefinition(IndexConfig config) {
+        if (addedIndexNames.add(config.getName())) {
+            mapServiceContext.notifySchemaChanged();
+        }
+    }
+
     public Map<String, IndexConfig> getIndexDefinitions() {
         Map<String, IndexConfig> definitions = new HashMap<>();
         if (isGlobalIndexEnabled()) {
@@ -16,12 +16,15 @@
 
 package com.hazelcast.map.impl;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.impl.ColumnarDataBatch;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.nio.serialization.impl.Versioned;
 
 import java.io.IOException;
 import java.util.AbstractMap;
@@ -34,7 +37,7 @@ import java.util.Map;
 /**
  * MapEntries is a collection of {@link Data} instances for keys and values of a {@link java.util.Map.Entry}.
  */
-public final class MapEntries implements IdentifiedDataSerializable {
+public final class MapEntries implements IdentifiedDataSerializable, Versioned {
 
     private List<Data> keys;
     private List<Data> values;
@@ -136,6 +139,15 @@ public final class MapEntries implements IdentifiedDataSerializable {
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         int size = size();
+        if (out.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            boolean columnar = ColumnarDataBatch.isColumnar(size);
+            out.writeBoolean(columnar);
+            if (columnar) {
+                ColumnarDataBatch.writeBatch(out, keys);
+                ColumnarDataBatch.writeBatch(out, values);
+                return;
+            }
+        }
         out.writeInt(size);
         for (int i = 0; i < size; i++) {
             IOUtil.writeData(out, keys.get(i));
@@ -145,6 +157,11 @@ public final class MapEntries implements IdentifiedDataSerializable {
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
+        if (in.getVersion().isGreaterOrEqual(Versions.V4_1) && in.readBoolean()) {
+            keys = ColumnarDataBatch.readBatch(in);
+            values = ColumnarDataBatch.readBatch(in);
+            return;
+        }
         int size = in.readInt();
         keys = new ArrayList<>(size);
         values = new ArrayList<>(size);
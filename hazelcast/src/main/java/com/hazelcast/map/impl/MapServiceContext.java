@@ -195,4 +195,25 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
     ValueComparator getValueComparatorOf(InMemoryFormat inMemoryFormat);
 
     NodeWideUsedCapacityCounter getNodeWideUsedCapacityCounter();
+
+    /**
+     * @return the member-wide cache of deserialized values shared by the
+     * maps with immutable values
+     */
+    DeserializedValueCache getDeserializedValueCache();
+
+    /**
+     * Registers a listener which is run every time a map or an index is
+     * created or destroyed on this member.
+     *
+     * @param listener the listener
+     */
+    void addSchemaChangeListener(Runnable listener);
+
+    /**
+     * Runs the registered schema change listeners.
+     *
+     * @see #addSchemaChangeListener(Runnable)
+     */
+    void notifySchemaChanged();
 }
@@ -95,6 +95,7 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
@@ -141,11 +142,13 @@ class MapServiceContextImpl implements MapServiceContext {
     private final MapClearExpiredRecordsTask clearExpiredRecordsTask;
     private final PartitioningStrategyFactory partitioningStrategyFactory;
     private final NodeWideUsedCapacityCounter nodeWideUsedCapacityCounter;
+    private final DeserializedValueCache deserializedValueCache;
     private final ConstructorFunction<String, MapContainer> mapConstructor;
     private final IndexProvider indexProvider = new DefaultIndexProvider();
     private final ContextMutexFactory contextMutexFactory = new ContextMutexFactory();
     private final AtomicReference<PartitionIdSet> ownedPartitions = new AtomicReference<>();
     private final ConcurrentMap<String, MapContainer> mapContainers = new ConcurrentHashMap<>();
+    private final List<Runnable> schemaChangeListeners = new CopyOnWriteArrayList<>();
 
     private MapService mapService;
 
@@ -171,6 +174,7 @@ class MapServiceContextImpl implements MapServiceContext {
         this.operationProviders = createOperationProviders();
         this.partitioningStrategyFactory = new PartitioningStrategyFactory(nodeEngine.getConfigClassLoader());
         this.nodeWideUsedCapacityCounter = new NodeWideUsedCapacityCounter(nodeEngine.getProperties());
+        this.deserializedValueCache = new DeserializedValueCache(serializationService, nodeEngine.getProperties());
         this.logger = nodeEngine.getLogger(getClass());
     }
 
@@ -178,6 +182,7 @@ class MapServiceContextImpl implements MapServiceContext {
         return mapName -> {
             MapContainer mapContainer = createMapContainer(mapName);
             mapContainer.init();
+            notifySchemaChanged();
             return mapContainer;
         };
     }
@@ -406,6 +411,7 @@ class MapServiceContextImpl implements MapServiceContext {
         // Statistics are destroyed after container to prevent their leak.
         destroyPartitionsAndMapContainer(mapContainer);
         localMapStatsProvider.destroyLocalMapStatsImpl(mapContainer.getName());
+        notifySchemaChanged();
     }
 
     /**
@@ -869,6 +875,23 @@ class MapServiceContextImpl implements MapServiceContext {
         return nodeWideUsedCapacityCounter;
     }
 
+    @Override
+    public DeserializedValueCache getDeserializedValueCache() {
+        return deserializedValueCache;
+    }
+
+    @Override
+    public void addSchemaChangeListener(Runnable listener) {
+        schemaChangeListeners.add(listener);
+    }
+
+    @Override
+    public void notifySchemaChanged() {
+        for (Runnable listener : schemaChangeListeners) {
+            listener.run();
+        }
+    }
+
     // used only for testing purposes
     PartitioningStrategyFactory getPartitioningStrategyFactory() {
         return partitioningStrategyFactory;
@@ -49,6 +49,7 @@ public class AddIndexBackupOperation extends MapOperation implements BackupOpera
 
         Indexes indexes = mapContainer.getIndexes(partitionId);
         indexes.recordIndexDefinition(config);
+        mapContainer.addIndexDefinition(config);
     }
 
     @Override
@@ -85,6 +85,7 @@ public class AddIndexOperation extends MapOperation
         Indexes indexes = mapContainer.getIndexes(partitionId);
         RecordStoreAdapter recordStoreAdapter = new RecordStoreAdapter(recordStore);
         InternalIndex index = indexes.addOrGetIndex(config, indexes.isGlobal() ? null : recordStoreAdapter);
+        mapContainer.addIndexDefinition(config);
         if (index.hasPartitionIndexed(partitionId)) {
             return;
         }
@@ -114,6 +114,7 @@ public final class EntryOperator {
         this.partitionId = recordStore.getPartitionId();
         this.callerAddress = mapOperation.getCallerAddress();
         this.entry = new LockAwareLazyMapEntry();
+        this.entry.setDeserializedValueCache(mapContainer.getDeserializedValueCache());
     }
 
     private void setProcessor(Object processor) {
@@ -22,6 +22,7 @@ import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.operationservice.BackupOperation;
 import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
@@ -31,7 +32,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class PutAllBackupOperation extends MapOperation
-        implements PartitionAwareOperation, BackupOperation {
+        implements PartitionAwareOperation, BackupOperation, Versioned {
 
     private boolean disableWanReplicationEvent;
     private List dataKeyDataValueRecord;
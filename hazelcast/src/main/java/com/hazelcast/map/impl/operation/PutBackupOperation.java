@@ -22,13 +22,14 @@ import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.operationservice.BackupOperation;
 
 import java.io.IOException;
 
 public class PutBackupOperation
-        extends MapOperation implements BackupOperation {
+        extends MapOperation implements BackupOperation, Versioned {
 
     protected Record<Data> record;
     protected Data dataKey;
@@ -111,7 +111,7 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
     public V get(@Nonnull Object key) {
         checkNotNull(key, NULL_KEY_IS_NOT_ALLOWED);
 
-        return toObject(getInternal(key));
+        return toValueObject(getInternal(key));
     }
 
     @Override
@@ -45,6 +45,7 @@ import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.IMap;
 import com.hazelcast.map.LocalMapStats;
 import com.hazelcast.map.MapInterceptor;
+import com.hazelcast.map.impl.DeserializedValueCache;
 import com.hazelcast.map.impl.EntryEventFilter;
 import com.hazelcast.map.impl.MapEntries;
 import com.hazelcast.map.impl.MapService;
@@ -207,6 +208,7 @@ abstract class MapProxySupport<K, V>
     protected final SerializationService serializationService;
     protected final boolean statisticsEnabled;
     protected final MapConfig mapConfig;
+    protected final DeserializedValueCache deserializedValueCache;
 
     // not final for testing purposes
     protected MapOperationProvider operationProvider;
@@ -233,6 +235,7 @@ abstract class MapProxySupport<K, V>
         this.serializationService = nodeEngine.getSerializationService();
         this.thisAddress = nodeEngine.getClusterService().getThisAddress();
         this.statisticsEnabled = mapConfig.isStatisticsEnabled();
+        this.deserializedValueCache = mapConfig.isImmutableValues() ? mapServiceContext.getDeserializedValueCache() : null;
 
         this.putAllBatchSize = properties.getInteger(MAP_PUT_ALL_BATCH_SIZE);
         this.putAllInitialSizeFactor = properties.getFloat(MAP_PUT_ALL_INITIAL_SIZE_FACTOR);
@@ -1285,6 +1288,14 @@ abstract class MapProxySupport<K, V>
         return serializationService.toObject(object);
     }
 
+    /**
+     * Deserializes a value of this map, sharing the deserialized instance
+     * through the {@link DeserializedValueCache} if the values are immutable.
+     */
+    protected <T> T toValueObject(Object value) {
+        return deserializedValueCache == null ? toObject(value) : deserializedValueCache.toObject(value);
+    }
+
     protected Data toDataWithStrategy(Object object) {
         return serializationService.toData(object, partitionStrategy);
     }
@@ -24,6 +24,7 @@ import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.DeserializedValueCache;
 import com.hazelcast.map.impl.LazyMapEntry;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
@@ -87,6 +88,7 @@ public class PartitionScanRunner {
         boolean nativeMemory = recordStore.getInMemoryFormat() == InMemoryFormat.NATIVE;
         boolean useCachedValues = isUseCachedDeserializedValuesEnabled(mapContainer, partitionId);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
+        DeserializedValueCache deserializedValueCache = mapContainer.getDeserializedValueCache();
         StoreAdapter storeAdapter = new RecordStoreAdapter(recordStore);
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry =
                 pagingPredicate == null ? null : pagingPredicate.getNearestAnchorEntry();
@@ -103,6 +105,7 @@ public class PartitionScanRunner {
                 }
 
                 queryEntry.init(ss, key, value, extractors);
+                queryEntry.setDeserializedValueCache(deserializedValueCache);
                 queryEntry.setRecord(record);
                 queryEntry.setStoreAdapter(storeAdapter);
                 queryEntry.setMetadata(PartitionScanRunner.this.getMetadataFromRecord(recordStore, key, record));
@@ -158,6 +161,7 @@ public class PartitionScanRunner {
         PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         RecordStore recordStore = partitionContainer.getRecordStore(mapName);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
+        DeserializedValueCache deserializedValueCache = mapServiceContext.getMapContainer(mapName).getDeserializedValueCache();
 
         while (resultList.size() < fetchSize && pointers[pointers.length - 1].getIndex() >= 0) {
             MapEntriesWithCursor cursor = recordStore.fetchEntries(pointers, fetchSize - resultList.size());
@@ -167,7 +171,8 @@ public class PartitionScanRunner {
                 break;
             }
             for (Entry<Data, Data> entry : entries) {
-                QueryableEntry queryEntry = new LazyMapEntry(entry.getKey(), entry.getValue(), ss, extractors);
+                QueryableEntry queryEntry = new LazyMapEntry(entry.getKey(), entry.getValue(), ss, extractors)
+                        .setDeserializedValueCache(deserializedValueCache);
                 if (predicate.apply(queryEntry)) {
                     resultList.add(queryEntry);
                 }
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.query;
 import com.hazelcast.config.CacheDeserializedValues;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.DeserializedValueCache;
 import com.hazelcast.query.impl.CachedQueryEntry;
 import com.hazelcast.query.impl.QueryEntry;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -29,16 +30,29 @@ public final class QueryEntryFactory {
     private final CacheDeserializedValues cacheDeserializedValues;
     private final InternalSerializationService serializationService;
     private final Extractors extractors;
+    private final DeserializedValueCache deserializedValueCache;
 
     public QueryEntryFactory(CacheDeserializedValues cacheDeserializedValues,
                              InternalSerializationService serializationService,
                              Extractors extractors) {
+        this(cacheDeserializedValues, serializationService, extractors, null);
+    }
+
+    public QueryEntryFactory(CacheDeserializedValues cacheDeserializedValues,
+                             InternalSerializationService serializationService,
+                             Extractors extractors,
+                             DeserializedValueCache deserializedValueCache) {
         this.cacheDeserializedValues = cacheDeserializedValues;
         this.serializationService = serializationService;
         this.extractors = extractors;
+        this.deserializedValueCache = deserializedValueCache;
     }
 
     public QueryableEntry newEntry(Data key, Object value) {
+        if (deserializedValueCache != null) {
+            return new CachedQueryEntry(serializationService, key, value, extractors)
+                    .setDeserializedValueCache(deserializedValueCache);
+        }
         switch (cacheDeserializedValues) {
             case NEVER:
                 return new QueryEntry(serializationService, key, value, extractors);
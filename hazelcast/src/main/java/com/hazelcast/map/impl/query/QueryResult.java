@@ -16,11 +16,14 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.serialization.impl.ColumnarDataBatch;
 import com.hazelcast.map.QueryResultSizeExceededException;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -30,6 +33,7 @@ import com.hazelcast.internal.util.SortingUtil;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -60,7 +64,7 @@ import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeN
  * QueryResultRow rows} and no further conversion is performed.
  * </ol>
  */
-public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow> {
+public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow>, Versioned {
 
     private List rows = new LinkedList();
 
@@ -236,6 +240,14 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         out.writeByte(iterationType.getId());
 
         int resultSize = rows.size();
+        if (out.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            boolean columnar = ColumnarDataBatch.isColumnar(resultSize);
+            out.writeBoolean(columnar);
+            if (columnar) {
+                writeColumns(out, resultSize);
+                return;
+            }
+        }
         out.writeInt(resultSize);
         if (resultSize > 0) {
             for (QueryResultRow row : (List<QueryResultRow>) rows) {
@@ -244,12 +256,32 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         }
     }
 
+    // keys and values are written as separate columns
+    private void writeColumns(ObjectDataOutput out, int resultSize) throws IOException {
+        List<Data> keys = new ArrayList<>(resultSize);
+        List<Data> values = new ArrayList<>(resultSize);
+        for (QueryResultRow row : (List<QueryResultRow>) rows) {
+            keys.add(row.getKey());
+            values.add(row.getValue());
+        }
+        ColumnarDataBatch.writeBatch(out, keys);
+        ColumnarDataBatch.writeBatch(out, values);
+    }
+
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         partitionIds = readNullablePartitionIdSet(in);
 
         iterationType = IterationType.getById(in.readByte());
 
+        if (in.getVersion().isGreaterOrEqual(Versions.V4_1) && in.readBoolean()) {
+            List<Data> keys = ColumnarDataBatch.readBatch(in);
+            List<Data> values = ColumnarDataBatch.readBatch(in);
+            for (int i = 0; i < keys.size(); i++) {
+                rows.add(new QueryResultRow(keys.get(i), values.get(i)));
+            }
+            return;
+        }
         int resultSize = in.readInt();
         if (resultSize > 0) {
             for (int i = 0; i < resultSize; i++) {
@@ -16,14 +16,20 @@
 
 package com.hazelcast.map.impl.record;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.nio.VersionAware;
 
 import java.io.IOException;
 
 import static com.hazelcast.internal.nio.IOUtil.readData;
+import static com.hazelcast.internal.nio.IOUtil.readVarInt;
+import static com.hazelcast.internal.nio.IOUtil.readVarLong;
 import static com.hazelcast.internal.nio.IOUtil.writeData;
+import static com.hazelcast.internal.nio.IOUtil.writeVarInt;
+import static com.hazelcast.internal.nio.IOUtil.writeVarLong;
 
 /**
  * Used when reading and writing records
@@ -35,6 +41,10 @@ public enum RecordReaderWriter {
         void writeRecord(ObjectDataOutput out,
                          Record record, Data dataValue) throws IOException {
             writeData(out, dataValue);
+            if (isVarIntEncoded(out)) {
+                writeVarIntMetadata(out, record, false);
+                return;
+            }
             out.writeInt(record.getRawTtl());
             out.writeInt(record.getRawMaxIdle());
             out.writeInt(record.getRawCreationTime());
@@ -48,6 +58,10 @@ public enum RecordReaderWriter {
         Record readRecord(ObjectDataInput in) throws IOException {
             DataRecord record = new DataRecord();
             record.setValue(readData(in));
+            if (isVarIntEncoded(in)) {
+                readVarIntMetadata(in, record, false);
+                return record;
+            }
             record.setRawTtl(in.readInt());
             record.setRawMaxIdle(in.readInt());
             record.setRawCreationTime(in.readInt());
@@ -64,6 +78,10 @@ public enum RecordReaderWriter {
         void writeRecord(ObjectDataOutput out,
                          Record record, Data dataValue) throws IOException {
             writeData(out, dataValue);
+            if (isVarIntEncoded(out)) {
+                writeVarIntMetadata(out, record, true);
+                return;
+            }
             out.writeInt(record.getRawTtl());
             out.writeInt(record.getRawMaxIdle());
             out.writeInt(record.getRawCreationTime());
@@ -79,6 +97,10 @@ public enum RecordReaderWriter {
         Record readRecord(ObjectDataInput in) throws IOException {
             DataRecordWithStats record = new DataRecordWithStats();
             record.setValue(readData(in));
+            if (isVarIntEncoded(in)) {
+                readVarIntMetadata(in, record, true);
+                return record;
+            }
             record.setRawTtl(in.readInt());
             record.setRawMaxIdle(in.readInt());
             record.setRawCreationTime(in.readInt());
@@ -122,4 +144,99 @@ public enum RecordReaderWriter {
                               Record record, Data dataValue) throws IOException;
 
     abstract Record readRecord(ObjectDataInput in) throws IOException;
+
+    /**
+     * From 4.1 on the record metadata is written as var ints and the
+     * timestamps, except the creation time, as deltas to the creation
+     * time. A byte of 2-bit kinds marks the timestamps which are unset or
+     * "never", those have no delta. A typical record takes 11-12 bytes of
+     * metadata instead of 32-40. Only the
+     * {@link com.hazelcast.nio.serialization.impl.Versioned} callers of
+     * {@link Records#writeRecord} get the cluster version on the stream.
+     */
+    private static boolean isVarIntEncoded(VersionAware stream) {
+        return stream.getVersion().isGreaterOrEqual(Versions.V4_1);
+    }
+
+    private static void writeVarIntMetadata(ObjectDataOutput out, Record record, boolean withStats) throws IOException {
+        int creationTime = record.getRawCreationTime();
+        writeVarInt(out, record.getRawTtl());
+        writeVarInt(out, record.getRawMaxIdle());
+        out.writeInt(creationTime);
+        writeVarInt(out, record.getHits());
+        writeVarLong(out, record.getVersion());
+        int kinds = TimeKind.of(record.getRawLastAccessTime(), TimeKind.LAST_ACCESS_TIME_SLOT)
+                | TimeKind.of(record.getRawLastUpdateTime(), TimeKind.LAST_UPDATE_TIME_SLOT);
+        if (withStats) {
+            kinds |= TimeKind.of(record.getRawLastStoredTime(), TimeKind.LAST_STORED_TIME_SLOT)
+                    | TimeKind.of(record.getRawExpirationTime(), TimeKind.EXPIRATION_TIME_SLOT);
+        }
+        out.writeByte(kinds);
+        writeTime(out, record.getRawLastAccessTime(), creationTime);
+        writeTime(out, record.getRawLastUpdateTime(), creationTime);
+        if (withStats) {
+            writeTime(out, record.getRawLastStoredTime(), creationTime);
+            writeTime(out, record.getRawExpirationTime(), creationTime);
+        }
+    }
+
+    private static void readVarIntMetadata(ObjectDataInput in, Record record, boolean withStats) throws IOException {
+        record.setRawTtl(readVarInt(in));
+        record.setRawMaxIdle(readVarInt(in));
+        int creationTime = in.readInt();
+        record.setRawCreationTime(creationTime);
+        record.setHits(readVarInt(in));
+        record.setVersion(readVarLong(in));
+        int kinds = in.readUnsignedByte();
+        record.setRawLastAccessTime(readTime(in, kinds, TimeKind.LAST_ACCESS_TIME_SLOT, creationTime));
+        record.setRawLastUpdateTime(readTime(in, kinds, TimeKind.LAST_UPDATE_TIME_SLOT, creationTime));
+        if (withStats) {
+            record.setRawLastStoredTime(readTime(in, kinds, TimeKind.LAST_STORED_TIME_SLOT, creationTime));
+            record.setRawExpirationTime(readTime(in, kinds, TimeKind.EXPIRATION_TIME_SLOT, creationTime));
+        }
+    }
+
+    private static void writeTime(ObjectDataOutput out, int rawTime, int creationTime) throws IOException {
+        if (TimeKind.of(rawTime, 0) == TimeKind.DELTA) {
+            writeVarInt(out, rawTime - creationTime);
+        }
+    }
+
+    private static int readTime(ObjectDataInput in, int kinds, int slot, int creationTime) throws IOException {
+        int kind = (kinds >>> (slot * TimeKind.BITS)) & TimeKind.MASK;
+        if (kind == TimeKind.UNSET) {
+            return Record.UNSET;
+        }
+        return kind == TimeKind.NEVER ? Integer.MAX_VALUE : creationTime + readVarInt(in);
+    }
+
+    /**
+     * 2-bit kinds of the var int encoded timestamps, packed into a byte
+     * by the slot of the timestamp.
+     */
+    private static final class TimeKind {
+        private static final int DELTA = 0;
+        private static final int UNSET = 1;
+        private static final int NEVER = 2;
+        private static final int BITS = 2;
+        private static final int MASK = 3;
+
+        private static final int LAST_ACCESS_TIME_SLOT = 0;
+        private static final int LAST_UPDATE_TIME_SLOT = 1;
+        private static final int LAST_STORED_TIME_SLOT = 2;
+        private static final int EXPIRATION_TIME_SLOT = 3;
+
+        private TimeKind() {
+        }
+
+        static int of(int rawTime, int slot) {
+            int kind = DELTA;
+            if (rawTime == Record.UNSET) {
+                kind = UNSET;
+            } else if (rawTime == Integer.MAX_VALUE) {
+                kind = NEVER;
+            }
+            return kind << (slot * BITS);
+        }
+    }
 }
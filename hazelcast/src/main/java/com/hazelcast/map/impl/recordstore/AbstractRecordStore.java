@@ -105,6 +105,11 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
             addJsonMetadataMutationObserver();
         }
 
+        // Add observer for the cache of deserialized immutable values
+        if (mapContainer.getDeserializedValueCache() != null) {
+            mutationObserver.add(new DeserializedValueCacheMutationObserver(mapContainer.getDeserializedValueCache()));
+        }
+
         // Add observer for indexing
         indexingObserver = new IndexingMutationObserver<>(this, serializationService);
         mutationObserver.add(indexingObserver);
@@ -113,7 +118,7 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     // Overridden in EE.
     protected void addJsonMetadataMutationObserver() {
         mutationObserver.add(new JsonMetadataMutationObserver(serializationService,
-                JsonMetadataInitializer.INSTANCE));
+                new JsonMetadataInitializer(mapContainer.getJsonShapes())));
     }
 
     public IndexingMutationObserver<Record> getIndexingObserver() {
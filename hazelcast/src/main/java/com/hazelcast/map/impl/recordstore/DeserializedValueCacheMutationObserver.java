@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.DeserializedValueCache;
+import com.hazelcast.map.impl.record.Record;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Removes the replaced and removed values of a map with immutable values
+ * from the {@link DeserializedValueCache}.
+ */
+public class DeserializedValueCacheMutationObserver implements MutationObserver<Record> {
+
+    private final DeserializedValueCache deserializedValueCache;
+
+    public DeserializedValueCacheMutationObserver(DeserializedValueCache deserializedValueCache) {
+        this.deserializedValueCache = deserializedValueCache;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        deserializedValueCache.invalidate(oldValue);
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        // NOP
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record, Object oldValue, Object newValue, boolean backup) {
+        if (oldValue != newValue) {
+            deserializedValueCache.invalidate(oldValue);
+        }
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record) {
+        if (record != null) {
+            deserializedValueCache.invalidate(record.getValue());
+        }
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record) {
+        deserializedValueCache.invalidate(record.getValue());
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        // NOP
+    }
+
+    @Override
+    public void onReset() {
+        // NOP
+    }
+
+    @Override
+    public void onClear() {
+        // NOP, the values of the cleared entries age out of the cache
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        // NOP, the values of the destroyed entries age out of the cache
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.io.IOException;
+
+/**
+ * Provides a mean of reading the fields of an object written in the compact
+ * format. The fields can be read in any order; a field is located through
+ * the offsets of the schema, without reading the preceding fields.
+ * <p>
+ * Reading a field which is not in the schema of the object, or reading it
+ * as a different type than it was written with, fails with a
+ * {@link HazelcastSerializationException}. Use {@link #hasField(String)}
+ * to read objects written by an older version of a serializer.
+ *
+ * @see CompactSerializer
+ * @since 4.1
+ */
+@Beta
+public interface CompactReader {
+
+    /**
+     * @param fieldName name of the field (does not support nested paths)
+     * @return {@code true} if the field exists in the schema of the object read
+     */
+    boolean hasField(String fieldName);
+
+    /**
+     * Reads a primitive boolean.
+     *
+     * @param fieldName name of the field
+     * @return the value read
+     * @throws IOException in case of any exceptional case
+     */
+    boolean readBoolean(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive byte.
+     *
+     * @param fieldName name of the field
+     * @return the value read
+     * @throws IOException in case of any exceptional case
+     */
+    byte readByte(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive char.
+     *
+     * @param fieldName name of the field
+     * @return the value read
+     * @throws IOException in case of any exceptional case
+     */
+    char readChar(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive short.
+     *
+     * @param fieldName name of the field
+     * @return the value read
+     * @throws IOException in case of any exceptional case
+     */
+    short readShort(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive int.
+     *
+     * @param fieldName name of the field
+     * @return the value read
+     * @throws IOException in case of any exceptional case
+     */
+    int readInt(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive long.
+     *
+     * @param fieldName name of the field
+     * @return the value read
+     * @throws IOException in case of any exceptional case
+     */
+    long readLong(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive float.
+     *
+     * @param fieldName name of the field
+     * @return the value read
+     * @throws IOException in case of any exceptional case
+     */
+    float readFloat(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive double.
+     *
+     * @param fieldName name of the field
+     * @return the value read
+     * @throws IOException in case of any exceptional case
+     */
+    double readDouble(String fieldName) throws IOException;
+
+    /**
+     * Reads an UTF string.
+     *
+     * @param fieldName name of the field
+     * @return the utf string read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    String readUTF(String fieldName) throws IOException;
+
+    /**
+     * Reads a nested object written in the compact format.
+     *
+     * @param fieldName name of the field
+     * @param <T>       type of the object
+     * @return the object read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    <T> T readCompact(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive boolean array.
+     *
+     * @param fieldName name of the field
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    boolean[] readBooleanArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive byte array.
+     *
+     * @param fieldName name of the field
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    byte[] readByteArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive char array.
+     *
+     * @param fieldName name of the field
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    char[] readCharArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive short array.
+     *
+     * @param fieldName name of the field
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    short[] readShortArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive int array.
+     *
+     * @param fieldName name of the field
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    int[] readIntArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive long array.
+     *
+     * @param fieldName name of the field
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    long[] readLongArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive float array.
+     *
+     * @param fieldName name of the field
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    float[] readFloatArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive double array.
+     *
+     * @param fieldName name of the field
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    double[] readDoubleArray(String fieldName) throws IOException;
+
+    /**
+     * Reads an array of UTF strings.
+     *
+     * @param fieldName name of the field
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    String[] readUTFArray(String fieldName) throws IOException;
+
+    /**
+     * Reads an array of nested objects written in the compact format.
+     *
+     * @param fieldName     name of the field
+     * @param componentType component type of the returned array
+     * @param <T>           type of the elements
+     * @return the array read, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    <T> T[] readCompactArray(String fieldName, Class<T> componentType) throws IOException;
+}
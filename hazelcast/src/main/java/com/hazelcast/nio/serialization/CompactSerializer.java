@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.io.IOException;
+
+/**
+ * Serializes and deserializes objects of a class in the compact format.
+ * <p>
+ * Unlike a {@link Portable}, the class does not need to implement any
+ * interface and no factory is required: the serializer is registered
+ * together with the class and a type name in the
+ * {@link com.hazelcast.config.CompactSerializationConfig}. A class can
+ * also be registered without a serializer, in which case its fields are
+ * read and written through reflection.
+ * <p>
+ * The fields written for an object form the schema of the type. The
+ * schema is replicated to the cluster once and the serialized form only
+ * carries its fingerprint, so no field names or class metadata are
+ * written per object. The serializer must write the same fields, in any
+ * order, for all objects of the type.
+ *
+ * @param <T> type of the serialized objects
+ * @see CompactWriter
+ * @see CompactReader
+ * @since 4.1
+ */
+@Beta
+public interface CompactSerializer<T> {
+
+    /**
+     * Reads the fields of an object and creates the object.
+     *
+     * @param in reader to read the fields from
+     * @return the object read
+     * @throws IOException in case of any exceptional case
+     */
+    T read(CompactReader in) throws IOException;
+
+    /**
+     * Writes the fields of the given object.
+     *
+     * @param out    writer to write the fields to
+     * @param object the object to write
+     * @throws IOException in case of any exceptional case
+     */
+    void write(CompactWriter out, T object) throws IOException;
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.io.IOException;
+
+/**
+ * Provides a mean of writing the fields of an object in the compact format,
+ * in form of java primitives, arrays of java primitives, strings and nested
+ * compact objects.
+ *
+ * @see CompactSerializer
+ * @since 4.1
+ */
+@Beta
+public interface CompactWriter {
+
+    /**
+     * Writes a primitive boolean.
+     *
+     * @param fieldName name of the field
+     * @param value     value to be written
+     * @throws IOException in case of any exceptional case
+     */
+    void writeBoolean(String fieldName, boolean value) throws IOException;
+
+    /**
+     * Writes a primitive byte.
+     *
+     * @param fieldName name of the field
+     * @param value     value to be written
+     * @throws IOException in case of any exceptional case
+     */
+    void writeByte(String fieldName, byte value) throws IOException;
+
+    /**
+     * Writes a primitive char.
+     *
+     * @param fieldName name of the field
+     * @param value     value to be written
+     * @throws IOException in case of any exceptional case
+     */
+    void writeChar(String fieldName, char value) throws IOException;
+
+    /**
+     * Writes a primitive short.
+     *
+     * @param fieldName name of the field
+     * @param value     value to be written
+     * @throws IOException in case of any exceptional case
+     */
+    void writeShort(String fieldName, short value) throws IOException;
+
+    /**
+     * Writes a primitive int.
+     *
+     * @param fieldName name of the field
+     * @param value     value to be written
+     * @throws IOException in case of any exceptional case
+     */
+    void writeInt(String fieldName, int value) throws IOException;
+
+    /**
+     * Writes a primitive long.
+     *
+     * @param fieldName name of the field
+     * @param value     value to be written
+     * @throws IOException in case of any exceptional case
+     */
+    void writeLong(String fieldName, long value) throws IOException;
+
+    /**
+     * Writes a primitive float.
+     *
+     * @param fieldName name of the field
+     * @param value     value to be written
+     * @throws IOException in case of any exceptional case
+     */
+    void writeFloat(String fieldName, float value) throws IOException;
+
+    /**
+     * Writes a primitive double.
+     *
+     * @param fieldName name of the field
+     * @param value     value to be written
+     * @throws IOException in case of any exceptional case
+     */
+    void writeDouble(String fieldName, double value) throws IOException;
+
+    /**
+     * Writes an UTF string.
+     *
+     * @param fieldName name of the field
+     * @param value     utf string value to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeUTF(String fieldName, String value) throws IOException;
+
+    /**
+     * Writes a nested object in the compact format. The class of the
+     * object must be registered for compact serialization.
+     *
+     * @param fieldName name of the field
+     * @param value     object to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeCompact(String fieldName, Object value) throws IOException;
+
+    /**
+     * Writes a primitive boolean array.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeBooleanArray(String fieldName, boolean[] values) throws IOException;
+
+    /**
+     * Writes a primitive byte array.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeByteArray(String fieldName, byte[] values) throws IOException;
+
+    /**
+     * Writes a primitive char array.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeCharArray(String fieldName, char[] values) throws IOException;
+
+    /**
+     * Writes a primitive short array.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeShortArray(String fieldName, short[] values) throws IOException;
+
+    /**
+     * Writes a primitive int array.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeIntArray(String fieldName, int[] values) throws IOException;
+
+    /**
+     * Writes a primitive long array.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeLongArray(String fieldName, long[] values) throws IOException;
+
+    /**
+     * Writes a primitive float array.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeFloatArray(String fieldName, float[] values) throws IOException;
+
+    /**
+     * Writes a primitive double array.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeDoubleArray(String fieldName, double[] values) throws IOException;
+
+    /**
+     * Writes an array of UTF strings.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeUTFArray(String fieldName, String[] values) throws IOException;
+
+    /**
+     * Writes an array of nested objects in the compact format. The
+     * elements can be {@code null} and of different registered classes.
+     *
+     * @param fieldName name of the field
+     * @param values    array to be written, can be {@code null}
+     * @throws IOException in case of any exceptional case
+     */
+    void writeCompactArray(String fieldName, Object[] values) throws IOException;
+}
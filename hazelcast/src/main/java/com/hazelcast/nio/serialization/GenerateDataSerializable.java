@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link IdentifiedDataSerializable} class whose field codec is
+ * generated at build time by the {@code hazelcast-codegen} annotation
+ * processor.
+ * <p>
+ * For a class {@code Person} the processor generates a {@code PersonCodec}
+ * class in the same package with the {@code FACTORY_ID} and {@code CLASS_ID}
+ * constants and with static {@code writeData} and {@code readData} methods
+ * the class delegates to:
+ * <pre>
+ * &#64;GenerateDataSerializable(factoryId = 1, classId = 1)
+ * public class Person implements IdentifiedDataSerializable {
+ *     String name;
+ *     int age;
+ *
+ *     public void writeData(ObjectDataOutput out) throws IOException {
+ *         PersonCodec.writeData(out, this);
+ *     }
+ *
+ *     public void readData(ObjectDataInput in) throws IOException {
+ *         PersonCodec.readData(in, this);
+ *     }
+ *
+ *     public int getFactoryId() {
+ *         return PersonCodec.FACTORY_ID;
+ *     }
+ *
+ *     public int getClassId() {
+ *         return PersonCodec.CLASS_ID;
+ *     }
+ * }
+ * </pre>
+ * The processor also generates a {@link DataSerializableFactory} named
+ * {@code GeneratedDataSerializableFactory<factoryId>} for every factory id,
+ * which creates the annotated classes of that factory. It is registered
+ * like any other factory, e.g.:
+ * <pre>
+ * config.getSerializationConfig().addDataSerializableFactory(PersonCodec.FACTORY_ID,
+ *         new GeneratedDataSerializableFactory1());
+ * </pre>
+ * The factory id must not be used by any other factory.
+ * <p>
+ * All non-static, non-transient fields of the class and its superclasses
+ * are serialized in declaration order, superclass fields first. Fields
+ * which are not accessible from the package of the class are read and
+ * written through their getters and setters. The class needs a no-arg
+ * constructor.
+ *
+ * @see GenerateStreamSerializer
+ * @since 4.1
+ */
+@Beta
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateDataSerializable {
+
+    /**
+     * Returns the id of the {@link DataSerializableFactory} which creates
+     * the class.
+     *
+     * @return the factory id
+     */
+    int factoryId();
+
+    /**
+     * Returns the id of the class within its factory.
+     *
+     * @return the class id
+     */
+    int classId();
+}
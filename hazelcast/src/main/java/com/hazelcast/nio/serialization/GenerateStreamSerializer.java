@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a plain class for which a {@link StreamSerializer} is generated at
+ * build time by the {@code hazelcast-codegen} annotation processor.
+ * <p>
+ * For a class {@code Person} the processor generates a {@code PersonCodec}
+ * class with the field codec, a {@code PersonSerializer} and a
+ * {@link SerializerHook} which registers the serializer automatically
+ * through a {@code META-INF/services} file, so the class does not need to
+ * implement any Hazelcast interface.
+ * <p>
+ * All non-static, non-transient fields of the class and its superclasses
+ * are serialized in declaration order, superclass fields first. Fields
+ * which are not accessible from the package of the class are read and
+ * written through their getters and setters. The class needs a no-arg
+ * constructor.
+ *
+ * @see GenerateDataSerializable
+ * @since 4.1
+ */
+@Beta
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateStreamSerializer {
+
+    /**
+     * Returns the type id of the generated serializer, which must be
+     * positive and unique among the custom serializers.
+     *
+     * @return the type id
+     * @see StreamSerializer#getTypeId()
+     */
+    int typeId();
+}
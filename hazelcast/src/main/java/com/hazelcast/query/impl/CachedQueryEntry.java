@@ -18,6 +18,7 @@ package com.hazelcast.query.impl;
 
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.DeserializedValueCache;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.impl.getters.Extractors;
 
@@ -35,6 +36,8 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> {
     protected K keyObject;
     protected V valueObject;
 
+    protected DeserializedValueCache deserializedValueCache;
+
     public CachedQueryEntry() {
     }
 
@@ -64,6 +67,16 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> {
         return this;
     }
 
+    /**
+     * Makes this entry deserialize the value through the given cache, for
+     * the maps with immutable values. Unlike the other fields, the cache is
+     * kept when the entry is reinitialized.
+     */
+    public CachedQueryEntry<K, V> setDeserializedValueCache(DeserializedValueCache deserializedValueCache) {
+        this.deserializedValueCache = deserializedValueCache;
+        return this;
+    }
+
     @Override
     public K getKey() {
         if (keyObject == null) {
@@ -75,7 +88,8 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> {
     @Override
     public V getValue() {
         if (valueObject == null) {
-            valueObject = serializationService.toObject(valueData);
+            valueObject = deserializedValueCache == null
+                    ? serializationService.toObject(valueData) : deserializedValueCache.toObject(valueData);
         }
         return valueObject;
     }
@@ -20,13 +20,17 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.JsonTokenId;
 import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.json.JsonReducedValueParser;
 import com.hazelcast.internal.json.JsonValue;
 import com.hazelcast.internal.json.NonTerminalJsonValue;
+import com.hazelcast.internal.json.ParseException;
 import com.hazelcast.internal.serialization.impl.NavigableJsonInputAdapter;
 import com.hazelcast.internal.util.collection.WeightedEvictableList.WeightedItem;
+import com.hazelcast.json.internal.JsonIndex;
 import com.hazelcast.json.internal.JsonPattern;
 import com.hazelcast.json.internal.JsonSchemaHelper;
 import com.hazelcast.json.internal.JsonSchemaNode;
+import com.hazelcast.json.internal.JsonShape;
 
 import java.io.IOException;
 import java.util.List;
@@ -149,6 +153,9 @@ public abstract class AbstractJsonGetter extends Getter {
         if (metadata == null) {
             return getValue(obj, attributePath);
         }
+        if (metadata instanceof JsonIndex) {
+            return getValue(obj, attributePath, (JsonIndex) metadata);
+        }
         JsonSchemaNode schemaNode = (JsonSchemaNode) metadata;
 
         NavigableJsonInputAdapter adapter = annotate(obj);
@@ -179,6 +186,31 @@ public abstract class AbstractJsonGetter extends Getter {
         return null;
     }
 
+    /**
+     * Jumps straight to the value the path points to, using the offsets
+     * in the index. The path is resolved against the shape of the document
+     * and the resolution is cached in the shape, which is shared by all
+     * the documents of the same structure.
+     */
+    private Object getValue(Object obj, String attributePath, JsonIndex index) throws IOException {
+        int ordinal = index.getShape().resolve(attributePath);
+        switch (ordinal) {
+            case JsonShape.NOT_FOUND:
+                return null;
+            case JsonShape.NON_TERMINAL:
+                return NonTerminalJsonValue.INSTANCE;
+            case JsonShape.MULTI_VALUE:
+                return getValue(obj, attributePath);
+            default:
+                try {
+                    JsonValue value = annotate(obj).parseValue(new JsonReducedValueParser(), index.getValueOffset(ordinal));
+                    return convertFromJsonValue(value);
+                } catch (ParseException parseException) {
+                    throw new HazelcastException(parseException);
+                }
+        }
+    }
+
     @Override
     Class getReturnType() {
         throw new IllegalArgumentException("Non applicable for Json getters");
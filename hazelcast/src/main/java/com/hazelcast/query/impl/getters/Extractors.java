@@ -43,6 +43,7 @@ public final class Extractors {
     private static final float EVICTION_PERCENTAGE = 0.2f;
 
     private volatile PortableGetter genericPortableGetter;
+    private volatile CompactGetter compactGetter;
     private volatile JsonDataGetter jsonDataGetter;
 
     /**
@@ -86,6 +87,7 @@ public final class Extractors {
      * <ul>
      *     <li>a portable object either in Data form or Object form</li>
      *     <li>a {@link HazelcastJsonValue} in Data form</li>
+     *     <li>an object serialized in the compact format in Data form</li>
      * </ul>
      * Otherwise, returns object form.
      *
@@ -101,7 +103,7 @@ public final class Extractors {
         }
         if (target instanceof Data) {
             targetData = (Data) target;
-            if (targetData.isPortable() || targetData.isJson()) {
+            if (targetData.isPortable() || targetData.isJson() || targetData.isCompact()) {
                 return targetData;
             } else {
                 // convert non-portable Data to object
@@ -143,6 +145,12 @@ public final class Extractors {
                         jsonDataGetter = new JsonDataGetter(ss);
                     }
                     return jsonDataGetter;
+                } else if (((Data) targetObject).isCompact()) {
+                    if (compactGetter == null) {
+                        // will be initialised a couple of times in the worst case
+                        compactGetter = new CompactGetter(ss);
+                    }
+                    return compactGetter;
                 } else {
                     throw new HazelcastSerializationException("No Data getter found for type " + ((Data) targetObject).getType());
                 }
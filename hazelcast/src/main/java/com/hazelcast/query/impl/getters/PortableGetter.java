@@ -19,6 +19,7 @@ package com.hazelcast.query.impl.getters;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.PortableContext;
 import com.hazelcast.internal.serialization.impl.DefaultPortableReader;
+import com.hazelcast.internal.serialization.impl.PortableFieldNavigator;
 import com.hazelcast.nio.serialization.ClassDefinition;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.nio.serialization.FieldDefinition;
@@ -27,15 +28,22 @@ import com.hazelcast.nio.serialization.PortableReader;
 final class PortableGetter extends Getter {
 
     private final InternalSerializationService serializationService;
+    private final PortableFieldNavigator navigator;
 
     PortableGetter(InternalSerializationService serializationService) {
         super(null);
         this.serializationService = serializationService;
+        this.navigator = serializationService == null ? null : new PortableFieldNavigator(serializationService);
     }
 
     @Override
     Object getValue(Object target, String fieldPath) throws Exception {
         Data data = (Data) target;
+        Object value = navigator == null ? PortableFieldNavigator.NOT_NAVIGABLE : navigator.read(data, fieldPath);
+        if (value != PortableFieldNavigator.NOT_NAVIGABLE) {
+            return value;
+        }
+
         PortableContext context = serializationService.getPortableContext();
         PortableReader reader = serializationService.createPortableReader(data);
         ClassDefinition classDefinition = context.lookupClassDefinition(data);
@@ -442,6 +442,8 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            // the operation got deserialized and processed, so the payload can be reused
+            packet.release();
         }
     }
 
@@ -18,8 +18,13 @@ package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.cluster.Address;
 import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.networking.TrafficClass;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.StringRanges;
+import com.hazelcast.internal.partition.operation.MigrationOperation;
+import com.hazelcast.internal.partition.operation.PartitionReplicaSyncResponse;
 import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.internal.server.tcp.PacketStringDictionary;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.spi.impl.operationservice.Operation;
 
@@ -48,18 +53,31 @@ public class OutboundOperationHandler {
             throw new IllegalArgumentException("Target is this node! -> " + target + ", op: " + op);
         }
 
-        ServerConnection connection = node.getServer().getConnectionManager(MEMBER).getOrConnect(target);
+        ServerConnection connection = node.getServer().getConnectionManager(MEMBER).getOrConnect(target, op.getPartitionId());
         return send(op, connection);
     }
 
     public boolean send(Operation op, ServerConnection connection) {
-        byte[] bytes = serializationService.toBytes(op);
-        int partitionId = op.getPartitionId();
-        Packet packet = new Packet(bytes, partitionId).setPacketType(Packet.Type.OPERATION);
+        PacketStringDictionary dictionary = PacketStringDictionary.get(connection);
+        Packet packet;
+        if (dictionary != null && dictionary.isEnabled()) {
+            // the ranges of the strings let the connection replace them with references to its dictionary
+            StringRanges stringRanges = new StringRanges();
+            byte[] bytes = serializationService.toBytes(op, stringRanges);
+            packet = new Packet(bytes, op.getPartitionId()).setStringRanges(stringRanges);
+        } else {
+            packet = new Packet(serializationService.toBytes(op), op.getPartitionId());
+        }
+        packet.setPacketType(Packet.Type.OPERATION);
 
         if (op.isUrgent()) {
             packet.raiseFlags(FLAG_URGENT);
         }
+        if (op instanceof MigrationOperation || op instanceof PartitionReplicaSyncResponse) {
+            // the partition data is queued with the migration traffic class when fair queuing is
+            // enabled, even though these operations are urgent
+            packet.setTrafficClass(TrafficClass.MIGRATION);
+        }
 
         return node.getConnectionManager(MEMBER).transmit(packet, connection);
     }
@@ -115,7 +115,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         Packet packet = newResponsePacket(bytes, response.isUrgent());
 
-        return transmit(target, packet, connectionManager);
+        return transmit(target, packet, response.getCallId(), connectionManager);
     }
 
     private boolean sendNormalResponse(ServerConnectionManager connectionManager, Address target, long callId,
@@ -124,7 +124,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         Packet packet = toNormalResponsePacket(callId, (byte) backupAcks, urgent, value);
 
-        return transmit(target, packet, connectionManager);
+        return transmit(target, packet, callId, connectionManager);
     }
 
     Packet toNormalResponsePacket(long callId, int backupAcks, boolean urgent, Object value) {
@@ -169,7 +169,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         Packet packet = toBackupAckPacket(callId, urgent);
 
-        transmit(target, packet, connectionManager);
+        transmit(target, packet, callId, connectionManager);
     }
 
     Packet toBackupAckPacket(long callId, boolean urgent) {
@@ -208,8 +208,9 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return packet;
     }
 
-    private boolean transmit(Address target, Packet packet, ServerConnectionManager connectionManager) {
-        return connectionManager.transmit(packet, target);
+    private boolean transmit(Address target, Packet packet, long callId, ServerConnectionManager connectionManager) {
+        // responses don't need to be ordered, so they are spread over all connections to the target by call ID
+        return connectionManager.transmit(packet, target, (int) callId);
     }
 
     private void checkTarget(Address target) {
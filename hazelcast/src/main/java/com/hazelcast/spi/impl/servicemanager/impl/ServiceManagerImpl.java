@@ -40,6 +40,7 @@ import com.hazelcast.internal.locksupport.LockSupportServiceImpl;
 import com.hazelcast.internal.metrics.impl.MetricsService;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.internal.partition.InternalPartitionService;
+import com.hazelcast.internal.serialization.impl.compact.MemberSchemaService;
 import com.hazelcast.internal.services.ConfigurableService;
 import com.hazelcast.internal.services.ManagedService;
 import com.hazelcast.internal.util.ServiceLoader;
@@ -126,6 +127,7 @@ public final class ServiceManagerImpl implements ServiceManager {
         registerService(SplitBrainProtectionServiceImpl.SERVICE_NAME, nodeEngine.getSplitBrainProtectionService());
         registerService(WanReplicationService.SERVICE_NAME, nodeEngine.getWanReplicationService());
         registerService(EventServiceImpl.SERVICE_NAME, nodeEngine.getEventService());
+        registerService(MemberSchemaService.SERVICE_NAME, node.getSchemaService());
     }
 
     private void registerExtensionServices() {
@@ -277,6 +277,143 @@ public final class ClusterProperty {
     public static final HazelcastProperty IO_OUTPUT_THREAD_COUNT
             = new HazelcastProperty("hazelcast.io.output.thread.count", IO_THREAD_COUNT);
 
+    /**
+     * The number of parallel connections (planes) between every pair of members.
+     * <p>
+     * A single connection is served by a single socket input and a single socket output thread on each side, which
+     * limits the throughput between two members. With multiple planes the member-to-member traffic is spread over
+     * several connections, each of them with its own pipelines, so that it can be handled by several IO threads.
+     * <p>
+     * Packets are routed to planes by partition ID, so the ordering of the packets of a single partition is preserved.
+     * There are no ordering guarantees between packets of different planes.
+     * <p>
+     * All members of the cluster must be configured with the same value. The default is 1.
+     */
+    public static final HazelcastProperty CHANNEL_COUNT
+            = new HazelcastProperty("hazelcast.channel.count", 1);
+
+    /**
+     * The transport used for the member side networking.
+     * <p>
+     * {@code nio} uses the Java NIO selector based transport. Any other value selects an alternative
+     * transport, e.g. one based on native epoll or io_uring, which is discovered on the classpath as a
+     * {@link com.hazelcast.internal.networking.NetworkingFactory} with that name. {@code auto} selects
+     * the first alternative transport that is available on the current platform.
+     * <p>
+     * If the selected transport isn't available, the NIO transport is used. The default is {@code nio}.
+     */
+    public static final HazelcastProperty IO_TRANSPORT
+            = new HazelcastProperty("hazelcast.io.transport", "nio");
+
+    /**
+     * Enables gathering writes for member-to-member and member-to-client connections.
+     * <p>
+     * By default the outbound pipeline copies every queued packet or client message into a single
+     * send buffer and writes that buffer to the socket. With gathering writes the headers and small
+     * payloads are copied into a scratch buffer, while large payloads are referenced instead of copied,
+     * and all of them are written to the socket with a single gathering write.
+     * <p>
+     * It is disabled by default.
+     *
+     * @see #IO_GATHERING_WRITE_REFERENCE_THRESHOLD
+     */
+    public static final HazelcastProperty IO_GATHERING_WRITE_ENABLED
+            = new HazelcastProperty("hazelcast.io.gathering.write.enabled", false);
+
+    /**
+     * The minimum size in bytes of a payload to be referenced instead of copied when
+     * {@link #IO_GATHERING_WRITE_ENABLED gathering writes} are enabled. It is capped to half of the socket
+     * send buffer size. The default is 8 KB.
+     */
+    public static final HazelcastProperty IO_GATHERING_WRITE_REFERENCE_THRESHOLD
+            = new HazelcastProperty("hazelcast.io.gathering.write.reference.threshold.bytes", 8192);
+
+    /**
+     * Enables the pooling of the socket buffers of the member connections.
+     *
+     * By default every connection owns its receive and send buffers, sized by
+     * {@link #SOCKET_RECEIVE_BUFFER_SIZE} and {@link #SOCKET_SEND_BUFFER_SIZE}. With many mostly
+     * idle connections (e.g. clients), that adds up to a lot of memory. When enabled, the buffers are
+     * lent from pools owned by the IO threads while there is data in flight, and returned once drained.
+     *
+     * The buffers of connections using {@link #IO_GATHERING_WRITE_ENABLED gathering writes} for
+     * sending aren't pooled. It is disabled by default.
+     */
+    public static final HazelcastProperty IO_BUFFER_POOL_ENABLED
+            = new HazelcastProperty("hazelcast.io.buffer.pool.enabled", false);
+
+    /**
+     * Enables the compression of the packets sent over member to member connections.
+     *
+     * Packets are compressed with deflate; each connection keeps its compression history, so the
+     * previously sent packets act as a dictionary for the next ones. Packets smaller than
+     * {@link #IO_COMPRESSION_THRESHOLD} are sent uncompressed. A connection only compresses
+     * when both members have compression enabled, so it can be enabled on a running cluster
+     * member by member. It trades CPU time for network bandwidth and is disabled by default.
+     */
+    public static final HazelcastProperty IO_COMPRESSION_ENABLED
+            = new HazelcastProperty("hazelcast.io.compression.enabled", false);
+
+    /**
+     * The minimum payload size in bytes of a packet to be compressed when
+     * {@link #IO_COMPRESSION_ENABLED compression} is enabled. The default is 1 KB.
+     */
+    public static final HazelcastProperty IO_COMPRESSION_THRESHOLD
+            = new HazelcastProperty("hazelcast.io.compression.threshold.bytes", 1024);
+
+    /**
+     * Enables the string dictionary of the member to member connections.
+     *
+     * The strings written while serializing an operation, like the names of the distributed
+     * objects and services, are mostly the same from one operation to the next. When enabled,
+     * each connection keeps a dictionary of the recently sent strings, and a string found in it
+     * is sent as a reference to its entry instead of in full. Packets split into fragments are
+     * sent as they are. A connection only uses the dictionary when both members have it enabled,
+     * so it can be enabled on a running cluster member by member. It is disabled by default.
+     */
+    public static final HazelcastProperty IO_STRING_DICTIONARY_ENABLED
+            = new HazelcastProperty("hazelcast.io.string.dictionary.enabled", false);
+
+    /**
+     * The maximum number of strings in the dictionary of a member to member connection when the
+     * {@link #IO_STRING_DICTIONARY_ENABLED string dictionary} is enabled. When the dictionary is
+     * full, the strings which were not referenced recently are evicted. The default is 512.
+     */
+    public static final HazelcastProperty IO_STRING_DICTIONARY_SIZE
+            = new HazelcastProperty("hazelcast.io.string.dictionary.size", 512);
+
+    /**
+     * Enables the pooling of the payloads of the packets received over member to member connections.
+     *
+     * By default every received packet gets a newly allocated payload. When enabled, the payloads of
+     * operation packets are returned to a per-connection pool once the operation is deserialized and
+     * processed, and reused for subsequent packets of the same size. This lowers the allocation rate
+     * for workloads with many small operations of recurring sizes. It is disabled by default.
+     */
+    public static final HazelcastProperty IO_PACKET_PAYLOAD_POOL_ENABLED
+            = new HazelcastProperty("hazelcast.io.packet.payload.pool.enabled", false);
+
+    /**
+     * Enables weighted fair queuing of the frames sent over a connection.
+     *
+     * By default all non urgent frames of a connection share a single FIFO queue, so a burst of large
+     * frames (e.g. migration data) delays the small responses queued behind them. When enabled, the
+     * frames are queued per traffic class (responses, operations, events, migration and bulk data) and
+     * the bandwidth of the connection is shared between the classes according to their weights. On
+     * member to member connections, packets larger than twice {@link #IO_FRAGMENT_SIZE} are
+     * additionally split into fragments, so they don't block the other classes while being written.
+     * Fragmentation is only used when the remote member supports it. It is disabled by default.
+     */
+    public static final HazelcastProperty IO_FAIR_QUEUING_ENABLED
+            = new HazelcastProperty("hazelcast.io.fair.queuing.enabled", false);
+
+    /**
+     * The size in bytes of the fragments large packets are split into when
+     * {@link #IO_FAIR_QUEUING_ENABLED fair queuing} is enabled. The default is 32 KB.
+     */
+    public static final HazelcastProperty IO_FRAGMENT_SIZE
+            = new HazelcastProperty("hazelcast.io.fragment.size.bytes", 32 * 1024);
+
     /**
      * Optimization that allows sending of packets over the network to be done on the calling thread if the
      * conditions are right. This can reduce latency and increase performance for low threaded environments.
@@ -590,6 +727,29 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_EVICTION_BATCH_SIZE
             = new HazelcastProperty("hazelcast.map.eviction.batch.size", 1);
 
+    /**
+     * Maximum number of values kept in the member-wide cache of
+     * deserialized values, which is used by the maps configured with
+     * {@link com.hazelcast.config.MapConfig#setImmutableValues(boolean)
+     * immutable values}. The least recently used values are evicted
+     * when the cache grows beyond this size.
+     *
+     * Default: 10000
+     */
+    public static final HazelcastProperty MAP_DESERIALIZED_VALUE_CACHE_SIZE
+            = new HazelcastProperty("hazelcast.map.deserialized.value.cache.size", 10000);
+
+    /**
+     * Maximum total serialized size in bytes of the values kept in the
+     * member-wide cache of deserialized values, see {@link
+     * #MAP_DESERIALIZED_VALUE_CACHE_SIZE}. Values larger than a tenth
+     * of this limit are not cached at all.
+     *
+     * Default: 64 MB
+     */
+    public static final HazelcastProperty MAP_DESERIALIZED_VALUE_CACHE_MAX_BYTES
+            = new HazelcastProperty("hazelcast.map.deserialized.value.cache.max.bytes", 64 * 1024 * 1024);
+
     /**
      * XML and system property for setting the hot restart required free space.
      * By default, hot restart requires at least 15% free HD space.
@@ -1130,6 +1290,45 @@ public final class ClusterProperty {
     public static final HazelcastProperty METRICS_COLLECTION_FREQUENCY
             = new HazelcastProperty("hazelcast.metrics.collection.frequency");
 
+    /**
+     * Maximum amount of memory all blocking SQL operators of a single query may
+     * consume on a member, in bytes. When the limit is reached, operators which
+     * support it (e.g. sort) spill their state to disk, other operators cancel
+     * the query.
+     */
+    public static final HazelcastProperty SQL_QUERY_MEMORY_LIMIT
+            = new HazelcastProperty("hazelcast.sql.query.memory.limit", String.valueOf(256L * 1024 * 1024));
+
+    /**
+     * Directory for temporary files of SQL operators which spill to disk. When
+     * not set, the default temporary-file directory of the JVM is used.
+     */
+    public static final HazelcastProperty SQL_SPILL_DIRECTORY
+            = new HazelcastProperty("hazelcast.sql.spill.directory");
+
+    /**
+     * Maximum time an SQL query fragment may run on a worker thread before it
+     * yields the thread to fragments of other queries, in milliseconds.
+     */
+    public static final HazelcastProperty SQL_FRAGMENT_QUANTUM_MILLIS
+            = new HazelcastProperty("hazelcast.sql.fragment.quantum.millis", 10, MILLISECONDS);
+
+    /**
+     * Maximum number of rows an SQL query fragment may produce before it
+     * yields the worker thread to fragments of other queries.
+     */
+    public static final HazelcastProperty SQL_FRAGMENT_QUANTUM_ROWS
+            = new HazelcastProperty("hazelcast.sql.fragment.quantum.rows", 16384);
+
+    /**
+     * CPU time an SQL query may consume on a member before its fragments are
+     * moved from the short to the long priority class, in milliseconds. Short
+     * queries are preferred by the fragment scheduler, so that point lookups
+     * are not delayed by large scans.
+     */
+    public static final HazelcastProperty SQL_LONG_QUERY_THRESHOLD_MILLIS
+            = new HazelcastProperty("hazelcast.sql.long.query.threshold.millis", 100, MILLISECONDS);
+
     private ClusterProperty() {
     }
 }
@@ -38,6 +38,12 @@ public final class SqlErrorCode {
     /** Query was cancelled due to timeout. */
     public static final int TIMEOUT = 1004;
 
+    /** Query was cancelled because an operator exceeded its memory limit. */
+    public static final int MEMORY_LIMIT_EXCEEDED = 1005;
+
+    /** Query was cancelled on a participant because the initiator has already produced the whole result. */
+    public static final int RESULT_COMPLETE = 1006;
+
     /** An error with data conversion or transformation. */
     public static final int DATA_EXCEPTION = 2000;
 
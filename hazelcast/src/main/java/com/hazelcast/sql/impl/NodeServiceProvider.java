@@ -33,6 +33,14 @@ public interface NodeServiceProvider extends ClockProvider, LocalMemberIdProvide
      */
     Collection<UUID> getDataMemberIds();
 
+    /**
+     * Get the version of the partition table. The version changes whenever partitions are assigned or migrated, e.g. when
+     * data members join or leave the cluster.
+     *
+     * @return Partition table version.
+     */
+    int getPartitionStateVersion();
+
     /**
      * Get connection to member.
      *
@@ -62,6 +62,11 @@ public class NodeServiceProviderImpl implements NodeServiceProvider {
         return res;
     }
 
+    @Override
+    public int getPartitionStateVersion() {
+        return nodeEngine.getPartitionService().getPartitionStateVersion();
+    }
+
     @Override
     public Connection getConnection(UUID memberId) {
         MemberImpl member = nodeEngine.getClusterService().getMember(memberId);
@@ -77,6 +77,14 @@ public final class QueryException extends HazelcastException {
         return error(SqlErrorCode.TIMEOUT, "Query has been cancelled due to timeout (" + timeout + " ms)");
     }
 
+    public static QueryException memoryLimitExceeded(long limit) {
+        return error(SqlErrorCode.MEMORY_LIMIT_EXCEEDED, "Query has been cancelled due to memory limit (" + limit + " bytes)");
+    }
+
+    public static QueryException resultComplete() {
+        return error(SqlErrorCode.RESULT_COMPLETE, "Query was cancelled because the result is complete");
+    }
+
     public static QueryException cancelledByUser() {
         return error(SqlErrorCode.CANCELLED_BY_USER, "Query was cancelled by user");
     }
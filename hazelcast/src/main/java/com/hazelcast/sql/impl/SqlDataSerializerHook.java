@@ -31,10 +31,15 @@ import com.hazelcast.sql.impl.operation.QueryExecuteOperation;
 import com.hazelcast.sql.impl.operation.QueryExecuteOperationFragment;
 import com.hazelcast.sql.impl.operation.QueryFlowControlExchangeOperation;
 import com.hazelcast.sql.impl.plan.node.FilterPlanNode;
+import com.hazelcast.sql.impl.plan.node.HashJoinPlanNode;
 import com.hazelcast.sql.impl.plan.node.ProjectPlanNode;
 import com.hazelcast.sql.impl.plan.node.RootPlanNode;
+import com.hazelcast.sql.impl.plan.node.SortPlanNode;
+import com.hazelcast.sql.impl.plan.node.io.BroadcastSendPlanNode;
+import com.hazelcast.sql.impl.plan.node.io.MergeSortReceivePlanNode;
 import com.hazelcast.sql.impl.plan.node.io.ReceivePlanNode;
 import com.hazelcast.sql.impl.plan.node.io.RootSendPlanNode;
+import com.hazelcast.sql.impl.plan.node.io.UnicastSendPlanNode;
 import com.hazelcast.sql.impl.row.EmptyRowBatch;
 import com.hazelcast.sql.impl.row.HeapRow;
 import com.hazelcast.sql.impl.row.JoinRow;
@@ -76,7 +81,13 @@ public class SqlDataSerializerHook implements DataSerializerHook {
 
     public static final int EXPRESSION_COLUMN = 18;
 
-    public static final int LEN = EXPRESSION_COLUMN + 1;
+    public static final int NODE_BROADCAST_SEND = 19;
+    public static final int NODE_UNICAST_SEND = 20;
+    public static final int NODE_HASH_JOIN = 21;
+    public static final int NODE_SORT = 22;
+    public static final int NODE_MERGE_SORT_RECEIVE = 23;
+
+    public static final int LEN = NODE_MERGE_SORT_RECEIVE + 1;
 
     @Override
     public int getFactoryId() {
@@ -113,6 +124,12 @@ public class SqlDataSerializerHook implements DataSerializerHook {
 
         constructors[EXPRESSION_COLUMN] = arg -> new ColumnExpression<>();
 
+        constructors[NODE_BROADCAST_SEND] = arg -> new BroadcastSendPlanNode();
+        constructors[NODE_UNICAST_SEND] = arg -> new UnicastSendPlanNode();
+        constructors[NODE_HASH_JOIN] = arg -> new HashJoinPlanNode();
+        constructors[NODE_SORT] = arg -> new SortPlanNode();
+        constructors[NODE_MERGE_SORT_RECEIVE] = arg -> new MergeSortReceivePlanNode();
+
         return new ArrayDataSerializableFactory(constructors);
     }
 }
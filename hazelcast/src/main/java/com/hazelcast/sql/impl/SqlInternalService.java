@@ -18,21 +18,26 @@ package com.hazelcast.sql.impl;
 
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.serialization.InternalSerializationService;
-import com.hazelcast.sql.impl.exec.io.flowcontrol.FlowControlFactory;
-import com.hazelcast.sql.impl.exec.io.flowcontrol.simple.SimpleFlowControlFactory;
+import com.hazelcast.sql.impl.exec.io.flowcontrol.credit.CreditFlowControlFactory;
 import com.hazelcast.sql.impl.exec.root.BlockingRootResultConsumer;
+import com.hazelcast.sql.impl.exec.spill.SpillManager;
 import com.hazelcast.sql.impl.operation.QueryExecuteOperation;
 import com.hazelcast.sql.impl.operation.QueryExecuteOperationFactory;
 import com.hazelcast.sql.impl.operation.QueryOperationHandlerImpl;
 import com.hazelcast.sql.impl.plan.Plan;
+import com.hazelcast.sql.impl.plan.cache.PlanCache;
+import com.hazelcast.sql.impl.plan.cache.PlanCacheKey;
 import com.hazelcast.sql.impl.state.QueryState;
 import com.hazelcast.sql.impl.state.QueryStateRegistry;
 import com.hazelcast.sql.impl.state.QueryStateRegistryUpdater;
+import com.hazelcast.sql.impl.worker.QueryFragmentWorkerPool;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Proxy for SQL service. Backed by either Calcite-based or no-op implementation.
@@ -41,12 +46,24 @@ public class SqlInternalService {
     /** Memory assigned to a single edge mailbox. Will be reworked to dynamic mode when memory manager is implemented. */
     private static final long MEMORY_PER_EDGE_MAILBOX = 512 * 1024;
 
-    /** Default flow control factory. */
-    private static final FlowControlFactory FLOW_CONTROL_FACTORY = SimpleFlowControlFactory.INSTANCE;
+    /** Maximum number of cached plans. */
+    private static final int PLAN_CACHE_SIZE = 10_000;
 
     /** Node service provider. */
     private final NodeServiceProvider nodeServiceProvider;
 
+    /** Serialization service. */
+    private final InternalSerializationService serializationService;
+
+    /** Plans of recently executed queries. */
+    private final PlanCache planCache = new PlanCache(PLAN_CACHE_SIZE);
+
+    /** Flow control factory. */
+    private final CreditFlowControlFactory flowControlFactory = new CreditFlowControlFactory();
+
+    /** Memory quotas and spill files of running queries. */
+    private final SpillManager spillManager;
+
     /** Registry for running queries. */
     private final QueryStateRegistry stateRegistry;
 
@@ -61,11 +78,22 @@ public class SqlInternalService {
         NodeServiceProvider nodeServiceProvider,
         InternalSerializationService serializationService,
         int operationThreadCount,
-        int fragmentThreadCount,
+        QueryFragmentWorkerPool fragmentPool,
         int outboxBatchSize,
+        long operatorMemoryLimit,
+        long queryMemoryLimit,
+        File spillDirectory,
         long stateCheckFrequency
     ) {
         this.nodeServiceProvider = nodeServiceProvider;
+        this.serializationService = serializationService;
+
+        spillManager = new SpillManager(
+            spillDirectory,
+            serializationService,
+            queryMemoryLimit,
+            nodeServiceProvider.getLogger(SpillManager.class)
+        );
 
         // Create state registries since they do not depend on anything.
         stateRegistry = new QueryStateRegistry(nodeServiceProvider);
@@ -77,8 +105,10 @@ public class SqlInternalService {
             serializationService,
             stateRegistry,
             outboxBatchSize,
-            FLOW_CONTROL_FACTORY,
-            fragmentThreadCount,
+            operatorMemoryLimit,
+            flowControlFactory,
+            spillManager,
+            fragmentPool,
             operationThreadCount
         );
 
@@ -93,11 +123,14 @@ public class SqlInternalService {
     }
 
     public void start() {
+        operationHandler.start();
         stateRegistryUpdater.start();
     }
 
     public void reset() {
         stateRegistry.reset();
+        spillManager.reset();
+        planCache.invalidateAll();
     }
 
     public void shutdown() {
@@ -107,6 +140,40 @@ public class SqlInternalService {
         reset();
     }
 
+    /**
+     * Invoked when a map or an index is created or destroyed on the local member.
+     */
+    public void onSchemaChanged() {
+        planCache.invalidateAll();
+    }
+
+    /**
+     * Get the plan of the query from the cache, or create and cache a new one.
+     *
+     * @param sql Query text.
+     * @param params Query parameters.
+     * @param planSupplier Supplier which parses and optimizes the query when there is no valid cached plan.
+     * @return Plan.
+     */
+    public Plan getOrCreatePlan(String sql, List<Object> params, Supplier<Plan> planSupplier) {
+        PlanCacheKey key = PlanCacheKey.create(sql, params);
+
+        // Read the versions before the plan is created, so that a concurrent migration or schema change invalidates
+        // the new plan.
+        int partitionStateVersion = nodeServiceProvider.getPartitionStateVersion();
+        int schemaVersion = planCache.getSchemaVersion();
+
+        Plan plan = planCache.get(key, partitionStateVersion);
+
+        if (plan == null) {
+            plan = planSupplier.get();
+
+            planCache.put(key, plan, partitionStateVersion, schemaVersion);
+        }
+
+        return plan;
+    }
+
     /**
      * Internal query execution routine.
      *
@@ -124,7 +191,9 @@ public class SqlInternalService {
         QueryExecuteOperationFactory operationFactory = new QueryExecuteOperationFactory(
             plan,
             params,
-            createEdgeInitialMemoryMapForPlan(plan)
+            createEdgeInitialMemoryMapForPlan(plan),
+            localMemberId,
+            serializationService
         );
 
         // Register the state.
@@ -191,4 +260,16 @@ public class SqlInternalService {
     public QueryOperationHandlerImpl getOperationHandler() {
         return operationHandler;
     }
+
+    public CreditFlowControlFactory getFlowControlFactory() {
+        return flowControlFactory;
+    }
+
+    public SpillManager getSpillManager() {
+        return spillManager;
+    }
+
+    public PlanCache getPlanCache() {
+        return planCache;
+    }
 }
@@ -18,10 +18,20 @@ package com.hazelcast.sql.impl;
 
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.MapService;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.sql.impl.worker.QueryFragmentWorkerPool;
 
+import java.io.File;
 import java.util.function.Consumer;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_PREFIX_FLOW_CONTROL;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_PREFIX_PLAN_CACHE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_PREFIX_SCHEDULER;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_PREFIX_SPILL;
+
 /**
  * Base SQL service implementation that bridges optimizer implementation, public and private APIs.
  */
@@ -29,12 +39,19 @@ public class SqlServiceImpl implements Consumer<Packet> {
     /** Outbox batch size in bytes. */
     private static final int OUTBOX_BATCH_SIZE = 512 * 1024;
 
+    /** Maximum amount of memory a single blocking operator (e.g. hash join build side) may consume, in bytes. */
+    private static final long OPERATOR_MEMORY_LIMIT = 64 * 1024 * 1024;
+
     /** Default state check frequency. */
     private static final long STATE_CHECK_FREQUENCY = 10_000L;
 
+    private final NodeEngineImpl nodeEngine;
+
     private volatile SqlInternalService internalService;
 
     public SqlServiceImpl(NodeEngineImpl nodeEngine) {
+        this.nodeEngine = nodeEngine;
+
         // These two parameters will be taken from the config, when public API is ready.
         int operationThreadCount = Runtime.getRuntime().availableProcessors();
         int fragmentThreadCount = Runtime.getRuntime().availableProcessors();
@@ -44,18 +61,58 @@ public class SqlServiceImpl implements Consumer<Packet> {
         String instanceName = nodeEngine.getHazelcastInstance().getName();
         InternalSerializationService serializationService = (InternalSerializationService) nodeEngine.getSerializationService();
 
+        HazelcastProperties properties = nodeEngine.getProperties();
+        long queryMemoryLimit = properties.getLong(ClusterProperty.SQL_QUERY_MEMORY_LIMIT);
+        String spillDirectory = properties.getString(ClusterProperty.SQL_SPILL_DIRECTORY);
+
+        QueryFragmentWorkerPool fragmentPool = new QueryFragmentWorkerPool(
+            instanceName,
+            fragmentThreadCount,
+            properties.getNanos(ClusterProperty.SQL_FRAGMENT_QUANTUM_MILLIS),
+            properties.getInteger(ClusterProperty.SQL_FRAGMENT_QUANTUM_ROWS),
+            properties.getNanos(ClusterProperty.SQL_LONG_QUERY_THRESHOLD_MILLIS),
+            nodeServiceProvider.getLogger(QueryFragmentWorkerPool.class)
+        );
+
         internalService = new SqlInternalService(
             instanceName,
             nodeServiceProvider,
             serializationService,
             operationThreadCount,
-            fragmentThreadCount,
+            fragmentPool,
             OUTBOX_BATCH_SIZE,
+            OPERATOR_MEMORY_LIMIT,
+            queryMemoryLimit,
+            spillDirectory != null ? new File(spillDirectory) : null,
             STATE_CHECK_FREQUENCY
         );
+
+        nodeEngine.getMetricsRegistry().registerStaticMetrics(
+            internalService.getFlowControlFactory().getMetrics(),
+            SQL_PREFIX_FLOW_CONTROL
+        );
+
+        nodeEngine.getMetricsRegistry().registerStaticMetrics(
+            internalService.getSpillManager().getMetrics(),
+            SQL_PREFIX_SPILL
+        );
+
+        nodeEngine.getMetricsRegistry().registerStaticMetrics(fragmentPool.getMetrics(), SQL_PREFIX_SCHEDULER);
+
+        nodeEngine.getMetricsRegistry().registerStaticMetrics(
+            internalService.getPlanCache().getMetrics(),
+            SQL_PREFIX_PLAN_CACHE
+        );
     }
 
     public void start() {
+        MapService mapService = nodeEngine.getServiceOrNull(MapService.SERVICE_NAME);
+
+        if (mapService != null) {
+            // Cached plans depend on the maps and indexes they were created for.
+            mapService.getMapServiceContext().addSchemaChangeListener(() -> internalService.onSchemaChanged());
+        }
+
         internalService.start();
     }
 
@@ -16,31 +16,46 @@
 
 package com.hazelcast.sql.impl.exec;
 
+import com.hazelcast.sql.impl.exec.io.BroadcastSendExec;
 import com.hazelcast.sql.impl.exec.io.InboundHandler;
 import com.hazelcast.sql.impl.exec.io.Inbox;
+import com.hazelcast.sql.impl.exec.io.MergeSortReceiveExec;
 import com.hazelcast.sql.impl.exec.io.OutboundHandler;
 import com.hazelcast.sql.impl.exec.io.Outbox;
 import com.hazelcast.sql.impl.exec.io.ReceiveExec;
 import com.hazelcast.sql.impl.exec.io.SendExec;
+import com.hazelcast.sql.impl.exec.io.StripedInbox;
+import com.hazelcast.sql.impl.exec.io.UnicastSendExec;
 import com.hazelcast.sql.impl.exec.io.flowcontrol.FlowControl;
 import com.hazelcast.sql.impl.exec.io.flowcontrol.FlowControlFactory;
+import com.hazelcast.sql.impl.exec.join.HashJoinExec;
 import com.hazelcast.sql.impl.exec.root.RootExec;
+import com.hazelcast.sql.impl.exec.sort.SortExec;
+import com.hazelcast.sql.impl.exec.sort.SortKeyComparator;
+import com.hazelcast.sql.impl.exec.spill.SpillContext;
 import com.hazelcast.sql.impl.operation.QueryExecuteOperation;
 import com.hazelcast.sql.impl.operation.QueryExecuteOperationFragment;
 import com.hazelcast.sql.impl.operation.QueryExecuteOperationFragmentMapping;
 import com.hazelcast.sql.impl.operation.QueryOperationHandler;
 import com.hazelcast.sql.impl.plan.node.FilterPlanNode;
+import com.hazelcast.sql.impl.plan.node.HashJoinPlanNode;
 import com.hazelcast.sql.impl.plan.node.PlanNode;
+import com.hazelcast.sql.impl.plan.node.PlanNodeSchema;
 import com.hazelcast.sql.impl.plan.node.PlanNodeVisitor;
 import com.hazelcast.sql.impl.plan.node.ProjectPlanNode;
 import com.hazelcast.sql.impl.plan.node.RootPlanNode;
+import com.hazelcast.sql.impl.plan.node.SortPlanNode;
+import com.hazelcast.sql.impl.plan.node.io.BroadcastSendPlanNode;
 import com.hazelcast.sql.impl.plan.node.io.EdgeAwarePlanNode;
+import com.hazelcast.sql.impl.plan.node.io.MergeSortReceivePlanNode;
 import com.hazelcast.sql.impl.plan.node.io.ReceivePlanNode;
 import com.hazelcast.sql.impl.plan.node.io.RootSendPlanNode;
+import com.hazelcast.sql.impl.plan.node.io.UnicastSendPlanNode;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -63,6 +78,12 @@ public class CreateExecPlanNodeVisitor implements PlanNodeVisitor {
     /** Recommended outbox batch size in bytes. */
     private final int outboxBatchSize;
 
+    /** Maximum amount of memory a single blocking operator may consume, in bytes. */
+    private final long operatorMemoryLimit;
+
+    /** Memory quota and spill files of the query. */
+    private final SpillContext spillContext;
+
     /** Stack of elements to be merged. */
     private final ArrayList<Exec> stack = new ArrayList<>(1);
 
@@ -80,13 +101,17 @@ public class CreateExecPlanNodeVisitor implements PlanNodeVisitor {
         UUID localMemberId,
         QueryExecuteOperation operation,
         FlowControlFactory flowControlFactory,
-        int outboxBatchSize
+        int outboxBatchSize,
+        long operatorMemoryLimit,
+        SpillContext spillContext
     ) {
         this.operationHandler = operationHandler;
         this.localMemberId = localMemberId;
         this.operation = operation;
         this.flowControlFactory = flowControlFactory;
         this.outboxBatchSize = outboxBatchSize;
+        this.operatorMemoryLimit = operatorMemoryLimit;
+        this.spillContext = spillContext;
     }
 
     @Override
@@ -130,6 +155,40 @@ public class CreateExecPlanNodeVisitor implements PlanNodeVisitor {
         push(res);
     }
 
+    @Override
+    public void onMergeSortReceiveNode(MergeSortReceivePlanNode node) {
+        int edgeId = node.getEdgeId();
+
+        int sendFragmentPos = operation.getOutboundEdgeMap().get(edgeId);
+        QueryExecuteOperationFragment sendFragment = operation.getFragments().get(sendFragmentPos);
+
+        List<UUID> senderMemberIds = new ArrayList<>(getFragmentMembers(sendFragment));
+        senderMemberIds.sort(null);
+
+        // Create and register inbox.
+        StripedInbox inbox = new StripedInbox(
+            operationHandler,
+            operation.getQueryId(),
+            edgeId,
+            node.getSchema().getEstimatedRowSize(),
+            localMemberId,
+            senderMemberIds,
+            createFlowControl(edgeId)
+        );
+
+        inboxes.put(edgeId, inbox);
+
+        // Instantiate executor and put it to stack.
+        MergeSortReceiveExec res = new MergeSortReceiveExec(
+            node.getId(),
+            inbox,
+            createComparator(node.getColumns(), node.getAscs()),
+            node.getFetch()
+        );
+
+        push(res);
+    }
+
     @Override
     public void onRootSendNode(RootSendPlanNode node) {
         Outbox[] outboxes = prepareOutboxes(node);
@@ -139,8 +198,23 @@ public class CreateExecPlanNodeVisitor implements PlanNodeVisitor {
         exec = new SendExec(node.getId(), pop(), outboxes[0]);
     }
 
+    @Override
+    public void onBroadcastSendNode(BroadcastSendPlanNode node) {
+        Outbox[] outboxes = prepareOutboxes(node);
+
+        exec = new BroadcastSendExec(node.getId(), pop(), outboxes);
+    }
+
+    @Override
+    public void onUnicastSendNode(UnicastSendPlanNode node) {
+        Outbox[] outboxes = prepareOutboxes(node);
+
+        exec = new UnicastSendExec(node.getId(), pop(), outboxes, toIntArray(node.getHashKeys()));
+    }
+
     /**
-     * Prepare outboxes for the given sender node.
+     * Prepare outboxes for the given sender node. Outboxes are sorted by target member ID, so that all senders route rows
+     * to receivers in the same order.
      *
      * @param node Node.
      * @return Outboxes.
@@ -151,7 +225,8 @@ public class CreateExecPlanNodeVisitor implements PlanNodeVisitor {
 
         int receiveFragmentPos = operation.getInboundEdgeMap().get(edgeId);
         QueryExecuteOperationFragment receiveFragment = operation.getFragments().get(receiveFragmentPos);
-        Collection<UUID> receiveFragmentMemberIds = getFragmentMembers(receiveFragment);
+        List<UUID> receiveFragmentMemberIds = new ArrayList<>(getFragmentMembers(receiveFragment));
+        receiveFragmentMemberIds.sort(null);
 
         Outbox[] res = new Outbox[receiveFragmentMemberIds.size()];
 
@@ -202,6 +277,45 @@ public class CreateExecPlanNodeVisitor implements PlanNodeVisitor {
         push(res);
     }
 
+    @Override
+    public void onHashJoinNode(HashJoinPlanNode node) {
+        Exec right = pop();
+        Exec left = pop();
+
+        PlanNodeSchema rightSchema = node.getRight().getSchema();
+
+        Exec res = new HashJoinExec(
+            node.getId(),
+            left,
+            right,
+            node.getCondition(),
+            toIntArray(node.getLeftHashKeys()),
+            toIntArray(node.getRightHashKeys()),
+            node.isOuter(),
+            rightSchema.getTypes().size(),
+            rightSchema.getEstimatedRowSize(),
+            operatorMemoryLimit,
+            spillContext
+        );
+
+        push(res);
+    }
+
+    @Override
+    public void onSortNode(SortPlanNode node) {
+        Exec res = new SortExec(
+            node.getId(),
+            pop(),
+            createComparator(node.getColumns(), node.getAscs()),
+            node.getFetch(),
+            node.getSchema().getEstimatedRowSize(),
+            operatorMemoryLimit,
+            spillContext
+        );
+
+        push(res);
+    }
+
     @Override
     public void onOtherNode(PlanNode node) {
         if (node instanceof CreateExecPlanNodeVisitorCallback) {
@@ -250,6 +364,26 @@ public class CreateExecPlanNodeVisitor implements PlanNodeVisitor {
         return flowControlFactory.create(initialMemory);
     }
 
+    private static SortKeyComparator createComparator(List<Integer> columns, List<Boolean> ascs) {
+        boolean[] ascs0 = new boolean[ascs.size()];
+
+        for (int i = 0; i < ascs.size(); i++) {
+            ascs0[i] = ascs.get(i);
+        }
+
+        return new SortKeyComparator(toIntArray(columns), ascs0);
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] res = new int[list.size()];
+
+        for (int i = 0; i < list.size(); i++) {
+            res[i] = list.get(i);
+        }
+
+        return res;
+    }
+
     private Collection<UUID> getFragmentMembers(QueryExecuteOperationFragment fragment) {
         if (fragment.getMapping() == QueryExecuteOperationFragmentMapping.EXPLICIT) {
             return fragment.getMemberIds();
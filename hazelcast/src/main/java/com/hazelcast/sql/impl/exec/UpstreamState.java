@@ -137,7 +137,7 @@ public class UpstreamState implements Iterable<Row> {
         return currentBatchPos < currentBatch.getRowCount();
     }
 
-    Exec getUpstream() {
+    public Exec getUpstream() {
         return upstream;
     }
 
@@ -64,6 +64,9 @@ public abstract class AbstractSendExec extends AbstractUpstreamAwareExec {
                 if (last) {
                     // Pushed the very last batch, done.
                     return IterationResult.FETCHED_DONE;
+                } else if (ctx.shouldYield(batch.getRowCount())) {
+                    // More batches to follow, but the quantum is exhausted. Let fragments of other queries run.
+                    return IterationResult.WAIT;
                 } else {
                     // More batches to follow, repeat the loop.
                     continue;
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.io;
+
+import com.hazelcast.sql.impl.exec.Exec;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.sql.impl.worker.QueryFragmentContext;
+
+/**
+ * Sender that sends every row to all outboxes.
+ */
+public class BroadcastSendExec extends AbstractSendExec {
+
+    private final Outbox[] outboxes;
+
+    /** Position of the next row to be sent for every outbox. */
+    private final int[] pendingPositions;
+
+    public BroadcastSendExec(int id, Exec upstream, Outbox[] outboxes) {
+        super(id, upstream);
+
+        this.outboxes = outboxes;
+
+        pendingPositions = new int[outboxes.length];
+    }
+
+    @Override
+    protected void setup1(QueryFragmentContext ctx) {
+        for (Outbox outbox : outboxes) {
+            outbox.setup();
+        }
+    }
+
+    @Override
+    protected int getOutboxCount() {
+        return outboxes.length;
+    }
+
+    @Override
+    protected Outbox getOutbox(int outboxIndex) {
+        return outboxes[outboxIndex];
+    }
+
+    @Override
+    protected void setCurrentBatch(RowBatch batch) {
+        // Outboxes which accept the whole batch will not be registered as pending.
+        for (int i = 0; i < pendingPositions.length; i++) {
+            pendingPositions[i] = batch.getRowCount();
+        }
+    }
+
+    @Override
+    protected OutboxSendQualifier getOutboxQualifier(int outboxIndex) {
+        return AlwaysTrueOutboxSendQualifier.INSTANCE;
+    }
+
+    @Override
+    protected void addPendingPosition(int outboxIndex, int position) {
+        pendingPositions[outboxIndex] = position;
+    }
+
+    @Override
+    protected boolean pushPendingBatch(RowBatch pendingBatch, boolean pendingLast) {
+        boolean res = true;
+
+        for (int i = 0; i < outboxes.length; i++) {
+            int position = pendingPositions[i];
+
+            if (position == pendingBatch.getRowCount()) {
+                continue;
+            }
+
+            int newPosition = outboxes[i].onRowBatch(pendingBatch, pendingLast, position, AlwaysTrueOutboxSendQualifier.INSTANCE);
+
+            pendingPositions[i] = newPosition;
+
+            if (newPosition < pendingBatch.getRowCount()) {
+                res = false;
+            }
+        }
+
+        return res;
+    }
+
+    public Outbox[] getOutboxes() {
+        return outboxes;
+    }
+}
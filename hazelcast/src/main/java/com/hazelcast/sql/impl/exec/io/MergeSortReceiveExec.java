@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.io;
+
+import com.hazelcast.sql.impl.exec.AbstractExec;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.exec.sort.SortKeyComparator;
+import com.hazelcast.sql.impl.row.ListRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.sql.impl.worker.QueryFragmentContext;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Executor which receives sorted streams from a striped inbox and merges them preserving the order.
+ * <p>
+ * A row could be returned only when the current row of every unfinished stream is known, so the executor waits for the
+ * next batch of a stream as soon as its current batch is exhausted. Rows merged so far are returned before waiting, so
+ * that the downstream receives results incrementally.
+ * <p>
+ * When the fetch is reached while some streams are still open, the query is notified that the input was abandoned, so
+ * that remote fragments are cancelled instead of producing rows that are never consumed.
+ */
+public class MergeSortReceiveExec extends AbstractExec {
+
+    static final int BATCH_SIZE = 1024;
+
+    private final StripedInbox inbox;
+    private final SortKeyComparator comparator;
+    private final int fetch;
+
+    /** Streams with a current row, ordered by that row. */
+    private final PriorityQueue<Stream> heap;
+
+    /** Streams waiting for the next batch. */
+    private final ArrayDeque<Stream> pending = new ArrayDeque<>();
+
+    /** Number of rows returned so far. */
+    private long returned;
+
+    private List<Row> currentRows;
+    private RowBatch currentBatch;
+
+    public MergeSortReceiveExec(int id, StripedInbox inbox, SortKeyComparator comparator, int fetch) {
+        super(id);
+
+        this.inbox = inbox;
+        this.comparator = comparator;
+        this.fetch = fetch;
+
+        heap = new PriorityQueue<>(Math.max(1, inbox.getStripeCount()), (o1, o2) -> comparator.compare(o1.row(), o2.row()));
+
+        for (int i = 0; i < inbox.getStripeCount(); i++) {
+            pending.add(new Stream(i));
+        }
+    }
+
+    @Override
+    protected void setup0(QueryFragmentContext ctx) {
+        inbox.setup();
+    }
+
+    @Override
+    protected IterationResult advance0() {
+        if (currentRows == null) {
+            currentRows = new ArrayList<>(BATCH_SIZE);
+            currentBatch = null;
+        }
+
+        while (true) {
+            if (returned == fetch) {
+                if (!inbox.closed()) {
+                    ctx.onInputAbandoned();
+                }
+
+                return prepareBatch(IterationResult.FETCHED_DONE);
+            }
+
+            if (!pollPending()) {
+                return currentRows.isEmpty() ? IterationResult.WAIT : prepareBatch(IterationResult.FETCHED);
+            }
+
+            Stream stream = heap.poll();
+
+            if (stream == null) {
+                return prepareBatch(IterationResult.FETCHED_DONE);
+            }
+
+            consumeRow(stream);
+
+            if (currentRows.size() == BATCH_SIZE) {
+                boolean done = heap.isEmpty() && pending.isEmpty();
+
+                return prepareBatch(done ? IterationResult.FETCHED_DONE : IterationResult.FETCHED);
+            }
+        }
+    }
+
+    @Override
+    protected RowBatch currentBatch0() {
+        return currentBatch;
+    }
+
+    /**
+     * Poll the next batches of streams which have no current row.
+     *
+     * @return {@code true} if every unfinished stream has a current row, {@code false} if more batches are expected.
+     */
+    private boolean pollPending() {
+        while (!pending.isEmpty()) {
+            Stream stream = pending.peekFirst();
+
+            InboundBatch batch = inbox.poll(stream.stripe);
+
+            if (batch == null) {
+                return false;
+            }
+
+            stream.batch = batch.getBatch();
+            stream.position = 0;
+            stream.last = batch.isLast();
+
+            if (stream.batch.getRowCount() > 0) {
+                pending.pollFirst();
+                heap.add(stream);
+            } else if (stream.last) {
+                pending.pollFirst();
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Move the current row of the stream to the output, and put the stream back to either the heap or the pending queue.
+     */
+    private void consumeRow(Stream stream) {
+        currentRows.add(stream.row());
+        returned++;
+
+        if (++stream.position < stream.batch.getRowCount()) {
+            heap.add(stream);
+        } else if (!stream.last) {
+            pending.add(stream);
+        }
+    }
+
+    private IterationResult prepareBatch(IterationResult result) {
+        currentBatch = new ListRowBatch(currentRows);
+        currentRows = null;
+
+        return result;
+    }
+
+    public StripedInbox getInbox() {
+        return inbox;
+    }
+
+    public SortKeyComparator getComparator() {
+        return comparator;
+    }
+
+    public int getFetch() {
+        return fetch;
+    }
+
+    /**
+     * Position in the stream of a single sender.
+     */
+    private static final class Stream {
+        private final int stripe;
+        private RowBatch batch;
+        private int position;
+        private boolean last;
+
+        private Stream(int stripe) {
+            this.stripe = stripe;
+        }
+
+        private Row row() {
+            return batch.getRow(position);
+        }
+    }
+}
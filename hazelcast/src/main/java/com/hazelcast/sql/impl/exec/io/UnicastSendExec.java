@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.io;
+
+import com.hazelcast.internal.util.HashUtil;
+import com.hazelcast.sql.impl.exec.Exec;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.sql.impl.worker.QueryFragmentContext;
+
+/**
+ * Sender that sends every row to exactly one outbox, chosen by the hash of the key columns.
+ * <p>
+ * Outboxes must be ordered in the same way on all members for all edges that are expected to be co-located (e.g. both
+ * inputs of a partitioned join), so that equal keys are routed to the same member.
+ */
+public class UnicastSendExec extends AbstractSendExec {
+
+    private static final int HASH_MULTIPLIER = 31;
+
+    private final Outbox[] outboxes;
+    private final int[] hashKeys;
+
+    /** Target outbox index for every row of the current batch. */
+    private int[] rowOutboxIndexes;
+
+    /** Position of the next row to be sent for every outbox. */
+    private final int[] pendingPositions;
+
+    /** Qualifiers which pass only rows belonging to the given outbox. */
+    private final OutboxSendQualifier[] qualifiers;
+
+    public UnicastSendExec(int id, Exec upstream, Outbox[] outboxes, int[] hashKeys) {
+        super(id, upstream);
+
+        this.outboxes = outboxes;
+        this.hashKeys = hashKeys;
+
+        pendingPositions = new int[outboxes.length];
+        qualifiers = new OutboxSendQualifier[outboxes.length];
+
+        for (int i = 0; i < outboxes.length; i++) {
+            int outboxIndex = i;
+
+            qualifiers[i] = rowIndex -> rowOutboxIndexes[rowIndex] == outboxIndex;
+        }
+    }
+
+    @Override
+    protected void setup1(QueryFragmentContext ctx) {
+        for (Outbox outbox : outboxes) {
+            outbox.setup();
+        }
+    }
+
+    @Override
+    protected int getOutboxCount() {
+        return outboxes.length;
+    }
+
+    @Override
+    protected Outbox getOutbox(int outboxIndex) {
+        return outboxes[outboxIndex];
+    }
+
+    @Override
+    protected void setCurrentBatch(RowBatch batch) {
+        int rowCount = batch.getRowCount();
+
+        if (rowOutboxIndexes == null || rowOutboxIndexes.length < rowCount) {
+            rowOutboxIndexes = new int[rowCount];
+        }
+
+        for (int i = 0; i < rowCount; i++) {
+            rowOutboxIndexes[i] = getOutboxIndex(batch.getRow(i));
+        }
+
+        for (int i = 0; i < pendingPositions.length; i++) {
+            pendingPositions[i] = rowCount;
+        }
+    }
+
+    @Override
+    protected OutboxSendQualifier getOutboxQualifier(int outboxIndex) {
+        return qualifiers[outboxIndex];
+    }
+
+    @Override
+    protected void addPendingPosition(int outboxIndex, int position) {
+        pendingPositions[outboxIndex] = position;
+    }
+
+    @Override
+    protected boolean pushPendingBatch(RowBatch pendingBatch, boolean pendingLast) {
+        boolean res = true;
+
+        for (int i = 0; i < outboxes.length; i++) {
+            int position = pendingPositions[i];
+
+            if (position == pendingBatch.getRowCount()) {
+                continue;
+            }
+
+            int newPosition = outboxes[i].onRowBatch(pendingBatch, pendingLast, position, qualifiers[i]);
+
+            pendingPositions[i] = newPosition;
+
+            if (newPosition < pendingBatch.getRowCount()) {
+                res = false;
+            }
+        }
+
+        return res;
+    }
+
+    public Outbox[] getOutboxes() {
+        return outboxes;
+    }
+
+    public int[] getHashKeys() {
+        return hashKeys;
+    }
+
+    private int getOutboxIndex(Row row) {
+        return HashUtil.hashToIndex(hash(row, hashKeys), outboxes.length);
+    }
+
+    /**
+     * Calculate the hash of the key columns. The same function must be used on all members, and should not depend on the
+     * identity of the objects.
+     *
+     * @param row Row.
+     * @param hashKeys Indexes of the key columns.
+     * @return Hash.
+     */
+    public static int hash(Row row, int[] hashKeys) {
+        int res = 0;
+
+        for (int hashKey : hashKeys) {
+            Object value = row.get(hashKey);
+
+            res = HASH_MULTIPLIER * res + (value != null ? value.hashCode() : 0);
+        }
+
+        return res;
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.io.flowcontrol.credit;
+
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.exec.io.flowcontrol.FlowControl;
+import com.hazelcast.sql.impl.operation.QueryFlowControlExchangeOperation;
+import com.hazelcast.sql.impl.operation.QueryOperationHandler;
+
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Flow control which grants credits to senders before they run out of memory.
+ * <p>
+ * For every stream the consumption rate and the round trip time of the credits are measured. The window is the amount of data
+ * the local operator consumes during a couple of round trips. The credit is the increase of the remote memory: the difference
+ * between the free local memory and the memory the sender is known to have. Small credits are accumulated to reduce the
+ * number of flow control messages, unless the data available to the local operator (received batches and the remaining memory
+ * of the sender) is smaller than the window, so that the sender would stall otherwise. Credits of all batches consumed during a
+ * single fragment execution are coalesced into a single message.
+ * <p>
+ * The first batch sent after the credit arrival confirms it. Until then, the sender is assumed to have the memory granted by
+ * the credit, so that the same memory is not granted twice.
+ * <p>
+ * Until the rate and the round trip time are known, the window is equal to the maximum memory.
+ */
+public class CreditFlowControl implements FlowControl {
+    /** Weight of a new sample in the smoothed round trip time and consumption rate. */
+    static final double SMOOTHING_FACTOR = 0.125d;
+
+    /** How many round trips the window should cover. */
+    static final int WINDOW_RTT_MULTIPLIER = 2;
+
+    /** Minimum window size relative to the maximum memory. */
+    static final double MIN_WINDOW_PERCENTAGE = 0.125d;
+
+    /** Minimum credit relative to the maximum memory. Smaller credits are never sent. */
+    static final double MIN_CREDIT_PERCENTAGE = 0.125d;
+
+    /** Credit relative to the maximum memory which is sent even if the sender is not low on memory. */
+    static final double MAX_CREDIT_PERCENTAGE = 0.5d;
+
+    /** Maximum amount of memory allowed to be consumed by the local stream. */
+    private final long maxMemory;
+
+    /** Minimum window size. */
+    private final long minWindow;
+
+    /** Minimum credit. */
+    private final long minCredit;
+
+    /** Maximum credit. */
+    private final long maxCredit;
+
+    /** Member-wide metrics. */
+    private final CreditFlowControlMetrics metrics;
+
+    /** Source of the current time in nanoseconds. */
+    private final LongSupplier clock;
+
+    private QueryId queryId;
+    private int edgeId;
+    private UUID localMemberId;
+    private QueryOperationHandler operationHandler;
+
+    /** Remote streams. */
+    private HashMap<UUID, CreditFlowControlStream> streams;
+
+    /** Remote streams that should be notified. */
+    private HashMap<UUID, CreditFlowControlStream> pendingStreams;
+
+    /** Number of batches received, but not consumed yet. */
+    private int batchesInFlight;
+
+    /** Total time remote members spent without memory, in nanoseconds. */
+    private long stallTime;
+
+    /** Total amount of memory granted to remote members, in bytes. */
+    private long creditsGranted;
+
+    /** Number of flow control messages sent. */
+    private long creditMessages;
+
+    public CreditFlowControl(long maxMemory, CreditFlowControlMetrics metrics) {
+        this(maxMemory, metrics, System::nanoTime);
+    }
+
+    CreditFlowControl(long maxMemory, CreditFlowControlMetrics metrics, LongSupplier clock) {
+        this.maxMemory = maxMemory;
+        this.metrics = metrics;
+        this.clock = clock;
+
+        minWindow = (long) (maxMemory * MIN_WINDOW_PERCENTAGE);
+        minCredit = (long) (maxMemory * MIN_CREDIT_PERCENTAGE);
+        maxCredit = (long) (maxMemory * MAX_CREDIT_PERCENTAGE);
+    }
+
+    @Override
+    public void setup(QueryId queryId, int edgeId, UUID localMemberId, QueryOperationHandler operationHandler) {
+        this.queryId = queryId;
+        this.edgeId = edgeId;
+        this.localMemberId = localMemberId;
+        this.operationHandler = operationHandler;
+    }
+
+    @Override
+    public void onBatchAdded(UUID memberId, long size, boolean last, long remoteMemory) {
+        batchesInFlight++;
+        metrics.onBatchAdded();
+
+        if (last) {
+            // If this is the last batch, we do not care about backpressure.
+            if (streams != null) {
+                streams.remove(memberId);
+            }
+
+            if (pendingStreams != null) {
+                pendingStreams.remove(memberId);
+            }
+
+            return;
+        }
+
+        if (streams == null) {
+            streams = new HashMap<>();
+        }
+
+        CreditFlowControlStream stream = streams.get(memberId);
+
+        if (stream == null) {
+            stream = new CreditFlowControlStream(memberId, maxMemory, maxMemory);
+
+            streams.put(memberId, stream);
+        }
+
+        stream.onBatchAdded(size, remoteMemory, clock.getAsLong());
+    }
+
+    @Override
+    public void onBatchRemoved(UUID memberId, long size, boolean last) {
+        batchesInFlight--;
+        metrics.onBatchRemoved();
+
+        // Micro-opt to avoid map lookup for the last batch and map instantiation.
+        if (last) {
+            return;
+        }
+
+        assert streams != null;
+
+        CreditFlowControlStream stream = streams.get(memberId);
+
+        if (stream == null) {
+            // Missing state means that last batch already arrived.
+            return;
+        }
+
+        stream.onBatchRemoved(size, maxMemory, clock.getAsLong());
+
+        if (!stream.isShouldSend() && isCreditNeeded(stream)) {
+            stream.setShouldSend(true);
+
+            if (pendingStreams == null) {
+                pendingStreams = new HashMap<>();
+            }
+
+            pendingStreams.put(memberId, stream);
+        }
+    }
+
+    @Override
+    public void onFragmentExecutionCompleted() {
+        if (pendingStreams == null || pendingStreams.isEmpty()) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+
+        for (CreditFlowControlStream stream : pendingStreams.values()) {
+            sendFlowControl(stream, now);
+
+            stream.setShouldSend(false);
+        }
+
+        pendingStreams.clear();
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    public int getBatchesInFlight() {
+        return batchesInFlight;
+    }
+
+    public long getStallTime() {
+        return stallTime;
+    }
+
+    public long getCreditsGranted() {
+        return creditsGranted;
+    }
+
+    public long getCreditMessages() {
+        return creditMessages;
+    }
+
+    /**
+     * Get the window of the stream: the amount of memory the sender should have to avoid stalls.
+     *
+     * @param stream Stream.
+     * @return Window size in bytes.
+     */
+    long getWindow(CreditFlowControlStream stream) {
+        long rtt = stream.getRtt();
+        double rate = stream.getRate();
+
+        if (rtt == 0 || rate == 0) {
+            return maxMemory;
+        }
+
+        long window = (long) (rate * rtt * WINDOW_RTT_MULTIPLIER);
+
+        return Math.max(minWindow, Math.min(maxMemory, window));
+    }
+
+    /**
+     * Check whether the credit should be sent to the sender.
+     *
+     * @param stream Stream.
+     * @return {@code true} if the credit should be sent.
+     */
+    private boolean isCreditNeeded(CreditFlowControlStream stream) {
+        long credit = getCredit(stream);
+
+        if (credit < minCredit) {
+            return false;
+        }
+
+        if (credit >= maxCredit) {
+            return true;
+        }
+
+        long available = maxMemory - stream.getLocalMemory() + stream.getExpectedRemoteMemory();
+
+        return available < getWindow(stream);
+    }
+
+    private static long getCredit(CreditFlowControlStream stream) {
+        return stream.getLocalMemory() - stream.getExpectedRemoteMemory();
+    }
+
+    /**
+     * Send flow control message for the given stream.
+     *
+     * @param stream Stream.
+     * @param now Current time.
+     */
+    private void sendFlowControl(CreditFlowControlStream stream, long now) {
+        long credit = getCredit(stream);
+
+        if (credit <= 0) {
+            return;
+        }
+
+        long remoteMemory = stream.getLocalMemory();
+
+        QueryFlowControlExchangeOperation operation = new QueryFlowControlExchangeOperation(queryId, edgeId, remoteMemory);
+
+        boolean success = operationHandler.submit(localMemberId, stream.getMemberId(), operation);
+
+        if (!success) {
+            throw QueryException.memberConnection(stream.getMemberId());
+        }
+
+        long streamStallTime = stream.onCreditSent(remoteMemory, now);
+
+        stallTime += streamStallTime;
+        creditsGranted += credit;
+        creditMessages++;
+
+        metrics.onCreditSent(credit, streamStallTime);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.io.flowcontrol.credit;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_FLOW_CONTROL_BATCHES_IN_FLIGHT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_FLOW_CONTROL_CREDITS_GRANTED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_FLOW_CONTROL_CREDIT_MESSAGES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_FLOW_CONTROL_STALL_TIME;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Member-wide metrics of credit-based flow control, aggregated over all inbound edges.
+ */
+public class CreditFlowControlMetrics {
+
+    @Probe(name = SQL_METRIC_FLOW_CONTROL_BATCHES_IN_FLIGHT)
+    private final MwCounter batchesInFlight = newMwCounter();
+
+    @Probe(name = SQL_METRIC_FLOW_CONTROL_STALL_TIME, unit = NS)
+    private final MwCounter stallTime = newMwCounter();
+
+    @Probe(name = SQL_METRIC_FLOW_CONTROL_CREDITS_GRANTED, unit = BYTES)
+    private final MwCounter creditsGranted = newMwCounter();
+
+    @Probe(name = SQL_METRIC_FLOW_CONTROL_CREDIT_MESSAGES)
+    private final MwCounter creditMessages = newMwCounter();
+
+    void onBatchAdded() {
+        batchesInFlight.inc();
+    }
+
+    void onBatchRemoved() {
+        batchesInFlight.inc(-1);
+    }
+
+    void onCreditSent(long credit, long stallTime) {
+        creditsGranted.inc(credit);
+        creditMessages.inc();
+
+        if (stallTime > 0) {
+            this.stallTime.inc(stallTime);
+        }
+    }
+
+    public long getBatchesInFlight() {
+        return batchesInFlight.get();
+    }
+
+    public long getStallTime() {
+        return stallTime.get();
+    }
+
+    public long getCreditsGranted() {
+        return creditsGranted.get();
+    }
+
+    public long getCreditMessages() {
+        return creditMessages.get();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.io.flowcontrol.credit;
+
+import java.util.UUID;
+
+/**
+ * State of a single stream.
+ */
+public final class CreditFlowControlStream {
+
+    private final UUID memberId;
+
+    /** Memory available locally for the stream. */
+    private long localMemory;
+
+    /** Remaining memory of the sender, as reported with the last received batch. */
+    private long remoteMemory;
+
+    /** Remote memory sent with the last credit, which is not confirmed by a received batch yet. */
+    private long pendingRemoteMemory;
+
+    /** Time when the first unconfirmed credit was sent, or {@code 0} if there are no unconfirmed credits. */
+    private long pendingCreditTime;
+
+    /** Smoothed round trip time in nanoseconds, or {@code 0} if unknown. */
+    private long rtt;
+
+    /** Smoothed consumption rate in bytes per nanosecond, or {@code 0} if unknown. */
+    private double rate;
+
+    /** Start of the current rate measurement interval, or {@code 0} if not started. */
+    private long rateIntervalStartTime;
+
+    /** Bytes consumed in the current rate measurement interval. */
+    private long rateIntervalBytes;
+
+    /** Time when the remote member was observed to be out of memory, or {@code 0} if it is not. */
+    private long stallStartTime;
+
+    private boolean shouldSend;
+
+    public CreditFlowControlStream(UUID memberId, long localMemory, long remoteMemory) {
+        this.memberId = memberId;
+        this.localMemory = localMemory;
+        this.remoteMemory = remoteMemory;
+    }
+
+    public UUID getMemberId() {
+        return memberId;
+    }
+
+    public long getLocalMemory() {
+        return localMemory;
+    }
+
+    public long getRemoteMemory() {
+        return remoteMemory;
+    }
+
+    /**
+     * @return {@code true} if the sent credit has not been received by the remote member yet.
+     */
+    public boolean isCreditPending() {
+        return pendingCreditTime != 0;
+    }
+
+    /**
+     * @return The amount of memory the remote member will have once the sent credit arrives.
+     */
+    public long getExpectedRemoteMemory() {
+        return pendingCreditTime != 0 ? pendingRemoteMemory : remoteMemory;
+    }
+
+    public long getRtt() {
+        return rtt;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public boolean isShouldSend() {
+        return shouldSend;
+    }
+
+    public void setShouldSend(boolean shouldSend) {
+        this.shouldSend = shouldSend;
+    }
+
+    /**
+     * Handle the batch received from the remote member.
+     *
+     * @param size Batch size.
+     * @param remoteMemory Remaining memory of the sender after the batch was sent.
+     * @param now Current time.
+     */
+    public void onBatchAdded(long size, long remoteMemory, long now) {
+        // Absent credit messages, the remote memory decreases exactly by the size of every batch. Otherwise the sender has
+        // already received the pending credit, and the elapsed time is the round trip time sample.
+        if (pendingCreditTime != 0 && remoteMemory + size != this.remoteMemory) {
+            rtt = smooth(rtt, now - pendingCreditTime);
+
+            pendingCreditTime = 0;
+        }
+
+        localMemory -= size;
+        this.remoteMemory = remoteMemory;
+
+        // The sender is unlikely to have enough memory for the next batch.
+        if (remoteMemory < size && stallStartTime == 0) {
+            stallStartTime = now;
+        }
+    }
+
+    /**
+     * Handle the batch consumed by the local operator.
+     *
+     * @param size Batch size.
+     * @param maxMemory Maximum memory of the stream.
+     * @param now Current time.
+     */
+    public void onBatchRemoved(long size, long maxMemory, long now) {
+        localMemory += size;
+
+        if (rateIntervalStartTime != 0) {
+            rateIntervalBytes += size;
+
+            if (now > rateIntervalStartTime) {
+                double sample = (double) rateIntervalBytes / (now - rateIntervalStartTime);
+
+                rate = rate == 0 ? sample : rate + CreditFlowControl.SMOOTHING_FACTOR * (sample - rate);
+
+                rateIntervalStartTime = 0;
+            }
+        }
+
+        // Do not measure the time when the local queue is empty, as the operator is waiting for the sender then.
+        if (localMemory < maxMemory) {
+            if (rateIntervalStartTime == 0) {
+                rateIntervalStartTime = now;
+                rateIntervalBytes = 0;
+            }
+        } else {
+            rateIntervalStartTime = 0;
+        }
+    }
+
+    /**
+     * Handle the credit sent to the remote member.
+     *
+     * @param remoteMemory Remote memory sent with the credit.
+     * @param now Current time.
+     * @return Time the remote member spent without memory, if any.
+     */
+    public long onCreditSent(long remoteMemory, long now) {
+        pendingRemoteMemory = remoteMemory;
+
+        if (pendingCreditTime == 0) {
+            pendingCreditTime = now;
+        }
+
+        long stallTime = 0;
+
+        if (stallStartTime != 0) {
+            stallTime = now - stallStartTime;
+
+            stallStartTime = 0;
+        }
+
+        return stallTime;
+    }
+
+    private static long smooth(long value, long sample) {
+        return value == 0 ? sample : value + (long) (CreditFlowControl.SMOOTHING_FACTOR * (sample - value));
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.join;
+
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.exec.AbstractExec;
+import com.hazelcast.sql.impl.exec.Exec;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.exec.UpstreamState;
+import com.hazelcast.sql.impl.exec.spill.SpillContext;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.row.EmptyRowBatch;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.row.JoinRow;
+import com.hazelcast.sql.impl.row.ListRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.sql.impl.worker.QueryFragmentContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Hash join executor.
+ * <p>
+ * The right input (build side) is consumed fully and put into a hash table first. Then rows from the left input (probe
+ * side) are streamed and matched against the hash table. Rows with {@code NULL} in any key column never match.
+ * <p>
+ * The amount of memory consumed by the hash table is estimated from the width of the right row and reserved from the
+ * query quota. The query is cancelled if it exceeds either the operator limit or the query quota.
+ */
+public class HashJoinExec extends AbstractExec {
+
+    static final int BATCH_SIZE = 1024;
+
+    private final UpstreamState leftState;
+    private final UpstreamState rightState;
+    private final Expression<Boolean> condition;
+    private final int[] leftHashKeys;
+    private final int[] rightHashKeys;
+    private final boolean outer;
+    private final int rightRowColumnCount;
+    private final int rightRowWidth;
+    private final long memoryLimit;
+    private final SpillContext spillContext;
+
+    /** Hash table with build rows. */
+    private final HashMap<Object, List<Row>> table = new HashMap<>();
+
+    /** Estimated size of the hash table in bytes. */
+    private long tableMemory;
+
+    /** Memory reserved from the query quota. */
+    private long reservedMemory;
+
+    /** Whether the build side is fully consumed. */
+    private boolean built;
+
+    /** Row with all right columns set to {@code NULL} for outer joins. */
+    private Row emptyRightRow;
+
+    /** Left row that is currently being joined. */
+    private Row currentLeftRow;
+
+    /** Matching rows for the current left row. */
+    private List<Row> currentMatches;
+
+    /** Position of the next match to be processed. */
+    private int currentMatchPosition;
+
+    /** Whether at least one joined row was produced for the current left row. */
+    private boolean currentLeftRowMatched;
+
+    private List<Row> currentRows;
+    private RowBatch currentBatch;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public HashJoinExec(
+        int id,
+        Exec left,
+        Exec right,
+        Expression<Boolean> condition,
+        int[] leftHashKeys,
+        int[] rightHashKeys,
+        boolean outer,
+        int rightRowColumnCount,
+        int rightRowWidth,
+        long memoryLimit,
+        SpillContext spillContext
+    ) {
+        super(id);
+
+        assert leftHashKeys.length > 0 && leftHashKeys.length == rightHashKeys.length;
+
+        leftState = new UpstreamState(left);
+        rightState = new UpstreamState(right);
+
+        this.condition = condition;
+        this.leftHashKeys = leftHashKeys;
+        this.rightHashKeys = rightHashKeys;
+        this.outer = outer;
+        this.rightRowColumnCount = rightRowColumnCount;
+        this.rightRowWidth = rightRowWidth;
+        this.memoryLimit = memoryLimit;
+        this.spillContext = spillContext;
+    }
+
+    @Override
+    protected void setup0(QueryFragmentContext ctx) {
+        leftState.setup(ctx);
+        rightState.setup(ctx);
+    }
+
+    @Override
+    protected IterationResult advance0() {
+        if (!built) {
+            if (!build()) {
+                return IterationResult.WAIT;
+            }
+
+            // Inner join with empty build side cannot produce any rows, so there is no need to consume the probe side.
+            if (table.isEmpty() && !outer) {
+                release();
+
+                currentBatch = EmptyRowBatch.INSTANCE;
+
+                return IterationResult.FETCHED_DONE;
+            }
+        }
+
+        prepareRows();
+
+        while (true) {
+            // Continue joining the current row.
+            if (currentLeftRow != null && !joinCurrentLeftRow()) {
+                return prepareBatch(IterationResult.FETCHED);
+            }
+
+            // Get the next row from the probe side.
+            if (!leftState.advance()) {
+                return IterationResult.WAIT;
+            }
+
+            Row leftRow = leftState.nextIfExists();
+
+            if (leftRow == null) {
+                if (leftState.isDone()) {
+                    return prepareBatch(IterationResult.FETCHED_DONE);
+                }
+
+                continue;
+            }
+
+            currentLeftRow = leftRow;
+            currentMatches = lookup(leftRow);
+            currentMatchPosition = 0;
+            currentLeftRowMatched = false;
+        }
+    }
+
+    @Override
+    protected RowBatch currentBatch0() {
+        return currentBatch;
+    }
+
+    /**
+     * Consume the build side into the hash table.
+     *
+     * @return {@code true} if the build side is consumed fully, {@code false} if more rows are expected.
+     */
+    private boolean build() {
+        while (true) {
+            if (!rightState.advance()) {
+                return false;
+            }
+
+            for (Row row : rightState) {
+                Object key = key(row, rightHashKeys);
+
+                if (key == null) {
+                    continue;
+                }
+
+                tableMemory += rightRowWidth;
+
+                if (tableMemory > reservedMemory) {
+                    reserve();
+                }
+
+                table.computeIfAbsent(key, k -> new ArrayList<>(1)).add(row);
+            }
+
+            if (rightState.isDone()) {
+                built = true;
+
+                return true;
+            }
+        }
+    }
+
+    private void reserve() {
+        if (tableMemory > memoryLimit) {
+            throw QueryException.memoryLimitExceeded(memoryLimit);
+        }
+
+        long size = Math.min((long) BATCH_SIZE * rightRowWidth, memoryLimit - reservedMemory);
+
+        if (!spillContext.tryReserve(size)) {
+            throw QueryException.memoryLimitExceeded(spillContext.getMemoryLimit());
+        }
+
+        reservedMemory += size;
+    }
+
+    private void release() {
+        spillContext.release(reservedMemory);
+        reservedMemory = 0;
+    }
+
+    private List<Row> lookup(Row leftRow) {
+        Object key = key(leftRow, leftHashKeys);
+
+        return key != null ? table.get(key) : null;
+    }
+
+    /**
+     * Produce joined rows for the current left row.
+     *
+     * @return {@code true} if the current left row is processed fully, {@code false} if the batch is full.
+     */
+    private boolean joinCurrentLeftRow() {
+        if (currentMatches != null) {
+            while (currentMatchPosition < currentMatches.size()) {
+                Row row = new JoinRow(currentLeftRow, currentMatches.get(currentMatchPosition++));
+
+                if (condition != null && !Boolean.TRUE.equals(condition.eval(row, ctx))) {
+                    continue;
+                }
+
+                currentLeftRowMatched = true;
+
+                if (!addRow(row)) {
+                    return false;
+                }
+            }
+        }
+
+        Row leftRow = currentLeftRow;
+
+        currentLeftRow = null;
+        currentMatches = null;
+
+        if (outer && !currentLeftRowMatched) {
+            return addRow(new JoinRow(leftRow, getEmptyRightRow()));
+        }
+
+        return true;
+    }
+
+    private void prepareRows() {
+        if (currentRows == null) {
+            currentRows = new ArrayList<>(BATCH_SIZE);
+            currentBatch = null;
+        }
+    }
+
+    /**
+     * @return {@code true} if more rows could be added to the current batch.
+     */
+    private boolean addRow(Row row) {
+        currentRows.add(row);
+
+        return currentRows.size() < BATCH_SIZE;
+    }
+
+    private IterationResult prepareBatch(IterationResult result) {
+        currentBatch = new ListRowBatch(currentRows);
+        currentRows = null;
+
+        if (result == IterationResult.FETCHED_DONE) {
+            release();
+        }
+
+        return result;
+    }
+
+    private Row getEmptyRightRow() {
+        if (emptyRightRow == null) {
+            emptyRightRow = new HeapRow(rightRowColumnCount);
+        }
+
+        return emptyRightRow;
+    }
+
+    /**
+     * Extract the join key from the row.
+     *
+     * @return Key or {@code null} if any of key columns is {@code NULL}.
+     */
+    private static Object key(Row row, int[] hashKeys) {
+        if (hashKeys.length == 1) {
+            return row.get(hashKeys[0]);
+        }
+
+        Object[] values = new Object[hashKeys.length];
+
+        for (int i = 0; i < hashKeys.length; i++) {
+            Object value = row.get(hashKeys[i]);
+
+            if (value == null) {
+                return null;
+            }
+
+            values[i] = value;
+        }
+
+        return Arrays.asList(values);
+    }
+
+    /**
+     * For testing only.
+     */
+    public Exec getLeft() {
+        return leftState.getUpstream();
+    }
+
+    /**
+     * For testing only.
+     */
+    public Exec getRight() {
+        return rightState.getUpstream();
+    }
+
+    public Expression<Boolean> getCondition() {
+        return condition;
+    }
+
+    public int[] getLeftHashKeys() {
+        return leftHashKeys;
+    }
+
+    public int[] getRightHashKeys() {
+        return rightHashKeys;
+    }
+
+    public boolean isOuter() {
+        return outer;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public SpillContext getSpillContext() {
+        return spillContext;
+    }
+}
@@ -59,21 +59,27 @@ public class RootExec extends AbstractUpstreamAwareExec {
             boolean upstreamDone = state.isDone();
 
             if (remaining == 0 || upstreamDone) {
-                if (consumer.consume(batch, upstreamDone)) {
-                    // Batch has been consumed successfully.
-                    if (upstreamDone) {
-                        // Pushed the very last batch, done.
-                        return IterationResult.FETCHED_DONE;
-                    } else {
-                        // Pushed the batch, but there are more to come, allocate the new batch and continue.
-                        batch = new ArrayList<>(batchSize);
-
-                        remaining = batchSize;
-                    }
-                } else {
+                int consumed = batch.size();
+
+                if (!consumer.consume(batch, upstreamDone)) {
                     // Cannot push to the consumer => WAIT.
                     return IterationResult.WAIT;
                 }
+
+                if (upstreamDone) {
+                    // Pushed the very last batch, done.
+                    return IterationResult.FETCHED_DONE;
+                }
+
+                // Pushed the batch, but there are more to come, allocate the new batch and continue.
+                batch = new ArrayList<>(batchSize);
+
+                remaining = batchSize;
+
+                // Let fragments of other queries run if the quantum is exhausted.
+                if (ctx.shouldYield(consumed)) {
+                    return IterationResult.WAIT;
+                }
             }
 
             assert remaining != 0;
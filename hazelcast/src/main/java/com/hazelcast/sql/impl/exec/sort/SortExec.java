@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.sort;
+
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.exec.AbstractUpstreamAwareExec;
+import com.hazelcast.sql.impl.exec.Exec;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.exec.spill.SpillContext;
+import com.hazelcast.sql.impl.exec.spill.SpillFile;
+import com.hazelcast.sql.impl.plan.node.SortPlanNode;
+import com.hazelcast.sql.impl.row.EmptyRowBatch;
+import com.hazelcast.sql.impl.row.ListRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * Executor which sorts the rows of the upstream.
+ * <p>
+ * The upstream is consumed fully before the first row is produced. When the number of rows to fetch is known, only that
+ * many smallest rows are kept in a bounded heap (top-N), otherwise all rows are accumulated and sorted at once.
+ * <p>
+ * Memory for the retained rows is estimated from the row width and reserved from the query quota, up to the operator
+ * limit. When no more memory could be reserved, the accumulated rows are sorted and spilled to disk as a run, and the
+ * runs are merged when the upstream is consumed (external merge sort). A top-N heap which doesn't fit into memory falls
+ * back to the same procedure, writing at most fetch rows per run.
+ */
+public class SortExec extends AbstractUpstreamAwareExec {
+
+    static final int BATCH_SIZE = 1024;
+
+    private final SortKeyComparator comparator;
+    private final int fetch;
+    private final int rowWidth;
+    private final long memoryLimit;
+    private final SpillContext spillContext;
+
+    /** Rows accumulated in memory when the heap is not used. */
+    private List<Row> rows;
+
+    /** Heap with the smallest rows seen so far in top-N mode. Its head is the largest retained row. */
+    private PriorityQueue<Row> heap;
+
+    /** Estimated memory consumed by the retained rows. */
+    private long memory;
+
+    /** Memory reserved from the query quota. */
+    private long reservedMemory;
+
+    /** Sorted runs spilled to disk. */
+    private final List<SpillFile> runs = new ArrayList<>();
+
+    /** Whether the upstream is consumed fully. */
+    private boolean consumed;
+
+    /** Sorted rows when nothing was spilled. */
+    private List<Row> sortedRows;
+
+    /** Position of the next row in sorted rows. */
+    private int position;
+
+    /** Cursors over the runs when some rows were spilled. */
+    private PriorityQueue<RunCursor> merge;
+
+    /** Number of rows returned from the merge. */
+    private long returned;
+
+    private RowBatch currentBatch;
+
+    public SortExec(
+        int id,
+        Exec upstream,
+        SortKeyComparator comparator,
+        int fetch,
+        int rowWidth,
+        long memoryLimit,
+        SpillContext spillContext
+    ) {
+        super(id, upstream);
+
+        this.comparator = comparator;
+        this.fetch = fetch;
+        this.rowWidth = rowWidth;
+        this.memoryLimit = memoryLimit;
+        this.spillContext = spillContext;
+
+        if (fetch == SortPlanNode.NO_FETCH) {
+            rows = new ArrayList<>();
+        } else if (fetch > 0) {
+            heap = new PriorityQueue<>(fetch, comparator.reversed());
+        }
+    }
+
+    @Override
+    protected IterationResult advance0() {
+        if (!consumed) {
+            if (fetch == 0) {
+                currentBatch = EmptyRowBatch.INSTANCE;
+
+                return IterationResult.FETCHED_DONE;
+            }
+
+            if (!consume()) {
+                return IterationResult.WAIT;
+            }
+
+            consumed = true;
+
+            prepareOutput();
+        }
+
+        IterationResult res = merge == null ? nextSortedBatch() : nextMergedBatch();
+
+        if (res == IterationResult.FETCHED_DONE) {
+            finish();
+        }
+
+        return res;
+    }
+
+    @Override
+    protected RowBatch currentBatch0() {
+        return currentBatch;
+    }
+
+    /**
+     * Consume the upstream.
+     *
+     * @return {@code true} if the upstream is consumed fully, {@code false} if more rows are expected.
+     */
+    private boolean consume() {
+        while (true) {
+            if (!state.advance()) {
+                return false;
+            }
+
+            for (Row row : state) {
+                if (heap != null) {
+                    addToHeap(row);
+                } else {
+                    addToRows(row);
+                }
+            }
+
+            if (state.isDone()) {
+                return true;
+            }
+        }
+    }
+
+    private void addToHeap(Row row) {
+        if (heap.size() < fetch) {
+            if (!reserve()) {
+                // The heap doesn't fit into memory, continue with runs.
+                rows = new ArrayList<>(heap);
+                heap = null;
+
+                addToRows(row);
+
+                return;
+            }
+
+            heap.add(row);
+            memory += rowWidth;
+        } else if (comparator.compare(row, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(row);
+        }
+    }
+
+    private void addToRows(Row row) {
+        if (!reserve()) {
+            spill();
+        }
+
+        rows.add(row);
+        memory += rowWidth;
+    }
+
+    /**
+     * Make sure that there is enough reserved memory for one more row.
+     *
+     * @return {@code true} if one more row could be retained, {@code false} otherwise.
+     */
+    private boolean reserve() {
+        if (memory + rowWidth <= reservedMemory) {
+            return true;
+        }
+
+        long size = Math.min((long) BATCH_SIZE * rowWidth, memoryLimit - reservedMemory);
+
+        if (size < rowWidth || !spillContext.tryReserve(size)) {
+            return false;
+        }
+
+        reservedMemory += size;
+
+        return true;
+    }
+
+    /**
+     * Sort the accumulated rows and write them to disk, so that the reserved memory could be reused.
+     */
+    private void spill() {
+        if (rows.isEmpty()) {
+            throw QueryException.memoryLimitExceeded(Math.min(memoryLimit, spillContext.getMemoryLimit()));
+        }
+
+        rows.sort(comparator);
+
+        int count = fetch == SortPlanNode.NO_FETCH ? rows.size() : Math.min(fetch, rows.size());
+
+        SpillFile run = spillContext.createFile();
+
+        for (int i = 0; i < count; i++) {
+            run.write(rows.get(i));
+        }
+
+        run.finishWrite();
+
+        runs.add(run);
+
+        rows.clear();
+        memory = 0;
+    }
+
+    private void prepareOutput() {
+        if (heap != null) {
+            sortedRows = drainHeap();
+
+            return;
+        }
+
+        rows.sort(comparator);
+
+        if (runs.isEmpty()) {
+            sortedRows = fetch == SortPlanNode.NO_FETCH || fetch >= rows.size() ? rows : rows.subList(0, fetch);
+        } else {
+            merge = new PriorityQueue<>(runs.size() + 1, (o1, o2) -> comparator.compare(o1.row, o2.row));
+
+            Iterator<Row> iterator = rows.iterator();
+
+            addRun(() -> iterator.hasNext() ? iterator.next() : null);
+
+            for (SpillFile run : runs) {
+                addRun(run.openReader()::next);
+            }
+        }
+
+        rows = null;
+    }
+
+    private void addRun(Supplier<Row> source) {
+        RunCursor cursor = new RunCursor(source);
+
+        if (cursor.advance()) {
+            merge.add(cursor);
+        }
+    }
+
+    private List<Row> drainHeap() {
+        Row[] res = new Row[heap.size()];
+
+        for (int i = res.length - 1; i >= 0; i--) {
+            res[i] = heap.poll();
+        }
+
+        heap = null;
+
+        return Arrays.asList(res);
+    }
+
+    private IterationResult nextSortedBatch() {
+        int count = Math.min(BATCH_SIZE, sortedRows.size() - position);
+
+        currentBatch = new ListRowBatch(sortedRows.subList(position, position + count));
+        position += count;
+
+        return position == sortedRows.size() ? IterationResult.FETCHED_DONE : IterationResult.FETCHED;
+    }
+
+    private IterationResult nextMergedBatch() {
+        List<Row> batchRows = new ArrayList<>(BATCH_SIZE);
+
+        while (batchRows.size() < BATCH_SIZE && returned != fetch && !merge.isEmpty()) {
+            RunCursor cursor = merge.poll();
+
+            batchRows.add(cursor.row);
+            returned++;
+
+            if (cursor.advance()) {
+                merge.add(cursor);
+            }
+        }
+
+        currentBatch = new ListRowBatch(batchRows);
+
+        return merge.isEmpty() || returned == fetch ? IterationResult.FETCHED_DONE : IterationResult.FETCHED;
+    }
+
+    /**
+     * Release the memory and delete the runs once all rows are returned.
+     */
+    private void finish() {
+        spillContext.release(reservedMemory);
+        reservedMemory = 0;
+
+        for (SpillFile run : runs) {
+            run.delete();
+        }
+
+        runs.clear();
+    }
+
+    public SortKeyComparator getComparator() {
+        return comparator;
+    }
+
+    public int getFetch() {
+        return fetch;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public SpillContext getSpillContext() {
+        return spillContext;
+    }
+
+    /**
+     * Current row of a sorted run.
+     */
+    private static final class RunCursor {
+
+        private final Supplier<Row> source;
+        private Row row;
+
+        private RunCursor(Supplier<Row> source) {
+            this.source = source;
+        }
+
+        private boolean advance() {
+            row = source.get();
+
+            return row != null;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.spill;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.QueryId;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory quota and spill files of a single query on the local member. Shared by all fragments of the query.
+ */
+public class SpillContext {
+
+    private final QueryId queryId;
+    private final File directory;
+    private final InternalSerializationService serializationService;
+    private final SpillMetrics metrics;
+    private final long memoryLimit;
+
+    /** Memory reserved by operators. */
+    private final AtomicLong reservedMemory = new AtomicLong();
+
+    /** Bytes written to spill files. */
+    private final AtomicLong spilledBytes = new AtomicLong();
+
+    /** Files which are not deleted yet. */
+    private final List<SpillFile> files = new ArrayList<>();
+
+    /** Number of files created so far. */
+    private int fileCount;
+
+    /** Whether the context is closed. */
+    private boolean closed;
+
+    public SpillContext(
+        QueryId queryId,
+        File directory,
+        InternalSerializationService serializationService,
+        SpillMetrics metrics,
+        long memoryLimit
+    ) {
+        this.queryId = queryId;
+        this.directory = directory;
+        this.serializationService = serializationService;
+        this.metrics = metrics;
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Try to reserve memory from the query quota.
+     *
+     * @param size Number of bytes.
+     * @return {@code true} if the memory is reserved, {@code false} if the quota is exhausted.
+     */
+    public boolean tryReserve(long size) {
+        while (true) {
+            long current = reservedMemory.get();
+            long next = current + size;
+
+            if (next > memoryLimit) {
+                return false;
+            }
+
+            if (reservedMemory.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return previously reserved memory to the query quota.
+     *
+     * @param size Number of bytes.
+     */
+    public void release(long size) {
+        long res = reservedMemory.addAndGet(-size);
+
+        assert res >= 0;
+    }
+
+    /**
+     * Create a new spill file. The file is deleted when the context is closed, unless it is deleted earlier by the operator.
+     *
+     * @return Spill file.
+     */
+    public SpillFile createFile() {
+        synchronized (files) {
+            if (closed) {
+                throw QueryException.error("Query is no longer active: " + queryId);
+            }
+
+            SpillFile file = new SpillFile(this, serializationService, directory);
+
+            files.add(file);
+            fileCount++;
+
+            metrics.onFileCreated(fileCount == 1);
+
+            return file;
+        }
+    }
+
+    void onFileWritten(long size) {
+        spilledBytes.addAndGet(size);
+
+        metrics.onBytesSpilled(size);
+    }
+
+    /**
+     * Delete all files of the query.
+     */
+    public void close() {
+        List<SpillFile> files0;
+
+        synchronized (files) {
+            closed = true;
+
+            files0 = new ArrayList<>(files);
+            files.clear();
+        }
+
+        for (SpillFile file : files0) {
+            file.delete();
+        }
+    }
+
+    public QueryId getQueryId() {
+        return queryId;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public long getReservedMemory() {
+        return reservedMemory.get();
+    }
+
+    /**
+     * @return Number of files created by the query on the local member.
+     */
+    public int getFileCount() {
+        synchronized (files) {
+            return fileCount;
+        }
+    }
+
+    /**
+     * @return Number of bytes spilled to disk by the query on the local member.
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.spill;
+
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.row.Row;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Temporary file with a run of rows spilled by an operator.
+ * <p>
+ * Rows are written sequentially and then read back in the same order. Every row is stored as a length-prefixed record with
+ * the column count followed by the serialized column values. Both writes and reads go through a direct buffer, so that
+ * the channel could transfer the data without an intermediate heap copy. The file owns a single direct buffer, which is
+ * used by the writer and then lent to the readers in turn. The buffer is dropped when the file is deleted.
+ */
+public final class SpillFile {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int LENGTH_SIZE = 4;
+    private static final int OUTPUT_INITIAL_SIZE = 1024;
+
+    private final SpillContext context;
+    private final InternalSerializationService serializationService;
+    private final File file;
+    private final FileChannel channel;
+
+    /** Direct buffer of the file, {@code null} when it is lent to a reader or the file is deleted. */
+    private ByteBuffer buffer;
+
+    /** Output for row serialization, {@code null} when the file is finished. */
+    private BufferObjectDataOutput output;
+
+    /** Number of bytes written to the channel. */
+    private long size;
+
+    /** Number of rows written. */
+    private long rowCount;
+
+    SpillFile(SpillContext context, InternalSerializationService serializationService, File directory) {
+        this.context = context;
+        this.serializationService = serializationService;
+
+        try {
+            file = File.createTempFile("hazelcast-sql-spill-", ".tmp", directory);
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw QueryException.error("Failed to create a spill file in " + directory + ": " + e.getMessage(), e);
+        }
+
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        output = serializationService.createObjectDataOutput(OUTPUT_INITIAL_SIZE);
+    }
+
+    /**
+     * Append the row to the file.
+     *
+     * @param row Row.
+     */
+    public void write(Row row) {
+        assert output != null;
+
+        try {
+            output.clear();
+
+            int columnCount = row.getColumnCount();
+
+            output.writeInt(columnCount);
+
+            for (int i = 0; i < columnCount; i++) {
+                output.writeObject(row.get(i));
+            }
+
+            int length = output.position();
+
+            if (buffer.remaining() < LENGTH_SIZE) {
+                flush();
+            }
+
+            buffer.putInt(length);
+
+            for (int position = 0; position < length; ) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+
+                position += output.copyTo(position, buffer);
+            }
+
+            rowCount++;
+        } catch (IOException e) {
+            throw writeError(e);
+        }
+    }
+
+    /**
+     * Flush pending data and release the write resources, except for the buffer which is reused by the readers. No more
+     * rows could be written after this call.
+     */
+    public void finishWrite() {
+        assert output != null;
+
+        try {
+            flush();
+        } catch (IOException e) {
+            throw writeError(e);
+        }
+
+        output = null;
+
+        context.onFileWritten(size);
+    }
+
+    /**
+     * Open a reader which returns rows in the order they were written.
+     *
+     * @return Reader.
+     */
+    public Reader openReader() {
+        assert output == null;
+
+        return new Reader();
+    }
+
+    /**
+     * Delete the file and drop its buffer.
+     */
+    public void delete() {
+        buffer = null;
+
+        try {
+            channel.close();
+
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException ignore) {
+            // The file will be deleted with the rest of the query's files or on the member restart.
+            file.deleteOnExit();
+        }
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer, size);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Lend the buffer of the file to a reader. A new buffer is allocated if the buffer is lent to another reader.
+     */
+    private ByteBuffer lendBuffer() {
+        ByteBuffer res = buffer;
+
+        if (res == null) {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        buffer = null;
+
+        return res;
+    }
+
+    /**
+     * Return a buffer lent by {@link #lendBuffer()}, unless the file already has one or is deleted.
+     */
+    private void returnBuffer(ByteBuffer readBuffer) {
+        if (buffer == null && channel.isOpen()) {
+            buffer = readBuffer;
+        }
+    }
+
+    private QueryException writeError(IOException e) {
+        return QueryException.error("Failed to write to the spill file " + file + ": " + e.getMessage(), e);
+    }
+
+    /**
+     * Sequential reader of the file.
+     */
+    public final class Reader {
+
+        /** Buffer lent by the file, {@code null} once all rows have been read. */
+        private ByteBuffer readBuffer;
+
+        /** Position of the next read from the channel. */
+        private long position;
+
+        /** Number of rows left. */
+        private long remaining = rowCount;
+
+        private Reader() {
+            if (remaining > 0) {
+                readBuffer = lendBuffer();
+                readBuffer.clear();
+                readBuffer.flip();
+            }
+        }
+
+        /**
+         * @return The next row or {@code null} if all rows have been read.
+         */
+        public Row next() {
+            if (remaining == 0) {
+                return null;
+            }
+
+            try {
+                ensureAvailable(LENGTH_SIZE);
+
+                byte[] bytes = new byte[readBuffer.getInt()];
+
+                for (int offset = 0; offset < bytes.length; ) {
+                    ensureAvailable(1);
+
+                    int count = Math.min(bytes.length - offset, readBuffer.remaining());
+
+                    readBuffer.get(bytes, offset, count);
+                    offset += count;
+                }
+
+                BufferObjectDataInput input = serializationService.createObjectDataInput(bytes);
+
+                Object[] values = new Object[input.readInt()];
+
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = input.readObject();
+                }
+
+                if (--remaining == 0) {
+                    returnBuffer(readBuffer);
+                    readBuffer = null;
+                }
+
+                return new HeapRow(values);
+            } catch (IOException e) {
+                throw QueryException.error("Failed to read from the spill file " + file + ": " + e.getMessage(), e);
+            }
+        }
+
+        private void ensureAvailable(int count) throws IOException {
+            if (readBuffer.remaining() >= count) {
+                return;
+            }
+
+            readBuffer.compact();
+
+            while (readBuffer.position() < count) {
+                int read = channel.read(readBuffer, position);
+
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+
+                position += read;
+            }
+
+            readBuffer.flip();
+        }
+    }
+}
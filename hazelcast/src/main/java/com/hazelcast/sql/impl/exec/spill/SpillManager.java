@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.spill;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.sql.impl.QueryId;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Member-wide registry of {@link SpillContext} instances of running queries.
+ */
+public class SpillManager {
+
+    private final File directory;
+    private final InternalSerializationService serializationService;
+    private final long queryMemoryLimit;
+    private final ILogger logger;
+    private final SpillMetrics metrics = new SpillMetrics();
+    private final ConcurrentHashMap<QueryId, SpillContext> contexts = new ConcurrentHashMap<>();
+
+    public SpillManager(
+        File directory,
+        InternalSerializationService serializationService,
+        long queryMemoryLimit,
+        ILogger logger
+    ) {
+        this.directory = directory;
+        this.serializationService = serializationService;
+        this.queryMemoryLimit = queryMemoryLimit;
+        this.logger = logger;
+    }
+
+    /**
+     * Get the context of the query, creating it if needed.
+     *
+     * @param queryId Query ID.
+     * @return Context.
+     */
+    public SpillContext getOrCreateContext(QueryId queryId) {
+        return contexts.computeIfAbsent(
+            queryId,
+            key -> new SpillContext(key, directory, serializationService, metrics, queryMemoryLimit)
+        );
+    }
+
+    /**
+     * Release resources of the completed query.
+     *
+     * @param queryId Query ID.
+     */
+    public void onQueryCompleted(QueryId queryId) {
+        SpillContext context = contexts.remove(queryId);
+
+        if (context == null) {
+            return;
+        }
+
+        context.close();
+
+        long spilledBytes = context.getSpilledBytes();
+
+        if (spilledBytes > 0 && logger.isFineEnabled()) {
+            logger.fine("Query " + queryId + " spilled " + spilledBytes + " bytes to disk");
+        }
+    }
+
+    /**
+     * Release resources of all queries.
+     */
+    public void reset() {
+        for (QueryId queryId : contexts.keySet()) {
+            onQueryCompleted(queryId);
+        }
+    }
+
+    public SpillMetrics getMetrics() {
+        return metrics;
+    }
+
+    public long getQueryMemoryLimit() {
+        return queryMemoryLimit;
+    }
+
+    /**
+     * For testing only.
+     */
+    public SpillContext getContext(QueryId queryId) {
+        return contexts.get(queryId);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.spill;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_SPILL_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_SPILL_FILES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_SPILL_QUERIES;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Member-wide metrics of SQL spilling. Per-query values are available from {@link SpillContext#getSpilledBytes()}.
+ */
+public class SpillMetrics {
+
+    @Probe(name = SQL_METRIC_SPILL_BYTES, unit = BYTES)
+    private final MwCounter bytesSpilled = newMwCounter();
+
+    @Probe(name = SQL_METRIC_SPILL_FILES)
+    private final MwCounter filesCreated = newMwCounter();
+
+    @Probe(name = SQL_METRIC_SPILL_QUERIES)
+    private final MwCounter queriesSpilled = newMwCounter();
+
+    void onFileCreated(boolean firstFileOfQuery) {
+        filesCreated.inc();
+
+        if (firstFileOfQuery) {
+            queriesSpilled.inc();
+        }
+    }
+
+    void onBytesSpilled(long size) {
+        bytesSpilled.inc(size);
+    }
+
+    public long getBytesSpilled() {
+        return bytesSpilled.get();
+    }
+
+    public long getFilesCreated() {
+        return filesCreated.get();
+    }
+
+    public long getQueriesSpilled() {
+        return queriesSpilled.get();
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.hazelcast.sql.impl.operation;
 
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.sql.impl.QueryId;
 import com.hazelcast.sql.impl.plan.Plan;
 import com.hazelcast.sql.impl.plan.PlanFragmentMapping;
@@ -38,15 +40,21 @@ public class QueryExecuteOperationFactory {
     private final Plan plan;
     private final List<Object> args;
     private final Map<Integer, Long> edgeInitialMemoryMap;
+    private final UUID localMemberId;
+    private final SerializationService serializationService;
 
     public QueryExecuteOperationFactory(
         Plan plan,
         List<Object> args,
-        Map<Integer, Long> edgeInitialMemoryMap
+        Map<Integer, Long> edgeInitialMemoryMap,
+        UUID localMemberId,
+        SerializationService serializationService
     ) {
         this.plan = plan;
         this.args = args;
         this.edgeInitialMemoryMap = edgeInitialMemoryMap;
+        this.localMemberId = localMemberId;
+        this.serializationService = serializationService;
     }
 
     public QueryExecuteOperation create(QueryId queryId, UUID targetMemberId) {
@@ -72,7 +80,11 @@ public class QueryExecuteOperationFactory {
                 node = memberIds.contains(targetMemberId) ? plan.getFragment(i) : null;
             }
 
-            fragments.add(new QueryExecuteOperationFragment(node, mapping, memberIds));
+            // Operations for remote members carry the fragment serialized once per plan.
+            Data nodeData = node != null && !targetMemberId.equals(localMemberId)
+                ? plan.getFragmentData(i, serializationService) : null;
+
+            fragments.add(new QueryExecuteOperationFragment(node, nodeData, mapping, memberIds));
         }
 
         return new QueryExecuteOperation(
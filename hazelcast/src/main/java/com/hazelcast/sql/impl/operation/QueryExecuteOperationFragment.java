@@ -16,6 +16,8 @@
 
 package com.hazelcast.sql.impl.operation;
 
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.UUIDSerializationUtil;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -35,6 +37,7 @@ import java.util.UUID;
 public class QueryExecuteOperationFragment implements IdentifiedDataSerializable {
 
     private PlanNode node;
+    private Data nodeData;
     private QueryExecuteOperationFragmentMapping mapping;
     private Collection<UUID> memberIds;
 
@@ -46,8 +49,25 @@ public class QueryExecuteOperationFragment implements IdentifiedDataSerializable
         PlanNode node,
         QueryExecuteOperationFragmentMapping mapping,
         Collection<UUID> memberIds
+    ) {
+        this(node, null, mapping, memberIds);
+    }
+
+    /**
+     * @param node Operator tree or {@code null} if the fragment should not be executed on the target node.
+     * @param nodeData Serialized operator tree which is written instead of the node, or {@code null} if the node should be
+     *     serialized during operation serialization.
+     * @param mapping Mapping.
+     * @param memberIds Explicit member IDs.
+     */
+    public QueryExecuteOperationFragment(
+        PlanNode node,
+        Data nodeData,
+        QueryExecuteOperationFragmentMapping mapping,
+        Collection<UUID> memberIds
     ) {
         this.node = node;
+        this.nodeData = nodeData;
         this.mapping = mapping;
         this.memberIds = memberIds;
     }
@@ -59,6 +79,13 @@ public class QueryExecuteOperationFragment implements IdentifiedDataSerializable
         return node;
     }
 
+    /**
+     * @return Pre-serialized operator tree or {@code null}.
+     */
+    public Data getNodeData() {
+        return nodeData;
+    }
+
     public QueryExecuteOperationFragmentMapping getMapping() {
         return mapping;
     }
@@ -79,7 +106,7 @@ public class QueryExecuteOperationFragment implements IdentifiedDataSerializable
 
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
-        out.writeObject(node);
+        IOUtil.writeObject(out, nodeData != null ? nodeData : node);
         out.writeInt(mapping.getId());
 
         if (memberIds != null) {
@@ -95,7 +122,7 @@ public class QueryExecuteOperationFragment implements IdentifiedDataSerializable
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
-        node = in.readObject();
+        node = in.readBoolean() ? IOUtil.readDataAsObject(in) : in.readObject();
         mapping = QueryExecuteOperationFragmentMapping.getById(in.readInt());
 
         int mappedMemberIdsSize = in.readInt();
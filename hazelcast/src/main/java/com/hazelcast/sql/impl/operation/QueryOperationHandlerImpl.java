@@ -28,10 +28,13 @@ import com.hazelcast.sql.impl.exec.Exec;
 import com.hazelcast.sql.impl.exec.io.InboundHandler;
 import com.hazelcast.sql.impl.exec.io.OutboundHandler;
 import com.hazelcast.sql.impl.exec.io.flowcontrol.FlowControlFactory;
+import com.hazelcast.sql.impl.exec.spill.SpillContext;
+import com.hazelcast.sql.impl.exec.spill.SpillManager;
 import com.hazelcast.sql.impl.state.QueryState;
 import com.hazelcast.sql.impl.state.QueryStateCompletionCallback;
 import com.hazelcast.sql.impl.state.QueryStateRegistry;
 import com.hazelcast.sql.impl.worker.QueryFragmentExecutable;
+import com.hazelcast.sql.impl.worker.QueryFragmentGroup;
 import com.hazelcast.sql.impl.worker.QueryFragmentWorkerPool;
 import com.hazelcast.sql.impl.worker.QueryOperationExecutable;
 import com.hazelcast.sql.impl.worker.QueryOperationWorkerPool;
@@ -53,7 +56,9 @@ public class QueryOperationHandlerImpl implements QueryOperationHandler, QuerySt
     private final QueryFragmentWorkerPool fragmentPool;
     private final QueryOperationWorkerPool operationPool;
     private final int outboxBatchSize;
+    private final long operatorMemoryLimit;
     private final FlowControlFactory flowControlFactory;
+    private final SpillManager spillManager;
 
     public QueryOperationHandlerImpl(
         String instanceName,
@@ -61,21 +66,20 @@ public class QueryOperationHandlerImpl implements QueryOperationHandler, QuerySt
         InternalSerializationService serializationService,
         QueryStateRegistry stateRegistry,
         int outboxBatchSize,
+        long operatorMemoryLimit,
         FlowControlFactory flowControlFactory,
-        int threadCount,
+        SpillManager spillManager,
+        QueryFragmentWorkerPool fragmentPool,
         int operationThreadCount
     ) {
         this.nodeServiceProvider = nodeServiceProvider;
         this.serializationService = serializationService;
         this.stateRegistry = stateRegistry;
         this.outboxBatchSize = outboxBatchSize;
+        this.operatorMemoryLimit = operatorMemoryLimit;
         this.flowControlFactory = flowControlFactory;
-
-        fragmentPool = new QueryFragmentWorkerPool(
-            instanceName,
-            threadCount,
-            nodeServiceProvider.getLogger(QueryFragmentWorkerPool.class)
-        );
+        this.spillManager = spillManager;
+        this.fragmentPool = fragmentPool;
 
         operationPool = new QueryOperationWorkerPool(
             instanceName,
@@ -87,6 +91,10 @@ public class QueryOperationHandlerImpl implements QueryOperationHandler, QuerySt
         );
     }
 
+    public void start() {
+        fragmentPool.start();
+    }
+
     public void stop() {
         fragmentPool.stop();
         operationPool.stop();
@@ -180,6 +188,11 @@ public class QueryOperationHandlerImpl implements QueryOperationHandler, QuerySt
 
         List<QueryFragmentExecutable> fragmentExecutables = new ArrayList<>(operation.getFragments().size());
 
+        SpillContext spillContext = spillManager.getOrCreateContext(operation.getQueryId());
+
+        // Fragments of the query share the same scheduling group to get a fair share of worker threads.
+        QueryFragmentGroup fragmentGroup = new QueryFragmentGroup(operation.getQueryId());
+
         for (QueryExecuteOperationFragment fragmentDescriptor : operation.getFragments()) {
             // Skip unrelated fragments.
             if (fragmentDescriptor.getNode() == null) {
@@ -192,7 +205,9 @@ public class QueryOperationHandlerImpl implements QueryOperationHandler, QuerySt
                 localMemberId,
                 operation,
                 flowControlFactory,
-                outboxBatchSize
+                outboxBatchSize,
+                operatorMemoryLimit,
+                spillContext
             );
 
             fragmentDescriptor.getNode().visit(visitor);
@@ -209,6 +224,7 @@ public class QueryOperationHandlerImpl implements QueryOperationHandler, QuerySt
                 exec,
                 inboxes,
                 outboxes,
+                fragmentGroup,
                 fragmentPool
             );
 
@@ -326,6 +342,7 @@ public class QueryOperationHandlerImpl implements QueryOperationHandler, QuerySt
     @Override
     public void onCompleted(QueryId queryId) {
         stateRegistry.onQueryCompleted(queryId);
+        spillManager.onQueryCompleted(queryId);
     }
 
     @Override
@@ -342,6 +359,7 @@ public class QueryOperationHandlerImpl implements QueryOperationHandler, QuerySt
             }
         } finally {
             stateRegistry.onQueryCompleted(queryId);
+            spillManager.onQueryCompleted(queryId);
         }
     }
 
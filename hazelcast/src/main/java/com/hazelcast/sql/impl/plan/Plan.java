@@ -16,6 +16,8 @@
 
 package com.hazelcast.sql.impl.plan;
 
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.sql.impl.plan.node.PlanNode;
 
@@ -23,6 +25,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Query plan implementation.
@@ -46,6 +49,9 @@ public class Plan {
     /** Map from inbound edge ID to number of members which will write into it. */
     private final Map<Integer, Integer> inboundEdgeMemberCountMap;
 
+    /** Serialized fragment nodes, created when the fragment is sent to a remote member for the first time. */
+    private final AtomicReferenceArray<Data> fragmentData;
+
     public Plan(
         Map<UUID, PartitionIdSet> partMap,
         List<PlanNode> fragments,
@@ -60,6 +66,8 @@ public class Plan {
         this.outboundEdgeMap = outboundEdgeMap;
         this.inboundEdgeMap = inboundEdgeMap;
         this.inboundEdgeMemberCountMap = inboundEdgeMemberCountMap;
+
+        fragmentData = fragments != null ? new AtomicReferenceArray<>(fragments.size()) : null;
     }
 
     public Map<UUID, PartitionIdSet> getPartitionMap() {
@@ -78,6 +86,27 @@ public class Plan {
         return fragments.get(index);
     }
 
+    /**
+     * Get the serialized form of the fragment node. The node is serialized only once, so that the same plan could be sent
+     * to many members or executed many times without repeated serialization.
+     *
+     * @param index Fragment index.
+     * @param serializationService Serialization service.
+     * @return Serialized fragment node.
+     */
+    public Data getFragmentData(int index, SerializationService serializationService) {
+        Data res = fragmentData.get(index);
+
+        if (res == null) {
+            // Concurrent serialization of the same node is benign: the results are equal.
+            res = serializationService.toData(fragments.get(index));
+
+            fragmentData.set(index, res);
+        }
+
+        return res;
+    }
+
     public PlanFragmentMapping getFragmentMapping(int index) {
         return fragmentMappings.get(index);
     }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.cache;
+
+import com.hazelcast.sql.impl.plan.Plan;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Member-side cache of query plans.
+ * <p>
+ * A plan depends on the partition distribution it was created for, so every entry remembers the partition table version
+ * observed before the plan was created. An entry is invalidated on access if the version has changed since then. Plans
+ * depend on the schema (maps, indexes) as well, so all of them are invalidated through {@link #invalidateAll()} when a map
+ * or an index is created or destroyed. Every invalidation increments the schema version of the cache, so that a plan
+ * created concurrently with the invalidation is not cached.
+ * <p>
+ * The cache is bounded. When the size exceeds the limit, the least recently used entries are evicted in a single pass,
+ * leaving some free space to amortize the cost of the eviction.
+ */
+public class PlanCache {
+
+    /** Fraction of the maximum size which is freed on overflow. */
+    private static final int EVICTION_FRACTION = 10;
+
+    private final int maxSize;
+    private final ConcurrentHashMap<PlanCacheKey, Entry> entries = new ConcurrentHashMap<>();
+    private final PlanCacheMetrics metrics = new PlanCacheMetrics();
+    private final AtomicInteger schemaVersion = new AtomicInteger();
+
+    public PlanCache(int maxSize) {
+        assert maxSize > 0;
+
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the cached plan.
+     *
+     * @param key Key.
+     * @param partitionStateVersion Current partition table version.
+     * @return Plan or {@code null} if there is no valid plan for the key.
+     */
+    public Plan get(PlanCacheKey key, int partitionStateVersion) {
+        Entry entry = entries.get(key);
+
+        if (entry != null && entry.partitionStateVersion != partitionStateVersion) {
+            if (entries.remove(key, entry)) {
+                metrics.onInvalidations(1);
+            }
+
+            entry = null;
+        }
+
+        if (entry == null) {
+            metrics.onMiss();
+
+            return null;
+        }
+
+        entry.lastUsed = System.nanoTime();
+
+        metrics.onHit();
+
+        return entry.plan;
+    }
+
+    /**
+     * Put the plan to the cache.
+     *
+     * @param key Key.
+     * @param plan Plan.
+     * @param partitionStateVersion Partition table version observed before the plan was created.
+     * @param schemaVersion Schema version of the cache observed before the plan was created.
+     */
+    public void put(PlanCacheKey key, Plan plan, int partitionStateVersion, int schemaVersion) {
+        Entry entry = new Entry(plan, partitionStateVersion);
+
+        entries.put(key, entry);
+
+        if (this.schemaVersion.get() != schemaVersion) {
+            // The schema has changed while the plan was being created.
+            entries.remove(key, entry);
+
+            return;
+        }
+
+        if (entries.size() > maxSize) {
+            shrink();
+        }
+    }
+
+    /**
+     * Remove all plans, e.g. because the schema has changed.
+     */
+    public void invalidateAll() {
+        schemaVersion.incrementAndGet();
+
+        int count = 0;
+
+        for (PlanCacheKey key : entries.keySet()) {
+            if (entries.remove(key) != null) {
+                count++;
+            }
+        }
+
+        metrics.onInvalidations(count);
+    }
+
+    /**
+     * @return Schema version, incremented on every {@link #invalidateAll()} call.
+     */
+    public int getSchemaVersion() {
+        return schemaVersion.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public PlanCacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void shrink() {
+        List<Map.Entry<PlanCacheKey, Entry>> entries0 = new ArrayList<>(entries.entrySet());
+
+        int count = entries0.size() - maxSize + maxSize / EVICTION_FRACTION;
+
+        if (count <= 0) {
+            // Concurrent shrink has already freed the space.
+            return;
+        }
+
+        entries0.sort(Comparator.comparingLong(e -> e.getValue().lastUsed));
+
+        int evicted = 0;
+
+        for (int i = 0; i < count && i < entries0.size(); i++) {
+            Map.Entry<PlanCacheKey, Entry> entry = entries0.get(i);
+
+            if (entries.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+
+        metrics.onEvictions(evicted);
+    }
+
+    private static final class Entry {
+
+        private final Plan plan;
+        private final int partitionStateVersion;
+        private volatile long lastUsed;
+
+        private Entry(Plan plan, int partitionStateVersion) {
+            this.plan = plan;
+            this.partitionStateVersion = partitionStateVersion;
+
+            lastUsed = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.cache;
+
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.sql.impl.type.QueryDataTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Key of the plan cache: normalized query text and types of the query parameters.
+ * <p>
+ * Normalization collapses every sequence of whitespace characters outside of quoted literals and identifiers into a single
+ * space and trims the text, so that queries which differ only in formatting share the same plan.
+ */
+public final class PlanCacheKey {
+
+    private final String sql;
+    private final List<QueryDataType> parameterTypes;
+    private final int hash;
+
+    public PlanCacheKey(String sql, List<QueryDataType> parameterTypes) {
+        this.sql = sql;
+        this.parameterTypes = parameterTypes;
+
+        hash = Objects.hash(sql, parameterTypes);
+    }
+
+    /**
+     * Create the key for the query.
+     *
+     * @param sql Query text.
+     * @param params Query parameters.
+     * @return Key.
+     */
+    public static PlanCacheKey create(String sql, List<Object> params) {
+        List<QueryDataType> parameterTypes = new ArrayList<>(params.size());
+
+        for (Object param : params) {
+            parameterTypes.add(QueryDataTypeUtils.resolveType(param));
+        }
+
+        return new PlanCacheKey(normalize(sql), parameterTypes);
+    }
+
+    static String normalize(String sql) {
+        StringBuilder res = new StringBuilder(sql.length());
+
+        char quote = 0;
+        boolean whitespace = false;
+
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+
+            if (quote == 0 && Character.isWhitespace(c)) {
+                whitespace = true;
+
+                continue;
+            }
+
+            if (whitespace && res.length() > 0) {
+                res.append(' ');
+            }
+
+            whitespace = false;
+
+            if (quote == 0 && (c == '\'' || c == '"')) {
+                quote = c;
+            } else if (c == quote) {
+                // Doubled quotes inside the literal are handled naturally: the literal is closed and immediately reopened.
+                quote = 0;
+            }
+
+            res.append(c);
+        }
+
+        return res.toString();
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<QueryDataType> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        PlanCacheKey other = (PlanCacheKey) o;
+
+        return hash == other.hash && sql.equals(other.sql) && parameterTypes.equals(other.parameterTypes);
+    }
+
+    @Override
+    public String toString() {
+        return "PlanCacheKey {sql=" + sql + ", parameterTypes=" + parameterTypes + '}';
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.cache;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_PLAN_CACHE_EVICTIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_PLAN_CACHE_HITS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_PLAN_CACHE_INVALIDATIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_PLAN_CACHE_MISSES;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Metrics of the plan cache.
+ */
+public class PlanCacheMetrics {
+
+    @Probe(name = SQL_METRIC_PLAN_CACHE_HITS)
+    private final MwCounter hits = newMwCounter();
+
+    @Probe(name = SQL_METRIC_PLAN_CACHE_MISSES)
+    private final MwCounter misses = newMwCounter();
+
+    @Probe(name = SQL_METRIC_PLAN_CACHE_EVICTIONS)
+    private final MwCounter evictions = newMwCounter();
+
+    @Probe(name = SQL_METRIC_PLAN_CACHE_INVALIDATIONS)
+    private final MwCounter invalidations = newMwCounter();
+
+    void onHit() {
+        hits.inc();
+    }
+
+    void onMiss() {
+        misses.inc();
+    }
+
+    void onEvictions(int count) {
+        evictions.inc(count);
+    }
+
+    void onInvalidations(int count) {
+        invalidations.inc(count);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.plan.node;
+
+import com.hazelcast.internal.serialization.impl.SerializationUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.sql.impl.SqlDataSerializerHook;
+import com.hazelcast.sql.impl.expression.Expression;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hash join node. The right input is the build side, the left input is the probe side.
+ * <p>
+ * The node itself is agnostic to data distribution. A broadcast join is planned by putting a
+ * {@link com.hazelcast.sql.impl.plan.node.io.BroadcastSendPlanNode} on top of the right input, so that every member
+ * receives the whole build side, while the left input is processed locally. A partitioned join is planned by putting
+ * {@link com.hazelcast.sql.impl.plan.node.io.UnicastSendPlanNode} on top of both inputs, so that rows with equal join
+ * keys end up on the same member.
+ */
+public class HashJoinPlanNode extends BiInputPlanNode implements IdentifiedDataSerializable {
+    /** Residual non-equi condition applied to joined rows, may be null. */
+    private Expression<Boolean> condition;
+
+    /** Indexes of key columns in the left input. */
+    private List<Integer> leftHashKeys;
+
+    /** Indexes of key columns in the right input. */
+    private List<Integer> rightHashKeys;
+
+    /** Whether this is a left outer join. */
+    private boolean outer;
+
+    public HashJoinPlanNode() {
+        // No-op.
+    }
+
+    public HashJoinPlanNode(
+        int id,
+        PlanNode left,
+        PlanNode right,
+        Expression<Boolean> condition,
+        List<Integer> leftHashKeys,
+        List<Integer> rightHashKeys,
+        boolean outer
+    ) {
+        super(id, left, right);
+
+        assert leftHashKeys != null && !leftHashKeys.isEmpty();
+        assert rightHashKeys != null && rightHashKeys.size() == leftHashKeys.size();
+
+        this.condition = condition;
+        this.leftHashKeys = leftHashKeys;
+        this.rightHashKeys = rightHashKeys;
+        this.outer = outer;
+    }
+
+    public Expression<Boolean> getCondition() {
+        return condition;
+    }
+
+    public List<Integer> getLeftHashKeys() {
+        return leftHashKeys;
+    }
+
+    public List<Integer> getRightHashKeys() {
+        return rightHashKeys;
+    }
+
+    public boolean isOuter() {
+        return outer;
+    }
+
+    @Override
+    protected void visit0(PlanNodeVisitor visitor) {
+        visitor.onHashJoinNode(this);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SqlDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SqlDataSerializerHook.NODE_HASH_JOIN;
+    }
+
+    @Override
+    protected void writeData1(ObjectDataOutput out) throws IOException {
+        out.writeObject(condition);
+        SerializationUtil.writeList(leftHashKeys, out);
+        SerializationUtil.writeList(rightHashKeys, out);
+        out.writeBoolean(outer);
+    }
+
+    @Override
+    protected void readData1(ObjectDataInput in) throws IOException {
+        condition = in.readObject();
+        leftHashKeys = SerializationUtil.readList(in);
+        rightHashKeys = SerializationUtil.readList(in);
+        outer = in.readBoolean();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, left, right, condition, leftHashKeys, rightHashKeys, outer);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        HashJoinPlanNode that = (HashJoinPlanNode) o;
+
+        return id == that.id && left.equals(that.left) && right.equals(that.right)
+            && Objects.equals(condition, that.condition) && leftHashKeys.equals(that.leftHashKeys)
+            && rightHashKeys.equals(that.rightHashKeys) && outer == that.outer;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{id=" + id + ", condition=" + condition + ", leftHashKeys=" + leftHashKeys
+            + ", rightHashKeys=" + rightHashKeys + ", outer=" + outer + ", left=" + left + ", right=" + right + '}';
+    }
+}
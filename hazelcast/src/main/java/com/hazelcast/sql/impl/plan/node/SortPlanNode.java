@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.node;
+
+import com.hazelcast.internal.serialization.impl.SerializationUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.sql.impl.SqlDataSerializerHook;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sort node. Sorts the rows of the local upstream.
+ * <p>
+ * A distributed ORDER BY is planned by putting this node below a send node on every member, and a
+ * {@link com.hazelcast.sql.impl.plan.node.io.MergeSortReceivePlanNode} with the same keys on the receiving side. When
+ * the query has a LIMIT, the same fetch is set on both nodes, so that every member sends at most that many rows.
+ */
+public class SortPlanNode extends UniInputPlanNode implements IdentifiedDataSerializable {
+    /** Fetch value meaning that all rows should be returned. */
+    public static final int NO_FETCH = -1;
+
+    /** Indexes of sort key columns. */
+    private List<Integer> columns;
+
+    /** Whether the respective sort key column is sorted in ascending order. */
+    private List<Boolean> ascs;
+
+    /** Maximum number of rows to return, or {@link #NO_FETCH}. */
+    private int fetch;
+
+    public SortPlanNode() {
+        // No-op.
+    }
+
+    public SortPlanNode(int id, PlanNode upstream, List<Integer> columns, List<Boolean> ascs, int fetch) {
+        super(id, upstream);
+
+        assert columns != null && !columns.isEmpty();
+        assert ascs != null && ascs.size() == columns.size();
+        assert fetch >= 0 || fetch == NO_FETCH;
+
+        this.columns = columns;
+        this.ascs = ascs;
+        this.fetch = fetch;
+    }
+
+    public List<Integer> getColumns() {
+        return columns;
+    }
+
+    public List<Boolean> getAscs() {
+        return ascs;
+    }
+
+    public int getFetch() {
+        return fetch;
+    }
+
+    @Override
+    protected void visit0(PlanNodeVisitor visitor) {
+        visitor.onSortNode(this);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SqlDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SqlDataSerializerHook.NODE_SORT;
+    }
+
+    @Override
+    protected void writeData1(ObjectDataOutput out) throws IOException {
+        SerializationUtil.writeList(columns, out);
+        SerializationUtil.writeList(ascs, out);
+        out.writeInt(fetch);
+    }
+
+    @Override
+    protected void readData1(ObjectDataInput in) throws IOException {
+        columns = SerializationUtil.readList(in);
+        ascs = SerializationUtil.readList(in);
+        fetch = in.readInt();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, columns, ascs, fetch, upstream);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SortPlanNode that = (SortPlanNode) o;
+
+        return id == that.id && columns.equals(that.columns) && ascs.equals(that.ascs) && fetch == that.fetch
+            && upstream.equals(that.upstream);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{id=" + id + ", columns=" + columns + ", ascs=" + ascs + ", fetch=" + fetch
+            + ", upstream=" + upstream + '}';
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.node.io;
+
+import com.hazelcast.internal.serialization.impl.SerializationUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.sql.impl.SqlDataSerializerHook;
+import com.hazelcast.sql.impl.plan.node.PlanNodeSchema;
+import com.hazelcast.sql.impl.plan.node.PlanNodeVisitor;
+import com.hazelcast.sql.impl.plan.node.SortPlanNode;
+import com.hazelcast.sql.impl.plan.node.ZeroInputPlanNode;
+import com.hazelcast.sql.impl.type.QueryDataType;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Physical node which receives already sorted streams from remote stripes and merges them preserving the order.
+ * <p>
+ * When the fetch is set and the node is located in the root fragment, remote fragments are cancelled as soon as the
+ * query result is complete.
+ */
+public class MergeSortReceivePlanNode extends ZeroInputPlanNode implements EdgeAwarePlanNode, IdentifiedDataSerializable {
+    /** Edge ID. */
+    private int edgeId;
+
+    /** Field types. */
+    private List<QueryDataType> fieldTypes;
+
+    /** Indexes of sort key columns. */
+    private List<Integer> columns;
+
+    /** Whether the respective sort key column is sorted in ascending order. */
+    private List<Boolean> ascs;
+
+    /** Maximum number of rows to return, or {@link SortPlanNode#NO_FETCH}. */
+    private int fetch;
+
+    public MergeSortReceivePlanNode() {
+        // No-op.
+    }
+
+    public MergeSortReceivePlanNode(
+        int id,
+        int edgeId,
+        List<QueryDataType> fieldTypes,
+        List<Integer> columns,
+        List<Boolean> ascs,
+        int fetch
+    ) {
+        super(id);
+
+        assert columns != null && !columns.isEmpty();
+        assert ascs != null && ascs.size() == columns.size();
+        assert fetch >= 0 || fetch == SortPlanNode.NO_FETCH;
+
+        this.edgeId = edgeId;
+        this.fieldTypes = fieldTypes;
+        this.columns = columns;
+        this.ascs = ascs;
+        this.fetch = fetch;
+    }
+
+    @Override
+    public int getEdgeId() {
+        return edgeId;
+    }
+
+    @Override
+    public boolean isSender() {
+        return false;
+    }
+
+    public List<Integer> getColumns() {
+        return columns;
+    }
+
+    public List<Boolean> getAscs() {
+        return ascs;
+    }
+
+    public int getFetch() {
+        return fetch;
+    }
+
+    @Override
+    public void visit(PlanNodeVisitor visitor) {
+        visitor.onMergeSortReceiveNode(this);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SqlDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SqlDataSerializerHook.NODE_MERGE_SORT_RECEIVE;
+    }
+
+    @Override
+    public PlanNodeSchema getSchema0() {
+        return new PlanNodeSchema(fieldTypes);
+    }
+
+    @Override
+    public void writeData0(ObjectDataOutput out) throws IOException {
+        out.writeInt(edgeId);
+        SerializationUtil.writeList(fieldTypes, out);
+        SerializationUtil.writeList(columns, out);
+        SerializationUtil.writeList(ascs, out);
+        out.writeInt(fetch);
+    }
+
+    @Override
+    public void readData0(ObjectDataInput in) throws IOException {
+        edgeId = in.readInt();
+        fieldTypes = SerializationUtil.readList(in);
+        columns = SerializationUtil.readList(in);
+        ascs = SerializationUtil.readList(in);
+        fetch = in.readInt();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, edgeId, fieldTypes, columns, ascs, fetch);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        MergeSortReceivePlanNode that = (MergeSortReceivePlanNode) o;
+
+        return id == that.id && edgeId == that.edgeId && fieldTypes.equals(that.fieldTypes) && columns.equals(that.columns)
+            && ascs.equals(that.ascs) && fetch == that.fetch;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{id=" + id + ", edgeId=" + edgeId + ", fieldTypes=" + fieldTypes
+            + ", columns=" + columns + ", ascs=" + ascs + ", fetch=" + fetch + '}';
+    }
+}
@@ -58,6 +58,9 @@ public final class QueryState implements QueryStateCallback {
     /** Error which caused query completion. */
     private volatile QueryException completionError;
 
+    /** Whether some local fragment stopped consuming its inputs before they were exhausted. */
+    private volatile boolean inputAbandoned;
+
     /** Time when the a check was performed for the last time. */
     private volatile long checkTime;
 
@@ -171,10 +174,25 @@ public final class QueryState implements QueryStateCallback {
                 return;
             }
 
-            completionCallback.onCompleted(queryId);
+            if (isInitiator() && inputAbandoned) {
+                // The result is complete, but remote fragments may still be producing rows nobody is going to consume.
+                QueryException error = QueryException.resultComplete();
+
+                Collection<UUID> memberIds = new HashSet<>(getParticipants());
+                memberIds.remove(localMemberId);
+
+                completionCallback.onError(queryId, error.getCode(), error.getMessage(), localMemberId, memberIds);
+            } else {
+                completionCallback.onCompleted(queryId);
+            }
         }
     }
 
+    @Override
+    public void onInputAbandoned() {
+        inputAbandoned = true;
+    }
+
     @Override
     public void cancel(Exception error) {
         // Make sure that this thread changes the state.
@@ -25,6 +25,12 @@ public interface QueryStateCallback {
      */
     void onFragmentFinished();
 
+    /**
+     * Notify the query that a fragment has stopped consuming its inputs before they were exhausted, e.g. because LIMIT is
+     * reached. Remote fragments which may still be running are cancelled when the query completes on the initiator.
+     */
+    void onInputAbandoned();
+
     /**
      * Cancel the query with error.
      *
@@ -53,6 +53,14 @@ public final class QueryFragmentContext implements ExpressionEvalContext {
         scheduleCallback.schedule();
     }
 
+    public boolean shouldYield(int rowCount) {
+        return scheduleCallback.shouldYield(rowCount);
+    }
+
+    public void onInputAbandoned() {
+        stateCallback.onInputAbandoned();
+    }
+
     public void checkCancelled() {
         stateCallback.checkCancelled();
     }
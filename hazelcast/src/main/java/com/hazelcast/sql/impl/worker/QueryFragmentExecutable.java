@@ -45,6 +45,7 @@ public class QueryFragmentExecutable implements QueryFragmentScheduleCallback {
     private final Exec exec;
     private final Map<Integer, InboundHandler> inboxes;
     private final Map<Integer, Map<UUID, OutboundHandler>> outboxes;
+    private final QueryFragmentGroup group;
     private final QueryFragmentWorkerPool fragmentPool;
 
     /** Operations to be processed. */
@@ -62,12 +63,22 @@ public class QueryFragmentExecutable implements QueryFragmentScheduleCallback {
     /** Whether the fragment has completed. */
     private volatile boolean completed;
 
+    /** Time when the current quantum started. Accessed only by the thread executing the fragment. */
+    private long quantumStart;
+
+    /** Rows left in the current quantum. Accessed only by the thread executing the fragment. */
+    private int quantumRowsLeft;
+
+    /** Whether the fragment yielded the thread in the current quantum. Accessed only by the thread executing the fragment. */
+    private boolean yielded;
+
     public QueryFragmentExecutable(
         QueryStateCallback stateCallback,
         List<Object> arguments,
         Exec exec,
         Map<Integer, InboundHandler> inboxes,
         Map<Integer, Map<UUID, OutboundHandler>> outboxes,
+        QueryFragmentGroup group,
         QueryFragmentWorkerPool fragmentPool
     ) {
         this.stateCallback = stateCallback;
@@ -75,9 +86,14 @@ public class QueryFragmentExecutable implements QueryFragmentScheduleCallback {
         this.exec = exec;
         this.inboxes = inboxes;
         this.outboxes = outboxes;
+        this.group = group;
         this.fragmentPool = fragmentPool;
     }
 
+    public QueryFragmentGroup getGroup() {
+        return group;
+    }
+
     public Collection<Integer> getInboxEdgeIds() {
         return inboxes.keySet();
     }
@@ -103,6 +119,8 @@ public class QueryFragmentExecutable implements QueryFragmentScheduleCallback {
             // Setup the executor if needed.
             setupExecutor();
 
+            beginQuantum();
+
             // Feed all batches to relevant inboxes first. Set the upper boundary on the number of batches to avoid
             // starvation when batches arrive quicker than we are able to process them.
             int maxOperationCount = operationCount.get();
@@ -171,6 +189,34 @@ public class QueryFragmentExecutable implements QueryFragmentScheduleCallback {
         }
     }
 
+    /**
+     * Cancel the fragment that will not be executed anymore, because the pool is stopped.
+     *
+     * @param e Cause.
+     */
+    void cancel(Exception e) {
+        if (completed) {
+            return;
+        }
+
+        completed = true;
+
+        stateCallback.cancel(e);
+    }
+
+    @Override
+    public boolean shouldYield(int rowCount) {
+        quantumRowsLeft -= rowCount;
+
+        if (quantumRowsLeft > 0 && System.nanoTime() - quantumStart < fragmentPool.getQuantum()) {
+            return false;
+        }
+
+        yielded = true;
+
+        return true;
+    }
+
     @Override
     public boolean schedule() {
         boolean res = !scheduled.get() && scheduled.compareAndSet(false, true);
@@ -188,6 +234,15 @@ public class QueryFragmentExecutable implements QueryFragmentScheduleCallback {
     private void unscheduleOrReschedule() {
         boolean completed0 = completed;
 
+        // The fragment yielded the thread, but it is still runnable. Put it to the end of the queue.
+        if (!completed0 && yielded) {
+            fragmentPool.getMetrics().onYield();
+
+            submit();
+
+            return;
+        }
+
         // Check for new operations. If there are some, re-submit the fragment for execution immediately.
         if (!completed0 && !operations.isEmpty()) {
             // New operations arrived. Submit the fragment for execution again.
@@ -212,6 +267,12 @@ public class QueryFragmentExecutable implements QueryFragmentScheduleCallback {
         fragmentPool.submit(this);
     }
 
+    private void beginQuantum() {
+        quantumStart = System.nanoTime();
+        quantumRowsLeft = fragmentPool.getQuantumRows();
+        yielded = false;
+    }
+
     private void setupExecutor() {
         if (initialized) {
             return;
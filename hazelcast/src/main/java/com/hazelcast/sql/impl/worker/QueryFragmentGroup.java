@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.worker;
+
+import com.hazelcast.sql.impl.QueryId;
+
+import java.util.ArrayDeque;
+
+/**
+ * Scheduling group of the fragments of a single query on the local member.
+ * <p>
+ * The scheduler picks groups rather than fragments in round-robin order, so that a query with many fragments gets the
+ * same share of worker threads as a query with a single fragment. The group starts in the short priority class and is
+ * moved to the long class once the CPU time consumed by its fragments exceeds the threshold.
+ * <p>
+ * Fragment queue of the group is accessed under the scheduler lock only.
+ */
+public class QueryFragmentGroup {
+
+    private final QueryId queryId;
+
+    /** Fragments ready for execution. */
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+    /** Whether the group is in the scheduler queue. */
+    private boolean queued;
+
+    /** Time consumed by fragments of the group, in nanoseconds. */
+    private volatile long executionTime;
+
+    /** Whether the group belongs to the long priority class. */
+    private volatile boolean longQuery;
+
+    public QueryFragmentGroup(QueryId queryId) {
+        this.queryId = queryId;
+    }
+
+    public QueryId getQueryId() {
+        return queryId;
+    }
+
+    public boolean isLongQuery() {
+        return longQuery;
+    }
+
+    public long getExecutionTime() {
+        return executionTime;
+    }
+
+    void add(QueryFragmentExecutable fragment, long submitTime) {
+        entries.add(new Entry(fragment, submitTime));
+    }
+
+    Entry poll() {
+        return entries.poll();
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    boolean isQueued() {
+        return queued;
+    }
+
+    void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    /**
+     * Account execution of a fragment of the group.
+     *
+     * @param time Execution time in nanoseconds.
+     * @param longQueryThreshold Execution time after which the group is moved to the long priority class.
+     * @return {@code true} if the group has been moved to the long priority class by this call.
+     */
+    synchronized boolean onExecuted(long time, long longQueryThreshold) {
+        executionTime += time;
+
+        if (longQuery || executionTime < longQueryThreshold) {
+            return false;
+        }
+
+        longQuery = true;
+
+        return true;
+    }
+
+    /**
+     * Fragment waiting for execution.
+     */
+    static final class Entry {
+
+        private final QueryFragmentExecutable fragment;
+        private final long submitTime;
+
+        private Entry(QueryFragmentExecutable fragment, long submitTime) {
+            this.fragment = fragment;
+            this.submitTime = submitTime;
+        }
+
+        QueryFragmentExecutable getFragment() {
+            return fragment;
+        }
+
+        long getSubmitTime() {
+            return submitTime;
+        }
+    }
+}
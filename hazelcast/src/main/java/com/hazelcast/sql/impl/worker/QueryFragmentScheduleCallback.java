@@ -16,6 +16,9 @@
 
 package com.hazelcast.sql.impl.worker;
 
+/**
+ * Callback to control scheduling of the fragment from within its operators.
+ */
 public interface QueryFragmentScheduleCallback {
     /**
      * Schedule the fragment for execution.
@@ -23,4 +26,17 @@ public interface QueryFragmentScheduleCallback {
      * @return {@code true} if the fragment was scheduled, {@code false} if already scheduled.
      */
     boolean schedule();
+
+    /**
+     * Account the rows produced by the fragment in the current execution quantum. Operators which loop until they are
+     * blocked (e.g. root and send operators) call this method after every batch, and return
+     * {@link com.hazelcast.sql.impl.exec.IterationResult#WAIT IterationResult.WAIT} if it returns {@code true}. The
+     * fragment is then re-submitted to the end of the scheduler queue, letting fragments of other queries run.
+     *
+     * @param rowCount Number of rows produced since the previous call.
+     * @return {@code true} if the quantum is exhausted and the fragment should yield the thread.
+     */
+    default boolean shouldYield(int rowCount) {
+        return false;
+    }
 }
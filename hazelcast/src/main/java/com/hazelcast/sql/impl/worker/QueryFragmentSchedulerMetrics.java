@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.worker;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_SCHEDULER_LONG_EXECUTIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_SCHEDULER_LONG_QUEUE_WAIT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_SCHEDULER_QUERIES_DEMOTED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_SCHEDULER_SHORT_EXECUTIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_SCHEDULER_SHORT_QUEUE_WAIT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.SQL_METRIC_SCHEDULER_YIELDS;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Member-wide metrics of the fragment scheduler. Queue wait is the time between the submission of a fragment and the
+ * start of its execution, accumulated separately for every priority class, so that the average wait per fragment
+ * execution could be derived from the wait and execution counters.
+ */
+public class QueryFragmentSchedulerMetrics {
+
+    @Probe(name = SQL_METRIC_SCHEDULER_SHORT_EXECUTIONS)
+    private final MwCounter shortExecutions = newMwCounter();
+
+    @Probe(name = SQL_METRIC_SCHEDULER_SHORT_QUEUE_WAIT, unit = NS)
+    private final MwCounter shortQueueWait = newMwCounter();
+
+    @Probe(name = SQL_METRIC_SCHEDULER_LONG_EXECUTIONS)
+    private final MwCounter longExecutions = newMwCounter();
+
+    @Probe(name = SQL_METRIC_SCHEDULER_LONG_QUEUE_WAIT, unit = NS)
+    private final MwCounter longQueueWait = newMwCounter();
+
+    @Probe(name = SQL_METRIC_SCHEDULER_YIELDS)
+    private final MwCounter yields = newMwCounter();
+
+    @Probe(name = SQL_METRIC_SCHEDULER_QUERIES_DEMOTED)
+    private final MwCounter queriesDemoted = newMwCounter();
+
+    void onExecution(boolean longQuery, long queueWait) {
+        if (longQuery) {
+            longExecutions.inc();
+            longQueueWait.inc(queueWait);
+        } else {
+            shortExecutions.inc();
+            shortQueueWait.inc(queueWait);
+        }
+    }
+
+    void onYield() {
+        yields.inc();
+    }
+
+    void onQueryDemoted() {
+        queriesDemoted.inc();
+    }
+
+    public long getShortExecutions() {
+        return shortExecutions.get();
+    }
+
+    public long getShortQueueWait() {
+        return shortQueueWait.get();
+    }
+
+    public long getLongExecutions() {
+        return longExecutions.get();
+    }
+
+    public long getLongQueueWait() {
+        return longQueueWait.get();
+    }
+
+    public long getYields() {
+        return yields.get();
+    }
+
+    public long getQueriesDemoted() {
+        return queriesDemoted.get();
+    }
+}
@@ -17,77 +17,308 @@
 package com.hazelcast.sql.impl.worker;
 
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.sql.impl.QueryException;
 import com.hazelcast.sql.impl.QueryUtils;
 
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinWorkerThread;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher.inspectOutOfMemoryError;
 import static com.hazelcast.sql.impl.QueryUtils.WORKER_TYPE_FRAGMENT;
 
 /**
  * Thread pool that executes query fragments.
+ * <p>
+ * Scheduling is cooperative: a fragment runs until it is blocked or its quantum is exhausted (see
+ * {@link QueryFragmentScheduleCallback#shouldYield(int)}), after which it is re-submitted to the end of the queue. Ready
+ * fragments are grouped by query, and groups are picked in round-robin order, so that every running query gets a fair
+ * share of threads regardless of the number of its fragments. Groups of short queries are preferred over groups of long
+ * queries, which are still picked at least once per {@link #SHORT_QUERY_WEIGHT} + 1 executions to avoid starvation.
  */
 public class QueryFragmentWorkerPool {
 
-    private final ForkJoinPool pool;
+    /** Number of consecutive executions of short queries after which a long query is picked. */
+    static final int SHORT_QUERY_WEIGHT = 4;
+
+    private static final int TERMINATION_TIMEOUT_SECONDS = 3;
+
+    private final long quantum;
+    private final int quantumRows;
+    private final long longQueryThreshold;
     private final ILogger logger;
+    private final QueryFragmentSchedulerMetrics metrics = new QueryFragmentSchedulerMetrics();
+    private final Thread[] threads;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    /** Groups of short queries with ready fragments. */
+    private final ArrayDeque<QueryFragmentGroup> shortGroups = new ArrayDeque<>();
+
+    /** Groups of long queries with ready fragments. */
+    private final ArrayDeque<QueryFragmentGroup> longGroups = new ArrayDeque<>();
 
-    public QueryFragmentWorkerPool(String instanceName, int threadCount, ILogger logger) {
-        pool = new ForkJoinPool(threadCount, new WorkerThreadFactory(instanceName), new ExceptionHandler(), true);
+    /** Number of consecutive executions of short queries. */
+    private int shortStreak;
 
+    private boolean stopped;
+
+    /**
+     * @param instanceName Instance name.
+     * @param threadCount Number of worker threads.
+     * @param quantum Maximum execution time of a fragment before it yields, in nanoseconds.
+     * @param quantumRows Maximum number of rows produced by a fragment before it yields.
+     * @param longQueryThreshold Execution time after which the query is moved to the long priority class, in nanoseconds.
+     * @param logger Logger.
+     */
+    public QueryFragmentWorkerPool(
+        String instanceName,
+        int threadCount,
+        long quantum,
+        int quantumRows,
+        long longQueryThreshold,
+        ILogger logger
+    ) {
+        this.quantum = quantum;
+        this.quantumRows = quantumRows;
+        this.longQueryThreshold = longQueryThreshold;
         this.logger = logger;
+
+        threads = new Thread[threadCount];
+
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(new Worker(), QueryUtils.workerName(instanceName, WORKER_TYPE_FRAGMENT, i + 1));
+
+            thread.setDaemon(true);
+
+            threads[i] = thread;
+        }
+    }
+
+    /**
+     * Start the worker threads.
+     */
+    public void start() {
+        for (Thread thread : threads) {
+            thread.start();
+        }
     }
 
     /**
-     * Stop the pool.
+     * Stop the pool. Fragments waiting for execution are cancelled, and the worker threads are awaited for a bounded time.
      */
     public void stop() {
-        pool.shutdownNow();
+        List<QueryFragmentExecutable> pendingFragments = new ArrayList<>();
+
+        lock.lock();
+
+        try {
+            stopped = true;
+
+            drain(shortGroups, pendingFragments);
+            drain(longGroups, pendingFragments);
+
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+
+        QueryException error = shutdownError();
+
+        for (QueryFragmentExecutable fragment : pendingFragments) {
+            fragment.cancel(error);
+        }
+
+        awaitTermination();
     }
 
     /**
-     * Schedule query fragment in the pool.
+     * Schedule query fragment in the pool. If the pool is already stopped, the fragment is cancelled.
      *
      * @param task Fragment.
      */
     public void submit(QueryFragmentExecutable task) {
-        pool.execute(task::run);
+        QueryFragmentGroup group = task.getGroup();
+
+        lock.lock();
+
+        try {
+            if (!stopped) {
+                group.add(task, System.nanoTime());
+
+                if (!group.isQueued()) {
+                    group.setQueued(true);
+
+                    queueOf(group).add(group);
+
+                    notEmpty.signal();
+                }
+
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // The pool is stopped, cancel the fragment the same way as the ones that were pending in stop().
+        task.cancel(shutdownError());
     }
 
-    private static final class WorkerThread extends ForkJoinWorkerThread {
-        private WorkerThread(ForkJoinPool pool) {
-            super(pool);
+    public long getQuantum() {
+        return quantum;
+    }
+
+    public int getQuantumRows() {
+        return quantumRows;
+    }
+
+    public long getLongQueryThreshold() {
+        return longQueryThreshold;
+    }
+
+    public QueryFragmentSchedulerMetrics getMetrics() {
+        return metrics;
+    }
+
+    boolean isThreadsTerminated() {
+        for (Thread thread : threads) {
+            if (thread.getState() != Thread.State.TERMINATED) {
+                return false;
+            }
         }
+
+        return true;
     }
 
-    private static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+    /**
+     * Wait for the next fragment to execute.
+     *
+     * @return Fragment entry or {@code null} if the pool is stopped.
+     */
+    private QueryFragmentGroup.Entry take() throws InterruptedException {
+        lock.lock();
+
+        try {
+            while (!stopped && shortGroups.isEmpty() && longGroups.isEmpty()) {
+                notEmpty.await();
+            }
 
-        private final String instanceName;
-        private final AtomicLong indexGenerator = new AtomicLong();
+            if (stopped) {
+                return null;
+            }
 
-        private WorkerThreadFactory(String instanceName) {
-            this.instanceName = instanceName;
+            QueryFragmentGroup group = nextQueue().poll();
+
+            QueryFragmentGroup.Entry entry = group.poll();
+
+            if (group.isEmpty()) {
+                group.setQueued(false);
+            } else {
+                // The group might have been moved to another priority class in the meantime.
+                queueOf(group).add(group);
+            }
+
+            return entry;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        @Override
-        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
-            String name = QueryUtils.workerName(instanceName, WORKER_TYPE_FRAGMENT, indexGenerator.incrementAndGet());
+    private static QueryException shutdownError() {
+        return QueryException.error("SQL query has been cancelled because the member is shutting down");
+    }
+
+    private static void drain(ArrayDeque<QueryFragmentGroup> groups, List<QueryFragmentExecutable> fragments) {
+        QueryFragmentGroup group;
 
-            WorkerThread thread = new WorkerThread(pool);
+        while ((group = groups.poll()) != null) {
+            QueryFragmentGroup.Entry entry;
 
-            thread.setName(name);
+            while ((entry = group.poll()) != null) {
+                fragments.add(entry.getFragment());
+            }
 
-            return thread;
+            group.setQueued(false);
         }
     }
 
-    private class ExceptionHandler implements Thread.UncaughtExceptionHandler {
+    private void awaitTermination() {
+        for (Thread thread : threads) {
+            if (thread == Thread.currentThread()) {
+                continue;
+            }
+
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(TERMINATION_TIMEOUT_SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                return;
+            }
+        }
+    }
+
+    private ArrayDeque<QueryFragmentGroup> nextQueue() {
+        if (!shortGroups.isEmpty() && (longGroups.isEmpty() || shortStreak < SHORT_QUERY_WEIGHT)) {
+            shortStreak++;
+
+            return shortGroups;
+        }
+
+        shortStreak = 0;
+
+        return longGroups;
+    }
+
+    private ArrayDeque<QueryFragmentGroup> queueOf(QueryFragmentGroup group) {
+        return group.isLongQuery() ? longGroups : shortGroups;
+    }
+
+    private void execute(QueryFragmentGroup.Entry entry) {
+        QueryFragmentExecutable fragment = entry.getFragment();
+        QueryFragmentGroup group = fragment.getGroup();
+
+        long startTime = System.nanoTime();
+
+        metrics.onExecution(group.isLongQuery(), startTime - entry.getSubmitTime());
+
+        fragment.run();
+
+        if (group.onExecuted(System.nanoTime() - startTime, longQueryThreshold)) {
+            metrics.onQueryDemoted();
+
+            if (logger.isFineEnabled()) {
+                logger.fine("Query " + group.getQueryId() + " is moved to the long priority class after "
+                    + TimeUnit.NANOSECONDS.toMillis(group.getExecutionTime()) + " ms of execution");
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
         @Override
-        public void uncaughtException(Thread thread, Throwable t) {
-            inspectOutOfMemoryError(t);
-            logger.severe(t);
+        public void run() {
+            try {
+                QueryFragmentGroup.Entry entry;
+
+                while ((entry = take()) != null) {
+                    try {
+                        execute(entry);
+                    } catch (Throwable t) {
+                        inspectOutOfMemoryError(t);
+                        logger.severe(t);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // No-op.
+            }
         }
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.util;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.internal.networking.GatheringBuffer;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.RecordingGatheringChannel;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMessageGatheringEncoderTest extends HazelcastTestSupport {
+
+    @Test
+    public void whenMixedMessages_thenDecodable() throws Exception {
+        Queue<ClientMessage> messages = new LinkedList<>();
+        List<byte[]> values = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            byte[] value = new byte[i % 2 == 0 ? 16 : 5000];
+            value[value.length - 1] = (byte) i;
+            values.add(value);
+            messages.add(MapPutCodec.encodeRequest("map", new HeapData(new byte[100]), new HeapData(value), i, 10));
+        }
+
+        ClientMessageGatheringEncoder encoder = new ClientMessageGatheringEncoder(1000);
+        encoder.src(messages::poll);
+        encoder.dst(new GatheringBuffer(ByteBuffer.allocate(1 << 16), 1000));
+
+        RecordingGatheringChannel channel = new RecordingGatheringChannel(1000);
+        HandlerStatus result;
+        do {
+            result = encoder.onWrite();
+            encoder.dst().writeTo(channel);
+        } while (result != CLEAN || encoder.dst().hasRemaining());
+
+        List<ClientMessage> decoded = new ArrayList<>();
+        ClientMessageDecoder decoder = new ClientMessageDecoder(null, decoded::add, null);
+        decoder.setNormalPacketsRead(SwCounter.newSwCounter());
+        ByteBuffer buffer = channel.bytesAsBuffer();
+        buffer.position(buffer.limit());
+        decoder.src(buffer);
+        decoder.onRead();
+
+        assertEquals(values.size(), decoded.size());
+        for (int i = 0; i < values.size(); i++) {
+            MapPutCodec.RequestParameters parameters = MapPutCodec.decodeRequest(decoded.get(i));
+            assertEquals(i, parameters.threadId);
+            assertEquals("map", parameters.name);
+            assertArrayEquals(values.get(i), parameters.value.toByteArray());
+        }
+    }
+}
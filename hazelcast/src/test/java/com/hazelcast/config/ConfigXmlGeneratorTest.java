@@ -1428,6 +1428,7 @@ public class ConfigXmlGeneratorTest extends HazelcastTestSupport {
                 .setCacheDeserializedValues(CacheDeserializedValues.ALWAYS)
                 .setStatisticsEnabled(true)
                 .setReadBackupData(true)
+                .setImmutableValues(true)
                 .setBackupCount(2)
                 .setAsyncBackupCount(3)
                 .setMapStoreConfig(mapStoreConfig)
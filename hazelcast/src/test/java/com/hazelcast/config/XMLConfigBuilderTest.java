@@ -2238,6 +2238,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "        <max-idle-seconds>42</max-idle-seconds>"
                 + "        <eviction eviction-policy=\"RANDOM\" max-size-policy=\"PER_NODE\" size=\"42\"/>"
                 + "        <read-backup-data>true</read-backup-data>"
+                + "        <immutable-values>true</immutable-values>"
                 + "        <merkle-tree enabled=\"true\">\n"
                 + "            <depth>20</depth>\n"
                 + "          </merkle-tree>"
@@ -2308,6 +2309,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
         assertEquals(MaxSizePolicy.PER_NODE, mapConfig.getEvictionConfig().getMaxSizePolicy());
         assertEquals(42, mapConfig.getEvictionConfig().getSize());
         assertTrue(mapConfig.isReadBackupData());
+        assertTrue(mapConfig.isImmutableValues());
         assertEquals(1, mapConfig.getIndexConfigs().size());
         assertEquals("age", mapConfig.getIndexConfigs().get(0).getAttributes().get(0));
         assertTrue(mapConfig.getIndexConfigs().get(0).getType() == IndexType.SORTED);
@@ -2245,6 +2245,7 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "         max-size-policy: PER_NODE\n"
                 + "         size: 42\n"
                 + "      read-backup-data: true\n"
+                + "      immutable-values: true\n"
                 + "      merkle-tree:\n"
                 + "        enabled: true\n"
                 + "        depth: 20\n"
@@ -2310,6 +2311,7 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
         assertEquals(MaxSizePolicy.PER_NODE, mapConfig.getEvictionConfig().getMaxSizePolicy());
         assertEquals(42, mapConfig.getEvictionConfig().getSize());
         assertTrue(mapConfig.isReadBackupData());
+        assertTrue(mapConfig.isImmutableValues());
         assertEquals(1, mapConfig.getIndexConfigs().size());
         assertEquals("age", mapConfig.getIndexConfigs().get(0).getAttributes().get(0));
         assertTrue(mapConfig.getIndexConfigs().get(0).getType() == IndexType.SORTED);
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.instance.impl;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.internal.networking.Networking;
+import com.hazelcast.internal.networking.NetworkingFactory;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.logging.LoggingService;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Enumeration;
+
+import static com.hazelcast.instance.impl.DefaultNodeContext.findNetworkingFactory;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class DefaultNodeContext_NetworkingFactoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ILogger logger = Logger.getLogger(DefaultNodeContext_NetworkingFactoryTest.class);
+    private ClassLoader classLoader;
+
+    @Before
+    public void setup() throws IOException {
+        File services = folder.newFile();
+        Files.write(services.toPath(), asList(
+                UnavailableNetworkingFactory.class.getName(),
+                AvailableNetworkingFactory.class.getName()), StandardCharsets.UTF_8);
+        URL servicesUrl = services.toURI().toURL();
+
+        classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                if (name.equals("META-INF/services/" + NetworkingFactory.FACTORY_ID)) {
+                    return Collections.enumeration(Collections.singletonList(servicesUrl));
+                }
+                return super.getResources(name);
+            }
+        };
+    }
+
+    @Test
+    public void whenNio_thenNoFactory() {
+        assertNull(findNetworkingFactory("nio", classLoader, logger));
+    }
+
+    @Test
+    public void whenNamedAndAvailable_thenFactoryFound() {
+        NetworkingFactory factory = findNetworkingFactory("available", classLoader, logger);
+
+        assertEquals(AvailableNetworkingFactory.class, factory.getClass());
+    }
+
+    @Test
+    public void whenNamedAndNotAvailable_thenFallbackToNio() {
+        assertNull(findNetworkingFactory("unavailable", classLoader, logger));
+    }
+
+    @Test
+    public void whenUnknown_thenFallbackToNio() {
+        assertNull(findNetworkingFactory("unknown", classLoader, logger));
+    }
+
+    @Test
+    public void whenAuto_thenFirstAvailableFactoryFound() {
+        NetworkingFactory factory = findNetworkingFactory("auto", classLoader, logger);
+
+        assertEquals(AvailableNetworkingFactory.class, factory.getClass());
+    }
+
+    @Test
+    public void whenAutoAndNoneRegistered_thenFallbackToNio() {
+        assertNull(findNetworkingFactory("auto", getClass().getClassLoader(), logger));
+    }
+
+    public static class AvailableNetworkingFactory implements NetworkingFactory {
+
+        @Override
+        public String name() {
+            return "available";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public Networking create(String threadNamePrefix, LoggingService loggingService, MetricsRegistry metricsRegistry,
+                                 ChannelErrorHandler errorHandler, HazelcastProperties properties) {
+            return mock(Networking.class);
+        }
+    }
+
+    public static class UnavailableNetworkingFactory extends AvailableNetworkingFactory {
+
+        @Override
+        public String name() {
+            return "unavailable";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return false;
+        }
+    }
+}
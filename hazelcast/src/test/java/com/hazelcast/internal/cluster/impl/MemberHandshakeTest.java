@@ -70,6 +70,84 @@ public class MemberHandshakeTest {
         assertEquals(uuid, deserialized.getUuid());
     }
 
+    @Test
+    public void testSerialization_withPlanes() throws Exception {
+        bindMessage = new MemberHandshake(MemberHandshake.SCHEMA_VERSION_2, localAddresses(), targetAddress, true, uuid)
+                .setPlanes(4, 3);
+        Data serialized = serializationService.toData(bindMessage);
+        MemberHandshake deserialized = serializationService.toObject(serialized);
+        assertEquals(MemberHandshake.SCHEMA_VERSION_2, deserialized.getSchemaVersion());
+        assertEquals(localAddresses(), deserialized.getLocalAddresses());
+        assertEquals(uuid, deserialized.getUuid());
+        assertEquals(4, deserialized.getPlaneCount());
+        assertEquals(3, deserialized.getPlaneIndex());
+    }
+
+    @Test
+    public void testSerialization_withCompression() throws Exception {
+        bindMessage = new MemberHandshake(MemberHandshake.SCHEMA_VERSION_3, localAddresses(), targetAddress, true, uuid)
+                .setPlanes(4, 3)
+                .setCompressionEnabled(true);
+        Data serialized = serializationService.toData(bindMessage);
+        MemberHandshake deserialized = serializationService.toObject(serialized);
+        assertEquals(MemberHandshake.SCHEMA_VERSION_3, deserialized.getSchemaVersion());
+        assertEquals(4, deserialized.getPlaneCount());
+        assertEquals(3, deserialized.getPlaneIndex());
+        assertTrue(deserialized.isCompressionEnabled());
+    }
+
+    @Test
+    public void testSerialization_withStringDictionary() throws Exception {
+        bindMessage = new MemberHandshake(MemberHandshake.SCHEMA_VERSION_4, localAddresses(), targetAddress, true, uuid)
+                .setPlanes(4, 3)
+                .setStringDictionaryEnabled(true);
+        Data serialized = serializationService.toData(bindMessage);
+        MemberHandshake deserialized = serializationService.toObject(serialized);
+        assertEquals(MemberHandshake.SCHEMA_VERSION_4, deserialized.getSchemaVersion());
+        assertEquals(4, deserialized.getPlaneCount());
+        assertFalse(deserialized.isCompressionEnabled());
+        assertTrue(deserialized.isFragmentationSupported());
+        assertTrue(deserialized.isStringDictionaryEnabled());
+    }
+
+    @Test
+    public void testSerialization_whenSchemaVersion3_thenStringDictionaryDisabledAndFragmentationNotSupported()
+            throws Exception {
+        bindMessage = new MemberHandshake(MemberHandshake.SCHEMA_VERSION_3, localAddresses(), targetAddress, true, uuid)
+                .setPlanes(4, 3)
+                .setCompressionEnabled(true)
+                .setStringDictionaryEnabled(true);
+        Data serialized = serializationService.toData(bindMessage);
+        MemberHandshake deserialized = serializationService.toObject(serialized);
+        assertTrue(deserialized.isCompressionEnabled());
+        assertFalse(deserialized.isStringDictionaryEnabled());
+        assertFalse(deserialized.isFragmentationSupported());
+    }
+
+    @Test
+    public void testSerialization_whenSchemaVersion2_thenCompressionDisabled() throws Exception {
+        bindMessage = new MemberHandshake(MemberHandshake.SCHEMA_VERSION_2, localAddresses(), targetAddress, true, uuid)
+                .setPlanes(4, 3)
+                .setCompressionEnabled(true);
+        Data serialized = serializationService.toData(bindMessage);
+        MemberHandshake deserialized = serializationService.toObject(serialized);
+        assertEquals(MemberHandshake.SCHEMA_VERSION_2, deserialized.getSchemaVersion());
+        assertEquals(4, deserialized.getPlaneCount());
+        assertFalse(deserialized.isCompressionEnabled());
+    }
+
+    @Test
+    public void testSerialization_whenSchemaVersion1_thenSinglePlane() throws Exception {
+        bindMessage = new MemberHandshake(MemberHandshake.SCHEMA_VERSION_1, localAddresses(), targetAddress, true, uuid)
+                .setPlanes(4, 3);
+        Data serialized = serializationService.toData(bindMessage);
+        MemberHandshake deserialized = serializationService.toObject(serialized);
+        assertEquals(MemberHandshake.SCHEMA_VERSION_1, deserialized.getSchemaVersion());
+        assertEquals(localAddresses(), deserialized.getLocalAddresses());
+        assertEquals(1, deserialized.getPlaneCount());
+        assertEquals(0, deserialized.getPlaneIndex());
+    }
+
     @Test
     public void testSerialization_whenBindMessageEmpty() {
         bindMessage = new MemberHandshake();
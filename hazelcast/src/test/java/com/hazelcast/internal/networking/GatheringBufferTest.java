@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.hazelcast.internal.networking.GatheringBuffer.MAX_SEGMENTS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class GatheringBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenReferenceThresholdNotPositive() {
+        new GatheringBuffer(ByteBuffer.allocate(100), 0);
+    }
+
+    @Test
+    public void referenceThreshold_cappedToHalfOfScratchCapacity() {
+        GatheringBuffer buffer = new GatheringBuffer(ByteBuffer.allocate(100), 1000);
+
+        assertEquals(50, buffer.referenceThreshold());
+    }
+
+    @Test
+    public void whenEmpty() throws Exception {
+        GatheringBuffer buffer = new GatheringBuffer(ByteBuffer.allocate(100), 10);
+        RecordingGatheringChannel channel = new RecordingGatheringChannel();
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(0, buffer.remaining());
+        assertEquals(0, buffer.writeTo(channel));
+        assertEquals(0, channel.writeCalls());
+    }
+
+    @Test
+    public void writeTo_whenScratchAndReferences_thenSingleWriteInOrder() throws Exception {
+        GatheringBuffer buffer = new GatheringBuffer(ByteBuffer.allocate(100), 10);
+        byte[] large1 = bytes(20, 1);
+        byte[] large2 = bytes(30, 2);
+
+        assertTrue(buffer.reserve(2, 1));
+        buffer.scratch().put((byte) -1).put((byte) -2);
+        buffer.reference(large1, 0, large1.length);
+        buffer.reference(large2, 5, 10);
+        buffer.scratch().put((byte) -3);
+
+        assertTrue(buffer.hasRemaining());
+        assertEquals(2 + 20 + 10 + 1, buffer.remaining());
+
+        RecordingGatheringChannel channel = new RecordingGatheringChannel();
+        assertEquals(33, buffer.writeTo(channel));
+
+        assertEquals(1, channel.writeCalls());
+        assertFalse(buffer.hasRemaining());
+
+        ByteBuffer expected = ByteBuffer.allocate(33);
+        expected.put((byte) -1).put((byte) -2).put(large1).put(large2, 5, 10).put((byte) -3);
+        assertArrayEquals(expected.array(), channel.bytes());
+    }
+
+    @Test
+    public void writeTo_whenPartialWrites_thenResumes() throws Exception {
+        GatheringBuffer buffer = new GatheringBuffer(ByteBuffer.allocate(100), 10);
+        byte[] large = bytes(40, 7);
+
+        buffer.scratch().put(bytes(15, 3));
+        buffer.reference(large, 0, large.length);
+        buffer.scratch().put(bytes(5, 9));
+
+        RecordingGatheringChannel channel = new RecordingGatheringChannel(7);
+        long total = 0;
+        while (buffer.hasRemaining()) {
+            total += buffer.writeTo(channel);
+        }
+
+        assertEquals(60, total);
+        assertEquals(9, channel.writeCalls());
+
+        ByteBuffer expected = ByteBuffer.allocate(60);
+        expected.put(bytes(15, 3)).put(large).put(bytes(5, 9));
+        assertArrayEquals(expected.array(), channel.bytes());
+    }
+
+    @Test
+    public void writeTo_whenScratchAppendedDuringPartialWrite() throws Exception {
+        GatheringBuffer buffer = new GatheringBuffer(ByteBuffer.allocate(100), 10);
+        RecordingGatheringChannel channel = new RecordingGatheringChannel(5);
+
+        buffer.scratch().put(bytes(10, 1));
+        buffer.writeTo(channel);
+        buffer.scratch().put(bytes(10, 2));
+        while (buffer.hasRemaining()) {
+            buffer.writeTo(channel);
+        }
+
+        ByteBuffer expected = ByteBuffer.allocate(20);
+        expected.put(bytes(10, 1)).put(bytes(10, 2));
+        assertArrayEquals(expected.array(), channel.bytes());
+    }
+
+    @Test
+    public void writeTo_whenEverythingWritten_thenScratchReused() throws Exception {
+        GatheringBuffer buffer = new GatheringBuffer(ByteBuffer.allocate(100), 10);
+
+        buffer.scratch().put(bytes(80, 1));
+        assertFalse(buffer.reserve(30, 0));
+
+        buffer.writeTo(new RecordingGatheringChannel());
+
+        assertTrue(buffer.reserve(100, 0));
+        assertEquals(100, buffer.scratch().remaining());
+    }
+
+    @Test
+    public void reserve_whenTooManySegments() {
+        GatheringBuffer buffer = new GatheringBuffer(ByteBuffer.allocate(1000), 10);
+        byte[] large = bytes(10, 1);
+
+        int references = 0;
+        while (buffer.reserve(1, 1)) {
+            buffer.scratch().put((byte) 0);
+            buffer.reference(large, 0, large.length);
+            references++;
+        }
+
+        assertEquals((MAX_SEGMENTS - 1) / 2, references);
+        assertTrue(buffer.reserve(1, 0));
+    }
+
+    private static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+/**
+ * A {@link GatheringByteChannel} that records the written bytes and the number
+ * of write calls. The number of bytes accepted per write can be limited to
+ * simulate a full socket send buffer.
+ */
+public class RecordingGatheringChannel implements GatheringByteChannel {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final int maxBytesPerWrite;
+    private int writeCalls;
+
+    public RecordingGatheringChannel() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public RecordingGatheringChannel(int maxBytesPerWrite) {
+        this.maxBytesPerWrite = maxBytesPerWrite;
+    }
+
+    public byte[] bytes() {
+        return bytes.toByteArray();
+    }
+
+    public ByteBuffer bytesAsBuffer() {
+        return ByteBuffer.wrap(bytes());
+    }
+
+    public int writeCalls() {
+        return writeCalls;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+        writeCalls++;
+        long written = 0;
+        for (int k = offset; k < offset + length && written < maxBytesPerWrite; k++) {
+            ByteBuffer src = srcs[k];
+            while (src.hasRemaining() && written < maxBytesPerWrite) {
+                bytes.write(src.get());
+                written++;
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) {
+        return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        return (int) write(new ByteBuffer[]{src});
+    }
+
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
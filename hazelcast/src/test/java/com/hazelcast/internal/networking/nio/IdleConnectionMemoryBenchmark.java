@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.instance.BuildInfoProvider;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.internal.networking.Channel;
+import com.hazelcast.internal.networking.ChannelInitializer;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.InboundHandler;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.tcp.PacketEncoder;
+import com.hazelcast.logging.impl.LoggingServiceImpl;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_RCVBUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
+
+/**
+ * Measures the direct memory held by the socket buffers of idle connections, with and without
+ * pooled buffers. Every connection exchanges a single message and is idle afterwards; so the
+ * pipelines have processed data, but there is nothing in flight anymore.
+ *
+ * The connection counts are passed as arguments (default 10000 and 50000). Every connection takes
+ * two file descriptors in this process and needs an ephemeral port, so the limits of the host
+ * may need to be raised. The direct memory limit should be large enough for the non pooled run,
+ * e.g. {@code -XX:MaxDirectMemorySize=32g} for 50000 connections.
+ */
+public final class IdleConnectionMemoryBenchmark {
+
+    private static final int BUFFER_SIZE = 128 * 1024;
+    private static final int MESSAGE_SIZE = 100;
+    private static final int GC_SETTLE_MILLIS = 500;
+
+    private IdleConnectionMemoryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] connectionCounts = args.length == 0
+                ? new int[]{10_000, 50_000}
+                : new int[args.length];
+        for (int k = 0; k < args.length; k++) {
+            connectionCounts[k] = Integer.parseInt(args[k]);
+        }
+
+        for (int connectionCount : connectionCounts) {
+            for (boolean pooled : new boolean[]{false, true}) {
+                run(connectionCount, pooled);
+            }
+        }
+    }
+
+    private static void run(int connectionCount, boolean pooled) throws Exception {
+        LoggingServiceImpl loggingService
+                = new LoggingServiceImpl("benchmark", "none", BuildInfoProvider.getBuildInfo(), true);
+        MetricsRegistryImpl metricsRegistry
+                = new MetricsRegistryImpl(loggingService.getLogger(MetricsRegistryImpl.class), INFO);
+        NioNetworking networking = new NioNetworking(new NioNetworking.Context()
+                .loggingService(loggingService)
+                .metricsRegistry(metricsRegistry)
+                .threadNamePrefix("benchmark")
+                // the errors are caused by closing the connections at the end of the run
+                .errorHandler((channel, error) -> closeResource(channel))
+                .inputThreadCount(3)
+                .outputThreadCount(3)
+                .bufferPoolEnabled(pooled));
+        networking.restart();
+
+        AtomicLong received = new AtomicLong();
+        ChannelInitializer initializer = channel -> {
+            channel.options()
+                    .setOption(SO_RCVBUF, BUFFER_SIZE)
+                    .setOption(SO_SNDBUF, BUFFER_SIZE)
+                    .setOption(DIRECT_BUF, true);
+            channel.inboundPipeline().addLast(new ReplyingDecoder(received));
+            channel.outboundPipeline().addLast(new PacketEncoder());
+        };
+
+        long baseline = directMemoryUsedAfterGc();
+        List<SocketChannel> clients = new ArrayList<>(connectionCount);
+        try (ServerSocketChannel serverSocket = ServerSocketChannel.open()) {
+            serverSocket.bind(new InetSocketAddress("127.0.0.1", 0), connectionCount);
+            for (int k = 0; k < connectionCount; k++) {
+                SocketChannel client = SocketChannel.open(serverSocket.getLocalAddress());
+                clients.add(client);
+                Channel channel = networking.register(initializer, serverSocket.accept(), false);
+                channel.start();
+                client.write(ByteBuffer.allocate(MESSAGE_SIZE));
+            }
+
+            while (received.get() < (long) connectionCount * MESSAGE_SIZE) {
+                Thread.sleep(10);
+            }
+            // give the outbound pipelines the time to write the replies
+            Thread.sleep(1000);
+
+            long used = directMemoryUsed() - baseline;
+            System.out.printf("connections %,d pooled %-5s direct memory %,d MB, %,d KB/connection%n",
+                    connectionCount, pooled, used / (1024 * 1024), used / 1024 / connectionCount);
+        } finally {
+            for (SocketChannel client : clients) {
+                client.close();
+            }
+            networking.shutdown();
+            metricsRegistry.shutdown();
+        }
+    }
+
+    // direct buffers are freed asynchronously after they have been garbage collected
+    private static long directMemoryUsedAfterGc() throws InterruptedException {
+        long used = directMemoryUsed();
+        for (; ; ) {
+            System.gc();
+            Thread.sleep(GC_SETTLE_MILLIS);
+            long usedAfterGc = directMemoryUsed();
+            if (usedAfterGc == used) {
+                return used;
+            }
+            used = usedAfterGc;
+        }
+    }
+
+    private static long directMemoryUsed() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        throw new IllegalStateException("no direct buffer pool found");
+    }
+
+    private static class ReplyingDecoder extends InboundHandler<ByteBuffer, Void> {
+
+        private final AtomicLong received;
+
+        ReplyingDecoder(AtomicLong received) {
+            this.received = received;
+        }
+
+        @Override
+        public void handlerAdded() {
+            initSrcBuffer();
+        }
+
+        @Override
+        public HandlerStatus onRead() {
+            src.flip();
+            try {
+                received.addAndGet(src.remaining());
+                src.position(src.limit());
+                channel.write(new Packet(new byte[MESSAGE_SIZE]));
+                return CLEAN;
+            } finally {
+                compactOrClear(src);
+            }
+        }
+    }
+}
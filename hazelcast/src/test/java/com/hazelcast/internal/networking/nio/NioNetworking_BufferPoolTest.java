@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.internal.server.tcp.TcpServer;
+import com.hazelcast.internal.server.tcp.TcpServerConnection;
+import com.hazelcast.internal.server.tcp.TcpServerConnection_AbstractTest;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.instance.EndpointQualifier.MEMBER;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class NioNetworking_BufferPoolTest extends TcpServerConnection_AbstractTest {
+
+    private final List<Packet> packetsB = new CopyOnWriteArrayList<>();
+
+    @Override
+    @Before
+    public void setup() throws Exception {
+        networkingFactory = new PooledBuffer_NioNetworkingFactory();
+        super.setup();
+
+        serverContextB.packetConsumer = packetsB::add;
+
+        networkingServiceA.start();
+        networkingServiceB.start();
+    }
+
+    @Test
+    public void whenConnectionsIdle_thenNoBuffersLent() {
+        ServerConnection connection = connect(networkingServiceA, addressB);
+
+        int packetCount = 200;
+        byte[][] payloads = new byte[packetCount][];
+        for (int i = 0; i < packetCount; i++) {
+            // some of the packets don't fit in a single buffer
+            byte[] payload = new byte[i % 10 == 0 ? 512 * 1024 : 100];
+            payload[0] = (byte) i;
+            payload[payload.length - 1] = (byte) (i >> 8);
+            payloads[i] = payload;
+            assertTrue(connection.write(new Packet(payload, i)));
+        }
+
+        assertTrueEventually(() -> assertEquals(packetCount, packetsB.size()));
+        for (int i = 0; i < packetCount; i++) {
+            assertArrayEquals(payloads[i], packetsB.get(i).toByteArray());
+        }
+
+        assertTrue(allocatedBytes(networkingServiceA) > 0);
+        assertTrue(allocatedBytes(networkingServiceB) > 0);
+        assertTrueEventually(() -> {
+            assertEquals(0, lentBytes(networkingServiceA));
+            assertEquals(0, lentBytes(networkingServiceB));
+        });
+    }
+
+    @Test
+    public void whenConnectionClosedWithPartialFrame_thenBuffersReturned() throws Exception {
+        TcpServerConnection connection = (TcpServerConnection) connect(networkingServiceA, addressB);
+        assertTrueEventually(() -> assertEquals(1, networkingServiceB.getConnectionManager(MEMBER).getConnections().size()));
+
+        // half of a packet header, written around the pipeline, stays in the receive buffer of the remote side
+        ByteBuffer partialHeader = ByteBuffer.wrap(new byte[]{Packet.VERSION, 0, 0, 0, 0});
+        NioChannel channel = (NioChannel) connection.getChannel();
+        while (partialHeader.hasRemaining()) {
+            channel.socketChannel().write(partialHeader);
+        }
+        assertTrueEventually(() -> assertTrue(lentBytes(networkingServiceB) > 0));
+
+        connection.close(null, null);
+
+        assertTrueEventually(() -> {
+            assertEquals(0, lentBytes(networkingServiceA));
+            assertEquals(0, lentBytes(networkingServiceB));
+        });
+    }
+
+    @Test
+    public void whenConnectionClosedWithUnsentData_thenBuffersReturned() {
+        ServerConnection connection = connect(networkingServiceA, addressB);
+
+        assertTrue(connection.write(new Packet(new byte[32 * 1024 * 1024])));
+        connection.close(null, null);
+
+        assertTrueEventually(() -> {
+            assertEquals(0, lentBytes(networkingServiceA));
+            assertEquals(0, lentBytes(networkingServiceB));
+        });
+    }
+
+    private static long allocatedBytes(TcpServer server) {
+        long result = 0;
+        for (NioThread thread : threads(server)) {
+            result += thread.bufferPool.allocatedBytes();
+        }
+        return result;
+    }
+
+    private static long lentBytes(TcpServer server) {
+        long result = 0;
+        for (NioThread thread : threads(server)) {
+            result += thread.bufferPool.lentBytes();
+        }
+        return result;
+    }
+
+    private static NioThread[] threads(TcpServer server) {
+        NioNetworking networking = (NioNetworking) server.getNetworking();
+        NioThread[] inputThreads = networking.getInputThreads();
+        NioThread[] outputThreads = networking.getOutputThreads();
+        NioThread[] threads = new NioThread[inputThreads.length + outputThreads.length];
+        System.arraycopy(inputThreads, 0, threads, 0, inputThreads.length);
+        System.arraycopy(outputThreads, 0, threads, inputThreads.length, outputThreads.length);
+        return threads;
+    }
+}
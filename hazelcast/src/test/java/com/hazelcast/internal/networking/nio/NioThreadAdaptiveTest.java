@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests the {@link SelectorMode#ADAPTIVE} select loop with a real selector. The select timeout is
+ * much larger than the assert timeouts, so a lost wakeup of a blocked thread makes the tests fail.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NioThreadAdaptiveTest extends HazelcastTestSupport {
+
+    private static final int ASSERT_TIMEOUT_SECONDS = 2;
+
+    private NioThread thread;
+
+    @Before
+    public void setup() {
+        thread = new NioThread("adaptive", Logger.getLogger(NioThread.class), mock(ChannelErrorHandler.class),
+                SelectorMode.ADAPTIVE, null);
+        thread.start();
+    }
+
+    @After
+    public void tearDown() {
+        thread.shutdown();
+    }
+
+    @Test
+    public void whenIdle_thenThreadBlocksAndShrinksSpinBudget() {
+        assertTrueEventually(() -> assertTrue(thread.blockingSelectCount.get() > 0), ASSERT_TIMEOUT_SECONDS);
+        assertTrue(thread.idleRoundsBeforeBlocking < 256);
+        assertTrue(thread.waitTimeNanos.get() > 0);
+    }
+
+    @Test
+    public void whenBlocked_thenTaskWakesUpTheSelector() {
+        assertTrueEventually(() -> assertTrue(thread.blockingSelectCount.get() > 0), ASSERT_TIMEOUT_SECONDS);
+
+        AtomicInteger executed = new AtomicInteger();
+        for (int i = 1; i <= 10; i++) {
+            // give the thread the time to spin out and block again
+            sleepMillis(20);
+            thread.addTaskAndWakeup(executed::incrementAndGet);
+            int expected = i;
+            assertTrueEventually(() -> assertEquals(expected, executed.get()), ASSERT_TIMEOUT_SECONDS);
+        }
+        assertTrue(thread.busyTimeNanos.get() > 0);
+    }
+
+    @Test
+    public void whenSpinning_thenTasksDoNotWakeUpTheSelector() {
+        // a steady stream of tasks keeps the thread out of the blocking select
+        AtomicInteger executed = new AtomicInteger();
+        int taskCount = 100_000;
+        for (int i = 0; i < taskCount; i++) {
+            thread.addTaskAndWakeup(executed::incrementAndGet);
+        }
+
+        assertTrueEventually(() -> assertEquals(taskCount, executed.get()), ASSERT_TIMEOUT_SECONDS);
+        assertTrue(thread.wakeupCount() < taskCount / 10);
+    }
+
+    @Test
+    public void whenConcurrentProducers_thenAllTasksExecuted() throws Exception {
+        int producerCount = 4;
+        int tasksPerProducer = 10_000;
+        AtomicInteger executed = new AtomicInteger();
+        Thread[] producers = new Thread[producerCount];
+        for (int i = 0; i < producerCount; i++) {
+            producers[i] = new Thread(() -> {
+                for (int k = 0; k < tasksPerProducer; k++) {
+                    thread.addTaskAndWakeup(executed::incrementAndGet);
+                    if (k % 1000 == 0) {
+                        // let the thread block now and then, so the wakeup path is exercised as well
+                        sleepMillis(5);
+                    }
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertTrueEventually(() -> assertEquals(producerCount * tasksPerProducer, executed.get()), ASSERT_TIMEOUT_SECONDS);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the round trip of handing a single task to a {@link NioThread} and waiting for its
+ * execution, like a request/response exchange over a connection served by the thread does. The
+ * pause between the pings controls how long the thread is idle. At the end of every trial the
+ * wakeups per ping and the fraction of the time the thread was busy are printed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NioThreadSelectorModeBenchmark {
+
+    @Param({"SELECT", "SELECT_NOW", "ADAPTIVE"})
+    public SelectorMode selectorMode;
+
+    @Param({"0", "50"})
+    public int pauseMicros;
+
+    private final AtomicLong executed = new AtomicLong();
+    private final Runnable task = executed::incrementAndGet;
+
+    private NioThread thread;
+    private long pings;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        thread = new NioThread("selector-mode-benchmark", Logger.getLogger(NioThread.class),
+                (ChannelErrorHandler) (channel, error) -> { }, selectorMode, null);
+        thread.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        thread.shutdown();
+        long busy = thread.busyTimeNanos.get();
+        long wait = thread.waitTimeNanos.get();
+        System.out.printf("%n%.4f wakeups/ping, busy %.1f%%%n",
+                (double) thread.wakeupCount() / pings, 100d * busy / (busy + wait));
+    }
+
+    @Benchmark
+    public void ping() {
+        if (pauseMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(pauseMicros));
+        }
+        long expected = ++pings;
+        thread.addTaskAndWakeup(task);
+        while (executed.get() != expected) {
+            // yield instead of spinning, so the benchmark doesn't starve the NioThread on machines with few cores
+            Thread.yield();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(NioThreadSelectorModeBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
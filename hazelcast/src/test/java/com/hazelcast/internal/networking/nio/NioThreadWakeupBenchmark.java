@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how fast tasks can be handed to a {@link NioThread} by concurrent producers, like the
+ * write-through and wakeup paths of many connections served by the same IO thread do. Next to the
+ * throughput, the number of selector wakeups (each one a syscall) per task is printed at the end of
+ * every trial; without coalescing there is one wakeup per task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NioThreadWakeupBenchmark {
+
+    private static final int MAX_PENDING_TASKS = 10_000;
+
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final Runnable task = executed::incrementAndGet;
+
+    private NioThread thread;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        thread = new NioThread("wakeup-benchmark", Logger.getLogger(NioThread.class),
+                (ChannelErrorHandler) (channel, error) -> { }, SelectorMode.SELECT, null);
+        thread.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        thread.shutdown();
+        System.out.printf("%n%.4f wakeups/task%n", (double) thread.wakeupCount() / added.get());
+    }
+
+    @Benchmark
+    public void addTaskAndWakeup() {
+        // bound the task queue so that the producers can't run arbitrarily far ahead of the NioThread
+        while (added.get() - executed.get() > MAX_PENDING_TASKS) {
+            Thread.yield();
+        }
+        added.incrementAndGet();
+        thread.addTaskAndWakeup(task);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(NioThreadWakeupBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .threads(4)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
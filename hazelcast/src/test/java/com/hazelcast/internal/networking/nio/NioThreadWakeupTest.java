@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests the coalescing of selector wakeups with a real selector. The select timeout is much larger
+ * than the assert timeouts, so a lost wakeup makes the tests fail.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NioThreadWakeupTest extends HazelcastTestSupport {
+
+    private static final int ASSERT_TIMEOUT_SECONDS = 2;
+
+    private NioThread thread;
+
+    @Before
+    public void setup() {
+        thread = new NioThread("wakeup", Logger.getLogger(NioThread.class), mock(ChannelErrorHandler.class),
+                SelectorMode.SELECT, null);
+        thread.start();
+    }
+
+    @After
+    public void tearDown() {
+        thread.shutdown();
+    }
+
+    @Test
+    public void whenTasksAddedOneByOne_thenEveryTaskWakesUpTheSelector() {
+        AtomicInteger executed = new AtomicInteger();
+        for (int i = 1; i <= 10; i++) {
+            thread.addTaskAndWakeup(executed::incrementAndGet);
+            int expected = i;
+            assertTrueEventually(() -> assertEquals(expected, executed.get()), ASSERT_TIMEOUT_SECONDS);
+        }
+
+        assertEquals(10, thread.wakeupCount());
+    }
+
+    @Test
+    public void whenWakeupPending_thenWakeupsCoalesced() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        thread.addTaskAndWakeup(() -> {
+            blocked.countDown();
+            assertOpenEventually(release);
+        });
+        assertOpenEventually(blocked);
+
+        // the thread is busy, so only the first of these tasks needs to wake up the selector
+        long wakeupsBefore = thread.wakeupCount();
+        AtomicInteger executed = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            thread.addTaskAndWakeup(executed::incrementAndGet);
+        }
+        release.countDown();
+
+        assertTrueEventually(() -> assertEquals(100, executed.get()), ASSERT_TIMEOUT_SECONDS);
+        assertTrue(thread.wakeupCount() - wakeupsBefore <= 1);
+    }
+
+    @Test
+    public void whenConcurrentProducers_thenAllTasksExecuted() throws Exception {
+        int producerCount = 4;
+        int tasksPerProducer = 10_000;
+        AtomicInteger executed = new AtomicInteger();
+        Thread[] producers = new Thread[producerCount];
+        for (int i = 0; i < producerCount; i++) {
+            producers[i] = new Thread(() -> {
+                for (int k = 0; k < tasksPerProducer; k++) {
+                    thread.addTaskAndWakeup(executed::incrementAndGet);
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertTrueEventually(() -> assertEquals(producerCount * tasksPerProducer, executed.get()), ASSERT_TIMEOUT_SECONDS);
+        assertTrue(thread.wakeupCount() <= producerCount * tasksPerProducer);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.networking.TrafficClass;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.tcp.PacketFragmenter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the head-of-line blocking of small responses sent while a backlog of large migration
+ * packets is being written, with a single FIFO queue (fair queuing disabled) and with {@link OutboundLanes} and a
+ * {@link PacketFragmenter} (fair queuing enabled).
+ *
+ * The {@code bytesAhead} counter is the number of bytes written to the socket before the response,
+ * which determines its latency on a saturated connection: compare the ratio {@code bytesAhead/responses}
+ * of both configurations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OutboundLanesBenchmark {
+
+    private static final int BACKLOG = 16;
+    private static final int MIGRATION_PACKET_SIZE = 256 * 1024;
+    private static final int FRAGMENT_SIZE = 32 * 1024;
+    private static final int WRITES_BETWEEN_RESPONSES = 4;
+
+    @Param({"false", "true"})
+    private boolean fairQueuing;
+
+    private Queue<OutboundFrame> writeQueue;
+    private OutboundLanes lanes;
+    private Packet migration;
+    private Packet response;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long responses;
+        public long bytesAhead;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            responses = 0;
+            bytesAhead = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        writeQueue = new ConcurrentLinkedQueue<>();
+        lanes = new OutboundLanes();
+        lanes.fragmenter(new PacketFragmenter(FRAGMENT_SIZE));
+        migration = new Packet(new byte[MIGRATION_PACKET_SIZE]).setTrafficClass(TrafficClass.MIGRATION);
+        response = new Packet(new byte[64]).setTrafficClass(TrafficClass.RESPONSE);
+        while (migrationsPending() < BACKLOG) {
+            offer(migration);
+        }
+    }
+
+    @Benchmark
+    public void writeResponseBehindMigration(Counters counters) {
+        // the migration keeps the connection busy between the responses
+        for (int i = 0; i < WRITES_BETWEEN_RESPONSES; i++) {
+            poll();
+        }
+
+        offer(response);
+        OutboundFrame frame;
+        while ((frame = poll()) != response) {
+            counters.bytesAhead += frame.getFrameLength();
+        }
+        counters.responses++;
+
+        while (migrationsPending() < BACKLOG) {
+            offer(migration);
+        }
+    }
+
+    private void offer(OutboundFrame frame) {
+        if (fairQueuing) {
+            lanes.offer(frame);
+        } else {
+            writeQueue.offer(frame);
+        }
+    }
+
+    private int migrationsPending() {
+        return fairQueuing ? lanes.size() : writeQueue.size();
+    }
+
+    private OutboundFrame poll() {
+        return fairQueuing ? lanes.poll() : writeQueue.poll();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(OutboundLanesBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
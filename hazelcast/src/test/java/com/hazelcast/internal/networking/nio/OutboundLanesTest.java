@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.networking.TrafficClass;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.tcp.PacketFragmenter;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+
+import static com.hazelcast.internal.networking.nio.OutboundLanes.QUANTUM_BYTES;
+import static com.hazelcast.internal.nio.Packet.FLAG_FRAGMENT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OutboundLanesTest {
+
+    private static final int HEADER_SIZE = new Packet().getFrameLength();
+
+    private final OutboundLanes lanes = new OutboundLanes();
+
+    @Test
+    public void poll_whenEmpty() {
+        assertNull(lanes.poll());
+        assertTrue(lanes.isEmpty());
+    }
+
+    @Test
+    public void poll_whenSingleTrafficClass_thenFifo() {
+        for (int i = 0; i < 100; i++) {
+            lanes.offer(packet(TrafficClass.EVENT, 100, i));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            Packet packet = (Packet) lanes.poll();
+            assertEquals(i, packet.getPartitionId());
+        }
+        assertNull(lanes.poll());
+    }
+
+    @Test
+    public void poll_thenBandwidthSharedByWeight() {
+        int frameLength = 1024;
+        for (int i = 0; i < 200; i++) {
+            lanes.offer(packet(TrafficClass.BULK, frameLength, i));
+            lanes.offer(packet(TrafficClass.RESPONSE, frameLength, i));
+        }
+
+        int weights = TrafficClass.RESPONSE.weight() + TrafficClass.BULK.weight();
+        int frameCount = weights * QUANTUM_BYTES / frameLength;
+        int responses = 0;
+        int nextResponse = 0;
+        int nextBulk = 0;
+        for (int i = 0; i < frameCount; i++) {
+            Packet packet = (Packet) lanes.poll();
+            if (packet.getTrafficClass() == TrafficClass.RESPONSE) {
+                responses++;
+                assertEquals(nextResponse++, packet.getPartitionId());
+            } else {
+                assertEquals(nextBulk++, packet.getPartitionId());
+            }
+        }
+
+        assertEquals(TrafficClass.RESPONSE.weight() * QUANTUM_BYTES / frameLength, responses);
+        assertEquals(TrafficClass.BULK.weight() * QUANTUM_BYTES / frameLength, frameCount - responses);
+    }
+
+    @Test
+    public void poll_whenFrameLargerThanQuantum() {
+        Packet large = packet(TrafficClass.BULK, 10 * QUANTUM_BYTES, 0);
+        lanes.offer(large);
+
+        assertSame(large, lanes.poll());
+        assertNull(lanes.poll());
+    }
+
+    @Test
+    public void poll_whenFragmenter_thenOtherTrafficClassesInterleave() {
+        lanes.fragmenter(new PacketFragmenter(QUANTUM_BYTES));
+        Packet migration = packet(TrafficClass.MIGRATION, 20 * QUANTUM_BYTES, 1);
+        lanes.offer(migration);
+
+        ByteArrayOutputStream fragments = new ByteArrayOutputStream();
+        Packet fragment = (Packet) lanes.poll();
+        assertTrue(fragment.isFlagRaised(FLAG_FRAGMENT));
+        fragments.write(fragment.toByteArray(), 5, fragment.toByteArray().length - 5);
+
+        // the responses don't have to wait for the remaining fragments
+        for (int i = 0; i < 10; i++) {
+            lanes.offer(packet(TrafficClass.RESPONSE, 100, i));
+        }
+        for (int i = 0; i < 10; i++) {
+            Packet packet = (Packet) lanes.poll();
+            assertSame(TrafficClass.RESPONSE, packet.getTrafficClass());
+            assertEquals(i, packet.getPartitionId());
+        }
+
+        OutboundFrame frame;
+        while ((frame = lanes.poll()) != null) {
+            fragment = (Packet) frame;
+            assertTrue(fragment.isFlagRaised(FLAG_FRAGMENT));
+            assertEquals(1, fragment.getPartitionId());
+            fragments.write(fragment.toByteArray(), 1, fragment.toByteArray().length - 1);
+        }
+        assertArrayEquals(migration.toByteArray(), fragments.toByteArray());
+    }
+
+    @Test
+    public void metrics() {
+        for (int i = 0; i < 10; i++) {
+            lanes.offer(packet(TrafficClass.EVENT, 100, i));
+        }
+        lanes.offer(packet(TrafficClass.OPERATION, 200, 0));
+
+        assertEquals(11, lanes.size());
+        assertEquals(11, lanes.frames().size());
+        assertEquals(10 * 100 + 200, lanes.bytesPending());
+        OutboundLanes.Lane eventLane = lanes.lanes[TrafficClass.EVENT.ordinal()];
+        assertEquals(10, eventLane.queueSize());
+
+        int polled = 0;
+        while (lanes.poll() != null) {
+            polled++;
+        }
+        assertEquals(11, polled);
+
+        assertTrue(lanes.isEmpty());
+        assertEquals(0, eventLane.queueSize());
+        assertEquals(10, eventLane.framesWritten.get());
+        assertEquals(10 * 100, eventLane.bytesWritten.get());
+        assertTrue(eventLane.maxWaitTimeNanos >= 0);
+        assertTrue(eventLane.waitTimeNanos.get() >= eventLane.maxWaitTimeNanos);
+        assertEquals(1, lanes.lanes[TrafficClass.OPERATION.ordinal()].framesWritten.get());
+    }
+
+    @Test
+    public void clear() {
+        lanes.offer(packet(TrafficClass.EVENT, 100, 0));
+        lanes.offer(packet(TrafficClass.BULK, 100, 0));
+
+        lanes.clear();
+
+        assertTrue(lanes.isEmpty());
+        assertFalse(lanes.frames().iterator().hasNext());
+        assertNull(lanes.poll());
+    }
+
+    private static Packet packet(TrafficClass trafficClass, int frameLength, int partitionId) {
+        return new Packet(new byte[frameLength - HEADER_SIZE], partitionId).setTrafficClass(trafficClass);
+    }
+}
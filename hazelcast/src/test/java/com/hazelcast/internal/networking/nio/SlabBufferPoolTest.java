@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SlabBufferPoolTest {
+
+    private final SlabBufferPool pool = new SlabBufferPool(4096);
+
+    @Test
+    public void acquire_allocatesSlab() {
+        ByteBuffer buffer = pool.acquire(1024, true);
+
+        assertTrue(buffer.isDirect());
+        assertEquals(1024, buffer.capacity());
+        assertEquals(0, buffer.position());
+        assertEquals(1024, buffer.limit());
+        assertEquals(4096, pool.allocatedBytes());
+        assertEquals(1024, pool.lentBytes());
+    }
+
+    @Test
+    public void acquire_whenSlabExhausted_thenNewSlab() {
+        for (int k = 0; k < 4; k++) {
+            pool.acquire(1024, true);
+        }
+        assertEquals(4096, pool.allocatedBytes());
+
+        pool.acquire(1024, true);
+        assertEquals(8192, pool.allocatedBytes());
+        assertEquals(5 * 1024, pool.lentBytes());
+    }
+
+    @Test
+    public void acquire_whenBufferLargerThanSlab_thenSlabWithSingleBuffer() {
+        ByteBuffer buffer = pool.acquire(10_000, false);
+
+        assertFalse(buffer.isDirect());
+        assertEquals(10_000, buffer.capacity());
+        assertEquals(10_000, pool.allocatedBytes());
+    }
+
+    @Test
+    public void acquire_buffersDoNotOverlap() {
+        ByteBuffer buffer1 = pool.acquire(1024, false);
+        ByteBuffer buffer2 = pool.acquire(1024, false);
+        for (int k = 0; k < 1024; k++) {
+            buffer1.put((byte) 1);
+            buffer2.put((byte) 2);
+        }
+
+        buffer1.flip();
+        while (buffer1.hasRemaining()) {
+            assertEquals(1, buffer1.get());
+        }
+    }
+
+    @Test
+    public void release_thenBufferReused() {
+        ByteBuffer buffer = pool.acquire(1024, true);
+        buffer.put((byte) 1).flip();
+
+        pool.release(buffer);
+        assertEquals(0, pool.lentBytes());
+
+        ByteBuffer reused = pool.acquire(1024, true);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(1024, reused.limit());
+        assertEquals(4096, pool.allocatedBytes());
+    }
+
+    @Test
+    public void release_whenMoreThanSlabFree_thenSurplusDropped() {
+        ByteBuffer[] buffers = new ByteBuffer[8];
+        for (int k = 0; k < buffers.length; k++) {
+            buffers[k] = pool.acquire(1024, true);
+        }
+        assertEquals(8192, pool.allocatedBytes());
+
+        for (ByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+        assertEquals(4096, pool.allocatedBytes());
+        assertEquals(0, pool.lentBytes());
+
+        // the most recently returned buffers are kept
+        assertSame(buffers[7], pool.acquire(1024, true));
+    }
+
+    @Test
+    public void release_whenSlabPartiallyDropped_thenSlabStillAllocated() {
+        ByteBuffer[] buffers = new ByteBuffer[8];
+        for (int k = 0; k < buffers.length; k++) {
+            buffers[k] = pool.acquire(1024, true);
+        }
+
+        // buffers 0-3 are sliced from the first slab and 4-7 from the second one
+        pool.release(buffers[0]);
+        pool.release(buffers[4]);
+        pool.release(buffers[1]);
+        pool.release(buffers[5]);
+        pool.release(buffers[2]);
+
+        // buffer 0 is dropped, but the rest of its slab is still in use
+        assertEquals(8192, pool.allocatedBytes());
+
+        pool.release(buffers[6]);
+        pool.release(buffers[3]);
+        pool.release(buffers[7]);
+
+        // buffers 0, 4, 1 and 5 are dropped; the free ones retain both slabs
+        assertEquals(8192, pool.allocatedBytes());
+        assertEquals(0, pool.lentBytes());
+    }
+
+    @Test
+    public void acquire_whenDifferentKind_thenDifferentSizeClass() {
+        ByteBuffer direct = pool.acquire(1024, true);
+        pool.release(direct);
+
+        ByteBuffer heap = pool.acquire(1024, false);
+        assertNotSame(direct, heap);
+        assertFalse(heap.isDirect());
+        assertEquals(8192, pool.allocatedBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void release_whenLentByOtherPool_thenRejected() {
+        SlabBufferPool otherPool = new SlabBufferPool(4096);
+        ByteBuffer buffer = otherPool.acquire(1024, true);
+
+        pool.release(buffer);
+    }
+}
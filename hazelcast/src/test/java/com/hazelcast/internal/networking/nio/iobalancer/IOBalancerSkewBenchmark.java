@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking.nio.iobalancer;
+
+import com.hazelcast.instance.BuildInfoProvider;
+import com.hazelcast.internal.networking.nio.MigratablePipeline;
+import com.hazelcast.internal.networking.nio.NioThread;
+import com.hazelcast.logging.LoggingService;
+import com.hazelcast.logging.impl.LoggingServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simulates connections with skewed loads on the {@link IOBalancer} and prints the spread of the
+ * thread utilization before and after balancing, with the load measured as the number of events
+ * and as the processing time.
+ *
+ * The frame sizes of the connections vary from 100 bytes to 100 KB. Connections with small frames
+ * cause many cheap events, connections with large frames few expensive ones; so the event count is
+ * a poor measure of the cost. Every interval the load of every connection fluctuates randomly, to
+ * show how often pipelines are migrated after the threads got balanced.
+ */
+public final class IOBalancerSkewBenchmark {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int CONNECTION_COUNT = 32;
+    private static final int INTERVALS = 40;
+    private static final double LOAD_FLUCTUATION = 0.2;
+
+    // the fixed cost of an event and the cost per byte
+    private static final long EVENT_COST_NANOS = 2000;
+    private static final double BYTE_COST_NANOS = 0.5;
+
+    private final boolean timeBased;
+    private final NioThread[] threads = new NioThread[THREAD_COUNT];
+    private final List<SimulatedPipeline> pipelines = new ArrayList<>();
+    private final Random random = new Random(42);
+    private int migrations;
+
+    private IOBalancerSkewBenchmark(boolean timeBased) {
+        this.timeBased = timeBased;
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            NioThread thread = mock(NioThread.class);
+            when(thread.toString()).thenReturn("thread-" + i);
+            threads[i] = thread;
+        }
+
+        Random connectionRandom = new Random(1);
+        for (int i = 0; i < CONNECTION_COUNT; i++) {
+            // frame sizes from 100 bytes to 100 KB, spread evenly on a log scale
+            int frameSize = (int) (100 * Math.pow(1000, connectionRandom.nextDouble()));
+            // every connection transfers a similar number of bytes; the small frames cause many more events
+            int eventsPerInterval = Math.max(1, (int) (10_000_000L * (0.5 + connectionRandom.nextDouble()) / frameSize));
+            pipelines.add(new SimulatedPipeline(threads[i % THREAD_COUNT], frameSize, eventsPerInterval));
+        }
+    }
+
+    private void run() {
+        LoggingService loggingService = new LoggingServiceImpl("dev", "none", BuildInfoProvider.getBuildInfo(), true);
+        IOBalancer ioBalancer = new IOBalancer(threads, threads, "skew", 1, loggingService);
+        for (SimulatedPipeline pipeline : pipelines) {
+            ioBalancer.channelAdded(pipeline, new SimulatedPipeline(threads[0], 0, 0));
+        }
+        Runnable task;
+        while ((task = ioBalancer.getWorkQueue().poll()) != null) {
+            task.run();
+        }
+
+        System.out.println((timeBased ? "processing time" : "event count") + " based load");
+        System.out.printf("  initial utilization spread: %.2f%n", utilizationSpread());
+        int migrationsBefore = 0;
+        for (int interval = 1; interval <= INTERVALS; interval++) {
+            for (SimulatedPipeline pipeline : pipelines) {
+                pipeline.runInterval(random);
+            }
+            ioBalancer.rebalance();
+            if (interval == INTERVALS / 2) {
+                System.out.printf("  utilization spread after %d intervals: %.2f (%d migrations)%n",
+                        interval, utilizationSpread(), migrations);
+                migrationsBefore = migrations;
+            }
+        }
+        System.out.printf("  utilization spread after %d intervals: %.2f (%d migrations in the last %d intervals)%n",
+                INTERVALS, utilizationSpread(), migrations - migrationsBefore, INTERVALS / 2);
+    }
+
+    /**
+     * Returns the utilization of the busiest thread divided by the utilization of the least busy thread.
+     */
+    private double utilizationSpread() {
+        long[] costs = new long[THREAD_COUNT];
+        for (SimulatedPipeline pipeline : pipelines) {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                if (pipeline.owner == threads[i]) {
+                    costs[i] += pipeline.intervalCostNanos();
+                }
+            }
+        }
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (long cost : costs) {
+            min = Math.min(min, cost);
+            max = Math.max(max, cost);
+        }
+        return (double) max / min;
+    }
+
+    private final class SimulatedPipeline implements MigratablePipeline {
+        private final int frameSize;
+        private final int eventsPerInterval;
+        private NioThread owner;
+        private long events;
+        private long timeNanos;
+
+        private SimulatedPipeline(NioThread owner, int frameSize, int eventsPerInterval) {
+            this.owner = owner;
+            this.frameSize = frameSize;
+            this.eventsPerInterval = eventsPerInterval;
+        }
+
+        private long intervalCostNanos() {
+            return (long) (eventsPerInterval * (EVENT_COST_NANOS + frameSize * BYTE_COST_NANOS));
+        }
+
+        private void runInterval(Random random) {
+            double fluctuation = 1 + LOAD_FLUCTUATION * (2 * random.nextDouble() - 1);
+            events += (long) (eventsPerInterval * fluctuation);
+            timeNanos += (long) (intervalCostNanos() * fluctuation);
+        }
+
+        @Override
+        public void requestMigration(NioThread newOwner) {
+            if (newOwner != owner) {
+                owner = newOwner;
+                migrations++;
+            }
+        }
+
+        @Override
+        public NioThread owner() {
+            return owner;
+        }
+
+        @Override
+        public long load() {
+            return timeBased ? timeNanos : events;
+        }
+    }
+
+    public static void main(String[] args) {
+        new IOBalancerSkewBenchmark(false).run();
+        new IOBalancerSkewBenchmark(true).run();
+    }
+}
@@ -28,8 +28,15 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -59,4 +66,53 @@ public class IOBalancerTest {
 
         assertTrue(ioBalancer.getWorkQueue().isEmpty());
     }
+
+    @Test
+    public void whenImbalanceDetectedInConsecutiveRounds_thenMigrate_andMigratedPipelineCoolsDown() {
+        NioThread thread1 = mock(NioThread.class);
+        NioThread thread2 = mock(NioThread.class);
+        NioThread[] threads = {thread1, thread2};
+        IOBalancer ioBalancer = new IOBalancer(threads, threads, "foo", 1, loggingService);
+
+        AtomicLong load1 = new AtomicLong();
+        AtomicLong load2 = new AtomicLong();
+        AtomicLong load3 = new AtomicLong();
+        MigratablePipeline pipeline1 = pipeline(thread1, load1);
+        MigratablePipeline pipeline2 = pipeline(thread1, load2);
+        MigratablePipeline pipeline3 = pipeline(thread2, load3);
+        ioBalancer.channelAdded(pipeline1, pipeline(thread1, new AtomicLong()));
+        ioBalancer.channelAdded(pipeline2, pipeline(thread1, new AtomicLong()));
+        ioBalancer.channelAdded(pipeline3, pipeline(thread2, new AtomicLong()));
+        Runnable task;
+        while ((task = ioBalancer.getWorkQueue().poll()) != null) {
+            task.run();
+        }
+
+        // the owners don't change, so the imbalance persists
+        for (int round = 1; round <= 4; round++) {
+            load1.addAndGet(1000);
+            load2.addAndGet(600);
+            load3.addAndGet(100);
+            ioBalancer.rebalance();
+
+            if (round == 1) {
+                // a single imbalanced round doesn't trigger a migration
+                verify(pipeline2, never()).requestMigration(any());
+            } else if (round == 2) {
+                verify(pipeline2).requestMigration(thread2);
+            }
+        }
+
+        // pipeline2 is cooling down, so the next best candidate is migrated
+        verify(pipeline2, times(1)).requestMigration(any());
+        verify(pipeline1).requestMigration(thread2);
+        verify(pipeline3, never()).requestMigration(any());
+    }
+
+    private static MigratablePipeline pipeline(NioThread owner, AtomicLong load) {
+        MigratablePipeline pipeline = mock(MigratablePipeline.class);
+        when(pipeline.owner()).thenReturn(owner);
+        when(pipeline.load()).thenAnswer(invocation -> load.get());
+        return pipeline;
+    }
 }
@@ -36,6 +36,7 @@ import static com.hazelcast.test.TestCollectionUtils.setOf;
 import static java.util.Collections.singleton;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -113,4 +114,43 @@ public class LoadMigrationStrategyTest extends HazelcastTestSupport {
         MigratablePipeline pipelineToMigrate = strategy.findPipelineToMigrate(imbalance);
         assertEquals(pipeline3, pipelineToMigrate);
     }
+
+    @Test
+    public void testFindPipelineToMigrate_whenMigrationWouldReverseImbalance_thenNull() {
+        NioThread srcOwner = mock(NioThread.class);
+        imbalance.srcOwner = srcOwner;
+        imbalance.dstOwner = mock(NioThread.class);
+        imbalance.minimumLoad = 0;
+        imbalance.maximumLoad = 1000;
+
+        // moving the busy pipeline just moves the imbalance to the other thread
+        MigratablePipeline busyPipeline = mock(MigratablePipeline.class);
+        MigratablePipeline idlePipeline = mock(MigratablePipeline.class);
+        loadCounter.set(busyPipeline, 950L);
+        loadCounter.set(idlePipeline, 50L);
+        ownerToPipelines.put(srcOwner, setOf(busyPipeline, idlePipeline));
+
+        assertNull(strategy.findPipelineToMigrate(imbalance));
+    }
+
+    @Test
+    public void testFindPipelineToMigrate_whenCoolingDown_thenSkipped() {
+        NioThread srcOwner = mock(NioThread.class);
+        imbalance.srcOwner = srcOwner;
+        imbalance.dstOwner = mock(NioThread.class);
+        imbalance.minimumLoad = 0;
+        imbalance.maximumLoad = 1000;
+
+        MigratablePipeline pipeline1 = mock(MigratablePipeline.class);
+        MigratablePipeline pipeline2 = mock(MigratablePipeline.class);
+        loadCounter.set(pipeline1, 500L);
+        loadCounter.set(pipeline2, 300L);
+        ownerToPipelines.put(srcOwner, setOf(pipeline1, pipeline2));
+        imbalance.migrationScheduled(pipeline1, 1);
+
+        assertEquals(pipeline2, strategy.findPipelineToMigrate(imbalance));
+
+        imbalance.decrementCooldowns();
+        assertEquals(pipeline1, strategy.findPipelineToMigrate(imbalance));
+    }
 }
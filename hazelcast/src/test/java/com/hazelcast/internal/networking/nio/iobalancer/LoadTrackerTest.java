@@ -28,6 +28,8 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -115,4 +117,32 @@ public class LoadTrackerTest {
         assertEquals(owner2, loadImbalance.dstOwner);
         assertEquals(owner2, loadImbalance.srcOwner);
     }
+
+    @Test
+    public void testUpdateImbalance_decrementsMigrationCooldowns() {
+        MigratablePipeline pipeline = mock(MigratablePipeline.class);
+        when(pipeline.owner()).thenReturn(owner1);
+        loadTracker.addPipeline(pipeline);
+
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+        loadImbalance.migrationScheduled(pipeline, 2);
+
+        loadTracker.updateImbalance();
+        assertTrue(loadImbalance.isCoolingDown(pipeline));
+        loadTracker.updateImbalance();
+        assertFalse(loadImbalance.isCoolingDown(pipeline));
+    }
+
+    @Test
+    public void testRemovePipeline_removesMigrationCooldown() {
+        MigratablePipeline pipeline = mock(MigratablePipeline.class);
+        when(pipeline.owner()).thenReturn(owner1);
+        loadTracker.addPipeline(pipeline);
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+        loadImbalance.migrationScheduled(pipeline, 2);
+
+        loadTracker.removePipeline(pipeline);
+
+        assertFalse(loadImbalance.isCoolingDown(pipeline));
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.nio.PacketPayloadPool.BIN_CAPACITY;
+import static com.hazelcast.internal.nio.PacketPayloadPool.BIN_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketPayloadPoolTest {
+
+    private final PacketPayloadPool pool = new PacketPayloadPool(1024);
+
+    @Test
+    public void acquire_returnsPayloadOfExactSize() {
+        assertEquals(100, pool.acquire(100).length);
+        assertEquals(0, pool.acquire(0).length);
+        assertEquals(2048, pool.acquire(2048).length);
+    }
+
+    @Test
+    public void whenReleased_thenReused() {
+        byte[] payload = pool.acquire(100);
+        pool.release(payload);
+
+        assertSame(payload, pool.acquire(100));
+        assertNotSame(payload, pool.acquire(100));
+        assertEquals(1, pool.hits());
+    }
+
+    @Test
+    public void whenReleased_thenOnlyReusedForSameSize() {
+        byte[] payload = pool.acquire(100);
+        pool.acquire(200);
+        pool.release(payload);
+
+        assertNotSame(payload, pool.acquire(200));
+        assertSame(payload, pool.acquire(100));
+    }
+
+    @Test
+    public void whenLargerThanMaxPayloadSize_thenNotPooled() {
+        byte[] payload = pool.acquire(2048);
+        pool.release(payload);
+
+        assertNotSame(payload, pool.acquire(2048));
+        assertEquals(0, pool.hits());
+    }
+
+    @Test
+    public void whenBinFull_thenReleasedPayloadDropped() {
+        byte[][] payloads = new byte[BIN_CAPACITY + 1][];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = pool.acquire(100);
+        }
+        for (byte[] payload : payloads) {
+            pool.release(payload);
+        }
+
+        for (int i = 0; i < BIN_CAPACITY; i++) {
+            assertSame(payloads[i], pool.acquire(100));
+        }
+        assertNotSame(payloads[BIN_CAPACITY], pool.acquire(100));
+    }
+
+    @Test
+    public void whenMoreSizesThanBins_thenLeastUsedBinReassigned() {
+        // make size 100 the most used one
+        for (int i = 0; i < 10; i++) {
+            pool.release(pool.acquire(100));
+        }
+        for (int size = 1; size <= BIN_COUNT; size++) {
+            pool.acquire(size);
+        }
+
+        byte[] payload = pool.acquire(100);
+        pool.release(payload);
+        assertSame(payload, pool.acquire(100));
+    }
+
+    @Test
+    public void whenBinReassigned_thenPayloadOfOldSizeNotReused() {
+        for (int size = 1; size <= BIN_COUNT; size++) {
+            pool.acquire(size);
+        }
+        byte[] payload = pool.acquire(1);
+        // size 1 loses its bin
+        for (int size = BIN_COUNT + 1; size <= 3 * BIN_COUNT; size++) {
+            pool.acquire(size);
+        }
+        pool.release(payload);
+
+        assertNotSame(payload, pool.acquire(1));
+    }
+
+    @Test
+    public void packetRelease_returnsPayloadToPool() {
+        byte[] payload = pool.acquire(100);
+        Packet packet = new Packet(payload).setPayloadPool(pool);
+
+        packet.release();
+        // a second release is ignored
+        packet.release();
+
+        assertSame(payload, pool.acquire(100));
+        assertNotSame(payload, pool.acquire(100));
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.io.EOFException;
+import java.io.IOException;
 import java.nio.ByteOrder;
 import java.util.Arrays;
 
@@ -574,6 +575,52 @@ public class ByteArrayObjectDataInputTest extends HazelcastTestSupport {
         assertArrayEquals(new String[]{" "}, bytes);
     }
 
+    @Test
+    public void testReadVarInt() throws Exception {
+        int[] values = {0, -1, 1, 63, -64, 64, 1 << 20, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        byte[] bytes = new byte[values.length * Bits.VAR_INT_MAX_SIZE_IN_BYTES];
+        int pos = 0;
+        for (int value : values) {
+            pos = Bits.writeVarInt(bytes, pos, value);
+        }
+        in.init(bytes, 0);
+
+        for (int value : values) {
+            assertEquals(value, in.readVarInt());
+        }
+        assertEquals(pos, in.position());
+    }
+
+    @Test
+    public void testReadVarLong() throws Exception {
+        long[] values = {0, -1, 1, 1L << 40, -(1L << 50), Long.MIN_VALUE, Long.MAX_VALUE};
+        byte[] bytes = new byte[values.length * Bits.VAR_LONG_MAX_SIZE_IN_BYTES];
+        int pos = 0;
+        for (long value : values) {
+            pos = Bits.writeVarLong(bytes, pos, value);
+        }
+        in.init(bytes, 0);
+
+        for (long value : values) {
+            assertEquals(value, in.readVarLong());
+        }
+        assertEquals(pos, in.position());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadVarInt_whenTruncated() throws Exception {
+        in.init(new byte[]{(byte) 0x80, (byte) 0x80}, 0);
+        in.readVarInt();
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadVarInt_whenMalformed() throws Exception {
+        byte[] bytes = new byte[Bits.VAR_INT_MAX_SIZE_IN_BYTES + 1];
+        Arrays.fill(bytes, (byte) 0x80);
+        in.init(bytes, 0);
+        in.readVarInt();
+    }
+
     @Test
     public void testReadUnsignedByte() throws Exception {
         byte[] bytesBE = {-1, -1, -1, -1};
@@ -28,6 +28,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
 
@@ -94,6 +95,28 @@ public class ByteArrayObjectDataOutputTest {
         out.write(TEST_DATA, 0, -3);
     }
 
+    @Test
+    public void testCopyTo() {
+        out.write(TEST_DATA, 0, 3);
+        ByteBuffer dst = ByteBuffer.allocateDirect(2);
+
+        assertEquals(2, out.copyTo(0, dst));
+        assertEquals(0, dst.remaining());
+        assertEquals(TEST_DATA[0], dst.get(0));
+        assertEquals(TEST_DATA[1], dst.get(1));
+
+        dst.clear();
+        assertEquals(1, out.copyTo(2, dst));
+        assertEquals(TEST_DATA[2], dst.get(0));
+        assertEquals(0, out.copyTo(3, dst));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCopyTo_offsetHigherThanPosition() {
+        out.write(TEST_DATA, 0, 3);
+        out.copyTo(4, ByteBuffer.allocate(10));
+    }
+
     @Test(expected = NullPointerException.class)
     public void testWrite_whenBufferIsNull() {
         out.write(null, 0, 0);
@@ -259,6 +282,30 @@ public class ByteArrayObjectDataOutputTest {
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void testWriteVarInt() {
+        out.writeVarInt(0);
+        out.writeVarInt(-1);
+        out.writeVarInt(1);
+        out.writeVarInt(64);
+        assertArrayEquals(new byte[]{0, 1, 2, (byte) 0x80, 1}, Arrays.copyOf(out.buffer, out.pos));
+    }
+
+    @Test
+    public void testWriteVarInt_extremes() {
+        out.writeVarInt(Integer.MIN_VALUE);
+        out.writeVarInt(Integer.MAX_VALUE);
+        assertEquals(2 * Bits.VAR_INT_MAX_SIZE_IN_BYTES, out.pos);
+    }
+
+    @Test
+    public void testWriteVarLong() {
+        out.writeVarLong(-64);
+        out.writeVarLong(Long.MIN_VALUE);
+        assertEquals(1 + Bits.VAR_LONG_MAX_SIZE_IN_BYTES, out.pos);
+        assertEquals(127, out.buffer[0]);
+    }
+
     @Test
     public void testWriteShortV() throws Exception {
         short expected = 100;
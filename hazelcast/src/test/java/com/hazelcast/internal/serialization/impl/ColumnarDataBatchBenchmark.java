@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link ColumnarDataBatch} format with writing the {@link Data}
+ * one after the other on the size and on the encoding and decoding throughput
+ * of a batch of 1000 small objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ColumnarDataBatchBenchmark {
+
+    private static final int FACTORY_ID = 1;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"ids", "portable", "compact"})
+    private String format;
+
+    private InternalSerializationService serializationService;
+    private List<Data> batch;
+    private byte[] plainBytes;
+    private byte[] columnarBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        SerializationConfig config = new SerializationConfig();
+        config.addPortableFactory(FACTORY_ID, classId -> new PortableTrade());
+        config.addDataSerializableFactory(FACTORY_ID, typeId -> new IdsTrade());
+        config.getCompactSerializationConfig().register(Trade.class);
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(config).build();
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Trade trade = "ids".equals(format) ? new IdsTrade() : "portable".equals(format) ? new PortableTrade() : new Trade();
+            trade.init(i);
+            batch.add(serializationService.toData(trade));
+        }
+        plainBytes = writePlain();
+        columnarBytes = writeColumnar();
+        System.out.println("Serialized batch size (" + format + "): plain=" + plainBytes.length
+                + ", columnar=" + columnarBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writePlain() throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        out.writeInt(batch.size());
+        for (Data data : batch) {
+            IOUtil.writeData(out, data);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeColumnar() throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        ColumnarDataBatch.writeBatch(out, batch);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public List<Data> readPlain() throws IOException {
+        BufferObjectDataInput in = serializationService.createObjectDataInput(plainBytes);
+        int size = in.readInt();
+        List<Data> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(IOUtil.readData(in));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Data> readColumnar() throws IOException {
+        return ColumnarDataBatch.readBatch(serializationService.createObjectDataInput(columnarBytes));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ColumnarDataBatchBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    public static class Trade {
+        long id;
+        String symbol;
+        int quantity;
+        double price;
+
+        void init(int i) {
+            id = 1_000_000 + i;
+            symbol = "HZ" + (i % 10);
+            quantity = i % 100;
+            price = 10 + i * 0.01;
+        }
+    }
+
+    public static class IdsTrade extends Trade implements IdentifiedDataSerializable {
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return 1;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeUTF(symbol);
+            out.writeInt(quantity);
+            out.writeDouble(price);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            symbol = in.readUTF();
+            quantity = in.readInt();
+            price = in.readDouble();
+        }
+    }
+
+    public static class PortableTrade extends Trade implements Portable {
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return 1;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeLong("id", id);
+            writer.writeUTF("symbol", symbol);
+            writer.writeInt("quantity", quantity);
+            writer.writeDouble("price", price);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            id = reader.readLong("id");
+            symbol = reader.readUTF("symbol");
+            quantity = reader.readInt("quantity");
+            price = reader.readDouble("price");
+        }
+    }
+}
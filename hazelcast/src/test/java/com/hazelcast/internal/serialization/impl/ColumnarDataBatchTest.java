@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.partition.PartitioningStrategy;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarDataBatchTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testIsColumnar_disabledByDefault() {
+        assertFalse(ColumnarDataBatch.isColumnar(1000));
+    }
+
+    @Test
+    public void testEmptyBatch() throws IOException {
+        assertRoundTrip(Collections.emptyList());
+    }
+
+    @Test
+    public void testHomogeneousBatch_isSmallerThanPlain() throws IOException {
+        List<Data> batch = new ArrayList<>();
+        for (long i = 0; i < 1000; i++) {
+            batch.add(ss.toData(i));
+        }
+
+        byte[] bytes = assertRoundTrip(batch);
+
+        assertEquals(ColumnarDataBatch.FORMAT_COLUMNAR, bytes[Integer.BYTES]);
+        assertTrue(bytes.length < plainSize(batch) / 2);
+    }
+
+    @Test
+    public void testMixedTypes() throws IOException {
+        assertRoundTrip(Arrays.asList(ss.toData(1L), ss.toData("text"), ss.toData(1), ss.toData(2L)));
+    }
+
+    @Test
+    public void testNullElements() throws IOException {
+        List<Data> batch = assertRoundTripAndRead(Arrays.asList(null, ss.toData("a"), null, ss.toData("b"), null));
+
+        assertNull(batch.get(0));
+        assertNull(batch.get(4));
+    }
+
+    @Test
+    public void testAllNullElements() throws IOException {
+        byte[] bytes = assertRoundTrip(Arrays.asList(null, null));
+
+        assertEquals(ColumnarDataBatch.FORMAT_PLAIN, bytes[Integer.BYTES]);
+    }
+
+    @Test
+    public void testEmptyData_writtenPlain() throws IOException {
+        byte[] bytes = assertRoundTrip(Arrays.asList(ss.toData("a"), new HeapData(new byte[0])));
+
+        assertEquals(ColumnarDataBatch.FORMAT_PLAIN, bytes[Integer.BYTES]);
+    }
+
+    @Test
+    public void testIdenticalElements() throws IOException {
+        Data data = ss.toData("same");
+
+        assertRoundTrip(Arrays.asList(data, data, data));
+    }
+
+    @Test
+    public void testElementIsPrefixOfAnother() throws IOException {
+        assertRoundTrip(Arrays.asList(ss.toData(new byte[]{1, 2, 3}), ss.toData(new byte[]{1, 2, 3, 4, 5})));
+    }
+
+    @Test
+    public void testPartitionHashes() throws IOException {
+        PartitioningStrategy strategy = key -> "partitionKey-" + key;
+        List<Data> batch = Arrays.asList(ss.toData(1, strategy), ss.toData(2), ss.toData(3, strategy));
+        assertTrue(batch.get(0).hasPartitionHash());
+        assertFalse(batch.get(1).hasPartitionHash());
+
+        List<Data> read = assertRoundTripAndRead(batch);
+
+        assertEquals(batch.get(0).getPartitionHash(), read.get(0).getPartitionHash());
+        assertFalse(read.get(1).hasPartitionHash());
+    }
+
+    private byte[] assertRoundTrip(List<Data> batch) throws IOException {
+        BufferObjectDataOutput out = ss.createObjectDataOutput();
+        ColumnarDataBatch.writeBatch(out, batch);
+        byte[] bytes = out.toByteArray();
+
+        BufferObjectDataInput in = ss.createObjectDataInput(bytes);
+        assertEquals(batch, ColumnarDataBatch.readBatch(in));
+        assertEquals(bytes.length, in.position());
+        return bytes;
+    }
+
+    private List<Data> assertRoundTripAndRead(List<Data> batch) throws IOException {
+        byte[] bytes = assertRoundTrip(batch);
+        return ColumnarDataBatch.readBatch(ss.createObjectDataInput(bytes));
+    }
+
+    private int plainSize(List<Data> batch) throws IOException {
+        BufferObjectDataOutput out = ss.createObjectDataOutput();
+        out.writeInt(batch.size());
+        for (Data data : batch) {
+            IOUtil.writeData(out, data);
+        }
+        return out.toByteArray().length;
+    }
+}
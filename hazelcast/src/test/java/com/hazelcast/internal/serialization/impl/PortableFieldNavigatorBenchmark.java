@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.PortableFieldNavigatorTest.Address;
+import com.hazelcast.internal.serialization.impl.PortableFieldNavigatorTest.Company;
+import com.hazelcast.internal.serialization.impl.PortableFieldNavigatorTest.Person;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the field access of {@link PortableFieldNavigator} with the {@link DefaultPortableReader} based access
+ * used by the queries before, for a top level and a nested field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PortableFieldNavigatorBenchmark {
+
+    private static final String TOP_LEVEL_PATH = "i";
+    private static final String NESTED_PATH = "address.company.employees";
+
+    private InternalSerializationService serializationService;
+    private PortableFieldNavigator navigator;
+    private Data data;
+
+    @Setup
+    public void setup() {
+        SerializationConfig config = new SerializationConfig()
+                .addPortableFactory(1, classId -> {
+                    switch (classId) {
+                        case Person.CLASS_ID:
+                            return new Person();
+                        case Address.CLASS_ID:
+                            return new Address();
+                        default:
+                            return new Company();
+                    }
+                });
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        navigator = new PortableFieldNavigator(serializationService);
+
+        Company company = new Company();
+        company.name = "hazelcast";
+        company.employees = 250;
+        Address address = new Address();
+        address.city = "Istanbul";
+        address.company = company;
+        Person person = new Person();
+        person.name = "john";
+        person.i = 42;
+        person.address = address;
+        person.numbers = new int[0];
+        data = serializationService.toData(person);
+    }
+
+    @Benchmark
+    public Object navigatorTopLevel() {
+        return navigator.read(data, TOP_LEVEL_PATH);
+    }
+
+    @Benchmark
+    public Object readerTopLevel() throws IOException {
+        return ((DefaultPortableReader) serializationService.createPortableReader(data)).read(TOP_LEVEL_PATH);
+    }
+
+    @Benchmark
+    public Object navigatorNested() {
+        return navigator.read(data, NESTED_PATH);
+    }
+
+    @Benchmark
+    public Object readerNested() throws IOException {
+        return ((DefaultPortableReader) serializationService.createPortableReader(data)).read(NESTED_PATH);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PortableFieldNavigatorBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static com.hazelcast.internal.serialization.impl.PortableFieldNavigator.NOT_NAVIGABLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PortableFieldNavigatorTest {
+
+    private static final int FACTORY_ID = 1;
+
+    @Parameter
+    public ByteOrder byteOrder;
+
+    private InternalSerializationService serializationService;
+    private PortableFieldNavigator navigator;
+
+    @Parameters(name = "byteOrder:{0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{{ByteOrder.BIG_ENDIAN}, {ByteOrder.LITTLE_ENDIAN}});
+    }
+
+    @Before
+    public void setup() {
+        SerializationConfig config = new SerializationConfig()
+                .setByteOrder(byteOrder)
+                .addPortableFactory(FACTORY_ID, classId -> {
+                    switch (classId) {
+                        case Person.CLASS_ID:
+                            return new Person();
+                        case Address.CLASS_ID:
+                            return new Address();
+                        case Company.CLASS_ID:
+                            return new Company();
+                        default:
+                            return null;
+                    }
+                });
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        navigator = new PortableFieldNavigator(serializationService);
+    }
+
+    @Test
+    public void testRead_matchesDefaultReader() throws IOException {
+        Data data = serializationService.toData(person());
+
+        for (String path : new String[]{"b", "bool", "c", "s", "i", "l", "f", "d", "name", "address.city", "address.zip",
+                "address.company.name", "address.company.employees"}) {
+            Object expected = ((DefaultPortableReader) serializationService.createPortableReader(data)).read(path);
+            assertEquals(path, expected, navigator.read(data, path));
+        }
+    }
+
+    @Test
+    public void testRead_whenNestedPortableNull() {
+        // registers the class definition of the nested portable
+        serializationService.toData(person());
+        Person person = person();
+        person.address.company = null;
+        Data data = serializationService.toData(person);
+
+        assertNull(navigator.read(data, "address.company.name"));
+        assertEquals("Istanbul", navigator.read(data, "address.city"));
+    }
+
+    @Test
+    public void testRead_whenStringNull() {
+        Person person = person();
+        person.name = null;
+
+        assertNull(navigator.read(serializationService.toData(person), "name"));
+    }
+
+    @Test
+    public void testRead_whenDifferentClassesShareThePath() {
+        Data person = serializationService.toData(person());
+        Company company = new Company();
+        company.name = "hazelcast";
+        company.employees = 100;
+        Data companyData = serializationService.toData(company);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("john", navigator.read(person, "name"));
+            assertEquals("hazelcast", navigator.read(companyData, "name"));
+        }
+    }
+
+    @Test
+    public void testRead_whenNotNavigable() {
+        Data data = serializationService.toData(person());
+
+        assertSame(NOT_NAVIGABLE, navigator.read(data, "unknown"));
+        assertSame(NOT_NAVIGABLE, navigator.read(data, "address.unknown"));
+        assertSame(NOT_NAVIGABLE, navigator.read(data, "numbers"));
+        assertSame(NOT_NAVIGABLE, navigator.read(data, "numbers[0]"));
+        assertSame(NOT_NAVIGABLE, navigator.read(data, "address"));
+        assertSame(NOT_NAVIGABLE, navigator.read(data, "name.length"));
+        assertSame(NOT_NAVIGABLE, navigator.read(data, "address."));
+        assertSame(NOT_NAVIGABLE, navigator.read(serializationService.toData("string"), "name"));
+    }
+
+    private static Person person() {
+        Company company = new Company();
+        company.name = "hazelcast";
+        company.employees = 250;
+        Address address = new Address();
+        address.city = "Istanbul";
+        address.zip = 34000;
+        address.company = company;
+        Person person = new Person();
+        person.b = 1;
+        person.bool = true;
+        person.c = 'c';
+        person.s = 2;
+        person.i = 3;
+        person.l = 4;
+        person.f = 5.5f;
+        person.d = 6.5;
+        person.name = "john";
+        person.address = address;
+        person.numbers = new int[]{7, 8};
+        return person;
+    }
+
+    static class Person implements Portable {
+        static final int CLASS_ID = 1;
+
+        byte b;
+        boolean bool;
+        char c;
+        short s;
+        int i;
+        long l;
+        float f;
+        double d;
+        String name;
+        Address address;
+        int[] numbers;
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeIntArray("numbers", numbers);
+            writer.writeUTF("name", name);
+            writer.writeByte("b", b);
+            writer.writeBoolean("bool", bool);
+            writer.writeChar("c", c);
+            writer.writeShort("s", s);
+            writer.writeInt("i", i);
+            writer.writeLong("l", l);
+            writer.writeFloat("f", f);
+            writer.writeDouble("d", d);
+            writer.writePortable("address", address);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            numbers = reader.readIntArray("numbers");
+            name = reader.readUTF("name");
+            b = reader.readByte("b");
+            bool = reader.readBoolean("bool");
+            c = reader.readChar("c");
+            s = reader.readShort("s");
+            i = reader.readInt("i");
+            l = reader.readLong("l");
+            f = reader.readFloat("f");
+            d = reader.readDouble("d");
+            address = reader.readPortable("address");
+        }
+    }
+
+    static class Address implements Portable {
+        static final int CLASS_ID = 2;
+
+        String city;
+        int zip;
+        Company company;
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeUTF("city", city);
+            writer.writeInt("zip", zip);
+            if (company == null) {
+                writer.writeNullPortable("company", FACTORY_ID, Company.CLASS_ID);
+            } else {
+                writer.writePortable("company", company);
+            }
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            city = reader.readUTF("city");
+            zip = reader.readInt("zip");
+            company = reader.readPortable("company");
+        }
+    }
+
+    static class Company implements Portable {
+        static final int CLASS_ID = 3;
+
+        int employees;
+        String name;
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeInt("employees", employees);
+            writer.writeUTF("name", name);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            employees = reader.readInt("employees");
+            name = reader.readUTF("name");
+        }
+    }
+}
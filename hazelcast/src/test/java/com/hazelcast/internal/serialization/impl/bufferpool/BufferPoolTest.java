@@ -116,6 +116,44 @@ public class BufferPoolTest extends HazelcastTestSupport {
         assertEquals(Version.UNKNOWN, found2.getVersion());
     }
 
+    @Test
+    public void takeOutputBuffer_whenGrownBefore_thenGrowsIntoRetainedArray() throws IOException {
+        byte[] value = new byte[3 * SizeClassByteArrayPool.MIN_SIZE_CLASS_BYTES];
+
+        BufferObjectDataOutput out = bufferPool.takeOutputBuffer();
+        out.write(value);
+        bufferPool.returnOutputBuffer(out);
+
+        assertEquals(0, bufferPool.arrayPool.hits());
+        assertEquals(1, bufferPool.arrayPool.misses());
+        assertEquals(4 * SizeClassByteArrayPool.MIN_SIZE_CLASS_BYTES, bufferPool.arrayPool.retainedBytes());
+
+        out = bufferPool.takeOutputBuffer();
+        out.writeInt(1);
+        out.write(value);
+        assertEquals(1, bufferPool.arrayPool.hits());
+        assertEquals(0, bufferPool.arrayPool.retainedBytes());
+        assertEquals(value.length + 4, out.toByteArray().length);
+        bufferPool.returnOutputBuffer(out);
+
+        assertEquals(1, bufferPool.arrayPool.misses());
+        assertEquals(4 * SizeClassByteArrayPool.MIN_SIZE_CLASS_BYTES, bufferPool.arrayPool.retainedBytes());
+    }
+
+    @Test
+    public void returnOutputBuffer_whenOverflowing_thenArrayReleased() throws IOException {
+        BufferObjectDataOutput[] outs = new BufferObjectDataOutput[BufferPoolImpl.MAX_POOLED_ITEMS + 1];
+        for (int k = 0; k < outs.length; k++) {
+            outs[k] = bufferPool.takeOutputBuffer();
+            outs[k].write(new byte[SizeClassByteArrayPool.MIN_SIZE_CLASS_BYTES]);
+        }
+        for (BufferObjectDataOutput out : outs) {
+            bufferPool.returnOutputBuffer(out);
+        }
+
+        assertEquals(outs.length * 2 * SizeClassByteArrayPool.MIN_SIZE_CLASS_BYTES, bufferPool.arrayPool.retainedBytes());
+    }
+
     // ======================= in ==========================================
 
     @Test
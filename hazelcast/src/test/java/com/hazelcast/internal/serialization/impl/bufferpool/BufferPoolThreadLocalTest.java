@@ -32,6 +32,7 @@ import java.lang.ref.WeakReference;
 import java.util.concurrent.Callable;
 import java.util.function.Supplier;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
@@ -132,4 +133,19 @@ public class BufferPoolThreadLocalTest extends HazelcastTestSupport {
             }
         });
     }
+
+    @Test
+    public void testMetrics_summedOverThreads() throws Exception {
+        ((BufferPoolImpl) bufferPoolThreadLocal.get()).getArrayPool().take(SizeClassByteArrayPool.MIN_SIZE_CLASS_BYTES);
+        spawn(() -> {
+            SizeClassByteArrayPool arrayPool = ((BufferPoolImpl) bufferPoolThreadLocal.get()).getArrayPool();
+            arrayPool.release(arrayPool.take(SizeClassByteArrayPool.MIN_SIZE_CLASS_BYTES));
+            arrayPool.take(1);
+            return null;
+        }).get();
+
+        assertEquals(1, bufferPoolThreadLocal.hits());
+        assertEquals(2, bufferPoolThreadLocal.misses());
+        assertEquals(0, bufferPoolThreadLocal.retainedBytes());
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.serialization.impl.bufferpool.SizeClassByteArrayPool.MIN_SIZE_CLASS_BYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SizeClassByteArrayPoolTest {
+
+    private final SizeClassByteArrayPool pool = new SizeClassByteArrayPool(4 * MIN_SIZE_CLASS_BYTES);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenNegativeMaxRetainedBytes() {
+        new SizeClassByteArrayPool(-1);
+    }
+
+    @Test
+    public void testTake_whenEmpty_thenAllocatesSizeClass() {
+        assertEquals(MIN_SIZE_CLASS_BYTES, pool.take(MIN_SIZE_CLASS_BYTES).length);
+        assertEquals(2 * MIN_SIZE_CLASS_BYTES, pool.take(MIN_SIZE_CLASS_BYTES + 1).length);
+        assertEquals(2, pool.misses());
+        assertEquals(0, pool.hits());
+    }
+
+    @Test
+    public void testTake_whenSmallerThanSizeClasses_thenAllocatesExactLength() {
+        assertEquals(100, pool.take(100).length);
+        assertEquals(0, pool.misses());
+    }
+
+    @Test
+    public void testTake_whenSmallerArrayRetained_thenAllocates() {
+        pool.release(new byte[MIN_SIZE_CLASS_BYTES]);
+
+        assertEquals(2 * MIN_SIZE_CLASS_BYTES, pool.take(MIN_SIZE_CLASS_BYTES + 1).length);
+        assertEquals(MIN_SIZE_CLASS_BYTES, pool.retainedBytes());
+    }
+
+    @Test
+    public void testTake_servedBySmallestRetainedArray() {
+        byte[] small = new byte[MIN_SIZE_CLASS_BYTES];
+        byte[] large = new byte[2 * MIN_SIZE_CLASS_BYTES];
+        pool.release(large);
+        pool.release(small);
+
+        assertSame(small, pool.take(100));
+        assertSame(large, pool.take(100));
+        assertNotSame(large, pool.take(100));
+        assertEquals(2, pool.hits());
+        assertEquals(0, pool.retainedBytes());
+    }
+
+    @Test
+    public void testRelease_whenNotSizeClass_thenDropped() {
+        pool.release(new byte[100]);
+        pool.release(new byte[MIN_SIZE_CLASS_BYTES + 1]);
+
+        assertEquals(0, pool.retainedBytes());
+    }
+
+    @Test
+    public void testRelease_whenMaxRetainedBytesExceeded_thenDropped() {
+        pool.release(new byte[2 * MIN_SIZE_CLASS_BYTES]);
+        pool.release(new byte[2 * MIN_SIZE_CLASS_BYTES]);
+        pool.release(new byte[MIN_SIZE_CLASS_BYTES]);
+
+        assertEquals(4 * MIN_SIZE_CLASS_BYTES, pool.retainedBytes());
+    }
+}
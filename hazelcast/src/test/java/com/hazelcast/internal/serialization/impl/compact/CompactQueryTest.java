@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.impl.compact.CompactSerializationTest.Employee;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.exception.RetryableException;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.test.Accessors.getNode;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class CompactQueryTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    private final TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+
+    @After
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testQuery_onFieldAndNestedField() {
+        HazelcastInstance[] instances = factory.newInstances(config(), 2);
+        IMap<Integer, Employee> map = instances[0].getMap("employees");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Employee("name" + i, i, new Employee("manager" + (i % 2), 0, null)));
+        }
+
+        IMap<Integer, Employee> otherMap = instances[1].getMap("employees");
+        Collection<Employee> young = otherMap.values(Predicates.lessThan("age", 10));
+        Collection<Employee> managedBy = otherMap.values(Predicates.equal("manager.name", "manager1"));
+
+        assertEquals(10, young.size());
+        assertEquals(ENTRY_COUNT / 2, managedBy.size());
+    }
+
+    @Test
+    public void testSchemas_replicatedToAllMembers_includingJoiningOnes() {
+        HazelcastInstance[] instances = factory.newInstances(config(), 2);
+        IMap<Integer, Employee> map = instances[0].getMap("employees");
+        map.put(1, new Employee("john", 42, null));
+
+        assertTrueEventually(() -> {
+            for (HazelcastInstance instance : instances) {
+                assertEquals(1, getNode(instance).getSchemaService().getAllSchemas().size());
+            }
+        });
+
+        HazelcastInstance joining = factory.newHazelcastInstance(config());
+        assertEquals(1, getNode(joining).getSchemaService().getAllSchemas().size());
+        assertEquals("john", joining.<Integer, Employee>getMap("employees").get(1).name);
+    }
+
+    @Test
+    public void testSchemas_replicatedBeforeFirstWriteReturns() {
+        HazelcastInstance[] instances = factory.newInstances(config(), 2);
+
+        getNode(instances[0]).getSerializationService().toData(new Employee("john", 42, null));
+
+        assertEquals(1, getNode(instances[1]).getSchemaService().getAllSchemas().size());
+    }
+
+    @Test
+    public void testSchemaMissing_onPartitionThread_thenFetchedWithoutBlocking() throws Exception {
+        HazelcastInstance[] instances = factory.newInstances(config(), 2);
+        Schema schema = new Schema("employee", Collections.singletonMap("age", FieldKind.INT));
+        // known only by the first member, as if the replication was still in flight
+        getNode(instances[0]).getSchemaService().putLocal(schema);
+        MemberSchemaService schemaService = getNode(instances[1]).getSchemaService();
+
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        getNodeEngineImpl(instances[1]).getOperationService().execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return 0;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    schemaService.get(schema.getSchemaId());
+                    failure.complete(null);
+                } catch (Throwable t) {
+                    failure.complete(t);
+                }
+            }
+        });
+
+        assertInstanceOf(SchemaNotReplicatedException.class, failure.get());
+        assertInstanceOf(RetryableException.class, failure.get());
+        assertTrueEventually(() -> assertEquals(schema, schemaService.getLocal(schema.getSchemaId())));
+    }
+
+    private static Config config() {
+        Config config = smallInstanceConfig();
+        config.getSerializationConfig().getCompactSerializationConfig().register(Employee.class);
+        return config;
+    }
+}
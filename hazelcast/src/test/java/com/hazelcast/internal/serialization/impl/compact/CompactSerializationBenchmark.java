@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.CompactSerializer;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compact format with Portable and IdentifiedDataSerializable on the serialized size, on the
+ * serialization and deserialization throughput and on the extraction of a single field for a query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CompactSerializationBenchmark {
+
+    private static final int FACTORY_ID = 1;
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+
+    private PortablePerson portablePerson;
+    private IdsPerson idsPerson;
+    private CompactPerson compactPerson;
+    private ReflectivePerson reflectivePerson;
+    private SerializablePerson serializablePerson;
+
+    private Data portableData;
+    private Data idsData;
+    private Data compactData;
+    private Data reflectiveData;
+    private Data serializableData;
+
+    @Setup
+    public void setup() {
+        SerializationConfig config = new SerializationConfig();
+        config.addPortableFactory(FACTORY_ID, classId -> new PortablePerson());
+        config.addDataSerializableFactory(FACTORY_ID, typeId -> new IdsPerson());
+        config.getCompactSerializationConfig().register(CompactPerson.class, "person", new CompactPersonSerializer());
+        config.getCompactSerializationConfig().register(ReflectivePerson.class);
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        extractors = Extractors.newBuilder(serializationService).build();
+
+        portablePerson = new PortablePerson();
+        idsPerson = new IdsPerson();
+        compactPerson = new CompactPerson();
+        reflectivePerson = new ReflectivePerson();
+        serializablePerson = new SerializablePerson();
+        for (Person person : new Person[]{portablePerson, idsPerson, compactPerson, reflectivePerson, serializablePerson}) {
+            person.init();
+        }
+
+        portableData = serializationService.toData(portablePerson);
+        idsData = serializationService.toData(idsPerson);
+        compactData = serializationService.toData(compactPerson);
+        reflectiveData = serializationService.toData(reflectivePerson);
+        serializableData = serializationService.toData(serializablePerson);
+        System.out.println("Serialized sizes: portable=" + portableData.totalSize() + ", ids=" + idsData.totalSize()
+                + ", compact=" + compactData.totalSize() + ", reflective=" + reflectiveData.totalSize()
+                + ", serializable=" + serializableData.totalSize());
+    }
+
+    @Benchmark
+    public Data toData_portable() {
+        return serializationService.toData(portablePerson);
+    }
+
+    @Benchmark
+    public Data toData_ids() {
+        return serializationService.toData(idsPerson);
+    }
+
+    @Benchmark
+    public Data toData_compact() {
+        return serializationService.toData(compactPerson);
+    }
+
+    @Benchmark
+    public Data toData_reflective() {
+        return serializationService.toData(reflectivePerson);
+    }
+
+    @Benchmark
+    public Data toData_serializable() {
+        return serializationService.toData(serializablePerson);
+    }
+
+    @Benchmark
+    public Object toObject_portable() {
+        return serializationService.toObject(portableData);
+    }
+
+    @Benchmark
+    public Object toObject_ids() {
+        return serializationService.toObject(idsData);
+    }
+
+    @Benchmark
+    public Object toObject_compact() {
+        return serializationService.toObject(compactData);
+    }
+
+    @Benchmark
+    public Object toObject_reflective() {
+        return serializationService.toObject(reflectiveData);
+    }
+
+    @Benchmark
+    public Object toObject_serializable() {
+        return serializationService.toObject(serializableData);
+    }
+
+    @Benchmark
+    public Object extract_portable() {
+        return extractors.extract(portableData, "age", null);
+    }
+
+    @Benchmark
+    public Object extract_ids() {
+        // IdentifiedDataSerializable values have to be deserialized to extract a field
+        return extractors.extract(serializationService.toObject(idsData), "age", null);
+    }
+
+    @Benchmark
+    public Object extract_compact() {
+        return extractors.extract(compactData, "age", null);
+    }
+
+    @Benchmark
+    public Object extract_reflective() {
+        return extractors.extract(reflectiveData, "age", null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(CompactSerializationBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    public abstract static class Person {
+        String name;
+        String city;
+        int age;
+        long salary;
+        double rating;
+        boolean active;
+
+        void init() {
+            name = "John Doe";
+            city = "Istanbul";
+            age = 42;
+            salary = 100_000;
+            rating = 4.5;
+            active = true;
+        }
+
+        public int getAge() {
+            return age;
+        }
+    }
+
+    public static class PortablePerson extends Person implements Portable {
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return 1;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeUTF("name", name);
+            writer.writeUTF("city", city);
+            writer.writeInt("age", age);
+            writer.writeLong("salary", salary);
+            writer.writeDouble("rating", rating);
+            writer.writeBoolean("active", active);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            name = reader.readUTF("name");
+            city = reader.readUTF("city");
+            age = reader.readInt("age");
+            salary = reader.readLong("salary");
+            rating = reader.readDouble("rating");
+            active = reader.readBoolean("active");
+        }
+    }
+
+    public static class IdsPerson extends Person implements IdentifiedDataSerializable {
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return 1;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeUTF(name);
+            out.writeUTF(city);
+            out.writeInt(age);
+            out.writeLong(salary);
+            out.writeDouble(rating);
+            out.writeBoolean(active);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            name = in.readUTF();
+            city = in.readUTF();
+            age = in.readInt();
+            salary = in.readLong();
+            rating = in.readDouble();
+            active = in.readBoolean();
+        }
+    }
+
+    public static class CompactPerson extends Person {
+    }
+
+    public static class ReflectivePerson extends Person {
+    }
+
+    public static class SerializablePerson extends Person implements Serializable {
+    }
+
+    static class CompactPersonSerializer implements CompactSerializer<CompactPerson> {
+
+        @Override
+        public CompactPerson read(CompactReader in) throws IOException {
+            CompactPerson person = new CompactPerson();
+            person.name = in.readUTF("name");
+            person.city = in.readUTF("city");
+            person.age = in.readInt("age");
+            person.salary = in.readLong("salary");
+            person.rating = in.readDouble("rating");
+            person.active = in.readBoolean("active");
+            return person;
+        }
+
+        @Override
+        public void write(CompactWriter out, CompactPerson person) throws IOException {
+            out.writeUTF("name", person.name);
+            out.writeUTF("city", person.city);
+            out.writeInt("age", person.age);
+            out.writeLong("salary", person.salary);
+            out.writeDouble("rating", person.rating);
+            out.writeBoolean("active", person.active);
+        }
+    }
+}
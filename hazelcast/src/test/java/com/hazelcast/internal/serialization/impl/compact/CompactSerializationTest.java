@@ -0,0 +1,501 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.config.CompactSerializationConfig;
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.CompactSerializer;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactSerializationTest {
+
+    @Test
+    public void testReflectiveRoundTrip_allFieldKinds() {
+        InternalSerializationService ss = createSerializationService(new LocalSchemaService(), reflectiveConfig());
+        AllKinds original = AllKinds.create();
+
+        Data data = ss.toData(original);
+
+        assertTrue(data.isCompact());
+        assertEquals(original, ss.toObject(data));
+    }
+
+    @Test
+    public void testReflectiveRoundTrip_nullsAndEmptyArrays() {
+        InternalSerializationService ss = createSerializationService(new LocalSchemaService(), reflectiveConfig());
+        AllKinds original = new AllKinds();
+        original.aStringArray = new String[]{"a", null, "b"};
+        original.employees = new Employee[]{null, new Employee("x", 1, null)};
+        original.anIntArray = new int[0];
+
+        AllKinds deserialized = ss.toObject(ss.toData(original));
+
+        assertEquals(original, deserialized);
+        assertNull(deserialized.aString);
+        assertNull(deserialized.employee);
+    }
+
+    @Test
+    public void testExplicitSerializer_roundTrip() {
+        CompactSerializationConfig compactConfig = new CompactSerializationConfig()
+                .register(Employee.class, "employee", new EmployeeSerializer());
+        InternalSerializationService ss = createSerializationService(new LocalSchemaService(), compactConfig);
+        Employee employee = new Employee("john", 42, new Employee("jane", 50, null));
+
+        Data data = ss.toData(employee);
+
+        assertTrue(data.isCompact());
+        assertEquals(employee, ss.toObject(data));
+    }
+
+    @Test
+    public void testSchemaIsShared_betweenServicesWithSameSchemaService() {
+        LocalSchemaService schemaService = new LocalSchemaService();
+        InternalSerializationService ss1 = createSerializationService(schemaService, reflectiveConfig());
+        InternalSerializationService ss2 = createSerializationService(schemaService, reflectiveConfig());
+        Employee employee = new Employee("john", 42, null);
+
+        assertEquals(employee, ss2.toObject(ss1.toData(employee)));
+        assertEquals(1, schemaService.getAllSchemas().size());
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testDeserialization_whenSchemaUnknown() {
+        InternalSerializationService ss1 = createSerializationService(new LocalSchemaService(), reflectiveConfig());
+        InternalSerializationService ss2 = createSerializationService(new LocalSchemaService(), reflectiveConfig());
+
+        ss2.toObject(ss1.toData(new Employee("john", 42, null)));
+    }
+
+    @Test
+    public void testSchemaId_isStableAcrossServices() {
+        LocalSchemaService schemaService1 = new LocalSchemaService();
+        LocalSchemaService schemaService2 = new LocalSchemaService();
+        createSerializationService(schemaService1, reflectiveConfig()).toData(new Employee("a", 1, null));
+        createSerializationService(schemaService2, reflectiveConfig()).toData(new Employee("b", 2, null));
+
+        assertEquals(new HashSet<>(schemaService1.getAllSchemas()), new HashSet<>(schemaService2.getAllSchemas()));
+    }
+
+    @Test
+    public void testSchema_identifiedDataSerializableRoundTrip() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        LocalSchemaService schemaService = new LocalSchemaService();
+        createSerializationService(schemaService, reflectiveConfig()).toData(AllKinds.create());
+
+        for (Schema schema : schemaService.getAllSchemas()) {
+            Schema deserialized = ss.toObject(ss.toData(schema));
+            assertEquals(schema, deserialized);
+            assertEquals(schema.getSchemaId(), deserialized.getSchemaId());
+            assertEquals(schema.getFixedSizeFieldsLength(), deserialized.getFixedSizeFieldsLength());
+        }
+    }
+
+    @Test
+    public void testSchemaEvolution_readerSkipsMissingFields() {
+        LocalSchemaService schemaService = new LocalSchemaService();
+        InternalSerializationService writerSide = createSerializationService(schemaService,
+                new CompactSerializationConfig().register(Employee.class, "employee", new EmployeeSerializer()));
+        InternalSerializationService readerSide = createSerializationService(schemaService,
+                new CompactSerializationConfig().register(Employee.class, "employee", new EvolvedEmployeeSerializer()));
+
+        Employee employee = readerSide.toObject(writerSide.toData(new Employee("john", 42, null)));
+
+        assertEquals("john", employee.name);
+        assertEquals(-1, employee.age);
+    }
+
+    @Test
+    public void testReader_readsFieldsWithoutDeserialization() throws IOException {
+        InternalSerializationService ss = createSerializationService(new LocalSchemaService(), reflectiveConfig());
+        Data data = ss.toData(new Employee("john", 42, new Employee("jane", 50, null)));
+
+        DefaultCompactReader reader = (DefaultCompactReader) ss.createCompactReader(data);
+
+        assertEquals(42, reader.readInt("age"));
+        assertEquals("john", reader.readUTF("name"));
+        assertEquals(42, reader.read("age"));
+        assertEquals("jane", reader.read("manager.name"));
+        assertNull(reader.read("manager.manager.name"));
+        assertFalse(reader.hasField("salary"));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testReader_whenFieldKindMismatch() throws IOException {
+        InternalSerializationService ss = createSerializationService(new LocalSchemaService(), reflectiveConfig());
+        Data data = ss.toData(new Employee("john", 42, null));
+
+        ss.createCompactReader(data).readLong("age");
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testWriter_whenDuplicateField() {
+        CompactSerializationConfig compactConfig = new CompactSerializationConfig()
+                .register(Employee.class, "employee", new CompactSerializer<Employee>() {
+                    @Override
+                    public Employee read(CompactReader in) {
+                        return null;
+                    }
+
+                    @Override
+                    public void write(CompactWriter out, Employee object) throws IOException {
+                        out.writeInt("age", object.age);
+                        out.writeInt("age", object.age);
+                    }
+                });
+        createSerializationService(new LocalSchemaService(), compactConfig).toData(new Employee("john", 42, null));
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testConfig_whenDuplicateRegistration() {
+        new CompactSerializationConfig().register(Employee.class).register(Employee.class);
+    }
+
+    @Test
+    public void testConfig_copyAndEquals() {
+        SerializationConfig config = new SerializationConfig();
+        config.getCompactSerializationConfig().register(Employee.class);
+
+        SerializationConfig copy = new SerializationConfig(config);
+
+        assertEquals(config, copy);
+        assertEquals(config.getCompactSerializationConfig(), copy.getCompactSerializationConfig());
+    }
+
+    @Test
+    public void testReflectiveRoundTrip_transientFieldIgnored() {
+        InternalSerializationService ss = createSerializationService(new LocalSchemaService(), reflectiveConfig());
+        AllKinds deserialized = ss.toObject(ss.toData(AllKinds.create()));
+
+        assertEquals(0, deserialized.ignored);
+        assertArrayEquals(new int[]{5, 6}, deserialized.anIntArray);
+    }
+
+    @Test
+    public void testReflectiveRead_whenFieldsMissingFromSchema_thenInitialValuesKept() {
+        LocalSchemaService schemaService = new LocalSchemaService();
+        // an older version of the class which had the name only
+        InternalSerializationService writerSide = createSerializationService(schemaService,
+                new CompactSerializationConfig().register(Versioned.class, Versioned.class.getName(),
+                        new CompactSerializer<Versioned>() {
+                            @Override
+                            public Versioned read(CompactReader in) {
+                                throw new UnsupportedOperationException();
+                            }
+
+                            @Override
+                            public void write(CompactWriter out, Versioned object) throws IOException {
+                                out.writeUTF("name", object.name);
+                            }
+                        }));
+        InternalSerializationService readerSide = createSerializationService(schemaService,
+                new CompactSerializationConfig().register(Versioned.class));
+        Versioned original = new Versioned();
+        original.name = "john";
+        original.age = 42;
+
+        Versioned deserialized = readerSide.toObject(writerSide.toData(original));
+
+        assertEquals("john", deserialized.name);
+        assertEquals(-1, deserialized.age);
+        assertNull(deserialized.manager);
+        // the data of the current version of the class is still read completely
+        assertEquals(42, ((Versioned) readerSide.toObject(readerSide.toData(original))).age);
+    }
+
+    @Test
+    public void testReflectiveRoundTrip_finalFields() {
+        InternalSerializationService ss = createSerializationService(new LocalSchemaService(),
+                new CompactSerializationConfig().register(FinalFields.class));
+
+        FinalFields deserialized = ss.toObject(ss.toData(new FinalFields("john", 42L)));
+
+        assertEquals("john", deserialized.name);
+        assertEquals(42L, deserialized.id);
+    }
+
+    @Test
+    public void testReflectiveRoundTrip_inheritedFields() {
+        InternalSerializationService ss = createSerializationService(new LocalSchemaService(),
+                new CompactSerializationConfig().register(Derived.class));
+        Derived original = new Derived();
+        original.setBaseValue(1);
+        original.baseName = "base";
+        original.value = 2;
+
+        Derived deserialized = ss.toObject(ss.toData(original));
+
+        assertEquals(1, deserialized.getBaseValue());
+        assertEquals("base", deserialized.baseName);
+        assertEquals(2, deserialized.value);
+    }
+
+    @Test
+    public void testReflectiveData_extractedByFieldName() {
+        InternalSerializationService ss = createSerializationService(new LocalSchemaService(),
+                new CompactSerializationConfig().register(Derived.class).register(FinalFields.class)
+                        .register(Employee.class));
+        Extractors extractors = Extractors.newBuilder(ss).build();
+        Derived derived = new Derived();
+        derived.setBaseValue(1);
+        derived.baseName = "base";
+        derived.value = 2;
+
+        Data derivedData = ss.toData(derived);
+        Data finalFieldsData = ss.toData(new FinalFields("john", 42L));
+        Data employeeData = ss.toData(new Employee("john", 42, new Employee("jane", 50, null)));
+
+        assertEquals(1, extractors.extract(derivedData, "baseValue", null));
+        assertEquals("base", extractors.extract(derivedData, "baseName", null));
+        assertEquals(2, extractors.extract(derivedData, "value", null));
+        assertEquals("john", extractors.extract(finalFieldsData, "name", null));
+        assertEquals(42L, extractors.extract(finalFieldsData, "id", null));
+        assertEquals(42, extractors.extract(employeeData, "age", null));
+        assertEquals("jane", extractors.extract(employeeData, "manager.name", null));
+    }
+
+    private static CompactSerializationConfig reflectiveConfig() {
+        return new CompactSerializationConfig().register(AllKinds.class).register(Employee.class);
+    }
+
+    static InternalSerializationService createSerializationService(SchemaService schemaService,
+                                                                   CompactSerializationConfig compactConfig) {
+        SerializationConfig config = new SerializationConfig();
+        config.setCompactSerializationConfig(compactConfig);
+        return new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .setSchemaService(schemaService)
+                .build();
+    }
+
+    public static class Employee {
+        String name;
+        int age;
+        Employee manager;
+
+        public Employee() {
+        }
+
+        Employee(String name, int age, Employee manager) {
+            this.name = name;
+            this.age = age;
+            this.manager = manager;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Employee that = (Employee) o;
+            return age == that.age && Objects.equals(name, that.name) && Objects.equals(manager, that.manager);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, age, manager);
+        }
+    }
+
+    static class EmployeeSerializer implements CompactSerializer<Employee> {
+
+        @Override
+        public Employee read(CompactReader in) throws IOException {
+            return new Employee(in.readUTF("name"), in.readInt("age"), in.readCompact("manager"));
+        }
+
+        @Override
+        public void write(CompactWriter out, Employee object) throws IOException {
+            out.writeUTF("name", object.name);
+            out.writeInt("age", object.age);
+            out.writeCompact("manager", object.manager);
+        }
+    }
+
+    static class EvolvedEmployeeSerializer implements CompactSerializer<Employee> {
+
+        @Override
+        public Employee read(CompactReader in) throws IOException {
+            int age = in.hasField("yearsOfAge") ? in.readInt("yearsOfAge") : -1;
+            return new Employee(in.readUTF("name"), age, null);
+        }
+
+        @Override
+        public void write(CompactWriter out, Employee object) throws IOException {
+            out.writeUTF("name", object.name);
+            out.writeInt("yearsOfAge", object.age);
+        }
+    }
+
+    public static class Versioned {
+        String name;
+        int age = -1;
+        Employee manager;
+
+        public Versioned() {
+        }
+    }
+
+    public static class FinalFields {
+        final String name;
+        final long id;
+
+        // not public, so that the objects are created through a method handle rather than a spun lambda
+        private FinalFields() {
+            this(null, 0);
+        }
+
+        FinalFields(String name, long id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+
+    public static class Base {
+        String baseName;
+        private int baseValue;
+
+        public Base() {
+        }
+
+        int getBaseValue() {
+            return baseValue;
+        }
+
+        void setBaseValue(int baseValue) {
+            this.baseValue = baseValue;
+        }
+    }
+
+    public static class Derived extends Base {
+        int value;
+
+        public Derived() {
+        }
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    public static class AllKinds {
+        boolean aBoolean;
+        boolean anotherBoolean;
+        byte aByte;
+        char aChar;
+        short aShort;
+        int anInt;
+        long aLong;
+        float aFloat;
+        double aDouble;
+        String aString;
+        Employee employee;
+        boolean[] aBooleanArray;
+        byte[] aByteArray;
+        char[] aCharArray;
+        short[] aShortArray;
+        int[] anIntArray;
+        long[] aLongArray;
+        float[] aFloatArray;
+        double[] aDoubleArray;
+        String[] aStringArray;
+        Employee[] employees;
+        transient int ignored;
+
+        public AllKinds() {
+        }
+
+        static AllKinds create() {
+            AllKinds allKinds = new AllKinds();
+            allKinds.aBoolean = true;
+            allKinds.anotherBoolean = false;
+            allKinds.aByte = 1;
+            allKinds.aChar = 'c';
+            allKinds.aShort = 2;
+            allKinds.anInt = 3;
+            allKinds.aLong = 4;
+            allKinds.aFloat = 5.5f;
+            allKinds.aDouble = 6.5;
+            allKinds.aString = "string";
+            allKinds.employee = new Employee("john", 42, null);
+            allKinds.aBooleanArray = new boolean[]{true, false, true};
+            allKinds.aByteArray = new byte[]{1, 2};
+            allKinds.aCharArray = new char[]{'a', 'b'};
+            allKinds.aShortArray = new short[]{3, 4};
+            allKinds.anIntArray = new int[]{5, 6};
+            allKinds.aLongArray = new long[]{7, 8};
+            allKinds.aFloatArray = new float[]{9.5f};
+            allKinds.aDoubleArray = new double[]{10.5};
+            allKinds.aStringArray = new String[]{"x", "y"};
+            allKinds.employees = new Employee[]{new Employee("jane", 50, null)};
+            allKinds.ignored = 11;
+            return allKinds;
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            AllKinds that = (AllKinds) o;
+            return aBoolean == that.aBoolean && anotherBoolean == that.anotherBoolean && aByte == that.aByte
+                    && aChar == that.aChar && aShort == that.aShort && anInt == that.anInt && aLong == that.aLong
+                    && Float.compare(that.aFloat, aFloat) == 0 && Double.compare(that.aDouble, aDouble) == 0
+                    && Objects.equals(aString, that.aString) && Objects.equals(employee, that.employee)
+                    && Arrays.equals(aBooleanArray, that.aBooleanArray) && Arrays.equals(aByteArray, that.aByteArray)
+                    && Arrays.equals(aCharArray, that.aCharArray) && Arrays.equals(aShortArray, that.aShortArray)
+                    && Arrays.equals(anIntArray, that.anIntArray) && Arrays.equals(aLongArray, that.aLongArray)
+                    && Arrays.equals(aFloatArray, that.aFloatArray) && Arrays.equals(aDoubleArray, that.aDoubleArray)
+                    && Arrays.equals(aStringArray, that.aStringArray) && Arrays.equals(employees, that.employees);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(aString, anInt, aLong);
+        }
+    }
+}
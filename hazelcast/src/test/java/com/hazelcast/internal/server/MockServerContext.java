@@ -31,8 +31,11 @@ import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.server.tcp.PacketCompressor;
 import com.hazelcast.internal.server.tcp.PacketDecoder;
 import com.hazelcast.internal.server.tcp.PacketEncoder;
+import com.hazelcast.internal.server.tcp.PacketGatheringEncoder;
+import com.hazelcast.internal.server.tcp.PacketStringDictionary;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
 import com.hazelcast.logging.impl.LoggingServiceImpl;
@@ -59,6 +62,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import static com.hazelcast.internal.nio.Packet.Type.MEMBER_HANDSHAKE;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_GATHERING_WRITE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_GATHERING_WRITE_REFERENCE_THRESHOLD;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_INPUT_THREAD_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_OUTPUT_THREAD_COUNT;
 
@@ -74,6 +79,10 @@ public class MockServerContext implements ServerContext {
     private final ILogger logger;
 
     public MockServerContext(int port) throws Exception {
+        this(port, new Properties());
+    }
+
+    public MockServerContext(int port, Properties extraProperties) throws Exception {
         loggingService = new LoggingServiceImpl("somegroup", "log4j2", BuildInfoProvider.getBuildInfo(), true);
         logger = loggingService.getLogger(MockServerContext.class);
         serverSocketChannel = ServerSocketChannel.open();
@@ -89,6 +98,7 @@ public class MockServerContext implements ServerContext {
         Properties props = new Properties();
         props.put(IO_INPUT_THREAD_COUNT.getName(), "1");
         props.put(IO_OUTPUT_THREAD_COUNT.getName(), "1");
+        props.putAll(extraProperties);
         this.properties = new HazelcastProperties(props);
     }
 
@@ -354,6 +364,8 @@ public class MockServerContext implements ServerContext {
 
     @Override
     public InboundHandler[] createInboundHandlers(EndpointQualifier qualifier, final ServerConnection connection) {
+        PacketCompressor compressor = PacketCompressor.getOrCreate(connection, properties);
+        PacketStringDictionary dictionary = PacketStringDictionary.getOrCreate(connection, properties);
         return new InboundHandler[]{new PacketDecoder(connection, new Consumer<Packet>() {
             @Override
             public void accept(Packet packet) {
@@ -370,12 +382,18 @@ public class MockServerContext implements ServerContext {
                     logger.severe(e);
                 }
             }
-        })};
+        }, compressor, null, dictionary)};
     }
 
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier, ServerConnection connection) {
-        return new OutboundHandler[]{new PacketEncoder()};
+        PacketCompressor compressor = PacketCompressor.getOrCreate(connection, properties);
+        PacketStringDictionary dictionary = PacketStringDictionary.getOrCreate(connection, properties);
+        if (properties.getBoolean(IO_GATHERING_WRITE_ENABLED)) {
+            int referenceThreshold = properties.getInteger(IO_GATHERING_WRITE_REFERENCE_THRESHOLD);
+            return new OutboundHandler[]{new PacketGatheringEncoder(referenceThreshold, compressor, dictionary)};
+        }
+        return new OutboundHandler[]{new PacketEncoder(compressor, dictionary)};
     }
 
     @Override
@@ -188,7 +188,7 @@ public class MemberHandshakeHandlerTest {
     private void assertExpectedAddressesRegistered()
             throws IllegalAccessException {
         // inspect connections in TcpIpEndpointManager
-        ConcurrentHashMap<Address, TcpServerConnection> connectionsMap = getFieldValueReflectively(endpointManager, "connectionsMap");
+        ConcurrentHashMap<Address, TcpServerConnection> connectionsMap = endpointManager.planes[0].connectionsMap;
         try {
             for (Address address : expectedAddresses) {
                 assertTrue(connectionsMap.containsKey(address));
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * Measures the throughput of compressing and decompressing packets with the {@link PacketCompressor}
+ * for payloads that look like serialized map entries: every payload is a serialized {@link HashMap}
+ * with the same keys and varying values.
+ *
+ * The compression ratio is printed at the end of every trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PacketCompressorBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"16", "128", "1024"})
+    private int fieldCount;
+
+    private final Packet[] packets = new Packet[BATCH_SIZE];
+    private PacketCompressor sender;
+    private PacketCompressor receiver;
+    private long payloadBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        Random random = new Random(1);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Map<String, Object> value = new HashMap<>();
+            for (int field = 0; field < fieldCount; field++) {
+                value.put("field-" + field, field % 2 == 0 ? "value-" + random.nextInt(1000) : random.nextLong());
+            }
+            packets[i] = new Packet(serializationService.toBytes(value), i);
+            payloadBytes += packets[i].totalSize();
+        }
+
+        sender = new PacketCompressor(0);
+        sender.enable();
+        receiver = new PacketCompressor(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nfieldCount=%d averagePayloadBytes=%d compressionRatio=%.2f%n",
+                fieldCount, payloadBytes / BATCH_SIZE, sender.compressionRatio());
+        sender.close();
+        receiver.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void compressAndDecompress(Blackhole blackhole) throws DataFormatException {
+        for (Packet packet : packets) {
+            blackhole.consume(receiver.decompress(sender.compress(packet)));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(PacketCompressorBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketCompressorTest {
+
+    private static final int THRESHOLD = 256;
+
+    private final PacketCompressor sender = new PacketCompressor(THRESHOLD);
+    private final PacketCompressor receiver = new PacketCompressor(THRESHOLD);
+
+    @After
+    public void tearDown() {
+        sender.close();
+        receiver.close();
+    }
+
+    @Test
+    public void whenNotEnabled_thenPacketNotCompressed() {
+        Packet packet = new Packet(payload(0, 4096));
+
+        assertSame(packet, sender.compress(packet));
+        assertEquals(0, sender.compressedPackets());
+    }
+
+    @Test
+    public void whenSmallerThanThreshold_thenPacketNotCompressed() {
+        sender.enable();
+        Packet packet = new Packet(payload(0, THRESHOLD - 1));
+
+        assertSame(packet, sender.compress(packet));
+        assertEquals(0, sender.compressedPackets());
+    }
+
+    @Test
+    public void whenNotCompressed_thenDecompressReturnsSamePacket() throws Exception {
+        Packet packet = new Packet(payload(0, 4096));
+
+        assertSame(packet, receiver.decompress(packet));
+        assertEquals(0, receiver.decompressedPackets());
+    }
+
+    @Test
+    public void compressAndDecompress() throws Exception {
+        sender.enable();
+        byte[] payload = payload(0, 4096);
+        Packet packet = new Packet(payload, 42).setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_URGENT);
+
+        Packet compressed = sender.compress(packet);
+        assertTrue(compressed.isFlagRaised(FLAG_COMPRESSED));
+        assertTrue(compressed.totalSize() < payload.length);
+        assertFalse(packet.isFlagRaised(FLAG_COMPRESSED));
+
+        Packet decompressed = receiver.decompress(compressed);
+        assertArrayEquals(payload, decompressed.toByteArray());
+        assertEquals(42, decompressed.getPartitionId());
+        assertEquals(packet.getFlags(), decompressed.getFlags());
+        assertEquals(Packet.Type.OPERATION, decompressed.getPacketType());
+        assertEquals(1, receiver.decompressedPackets());
+    }
+
+    @Test
+    public void whenManyPackets_thenAllDecompressed() throws Exception {
+        sender.enable();
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            byte[] payload = payload(i, THRESHOLD + random.nextInt(8192));
+            Packet compressed = sender.compress(new Packet(payload, i));
+
+            Packet decompressed = receiver.decompress(compressed);
+            assertArrayEquals(payload, decompressed.toByteArray());
+            assertEquals(i, decompressed.getPartitionId());
+        }
+
+        assertEquals(100, sender.compressedPackets());
+        assertEquals(100, receiver.decompressedPackets());
+        assertTrue(sender.compressionRatio() > 1);
+    }
+
+    @Test
+    public void whenPayloadRepeated_thenPreviousPacketsUsedAsDictionary() throws Exception {
+        sender.enable();
+        byte[] payload = new byte[1024];
+        new Random(1).nextBytes(payload);
+
+        Packet first = sender.compress(new Packet(payload));
+        Packet second = sender.compress(new Packet(payload));
+
+        // random bytes don't compress by themselves, but the second packet is a back reference to the first
+        assertTrue("first: " + first.totalSize(), first.totalSize() > payload.length);
+        assertTrue("second: " + second.totalSize(), second.totalSize() < payload.length / 10);
+        assertArrayEquals(payload, receiver.decompress(first).toByteArray());
+        assertArrayEquals(payload, receiver.decompress(second).toByteArray());
+    }
+
+    @Test
+    public void whenIncompressiblePayload_thenRoundTrips() throws Exception {
+        sender.enable();
+        byte[] payload = new byte[64 * 1024];
+        new Random(1).nextBytes(payload);
+
+        Packet compressed = sender.compress(new Packet(payload));
+
+        assertArrayEquals(payload, receiver.decompress(compressed).toByteArray());
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void whenCorruptPayload_thenDataFormatException() throws Exception {
+        sender.enable();
+        Packet compressed = sender.compress(new Packet(payload(0, 4096)));
+        byte[] bytes = compressed.toByteArray().clone();
+        // overwrite the deflate block header with an invalid block type
+        bytes[4] = (byte) 0xFF;
+
+        receiver.decompress(new Packet(bytes).resetFlagsTo(compressed.getFlags()));
+    }
+
+    private static byte[] payload(int seed, int size) {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < size) {
+            sb.append("{\"name\":\"customer-").append(seed).append("\",\"city\":\"Amsterdam\",\"orders\":")
+                    .append(sb.length()).append('}');
+        }
+        return sb.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+}
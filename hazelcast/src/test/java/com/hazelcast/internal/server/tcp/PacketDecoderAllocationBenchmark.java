@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.nio.PacketPayloadPool;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.map.impl.operation.PutOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
+
+/**
+ * Measures the allocations of decoding operation packets with the {@link PacketDecoder}, with and without
+ * a {@link PacketPayloadPool}. The consumer deserializes the operation and releases the packet, like
+ * the operation runner does once the operation completed.
+ *
+ * Run with the GC profiler (as the main method does) and compare {@code gc.alloc.rate.norm}, the number
+ * of bytes allocated per packet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PacketDecoderAllocationBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"false", "true"})
+    private boolean pooled;
+
+    @Param({"100", "1000"})
+    private int valueSize;
+
+    private ByteBuffer batch;
+    private ByteBuffer src;
+    private PacketDecoder decoder;
+    private InternalSerializationService serializationService;
+    private Blackhole blackhole;
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        batch = ByteBuffer.allocate(BATCH_SIZE * (valueSize + 1024));
+        PacketIOHelper packetWriter = new PacketIOHelper();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            PutOperation operation = new PutOperation("map", serializationService.toData("key-" + (i % 10)),
+                    serializationService.toData(new byte[valueSize]));
+            Packet packet = new Packet(serializationService.toBytes(operation), i).setPacketType(OPERATION);
+            packetWriter.writeTo(packet, batch);
+        }
+        batch.flip();
+        src = ByteBuffer.allocate(batch.capacity());
+
+        decoder = new PacketDecoder(null, this::runOperation, null, pooled ? new PacketPayloadPool() : null);
+        decoder.setNormalPacketsRead(SwCounter.newSwCounter());
+        decoder.setPriorityPacketsRead(SwCounter.newSwCounter());
+        decoder.src(src);
+    }
+
+    private void runOperation(Packet packet) {
+        blackhole.consume(serializationService.toObject(packet));
+        packet.release();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void decode() throws Exception {
+        src.clear();
+        src.put(batch.duplicate());
+        decoder.onRead();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(PacketDecoderAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_FRAGMENT;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketFragmenterTest {
+
+    private static final int FRAGMENT_SIZE = 1024;
+
+    private final PacketFragmenter fragmenter = new PacketFragmenter(FRAGMENT_SIZE);
+    private final PacketReassembler reassembler = new PacketReassembler();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenFragmentSizeTooSmall() {
+        new PacketFragmenter(PacketFragmenter.MIN_FRAGMENT_SIZE - 1);
+    }
+
+    @Test
+    public void whenPacketSmall_thenNotFragmented() {
+        assertNull(fragmenter.fragment(new Packet(payload(2 * FRAGMENT_SIZE)), 0));
+    }
+
+    @Test
+    public void whenNotPacket_thenNotFragmented() {
+        OutboundFrame frame = new OutboundFrame() {
+            @Override
+            public boolean isUrgent() {
+                return false;
+            }
+
+            @Override
+            public int getFrameLength() {
+                return 10 * FRAGMENT_SIZE;
+            }
+        };
+
+        assertNull(fragmenter.fragment(frame, 0));
+    }
+
+    @Test
+    public void whenPacketLarge_thenFragmented() {
+        int payloadLength = 5 * FRAGMENT_SIZE + FRAGMENT_SIZE / 2;
+        Packet packet = new Packet(payload(payloadLength), 42)
+                .setPacketType(Packet.Type.OPERATION)
+                .raiseFlags(FLAG_OP_RESPONSE | FLAG_URGENT);
+
+        List<Packet> fragments = fragments(packet, 3);
+
+        assertEquals(5, fragments.size());
+        for (Packet fragment : fragments) {
+            assertTrue(fragment.isFlagRaised(FLAG_FRAGMENT | FLAG_OP_RESPONSE | FLAG_URGENT));
+            assertEquals(42, fragment.getPartitionId());
+            assertEquals(3, fragment.toByteArray()[0]);
+        }
+        // the last fragment takes the remainder
+        assertEquals(FRAGMENT_SIZE + FRAGMENT_SIZE / 2 + 1, fragments.get(4).toByteArray().length);
+
+        Packet reassembled = null;
+        for (int i = 0; i < fragments.size(); i++) {
+            reassembled = reassembler.reassemble(fragments.get(i));
+            if (i < fragments.size() - 1) {
+                assertNull(reassembled);
+            }
+        }
+        assertNotNull(reassembled);
+        assertEquals(packet, reassembled);
+        assertFalse(reassembled.isFlagRaised(FLAG_FRAGMENT));
+        assertEquals(Packet.Type.OPERATION, reassembled.getPacketType());
+    }
+
+    @Test
+    public void whenStreamsInterleaved_thenReassembled() {
+        Packet packet1 = new Packet(payload(7 * FRAGMENT_SIZE), 1);
+        Packet packet2 = new Packet(payload(9 * FRAGMENT_SIZE + 7), 2);
+        Iterator<OutboundFrame> fragments1 = fragmenter.fragment(packet1, 0);
+        Iterator<OutboundFrame> fragments2 = fragmenter.fragment(packet2, 1);
+
+        List<Packet> reassembled = new ArrayList<>();
+        while (fragments1.hasNext() || fragments2.hasNext()) {
+            for (Iterator<OutboundFrame> fragments : asList(fragments1, fragments2)) {
+                if (fragments.hasNext()) {
+                    Packet packet = reassembler.reassemble((Packet) fragments.next());
+                    if (packet != null) {
+                        reassembled.add(packet);
+                    }
+                }
+            }
+        }
+
+        assertEquals(2, reassembled.size());
+        assertArrayEquals(packet1.toByteArray(), reassembled.get(0).toByteArray());
+        assertEquals(1, reassembled.get(0).getPartitionId());
+        assertArrayEquals(packet2.toByteArray(), reassembled.get(1).toByteArray());
+        assertEquals(2, reassembled.get(1).getPartitionId());
+    }
+
+    @Test
+    public void whenSamePacketSizeReassembledTwice() {
+        Packet packet = new Packet(payload(3 * FRAGMENT_SIZE));
+
+        for (int k = 0; k < 2; k++) {
+            Packet reassembled = null;
+            for (Packet fragment : fragments(packet, 0)) {
+                reassembled = reassembler.reassemble(fragment);
+            }
+            assertEquals(packet, reassembled);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenFragmentExceedsPacketLength() {
+        List<Packet> fragments1 = fragments(new Packet(payload(3 * FRAGMENT_SIZE)), 0);
+        List<Packet> fragments2 = fragments(new Packet(payload(5 * FRAGMENT_SIZE + FRAGMENT_SIZE / 2)), 0);
+        reassembler.reassemble(fragments1.get(0));
+        reassembler.reassemble(fragments2.get(1));
+        reassembler.reassemble(fragments2.get(4));
+    }
+
+    private List<Packet> fragments(Packet packet, int stream) {
+        List<Packet> fragments = new ArrayList<>();
+        Iterator<OutboundFrame> iterator = fragmenter.fragment(packet, stream);
+        while (iterator.hasNext()) {
+            fragments.add((Packet) iterator.next());
+        }
+        return fragments;
+    }
+
+    private static byte[] payload(int length) {
+        byte[] payload = new byte[length];
+        new Random(length).nextBytes(payload);
+        return payload;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.GatheringBuffer;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.nio.Packet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+
+/**
+ * Compares the {@link PacketEncoder}, which copies every packet into the send buffer, with the
+ * {@link PacketGatheringEncoder}, which references large payloads and writes everything with a single
+ * gathering write, for a mixed workload of small and large packets over a loopback socket.
+ *
+ * Next to the throughput, the number of socket writes per packet is printed at the end of every trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PacketGatheringEncoderBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int SEND_BUFFER_SIZE = 128 * 1024;
+    private static final int RECEIVE_BUFFER_SIZE = 1024 * 1024;
+    private static final int REFERENCE_THRESHOLD = 8192;
+    private static final int SMALL_PAYLOAD_SIZE = 64;
+
+    @Param({"false", "true"})
+    private boolean gathering;
+
+    @Param({"16384", "262144"})
+    private int largePayloadSize;
+
+    // one out of largeEvery packets is large
+    @Param({"4", "32"})
+    private int largeEvery;
+
+    private ServerSocketChannel serverSocketChannel;
+    private SocketChannel writeChannel;
+    private Thread reader;
+
+    private final Packet[] packets = new Packet[BATCH_SIZE];
+    private int packetIndex;
+
+    private PacketEncoder encoder;
+    private ByteBuffer sendBuffer;
+    private PacketGatheringEncoder gatheringEncoder;
+
+    private long writeCalls;
+    private long packetsWritten;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        writeChannel = SocketChannel.open(serverSocketChannel.getLocalAddress());
+        writeChannel.socket().setTcpNoDelay(true);
+        SocketChannel readChannel = serverSocketChannel.accept();
+        reader = new Thread(() -> drain(readChannel), "reader");
+        reader.start();
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            packets[i] = new Packet(new byte[i % largeEvery == 0 ? largePayloadSize : SMALL_PAYLOAD_SIZE], i);
+        }
+
+        encoder = new PacketEncoder();
+        encoder.src(this::nextPacket);
+        sendBuffer = ByteBuffer.allocateDirect(SEND_BUFFER_SIZE);
+        sendBuffer.flip();
+        encoder.dst(sendBuffer);
+
+        gatheringEncoder = new PacketGatheringEncoder(REFERENCE_THRESHOLD);
+        gatheringEncoder.src(this::nextPacket);
+        gatheringEncoder.dst(new GatheringBuffer(ByteBuffer.allocateDirect(SEND_BUFFER_SIZE), REFERENCE_THRESHOLD));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        writeChannel.close();
+        reader.join();
+        serverSocketChannel.close();
+
+        System.out.printf("%ngathering=%s largePayloadSize=%d largeEvery=%d: %.4f writes/packet%n",
+                gathering, largePayloadSize, largeEvery, (double) writeCalls / packetsWritten);
+    }
+
+    private static void drain(SocketChannel readChannel) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(RECEIVE_BUFFER_SIZE);
+        try {
+            while (readChannel.read(buffer) >= 0) {
+                buffer.clear();
+            }
+            readChannel.close();
+        } catch (IOException ignore) {
+            // the write side got closed
+        }
+    }
+
+    private Packet nextPacket() {
+        return packetIndex == BATCH_SIZE ? null : packets[packetIndex++];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void writeBatch() throws IOException {
+        packetIndex = 0;
+        if (gathering) {
+            writeGathering();
+        } else {
+            writeCopying();
+        }
+        packetsWritten += BATCH_SIZE;
+    }
+
+    private void writeCopying() throws IOException {
+        HandlerStatus status;
+        do {
+            status = encoder.onWrite();
+            while (sendBuffer.hasRemaining()) {
+                writeChannel.write(sendBuffer);
+                writeCalls++;
+            }
+        } while (status != CLEAN);
+    }
+
+    private void writeGathering() throws IOException {
+        GatheringBuffer buffer = gatheringEncoder.dst();
+        HandlerStatus status;
+        do {
+            status = gatheringEncoder.onWrite();
+            while (buffer.hasRemaining()) {
+                buffer.writeTo(writeChannel);
+                writeCalls++;
+            }
+        } while (status != CLEAN);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(PacketGatheringEncoderBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
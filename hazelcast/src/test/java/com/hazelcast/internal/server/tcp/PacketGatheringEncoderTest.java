@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.GatheringBuffer;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.RecordingGatheringChannel;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.server.tcp.PacketEncoderTest.PacketSupplier;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketGatheringEncoderTest extends HazelcastTestSupport {
+
+    private InternalSerializationService serializationService;
+    private PacketGatheringEncoder encoder;
+    private PacketSupplier src;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        encoder = new PacketGatheringEncoder(100);
+        src = new PacketSupplier();
+        encoder.src(src);
+        encoder.dst(new GatheringBuffer(ByteBuffer.allocate(1000), 100));
+    }
+
+    @Test
+    public void whenMixedPackets_thenWrittenWithSingleWrite() throws Exception {
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Packet packet = new Packet(serializationService.toBytes(new byte[i % 2 == 0 ? 10 : 5000]), i);
+            packets.add(packet);
+            src.queue.add(packet);
+        }
+
+        HandlerStatus result = encoder.onWrite();
+        assertEquals(CLEAN, result);
+
+        RecordingGatheringChannel channel = new RecordingGatheringChannel();
+        encoder.dst().writeTo(channel);
+
+        assertEquals(1, channel.writeCalls());
+        assertFalse(encoder.dst().hasRemaining());
+        assertPackets(packets, channel.bytesAsBuffer());
+    }
+
+    @Test
+    public void whenScratchFull_thenDirtyAndResumes() throws Exception {
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Packet packet = new Packet(serializationService.toBytes(new byte[i % 3 == 0 ? 2000 : 50]), i);
+            packets.add(packet);
+            src.queue.add(packet);
+        }
+
+        RecordingGatheringChannel channel = new RecordingGatheringChannel(300);
+        int dirtyCount = 0;
+        for (; ; ) {
+            HandlerStatus result = encoder.onWrite();
+            encoder.dst().writeTo(channel);
+            if (result == CLEAN && !encoder.dst().hasRemaining()) {
+                break;
+            }
+            if (result == DIRTY) {
+                dirtyCount++;
+            }
+        }
+
+        assertFalse(dirtyCount == 0);
+        assertPackets(packets, channel.bytesAsBuffer());
+    }
+
+    private static void assertPackets(List<Packet> expected, ByteBuffer bytes) {
+        PacketIOHelper reader = new PacketIOHelper();
+        for (Packet packet : expected) {
+            Packet read = reader.readFrom(bytes);
+            assertEquals(packet, read);
+            assertEquals(packet.getPartitionId(), read.getPartitionId());
+        }
+        assertNull(reader.readFrom(bytes));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.StringRanges;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.operation.GetOperation;
+import com.hazelcast.map.impl.operation.PutOperation;
+import com.hazelcast.map.impl.operation.SetOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * Measures the throughput of encoding and decoding packets with the {@link PacketStringDictionary}
+ * for a typical map workload: a mix of get, put and set operations on a few maps, with string keys
+ * and small values.
+ *
+ * The bytes per operation before and after encoding are printed at the end of every trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PacketStringDictionaryBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int MAP_COUNT = 8;
+
+    private final Packet[] packets = new Packet[BATCH_SIZE];
+    private PacketStringDictionary sender;
+    private PacketStringDictionary receiver;
+    private long payloadBytes;
+    private long encodedBytes;
+    private long encodedPacketCount;
+
+    @Setup(Level.Trial)
+    public void setup() throws DataFormatException {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        Random random = new Random(1);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String mapName = "customer-orders-" + random.nextInt(MAP_COUNT);
+            Data key = serializationService.toData("order-" + random.nextInt(100000));
+            Data value = serializationService.toData("status-" + random.nextInt(10));
+            Operation op;
+            switch (i % 3) {
+                case 0:
+                    op = new GetOperation(mapName, key);
+                    break;
+                case 1:
+                    op = new PutOperation(mapName, key, value);
+                    break;
+                default:
+                    op = new SetOperation(mapName, key, value);
+            }
+            op.setPartitionId(random.nextInt(271));
+            StringRanges ranges = new StringRanges();
+            packets[i] = new Packet(serializationService.toBytes(op, ranges), op.getPartitionId())
+                    .setPacketType(Packet.Type.OPERATION)
+                    .setStringRanges(ranges);
+            payloadBytes += packets[i].totalSize();
+        }
+
+        sender = new PacketStringDictionary(512);
+        sender.enable();
+        receiver = new PacketStringDictionary(512);
+        // the dictionary is warm in a steady state
+        for (Packet packet : packets) {
+            receiver.decode(sender.encode(packet));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nbytesPerOperation=%d encodedBytesPerOperation=%d%n",
+                payloadBytes / BATCH_SIZE, encodedPacketCount == 0 ? 0 : encodedBytes / encodedPacketCount);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void encodeAndDecode(Blackhole blackhole) throws DataFormatException {
+        for (Packet packet : packets) {
+            Packet encoded = sender.encode(packet);
+            encodedBytes += encoded.totalSize();
+            encodedPacketCount++;
+            blackhole.consume(receiver.decode(encoded));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(PacketStringDictionaryBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.StringRanges;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_FRAGMENT;
+import static com.hazelcast.internal.nio.Packet.FLAG_STRING_DICTIONARY;
+import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketStringDictionaryTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final PacketStringDictionary sender = new PacketStringDictionary(4);
+    private final PacketStringDictionary receiver = new PacketStringDictionary(4);
+
+    @Test
+    public void whenNotEnabled_thenPacketNotEncoded() {
+        Packet packet = packet("map-name", "service-name");
+
+        assertSame(packet, sender.encode(packet));
+        assertEquals(0, sender.encodedPackets());
+    }
+
+    @Test
+    public void whenNoStringRanges_thenPacketNotEncoded() {
+        sender.enable();
+        Packet packet = new Packet(serializationService.toBytes(new String[]{"map-name"}));
+
+        assertSame(packet, sender.encode(packet));
+    }
+
+    @Test
+    public void whenFragment_thenPacketNotEncoded() {
+        sender.enable();
+        Packet packet = packet("map-name").raiseFlags(FLAG_FRAGMENT);
+
+        assertSame(packet, sender.encode(packet));
+    }
+
+    @Test
+    public void whenStringsTooShort_thenPacketNotEncoded() {
+        sender.enable();
+        Packet packet = packet("a", "bc");
+
+        assertSame(packet, sender.encode(packet));
+    }
+
+    @Test
+    public void whenNotEncoded_thenDecodeReturnsSamePacket() throws Exception {
+        Packet packet = packet("map-name");
+
+        assertSame(packet, receiver.decode(packet));
+        assertEquals(0, receiver.decodedPackets());
+    }
+
+    @Test
+    public void encodeAndDecode() throws Exception {
+        sender.enable();
+        Packet packet = packet("map-name", "service-name").setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_URGENT);
+
+        Packet encoded = sender.encode(packet);
+        assertTrue(encoded.isFlagRaised(FLAG_STRING_DICTIONARY));
+        assertFalse(packet.isFlagRaised(FLAG_STRING_DICTIONARY));
+
+        Packet decoded = receiver.decode(encoded);
+        assertArrayEquals(packet.toByteArray(), decoded.toByteArray());
+        assertEquals(packet.getPartitionId(), decoded.getPartitionId());
+        assertEquals(packet.getFlags(), decoded.getFlags());
+        assertEquals(1, receiver.decodedPackets());
+    }
+
+    @Test
+    public void whenStringsRepeated_thenSentAsReferences() throws Exception {
+        sender.enable();
+        Packet first = packet("map-name", "service-name", "map-name");
+        Packet second = packet("map-name", "service-name", "map-name");
+
+        Packet firstEncoded = sender.encode(first);
+        Packet secondEncoded = sender.encode(second);
+
+        assertEquals(2, sender.definitions());
+        assertEquals(4, sender.references());
+        assertTrue(secondEncoded.totalSize() < firstEncoded.totalSize());
+        assertTrue(secondEncoded.totalSize() < second.totalSize());
+        assertArrayEquals(first.toByteArray(), receiver.decode(firstEncoded).toByteArray());
+        assertArrayEquals(second.toByteArray(), receiver.decode(secondEncoded).toByteArray());
+    }
+
+    @Test
+    public void whenDictionaryFull_thenEntriesEvicted() throws Exception {
+        sender.enable();
+        for (int i = 0; i < 100; i++) {
+            // the referenced string stays in the dictionary, the others are evicted
+            Packet packet = packet("referenced-string", "string-" + i, "string-" + (i + 1), "string-" + (i + 2));
+
+            Packet decoded = receiver.decode(sender.encode(packet));
+
+            assertArrayEquals(packet.toByteArray(), decoded.toByteArray());
+        }
+
+        assertTrue(sender.references() >= 99);
+        assertTrue(sender.definitions() > 4);
+        assertEquals(100, receiver.decodedPackets());
+    }
+
+    @Test
+    public void whenRangesOverlap_thenOverlappingRangesSkipped() throws Exception {
+        sender.enable();
+        byte[] payload = serializationService.toBytes(new String[]{"map-name", "service-name"});
+        StringRanges ranges = new StringRanges();
+        ranges.add(8, 20);
+        ranges.add(12, 24);
+        ranges.add(payload.length - 8, payload.length + 4);
+        Packet packet = new Packet(payload).setStringRanges(ranges);
+
+        Packet encoded = sender.encode(packet);
+
+        assertEquals(1, sender.definitions());
+        assertArrayEquals(payload, receiver.decode(encoded).toByteArray());
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void whenUndefinedEntry_thenDataFormatException() throws Exception {
+        sender.enable();
+        sender.encode(packet("map-name"));
+        Packet encoded = sender.encode(packet("map-name"));
+
+        // the receiver missed the packet defining the entry
+        receiver.decode(encoded);
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void whenTruncatedPayload_thenDataFormatException() throws Exception {
+        sender.enable();
+        Packet encoded = sender.encode(packet("map-name", "service-name"));
+        byte[] bytes = encoded.toByteArray();
+
+        receiver.decode(new Packet(Arrays.copyOf(bytes, bytes.length - 10)).resetFlagsTo(encoded.getFlags()));
+    }
+
+    private Packet packet(String... strings) {
+        StringRanges ranges = new StringRanges();
+        byte[] payload = serializationService.toBytes(strings, ranges);
+        return new Packet(payload, 7).setStringRanges(ranges);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.instance.ProtocolType;
+import com.hazelcast.internal.cluster.impl.MemberHandshake;
+import com.hazelcast.internal.networking.Channel;
+import com.hazelcast.internal.nio.ConnectionLifecycleListener;
+import com.hazelcast.internal.nio.ConnectionType;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.internal.server.ServerConnectionManager;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.instance.EndpointQualifier.MEMBER;
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+import static com.hazelcast.spi.properties.ClusterProperty.CHANNEL_COUNT;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpServerConnectionManager_PlanesTest
+        extends TcpServerConnection_AbstractTest {
+
+    private static final int PLANE_COUNT = 4;
+    private static final int PARTITION_COUNT = 271;
+
+    private final Map<Integer, List<Integer>> packetsB = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<ServerConnection>> connectionsB = new ConcurrentHashMap<>();
+    private final AtomicInteger packetCountB = new AtomicInteger();
+
+    @Override
+    protected Properties serverProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(CHANNEL_COUNT.getName(), String.valueOf(PLANE_COUNT));
+        return properties;
+    }
+
+    @Override
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+
+        serverContextB.packetConsumer = packet -> {
+            int partitionId = packet.getPartitionId();
+            packetsB.computeIfAbsent(partitionId, k -> new ArrayList<>()).add(serializationService.toObject(packet));
+            connectionsB.computeIfAbsent(partitionId, k -> ConcurrentHashMap.newKeySet()).add(packet.getConn());
+            packetCountB.incrementAndGet();
+        };
+
+        networkingServiceA.start();
+        networkingServiceB.start();
+    }
+
+    @Test
+    public void whenConnected_thenAllPlanesConnected() {
+        connect(networkingServiceA, addressB);
+
+        ServerConnectionManager managerA = networkingServiceA.getConnectionManager(MEMBER);
+        ServerConnectionManager managerB = networkingServiceB.getConnectionManager(MEMBER);
+
+        assertTrueEventually(() -> {
+            Set<ServerConnection> connectionsA = new HashSet<>();
+            for (int i = 0; i < PLANE_COUNT; i++) {
+                TcpServerConnection connectionA = (TcpServerConnection) managerA.get(addressB, i);
+                TcpServerConnection connectionB = (TcpServerConnection) managerB.get(addressA, i);
+
+                assertNotNull(connectionA);
+                assertNotNull(connectionB);
+                assertEquals(i, connectionA.getPlaneIndex());
+                assertEquals(i, connectionB.getPlaneIndex());
+
+                connectionsA.add(connectionA);
+            }
+            assertEquals(PLANE_COUNT, connectionsA.size());
+        });
+
+        assertEquals(PLANE_COUNT, managerA.getConnections().size());
+    }
+
+    @Test
+    public void whenTransmit_thenPacketsRoutedByPartition() {
+        connect(networkingServiceA, addressB);
+
+        ServerConnectionManager managerA = networkingServiceA.getConnectionManager(MEMBER);
+
+        int packetsPerPartition = 10;
+        for (int i = 0; i < packetsPerPartition; i++) {
+            for (int partitionId = 0; partitionId < PARTITION_COUNT; partitionId++) {
+                Packet packet = new Packet(serializationService.toBytes(i), partitionId);
+                assertTrue(managerA.transmit(packet, addressB));
+            }
+        }
+
+        assertTrueEventually(() -> assertEquals(packetsPerPartition * PARTITION_COUNT, packetCountB.get()));
+
+        for (int partitionId = 0; partitionId < PARTITION_COUNT; partitionId++) {
+            // ordering within the partition is preserved
+            List<Integer> values = packetsB.get(partitionId);
+            for (int i = 0; i < packetsPerPartition; i++) {
+                assertEquals(i, (int) values.get(i));
+            }
+
+            // all packets of the partition went through the connection of the same plane
+            Set<ServerConnection> connections = connectionsB.get(partitionId);
+            assertEquals(1, connections.size());
+
+            TcpServerConnection connection = (TcpServerConnection) connections.iterator().next();
+            assertEquals(hashToIndex(partitionId, PLANE_COUNT), connection.getPlaneIndex());
+            assertSame(connection, networkingServiceB.getConnectionManager(MEMBER).get(addressA, partitionId));
+        }
+    }
+
+    @Test
+    public void whenHandshakeWithNegativePlaneIndex_thenConnectionClosed() {
+        assertHandshakeRejected(-1);
+    }
+
+    @Test
+    public void whenHandshakeWithPlaneIndexOutOfRange_thenConnectionClosed() {
+        assertHandshakeRejected(PLANE_COUNT);
+    }
+
+    private void assertHandshakeRejected(int planeIndex) {
+        TcpServerConnectionManager managerB =
+                (TcpServerConnectionManager) networkingServiceB.getUnifiedOrDedicatedEndpointManager(MEMBER);
+
+        InetSocketAddress remoteSocketAddress = new InetSocketAddress(addressA.getHost(), 49152);
+        Channel channel = mock(Channel.class);
+        when(channel.attributeMap()).thenReturn(new ConcurrentHashMap());
+        when(channel.remoteSocketAddress()).thenReturn(remoteSocketAddress);
+        TcpServerConnection connection = new TcpServerConnection(managerB, mock(ConnectionLifecycleListener.class), 1, channel);
+        connection.setConnectionType(ConnectionType.MEMBER);
+
+        MemberHandshake handshake = new MemberHandshake(MemberHandshake.SCHEMA_VERSION_2,
+                singletonMap(ProtocolType.MEMBER, singletonList(addressA)), addressB, false, UUID.randomUUID())
+                .setPlanes(PLANE_COUNT, planeIndex);
+        Packet packet = new Packet(serializationService.toBytes(handshake));
+        packet.setConn(connection);
+
+        managerB.accept(packet);
+
+        assertFalse(connection.isAlive());
+        assertTrue(connection.getCloseReason().contains("invalid plane index " + planeIndex));
+        for (int i = 0; i < PLANE_COUNT; i++) {
+            assertFalse(managerB.planes[i].connectionsMap.containsValue(connection));
+        }
+    }
+}
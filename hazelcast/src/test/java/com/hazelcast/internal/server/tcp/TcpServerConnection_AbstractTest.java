@@ -36,6 +36,7 @@ import org.junit.Before;
 
 import java.io.IOException;
 import java.net.SocketAddress;
+import java.util.Properties;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.instance.EndpointQualifier.MEMBER;
@@ -119,11 +120,15 @@ public abstract class TcpServerConnection_AbstractTest extends HazelcastTestSupp
         return new MetricsRegistryImpl(loggingService.getLogger(MetricsRegistryImpl.class), INFO);
     }
 
+    protected Properties serverProperties() {
+        return new Properties();
+    }
+
     protected TcpServer newNetworkingService(MetricsRegistry metricsRegistry) throws Exception {
         MockServerContext serverContext = null;
         while (serverContext == null) {
             try {
-                serverContext = new MockServerContext(portNumber++);
+                serverContext = new MockServerContext(portNumber++, serverProperties());
             } catch (IOException e) {
                 if (portNumber >= PORT_NUMBER_UPPER_LIMIT) {
                     throw e;
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.instance.EndpointQualifier.MEMBER;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_COMPRESSION_THRESHOLD;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpServerConnection_CompressionTest
+        extends TcpServerConnection_AbstractTest {
+
+    private final List<Packet> packetsB = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected Properties serverProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(IO_COMPRESSION_ENABLED.getName(), "true");
+        properties.setProperty(IO_COMPRESSION_THRESHOLD.getName(), "1024");
+        return properties;
+    }
+
+    @Override
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+
+        serverContextB.packetConsumer = packetsB::add;
+
+        networkingServiceA.start();
+        networkingServiceB.start();
+    }
+
+    @Test
+    public void whenMixedSmallAndLargePackets_thenAllReceivedInOrder() {
+        TcpServerConnection connection = connect(networkingServiceA, addressB);
+        PacketCompressor compressor = PacketCompressor.get(connection);
+        assertNotNull(compressor);
+        assertTrueEventually(() -> assertTrue(compressor.isEnabled()));
+
+        int packetCount = 500;
+        byte[][] payloads = new byte[packetCount][];
+        for (int i = 0; i < packetCount; i++) {
+            byte[] payload = new byte[i % 5 == 0 ? 64 * 1024 : 32];
+            Arrays.fill(payload, (byte) 'a');
+            payload[0] = (byte) i;
+            payload[payload.length - 1] = (byte) (i >> 8);
+            payloads[i] = payload;
+            assertTrue(connection.write(new Packet(payload, i)));
+        }
+
+        assertTrueEventually(() -> assertEquals(packetCount, packetsB.size()));
+
+        for (int i = 0; i < packetCount; i++) {
+            Packet packet = packetsB.get(i);
+            assertEquals(i, packet.getPartitionId());
+            assertFalse(packet.isFlagRaised(FLAG_COMPRESSED));
+            assertArrayEquals(payloads[i], packet.toByteArray());
+        }
+        assertEquals(packetCount / 5, compressor.compressedPackets());
+        assertTrue(compressor.compressionRatio() > 100);
+
+        TcpServerConnection connectionB = (TcpServerConnection) networkingServiceB.getConnectionManager(MEMBER).get(addressA);
+        assertEquals(packetCount / 5, PacketCompressor.get(connectionB).decompressedPackets());
+    }
+}
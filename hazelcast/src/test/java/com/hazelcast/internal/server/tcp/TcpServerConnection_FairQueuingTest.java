@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.TrafficClass;
+import com.hazelcast.internal.networking.nio.FairQueuing_NioNetworkingFactory;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.instance.EndpointQualifier.MEMBER;
+import static com.hazelcast.internal.nio.Packet.FLAG_FRAGMENT;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_FAIR_QUEUING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_FRAGMENT_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpServerConnection_FairQueuingTest
+        extends TcpServerConnection_AbstractTest {
+
+    private final List<Packet> packetsA = new CopyOnWriteArrayList<>();
+    private final List<Packet> packetsB = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected Properties serverProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(IO_FAIR_QUEUING_ENABLED.getName(), "true");
+        properties.setProperty(IO_FRAGMENT_SIZE.getName(), "4096");
+        return properties;
+    }
+
+    @Override
+    @Before
+    public void setup() throws Exception {
+        networkingFactory = new FairQueuing_NioNetworkingFactory();
+        super.setup();
+
+        serverContextA.packetConsumer = packetsA::add;
+        serverContextB.packetConsumer = packetsB::add;
+
+        networkingServiceA.start();
+        networkingServiceB.start();
+    }
+
+    @Test
+    public void whenMixedTrafficClasses_thenAllReceivedInOrderPerTrafficClass() {
+        TcpServerConnection connection = connect(networkingServiceA, addressB);
+        awaitHandshakeReply();
+
+        Random random = new Random(1);
+        List<byte[]> migrationPayloads = new ArrayList<>();
+        List<byte[]> responsePayloads = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            if (i % 10 == 0) {
+                byte[] payload = new byte[100 * 1024 + i];
+                random.nextBytes(payload);
+                migrationPayloads.add(payload);
+                Packet packet = new Packet(payload, migrationPayloads.size() - 1)
+                        .setPacketType(Packet.Type.OPERATION)
+                        .setTrafficClass(TrafficClass.MIGRATION);
+                assertTrue(connection.write(packet));
+            } else {
+                byte[] payload = new byte[64];
+                random.nextBytes(payload);
+                responsePayloads.add(payload);
+                Packet packet = new Packet(payload, responsePayloads.size() - 1)
+                        .setPacketType(Packet.Type.OPERATION)
+                        .raiseFlags(FLAG_OP_RESPONSE);
+                assertTrue(connection.write(packet));
+            }
+        }
+
+        assertTrueEventually(() -> assertEquals(500, packetsB.size()));
+
+        int migrations = 0;
+        int responses = 0;
+        for (Packet packet : packetsB) {
+            assertFalse(packet.isFlagRaised(FLAG_FRAGMENT));
+            assertEquals(Packet.Type.OPERATION, packet.getPacketType());
+            if (packet.isFlagRaised(FLAG_OP_RESPONSE)) {
+                assertEquals(responses, packet.getPartitionId());
+                assertArrayEquals(responsePayloads.get(responses++), packet.toByteArray());
+            } else {
+                assertEquals(migrations, packet.getPartitionId());
+                assertArrayEquals(migrationPayloads.get(migrations++), packet.toByteArray());
+            }
+        }
+    }
+
+    /**
+     * Waits until the connection initiator received the handshake reply, so fragmentation is enabled.
+     */
+    private void awaitHandshakeReply() {
+        assertTrueEventually(() -> assertEquals(1, networkingServiceB.getConnectionManager(MEMBER).getConnections().size()));
+        TcpServerConnection connectionB = (TcpServerConnection) networkingServiceB.getConnectionManager(MEMBER).get(addressA);
+        connectionB.write(new Packet(new byte[8]).setPacketType(Packet.Type.OPERATION));
+        assertTrueEventually(() -> assertEquals(1, packetsA.size()));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.nio.FairQueuing_NioNetworkingFactory;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.StringRanges;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.instance.EndpointQualifier.MEMBER;
+import static com.hazelcast.internal.nio.Packet.FLAG_STRING_DICTIONARY;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_FAIR_QUEUING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_FRAGMENT_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_STRING_DICTIONARY_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_STRING_DICTIONARY_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpServerConnection_StringDictionaryTest
+        extends TcpServerConnection_AbstractTest {
+
+    private final List<Packet> packetsB = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected Properties serverProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(IO_STRING_DICTIONARY_ENABLED.getName(), "true");
+        properties.setProperty(IO_STRING_DICTIONARY_SIZE.getName(), "16");
+        properties.setProperty(IO_COMPRESSION_ENABLED.getName(), "true");
+        properties.setProperty(IO_FAIR_QUEUING_ENABLED.getName(), "true");
+        properties.setProperty(IO_FRAGMENT_SIZE.getName(), "1024");
+        return properties;
+    }
+
+    @Override
+    @Before
+    public void setup() throws Exception {
+        networkingFactory = new FairQueuing_NioNetworkingFactory();
+        super.setup();
+
+        serverContextB.packetConsumer = packetsB::add;
+
+        networkingServiceA.start();
+        networkingServiceB.start();
+    }
+
+    @Test
+    public void whenMixedSmallAndFragmentedPackets_thenAllReceivedInOrder() {
+        TcpServerConnection connection = connect(networkingServiceA, addressB);
+        PacketStringDictionary dictionary = PacketStringDictionary.get(connection);
+        assertNotNull(dictionary);
+        assertTrueEventually(() -> assertTrue(dictionary.isEnabled()));
+
+        int packetCount = 500;
+        Packet[] packets = new Packet[packetCount];
+        for (int i = 0; i < packetCount; i++) {
+            String[] strings = new String[i % 10 == 0 ? 1000 : 4];
+            for (int k = 0; k < strings.length; k++) {
+                strings[k] = "map-" + (k + i) % 20;
+            }
+            StringRanges ranges = new StringRanges();
+            byte[] payload = serializationService.toBytes(strings, ranges);
+            packets[i] = new Packet(payload, i).setStringRanges(ranges);
+            assertTrue(connection.write(packets[i]));
+        }
+
+        assertTrueEventually(() -> assertEquals(packetCount, packetsB.size()));
+
+        for (int i = 0; i < packetCount; i++) {
+            Packet packet = packetsB.get(i);
+            assertEquals(i, packet.getPartitionId());
+            assertFalse(packet.isFlagRaised(FLAG_STRING_DICTIONARY));
+            assertArrayEquals(packets[i].toByteArray(), packet.toByteArray());
+        }
+        // the packets split into fragments are sent as they are
+        assertEquals(packetCount - packetCount / 10, dictionary.encodedPackets());
+        assertTrue(dictionary.references() > dictionary.definitions());
+        assertTrue(dictionary.encodingRatio() > 1);
+
+        TcpServerConnection connectionB = (TcpServerConnection) networkingServiceB.getConnectionManager(MEMBER).get(addressA);
+        assertEquals(packetCount - packetCount / 10, PacketStringDictionary.get(connectionB).decodedPackets());
+    }
+}
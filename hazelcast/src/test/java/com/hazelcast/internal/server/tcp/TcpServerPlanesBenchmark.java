@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.internal.networking.nio.Select_NioNetworkingFactory;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.MockServerContext;
+import com.hazelcast.internal.server.ServerConnectionManager;
+import com.hazelcast.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.instance.EndpointQualifier.MEMBER;
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.spi.properties.ClusterProperty.CHANNEL_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_INPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_OUTPUT_THREAD_COUNT;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Measures the throughput of member-to-member packets over loopback depending on the number of connections (planes)
+ * per member pair. Packets are spread over all partitions and every invocation waits until all packets of the batch
+ * are received by the other side. Several sending threads are used, since a single thread can't saturate a single
+ * connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TcpServerPlanesBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int PARTITION_COUNT = 271;
+    private static final int IO_THREAD_COUNT = 4;
+    private static final int FIRST_PORT = 5701;
+    private static final int LAST_PORT = 5799;
+
+    @Param({"1", "2", "4"})
+    private int planeCount;
+
+    @Param({"100", "8192"})
+    private int payloadSize;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+
+    private int port = FIRST_PORT;
+    private TcpServer serverA;
+    private TcpServer serverB;
+    private MetricsRegistryImpl metricsRegistryA;
+    private MetricsRegistryImpl metricsRegistryB;
+    private ServerConnectionManager connectionManagerA;
+    private Address addressB;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws Exception {
+        metricsRegistryA = new MetricsRegistryImpl(Logger.getLogger(MetricsRegistryImpl.class), INFO);
+        metricsRegistryB = new MetricsRegistryImpl(Logger.getLogger(MetricsRegistryImpl.class), INFO);
+        serverA = newServer(metricsRegistryA);
+        serverB = newServer(metricsRegistryB);
+
+        ((MockServerContext) serverB.getContext()).packetConsumer = packet -> received.incrementAndGet();
+
+        serverA.start();
+        serverB.start();
+
+        connectionManagerA = serverA.getConnectionManager(MEMBER);
+        addressB = serverB.getContext().getThisAddress();
+
+        // wait until all planes are connected
+        for (int i = 0; i < planeCount; i++) {
+            while (connectionManagerA.getOrConnect(addressB, i) == null) {
+                Thread.sleep(10);
+            }
+        }
+
+        payload = new byte[payloadSize];
+    }
+
+    @TearDown
+    public void tearDown() {
+        serverA.shutdown();
+        serverB.shutdown();
+        metricsRegistryA.shutdown();
+        metricsRegistryB.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void transmit() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            connectionManagerA.transmit(new Packet(payload, i % PARTITION_COUNT), addressB);
+        }
+
+        long expected = sent.addAndGet(BATCH_SIZE);
+
+        while (received.get() < expected) {
+            Thread.yield();
+        }
+    }
+
+    private TcpServer newServer(MetricsRegistryImpl metricsRegistry) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(CHANNEL_COUNT.getName(), String.valueOf(planeCount));
+        properties.setProperty(IO_INPUT_THREAD_COUNT.getName(), String.valueOf(IO_THREAD_COUNT));
+        properties.setProperty(IO_OUTPUT_THREAD_COUNT.getName(), String.valueOf(IO_THREAD_COUNT));
+
+        MockServerContext serverContext = null;
+        while (serverContext == null) {
+            try {
+                serverContext = new MockServerContext(port++, properties);
+            } catch (IOException e) {
+                if (port >= LAST_PORT) {
+                    throw e;
+                }
+            }
+        }
+
+        MockServerContext finalServerContext = serverContext;
+        return new TcpServer(null,
+                serverContext,
+                new ServerSocketRegistry(singletonMap(MEMBER, serverContext.serverSocketChannel), true),
+                serverContext.loggingService,
+                metricsRegistry,
+                new Select_NioNetworkingFactory().create(serverContext, metricsRegistry),
+                qualifier -> new UnifiedChannelInitializer(finalServerContext));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(TcpServerPlanesBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .threads(4)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.json.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static com.hazelcast.json.internal.JsonShape.MULTI_VALUE;
+import static com.hazelcast.json.internal.JsonShape.NON_TERMINAL;
+import static com.hazelcast.json.internal.JsonShape.NOT_FOUND;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class JsonIndexTest {
+
+    private final JsonFactory factory = new JsonFactory();
+    private final JsonShapes shapes = new JsonShapes(16);
+
+    @Test
+    public void testResolve() throws IOException {
+        String json = "{\"a\":1,\"b\":{\"c\":\"x\",\"d\":[true,null,{\"e\":2.5}]},\"f\":[]}";
+        JsonShape shape = createIndex(json).getShape();
+
+        assertEquals(5, shape.getValueCount());
+        assertEquals(0, shape.resolve("a"));
+        assertEquals(1, shape.resolve("b.c"));
+        assertEquals(2, shape.resolve("b.d[0]"));
+        assertEquals(3, shape.resolve("b.d[1]"));
+        assertEquals(4, shape.resolve("b.d[2].e"));
+        assertEquals(NON_TERMINAL, shape.resolve("b"));
+        assertEquals(NON_TERMINAL, shape.resolve("b.d"));
+        assertEquals(NON_TERMINAL, shape.resolve("f"));
+        assertEquals(MULTI_VALUE, shape.resolve("b.d[any]"));
+        assertEquals(NOT_FOUND, shape.resolve("b.d[3]"));
+        assertEquals(NOT_FOUND, shape.resolve("b[0]"));
+        assertEquals(NOT_FOUND, shape.resolve("b.d.e"));
+        assertEquals(NOT_FOUND, shape.resolve("a.b"));
+        assertEquals(NOT_FOUND, shape.resolve("g"));
+    }
+
+    @Test
+    public void testResolve_whenDuplicateNames_thenFirstWins() throws IOException {
+        assertEquals(0, createIndex("{\"a\":1,\"a\":2}").getShape().resolve("a"));
+    }
+
+    @Test
+    public void testResolve_whenScalarRoot() throws IOException {
+        assertEquals(NOT_FOUND, createIndex("5").getShape().resolve("a"));
+    }
+
+    @Test
+    public void testGetValueOffset() throws IOException {
+        String json = "{\"a\":1, \"b\" : \"xy\",\"c\":[ 3 ]}";
+        JsonIndex index = createIndex(json);
+
+        assertEquals(json.indexOf('1'), index.getValueOffset(0));
+        assertEquals(json.indexOf("\"xy\""), index.getValueOffset(1));
+        assertEquals(json.indexOf('3'), index.getValueOffset(2));
+    }
+
+    @Test
+    public void testGetValueOffset_whenLargeOffsets() throws IOException {
+        for (int padding : new int[]{200, 60000, 100000}) {
+            String json = "{\"a\":\"" + new String(new char[padding]).replace('\0', 'x') + "\",\"b\":1}";
+
+            assertEquals(json.lastIndexOf('1'), createIndex(json).getValueOffset(1));
+        }
+    }
+
+    @Test
+    public void testShapesAreShared() throws IOException {
+        JsonIndex index1 = createIndex("{\"name\":\"a\",\"age\":1}");
+        JsonIndex index2 = createIndex("{\"name\":\"bbbb\",\"age\":22}");
+        JsonIndex index3 = createIndex("{\"age\":22,\"name\":\"bbbb\"}");
+
+        assertSame(index1.getShape(), index2.getShape());
+        assertNotSame(index1.getShape(), index3.getShape());
+    }
+
+    @Test
+    public void testShapesAreNotShared_whenNoTable() throws IOException {
+        String json = "{\"name\":\"a\",\"age\":1}";
+        JsonIndex index1 = JsonIndex.create(factory.createParser(json), null);
+        JsonIndex index2 = JsonIndex.create(factory.createParser(json), null);
+
+        assertNotSame(index1.getShape(), index2.getShape());
+        assertFalse(index1.getShape().isInterned());
+        assertEquals(1, index1.getShape().resolve("age"));
+    }
+
+    @Test
+    public void testCreate_whenNamesLookLikeTheEncoding() throws IOException {
+        JsonShape shape = createIndex("{\"1:{\":{\"}#\":1},\"]\":[2]}").getShape();
+
+        assertEquals(0, shape.resolve("1:{.}#"));
+        assertEquals(1, shape.resolve("][0]"));
+    }
+
+    @Test
+    public void testCreate_whenEmpty() throws IOException {
+        assertNull(createIndex(""));
+    }
+
+    private JsonIndex createIndex(String json) throws IOException {
+        return JsonIndex.create(factory.createParser(json), shapes);
+    }
+}
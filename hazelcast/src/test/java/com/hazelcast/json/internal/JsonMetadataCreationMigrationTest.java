@@ -44,8 +44,8 @@ import static com.hazelcast.test.Accessors.getBackupInstance;
 import static com.hazelcast.test.Accessors.getNodeEngineImpl;
 import static com.hazelcast.test.Accessors.getPartitionService;
 import static com.hazelcast.test.Accessors.getSerializationService;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
-import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({ParallelJVMTest.class, QuickTest.class})
@@ -100,17 +100,13 @@ public class JsonMetadataCreationMigrationTest extends HazelcastTestSupport {
 
     protected void assertMetadata(Metadata metadata) {
         assertNotNull(metadata);
-        JsonSchemaNode keyNode = (JsonSchemaNode) metadata.getKeyMetadata();
-        assertNotNull(keyNode);
-        assertTrue(!keyNode.isTerminal());
-        JsonSchemaNode childNode = ((JsonSchemaStructNode) keyNode).getChild(0).getValue();
-        assertTrue(childNode.isTerminal());
-
-        JsonSchemaNode valueNode = (JsonSchemaNode) metadata.getValueMetadata();
-        assertNotNull(valueNode);
-        assertTrue(!valueNode.isTerminal());
-        JsonSchemaNode valueChildNode = ((JsonSchemaStructNode) valueNode).getChild(0).getValue();
-        assertTrue(valueChildNode.isTerminal());
+        JsonIndex keyIndex = (JsonIndex) metadata.getKeyMetadata();
+        assertNotNull(keyIndex);
+        assertEquals(0, keyIndex.getShape().resolve("type"));
+
+        JsonIndex valueIndex = (JsonIndex) metadata.getValueMetadata();
+        assertNotNull(valueIndex);
+        assertEquals(0, valueIndex.getShape().resolve("type"));
     }
 
     protected Metadata getMetadata(String mapName, Object key, int replicaIndex) {
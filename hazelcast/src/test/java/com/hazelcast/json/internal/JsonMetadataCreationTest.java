@@ -60,9 +60,9 @@ import static com.hazelcast.test.Accessors.getNodeEngineImpl;
 import static com.hazelcast.test.Accessors.getPartitionService;
 import static com.hazelcast.test.Accessors.getSerializationService;
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
-import static org.junit.Assert.assertTrue;
 
 @RunWith(Parameterized.class)
 @Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
@@ -354,17 +354,13 @@ public class JsonMetadataCreationTest extends HazelcastTestSupport {
 
     private void assertMetadata(String msg, Metadata metadata) {
         assertNotNull(msg, metadata);
-        JsonSchemaNode keyNode = (JsonSchemaNode) metadata.getKeyMetadata();
-        assertNotNull(keyNode);
-        assertTrue(!keyNode.isTerminal());
-        JsonSchemaNode childNode = ((JsonSchemaStructNode) keyNode).getChild(0).getValue();
-        assertTrue(childNode.isTerminal());
-
-        JsonSchemaNode valueNode = (JsonSchemaNode) metadata.getValueMetadata();
-        assertNotNull(valueNode);
-        assertTrue(!valueNode.isTerminal());
-        JsonSchemaNode valueChildNode = ((JsonSchemaStructNode) valueNode).getChild(0).getValue();
-        assertTrue(valueChildNode.isTerminal());
+        JsonIndex keyIndex = (JsonIndex) metadata.getKeyMetadata();
+        assertNotNull(keyIndex);
+        assertEquals(0, keyIndex.getShape().resolve("type"));
+
+        JsonIndex valueIndex = (JsonIndex) metadata.getValueMetadata();
+        assertNotNull(valueIndex);
+        assertEquals(0, valueIndex.getShape().resolve("type"));
     }
 
     static class JsonMapLoader implements MapLoader<HazelcastJsonValue, HazelcastJsonValue> {
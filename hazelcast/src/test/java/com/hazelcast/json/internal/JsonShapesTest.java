@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.json.internal;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class JsonShapesTest {
+
+    @Test
+    public void testShapesAreSharedWithinTable() {
+        JsonShapes shapes = new JsonShapes(10);
+
+        JsonShape shape = shapes.of(key(1));
+
+        assertSame(shape, shapes.of(key(1)));
+        assertNotSame(shape, new JsonShapes(10).of(key(1)));
+        assertTrue(shape.isInterned());
+        assertEquals(1, shapes.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedShapesEvicted() {
+        JsonShapes shapes = new JsonShapes(10);
+        JsonShape[] created = new JsonShape[10];
+        for (int i = 0; i < 10; i++) {
+            created[i] = shapes.of(key(i));
+            sleepAtLeastOneNano();
+        }
+        // touch the oldest shape, so that it is not evicted
+        assertSame(created[0], shapes.of(key(0)));
+        sleepAtLeastOneNano();
+
+        shapes.of(key(10));
+
+        assertEquals(9, shapes.size());
+        assertSame(created[0], shapes.of(key(0)));
+        assertFalse(created[1].isInterned());
+        assertFalse(created[2].isInterned());
+        assertNotSame(created[1], shapes.of(key(1)));
+    }
+
+    @Test
+    public void testEvictedShapeStillResolvesPaths() {
+        JsonShapes shapes = new JsonShapes(1);
+        JsonShape shape = shapes.of(key(1));
+        assertEquals(0, shape.resolve("a1"));
+        sleepAtLeastOneNano();
+
+        shapes.of(key(2));
+
+        assertFalse(shape.isInterned());
+        assertEquals(0, shape.resolve("a1"));
+        assertEquals(JsonShape.NOT_FOUND, shape.resolve("a2"));
+    }
+
+    @Test
+    public void testClear() {
+        JsonShapes shapes = new JsonShapes(10);
+        JsonShape shape = shapes.of(key(1));
+
+        shapes.clear();
+
+        assertEquals(0, shapes.size());
+        assertFalse(shape.isInterned());
+        assertNotSame(shape, shapes.of(key(1)));
+    }
+
+    private static String key(int id) {
+        String name = "a" + id;
+        return "{" + name.length() + ":" + name + "#}";
+    }
+
+    private static void sleepAtLeastOneNano() {
+        long start = System.nanoTime();
+        while (System.nanoTime() == start) {
+            Thread.yield();
+        }
+    }
+}
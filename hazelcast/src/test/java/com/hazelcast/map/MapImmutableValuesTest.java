@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.map.impl.DeserializedValueCache;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_DESERIALIZED_VALUE_CACHE_HITS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_DESERIALIZED_VALUE_CACHE_HIT_PERCENTAGE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_DESERIALIZED_VALUE_CACHE;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapImmutableValuesTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "immutable";
+
+    @Test
+    public void testGet_sharesDeserializedValue() {
+        HazelcastInstance hz = createHazelcastInstance(getConfig());
+        IMap<Integer, Person> map = hz.getMap(MAP_NAME);
+        map.put(1, new Person("joe", 42));
+
+        Person first = map.get(1);
+        Person second = map.get(1);
+
+        assertSame(first, second);
+        assertEquals(1, getCache(hz).getHits());
+    }
+
+    @Test
+    public void testGet_returnsFreshValue_whenMapNotImmutable() {
+        HazelcastInstance hz = createHazelcastInstance(getConfig());
+        IMap<Integer, Person> map = hz.getMap("mutable");
+        map.put(1, new Person("joe", 42));
+
+        assertNotSame(map.get(1), map.get(1));
+        assertEquals(0, getCache(hz).getMisses());
+    }
+
+    @Test
+    public void testUpdate_invalidatesValue() {
+        HazelcastInstance hz = createHazelcastInstance(getConfig());
+        IMap<Integer, Person> map = hz.getMap(MAP_NAME);
+        map.put(1, new Person("joe", 42));
+        map.get(1);
+
+        map.put(1, new Person("joe", 43));
+
+        assertEquals(43, map.get(1).age);
+        assertEquals(1, getCache(hz).getInvalidations());
+    }
+
+    @Test
+    public void testRemove_invalidatesValue() {
+        HazelcastInstance hz = createHazelcastInstance(getConfig());
+        IMap<Integer, Person> map = hz.getMap(MAP_NAME);
+        map.put(1, new Person("joe", 42));
+        map.get(1);
+
+        map.remove(1);
+
+        assertEquals(0, getCache(hz).size());
+    }
+
+    @Test
+    public void testQueryAndEntryProcessor_shareDeserializedValues() {
+        HazelcastInstance hz = createHazelcastInstance(getConfig());
+        IMap<Integer, Person> map = hz.getMap(MAP_NAME);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, new Person("joe", i));
+        }
+        DeserializedValueCache cache = getCache(hz);
+
+        Collection<Person> adults = map.values(Predicates.greaterEqual("age", 5));
+        assertEquals(5, adults.size());
+        assertEquals(10, cache.getMisses());
+
+        map.values(Predicates.greaterEqual("age", 5));
+        assertEquals(10, cache.getHits());
+
+        map.executeOnEntries(entry -> entry.getValue().age);
+        assertEquals(20, cache.getHits());
+        assertEquals(10, cache.getMisses());
+    }
+
+    @Test
+    public void testObjectInMemoryFormat() {
+        Config config = getConfig();
+        config.getMapConfig(MAP_NAME).setInMemoryFormat(InMemoryFormat.OBJECT);
+        HazelcastInstance hz = createHazelcastInstance(config);
+        IMap<Integer, Person> map = hz.getMap(MAP_NAME);
+        map.put(1, new Person("joe", 42));
+
+        assertSame(map.get(1), map.get(1));
+    }
+
+    @Test
+    public void testMetrics() {
+        HazelcastInstance hz = createHazelcastInstance(getConfig());
+        IMap<Integer, Person> map = hz.getMap(MAP_NAME);
+        map.put(1, new Person("joe", 42));
+        map.get(1);
+        map.get(1);
+
+        MetricsRegistry registry = getNodeEngineImpl(hz).getMetricsRegistry();
+        assertEquals(1, registry.newLongGauge(MAP_PREFIX_DESERIALIZED_VALUE_CACHE + "."
+                + MAP_METRIC_DESERIALIZED_VALUE_CACHE_HITS).read());
+        assertEquals(50d, registry.newDoubleGauge(MAP_PREFIX_DESERIALIZED_VALUE_CACHE + "."
+                + MAP_METRIC_DESERIALIZED_VALUE_CACHE_HIT_PERCENTAGE).read(), 0d);
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.addMapConfig(new MapConfig(MAP_NAME).setImmutableValues(true));
+        return config;
+    }
+
+    private static DeserializedValueCache getCache(HazelcastInstance hz) {
+        MapService mapService = getNodeEngineImpl(hz).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext().getDeserializedValueCache();
+    }
+
+    private static class Person implements Serializable {
+
+        private final String name;
+        private final int age;
+
+        Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+    }
+}
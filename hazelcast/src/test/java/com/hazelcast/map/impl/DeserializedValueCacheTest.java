@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class DeserializedValueCacheTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testHit_returnsSameInstance() {
+        DeserializedValueCache cache = new DeserializedValueCache(ss, 100, 1 << 20);
+        Data data = ss.toData("value");
+
+        String first = cache.toObject(data);
+        // a copy of the same bytes shares the deserialized instance
+        String second = cache.toObject(ss.toData("value"));
+
+        assertEquals("value", first);
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(50, cache.getHitPercentage(), 0);
+        assertEquals(1, cache.size());
+        assertEquals(data.totalSize(), cache.getRetainedBytes());
+    }
+
+    @Test
+    public void testNonData_passedThrough() {
+        DeserializedValueCache cache = new DeserializedValueCache(ss, 100, 1 << 20);
+        Object value = new Object();
+
+        assertSame(value, cache.toObject(value));
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidate() {
+        DeserializedValueCache cache = new DeserializedValueCache(ss, 100, 1 << 20);
+        Data data = ss.toData("value");
+        String first = cache.toObject(data);
+
+        cache.invalidate(data);
+        String second = cache.toObject(data);
+
+        assertNotSame(first, second);
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testEviction_bySize_leastRecentlyUsedFirst() {
+        DeserializedValueCache cache = new DeserializedValueCache(ss, 10, 1 << 20);
+        List<Data> values = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            values.add(ss.toData(i));
+            cache.toObject(values.get(i));
+        }
+        // touch the first value so that it is the most recently used one
+        sleepAtLeastOneNano();
+        Integer first = cache.toObject(values.get(0));
+
+        cache.toObject(ss.toData(10));
+
+        assertEquals(9, cache.size());
+        assertEquals(2, cache.getEvictions());
+        assertSame(first, cache.toObject(values.get(0)));
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testEviction_byBytes() {
+        Data data = ss.toData(0);
+        long maxBytes = 20L * data.totalSize();
+        DeserializedValueCache cache = new DeserializedValueCache(ss, 1000, maxBytes);
+        for (int i = 0; i < 100; i++) {
+            cache.toObject(ss.toData(i));
+        }
+
+        assertTrue(cache.getRetainedBytes() <= maxBytes);
+        assertTrue(cache.size() <= 20);
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    public void testLargeValue_notCached() {
+        DeserializedValueCache cache = new DeserializedValueCache(ss, 100, 1000);
+
+        cache.toObject(ss.toData(new byte[200]));
+
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testClear() {
+        DeserializedValueCache cache = new DeserializedValueCache(ss, 100, 1 << 20);
+        cache.toObject(ss.toData(1));
+        cache.toObject(ss.toData(2));
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getRetainedBytes());
+    }
+
+    private static void sleepAtLeastOneNano() {
+        long start = System.nanoTime();
+        while (System.nanoTime() == start) {
+            Thread.yield();
+        }
+    }
+}
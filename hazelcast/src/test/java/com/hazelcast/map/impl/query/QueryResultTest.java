@@ -32,6 +32,7 @@ import org.junit.runner.RunWith;
 import static com.hazelcast.test.Accessors.getSerializationService;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -59,6 +60,24 @@ public class QueryResultTest extends HazelcastTestSupport {
         assertEquals(row, actual.iterator().next());
     }
 
+    @Test
+    public void serialization_withManyRowsAndNullValues() {
+        QueryResult expected = new QueryResult(IterationType.KEY, null, null, 1000, false);
+        for (int i = 0; i < 100; i++) {
+            expected.addRow(new QueryResultRow(serializationService.toData(i), null));
+        }
+
+        QueryResult actual = clone(expected);
+
+        assertEquals(IterationType.KEY, actual.getIterationType());
+        assertEquals(100, actual.size());
+        int i = 0;
+        for (QueryResultRow row : actual) {
+            assertEquals(i++, (int) serializationService.toObject(row.getKey()));
+            assertNull(row.getValue());
+        }
+    }
+
     private QueryResult clone(QueryResult result) {
         Data data = serializationService.toData(result);
         return serializationService.toObject(data);
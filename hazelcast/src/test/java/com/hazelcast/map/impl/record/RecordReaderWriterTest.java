@@ -15,14 +15,19 @@
  */
 package com.hazelcast.map.impl.record;
 
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.ObjectDataInputStream;
 import com.hazelcast.internal.serialization.impl.ObjectDataOutputStream;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.Clock;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.version.Version;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -32,6 +37,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_READER_WRITER;
 import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
 import static org.junit.Assert.assertEquals;
@@ -103,6 +109,61 @@ public class RecordReaderWriterTest {
         assertEquals(asDataRecordWithStats(writtenRecord, dataValue), readRecord);
     }
 
+    @Test
+    public void written_and_read_data_record_are_equal_withVarIntMetadata() throws IOException {
+        Record<Data> writtenRecord = populateAndGetRecord(new DataRecord());
+        Record<Data> readRecord = writeReadAndGet(writtenRecord, writtenRecord.getValue(), Versions.V4_1);
+
+        assertEquals(writtenRecord, readRecord);
+    }
+
+    @Test
+    public void written_and_read_data_record_with_stats_are_equal_withVarIntMetadata() throws IOException {
+        Record<Data> writtenRecord = populateAndGetRecord(new DataRecordWithStats());
+        Record<Data> readRecord = writeReadAndGet(writtenRecord, writtenRecord.getValue(), Versions.V4_1);
+
+        assertEquals(writtenRecord, readRecord);
+    }
+
+    @Test
+    public void written_and_read_data_record_with_stats_are_equal_withVarIntMetadata_andUnsetTimes() throws IOException {
+        Record<Data> writtenRecord = new DataRecordWithStats(ss.toData(11));
+        writtenRecord.setCreationTime(Clock.currentTimeMillis());
+        writtenRecord.setTtl(Long.MAX_VALUE);
+        writtenRecord.setVersion(Long.MAX_VALUE);
+        writtenRecord.setExpirationTime(Long.MAX_VALUE);
+
+        BufferObjectDataOutput out = ss.createObjectDataOutput();
+        out.setVersion(Versions.V4_1);
+        Records.writeRecord(out, writtenRecord, writtenRecord.getValue());
+        BufferObjectDataInput in = ss.createObjectDataInput(out.toByteArray());
+        in.setVersion(Versions.V4_1);
+
+        assertEquals(writtenRecord, Records.readRecord(in));
+    }
+
+    @Test
+    public void varIntMetadata_isSmallerThanFixedSizeMetadata() throws IOException {
+        Record<Data> record = new DataRecordWithStats(ss.toData(11));
+        long now = Clock.currentTimeMillis();
+        record.setCreationTime(now);
+        record.setLastAccessTime(now + 2000);
+        record.setLastUpdateTime(now + 1000);
+        record.setHits(3);
+        record.setVersion(2);
+
+        int recordIdAndValueSize = 1 + INT_SIZE_IN_BYTES + record.getValue().totalSize();
+        assertEquals(recordIdAndValueSize + 40, writtenSize(record, Versions.V4_0));
+        assertEquals(recordIdAndValueSize + 11, writtenSize(record, Versions.V4_1));
+    }
+
+    private int writtenSize(Record<Data> record, Version version) throws IOException {
+        BufferObjectDataOutput out = ss.createObjectDataOutput();
+        out.setVersion(version);
+        Records.writeRecord(out, record, record.getValue());
+        return out.position();
+    }
+
     private Record populateAndGetRecord(Record writtenRecord) {
         writtenRecord.setTtl(1);
         writtenRecord.setMaxIdle(2);
@@ -118,10 +179,16 @@ public class RecordReaderWriterTest {
     }
 
     private Record writeReadAndGet(Record expectedRecord, Data dataValue) throws IOException {
+        return writeReadAndGet(expectedRecord, dataValue, Version.UNKNOWN);
+    }
+
+    private Record writeReadAndGet(Record expectedRecord, Data dataValue, Version version) throws IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         ObjectDataOutputStream out = new ObjectDataOutputStream(outputStream, ss);
+        out.setVersion(version);
         Records.writeRecord(out, expectedRecord, dataValue);
         ObjectDataInputStream in = new ObjectDataInputStream(new ByteArrayInputStream(outputStream.toByteArray()), ss);
+        in.setVersion(version);
         return Records.readRecord(in);
     }
 
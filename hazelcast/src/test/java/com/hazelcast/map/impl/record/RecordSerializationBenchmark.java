@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.version.Version;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the size and the throughput of writing and reading a batch of
+ * records the way the put backup and the map replication operations do,
+ * with the fixed size metadata of 4.0 and the var int metadata of 4.1.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RecordSerializationBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"4.0", "4.1"})
+    private String version;
+
+    @Param({"false", "true"})
+    private boolean withStats;
+
+    private InternalSerializationService serializationService;
+    private Version streamVersion;
+    private Record[] records;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        streamVersion = Version.of(version);
+        records = new Record[BATCH_SIZE];
+        long now = Clock.currentTimeMillis();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Record<Data> record = withStats ? new DataRecordWithStats() : new DataRecord();
+            record.setValue(serializationService.toData("value-" + i));
+            record.setCreationTime(now - i * 1000L);
+            record.setLastAccessTime(now);
+            record.setLastUpdateTime(now - i * 500L);
+            record.setHits(i % 10);
+            record.setVersion(i % 3);
+            if (withStats) {
+                record.setExpirationTime(Long.MAX_VALUE);
+            }
+            records[i] = record;
+        }
+        bytes = writeRecords();
+        System.out.println("Serialized batch size (" + version + ", stats=" + withStats + "): " + bytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeRecords() throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        out.setVersion(streamVersion);
+        for (Record record : records) {
+            Records.writeRecord(out, record, (Data) record.getValue());
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Record readRecords() throws IOException {
+        BufferObjectDataInput in = serializationService.createObjectDataInput(bytes);
+        in.setVersion(streamVersion);
+        Record record = null;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            record = Records.readRecord(in);
+        }
+        return record;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RecordSerializationBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -309,4 +309,27 @@ public class BitsTest {
         assertEquals(x, Bits.extractInt(k, false));
         assertEquals(y, Bits.extractInt(k, true));
     }
+
+    @Test
+    public void testZigZag() {
+        assertEquals(0, Bits.zigZagEncode(0));
+        assertEquals(1, Bits.zigZagEncode(-1));
+        assertEquals(2, Bits.zigZagEncode(1));
+        assertEquals(-1, Bits.zigZagEncode(Integer.MIN_VALUE));
+        assertEquals(-1L, Bits.zigZagEncode(Long.MIN_VALUE));
+
+        int x = random.nextInt();
+        long y = random.nextLong();
+        assertEquals(x, Bits.zigZagDecode(Bits.zigZagEncode(x)));
+        assertEquals(y, Bits.zigZagDecode(Bits.zigZagEncode(y)));
+    }
+
+    @Test
+    public void testWriteVarInt() {
+        byte[] buffer = new byte[Bits.VAR_INT_MAX_SIZE_IN_BYTES];
+
+        assertEquals(1, Bits.writeVarInt(buffer, 0, -64));
+        assertEquals(2, Bits.writeVarInt(buffer, 0, 64));
+        assertEquals(Bits.VAR_INT_MAX_SIZE_IN_BYTES, Bits.writeVarInt(buffer, 0, Integer.MAX_VALUE));
+    }
 }
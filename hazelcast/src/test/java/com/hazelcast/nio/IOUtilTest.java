@@ -17,6 +17,8 @@
 package com.hazelcast.nio;
 
 import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.nio.IOUtil;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -69,11 +71,15 @@ import static com.hazelcast.internal.nio.IOUtil.readByteArray;
 import static com.hazelcast.internal.nio.IOUtil.readFully;
 import static com.hazelcast.internal.nio.IOUtil.readFullyOrNothing;
 import static com.hazelcast.internal.nio.IOUtil.readObject;
+import static com.hazelcast.internal.nio.IOUtil.readVarInt;
+import static com.hazelcast.internal.nio.IOUtil.readVarLong;
 import static com.hazelcast.internal.nio.IOUtil.rename;
 import static com.hazelcast.internal.nio.IOUtil.toFileName;
 import static com.hazelcast.internal.nio.IOUtil.touch;
 import static com.hazelcast.internal.nio.IOUtil.writeByteArray;
 import static com.hazelcast.internal.nio.IOUtil.writeObject;
+import static com.hazelcast.internal.nio.IOUtil.writeVarInt;
+import static com.hazelcast.internal.nio.IOUtil.writeVarLong;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.createObjectDataInputStream;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.createObjectDataOutputStream;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
@@ -185,6 +191,37 @@ public class IOUtilTest extends HazelcastTestSupport {
         return readObject(in);
     }
 
+    @Test
+    public void testWriteAndReadVarInts() throws Exception {
+        int[] ints = {0, -1, 1, 300, -300, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        long[] longs = {0, -1, 1L << 40, Long.MIN_VALUE, Long.MAX_VALUE};
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectDataOutput out = createObjectDataOutputStream(bout, serializationService);
+        BufferObjectDataOutput bufferOut = serializationService.createObjectDataOutput();
+        for (int value : ints) {
+            writeVarInt(out, value);
+            writeVarInt(bufferOut, value);
+        }
+        for (long value : longs) {
+            writeVarLong(out, value);
+            writeVarLong(bufferOut, value);
+        }
+        byte[] data = bout.toByteArray();
+        // the stream and the buffer encode the same bytes
+        assertArrayEquals(bufferOut.toByteArray(), data);
+
+        ObjectDataInput in = createObjectDataInputStream(new ByteArrayInputStream(data), serializationService);
+        BufferObjectDataInput bufferIn = serializationService.createObjectDataInput(data);
+        for (int value : ints) {
+            assertEquals(value, readVarInt(in));
+            assertEquals(value, readVarInt(bufferIn));
+        }
+        for (long value : longs) {
+            assertEquals(value, readVarLong(in));
+            assertEquals(value, readVarLong(bufferIn));
+        }
+    }
+
     @Test
     public void testReadFullyOrNothing() throws Exception {
         InputStream in = new ByteArrayInputStream(STREAM_INPUT);
@@ -18,6 +18,7 @@ package com.hazelcast.nio;
 
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -46,6 +47,7 @@ import static com.hazelcast.nio.serialization.SerializationConcurrencyTest.Porta
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -98,6 +100,31 @@ public class PacketIOHelperTest extends HazelcastTestSupport {
         testPacketWriteRead(portablePerson);
     }
 
+    @Test
+    public void testPacketWriteRead_withPayloadPool() {
+        PacketPayloadPool payloadPool = new PacketPayloadPool();
+        PacketIOHelper pooledReader = new PacketIOHelper(payloadPool);
+        byte[] originalPayload = new byte[100];
+        new Random().nextBytes(originalPayload);
+        Packet originalPacket = new Packet(originalPayload, 42);
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+
+        assertTrue(packetWriter.writeTo(originalPacket, buffer));
+        buffer.flip();
+        Packet first = pooledReader.readFrom(buffer);
+        assertEquals(originalPacket, first);
+        byte[] firstPayload = first.toByteArray();
+        first.release();
+
+        buffer.clear();
+        assertTrue(packetWriter.writeTo(originalPacket, buffer));
+        buffer.flip();
+        Packet second = pooledReader.readFrom(buffer);
+        assertEquals(originalPacket, second);
+        assertEquals(42, second.getPartitionId());
+        assertSame(firstPayload, second.toByteArray());
+    }
+
     private void testPacketWriteRead(Object originalObject) throws IOException {
         InternalSerializationService ss = createSerializationServiceBuilder().build();
         byte[] originalPayload = ss.toBytes(originalObject);
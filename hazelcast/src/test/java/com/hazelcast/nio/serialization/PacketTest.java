@@ -16,6 +16,7 @@
 
 package com.hazelcast.nio.serialization;
 
+import com.hazelcast.internal.networking.TrafficClass;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.QuickTest;
@@ -23,7 +24,9 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static com.hazelcast.internal.nio.Packet.FLAG_JET_FLOW_CONTROL;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONTROL;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -70,4 +73,24 @@ public class PacketTest {
         assertSame(Packet.Type.NULL, packet.getPacketType());
         assertEquals(FLAG_URGENT, packet.getFlags());
     }
+
+    @Test
+    public void getTrafficClass() {
+        assertSame(TrafficClass.OPERATION, new Packet().setPacketType(Packet.Type.OPERATION).getTrafficClass());
+        assertSame(TrafficClass.RESPONSE,
+                new Packet().setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_OP_RESPONSE).getTrafficClass());
+        assertSame(TrafficClass.EVENT, new Packet().setPacketType(Packet.Type.EVENT).getTrafficClass());
+        assertSame(TrafficClass.BULK, new Packet().setPacketType(Packet.Type.JET).getTrafficClass());
+        assertSame(TrafficClass.OPERATION,
+                new Packet().setPacketType(Packet.Type.JET).raiseFlags(FLAG_JET_FLOW_CONTROL).getTrafficClass());
+        assertSame(TrafficClass.BULK, new Packet().setPacketType(Packet.Type.SQL).getTrafficClass());
+        assertSame(TrafficClass.OPERATION, new Packet().setPacketType(Packet.Type.MEMBER_HANDSHAKE).getTrafficClass());
+    }
+
+    @Test
+    public void getTrafficClass_whenSet() {
+        Packet packet = new Packet().setPacketType(Packet.Type.OPERATION).setTrafficClass(TrafficClass.MIGRATION);
+
+        assertSame(TrafficClass.MIGRATION, packet.getTrafficClass());
+    }
 }
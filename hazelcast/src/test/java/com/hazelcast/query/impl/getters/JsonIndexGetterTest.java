@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.hazelcast.core.HazelcastJsonValue;
+import com.hazelcast.internal.json.NonTerminalJsonValue;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.json.internal.JsonIndex;
+import com.hazelcast.json.internal.JsonSchemaHelper;
+import com.hazelcast.json.internal.JsonSchemaNode;
+import com.hazelcast.json.internal.JsonShapes;
+import com.hazelcast.map.impl.JsonMetadataInitializer;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.serialization.impl.HeapData.HEAP_DATA_OVERHEAD;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the getters return the same values with a {@link JsonIndex}
+ * as they do with the {@link JsonSchemaNode} metadata.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class JsonIndexGetterTest {
+
+    private static final String[] DOCUMENTS = {
+            "{\"name\":\"jöhn\",\"age\":42,\"height\":1.85,\"married\":false,\"car\":null}",
+            "{\"äö\":\"ü\",\"address\":{\"city\":\"İstanbul\",\"zip\":34000},\"tags\":[\"a\",\"b\"]}",
+            "{\"list\":[{\"id\":1,\"v\":[1,2]},{\"id\":2,\"v\":[3]}],\"empty\":{},\"emptyList\":[]}",
+            "[1,{\"a\":\"\\\"quoted\\\"\"},[2,3]]",
+            "\"text\"",
+    };
+
+    private static final String[] PATHS = {
+            "name", "age", "height", "married", "car", "missing", "äö", "address", "address.city", "address.zip",
+            "tags[0]", "tags[1]", "tags[2]", "tags[any]", "list[0].id", "list[1].v[0]", "list[any].id", "list[any].v[any]",
+            "empty", "emptyList", "emptyList[0]", "[0]", "[1].a", "[2][1]", "[any]", "name.first",
+    };
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final JsonFactory factory = new JsonFactory();
+    private final JsonMetadataInitializer metadataInitializer = new JsonMetadataInitializer(new JsonShapes(16));
+
+    @Test
+    public void testJsonGetter() throws Exception {
+        JsonGetter getter = new JsonGetter();
+        for (String document : DOCUMENTS) {
+            HazelcastJsonValue value = new HazelcastJsonValue(document);
+            JsonSchemaNode schema = JsonSchemaHelper.createSchema(factory.createParser(document));
+            JsonIndex index = (JsonIndex) metadataInitializer.createFromObject(value);
+            for (String path : PATHS) {
+                assertSameValue(document, path, getter.getValue(value, path, schema), getter.getValue(value, path, index));
+            }
+        }
+    }
+
+    @Test
+    public void testJsonDataGetter() throws Exception {
+        JsonDataGetter getter = new JsonDataGetter(ss);
+        for (String document : DOCUMENTS) {
+            Data data = ss.toData(new HazelcastJsonValue(document));
+            JsonSchemaNode schema = JsonSchemaHelper.createSchema(factory.createParser(data.toByteArray(),
+                    HEAP_DATA_OVERHEAD + INT_SIZE_IN_BYTES, data.dataSize() - INT_SIZE_IN_BYTES));
+            JsonIndex index = (JsonIndex) metadataInitializer.createFromData(data);
+            for (String path : PATHS) {
+                assertSameValue(document, path, getter.getValue(data, path, schema), getter.getValue(data, path, index));
+            }
+        }
+    }
+
+    private static void assertSameValue(String document, String path, Object expected, Object actual) {
+        // NonTerminalJsonValue can't be formatted for the failure message
+        assertEquals(document + " " + path, describe(expected), describe(actual));
+    }
+
+    private static String describe(Object value) {
+        if (value == NonTerminalJsonValue.INSTANCE) {
+            return "non-terminal";
+        }
+        if (value instanceof MultiResult) {
+            return "multi:" + ((MultiResult) value).getResults();
+        }
+        return value == null ? "null" : value.getClass().getSimpleName() + ":" + value;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.hazelcast.core.HazelcastJsonValue;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.json.internal.JsonSchemaHelper;
+import com.hazelcast.json.internal.JsonShapes;
+import com.hazelcast.map.impl.JsonMetadataInitializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.serialization.impl.HeapData.HEAP_DATA_OVERHEAD;
+
+/**
+ * Scans Json records the way a query without index does, reading a nested
+ * attribute near the end of each document with {@link JsonDataGetter}, and
+ * compares the metadata kinds: none (the whole document is parsed), the
+ * {@code JsonSchemaNode} tree per record and the {@code JsonIndex}. The
+ * setup prints the heap retained by the metadata of a record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonMetadataBenchmark {
+
+    private static final String PATH = "address.city";
+
+    @Param({"none", "schema", "index"})
+    public String metadataKind;
+
+    @Param({"100000"})
+    public int recordCount;
+
+    private JsonDataGetter getter;
+    private Data[] records;
+    private Object[] metadata;
+
+    @Setup
+    public void setup() throws IOException {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        JsonFactory factory = new JsonFactory();
+        getter = new JsonDataGetter(ss);
+        records = new Data[recordCount];
+        for (int i = 0; i < recordCount; i++) {
+            records[i] = ss.toData(new HazelcastJsonValue("{\"name\":\"person" + i + "\",\"age\":" + (i % 100)
+                    + ",\"email\":\"person" + i + "@example.com\",\"tags\":[\"a\",\"b\",\"c\"],\"active\":true,"
+                    + "\"address\":{\"street\":\"street " + i + "\",\"zip\":" + i + ",\"city\":\"city" + (i % 10) + "\"}}"));
+        }
+
+        JsonMetadataInitializer metadataInitializer = new JsonMetadataInitializer(new JsonShapes(JsonShapes.DEFAULT_CAPACITY));
+        long usedBefore = usedHeap();
+        metadata = new Object[recordCount];
+        for (int i = 0; i < recordCount; i++) {
+            Data data = records[i];
+            if ("schema".equals(metadataKind)) {
+                metadata[i] = JsonSchemaHelper.createSchema(factory.createParser(data.toByteArray(),
+                        HEAP_DATA_OVERHEAD + INT_SIZE_IN_BYTES, data.dataSize() - INT_SIZE_IN_BYTES));
+            } else if ("index".equals(metadataKind)) {
+                metadata[i] = metadataInitializer.createFromData(data);
+            }
+        }
+        System.out.println();
+        System.out.println("Metadata bytes per record (" + metadataKind + "): " + (usedHeap() - usedBefore) / recordCount);
+    }
+
+    @Benchmark
+    public int scan() throws Exception {
+        int matches = 0;
+        for (int i = 0; i < records.length; i++) {
+            if ("city3".equals(getter.getValue(records[i], PATH, metadata[i]))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JsonMetadataBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -19,6 +19,8 @@ package com.hazelcast.spi.impl.operationservice.impl;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
 import com.hazelcast.spi.impl.operationservice.BlockingOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
@@ -35,6 +37,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
@@ -43,6 +46,7 @@ import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallT
 import static com.hazelcast.test.Accessors.getClusterService;
 import static com.hazelcast.test.Accessors.getOperationService;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
@@ -208,6 +212,26 @@ public class OperationRunnerImplTest extends HazelcastTestSupport {
         operationRunner.run(packet);
     }
 
+    @Test
+    public void runPacket_thenPayloadReleased() throws Exception {
+        Operation op = new DummyOperation();
+        setCallId(op, 1000 * 1000);
+        Packet packet = toPacket(local, remote, op);
+        PacketPayloadPool payloadPool = new PacketPayloadPool();
+        Packet pooledPacket = readPooled(packet, payloadPool);
+
+        operationRunner.run(pooledPacket);
+
+        assertSame(pooledPacket.toByteArray(), payloadPool.acquire(packet.totalSize()));
+    }
+
+    private static Packet readPooled(Packet packet, PacketPayloadPool payloadPool) {
+        ByteBuffer buffer = ByteBuffer.allocate(packet.totalSize() + 100);
+        new PacketIOHelper().writeTo(packet, buffer);
+        buffer.flip();
+        return new PacketIOHelper(payloadPool).readFrom(buffer).setConn(packet.getConn());
+    }
+
     @Test(expected = HazelcastSerializationException.class)
     public void runPacket_whenBroken() throws Exception {
         Operation op = new DummyOperation();
@@ -19,6 +19,8 @@ package com.hazelcast.sql.impl;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.sql.impl.exec.spill.SpillContext;
+import com.hazelcast.sql.impl.exec.spill.SpillMetrics;
 import com.hazelcast.sql.impl.plan.Plan;
 import com.hazelcast.sql.impl.row.HeapRow;
 import com.hazelcast.sql.impl.row.ListRowBatch;
@@ -26,11 +28,13 @@ import com.hazelcast.sql.impl.row.Row;
 import com.hazelcast.sql.impl.row.RowBatch;
 import com.hazelcast.sql.impl.state.QueryStateCallback;
 import com.hazelcast.sql.impl.worker.QueryFragmentContext;
+import com.hazelcast.sql.impl.worker.QueryFragmentScheduleCallback;
 import com.hazelcast.test.HazelcastTestSupport;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
@@ -88,17 +92,41 @@ public class SqlTestSupport extends HazelcastTestSupport {
         }
     }
 
+    /**
+     * Creates a spill context with files in the default temporary-file directory.
+     *
+     * @param memoryLimit Query memory limit.
+     * @return Spill context.
+     */
+    public static SpillContext createSpillContext(long memoryLimit) {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+        return new SpillContext(QueryId.create(UUID.randomUUID()), null, ss, new SpillMetrics(), memoryLimit);
+    }
+
     public static QueryFragmentContext emptyFragmentContext() {
         return emptyFragmentContext(Collections.emptyList());
     }
 
     public static QueryFragmentContext emptyFragmentContext(List<Object> args) {
+        return emptyFragmentContext(args, new LoggingQueryFragmentScheduleCallback());
+    }
+
+    public static QueryFragmentContext emptyFragmentContext(
+        List<Object> args,
+        QueryFragmentScheduleCallback scheduleCallback
+    ) {
         QueryStateCallback stateCallback = new QueryStateCallback() {
             @Override
             public void onFragmentFinished() {
                 // No-op.
             }
 
+            @Override
+            public void onInputAbandoned() {
+                // No-op.
+            }
+
             @Override
             public void cancel(Exception e) {
                 // No-op.
@@ -110,7 +138,7 @@ public class SqlTestSupport extends HazelcastTestSupport {
             }
         };
 
-        return new QueryFragmentContext(args, new LoggingQueryFragmentScheduleCallback(), stateCallback);
+        return new QueryFragmentContext(args, scheduleCallback, stateCallback);
     }
 
     /**
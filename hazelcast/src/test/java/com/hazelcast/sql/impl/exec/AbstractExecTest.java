@@ -84,6 +84,11 @@ public class AbstractExecTest extends SqlTestSupport {
                 // No-op.
             }
 
+            @Override
+            public void onInputAbandoned() {
+                // No-op.
+            }
+
             @Override
             public void cancel(Exception e) {
                 // No-op.
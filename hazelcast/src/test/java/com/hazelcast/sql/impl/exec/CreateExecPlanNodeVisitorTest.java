@@ -22,26 +22,38 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.sql.impl.LoggingQueryOperationHandler;
 import com.hazelcast.sql.impl.QueryException;
 import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.exec.io.BroadcastSendExec;
 import com.hazelcast.sql.impl.exec.io.Inbox;
 import com.hazelcast.sql.impl.exec.io.Outbox;
 import com.hazelcast.sql.impl.exec.io.ReceiveExec;
 import com.hazelcast.sql.impl.exec.io.SendExec;
+import com.hazelcast.sql.impl.exec.io.UnicastSendExec;
+import com.hazelcast.sql.impl.exec.io.MergeSortReceiveExec;
+import com.hazelcast.sql.impl.exec.io.StripedInbox;
+import com.hazelcast.sql.impl.exec.join.HashJoinExec;
 import com.hazelcast.sql.impl.exec.io.flowcontrol.simple.SimpleFlowControl;
 import com.hazelcast.sql.impl.exec.io.flowcontrol.simple.SimpleFlowControlFactory;
 import com.hazelcast.sql.impl.exec.root.RootExec;
 import com.hazelcast.sql.impl.exec.root.RootResultConsumer;
+import com.hazelcast.sql.impl.exec.sort.SortExec;
+import com.hazelcast.sql.impl.exec.spill.SpillContext;
 import com.hazelcast.sql.impl.expression.ColumnExpression;
 import com.hazelcast.sql.impl.expression.ConstantPredicateExpression;
 import com.hazelcast.sql.impl.operation.QueryExecuteOperation;
 import com.hazelcast.sql.impl.operation.QueryExecuteOperationFragment;
 import com.hazelcast.sql.impl.plan.node.FilterPlanNode;
+import com.hazelcast.sql.impl.plan.node.HashJoinPlanNode;
 import com.hazelcast.sql.impl.plan.node.PlanNode;
 import com.hazelcast.sql.impl.plan.node.PlanNodeSchema;
 import com.hazelcast.sql.impl.plan.node.PlanNodeVisitor;
 import com.hazelcast.sql.impl.plan.node.ProjectPlanNode;
 import com.hazelcast.sql.impl.plan.node.RootPlanNode;
+import com.hazelcast.sql.impl.plan.node.SortPlanNode;
+import com.hazelcast.sql.impl.plan.node.io.BroadcastSendPlanNode;
+import com.hazelcast.sql.impl.plan.node.io.MergeSortReceivePlanNode;
 import com.hazelcast.sql.impl.plan.node.io.ReceivePlanNode;
 import com.hazelcast.sql.impl.plan.node.io.RootSendPlanNode;
+import com.hazelcast.sql.impl.plan.node.io.UnicastSendPlanNode;
 import com.hazelcast.sql.impl.row.Row;
 import com.hazelcast.sql.impl.row.RowBatch;
 import com.hazelcast.sql.impl.type.QueryDataType;
@@ -54,6 +66,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -62,10 +75,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import static com.hazelcast.sql.impl.SqlTestSupport.createSpillContext;
 import static com.hazelcast.sql.impl.operation.QueryExecuteOperationFragmentMapping.DATA_MEMBERS;
 import static com.hazelcast.sql.impl.operation.QueryExecuteOperationFragmentMapping.EXPLICIT;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -75,6 +91,8 @@ public class CreateExecPlanNodeVisitorTest {
 
     private static final int ROOT_BATCH_SIZE = 1024;
     private static final int OUTBOX_BATCH_SIZE = 512 * 1024;
+    private static final long OPERATOR_MEMORY_LIMIT = 1024 * 1024;
+    private static final SpillContext SPILL_CONTEXT = createSpillContext(Long.MAX_VALUE);
 
     private static final int EDGE_1_ID = 100;
     private static final long EDGE_1_INITIAL_MEMORY = 1000;
@@ -176,6 +194,104 @@ public class CreateExecPlanNodeVisitorTest {
         assertSame(outbox, visitor.getOutboxes().get(EDGE_1_ID).get(MEMBER_ID_1));
     }
 
+    @Test
+    public void testBroadcastSend() {
+        UpstreamNode upstreamNode = new UpstreamNode(nextNodeId());
+        BroadcastSendPlanNode sendNode = new BroadcastSendPlanNode(nextNodeId(), upstreamNode, EDGE_1_ID);
+
+        QueryExecuteOperationFragment sendFragment = new QueryExecuteOperationFragment(
+            sendNode,
+            DATA_MEMBERS,
+            null
+        );
+
+        QueryExecuteOperationFragment receiveFragment = new QueryExecuteOperationFragment(
+            null,
+            DATA_MEMBERS,
+            null
+        );
+
+        QueryExecuteOperation operation = createOperation(
+            Arrays.asList(sendFragment, receiveFragment),
+            Collections.singletonMap(EDGE_1_ID, 0),
+            Collections.singletonMap(EDGE_1_ID, 1),
+            Collections.singletonMap(EDGE_1_ID, EDGE_1_INITIAL_MEMORY)
+        );
+
+        CreateExecPlanNodeVisitor visitor = visit(operation, sendFragment);
+
+        BroadcastSendExec sendExec = (BroadcastSendExec) visitor.getExec();
+        assertEquals(sendNode.getId(), sendExec.getId());
+
+        checkOutboxes(visitor, sendExec.getOutboxes(), upstreamNode);
+
+        UpstreamExec upstreamExec = (UpstreamExec) sendExec.getUpstream();
+        assertEquals(upstreamNode.getId(), upstreamExec.getId());
+    }
+
+    @Test
+    public void testUnicastSend() {
+        UpstreamNode upstreamNode = new UpstreamNode(nextNodeId());
+        UnicastSendPlanNode sendNode = new UnicastSendPlanNode(
+            nextNodeId(),
+            upstreamNode,
+            EDGE_1_ID,
+            Collections.singletonList(1)
+        );
+
+        QueryExecuteOperationFragment sendFragment = new QueryExecuteOperationFragment(
+            sendNode,
+            DATA_MEMBERS,
+            null
+        );
+
+        QueryExecuteOperationFragment receiveFragment = new QueryExecuteOperationFragment(
+            null,
+            DATA_MEMBERS,
+            null
+        );
+
+        QueryExecuteOperation operation = createOperation(
+            Arrays.asList(sendFragment, receiveFragment),
+            Collections.singletonMap(EDGE_1_ID, 0),
+            Collections.singletonMap(EDGE_1_ID, 1),
+            Collections.singletonMap(EDGE_1_ID, EDGE_1_INITIAL_MEMORY)
+        );
+
+        CreateExecPlanNodeVisitor visitor = visit(operation, sendFragment);
+
+        UnicastSendExec sendExec = (UnicastSendExec) visitor.getExec();
+        assertEquals(sendNode.getId(), sendExec.getId());
+        assertArrayEquals(new int[] { 1 }, sendExec.getHashKeys());
+
+        checkOutboxes(visitor, sendExec.getOutboxes(), upstreamNode);
+
+        UpstreamExec upstreamExec = (UpstreamExec) sendExec.getUpstream();
+        assertEquals(upstreamNode.getId(), upstreamExec.getId());
+    }
+
+    private static void checkOutboxes(CreateExecPlanNodeVisitor visitor, Outbox[] outboxes, PlanNode upstreamNode) {
+        List<UUID> memberIds = new ArrayList<>(PARTITION_MAPPING.keySet());
+        memberIds.sort(null);
+
+        assertEquals(memberIds.size(), outboxes.length);
+        assertEquals(memberIds.size(), visitor.getOutboxes().get(EDGE_1_ID).size());
+
+        for (int i = 0; i < outboxes.length; i++) {
+            Outbox outbox = outboxes[i];
+
+            assertEquals(QUERY_ID, outbox.getQueryId());
+            assertEquals(EDGE_1_ID, outbox.getEdgeId());
+            assertEquals(upstreamNode.getSchema().getEstimatedRowSize(), outbox.getRowWidth());
+            assertEquals(LOCAL_MEMBER_ID, outbox.getLocalMemberId());
+            assertEquals(memberIds.get(i), outbox.getTargetMemberId());
+            assertEquals(OUTBOX_BATCH_SIZE, outbox.getBatchSize());
+            assertEquals(EDGE_1_INITIAL_MEMORY, outbox.getRemainingMemory());
+
+            assertSame(outbox, visitor.getOutboxes().get(EDGE_1_ID).get(memberIds.get(i)));
+        }
+    }
+
     @Test
     public void testReceive() {
         ReceivePlanNode receiveNode = new ReceivePlanNode(
@@ -230,6 +346,67 @@ public class CreateExecPlanNodeVisitorTest {
         assertEquals(0, visitor.getOutboxes().size());
     }
 
+    @Test
+    public void testMergeSortReceive() {
+        MergeSortReceivePlanNode receiveNode = new MergeSortReceivePlanNode(
+            nextNodeId(),
+            EDGE_1_ID,
+            Arrays.asList(QueryDataType.INT, QueryDataType.VARCHAR),
+            Collections.singletonList(1),
+            Collections.singletonList(false),
+            10
+        );
+
+        DownstreamNode downstreamNode = new DownstreamNode(
+            nextNodeId(),
+            receiveNode
+        );
+
+        QueryExecuteOperationFragment sendFragment = new QueryExecuteOperationFragment(
+            null,
+            DATA_MEMBERS,
+            PARTITION_MAPPING.keySet()
+        );
+
+        QueryExecuteOperationFragment receiveFragment = new QueryExecuteOperationFragment(
+            downstreamNode,
+            EXPLICIT,
+            Collections.singletonList(MEMBER_ID_1)
+        );
+
+        QueryExecuteOperation operation = createOperation(
+            Arrays.asList(sendFragment, receiveFragment),
+            Collections.singletonMap(EDGE_1_ID, 0),
+            Collections.singletonMap(EDGE_1_ID, 1),
+            Collections.singletonMap(EDGE_1_ID, EDGE_1_INITIAL_MEMORY)
+        );
+
+        CreateExecPlanNodeVisitor visitor = visit(operation, receiveFragment);
+
+        DownstreamExec downstreamExec = (DownstreamExec) visitor.pop();
+        assertEquals(downstreamNode.getId(), downstreamExec.getId());
+
+        MergeSortReceiveExec receiveExec = (MergeSortReceiveExec) downstreamExec.getUpstream();
+        assertEquals(receiveNode.getId(), receiveExec.getId());
+        assertArrayEquals(new int[] { 1 }, receiveExec.getComparator().getColumns());
+        assertArrayEquals(new boolean[] { false }, receiveExec.getComparator().getAscs());
+        assertEquals(10, receiveExec.getFetch());
+
+        StripedInbox inbox = receiveExec.getInbox();
+        assertEquals(QUERY_ID, inbox.getQueryId());
+        assertEquals(EDGE_1_ID, inbox.getEdgeId());
+        assertEquals(receiveNode.getSchema().getEstimatedRowSize(), inbox.getRowWidth());
+        assertEquals(LOCAL_MEMBER_ID, inbox.getLocalMemberId());
+        assertEquals(PARTITION_MAPPING.size(), inbox.getRemainingStreams());
+        assertEquals(PARTITION_MAPPING.size(), inbox.getStripeCount());
+        assertEquals(EDGE_1_INITIAL_MEMORY, ((SimpleFlowControl) inbox.getFlowControl()).getMaxMemory());
+
+        assertEquals(1, visitor.getInboxes().size());
+        assertSame(inbox, visitor.getInboxes().get(EDGE_1_ID));
+
+        assertEquals(0, visitor.getOutboxes().size());
+    }
+
     @Test
     public void testProject() {
         UpstreamNode upstreamNode = new UpstreamNode(nextNodeId());
@@ -296,13 +473,96 @@ public class CreateExecPlanNodeVisitorTest {
         assertEquals(upstreamNode.getId(), upstreamExec.getId());
     }
 
+    @Test
+    public void testHashJoin() {
+        UpstreamNode leftNode = new UpstreamNode(nextNodeId());
+        UpstreamNode rightNode = new UpstreamNode(nextNodeId());
+
+        HashJoinPlanNode joinNode = new HashJoinPlanNode(
+            nextNodeId(),
+            leftNode,
+            rightNode,
+            new ConstantPredicateExpression(true),
+            Collections.singletonList(0),
+            Collections.singletonList(1),
+            true
+        );
+
+        QueryExecuteOperationFragment rootFragment = new QueryExecuteOperationFragment(
+            joinNode,
+            EXPLICIT,
+            Collections.singletonList(MEMBER_ID_1)
+        );
+
+        QueryExecuteOperation operation = createOperation(
+            Collections.singletonList(rootFragment),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptyMap()
+        );
+
+        CreateExecPlanNodeVisitor visitor = visit(operation, rootFragment);
+
+        HashJoinExec joinExec = (HashJoinExec) visitor.pop();
+        assertEquals(joinNode.getId(), joinExec.getId());
+        assertEquals(joinNode.getCondition(), joinExec.getCondition());
+        assertArrayEquals(new int[] { 0 }, joinExec.getLeftHashKeys());
+        assertArrayEquals(new int[] { 1 }, joinExec.getRightHashKeys());
+        assertTrue(joinExec.isOuter());
+        assertEquals(OPERATOR_MEMORY_LIMIT, joinExec.getMemoryLimit());
+        assertSame(SPILL_CONTEXT, joinExec.getSpillContext());
+
+        assertEquals(leftNode.getId(), joinExec.getLeft().getId());
+        assertEquals(rightNode.getId(), joinExec.getRight().getId());
+    }
+
+    @Test
+    public void testSort() {
+        UpstreamNode upstreamNode = new UpstreamNode(nextNodeId());
+
+        SortPlanNode sortNode = new SortPlanNode(
+            nextNodeId(),
+            upstreamNode,
+            Arrays.asList(0, 1),
+            Arrays.asList(true, false),
+            SortPlanNode.NO_FETCH
+        );
+
+        QueryExecuteOperationFragment rootFragment = new QueryExecuteOperationFragment(
+            sortNode,
+            EXPLICIT,
+            Collections.singletonList(MEMBER_ID_1)
+        );
+
+        QueryExecuteOperation operation = createOperation(
+            Collections.singletonList(rootFragment),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptyMap()
+        );
+
+        CreateExecPlanNodeVisitor visitor = visit(operation, rootFragment);
+
+        SortExec sortExec = (SortExec) visitor.pop();
+        assertEquals(sortNode.getId(), sortExec.getId());
+        assertArrayEquals(new int[] { 0, 1 }, sortExec.getComparator().getColumns());
+        assertArrayEquals(new boolean[] { true, false }, sortExec.getComparator().getAscs());
+        assertEquals(SortPlanNode.NO_FETCH, sortExec.getFetch());
+        assertEquals(OPERATOR_MEMORY_LIMIT, sortExec.getMemoryLimit());
+        assertSame(SPILL_CONTEXT, sortExec.getSpillContext());
+
+        assertEquals(upstreamNode.getId(), sortExec.getUpstream().getId());
+    }
+
     private static CreateExecPlanNodeVisitor visit(QueryExecuteOperation operation, QueryExecuteOperationFragment fragment) {
         CreateExecPlanNodeVisitor res = new CreateExecPlanNodeVisitor(
             new LoggingQueryOperationHandler(),
             LOCAL_MEMBER_ID,
             operation,
             SimpleFlowControlFactory.INSTANCE,
-            OUTBOX_BATCH_SIZE
+            OUTBOX_BATCH_SIZE,
+            OPERATOR_MEMORY_LIMIT,
+            SPILL_CONTEXT
         );
 
         fragment.getNode().visit(res);
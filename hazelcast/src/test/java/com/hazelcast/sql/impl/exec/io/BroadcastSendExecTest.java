@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.io;
+
+import com.hazelcast.sql.impl.LoggingQueryOperationHandler;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.UpstreamExec;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.operation.QueryBatchExchangeOperation;
+import com.hazelcast.sql.impl.row.ListRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BroadcastSendExecTest extends SqlTestSupport {
+
+    private static final QueryId QUERY_ID = QueryId.create(UUID.randomUUID());
+    private static final int EDGE_ID = 1;
+    private static final UUID LOCAL_MEMBER_ID = UUID.randomUUID();
+    private static final UUID TARGET_MEMBER_ID_1 = UUID.randomUUID();
+    private static final UUID TARGET_MEMBER_ID_2 = UUID.randomUUID();
+
+    private static final int ROW_WIDTH = 100;
+
+    private static final int ROWS_IN_BATCH = 4;
+    private static final int ROWS_IN_REMAINING_MEMORY = 8;
+
+    @Test
+    public void testSetup() {
+        LoggingQueryOperationHandler operationHandler = new LoggingQueryOperationHandler();
+
+        create(new UpstreamExec(1), operationHandler);
+
+        assertNotNull(operationHandler.getChannel());
+    }
+
+    @Test
+    public void testAdvance() {
+        UpstreamExec upstream = new UpstreamExec(1);
+        LoggingQueryOperationHandler operationHandler = new LoggingQueryOperationHandler();
+        BroadcastSendExec exec = create(upstream, operationHandler);
+
+        Map<UUID, List<Row>> rows = new HashMap<>();
+
+        // Wait on empty state.
+        assertEquals(IterationResult.WAIT, exec.advance());
+
+        // Push the batch above the send threshold, all outboxes should receive it.
+        upstream.addResult(IterationResult.FETCHED, createMonotonicBatch(0, ROWS_IN_BATCH));
+        assertEquals(IterationResult.WAIT, exec.advance());
+        collect(operationHandler, rows);
+        checkRows(rows, ROWS_IN_BATCH, ROWS_IN_BATCH);
+
+        // Restore memory of the second outbox only, the first outbox could accept only part of the next batch.
+        exec.getOutboxes()[1].onFlowControl(ROW_WIDTH * ROWS_IN_REMAINING_MEMORY * 2);
+
+        upstream.addResult(IterationResult.FETCHED_DONE, createMonotonicBatch(ROWS_IN_BATCH, ROWS_IN_REMAINING_MEMORY));
+        assertEquals(IterationResult.WAIT, exec.advance());
+        collect(operationHandler, rows);
+        checkRows(rows, ROWS_IN_REMAINING_MEMORY, ROWS_IN_BATCH + ROWS_IN_REMAINING_MEMORY);
+
+        // Restore memory of the first outbox, all rows should be delivered now.
+        exec.getOutboxes()[0].onFlowControl(ROW_WIDTH * ROWS_IN_REMAINING_MEMORY);
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        collect(operationHandler, rows);
+        checkRows(rows, ROWS_IN_BATCH + ROWS_IN_REMAINING_MEMORY, ROWS_IN_BATCH + ROWS_IN_REMAINING_MEMORY);
+    }
+
+    @Test
+    public void testCurrentBatch() {
+        BroadcastSendExec exec = create(new UpstreamExec(1), new LoggingQueryOperationHandler());
+
+        assertThrows(UnsupportedOperationException.class, exec::currentBatch);
+    }
+
+    private static BroadcastSendExec create(UpstreamExec upstream, LoggingQueryOperationHandler operationHandler) {
+        Outbox[] outboxes = new Outbox[] {
+            createOutbox(operationHandler, TARGET_MEMBER_ID_1),
+            createOutbox(operationHandler, TARGET_MEMBER_ID_2)
+        };
+
+        BroadcastSendExec exec = new BroadcastSendExec(2, upstream, outboxes);
+
+        exec.setup(emptyFragmentContext());
+
+        return exec;
+    }
+
+    private static Outbox createOutbox(LoggingQueryOperationHandler operationHandler, UUID targetMemberId) {
+        return new Outbox(
+            operationHandler,
+            QUERY_ID,
+            EDGE_ID,
+            ROW_WIDTH,
+            LOCAL_MEMBER_ID,
+            targetMemberId,
+            ROW_WIDTH * ROWS_IN_BATCH,
+            ROW_WIDTH * ROWS_IN_REMAINING_MEMORY
+        );
+    }
+
+    private static void collect(LoggingQueryOperationHandler operationHandler, Map<UUID, List<Row>> rows) {
+        while (true) {
+            LoggingQueryOperationHandler.SubmitInfo submitInfo = operationHandler.tryPollSubmitInfo();
+
+            if (submitInfo == null) {
+                break;
+            }
+
+            assertEquals(LOCAL_MEMBER_ID, submitInfo.getSourceMemberId());
+
+            QueryBatchExchangeOperation operation = submitInfo.getOperation();
+
+            RowBatch batch = operation.getBatch();
+
+            List<Row> memberRows = rows.computeIfAbsent(submitInfo.getMemberId(), (key) -> new ArrayList<>());
+
+            for (int i = 0; i < batch.getRowCount(); i++) {
+                memberRows.add(batch.getRow(i));
+            }
+        }
+    }
+
+    private static void checkRows(Map<UUID, List<Row>> rows, int expectedCount1, int expectedCount2) {
+        checkMonotonicBatch(new ListRowBatch(rows.getOrDefault(TARGET_MEMBER_ID_1, new ArrayList<>())), 0, expectedCount1);
+        checkMonotonicBatch(new ListRowBatch(rows.getOrDefault(TARGET_MEMBER_ID_2, new ArrayList<>())), 0, expectedCount2);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.io;
+
+import com.hazelcast.sql.impl.LoggingFlowControl;
+import com.hazelcast.sql.impl.LoggingQueryFragmentScheduleCallback;
+import com.hazelcast.sql.impl.LoggingQueryOperationHandler;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.exec.sort.SortKeyComparator;
+import com.hazelcast.sql.impl.plan.node.SortPlanNode;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.row.ListRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.sql.impl.state.QueryStateCallback;
+import com.hazelcast.sql.impl.worker.QueryFragmentContext;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MergeSortReceiveExecTest extends SqlTestSupport {
+
+    private final UUID senderMemberId1 = UUID.randomUUID();
+    private final UUID senderMemberId2 = UUID.randomUUID();
+
+    private StripedInbox inbox;
+    private TestStateCallback stateCallback;
+
+    @Before
+    public void before() {
+        UUID localMemberId = UUID.randomUUID();
+        QueryId queryId = QueryId.create(UUID.randomUUID());
+        LoggingQueryOperationHandler operationHandler = new LoggingQueryOperationHandler();
+        LoggingFlowControl flowControl = new LoggingFlowControl(queryId, 1, localMemberId, operationHandler);
+
+        inbox = new StripedInbox(
+            operationHandler,
+            queryId,
+            1,
+            100,
+            localMemberId,
+            Arrays.asList(senderMemberId1, senderMemberId2),
+            flowControl
+        );
+
+        stateCallback = new TestStateCallback();
+    }
+
+    @Test
+    public void testMerge() {
+        MergeSortReceiveExec exec = create(SortPlanNode.NO_FETCH);
+
+        // Nothing can be returned until every stream has a batch.
+        inbox.onBatch(new InboundBatch(batch(1, 4, 7), false, senderMemberId1), 100L);
+        assertEquals(IterationResult.WAIT, exec.advance());
+        assertEquals(0, exec.currentBatch().getRowCount());
+
+        // Rows are returned until the first stream is exhausted.
+        inbox.onBatch(new InboundBatch(batch(2, 3, 8), false, senderMemberId2), 100L);
+        assertEquals(IterationResult.FETCHED, exec.advance());
+        checkRows(exec.currentBatch(), 1, 2, 3, 4, 7);
+
+        assertEquals(IterationResult.WAIT, exec.advance());
+
+        // Empty last batch closes the first stream, so the second stream is drained.
+        inbox.onBatch(new InboundBatch(batch(), true, senderMemberId1), 100L);
+        assertEquals(IterationResult.FETCHED, exec.advance());
+        checkRows(exec.currentBatch(), 8);
+
+        inbox.onBatch(new InboundBatch(batch(9, 10), true, senderMemberId2), 100L);
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        checkRows(exec.currentBatch(), 9, 10);
+
+        assertFalse(stateCallback.inputAbandoned);
+    }
+
+    @Test
+    public void testMergeDescending() {
+        MergeSortReceiveExec exec = create(SortPlanNode.NO_FETCH, false);
+
+        inbox.onBatch(new InboundBatch(batch(5, 3, 1), true, senderMemberId1), 100L);
+        inbox.onBatch(new InboundBatch(batch(6, 4, 2), true, senderMemberId2), 100L);
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        checkRows(exec.currentBatch(), 6, 5, 4, 3, 2, 1);
+    }
+
+    @Test
+    public void testBatching() {
+        MergeSortReceiveExec exec = create(SortPlanNode.NO_FETCH);
+
+        List<Row> rows1 = new ArrayList<>();
+        List<Row> rows2 = new ArrayList<>();
+
+        for (int i = 0; i < MergeSortReceiveExec.BATCH_SIZE; i++) {
+            rows1.add(HeapRow.of(i * 2));
+            rows2.add(HeapRow.of(i * 2 + 1));
+        }
+
+        inbox.onBatch(new InboundBatch(new ListRowBatch(rows1), true, senderMemberId1), 100L);
+        inbox.onBatch(new InboundBatch(new ListRowBatch(rows2), true, senderMemberId2), 100L);
+
+        assertEquals(IterationResult.FETCHED, exec.advance());
+        checkMonotonicBatch(exec.currentBatch(), 0, MergeSortReceiveExec.BATCH_SIZE);
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        checkMonotonicBatch(exec.currentBatch(), MergeSortReceiveExec.BATCH_SIZE, MergeSortReceiveExec.BATCH_SIZE);
+    }
+
+    @Test
+    public void testFetch() {
+        MergeSortReceiveExec exec = create(3);
+
+        inbox.onBatch(new InboundBatch(batch(1, 4), false, senderMemberId1), 100L);
+        inbox.onBatch(new InboundBatch(batch(2, 3, 5), false, senderMemberId2), 100L);
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        checkRows(exec.currentBatch(), 1, 2, 3);
+
+        // Streams are still open, so the query must cancel remote fragments.
+        assertTrue(stateCallback.inputAbandoned);
+    }
+
+    @Test
+    public void testFetchAfterInputClosed() {
+        MergeSortReceiveExec exec = create(3);
+
+        inbox.onBatch(new InboundBatch(batch(1, 3), true, senderMemberId1), 100L);
+        inbox.onBatch(new InboundBatch(batch(2), true, senderMemberId2), 100L);
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        checkRows(exec.currentBatch(), 1, 2, 3);
+
+        assertFalse(stateCallback.inputAbandoned);
+    }
+
+    private MergeSortReceiveExec create(int fetch) {
+        return create(fetch, true);
+    }
+
+    private MergeSortReceiveExec create(int fetch, boolean asc) {
+        SortKeyComparator comparator = new SortKeyComparator(new int[] { 0 }, new boolean[] { asc });
+
+        MergeSortReceiveExec exec = new MergeSortReceiveExec(2, inbox, comparator, fetch);
+
+        exec.setup(new QueryFragmentContext(
+            Collections.emptyList(),
+            new LoggingQueryFragmentScheduleCallback(),
+            stateCallback
+        ));
+
+        return exec;
+    }
+
+    private static RowBatch batch(int... values) {
+        List<Row> rows = new ArrayList<>(values.length);
+
+        for (int value : values) {
+            rows.add(HeapRow.of(value));
+        }
+
+        return new ListRowBatch(rows);
+    }
+
+    private static void checkRows(RowBatch batch, int... expectedValues) {
+        assertEquals(expectedValues.length, batch.getRowCount());
+
+        for (int i = 0; i < expectedValues.length; i++) {
+            assertEquals(expectedValues[i], (int) batch.getRow(i).get(0));
+        }
+    }
+
+    private static class TestStateCallback implements QueryStateCallback {
+
+        private boolean inputAbandoned;
+
+        @Override
+        public void onFragmentFinished() {
+            // No-op.
+        }
+
+        @Override
+        public void onInputAbandoned() {
+            inputAbandoned = true;
+        }
+
+        @Override
+        public void cancel(Exception e) {
+            // No-op.
+        }
+
+        @Override
+        public void checkCancelled() {
+            // No-op.
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.io;
+
+import com.hazelcast.sql.impl.LoggingFlowControl;
+import com.hazelcast.sql.impl.LoggingQueryOperationHandler;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static com.hazelcast.sql.impl.SqlTestSupport.createMonotonicBatch;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class StripedInboxTest {
+    @Test
+    public void testStripedInbox() {
+        UUID localMemberId = UUID.randomUUID();
+        UUID senderMemberId1 = UUID.randomUUID();
+        UUID senderMemberId2 = UUID.randomUUID();
+        QueryId queryId = QueryId.create(UUID.randomUUID());
+        int edgeId = 1;
+        int rowWidth = 100;
+        LoggingQueryOperationHandler operationHandler = new LoggingQueryOperationHandler();
+        LoggingFlowControl flowControl = new LoggingFlowControl(queryId, edgeId, localMemberId, operationHandler);
+
+        StripedInbox inbox = new StripedInbox(
+            operationHandler,
+            queryId,
+            edgeId,
+            rowWidth,
+            localMemberId,
+            Arrays.asList(senderMemberId1, senderMemberId2),
+            flowControl
+        );
+
+        // Test state.
+        assertEquals(queryId, inbox.getQueryId());
+        assertEquals(edgeId, inbox.getEdgeId());
+        assertEquals(rowWidth, inbox.getRowWidth());
+        assertEquals(localMemberId, inbox.getLocalMemberId());
+        assertEquals(2, inbox.getStripeCount());
+        assertEquals(2, inbox.getRemainingStreams());
+
+        // Test setup.
+        inbox.setup();
+
+        assertTrue(flowControl.isSetupInvoked());
+
+        // Batches are routed to the stripe of the sender.
+        InboundBatch batch1 = new InboundBatch(createMonotonicBatch(0, 5), false, senderMemberId2);
+        InboundBatch batch2 = new InboundBatch(createMonotonicBatch(5, 5), true, senderMemberId2);
+        InboundBatch batch3 = new InboundBatch(createMonotonicBatch(10, 5), true, senderMemberId1);
+
+        inbox.onBatch(batch1, 100L);
+        inbox.onBatch(batch2, 100L);
+        inbox.onBatch(batch3, 100L);
+
+        assertEquals(0, inbox.getRemainingStreams());
+        assertFalse(inbox.closed());
+
+        assertSame(batch1, inbox.poll(1));
+        assertEquals(senderMemberId2, flowControl.getRemoveDescriptor().getMemberId());
+
+        assertSame(batch3, inbox.poll(0));
+        assertNull(inbox.poll(0));
+        assertFalse(inbox.closed());
+
+        assertSame(batch2, inbox.poll(1));
+        assertNull(inbox.poll(1));
+        assertTrue(inbox.closed());
+    }
+}
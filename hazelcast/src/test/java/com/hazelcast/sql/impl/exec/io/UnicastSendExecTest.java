@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.io;
+
+import com.hazelcast.internal.util.HashUtil;
+import com.hazelcast.sql.impl.LoggingQueryOperationHandler;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.UpstreamExec;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.operation.QueryBatchExchangeOperation;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.row.ListRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class UnicastSendExecTest extends SqlTestSupport {
+
+    private static final QueryId QUERY_ID = QueryId.create(UUID.randomUUID());
+    private static final int EDGE_ID = 1;
+    private static final UUID LOCAL_MEMBER_ID = UUID.randomUUID();
+    private static final UUID[] TARGET_MEMBER_IDS = new UUID[] { UUID.randomUUID(), UUID.randomUUID() };
+
+    private static final int ROW_WIDTH = 100;
+
+    private static final int ROWS_IN_BATCH = 4;
+    private static final int ROWS_IN_REMAINING_MEMORY = 8;
+
+    private static final int[] HASH_KEYS = new int[] { 1 };
+
+    @Test
+    public void testAdvance() {
+        UpstreamExec upstream = new UpstreamExec(1);
+        LoggingQueryOperationHandler operationHandler = new LoggingQueryOperationHandler();
+
+        Outbox[] outboxes = new Outbox[TARGET_MEMBER_IDS.length];
+
+        for (int i = 0; i < TARGET_MEMBER_IDS.length; i++) {
+            outboxes[i] = new Outbox(
+                operationHandler,
+                QUERY_ID,
+                EDGE_ID,
+                ROW_WIDTH,
+                LOCAL_MEMBER_ID,
+                TARGET_MEMBER_IDS[i],
+                ROW_WIDTH * ROWS_IN_BATCH,
+                ROW_WIDTH * ROWS_IN_REMAINING_MEMORY
+            );
+        }
+
+        UnicastSendExec exec = new UnicastSendExec(2, upstream, outboxes, HASH_KEYS);
+        exec.setup(emptyFragmentContext());
+
+        // Submit more rows than both outboxes could accept at once.
+        int rowCount = ROWS_IN_REMAINING_MEMORY * 3;
+
+        upstream.addResult(IterationResult.FETCHED_DONE, createBatch(rowCount));
+
+        Map<UUID, Set<Integer>> received = new HashMap<>();
+
+        assertEquals(IterationResult.WAIT, exec.advance());
+        collect(operationHandler, received);
+
+        for (Outbox outbox : outboxes) {
+            outbox.onFlowControl(ROW_WIDTH * rowCount);
+        }
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        collect(operationHandler, received);
+
+        // Every row must be delivered exactly once to the outbox chosen by the key hash.
+        int receivedCount = 0;
+
+        for (Map.Entry<UUID, Set<Integer>> entry : received.entrySet()) {
+            for (int value : entry.getValue()) {
+                Row row = createRow(value);
+
+                int expectedIndex = HashUtil.hashToIndex(UnicastSendExec.hash(row, HASH_KEYS), TARGET_MEMBER_IDS.length);
+
+                assertEquals(TARGET_MEMBER_IDS[expectedIndex], entry.getKey());
+
+                receivedCount++;
+            }
+        }
+
+        assertEquals(rowCount, receivedCount);
+    }
+
+    @Test
+    public void testHash() {
+        assertEquals(UnicastSendExec.hash(HeapRow.of(1, "a"), HASH_KEYS), UnicastSendExec.hash(HeapRow.of(2, "a"), HASH_KEYS));
+        assertEquals(0, UnicastSendExec.hash(HeapRow.of(1, null), HASH_KEYS));
+    }
+
+    private static RowBatch createBatch(int rowCount) {
+        Row[] rows = new Row[rowCount];
+
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = createRow(i);
+        }
+
+        return new ListRowBatch(Arrays.asList(rows));
+    }
+
+    private static Row createRow(int value) {
+        return HeapRow.of(value, "key" + value);
+    }
+
+    private static void collect(LoggingQueryOperationHandler operationHandler, Map<UUID, Set<Integer>> received) {
+        while (true) {
+            LoggingQueryOperationHandler.SubmitInfo submitInfo = operationHandler.tryPollSubmitInfo();
+
+            if (submitInfo == null) {
+                break;
+            }
+
+            QueryBatchExchangeOperation operation = submitInfo.getOperation();
+
+            RowBatch batch = operation.getBatch();
+
+            Set<Integer> memberValues = received.computeIfAbsent(submitInfo.getMemberId(), (key) -> new HashSet<>());
+
+            for (int i = 0; i < batch.getRowCount(); i++) {
+                int value = batch.getRow(i).get(0);
+
+                assertTrue(memberValues.add(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.io.flowcontrol.credit;
+
+import com.hazelcast.sql.impl.LoggingQueryOperationHandler;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.exec.io.flowcontrol.FlowControl;
+import com.hazelcast.sql.impl.exec.io.flowcontrol.simple.SimpleFlowControlFactory;
+import com.hazelcast.sql.impl.operation.QueryFlowControlExchangeOperation;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+
+/**
+ * Compares credit-based flow control with {@link com.hazelcast.sql.impl.exec.io.flowcontrol.simple.SimpleFlowControl} on a
+ * single exchange edge with a fast sender, a slow consumer and a fixed network latency.
+ * <p>
+ * The time is simulated, so the results depend only on the flow control logic, and not on the machine or the network.
+ */
+public final class CreditFlowControlBenchmark {
+
+    private static final long MAX_MEMORY = 512 * 1024;
+    private static final long BATCH_SIZE = 16 * 1024;
+
+    private static final long TICK = 10_000L;
+    private static final long DURATION = 1_000_000_000L;
+
+    private static final long[] LATENCIES = new long[] { 100_000L, 500_000L, 1_000_000L };
+    private static final double[] CONSUMER_RATES = new double[] { 0.1d, 0.5d, 2.0d };
+
+    private CreditFlowControlBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        System.out.println("latency(us)  consumer(MB/s)  flowControl  throughput(MB/s)  consumerIdle(%)  messages  maxQueue(KB)");
+
+        for (long latency : LATENCIES) {
+            for (double rate : CONSUMER_RATES) {
+                Simulation simple = new Simulation(latency, rate);
+                simple.run(SimpleFlowControlFactory.INSTANCE.create(MAX_MEMORY));
+                simple.print("simple");
+
+                Simulation credit = new Simulation(latency, rate);
+                credit.run(new CreditFlowControl(MAX_MEMORY, new CreditFlowControlMetrics(), credit::now));
+                credit.print("credit");
+            }
+        }
+    }
+
+    private static final class Simulation {
+
+        private final UUID senderId = UUID.randomUUID();
+        private final LoggingQueryOperationHandler operationHandler = new LoggingQueryOperationHandler();
+
+        private final long latency;
+        private final double consumerRate;
+
+        /** Batches travelling to the receiver: arrival time and remaining memory of the sender. */
+        private final ArrayDeque<long[]> batches = new ArrayDeque<>();
+
+        /** Credits travelling to the sender: arrival time and remaining memory. */
+        private final ArrayDeque<long[]> credits = new ArrayDeque<>();
+
+        private long now;
+
+        private long senderMemory = MAX_MEMORY;
+
+        private int queuedBatches;
+        private int maxQueuedBatches;
+        private double consumerBudget;
+        private long consumed;
+        private long consumerIdleTime;
+        private long messages;
+
+        private Simulation(long latency, double consumerRate) {
+            this.latency = latency;
+            this.consumerRate = consumerRate;
+        }
+
+        private long now() {
+            return now;
+        }
+
+        private void run(FlowControl flowControl) {
+            flowControl.setup(QueryId.create(UUID.randomUUID()), 1, UUID.randomUUID(), operationHandler);
+
+            for (now = TICK; now <= DURATION; now += TICK) {
+                while (!credits.isEmpty() && credits.peekFirst()[0] <= now) {
+                    senderMemory = credits.pollFirst()[1];
+                }
+
+                while (senderMemory >= BATCH_SIZE) {
+                    senderMemory -= BATCH_SIZE;
+
+                    batches.addLast(new long[] { now + latency, senderMemory });
+                }
+
+                while (!batches.isEmpty() && batches.peekFirst()[0] <= now) {
+                    flowControl.onBatchAdded(senderId, BATCH_SIZE, false, batches.pollFirst()[1]);
+
+                    queuedBatches++;
+                    maxQueuedBatches = Math.max(maxQueuedBatches, queuedBatches);
+                }
+
+                consumerBudget += consumerRate * TICK;
+
+                while (consumerBudget >= BATCH_SIZE && queuedBatches > 0) {
+                    flowControl.onBatchRemoved(senderId, BATCH_SIZE, false);
+
+                    queuedBatches--;
+                    consumerBudget -= BATCH_SIZE;
+                    consumed += BATCH_SIZE;
+                }
+
+                if (queuedBatches == 0) {
+                    if (consumerBudget >= BATCH_SIZE) {
+                        consumerIdleTime += TICK;
+                    }
+
+                    // The consumer cannot save up the time it spent waiting.
+                    consumerBudget = Math.min(consumerBudget, BATCH_SIZE);
+                }
+
+                flowControl.onFragmentExecutionCompleted();
+
+                LoggingQueryOperationHandler.SubmitInfo submitInfo;
+
+                while ((submitInfo = operationHandler.tryPollSubmitInfo()) != null) {
+                    QueryFlowControlExchangeOperation operation = submitInfo.getOperation();
+
+                    credits.addLast(new long[] { now + latency, operation.getRemainingMemory() });
+
+                    messages++;
+                }
+            }
+        }
+
+        private void print(String name) {
+            System.out.println(String.format(
+                "%11d  %14.0f  %11s  %16.1f  %15.1f  %8d  %12d",
+                latency / 1_000L,
+                consumerRate * 1_000,
+                name,
+                consumed * 1_000d / DURATION,
+                consumerIdleTime * 100d / DURATION,
+                messages,
+                maxQueuedBatches * BATCH_SIZE / 1024
+            ));
+        }
+    }
+}
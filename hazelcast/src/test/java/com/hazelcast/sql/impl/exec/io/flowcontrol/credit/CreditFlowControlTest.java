@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.io.flowcontrol.credit;
+
+import com.hazelcast.sql.SqlErrorCode;
+import com.hazelcast.sql.impl.FaultyQueryOperationHandler;
+import com.hazelcast.sql.impl.LoggingQueryOperationHandler;
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.operation.QueryFlowControlExchangeOperation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CreditFlowControlTest extends SqlTestSupport {
+
+    private static final long MAX_MEMORY = 1_000L;
+
+    private static final QueryId QUERY_ID = QueryId.create(UUID.randomUUID());
+    private static final int EDGE_ID = 1;
+
+    private final UUID memberId1 = UUID.randomUUID();
+    private final UUID memberId2 = UUID.randomUUID();
+
+    private final CreditFlowControlMetrics metrics = new CreditFlowControlMetrics();
+    private final LoggingQueryOperationHandler operationHandler = new LoggingQueryOperationHandler();
+
+    private long now = 1L;
+
+    @Test
+    public void testFactory() {
+        CreditFlowControlFactory factory = new CreditFlowControlFactory();
+
+        CreditFlowControl flowControl = (CreditFlowControl) factory.create(MAX_MEMORY);
+
+        assertEquals(MAX_MEMORY, flowControl.getMaxMemory());
+
+        flowControl.onBatchAdded(memberId1, 100L, false, MAX_MEMORY - 100L);
+        assertEquals(1L, factory.getMetrics().getBatchesInFlight());
+    }
+
+    @Test
+    public void testMinCredit() {
+        CreditFlowControl flowControl = create();
+
+        // Credit is too small.
+        flowControl.onBatchAdded(memberId1, 100L, false, 900L);
+        flowControl.onBatchRemoved(memberId1, 100L, false);
+        flowControl.onFragmentExecutionCompleted();
+        assertNull(operationHandler.tryPollSubmitInfo());
+
+        // Credit is big enough.
+        flowControl.onBatchAdded(memberId1, 100L, false, 800L);
+        assertEquals(1, flowControl.getBatchesInFlight());
+
+        flowControl.onBatchRemoved(memberId1, 100L, false);
+        assertEquals(0, flowControl.getBatchesInFlight());
+
+        flowControl.onFragmentExecutionCompleted();
+        checkOperation(memberId1, MAX_MEMORY);
+
+        assertEquals(1L, flowControl.getCreditMessages());
+        assertEquals(200L, flowControl.getCreditsGranted());
+        assertEquals(1L, metrics.getCreditMessages());
+        assertEquals(200L, metrics.getCreditsGranted());
+    }
+
+    @Test
+    public void testCreditBatching() {
+        CreditFlowControl flowControl = create();
+
+        flowControl.onBatchAdded(memberId1, 200L, false, 800L);
+        flowControl.onBatchAdded(memberId1, 200L, false, 600L);
+        flowControl.onBatchAdded(memberId1, 200L, false, 400L);
+        flowControl.onBatchAdded(memberId1, 200L, false, 200L);
+
+        // Credits of several batches are sent in a single message.
+        flowControl.onBatchRemoved(memberId1, 200L, false);
+        flowControl.onBatchRemoved(memberId1, 200L, false);
+        flowControl.onBatchRemoved(memberId1, 200L, false);
+        flowControl.onBatchRemoved(memberId1, 200L, false);
+        flowControl.onFragmentExecutionCompleted();
+        checkOperation(memberId1, MAX_MEMORY);
+        assertNull(operationHandler.tryPollSubmitInfo());
+
+        // The batch was sent before the credit arrived. The same memory is not granted again.
+        flowControl.onBatchAdded(memberId1, 100L, false, 100L);
+        flowControl.onBatchRemoved(memberId1, 100L, false);
+        flowControl.onFragmentExecutionCompleted();
+        assertNull(operationHandler.tryPollSubmitInfo());
+
+        // The batch was sent after the credit arrived.
+        flowControl.onBatchAdded(memberId1, 200L, false, 800L);
+        flowControl.onBatchRemoved(memberId1, 200L, false);
+        flowControl.onFragmentExecutionCompleted();
+        checkOperation(memberId1, MAX_MEMORY);
+
+        assertEquals(2L, flowControl.getCreditMessages());
+        assertEquals(1_000L, flowControl.getCreditsGranted());
+    }
+
+    @Test
+    public void testCreditWithSmallWindow() {
+        CreditFlowControl flowControl = create();
+
+        // Measure RTT = 1000ns.
+        now = 100L;
+        flowControl.onBatchAdded(memberId1, 600L, false, 400L);
+
+        now = 200L;
+        flowControl.onBatchRemoved(memberId1, 600L, false);
+
+        now = 300L;
+        flowControl.onFragmentExecutionCompleted();
+        checkOperation(memberId1, MAX_MEMORY);
+
+        now = 1_300L;
+        flowControl.onBatchAdded(memberId1, 100L, false, 900L);
+        flowControl.onBatchAdded(memberId1, 100L, false, 800L);
+
+        // Measure rate = 0.001 byte/ns.
+        now = 1_400L;
+        flowControl.onBatchRemoved(memberId1, 100L, false);
+
+        now = 101_400L;
+        flowControl.onBatchRemoved(memberId1, 100L, false);
+
+        // Sender has enough memory for the small window, so the credit is postponed.
+        flowControl.onFragmentExecutionCompleted();
+        assertNull(operationHandler.tryPollSubmitInfo());
+
+        // Sender is low on memory.
+        flowControl.onBatchAdded(memberId1, 800L, false, 0L);
+
+        now = 201_400L;
+        flowControl.onBatchRemoved(memberId1, 800L, false);
+        flowControl.onFragmentExecutionCompleted();
+        checkOperation(memberId1, MAX_MEMORY);
+    }
+
+    @Test
+    public void testLastBatch() {
+        CreditFlowControl flowControl = create();
+
+        flowControl.onBatchAdded(memberId1, 100L, false, 900L);
+        flowControl.onBatchAdded(memberId1, 800L, true, 100L);
+        flowControl.onBatchRemoved(memberId1, 100L, false);
+        flowControl.onBatchRemoved(memberId1, 800L, true);
+        flowControl.onFragmentExecutionCompleted();
+        assertNull(operationHandler.tryPollSubmitInfo());
+
+        assertEquals(0, flowControl.getBatchesInFlight());
+        assertEquals(0L, metrics.getBatchesInFlight());
+    }
+
+    @Test
+    public void testSeveralMembers() {
+        CreditFlowControl flowControl = create();
+
+        flowControl.onBatchAdded(memberId1, 800L, false, 200L);
+        flowControl.onBatchAdded(memberId2, 800L, false, 200L);
+
+        flowControl.onBatchRemoved(memberId1, 800L, false);
+        flowControl.onFragmentExecutionCompleted();
+        checkOperation(memberId1, MAX_MEMORY);
+
+        flowControl.onBatchRemoved(memberId2, 800L, false);
+        flowControl.onFragmentExecutionCompleted();
+        checkOperation(memberId2, MAX_MEMORY);
+    }
+
+    @Test
+    public void testWindow() {
+        CreditFlowControl flowControl = create();
+
+        CreditFlowControlStream stream = new CreditFlowControlStream(memberId1, MAX_MEMORY, MAX_MEMORY);
+
+        // Unknown rate and RTT.
+        assertEquals(MAX_MEMORY, flowControl.getWindow(stream));
+
+        // RTT = 1000ns, rate = 0.1 byte/ns.
+        measure(stream, 1_000L);
+        assertEquals(1_000L, stream.getRtt());
+        assertEquals(0.1d, stream.getRate(), 0.000001d);
+        assertEquals(200L, flowControl.getWindow(stream));
+
+        // RTT = 1000ns, rate = 0.001 byte/ns. Window could not be smaller than the minimum.
+        stream = new CreditFlowControlStream(memberId1, MAX_MEMORY, MAX_MEMORY);
+
+        measure(stream, 100_000L);
+        assertEquals((long) (MAX_MEMORY * CreditFlowControl.MIN_WINDOW_PERCENTAGE), flowControl.getWindow(stream));
+    }
+
+    /**
+     * Send the credit and consume a 100-byte batch in the given time. RTT is 1000ns.
+     */
+    private void measure(CreditFlowControlStream stream, long consumeTime) {
+        // Sender is out of memory, the credit is sent.
+        now = 100L;
+        stream.onBatchAdded(600L, 400L, now);
+
+        now = 200L;
+        stream.onBatchRemoved(600L, MAX_MEMORY, now);
+
+        now = 300L;
+        assertEquals(200L, stream.onCreditSent(MAX_MEMORY, now));
+        assertEquals(MAX_MEMORY, stream.getExpectedRemoteMemory());
+
+        // The batch sent after the credit is received.
+        now = 1_300L;
+        stream.onBatchAdded(100L, 900L, now);
+        assertEquals(900L, stream.getExpectedRemoteMemory());
+
+        stream.onBatchAdded(100L, 800L, now);
+
+        now = 1_400L;
+        stream.onBatchRemoved(100L, MAX_MEMORY, now);
+
+        now += consumeTime;
+        stream.onBatchRemoved(100L, MAX_MEMORY, now);
+    }
+
+    @Test
+    public void testStallTime() {
+        CreditFlowControl flowControl = create();
+
+        now = 100L;
+        flowControl.onBatchAdded(memberId1, 800L, false, 0L);
+
+        now = 200L;
+        flowControl.onBatchRemoved(memberId1, 800L, false);
+
+        now = 300L;
+        flowControl.onFragmentExecutionCompleted();
+        checkOperation(memberId1, MAX_MEMORY);
+
+        assertEquals(200L, flowControl.getStallTime());
+        assertEquals(200L, metrics.getStallTime());
+    }
+
+    @Test
+    public void testCannotSend() {
+        CreditFlowControl flowControl = new CreditFlowControl(MAX_MEMORY, metrics, () -> now);
+        flowControl.setup(QUERY_ID, EDGE_ID, UUID.randomUUID(), FaultyQueryOperationHandler.INSTANCE);
+
+        flowControl.onBatchAdded(memberId1, 800L, false, 200L);
+        flowControl.onBatchRemoved(memberId1, 800L, false);
+
+        QueryException error = assertThrows(QueryException.class, flowControl::onFragmentExecutionCompleted);
+        assertEquals(SqlErrorCode.MEMBER_CONNECTION, error.getCode());
+    }
+
+    private CreditFlowControl create() {
+        CreditFlowControl flowControl = new CreditFlowControl(MAX_MEMORY, metrics, () -> now);
+
+        flowControl.setup(QUERY_ID, EDGE_ID, UUID.randomUUID(), operationHandler);
+
+        return flowControl;
+    }
+
+    private void checkOperation(UUID memberId, long memory) {
+        LoggingQueryOperationHandler.SubmitInfo submit = operationHandler.tryPollSubmitInfo();
+        assertNotNull(submit);
+        assertEquals(memberId, submit.getMemberId());
+
+        QueryFlowControlExchangeOperation operation = submit.getOperation();
+        assertEquals(QUERY_ID, operation.getQueryId());
+        assertEquals(EDGE_ID, operation.getEdgeId());
+        assertEquals(memory, operation.getRemainingMemory());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.join;
+
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.UpstreamExec;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.row.ListRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the local hash join: the build side is consumed entirely, then the probe side is streamed
+ * through the hash table. Every probe row has exactly one match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HashJoinExecBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({"100000", "1000000"})
+    private int buildRowCount;
+
+    @Param({"1000000"})
+    private int probeRowCount;
+
+    private List<RowBatch> buildBatches;
+    private List<RowBatch> probeBatches;
+
+    @Setup
+    public void setup() {
+        buildBatches = createBatches(buildRowCount, buildRowCount);
+        probeBatches = createBatches(probeRowCount, buildRowCount);
+    }
+
+    @Benchmark
+    public long join() {
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+
+        addBatches(left, probeBatches);
+        addBatches(right, buildBatches);
+
+        HashJoinExec exec = new HashJoinExec(
+            3,
+            left,
+            right,
+            null,
+            new int[] { 0 },
+            new int[] { 0 },
+            false,
+            2,
+            0,
+            Long.MAX_VALUE,
+            SqlTestSupport.createSpillContext(Long.MAX_VALUE)
+        );
+
+        exec.setup(SqlTestSupport.emptyFragmentContext());
+
+        long res = 0;
+
+        while (true) {
+            IterationResult result = exec.advance();
+
+            if (result == IterationResult.WAIT) {
+                continue;
+            }
+
+            res += exec.currentBatch().getRowCount();
+
+            if (result == IterationResult.FETCHED_DONE) {
+                return res;
+            }
+        }
+    }
+
+    private static List<RowBatch> createBatches(int rowCount, int keyCount) {
+        List<RowBatch> res = new ArrayList<>();
+        List<Row> rows = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(HeapRow.of(i % keyCount, i));
+
+            if (rows.size() == BATCH_SIZE) {
+                res.add(new ListRowBatch(rows));
+                rows = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        res.add(new ListRowBatch(rows));
+
+        return res;
+    }
+
+    private static void addBatches(UpstreamExec upstream, List<RowBatch> batches) {
+        for (int i = 0; i < batches.size(); i++) {
+            boolean last = i == batches.size() - 1;
+
+            upstream.addResult(last ? IterationResult.FETCHED_DONE : IterationResult.FETCHED, batches.get(i));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(HashJoinExecBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .threads(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
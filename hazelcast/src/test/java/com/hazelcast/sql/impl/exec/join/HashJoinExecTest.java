@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.exec.join;
+
+import com.hazelcast.sql.SqlErrorCode;
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.UpstreamExec;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.exec.spill.SpillContext;
+import com.hazelcast.sql.impl.expression.ConstantPredicateExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.FunctionalPredicateExpression;
+import com.hazelcast.sql.impl.row.EmptyRowBatch;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.row.ListRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class HashJoinExecTest extends SqlTestSupport {
+
+    private static final int ROW_WIDTH = 10;
+
+    @Test
+    public void testInnerJoin() {
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+        HashJoinExec exec = create(left, right, null, false, Long.MAX_VALUE);
+
+        // Build side is not ready, the probe side must not be touched.
+        left.addResult(IterationResult.FETCHED_DONE, batch(row(1, "l1"), row(2, "l2"), row(3, "l3")));
+        assertEquals(IterationResult.WAIT, exec.advance());
+
+        right.addResult(IterationResult.FETCHED, batch(row(1, "r1"), row(2, "r2_1")));
+        assertEquals(IterationResult.WAIT, exec.advance());
+
+        right.addResult(IterationResult.FETCHED_DONE, batch(row(2, "r2_2"), row(4, "r4")));
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        List<Row> rows = rows(exec.currentBatch());
+        assertEquals(3, rows.size());
+        checkRow(rows.get(0), 1, "l1", 1, "r1");
+        checkRow(rows.get(1), 2, "l2", 2, "r2_1");
+        checkRow(rows.get(2), 2, "l2", 2, "r2_2");
+    }
+
+    @Test
+    public void testInnerJoinEmptyBuildSide() {
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+        HashJoinExec exec = create(left, right, null, false, Long.MAX_VALUE);
+
+        right.addResult(IterationResult.FETCHED_DONE, EmptyRowBatch.INSTANCE);
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        assertEquals(0, exec.currentBatch().getRowCount());
+    }
+
+    @Test
+    public void testOuterJoin() {
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+        HashJoinExec exec = create(left, right, null, true, Long.MAX_VALUE);
+
+        right.addResult(IterationResult.FETCHED_DONE, batch(row(1, "r1"), row(null, "r_null")));
+        left.addResult(IterationResult.FETCHED, batch(row(1, "l1"), row(2, "l2")));
+        left.addResult(IterationResult.FETCHED_DONE, batch(row(null, "l_null")));
+
+        // Both probe batches are accumulated into a single output batch.
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        List<Row> rows = rows(exec.currentBatch());
+        assertEquals(3, rows.size());
+        checkRow(rows.get(0), 1, "l1", 1, "r1");
+        checkRow(rows.get(1), 2, "l2", null, null);
+        checkRow(rows.get(2), null, "l_null", null, null);
+    }
+
+    @Test
+    public void testOuterJoinEmptyBuildSide() {
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+        HashJoinExec exec = create(left, right, null, true, Long.MAX_VALUE);
+
+        right.addResult(IterationResult.FETCHED_DONE, EmptyRowBatch.INSTANCE);
+        left.addResult(IterationResult.FETCHED_DONE, batch(row(1, "l1")));
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        List<Row> rows = rows(exec.currentBatch());
+        assertEquals(1, rows.size());
+        checkRow(rows.get(0), 1, "l1", null, null);
+    }
+
+    @Test
+    public void testCondition() {
+        Expression<Boolean> condition = new FunctionalPredicateExpression(row -> {
+            String rightValue = row.get(3);
+
+            return rightValue.endsWith("_2");
+        });
+
+        // Inner join: non-matching rows are filtered out.
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+        HashJoinExec exec = create(left, right, condition, false, Long.MAX_VALUE);
+
+        right.addResult(IterationResult.FETCHED_DONE, batch(row(1, "r1_1"), row(2, "r2_1"), row(2, "r2_2")));
+        left.addResult(IterationResult.FETCHED_DONE, batch(row(1, "l1"), row(2, "l2")));
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        List<Row> rows = rows(exec.currentBatch());
+        assertEquals(1, rows.size());
+        checkRow(rows.get(0), 2, "l2", 2, "r2_2");
+
+        // Outer join: left row is preserved if all matches are filtered out by the condition.
+        left = new UpstreamExec(1);
+        right = new UpstreamExec(2);
+        exec = create(left, right, condition, true, Long.MAX_VALUE);
+
+        right.addResult(IterationResult.FETCHED_DONE, batch(row(1, "r1_1"), row(2, "r2_1"), row(2, "r2_2")));
+        left.addResult(IterationResult.FETCHED_DONE, batch(row(1, "l1"), row(2, "l2")));
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        rows = rows(exec.currentBatch());
+        assertEquals(2, rows.size());
+        checkRow(rows.get(0), 1, "l1", null, null);
+        checkRow(rows.get(1), 2, "l2", 2, "r2_2");
+    }
+
+    @Test
+    public void testCompositeKey() {
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+
+        HashJoinExec exec = new HashJoinExec(
+            3,
+            left,
+            right,
+            new ConstantPredicateExpression(true),
+            new int[] { 0, 1 },
+            new int[] { 0, 1 },
+            false,
+            2,
+            ROW_WIDTH,
+            Long.MAX_VALUE,
+            createSpillContext(Long.MAX_VALUE)
+        );
+
+        exec.setup(emptyFragmentContext());
+
+        right.addResult(IterationResult.FETCHED_DONE, batch(row(1, "a"), row(1, "b"), row(1, null)));
+        left.addResult(IterationResult.FETCHED_DONE, batch(row(1, "b"), row(1, null), row(2, "a")));
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        List<Row> rows = rows(exec.currentBatch());
+        assertEquals(1, rows.size());
+        checkRow(rows.get(0), 1, "b", 1, "b");
+    }
+
+    @Test
+    public void testBatching() {
+        int matchCount = HashJoinExec.BATCH_SIZE + 10;
+
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+        HashJoinExec exec = create(left, right, null, false, Long.MAX_VALUE);
+
+        List<Row> rightRows = new ArrayList<>();
+
+        for (int i = 0; i < matchCount; i++) {
+            rightRows.add(row(1, "r" + i));
+        }
+
+        right.addResult(IterationResult.FETCHED_DONE, new ListRowBatch(rightRows));
+        left.addResult(IterationResult.FETCHED_DONE, batch(row(1, "l1")));
+
+        assertEquals(IterationResult.FETCHED, exec.advance());
+        assertEquals(HashJoinExec.BATCH_SIZE, exec.currentBatch().getRowCount());
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        assertEquals(10, exec.currentBatch().getRowCount());
+        checkRow(exec.currentBatch().getRow(9), 1, "l1", 1, "r" + (matchCount - 1));
+    }
+
+    @Test
+    public void testMemoryLimit() {
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+        HashJoinExec exec = create(left, right, null, false, ROW_WIDTH * 2);
+
+        right.addResult(IterationResult.FETCHED, batch(row(1, "r1"), row(2, "r2")));
+        assertEquals(IterationResult.WAIT, exec.advance());
+
+        right.addResult(IterationResult.FETCHED_DONE, batch(row(3, "r3")));
+
+        QueryException error = assertThrows(QueryException.class, exec::advance);
+        assertEquals(SqlErrorCode.MEMORY_LIMIT_EXCEEDED, error.getCode());
+    }
+
+    @Test
+    public void testQueryMemoryLimit() {
+        SpillContext spillContext = createSpillContext(ROW_WIDTH * 2);
+
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+        HashJoinExec exec = create(left, right, null, false, Long.MAX_VALUE, spillContext);
+
+        right.addResult(IterationResult.FETCHED_DONE, batch(row(1, "r1"), row(2, "r2"), row(3, "r3")));
+
+        QueryException error = assertThrows(QueryException.class, exec::advance);
+        assertEquals(SqlErrorCode.MEMORY_LIMIT_EXCEEDED, error.getCode());
+    }
+
+    @Test
+    public void testQueryMemoryReleased() {
+        SpillContext spillContext = createSpillContext(Long.MAX_VALUE);
+
+        UpstreamExec left = new UpstreamExec(1);
+        UpstreamExec right = new UpstreamExec(2);
+        HashJoinExec exec = create(left, right, null, false, Long.MAX_VALUE, spillContext);
+
+        right.addResult(IterationResult.FETCHED_DONE, batch(row(1, "r1")));
+        left.addResult(IterationResult.FETCHED, batch(row(1, "l1")));
+
+        assertEquals(IterationResult.WAIT, exec.advance());
+        assertTrue(spillContext.getReservedMemory() > 0);
+
+        left.addResult(IterationResult.FETCHED_DONE, batch(row(2, "l2")));
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        assertEquals(0, spillContext.getReservedMemory());
+    }
+
+    private static HashJoinExec create(
+        UpstreamExec left,
+        UpstreamExec right,
+        Expression<Boolean> condition,
+        boolean outer,
+        long memoryLimit
+    ) {
+        return create(left, right, condition, outer, memoryLimit, createSpillContext(Long.MAX_VALUE));
+    }
+
+    private static HashJoinExec create(
+        UpstreamExec left,
+        UpstreamExec right,
+        Expression<Boolean> condition,
+        boolean outer,
+        long memoryLimit,
+        SpillContext spillContext
+    ) {
+        HashJoinExec exec = new HashJoinExec(
+            3,
+            left,
+            right,
+            condition,
+            new int[] { 0 },
+            new int[] { 0 },
+            outer,
+            2,
+            ROW_WIDTH,
+            memoryLimit,
+            spillContext
+        );
+
+        exec.setup(emptyFragmentContext());
+
+        return exec;
+    }
+
+    private static Row row(Object key, Object value) {
+        return HeapRow.of(key, value);
+    }
+
+    private static RowBatch batch(Row... rows) {
+        return new ListRowBatch(Arrays.asList(rows));
+    }
+
+    private static List<Row> rows(RowBatch batch) {
+        List<Row> res = new ArrayList<>(batch.getRowCount());
+
+        for (int i = 0; i < batch.getRowCount(); i++) {
+            res.add(batch.getRow(i));
+        }
+
+        return res;
+    }
+
+    private static void checkRow(Row row, Object... values) {
+        assertEquals(values.length, row.getColumnCount());
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                assertNull(row.get(i));
+            } else {
+                assertEquals(values[i], row.get(i));
+            }
+        }
+
+        assertTrue(row.getColumnCount() > 0);
+    }
+}
@@ -24,6 +24,7 @@ import com.hazelcast.sql.impl.row.HeapRow;
 import com.hazelcast.sql.impl.row.ListRowBatch;
 import com.hazelcast.sql.impl.row.Row;
 import com.hazelcast.sql.impl.worker.QueryFragmentContext;
+import com.hazelcast.sql.impl.worker.QueryFragmentScheduleCallback;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -81,6 +82,44 @@ public class RootExecTest extends SqlTestSupport {
         assertTrue(consumer.isLast());
     }
 
+    @Test
+    public void testYield() {
+        UpstreamExec upstream = new UpstreamExec(1);
+        TestConsumer consumer = new TestConsumer();
+
+        RootExec exec = new RootExec(2, upstream, consumer, 8);
+
+        List<Integer> yieldRowCounts = new ArrayList<>();
+
+        QueryFragmentScheduleCallback scheduleCallback = new QueryFragmentScheduleCallback() {
+            @Override
+            public boolean schedule() {
+                return true;
+            }
+
+            @Override
+            public boolean shouldYield(int rowCount) {
+                yieldRowCounts.add(rowCount);
+
+                return true;
+            }
+        };
+
+        exec.setup(emptyFragmentContext(Collections.emptyList(), scheduleCallback));
+
+        upstream.addResult(IterationResult.FETCHED, createRows(8));
+        upstream.addResult(IterationResult.FETCHED_DONE, createRows(8));
+
+        // The consumer has free space, but the fragment yields after the first batch.
+        assertEquals(IterationResult.WAIT, exec.advance());
+        checkRows(consumer.pollRows(), 8, 0);
+        assertEquals(Collections.singletonList(8), yieldRowCounts);
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        checkRows(consumer.pollRows(), 8, 8);
+        assertEquals(Collections.singletonList(8), yieldRowCounts);
+    }
+
     @Test
     public void testCurrentBatch() {
         RootExec exec = new RootExec(2, new UpstreamExec(1), new TestConsumer(), 1000);
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.sort;
+
+import com.hazelcast.sql.SqlErrorCode;
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.UpstreamExec;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.exec.spill.SpillContext;
+import com.hazelcast.sql.impl.plan.node.SortPlanNode;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.row.ListRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SortExecTest extends SqlTestSupport {
+
+    private static final int ROW_WIDTH = 10;
+
+    @Test
+    public void testSort() {
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, SortPlanNode.NO_FETCH, Long.MAX_VALUE, true, false);
+
+        upstream.addResult(IterationResult.FETCHED, batch(row(2, "b"), row(null, "x"), row(1, "a")));
+        assertEquals(IterationResult.WAIT, exec.advance());
+        assertEquals(0, exec.currentBatch().getRowCount());
+
+        upstream.addResult(IterationResult.FETCHED_DONE, batch(row(2, "c"), row(1, null)));
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        checkRows(exec.currentBatch(), row(null, "x"), row(1, "a"), row(1, null), row(2, "c"), row(2, "b"));
+    }
+
+    @Test
+    public void testSortEmpty() {
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, SortPlanNode.NO_FETCH, Long.MAX_VALUE, true, true);
+
+        upstream.addResult(IterationResult.FETCHED_DONE, batch());
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        assertEquals(0, exec.currentBatch().getRowCount());
+    }
+
+    @Test
+    public void testBatching() {
+        int rowCount = SortExec.BATCH_SIZE + 10;
+
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, SortPlanNode.NO_FETCH, Long.MAX_VALUE, false, true);
+
+        upstream.addResult(IterationResult.FETCHED_DONE, shuffledBatch(rowCount));
+
+        assertEquals(IterationResult.FETCHED, exec.advance());
+        assertEquals(SortExec.BATCH_SIZE, exec.currentBatch().getRowCount());
+        assertEquals(rowCount - 1, (int) exec.currentBatch().getRow(0).get(0));
+
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        assertEquals(10, exec.currentBatch().getRowCount());
+        assertEquals(0, (int) exec.currentBatch().getRow(9).get(0));
+    }
+
+    @Test
+    public void testTopN() {
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, 3, Long.MAX_VALUE, true, true);
+
+        upstream.addResult(IterationResult.FETCHED, batch(row(5, "e"), row(3, "c"), row(4, "d")));
+        assertEquals(IterationResult.WAIT, exec.advance());
+
+        upstream.addResult(IterationResult.FETCHED_DONE, batch(row(1, "a"), row(6, "f"), row(2, "b")));
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        checkRows(exec.currentBatch(), row(1, "a"), row(2, "b"), row(3, "c"));
+    }
+
+    @Test
+    public void testTopNLessRowsThanFetch() {
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, 10, Long.MAX_VALUE, false, true);
+
+        upstream.addResult(IterationResult.FETCHED_DONE, batch(row(1, "a"), row(3, "c"), row(2, "b")));
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        checkRows(exec.currentBatch(), row(3, "c"), row(2, "b"), row(1, "a"));
+    }
+
+    @Test
+    public void testZeroFetch() {
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, 0, Long.MAX_VALUE, true, true);
+
+        // The upstream must not be touched.
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+        assertEquals(0, exec.currentBatch().getRowCount());
+    }
+
+    @Test
+    public void testMemoryLimit() {
+        // Not even a single row fits into memory.
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, SortPlanNode.NO_FETCH, ROW_WIDTH - 1, true, true);
+
+        upstream.addResult(IterationResult.FETCHED_DONE, batch(row(1, "a")));
+
+        QueryException error = assertThrows(QueryException.class, exec::advance);
+        assertEquals(SqlErrorCode.MEMORY_LIMIT_EXCEEDED, error.getCode());
+    }
+
+    @Test
+    public void testQueryMemoryLimit() {
+        SpillContext spillContext = createSpillContext(ROW_WIDTH - 1);
+
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, SortPlanNode.NO_FETCH, Long.MAX_VALUE, spillContext, true, true);
+
+        upstream.addResult(IterationResult.FETCHED_DONE, batch(row(1, "a")));
+
+        QueryException error = assertThrows(QueryException.class, exec::advance);
+        assertEquals(SqlErrorCode.MEMORY_LIMIT_EXCEEDED, error.getCode());
+    }
+
+    @Test
+    public void testSpill() {
+        SpillContext spillContext = createSpillContext(Long.MAX_VALUE);
+
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, SortPlanNode.NO_FETCH, ROW_WIDTH * 2, spillContext, true, false);
+
+        upstream.addResult(IterationResult.FETCHED, batch(row(2, "b"), row(null, "x"), row(1, "a")));
+        assertEquals(IterationResult.WAIT, exec.advance());
+        assertEquals(1, spillContext.getFileCount());
+
+        upstream.addResult(IterationResult.FETCHED_DONE, batch(row(2, "c"), row(1, null), row(3, "d")));
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        checkRows(exec.currentBatch(), row(null, "x"), row(1, "a"), row(1, null), row(2, "c"), row(2, "b"), row(3, "d"));
+
+        assertEquals(2, spillContext.getFileCount());
+        assertTrue(spillContext.getSpilledBytes() > 0);
+        assertEquals(0, spillContext.getReservedMemory());
+    }
+
+    @Test
+    public void testSpillBatching() {
+        int rowCount = SortExec.BATCH_SIZE * 3 + 10;
+
+        SpillContext spillContext = createSpillContext(Long.MAX_VALUE);
+
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, SortPlanNode.NO_FETCH, ROW_WIDTH * 100, spillContext, false, true);
+
+        upstream.addResult(IterationResult.FETCHED_DONE, shuffledBatch(rowCount));
+
+        List<Row> rows = new ArrayList<>(rowCount);
+
+        while (true) {
+            IterationResult res = exec.advance();
+
+            RowBatch batch = exec.currentBatch();
+
+            for (int i = 0; i < batch.getRowCount(); i++) {
+                rows.add(batch.getRow(i));
+            }
+
+            if (res == IterationResult.FETCHED_DONE) {
+                break;
+            }
+
+            assertEquals(IterationResult.FETCHED, res);
+            assertEquals(SortExec.BATCH_SIZE, exec.currentBatch().getRowCount());
+        }
+
+        assertEquals(rowCount, rows.size());
+
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals(rowCount - 1 - i, (int) rows.get(i).get(0));
+        }
+
+        assertTrue(spillContext.getFileCount() > 1);
+        assertEquals(0, spillContext.getReservedMemory());
+    }
+
+    @Test
+    public void testTopNSpill() {
+        // The heap doesn't fit into memory, so the operator falls back to runs of at most fetch rows.
+        SpillContext spillContext = createSpillContext(Long.MAX_VALUE);
+
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, 4, ROW_WIDTH * 2, spillContext, true, true);
+
+        upstream.addResult(IterationResult.FETCHED, batch(row(5, "e"), row(3, "c"), row(4, "d")));
+        assertEquals(IterationResult.WAIT, exec.advance());
+
+        upstream.addResult(IterationResult.FETCHED_DONE, batch(row(1, "a"), row(6, "f"), row(2, "b")));
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        checkRows(exec.currentBatch(), row(1, "a"), row(2, "b"), row(3, "c"), row(4, "d"));
+
+        assertTrue(spillContext.getFileCount() > 0);
+        assertEquals(0, spillContext.getReservedMemory());
+    }
+
+    @Test
+    public void testTopNMemoryLimit() {
+        // Only the retained rows are accounted.
+        UpstreamExec upstream = new UpstreamExec(1);
+        SortExec exec = create(upstream, 2, ROW_WIDTH * 2, true, true);
+
+        upstream.addResult(IterationResult.FETCHED_DONE, batch(row(3, "c"), row(1, "a"), row(2, "b")));
+        assertEquals(IterationResult.FETCHED_DONE, exec.advance());
+
+        checkRows(exec.currentBatch(), row(1, "a"), row(2, "b"));
+    }
+
+    private static SortExec create(UpstreamExec upstream, int fetch, long memoryLimit, boolean asc0, boolean asc1) {
+        return create(upstream, fetch, memoryLimit, createSpillContext(Long.MAX_VALUE), asc0, asc1);
+    }
+
+    private static SortExec create(
+        UpstreamExec upstream,
+        int fetch,
+        long memoryLimit,
+        SpillContext spillContext,
+        boolean asc0,
+        boolean asc1
+    ) {
+        SortKeyComparator comparator = new SortKeyComparator(new int[] { 0, 1 }, new boolean[] { asc0, asc1 });
+
+        SortExec exec = new SortExec(2, upstream, comparator, fetch, ROW_WIDTH, memoryLimit, spillContext);
+
+        exec.setup(emptyFragmentContext());
+
+        return exec;
+    }
+
+    private static ListRowBatch shuffledBatch(int rowCount) {
+        List<Row> rows = new ArrayList<>(rowCount);
+
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(row(i, "v"));
+        }
+
+        Collections.shuffle(rows);
+
+        return new ListRowBatch(rows);
+    }
+
+    private static Row row(Object key, Object value) {
+        return HeapRow.of(key, value);
+    }
+
+    private static ListRowBatch batch(Row... rows) {
+        return new ListRowBatch(Arrays.asList(rows));
+    }
+
+    private static void checkRows(RowBatch batch, Row... expectedRows) {
+        assertEquals(expectedRows.length, batch.getRowCount());
+
+        for (int i = 0; i < expectedRows.length; i++) {
+            assertEquals(expectedRows[i], batch.getRow(i));
+        }
+    }
+}
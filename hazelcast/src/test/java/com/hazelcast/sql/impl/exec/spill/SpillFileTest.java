@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.spill;
+
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SpillFileTest extends SqlTestSupport {
+
+    private SpillContext context;
+
+    @Before
+    public void before() {
+        context = createSpillContext(Long.MAX_VALUE);
+    }
+
+    @After
+    public void after() {
+        context.close();
+    }
+
+    @Test
+    public void testReadWrite() {
+        SpillFile file = context.createFile();
+
+        Row row1 = HeapRow.of(1, "a", null);
+        Row row2 = HeapRow.of(2L, null, new BigDecimal("1.5"));
+        Row row3 = HeapRow.of(null, true, 3.0d);
+
+        file.write(row1);
+        file.write(row2);
+        file.write(row3);
+        file.finishWrite();
+
+        assertEquals(3, file.getRowCount());
+        assertEquals(file.getFile().length(), file.getSize());
+        assertEquals(file.getSize(), context.getSpilledBytes());
+
+        SpillFile.Reader reader = file.openReader();
+
+        assertEquals(row1, reader.next());
+        assertEquals(row2, reader.next());
+        assertEquals(row3, reader.next());
+        assertNull(reader.next());
+
+        // Several readers could be opened for the same file.
+        assertEquals(row1, file.openReader().next());
+    }
+
+    @Test
+    public void testEmpty() {
+        SpillFile file = context.createFile();
+
+        file.finishWrite();
+
+        assertEquals(0, file.getSize());
+        assertNull(file.openReader().next());
+    }
+
+    @Test
+    public void testRowsSpanningBuffers() {
+        char[] chars = new char[SpillFile.BUFFER_SIZE];
+        Arrays.fill(chars, 'x');
+
+        String large = new String(chars);
+        int rowCount = 100;
+
+        SpillFile file = context.createFile();
+
+        for (int i = 0; i < rowCount; i++) {
+            file.write(HeapRow.of(i, i % 10 == 0 ? large : "v" + i));
+        }
+
+        file.finishWrite();
+
+        assertTrue(file.getSize() > SpillFile.BUFFER_SIZE * 2);
+
+        SpillFile.Reader reader = file.openReader();
+
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals(HeapRow.of(i, i % 10 == 0 ? large : "v" + i), reader.next());
+        }
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testInterleavedReaders() {
+        int rowCount = 10;
+
+        SpillFile file = context.createFile();
+
+        for (int i = 0; i < rowCount; i++) {
+            file.write(HeapRow.of(i));
+        }
+
+        file.finishWrite();
+
+        // The second reader gets its own buffer while the first one holds the buffer of the file.
+        SpillFile.Reader reader1 = file.openReader();
+        SpillFile.Reader reader2 = file.openReader();
+
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals(HeapRow.of(i), reader1.next());
+            assertEquals(HeapRow.of(i), reader2.next());
+        }
+
+        assertNull(reader1.next());
+        assertNull(reader2.next());
+
+        // The buffer is returned once all rows are read, so it could be lent again.
+        SpillFile.Reader reader3 = file.openReader();
+
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals(HeapRow.of(i), reader3.next());
+        }
+
+        assertNull(reader3.next());
+    }
+
+    @Test
+    public void testDelete() {
+        SpillFile file = context.createFile();
+
+        file.write(HeapRow.of(1));
+        file.finishWrite();
+
+        assertTrue(file.getFile().exists());
+
+        file.delete();
+        assertFalse(file.getFile().exists());
+
+        // Repeated deletion is a no-op.
+        file.delete();
+    }
+}
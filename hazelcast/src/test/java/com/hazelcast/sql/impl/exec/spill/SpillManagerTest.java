@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.exec.spill;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SpillManagerTest extends SqlTestSupport {
+
+    private static final long QUERY_MEMORY_LIMIT = 100;
+
+    @Test
+    public void testReserve() {
+        SpillContext context = createManager().getOrCreateContext(QueryId.create(UUID.randomUUID()));
+
+        assertEquals(QUERY_MEMORY_LIMIT, context.getMemoryLimit());
+
+        assertTrue(context.tryReserve(60));
+        assertFalse(context.tryReserve(50));
+        assertTrue(context.tryReserve(40));
+        assertEquals(100, context.getReservedMemory());
+
+        context.release(30);
+        assertEquals(70, context.getReservedMemory());
+        assertTrue(context.tryReserve(30));
+    }
+
+    @Test
+    public void testContexts() {
+        SpillManager manager = createManager();
+
+        QueryId queryId1 = QueryId.create(UUID.randomUUID());
+        QueryId queryId2 = QueryId.create(UUID.randomUUID());
+
+        SpillContext context1 = manager.getOrCreateContext(queryId1);
+        SpillContext context2 = manager.getOrCreateContext(queryId2);
+
+        assertSame(context1, manager.getOrCreateContext(queryId1));
+        assertNotSame(context1, context2);
+
+        manager.onQueryCompleted(queryId1);
+        assertNull(manager.getContext(queryId1));
+        assertSame(context2, manager.getContext(queryId2));
+
+        // Unknown queries are ignored.
+        manager.onQueryCompleted(queryId1);
+
+        manager.reset();
+        assertNull(manager.getContext(queryId2));
+    }
+
+    @Test
+    public void testQueryCompletion() {
+        SpillManager manager = createManager();
+        QueryId queryId = QueryId.create(UUID.randomUUID());
+
+        SpillContext context = manager.getOrCreateContext(queryId);
+
+        SpillFile file1 = writeFile(context);
+        SpillFile file2 = writeFile(context);
+
+        file1.delete();
+
+        manager.onQueryCompleted(queryId);
+
+        assertFalse(file1.getFile().exists());
+        assertFalse(file2.getFile().exists());
+
+        assertThrows(QueryException.class, context::createFile);
+    }
+
+    @Test
+    public void testMetrics() {
+        SpillManager manager = createManager();
+
+        SpillContext context1 = manager.getOrCreateContext(QueryId.create(UUID.randomUUID()));
+        SpillContext context2 = manager.getOrCreateContext(QueryId.create(UUID.randomUUID()));
+
+        SpillFile file1 = writeFile(context1);
+        SpillFile file2 = writeFile(context1);
+        SpillFile file3 = writeFile(context2);
+
+        assertEquals(2, context1.getFileCount());
+        assertEquals(file1.getSize() + file2.getSize(), context1.getSpilledBytes());
+        assertEquals(file3.getSize(), context2.getSpilledBytes());
+
+        SpillMetrics metrics = manager.getMetrics();
+
+        assertEquals(3, metrics.getFilesCreated());
+        assertEquals(2, metrics.getQueriesSpilled());
+        assertEquals(file1.getSize() + file2.getSize() + file3.getSize(), metrics.getBytesSpilled());
+
+        manager.reset();
+    }
+
+    private static SpillManager createManager() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+        return new SpillManager(null, ss, QUERY_MEMORY_LIMIT, Logger.getLogger(SpillManager.class));
+    }
+
+    private static SpillFile writeFile(SpillContext context) {
+        SpillFile file = context.createFile();
+
+        file.write(HeapRow.of(1, "a"));
+        file.finishWrite();
+
+        return file;
+    }
+}
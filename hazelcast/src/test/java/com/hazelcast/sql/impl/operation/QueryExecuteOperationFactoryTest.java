@@ -16,6 +16,9 @@
 
 package com.hazelcast.sql.impl.operation;
 
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.sql.impl.QueryId;
 import com.hazelcast.sql.impl.plan.Plan;
@@ -40,6 +43,7 @@ import java.util.UUID;
 import static com.hazelcast.sql.impl.operation.QueryExecuteOperationFragmentMapping.DATA_MEMBERS;
 import static com.hazelcast.sql.impl.operation.QueryExecuteOperationFragmentMapping.EXPLICIT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -79,7 +83,10 @@ public class QueryExecuteOperationFactoryTest {
         List<Object> args = Collections.singletonList(1);
         Map<Integer, Long> edgeInitialMemoryMap = Collections.singletonMap(1, 1000L);
 
-        QueryExecuteOperationFactory factory = new QueryExecuteOperationFactory(plan, args, edgeInitialMemoryMap);
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+        QueryExecuteOperationFactory factory =
+            new QueryExecuteOperationFactory(plan, args, edgeInitialMemoryMap, member1, ss);
 
         QueryExecuteOperation operation1 = factory.create(queryId, member1);
         QueryExecuteOperation operation2 = factory.create(queryId, member2);
@@ -102,5 +109,21 @@ public class QueryExecuteOperationFactoryTest {
         Collection<UUID> expectedMemberIds = Collections.singletonList(member2);
         assertEquals(operation1.getFragments().get(1), new QueryExecuteOperationFragment(null, EXPLICIT, expectedMemberIds));
         assertEquals(operation2.getFragments().get(1), new QueryExecuteOperationFragment(node2, EXPLICIT, expectedMemberIds));
+
+        // Fragments are serialized only for remote members.
+        assertNull(operation1.getFragments().get(0).getNodeData());
+        assertNull(operation1.getFragments().get(1).getNodeData());
+
+        Data nodeData1 = operation2.getFragments().get(0).getNodeData();
+        Data nodeData2 = operation2.getFragments().get(1).getNodeData();
+
+        assertEquals(node1, ss.toObject(nodeData1));
+        assertEquals(node2, ss.toObject(nodeData2));
+
+        // The serialized form is reused.
+        QueryExecuteOperation operation3 = factory.create(QueryId.create(UUID.randomUUID()), member2);
+
+        assertSame(nodeData1, operation3.getFragments().get(0).getNodeData());
+        assertSame(nodeData2, operation3.getFragments().get(1).getNodeData());
     }
 }
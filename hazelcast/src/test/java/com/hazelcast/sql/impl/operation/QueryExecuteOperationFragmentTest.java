@@ -16,6 +16,8 @@
 
 package com.hazelcast.sql.impl.operation;
 
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.sql.impl.SqlDataSerializerHook;
 import com.hazelcast.sql.impl.SqlTestSupport;
 import com.hazelcast.sql.impl.plan.node.MockPlanNode;
@@ -34,6 +36,7 @@ import java.util.UUID;
 
 import static com.hazelcast.sql.impl.operation.QueryExecuteOperationFragmentMapping.EXPLICIT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -63,4 +66,24 @@ public class QueryExecuteOperationFragmentTest extends SqlTestSupport {
         assertEquals(original.getMapping(), restored.getMapping());
         assertEquals(original.getMemberIds(), restored.getMemberIds());
     }
+
+    @Test
+    public void testSerializationWithNodeData() {
+        PlanNode node = MockPlanNode.create(1, QueryDataType.INT);
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+        QueryExecuteOperationFragment original = new QueryExecuteOperationFragment(
+            node,
+            ss.toData(node),
+            EXPLICIT,
+            Arrays.asList(UUID.randomUUID(), UUID.randomUUID())
+        );
+
+        QueryExecuteOperationFragment restored = serializeAndCheck(original, SqlDataSerializerHook.OPERATION_EXECUTE_FRAGMENT);
+
+        assertEquals(node, restored.getNode());
+        assertNull(restored.getNodeData());
+        assertEquals(original.getMapping(), restored.getMapping());
+        assertEquals(original.getMemberIds(), restored.getMemberIds());
+    }
 }
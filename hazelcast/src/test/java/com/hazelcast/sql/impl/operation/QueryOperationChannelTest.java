@@ -19,14 +19,18 @@ package com.hazelcast.sql.impl.operation;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.nio.Connection;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
 import com.hazelcast.sql.impl.NodeServiceProvider;
 import com.hazelcast.sql.impl.QueryId;
 import com.hazelcast.sql.impl.SqlTestSupport;
 import com.hazelcast.sql.impl.TestClockProvider;
 import com.hazelcast.sql.impl.exec.io.flowcontrol.simple.SimpleFlowControlFactory;
+import com.hazelcast.sql.impl.exec.spill.SpillManager;
 import com.hazelcast.sql.impl.state.QueryStateRegistry;
+import com.hazelcast.sql.impl.worker.QueryFragmentWorkerPool;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -61,14 +65,18 @@ public class QueryOperationChannelTest extends SqlTestSupport {
         TestConnection connection = new TestConnection();
         TestNodeServiceProvider serviceProvider = new TestNodeServiceProvider(connection);
 
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
         operationHandler = new QueryOperationHandlerImpl(
             "test",
             serviceProvider,
-            new DefaultSerializationServiceBuilder().build(),
+            serializationService,
             new QueryStateRegistry(TestClockProvider.createDefault()),
             1000,
+            Long.MAX_VALUE,
             SimpleFlowControlFactory.INSTANCE,
-            1,
+            new SpillManager(null, serializationService, Long.MAX_VALUE, serviceProvider.getLogger(SpillManager.class)),
+            new QueryFragmentWorkerPool("test", 1, Long.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE, Logger.getLogger(getClass())),
             1
         );
 
@@ -108,6 +116,11 @@ public class QueryOperationChannelTest extends SqlTestSupport {
             return null;
         }
 
+        @Override
+        public int getPartitionStateVersion() {
+            return 0;
+        }
+
         @Override
         public long currentTimeMillis() {
             return 0;
@@ -43,6 +43,7 @@ import com.hazelcast.sql.impl.row.ListRowBatch;
 import com.hazelcast.sql.impl.row.Row;
 import com.hazelcast.sql.impl.row.RowBatch;
 import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.sql.impl.worker.QueryFragmentWorkerPool;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -592,8 +593,18 @@ public class QueryOperationHandlerTest extends SqlTestSupport {
             nodeServiceProvider,
             serializationService,
             Runtime.getRuntime().availableProcessors(),
-            Runtime.getRuntime().availableProcessors(),
+            new QueryFragmentWorkerPool(
+                instanceName,
+                Runtime.getRuntime().availableProcessors(),
+                Long.MAX_VALUE,
+                Integer.MAX_VALUE,
+                Long.MAX_VALUE,
+                nodeServiceProvider.getLogger(QueryFragmentWorkerPool.class)
+            ),
             1000,
+            Long.MAX_VALUE,
+            Long.MAX_VALUE,
+            null,
             stateCheckFrequency
         );
 
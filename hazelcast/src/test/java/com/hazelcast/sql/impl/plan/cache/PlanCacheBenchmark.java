@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.cache;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.util.collection.PartitionIdSet;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.operation.QueryExecuteOperation;
+import com.hazelcast.sql.impl.operation.QueryExecuteOperationFactory;
+import com.hazelcast.sql.impl.plan.Plan;
+import com.hazelcast.sql.impl.plan.PlanFragmentMapping;
+import com.hazelcast.sql.impl.plan.node.MockPlanNode;
+import com.hazelcast.sql.impl.plan.node.PlanNode;
+import com.hazelcast.sql.impl.plan.node.ProjectPlanNode;
+import com.hazelcast.sql.impl.plan.node.RootPlanNode;
+import com.hazelcast.sql.impl.plan.node.io.ReceivePlanNode;
+import com.hazelcast.sql.impl.plan.node.io.UnicastSendPlanNode;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the member-side latency of a repeated point query: the plan is resolved, then the execute operations are
+ * created and serialized for every member. With the cache the plan is reused together with its serialized fragments,
+ * without the cache every submission creates a new plan which has to be serialized again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlanCacheBenchmark {
+
+    private static final String SQL = "SELECT a, b, c FROM t WHERE __key = ?";
+    private static final int MEMBER_COUNT = 4;
+    private static final int FIELD_COUNT = 16;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final List<UUID> memberIds = new ArrayList<>();
+    private final PlanCache planCache = new PlanCache(1000);
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            memberIds.add(UUID.randomUUID());
+        }
+
+        planCache.put(PlanCacheKey.create(SQL, Collections.singletonList(1)), createPlan(), 0, 0);
+    }
+
+    @Benchmark
+    public long cached() {
+        Plan plan = planCache.get(PlanCacheKey.create(SQL, Collections.singletonList(1)), 0);
+
+        return execute(plan);
+    }
+
+    @Benchmark
+    public long uncached() {
+        return execute(createPlan());
+    }
+
+    private long execute(Plan plan) {
+        UUID localMemberId = memberIds.get(0);
+
+        QueryExecuteOperationFactory factory = new QueryExecuteOperationFactory(
+            plan,
+            Collections.singletonList(1),
+            Collections.emptyMap(),
+            localMemberId,
+            serializationService
+        );
+
+        QueryId queryId = QueryId.create(localMemberId);
+
+        long res = 0;
+
+        for (UUID memberId : memberIds) {
+            QueryExecuteOperation operation = factory.create(queryId, memberId);
+
+            if (!memberId.equals(localMemberId)) {
+                res += serializationService.toData(operation).totalSize();
+            }
+        }
+
+        return res;
+    }
+
+    private Plan createPlan() {
+        List<QueryDataType> types = new ArrayList<>(FIELD_COUNT);
+        List<Expression> projects = new ArrayList<>(FIELD_COUNT);
+
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            types.add(QueryDataType.VARCHAR);
+            projects.add(ColumnExpression.create(i, QueryDataType.VARCHAR));
+        }
+
+        PlanNode rootFragment = new RootPlanNode(1, new ReceivePlanNode(2, 1, types));
+
+        PlanNode dataFragment = new UnicastSendPlanNode(
+            3,
+            new ProjectPlanNode(4, MockPlanNode.create(5, types.toArray(new QueryDataType[0])), projects),
+            1,
+            Collections.singletonList(0)
+        );
+
+        Map<UUID, PartitionIdSet> partitionMap = new HashMap<>();
+
+        for (UUID memberId : memberIds) {
+            partitionMap.put(memberId, new PartitionIdSet(271));
+        }
+
+        return new Plan(
+            partitionMap,
+            Arrays.asList(rootFragment, dataFragment),
+            Arrays.asList(
+                new PlanFragmentMapping(Collections.singletonList(memberIds.get(0)), false),
+                new PlanFragmentMapping(null, true)
+            ),
+            Collections.singletonMap(1, 1),
+            Collections.singletonMap(1, 0),
+            Collections.singletonMap(1, MEMBER_COUNT)
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(PlanCacheBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .threads(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
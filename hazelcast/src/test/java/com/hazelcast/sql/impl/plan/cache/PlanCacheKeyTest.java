@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.cache;
+
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PlanCacheKeyTest extends SqlTestSupport {
+    @Test
+    public void testNormalize() {
+        assertEquals("SELECT a FROM t", PlanCacheKey.normalize("  SELECT  a\n\tFROM t \n"));
+        assertEquals("SELECT a FROM t WHERE b = 'x  y'", PlanCacheKey.normalize("SELECT a\n FROM t WHERE b =  'x  y'"));
+        assertEquals("SELECT \"a  b\" FROM t", PlanCacheKey.normalize("SELECT   \"a  b\"   FROM t"));
+        assertEquals("", PlanCacheKey.normalize(" \n "));
+    }
+
+    @Test
+    public void testCreate() {
+        PlanCacheKey key = PlanCacheKey.create("SELECT  a FROM t WHERE b = ?", Arrays.asList(1, null));
+
+        assertEquals("SELECT a FROM t WHERE b = ?", key.getSql());
+        assertEquals(Arrays.asList(QueryDataType.INT, QueryDataType.LATE), key.getParameterTypes());
+    }
+
+    @Test
+    public void testEquals() {
+        String sql = "SELECT a FROM t WHERE b = ?";
+
+        checkEquals(
+            PlanCacheKey.create(sql, Collections.singletonList(1)),
+            PlanCacheKey.create(sql + " ", Collections.singletonList(2)),
+            true
+        );
+
+        checkEquals(
+            PlanCacheKey.create(sql, Collections.singletonList(1)),
+            PlanCacheKey.create(sql, Collections.singletonList("1")),
+            false
+        );
+
+        checkEquals(
+            PlanCacheKey.create(sql, Collections.singletonList(1)),
+            PlanCacheKey.create("SELECT a FROM t WHERE c = ?", Collections.singletonList(1)),
+            false
+        );
+    }
+}
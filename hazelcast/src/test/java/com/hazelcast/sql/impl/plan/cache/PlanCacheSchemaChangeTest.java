@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.cache;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.sql.impl.SqlInternalService;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.plan.Plan;
+import com.hazelcast.sql.impl.plan.PlanFragmentMapping;
+import com.hazelcast.sql.impl.plan.node.MockPlanNode;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PlanCacheSchemaChangeTest extends SqlTestSupport {
+
+    private static final String SQL = "SELECT * FROM map WHERE this = ?";
+
+    private HazelcastInstance instance;
+    private SqlInternalService service;
+    private final AtomicInteger plansCreated = new AtomicInteger();
+
+    @Before
+    public void before() {
+        instance = createHazelcastInstance();
+        service = getNodeEngineImpl(instance).getSqlService().getInternalService();
+    }
+
+    @Test
+    public void testIndexAdded() {
+        IMap<Integer, Integer> map = instance.getMap("map");
+        map.put(1, 1);
+
+        getOrCreatePlan();
+        getOrCreatePlan();
+        assertEquals(1, plansCreated.get());
+
+        map.addIndex(IndexType.SORTED, "this");
+
+        getOrCreatePlan();
+        assertEquals(2, plansCreated.get());
+    }
+
+    @Test
+    public void testIndexAdded_invalidatesOnce() {
+        IMap<Integer, Integer> map = instance.getMap("map");
+        map.put(1, 1);
+        int schemaVersion = service.getPlanCache().getSchemaVersion();
+
+        // the index is added to every partition, but the schema changes once
+        map.addIndex(IndexType.SORTED, "this");
+        assertEquals(schemaVersion + 1, service.getPlanCache().getSchemaVersion());
+
+        map.addIndex(IndexType.SORTED, "this");
+        assertEquals(schemaVersion + 1, service.getPlanCache().getSchemaVersion());
+    }
+
+    @Test
+    public void testMapCreatedAndDestroyed() {
+        getOrCreatePlan();
+
+        IMap<Integer, Integer> map = instance.getMap("map");
+        map.put(1, 1);
+
+        getOrCreatePlan();
+        assertEquals(2, plansCreated.get());
+
+        map.destroy();
+
+        getOrCreatePlan();
+        assertEquals(3, plansCreated.get());
+    }
+
+    private void getOrCreatePlan() {
+        Supplier<Plan> planSupplier = () -> {
+            plansCreated.incrementAndGet();
+
+            return new Plan(
+                Collections.emptyMap(),
+                Collections.singletonList(new MockPlanNode()),
+                Collections.singletonList(new PlanFragmentMapping(Collections.emptyList(), true)),
+                Collections.emptyMap(),
+                Collections.emptyMap(),
+                Collections.emptyMap()
+            );
+        };
+
+        service.getOrCreatePlan(SQL, Collections.singletonList(1), planSupplier);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.cache;
+
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.plan.Plan;
+import com.hazelcast.sql.impl.plan.PlanFragmentMapping;
+import com.hazelcast.sql.impl.plan.node.MockPlanNode;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PlanCacheTest extends SqlTestSupport {
+    @Test
+    public void testHitMiss() {
+        PlanCache cache = new PlanCache(10);
+
+        PlanCacheKey key = key(1);
+        Plan plan = plan();
+
+        assertNull(cache.get(key, 1));
+        assertEquals(0, cache.getMetrics().getHits());
+        assertEquals(1, cache.getMetrics().getMisses());
+
+        cache.put(key, plan, 1, 0);
+        assertEquals(1, cache.size());
+
+        assertSame(plan, cache.get(key, 1));
+        assertSame(plan, cache.get(key(1), 1));
+        assertEquals(2, cache.getMetrics().getHits());
+        assertEquals(1, cache.getMetrics().getMisses());
+
+        assertNull(cache.get(key(2), 1));
+        assertEquals(2, cache.getMetrics().getMisses());
+    }
+
+    @Test
+    public void testPartitionStateVersionChange() {
+        PlanCache cache = new PlanCache(10);
+
+        PlanCacheKey key = key(1);
+
+        cache.put(key, plan(), 1, 0);
+
+        assertNull(cache.get(key, 2));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getMetrics().getMisses());
+        assertEquals(1, cache.getMetrics().getInvalidations());
+
+        // The entry is gone, so the old version doesn't match either.
+        assertNull(cache.get(key, 1));
+        assertEquals(1, cache.getMetrics().getInvalidations());
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        PlanCache cache = new PlanCache(10);
+
+        cache.put(key(1), plan(), 1, 0);
+        cache.put(key(2), plan(), 1, 0);
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMetrics().getInvalidations());
+        assertNull(cache.get(key(1), 1));
+        assertNull(cache.get(key(2), 1));
+        assertEquals(1, cache.getSchemaVersion());
+    }
+
+    @Test
+    public void testSchemaChangeDuringPlanning() {
+        PlanCache cache = new PlanCache(10);
+
+        int schemaVersion = cache.getSchemaVersion();
+
+        cache.invalidateAll();
+        cache.put(key(1), plan(), 1, schemaVersion);
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get(key(1), 1));
+    }
+
+    @Test
+    public void testEviction() {
+        PlanCache cache = new PlanCache(10);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put(key(i), plan(), 1, 0);
+
+            sleepMillis(1);
+        }
+
+        assertEquals(10, cache.size());
+        assertEquals(0, cache.getMetrics().getEvictions());
+
+        // Touch the oldest entry, so that it is not evicted.
+        assertNotNull(cache.get(key(0), 1));
+        sleepMillis(1);
+
+        cache.put(key(10), plan(), 1, 0);
+
+        assertEquals(9, cache.size());
+        assertEquals(2, cache.getMetrics().getEvictions());
+
+        assertNotNull(cache.get(key(0), 1));
+        assertNull(cache.get(key(1), 1));
+        assertNull(cache.get(key(2), 1));
+
+        for (int i = 3; i <= 10; i++) {
+            assertNotNull(cache.get(key(i), 1));
+        }
+    }
+
+    private static PlanCacheKey key(int id) {
+        return PlanCacheKey.create("SELECT * FROM t WHERE id = " + id, Collections.emptyList());
+    }
+
+    private static Plan plan() {
+        return new Plan(
+            Collections.emptyMap(),
+            Collections.singletonList(new MockPlanNode()),
+            Collections.singletonList(new PlanFragmentMapping(Collections.emptyList(), true)),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptyMap()
+        );
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.plan.node;
+
+import com.hazelcast.sql.impl.SqlDataSerializerHook;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.expression.ConstantPredicateExpression;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class HashJoinPlanNodeTest extends SqlTestSupport {
+    @Test
+    public void testState() {
+        MockPlanNode left = MockPlanNode.create(1, QueryDataType.INT, QueryDataType.VARCHAR);
+        MockPlanNode right = MockPlanNode.create(2, QueryDataType.BIGINT);
+        ConstantPredicateExpression condition = new ConstantPredicateExpression(true);
+        List<Integer> leftHashKeys = Collections.singletonList(0);
+        List<Integer> rightHashKeys = Collections.singletonList(0);
+
+        HashJoinPlanNode node = new HashJoinPlanNode(3, left, right, condition, leftHashKeys, rightHashKeys, true);
+
+        assertEquals(3, node.getId());
+        assertEquals(left, node.getLeft());
+        assertEquals(right, node.getRight());
+        assertEquals(condition, node.getCondition());
+        assertEquals(leftHashKeys, node.getLeftHashKeys());
+        assertEquals(rightHashKeys, node.getRightHashKeys());
+        assertTrue(node.isOuter());
+        assertEquals(
+            Arrays.asList(QueryDataType.INT, QueryDataType.VARCHAR, QueryDataType.BIGINT),
+            node.getSchema().getTypes()
+        );
+
+        node = new HashJoinPlanNode(3, left, right, null, leftHashKeys, rightHashKeys, false);
+
+        assertNull(node.getCondition());
+        assertFalse(node.isOuter());
+    }
+
+    @Test
+    public void testEquality() {
+        int id1 = 1;
+        int id2 = 2;
+
+        MockPlanNode left1 = MockPlanNode.create(3, QueryDataType.INT);
+        MockPlanNode left2 = MockPlanNode.create(3, QueryDataType.BIGINT);
+        MockPlanNode right1 = MockPlanNode.create(4, QueryDataType.INT);
+        MockPlanNode right2 = MockPlanNode.create(4, QueryDataType.BIGINT);
+
+        ConstantPredicateExpression condition1 = new ConstantPredicateExpression(true);
+        ConstantPredicateExpression condition2 = new ConstantPredicateExpression(false);
+
+        List<Integer> keys1 = Collections.singletonList(0);
+        List<Integer> keys2 = Collections.singletonList(1);
+
+        HashJoinPlanNode node = new HashJoinPlanNode(id1, left1, right1, condition1, keys1, keys1, false);
+
+        checkEquals(node, new HashJoinPlanNode(id1, left1, right1, condition1, keys1, keys1, false), true);
+        checkEquals(node, new HashJoinPlanNode(id2, left1, right1, condition1, keys1, keys1, false), false);
+        checkEquals(node, new HashJoinPlanNode(id1, left2, right1, condition1, keys1, keys1, false), false);
+        checkEquals(node, new HashJoinPlanNode(id1, left1, right2, condition1, keys1, keys1, false), false);
+        checkEquals(node, new HashJoinPlanNode(id1, left1, right1, condition2, keys1, keys1, false), false);
+        checkEquals(node, new HashJoinPlanNode(id1, left1, right1, null, keys1, keys1, false), false);
+        checkEquals(node, new HashJoinPlanNode(id1, left1, right1, condition1, keys2, keys1, false), false);
+        checkEquals(node, new HashJoinPlanNode(id1, left1, right1, condition1, keys1, keys2, false), false);
+        checkEquals(node, new HashJoinPlanNode(id1, left1, right1, condition1, keys1, keys1, true), false);
+    }
+
+    @Test
+    public void testSerialization() {
+        MockPlanNode left = MockPlanNode.create(1, QueryDataType.INT);
+        MockPlanNode right = MockPlanNode.create(2, QueryDataType.INT);
+        List<Integer> keys = Collections.singletonList(0);
+
+        HashJoinPlanNode original = new HashJoinPlanNode(3, left, right, new ConstantPredicateExpression(true), keys, keys, true);
+        HashJoinPlanNode restored = serializeAndCheck(original, SqlDataSerializerHook.NODE_HASH_JOIN);
+
+        checkEquals(original, restored, true);
+
+        original = new HashJoinPlanNode(3, left, right, null, keys, keys, false);
+        restored = serializeAndCheck(original, SqlDataSerializerHook.NODE_HASH_JOIN);
+
+        checkEquals(original, restored, true);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.plan.node.io;
+
+import com.hazelcast.sql.impl.SqlDataSerializerHook;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.plan.node.PlanNodeSchema;
+import com.hazelcast.sql.impl.plan.node.SortPlanNode;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MergeSortReceivePlanNodeTest extends SqlTestSupport {
+    @Test
+    public void testState() {
+        int id = 1;
+        int edgeId = 2;
+        List<QueryDataType> types = Arrays.asList(QueryDataType.INT, QueryDataType.VARCHAR);
+        List<Integer> columns = Arrays.asList(1, 0);
+        List<Boolean> ascs = Arrays.asList(true, false);
+
+        MergeSortReceivePlanNode node = new MergeSortReceivePlanNode(id, edgeId, types, columns, ascs, 10);
+
+        assertEquals(id, node.getId());
+        assertEquals(edgeId, node.getEdgeId());
+        assertFalse(node.isSender());
+        assertEquals(columns, node.getColumns());
+        assertEquals(ascs, node.getAscs());
+        assertEquals(10, node.getFetch());
+        assertEquals(new PlanNodeSchema(types), node.getSchema());
+    }
+
+    @Test
+    public void testEquality() {
+        int id1 = 1;
+        int id2 = 2;
+
+        int edgeId1 = 3;
+        int edgeId2 = 4;
+
+        List<QueryDataType> types1 = Arrays.asList(QueryDataType.INT, QueryDataType.VARCHAR);
+        List<QueryDataType> types2 = Arrays.asList(QueryDataType.BIGINT, QueryDataType.VARCHAR);
+
+        List<Integer> columns1 = Collections.singletonList(0);
+        List<Integer> columns2 = Collections.singletonList(1);
+
+        List<Boolean> ascs1 = Collections.singletonList(true);
+        List<Boolean> ascs2 = Collections.singletonList(false);
+
+        int fetch1 = SortPlanNode.NO_FETCH;
+        int fetch2 = 10;
+
+        MergeSortReceivePlanNode node = new MergeSortReceivePlanNode(id1, edgeId1, types1, columns1, ascs1, fetch1);
+
+        checkEquals(node, new MergeSortReceivePlanNode(id1, edgeId1, types1, columns1, ascs1, fetch1), true);
+        checkEquals(node, new MergeSortReceivePlanNode(id2, edgeId1, types1, columns1, ascs1, fetch1), false);
+        checkEquals(node, new MergeSortReceivePlanNode(id1, edgeId2, types1, columns1, ascs1, fetch1), false);
+        checkEquals(node, new MergeSortReceivePlanNode(id1, edgeId1, types2, columns1, ascs1, fetch1), false);
+        checkEquals(node, new MergeSortReceivePlanNode(id1, edgeId1, types1, columns2, ascs1, fetch1), false);
+        checkEquals(node, new MergeSortReceivePlanNode(id1, edgeId1, types1, columns1, ascs2, fetch1), false);
+        checkEquals(node, new MergeSortReceivePlanNode(id1, edgeId1, types1, columns1, ascs1, fetch2), false);
+    }
+
+    @Test
+    public void testSerialization() {
+        MergeSortReceivePlanNode original = new MergeSortReceivePlanNode(
+            1,
+            2,
+            Arrays.asList(QueryDataType.INT, QueryDataType.VARCHAR),
+            Collections.singletonList(1),
+            Collections.singletonList(false),
+            10
+        );
+
+        MergeSortReceivePlanNode restored = serializeAndCheck(original, SqlDataSerializerHook.NODE_MERGE_SORT_RECEIVE);
+
+        checkEquals(original, restored, true);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.state;
+
+import com.hazelcast.internal.util.collection.PartitionIdSet;
+import com.hazelcast.sql.SqlErrorCode;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.TestClockProvider;
+import com.hazelcast.sql.impl.exec.root.BlockingRootResultConsumer;
+import com.hazelcast.sql.impl.plan.Plan;
+import com.hazelcast.sql.impl.worker.QueryFragmentExecutable;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class QueryStateTest extends SqlTestSupport {
+
+    private final UUID localMemberId = UUID.randomUUID();
+    private final UUID remoteMemberId = UUID.randomUUID();
+
+    @Test
+    public void testInitiatorCompletion() {
+        TestQueryStateCompletionCallback completionCallback = new TestQueryStateCompletionCallback();
+        QueryState state = createInitiatorState(completionCallback);
+
+        state.onFragmentFinished();
+
+        assertTrue(completionCallback.completed);
+        assertNull(completionCallback.errorMemberIds);
+    }
+
+    @Test
+    public void testInitiatorCompletionWithAbandonedInput() {
+        TestQueryStateCompletionCallback completionCallback = new TestQueryStateCompletionCallback();
+        QueryState state = createInitiatorState(completionCallback);
+
+        state.onInputAbandoned();
+        state.onFragmentFinished();
+
+        // Remote participants are cancelled, the local result is not affected.
+        assertFalse(completionCallback.completed);
+        assertEquals(SqlErrorCode.RESULT_COMPLETE, completionCallback.errorCode);
+        assertEquals(localMemberId, completionCallback.originatingMemberId);
+        assertEquals(Collections.singleton(remoteMemberId), completionCallback.errorMemberIds);
+
+        state.checkCancelled();
+    }
+
+    @Test
+    public void testParticipantCompletionWithAbandonedInput() {
+        TestQueryStateCompletionCallback completionCallback = new TestQueryStateCompletionCallback();
+
+        QueryState state = QueryState.createDistributedState(
+            QueryId.create(remoteMemberId),
+            localMemberId,
+            completionCallback,
+            TestClockProvider.createDefault()
+        );
+
+        state.getDistributedState().onStart(Collections.singletonList(createFragment(state)));
+
+        state.onInputAbandoned();
+        state.onFragmentFinished();
+
+        assertTrue(completionCallback.completed);
+        assertNull(completionCallback.errorMemberIds);
+    }
+
+    private QueryState createInitiatorState(QueryStateCompletionCallback completionCallback) {
+        Map<UUID, PartitionIdSet> partitionMap = new HashMap<>();
+        partitionMap.put(localMemberId, new PartitionIdSet(2, Collections.singletonList(0)));
+        partitionMap.put(remoteMemberId, new PartitionIdSet(2, Collections.singletonList(1)));
+
+        Plan plan = new Plan(
+            partitionMap,
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptyMap()
+        );
+
+        QueryState state = QueryState.createInitiatorState(
+            QueryId.create(localMemberId),
+            localMemberId,
+            completionCallback,
+            0L,
+            plan,
+            new BlockingRootResultConsumer(),
+            TestClockProvider.createDefault()
+        );
+
+        state.getDistributedState().onStart(Collections.singletonList(createFragment(state)));
+
+        return state;
+    }
+
+    private static QueryFragmentExecutable createFragment(QueryState state) {
+        return new QueryFragmentExecutable(
+            state,
+            Collections.emptyList(),
+            null,
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            null,
+            null
+        );
+    }
+
+    private static class TestQueryStateCompletionCallback implements QueryStateCompletionCallback {
+
+        private boolean completed;
+        private int errorCode;
+        private UUID originatingMemberId;
+        private Collection<UUID> errorMemberIds;
+
+        @Override
+        public void onCompleted(QueryId queryId) {
+            completed = true;
+        }
+
+        @Override
+        public void onError(
+            QueryId queryId,
+            int errorCode,
+            String errorMessage,
+            UUID originatingMemberId,
+            Collection<UUID> memberIds
+        ) {
+            this.errorCode = errorCode;
+            this.originatingMemberId = originatingMemberId;
+            this.errorMemberIds = memberIds;
+        }
+    }
+}
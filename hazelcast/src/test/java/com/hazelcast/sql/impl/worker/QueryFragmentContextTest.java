@@ -55,17 +55,26 @@ public class QueryFragmentContextTest {
 
         context.checkCancelled();
         assertEquals(1, stateCallback.getCheckCancelledInvocationCount());
+
+        context.onInputAbandoned();
+        assertEquals(1, stateCallback.getInputAbandonedInvocationCount());
     }
 
     private static class TestStateCallback implements QueryStateCallback {
 
         private int checkCancelledInvocationCount;
+        private int inputAbandonedInvocationCount;
 
         @Override
         public void onFragmentFinished() {
             // No-op.
         }
 
+        @Override
+        public void onInputAbandoned() {
+            inputAbandonedInvocationCount++;
+        }
+
         @Override
         public void cancel(Exception e) {
             // No-op.
@@ -79,5 +88,9 @@ public class QueryFragmentContextTest {
         public int getCheckCancelledInvocationCount() {
             return checkCancelledInvocationCount;
         }
+
+        public int getInputAbandonedInvocationCount() {
+            return inputAbandonedInvocationCount;
+        }
     }
 }
@@ -81,6 +81,7 @@ public class QueryFragmentExecutableTest extends HazelcastTestSupport {
             exec,
             Collections.emptyMap(),
             Collections.emptyMap(),
+            createGroup(),
             pool
         );
 
@@ -104,6 +105,7 @@ public class QueryFragmentExecutableTest extends HazelcastTestSupport {
             exec,
             Collections.emptyMap(),
             Collections.emptyMap(),
+            createGroup(),
             pool
         );
 
@@ -138,6 +140,7 @@ public class QueryFragmentExecutableTest extends HazelcastTestSupport {
             exec,
             Collections.emptyMap(),
             Collections.emptyMap(),
+            createGroup(),
             pool
         );
 
@@ -180,6 +183,7 @@ public class QueryFragmentExecutableTest extends HazelcastTestSupport {
             exec,
             Collections.singletonMap(1, inboundHandler),
             Collections.emptyMap(),
+            createGroup(),
             pool
         );
 
@@ -258,6 +262,7 @@ public class QueryFragmentExecutableTest extends HazelcastTestSupport {
                 exec,
                 Collections.singletonMap(edgeId, inboundHandler),
                 Collections.singletonMap(edgeId, Collections.singletonMap(callerId, outboundHandler)),
+                createGroup(),
                 pool
             );
 
@@ -338,6 +343,7 @@ public class QueryFragmentExecutableTest extends HazelcastTestSupport {
             exec,
             Collections.emptyMap(),
             Collections.emptyMap(),
+            createGroup(),
             pool
         );
 
@@ -371,8 +377,64 @@ public class QueryFragmentExecutableTest extends HazelcastTestSupport {
         assertTrueEventually(() -> assertTrue(interruptCaught.get()));
     }
 
+    @Test
+    public void testYield() {
+        pool = createPool(2);
+
+        TestStateCallback stateCallback = new TestStateCallback();
+        TestExec exec = new TestExec();
+
+        QueryFragmentExecutable fragmentExecutable = new QueryFragmentExecutable(
+            stateCallback,
+            Collections.emptyList(),
+            exec,
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            createGroup(),
+            pool
+        );
+
+        // The first call fits into the quantum, the second one exhausts it. The fragment is re-submitted without external
+        // triggers until it completes.
+        exec.setPayload(() -> {
+            if (exec.getAdvanceInvocationCount() == 3) {
+                return IterationResult.FETCHED_DONE;
+            }
+
+            assertFalse(fragmentExecutable.shouldYield(1));
+            assertTrue(fragmentExecutable.shouldYield(1));
+
+            return IterationResult.WAIT;
+        });
+
+        assertTrue(fragmentExecutable.schedule());
+
+        assertTrueEventually(() -> assertEquals(1, stateCallback.getFragmentFinishedInvocationCount()));
+        assertEquals(3, exec.getAdvanceInvocationCount());
+        assertEquals(2, pool.getMetrics().getYields());
+    }
+
     private QueryFragmentWorkerPool createPool() {
-        return new QueryFragmentWorkerPool("instance", 4, new NoLogFactory().getLogger("logger"));
+        return createPool(Integer.MAX_VALUE);
+    }
+
+    private QueryFragmentWorkerPool createPool(int quantumRows) {
+        QueryFragmentWorkerPool pool = new QueryFragmentWorkerPool(
+            "instance",
+            4,
+            Long.MAX_VALUE,
+            quantumRows,
+            Long.MAX_VALUE,
+            new NoLogFactory().getLogger("logger")
+        );
+
+        pool.start();
+
+        return pool;
+    }
+
+    private static QueryFragmentGroup createGroup() {
+        return new QueryFragmentGroup(QueryId.create(UUID.randomUUID()));
     }
 
     private interface ExecPayload {
@@ -463,6 +525,11 @@ public class QueryFragmentExecutableTest extends HazelcastTestSupport {
             fragmentFinishedInvocationCount++;
         }
 
+        @Override
+        public void onInputAbandoned() {
+            // No-op.
+        }
+
         @Override
         public void cancel(Exception e) {
             cancelException = e;
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.worker;
+
+import com.hazelcast.logging.NoLogFactory;
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.QueryId;
+import com.hazelcast.sql.impl.SqlTestSupport;
+import com.hazelcast.sql.impl.exec.AbstractExec;
+import com.hazelcast.sql.impl.exec.IterationResult;
+import com.hazelcast.sql.impl.row.RowBatch;
+import com.hazelcast.sql.impl.state.QueryStateCallback;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class QueryFragmentWorkerPoolTest extends SqlTestSupport {
+
+    private QueryFragmentWorkerPool pool;
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @After
+    public void after() {
+        if (pool != null) {
+            pool.stop();
+
+            pool = null;
+        }
+    }
+
+    @Test
+    public void testRoundRobinBetweenQueries() throws Exception {
+        pool = createPool(Long.MAX_VALUE);
+
+        CountDownLatch blockLatch = block();
+
+        QueryFragmentGroup group1 = createGroup();
+        QueryFragmentGroup group2 = createGroup();
+
+        createFragment("1a", group1).schedule();
+        createFragment("1b", group1).schedule();
+        createFragment("1c", group1).schedule();
+        createFragment("2a", group2).schedule();
+
+        blockLatch.countDown();
+
+        assertTrueEventually(() -> assertEquals(Arrays.asList("1a", "2a", "1b", "1c"), executed));
+    }
+
+    @Test
+    public void testShortQueriesArePreferred() throws Exception {
+        pool = createPool(Long.MAX_VALUE);
+
+        QueryFragmentGroup longGroup = createGroup();
+        setLong(longGroup);
+
+        CountDownLatch blockLatch = block(longGroup);
+
+        createFragment("L1", longGroup).schedule();
+        createFragment("L2", longGroup).schedule();
+
+        for (int i = 1; i <= 6; i++) {
+            createFragment("S" + i, createGroup()).schedule();
+        }
+
+        blockLatch.countDown();
+
+        // Long queries are not starved.
+        assertTrueEventually(() -> assertEquals(
+            Arrays.asList("S1", "S2", "S3", "S4", "L1", "S5", "S6", "L2"),
+            executed
+        ));
+
+        assertEquals(6, pool.getMetrics().getShortExecutions());
+        assertEquals(3, pool.getMetrics().getLongExecutions());
+    }
+
+    @Test
+    public void testDemotion() {
+        pool = createPool(1);
+
+        QueryFragmentGroup group = createGroup();
+        assertFalse(group.isLongQuery());
+
+        createFragment("1", group).schedule();
+
+        assertTrueEventually(() -> assertEquals(1, pool.getMetrics().getQueriesDemoted()));
+        assertTrue(group.isLongQuery());
+        assertTrue(group.getExecutionTime() > 0);
+        assertEquals(1, pool.getMetrics().getShortExecutions());
+        assertEquals(0, pool.getMetrics().getLongExecutions());
+
+        createFragment("2", group).schedule();
+
+        assertTrueEventually(() -> assertEquals(1, pool.getMetrics().getLongExecutions()));
+        assertEquals(1, pool.getMetrics().getQueriesDemoted());
+    }
+
+    @Test
+    public void testStop() throws Exception {
+        pool = createPool(Long.MAX_VALUE);
+
+        block();
+
+        TestStateCallback stateCallback = new TestStateCallback();
+
+        new QueryFragmentExecutable(
+            stateCallback,
+            Collections.emptyList(),
+            new TestExec(() -> executed.add("1")),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            createGroup(),
+            pool
+        ).schedule();
+
+        pool.stop();
+
+        // Queued fragments are cancelled rather than dropped, and the blocked worker is interrupted and awaited.
+        assertTrue(stateCallback.cancelError instanceof QueryException);
+        assertTrue(executed.isEmpty());
+        assertTrue(pool.isThreadsTerminated());
+    }
+
+    @Test
+    public void testSubmitAfterStop() {
+        pool = createPool(Long.MAX_VALUE);
+
+        pool.stop();
+
+        TestStateCallback stateCallback = new TestStateCallback();
+
+        new QueryFragmentExecutable(
+            stateCallback,
+            Collections.emptyList(),
+            new TestExec(() -> executed.add("1")),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            createGroup(),
+            pool
+        ).schedule();
+
+        // The fragment is cancelled rather than silently dropped, so that the query does not hang.
+        assertTrue(stateCallback.cancelError instanceof QueryException);
+        assertTrue(executed.isEmpty());
+    }
+
+    /**
+     * Occupy the only worker thread, so that subsequent fragments are queued.
+     *
+     * @return Latch to release the thread.
+     */
+    private CountDownLatch block() throws InterruptedException {
+        return block(createGroup());
+    }
+
+    private CountDownLatch block(QueryFragmentGroup group) throws InterruptedException {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch blockLatch = new CountDownLatch(1);
+
+        new QueryFragmentExecutable(
+            new TestStateCallback(),
+            Collections.emptyList(),
+            new TestExec(() -> {
+                startLatch.countDown();
+                blockLatch.await();
+            }),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            group,
+            pool
+        ).schedule();
+
+        startLatch.await();
+
+        return blockLatch;
+    }
+
+    private QueryFragmentExecutable createFragment(String name, QueryFragmentGroup group) {
+        return new QueryFragmentExecutable(
+            new TestStateCallback(),
+            Collections.emptyList(),
+            new TestExec(() -> executed.add(name)),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            group,
+            pool
+        );
+    }
+
+    private static QueryFragmentWorkerPool createPool(long longQueryThreshold) {
+        QueryFragmentWorkerPool pool = new QueryFragmentWorkerPool(
+            "instance",
+            1,
+            Long.MAX_VALUE,
+            Integer.MAX_VALUE,
+            longQueryThreshold,
+            new NoLogFactory().getLogger("logger")
+        );
+
+        pool.start();
+
+        return pool;
+    }
+
+    private static QueryFragmentGroup createGroup() {
+        return new QueryFragmentGroup(QueryId.create(UUID.randomUUID()));
+    }
+
+    private static void setLong(QueryFragmentGroup group) {
+        assertTrue(group.onExecuted(1, 1));
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static class TestExec extends AbstractExec {
+
+        private final Action action;
+
+        private TestExec(Action action) {
+            super(1);
+
+            this.action = action;
+        }
+
+        @Override
+        protected IterationResult advance0() {
+            try {
+                action.run();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+
+            return IterationResult.FETCHED_DONE;
+        }
+
+        @Override
+        protected RowBatch currentBatch0() {
+            return null;
+        }
+    }
+
+    private static class TestStateCallback implements QueryStateCallback {
+
+        private volatile Exception cancelError;
+
+        @Override
+        public void onFragmentFinished() {
+            // No-op.
+        }
+
+        @Override
+        public void onInputAbandoned() {
+            // No-op.
+        }
+
+        @Override
+        public void cancel(Exception e) {
+            cancelError = e;
+        }
+
+        @Override
+        public void checkCancelled() {
+            // No-op.
+        }
+    }
+}
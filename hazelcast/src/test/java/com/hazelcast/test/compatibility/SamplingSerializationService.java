@@ -22,10 +22,12 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.PortableContext;
 import com.hazelcast.internal.nio.BufferObjectDataInput;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.nio.StringRanges;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.DataType;
+import com.hazelcast.nio.serialization.CompactReader;
 import com.hazelcast.nio.serialization.PortableReader;
 import com.hazelcast.test.TestEnvironment;
 
@@ -118,6 +120,13 @@ public class SamplingSerializationService implements InternalSerializationServic
         return bytes;
     }
 
+    @Override
+    public byte[] toBytes(Object obj, StringRanges stringRanges) {
+        byte[] bytes = delegate.toBytes(obj, stringRanges);
+        sampleObject(obj, bytes);
+        return bytes;
+    }
+
     @Override
     public <B extends Data> B toData(Object obj, DataType type) {
         return toData(obj);
@@ -174,6 +183,11 @@ public class SamplingSerializationService implements InternalSerializationServic
         return delegate.getPortableContext();
     }
 
+    @Override
+    public CompactReader createCompactReader(Data data) throws IOException {
+        return delegate.createCompactReader(data);
+    }
+
     @Override
     public void disposeData(Data data) {
         delegate.disposeData(data);